@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.micro;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Attribute reads on instances ({@code GetAttributeNode}) and lookups that walk the MRO
+ * ({@code LookupAttributeInMRONode}).
+ */
+public class AttributeLookup extends MicroBenchRunner {
+
+    @Override
+    protected String getSource() {
+        return "class Base:\n" +
+                        "    class_attr = 1\n" +
+                        "\n" +
+                        "    def method(self):\n" +
+                        "        return 1\n" +
+                        "\n" +
+                        "\n" +
+                        "class Middle(Base):\n" +
+                        "    pass\n" +
+                        "\n" +
+                        "\n" +
+                        "class Leaf(Middle):\n" +
+                        "    def __init__(self):\n" +
+                        "        self.a = 1\n" +
+                        "        self.b = 2\n" +
+                        "\n" +
+                        "\n" +
+                        "def instance_attribute(n):\n" +
+                        "    o = Leaf()\n" +
+                        "    s = 0\n" +
+                        "    for i in range(n):\n" +
+                        "        s += o.a + o.b\n" +
+                        "    return s\n" +
+                        "\n" +
+                        "\n" +
+                        "def mro_attribute(n):\n" +
+                        "    o = Leaf()\n" +
+                        "    s = 0\n" +
+                        "    for i in range(n):\n" +
+                        "        s += o.class_attr + Leaf.class_attr\n" +
+                        "    return s\n" +
+                        "\n" +
+                        "\n" +
+                        "def method_call(n):\n" +
+                        "    o = Leaf()\n" +
+                        "    s = 0\n" +
+                        "    for i in range(n):\n" +
+                        "        s += o.method()\n" +
+                        "    return s\n" +
+                        "\n" +
+                        "\n" +
+                        "def attribute_store(n):\n" +
+                        "    o = Leaf()\n" +
+                        "    for i in range(n):\n" +
+                        "        o.a = i\n" +
+                        "        o.b = o.a\n" +
+                        "    return o.b\n";
+    }
+
+    @Benchmark
+    public Object instanceAttribute() {
+        return run("instance_attribute");
+    }
+
+    @Benchmark
+    public Object mroAttribute() {
+        return run("mro_attribute");
+    }
+
+    @Benchmark
+    public Object methodCall() {
+        return run("method_call");
+    }
+
+    @Benchmark
+    public Object attributeStore() {
+        return run("attribute_store");
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.micro;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Tight loops of simple operations that stress the dispatch of the bytecode interpreter rather
+ * than any particular operation.
+ */
+public class BytecodeDispatch extends MicroBenchRunner {
+
+    @Override
+    protected String getSource() {
+        return "def arithmetic(n):\n" +
+                        "    a = 0\n" +
+                        "    b = 1\n" +
+                        "    for i in range(n):\n" +
+                        "        a = (a + i * b) % 1000003\n" +
+                        "        b = b ^ i\n" +
+                        "    return a\n" +
+                        "\n" +
+                        "\n" +
+                        "def branches(n):\n" +
+                        "    i = 0\n" +
+                        "    s = 0\n" +
+                        "    while i < n:\n" +
+                        "        if i & 1:\n" +
+                        "            s += i\n" +
+                        "        elif i & 2:\n" +
+                        "            s -= 1\n" +
+                        "        else:\n" +
+                        "            s ^= i\n" +
+                        "        i += 1\n" +
+                        "    return s\n" +
+                        "\n" +
+                        "\n" +
+                        "def locals_and_tuples(n):\n" +
+                        "    x, y, z = 1, 2, 3\n" +
+                        "    for i in range(n):\n" +
+                        "        x, y, z = y, z, x\n" +
+                        "    return x + y + z\n";
+    }
+
+    @Benchmark
+    public Object arithmetic() {
+        return run("arithmetic");
+    }
+
+    @Benchmark
+    public Object branches() {
+        return run("branches");
+    }
+
+    @Benchmark
+    public Object localsAndTuples() {
+        return run("locals_and_tuples");
+    }
+}
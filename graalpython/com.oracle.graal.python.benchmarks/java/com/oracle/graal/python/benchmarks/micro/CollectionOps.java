@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.micro;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Element access and updates of dicts and lists.
+ */
+public class CollectionOps extends MicroBenchRunner {
+
+    @Override
+    protected String getSource() {
+        return "KEYS = [str(i) for i in range(1024)]\n" +
+                        "\n" +
+                        "\n" +
+                        "def dict_int_keys(n):\n" +
+                        "    d = {}\n" +
+                        "    s = 0\n" +
+                        "    for i in range(n):\n" +
+                        "        d[i & 1023] = i\n" +
+                        "        s += d[i & 1023]\n" +
+                        "    return s\n" +
+                        "\n" +
+                        "\n" +
+                        "def dict_str_keys(n):\n" +
+                        "    d = dict.fromkeys(KEYS, 0)\n" +
+                        "    keys = KEYS\n" +
+                        "    for i in range(n):\n" +
+                        "        d[keys[i & 1023]] += 1\n" +
+                        "    return len(d)\n" +
+                        "\n" +
+                        "\n" +
+                        "def list_append_pop(n):\n" +
+                        "    lst = []\n" +
+                        "    for i in range(n):\n" +
+                        "        lst.append(i)\n" +
+                        "        if len(lst) > 1024:\n" +
+                        "            lst.pop()\n" +
+                        "    return len(lst)\n" +
+                        "\n" +
+                        "\n" +
+                        "def list_index(n):\n" +
+                        "    lst = list(range(1024))\n" +
+                        "    s = 0\n" +
+                        "    for i in range(n):\n" +
+                        "        s += lst[i & 1023]\n" +
+                        "        lst[i & 1023] = i\n" +
+                        "    return s\n";
+    }
+
+    @Benchmark
+    public Object dictIntKeys() {
+        return run("dict_int_keys");
+    }
+
+    @Benchmark
+    public Object dictStrKeys() {
+        return run("dict_str_keys");
+    }
+
+    @Benchmark
+    public Object listAppendPop() {
+        return run("list_append_pop");
+    }
+
+    @Benchmark
+    public Object listIndex() {
+        return run("list_index");
+    }
+}
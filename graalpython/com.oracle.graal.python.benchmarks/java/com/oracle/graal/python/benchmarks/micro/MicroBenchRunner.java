@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.micro;
+
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import com.oracle.graal.python.benchmarks.interop.BenchOutputFormat;
+
+/**
+ * Base class of the JMH micro benchmarks for interpreter hot paths. Each benchmark class provides
+ * Python source defining functions that take an iteration count and exercise one path in a loop.
+ * The benchmark methods call one of those functions per JMH invocation.
+ *
+ * The {@code mode} parameter selects whether the code runs with Truffle compilation
+ * ({@value #MODE_COMPILED}) or in the interpreter only ({@value #MODE_INTERPRETER}).
+ *
+ * Usage: {@code MicroBenchRunner <name> <benchmark regex> [-i <iterations>] [-w <warmup>]
+ * [-n <loop count>] [-interpreter]}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = MicroBenchRunner.WARMUP_ITERATIONS)
+@Measurement(iterations = MicroBenchRunner.MEASUREMENT_ITERATIONS)
+public abstract class MicroBenchRunner {
+
+    public static final int MEASUREMENT_ITERATIONS = 10;
+    public static final int WARMUP_ITERATIONS = 10;
+    public static final String LOOP_COUNT = "1000000";
+
+    public static final String MODE_COMPILED = "compiled";
+    public static final String MODE_INTERPRETER = "interpreter";
+
+    @Param({MODE_COMPILED}) public String mode;
+    @Param({LOOP_COUNT}) public int loopCount;
+
+    private Context context;
+    private Value bindings;
+
+    protected abstract String getSource();
+
+    @Setup
+    public void setup() {
+        Context.Builder builder = Context.newBuilder("python").allowExperimentalOptions(true);
+        if (MODE_INTERPRETER.equals(mode)) {
+            builder.option("engine.Compilation", "false");
+        } else if (!MODE_COMPILED.equals(mode)) {
+            throw new IllegalArgumentException("unknown mode " + mode);
+        }
+        context = builder.build();
+        context.eval("python", getSource());
+        bindings = context.getBindings("python");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Calls the Python function {@code name} with the loop count.
+     */
+    protected final Value run(String name) {
+        return bindings.getMember(name).execute(loopCount);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        assert args.length > 1;
+        String benchName = args[0];
+        String benchRegex = args[1];
+        int iter = MEASUREMENT_ITERATIONS;
+        int warmup = WARMUP_ITERATIONS;
+        String loopCount = LOOP_COUNT;
+        String mode = MODE_COMPILED;
+        for (int i = 2; i < args.length; i++) {
+            final String arg = args[i];
+            if (arg.contentEquals("-i")) {
+                i++;
+                iter = Integer.valueOf(args[i]);
+            } else if (arg.contentEquals("-w")) {
+                i++;
+                warmup = Integer.valueOf(args[i]);
+            } else if (arg.contentEquals("-n")) {
+                i++;
+                loopCount = args[i];
+            } else if (arg.contentEquals("-interpreter")) {
+                mode = MODE_INTERPRETER;
+            } else {
+                throw new IllegalArgumentException("unknown argument " + arg);
+            }
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().include(benchRegex);
+        options = options.warmupIterations(warmup).measurementIterations(iter);
+        options = options.param("mode", mode).param("loopCount", loopCount);
+        new Runner(options.forks(1).build(), new BenchOutputFormat(System.out, VerboseMode.SILENT, benchName)).run();
+    }
+}
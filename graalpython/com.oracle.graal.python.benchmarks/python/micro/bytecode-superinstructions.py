@@ -1,4 +1,4 @@
-# Copyright (c) 2020, 2022, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -37,34 +37,47 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
-def __initialize__(owner_globals):
-    delegate_attrs = ['Struct', 'StructError', '_clearcache', 'calcsize', 'error', 'iter_unpack', 'pack',
-                          'pack_into', 'unpack', 'unpack_from']
-    res = True
-    for x in delegate_attrs:
-        if x not in owner_globals:
-            res = False
-            break
+"""Loops dominated by the instruction sequences that are fused into superinstructions:
+LOAD_FAST/LOAD_FAST/BINARY_OP, LOAD_FAST/LOAD_ATTR and a comparison followed by
+POP_AND_JUMP_IF_FALSE. Compare the interpreter-only configuration with and without
+--python.BytecodeSuperinstructions to see the effect on first-tier throughput."""
 
-    if not res:
-        __graalpython__.import_current_as_named_module_with_delegate(
-            module_name="_struct",
-            delegate_name="_cpython_struct",
-            delegate_attributes=delegate_attrs,
-            on_import_error={
-                # Just enough to make zipfile and six import successfully, but raise the
-                # original import error when someone tries to use the Struct object
-                "__all__": ["calcsize", "Struct"],
-                "_clearcache": lambda: None,
-                "__doc__": "Fake _struct",
-                "calcsize": lambda _: 8,
-                "Struct": type("Struct", (), {
-                    "__init__": lambda self, _: None,
-                    "__getattr__": lambda self, attr: (lambda *args: __import__("_cpython_struct"))
-                })
-            },
-            owner_globals=owner_globals)
 
-__initialize__(globals())
+class Point:
+    def __init__(self, x, y):
+        self.x = x
+        self.y = y
 
-del __initialize__
+
+def int_loop(n):
+    i = 0
+    total = 0
+    while i < n:
+        total = total + i
+        i = i + 1
+    return total
+
+
+def float_loop(n):
+    x = 0.0
+    step = 0.5
+    limit = n * 0.5
+    while x < limit:
+        x = x + step
+    return x
+
+
+def attr_loop(points):
+    total = 0
+    for p in points:
+        total += p.x
+        total += p.y
+    return total
+
+
+def __benchmark__(num=1_000_000):
+    points = [Point(i, -i) for i in range(1000)]
+    assert int_loop(num) == num * (num - 1) // 2
+    assert float_loop(num) == num * 0.5
+    for _ in range(num // 1000):
+        assert attr_loop(points) == 0
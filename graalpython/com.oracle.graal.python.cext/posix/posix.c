@@ -74,6 +74,7 @@
 #include <sys/mman.h>
 #include <unistd.h>
 #include <pwd.h>
+#include <poll.h>
 
 
 int64_t call_getpid() {
@@ -204,6 +205,28 @@ int32_t call_select(int32_t nfds, int32_t* readfds, int32_t readfdsLen,
     return (int32_t) result;
 }
 
+// fds, events and revents are arrays of length nfds, revents is an output parameter
+int32_t call_poll(int32_t* fds, int32_t* events, int32_t* revents, int32_t nfds, int32_t timeout) {
+    struct pollfd *pollfds = (struct pollfd *) malloc(sizeof(struct pollfd) * (nfds > 0 ? nfds : 1));
+    if (pollfds == NULL) {
+        errno = ENOMEM;
+        return -1;
+    }
+    for (int32_t i = 0; i < nfds; ++i) {
+        pollfds[i].fd = fds[i];
+        pollfds[i].events = (short) events[i];
+        pollfds[i].revents = 0;
+    }
+    int result = poll(pollfds, (nfds_t) nfds, timeout);
+    int saved_errno = errno;
+    for (int32_t i = 0; i < nfds; ++i) {
+        revents[i] = pollfds[i].revents;
+    }
+    free(pollfds);
+    errno = saved_errno;
+    return (int32_t) result;
+}
+
 int64_t call_lseek(int32_t fd, int64_t offset, int32_t whence) {
     return lseek(fd, offset, whence);
 }
@@ -426,7 +426,6 @@ builtin_exts = (
     NativeBuiltinModule("_cpython_sre"),
     NativeBuiltinModule("_cpython_unicodedata"),
     NativeBuiltinModule("_mmap"),
-    NativeBuiltinModule("_cpython_struct"),
     NativeBuiltinModule("_testcapi"),
     NativeBuiltinModule("_testmultiphase"),
     NativeBuiltinModule("_ctypes_test"),
@@ -592,6 +591,15 @@ def build(capi_home):
                                 libname="liblzmasupport",
                                 deps=[LZMADepedency("lzma", "xz==5.2.6", "XZ-5.2.6")],
                                 extra_link_args=["-Wl,-rpath,%s/lib/%s/" % (relative_rpath, SOABI)])
+        try:
+            build_nativelibsupport(capi_home,
+                                    subdir="sqlite3",
+                                    libname="libsqlite3support",
+                                    libs=['sqlite3'])
+        except SystemExit:
+            # the sqlite3 headers are not installed everywhere, _sqlite3 can still be imported
+            # but connect() will raise NotSupportedError
+            logger.warning("Could not build libsqlite3support, sqlite3.connect() will not be supported")
         build_libpython(capi_home)
         build_builtin_exts(capi_home)
     finally:
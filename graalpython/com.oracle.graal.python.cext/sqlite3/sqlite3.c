@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * Thin wrapper around the SQLite C API used by the _sqlite3 module via NFI.
+ * See cpython/Modules/_sqlite/ for the reference implementation.
+ *
+ * Strings are passed as UTF-8 byte buffers with explicit lengths, because SQL
+ * text and values may contain NUL characters and NFI copies managed arrays in
+ * and out of native memory around each call. Functions that need to return more
+ * than one value write them into a caller-provided int32_t array.
+ */
+
+#include <stdint.h>
+#include <string.h>
+
+#include "sqlite3.h"
+
+// nfi_function: name('libversion')
+const char *sqlite_libversion() {
+    return sqlite3_libversion();
+}
+
+// nfi_function: name('complete')
+int sqlite_complete(const char *sql) {
+    return sqlite3_complete(sql);
+}
+
+// nfi_function: name('open') map('sqlite3*', 'POINTER') map('int32_t*', '[SINT32]')
+sqlite3 *sqlite_open(const char *filename, int flags, int timeout_ms, int32_t *rc) {
+    sqlite3 *db = NULL;
+    rc[0] = sqlite3_open_v2(filename, &db, flags, NULL);
+    if (db != NULL) {
+        sqlite3_busy_timeout(db, timeout_ms);
+    }
+    return db;
+}
+
+// nfi_function: name('close') map('sqlite3*', 'POINTER')
+int sqlite_close(sqlite3 *db) {
+    return sqlite3_close_v2(db);
+}
+
+// nfi_function: name('interrupt') map('sqlite3*', 'POINTER')
+void sqlite_interrupt(sqlite3 *db) {
+    sqlite3_interrupt(db);
+}
+
+// nfi_function: name('errmsg') map('sqlite3*', 'POINTER')
+const char *sqlite_errmsg(sqlite3 *db) {
+    return sqlite3_errmsg(db);
+}
+
+// nfi_function: name('errcode') map('sqlite3*', 'POINTER')
+int sqlite_errcode(sqlite3 *db) {
+    return sqlite3_errcode(db);
+}
+
+// nfi_function: name('changes') map('sqlite3*', 'POINTER')
+int sqlite_changes(sqlite3 *db) {
+    return sqlite3_changes(db);
+}
+
+// nfi_function: name('totalChanges') map('sqlite3*', 'POINTER')
+int sqlite_total_changes(sqlite3 *db) {
+    return sqlite3_total_changes(db);
+}
+
+// nfi_function: name('lastInsertRowid') map('sqlite3*', 'POINTER')
+int64_t sqlite_last_insert_rowid(sqlite3 *db) {
+    return sqlite3_last_insert_rowid(db);
+}
+
+// nfi_function: name('getAutocommit') map('sqlite3*', 'POINTER')
+int sqlite_get_autocommit(sqlite3 *db) {
+    return sqlite3_get_autocommit(db);
+}
+
+/*
+ * Compiles the first statement of sql[offset:len]. Writes the result code to
+ * out[0] and the offset of the first byte after the statement to out[1]. The
+ * returned statement is NULL if the remainder is empty or only a comment.
+ */
+// nfi_function: name('prepare') map('sqlite3*', 'POINTER') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]') map('int32_t*', '[SINT32]')
+sqlite3_stmt *sqlite_prepare(sqlite3 *db, const uint8_t *sql, int len, int offset, int32_t *out) {
+    sqlite3_stmt *stmt = NULL;
+    const char *start = (const char *) sql;
+    const char *tail = start + offset;
+    out[0] = sqlite3_prepare_v2(db, start + offset, len - offset, &stmt, &tail);
+    out[1] = (int32_t) (tail - start);
+    return stmt;
+}
+
+// nfi_function: name('finalize') map('sqlite3_stmt*', 'POINTER')
+int sqlite_finalize(sqlite3_stmt *stmt) {
+    return sqlite3_finalize(stmt);
+}
+
+// nfi_function: name('reset') map('sqlite3_stmt*', 'POINTER')
+int sqlite_reset(sqlite3_stmt *stmt) {
+    return sqlite3_reset(stmt);
+}
+
+// nfi_function: name('clearBindings') map('sqlite3_stmt*', 'POINTER')
+int sqlite_clear_bindings(sqlite3_stmt *stmt) {
+    return sqlite3_clear_bindings(stmt);
+}
+
+// nfi_function: name('stmtReadonly') map('sqlite3_stmt*', 'POINTER')
+int sqlite_stmt_readonly(sqlite3_stmt *stmt) {
+    return sqlite3_stmt_readonly(stmt);
+}
+
+// nfi_function: name('step') map('sqlite3_stmt*', 'POINTER')
+int sqlite_step(sqlite3_stmt *stmt) {
+    return sqlite3_step(stmt);
+}
+
+// nfi_function: name('bindParameterCount') map('sqlite3_stmt*', 'POINTER')
+int sqlite_bind_parameter_count(sqlite3_stmt *stmt) {
+    return sqlite3_bind_parameter_count(stmt);
+}
+
+// nfi_function: name('bindParameterName') map('sqlite3_stmt*', 'POINTER')
+const char *sqlite_bind_parameter_name(sqlite3_stmt *stmt, int i) {
+    const char *name = sqlite3_bind_parameter_name(stmt, i);
+    return name != NULL ? name : "";
+}
+
+// nfi_function: name('bindNull') map('sqlite3_stmt*', 'POINTER')
+int sqlite_bind_null(sqlite3_stmt *stmt, int i) {
+    return sqlite3_bind_null(stmt, i);
+}
+
+// nfi_function: name('bindInt64') map('sqlite3_stmt*', 'POINTER')
+int sqlite_bind_int64(sqlite3_stmt *stmt, int i, int64_t value) {
+    return sqlite3_bind_int64(stmt, i, value);
+}
+
+// nfi_function: name('bindDouble') map('sqlite3_stmt*', 'POINTER')
+int sqlite_bind_double(sqlite3_stmt *stmt, int i, double value) {
+    return sqlite3_bind_double(stmt, i, value);
+}
+
+// nfi_function: name('bindText') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]')
+int sqlite_bind_text(sqlite3_stmt *stmt, int i, const uint8_t *data, int len) {
+    return sqlite3_bind_text(stmt, i, (const char *) data, len, SQLITE_TRANSIENT);
+}
+
+// nfi_function: name('bindBlob') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]')
+int sqlite_bind_blob(sqlite3_stmt *stmt, int i, const uint8_t *data, int len) {
+    return sqlite3_bind_blob(stmt, i, data, len, SQLITE_TRANSIENT);
+}
+
+// nfi_function: name('columnCount') map('sqlite3_stmt*', 'POINTER')
+int sqlite_column_count(sqlite3_stmt *stmt) {
+    return sqlite3_column_count(stmt);
+}
+
+// nfi_function: name('columnName') map('sqlite3_stmt*', 'POINTER')
+const char *sqlite_column_name(sqlite3_stmt *stmt, int i) {
+    const char *name = sqlite3_column_name(stmt, i);
+    return name != NULL ? name : "";
+}
+
+// nfi_function: name('columnDecltype') map('sqlite3_stmt*', 'POINTER')
+const char *sqlite_column_decltype(sqlite3_stmt *stmt, int i) {
+    const char *decltype = sqlite3_column_decltype(stmt, i);
+    return decltype != NULL ? decltype : "";
+}
+
+// nfi_function: name('columnType') map('sqlite3_stmt*', 'POINTER')
+int sqlite_column_type(sqlite3_stmt *stmt, int i) {
+    return sqlite3_column_type(stmt, i);
+}
+
+// nfi_function: name('columnInt64') map('sqlite3_stmt*', 'POINTER')
+int64_t sqlite_column_int64(sqlite3_stmt *stmt, int i) {
+    return sqlite3_column_int64(stmt, i);
+}
+
+// nfi_function: name('columnDouble') map('sqlite3_stmt*', 'POINTER')
+double sqlite_column_double(sqlite3_stmt *stmt, int i) {
+    return sqlite3_column_double(stmt, i);
+}
+
+/*
+ * Returns the size in bytes of the column as text (UTF-8) or as blob. The
+ * value must then be copied with the matching sqlite_column_copy_* function
+ * before any other call on the statement, since SQLite may convert it.
+ */
+// nfi_function: name('columnTextBytes') map('sqlite3_stmt*', 'POINTER')
+int sqlite_column_text_bytes(sqlite3_stmt *stmt, int i) {
+    sqlite3_column_text(stmt, i);
+    return sqlite3_column_bytes(stmt, i);
+}
+
+// nfi_function: name('columnBlobBytes') map('sqlite3_stmt*', 'POINTER')
+int sqlite_column_blob_bytes(sqlite3_stmt *stmt, int i) {
+    sqlite3_column_blob(stmt, i);
+    return sqlite3_column_bytes(stmt, i);
+}
+
+// nfi_function: name('columnCopyText') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]')
+void sqlite_column_copy_text(sqlite3_stmt *stmt, int i, uint8_t *dest, int len) {
+    const unsigned char *text = sqlite3_column_text(stmt, i);
+    if (text != NULL && len > 0) {
+        memcpy(dest, text, len);
+    }
+}
+
+// nfi_function: name('columnCopyBlob') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]')
+void sqlite_column_copy_blob(sqlite3_stmt *stmt, int i, uint8_t *dest, int len) {
+    const void *blob = sqlite3_column_blob(stmt, i);
+    if (blob != NULL && len > 0) {
+        memcpy(dest, blob, len);
+    }
+}
@@ -57,6 +57,7 @@ import org.junit.rules.TestName;
 import com.oracle.graal.python.compiler.CodeUnit;
 import com.oracle.graal.python.compiler.CompilationUnit;
 import com.oracle.graal.python.compiler.Compiler;
+import com.oracle.graal.python.compiler.OpCodes;
 import com.oracle.graal.python.pegparser.ErrorCallback;
 import com.oracle.graal.python.pegparser.InputType;
 import com.oracle.graal.python.pegparser.Parser;
@@ -1003,6 +1004,32 @@ public class CompilerTests extends PythonTests {
         checkSyntaxErrorMessage("class C: yield 1", "'yield' outside function");
     }
 
+    @Test
+    public void testSuperinstructions() {
+        String src = "def f(a, b):\n" +
+                        "  while a < b:\n" +
+                        "    a = a + b\n" +
+                        "  return a.real\n";
+        CodeUnit module = assemble(src, InputType.FILE, EnumSet.of(Compiler.Flags.SUPERINSTRUCTIONS));
+        CodeUnit function = null;
+        for (Object constant : module.constants) {
+            if (constant instanceof CodeUnit) {
+                function = (CodeUnit) constant;
+            }
+        }
+        Assert.assertNotNull(function);
+        EnumSet<OpCodes> opcodes = EnumSet.noneOf(OpCodes.class);
+        function.iterateBytecode((bci, op, oparg, followingArgs) -> opcodes.add(op));
+        Assert.assertTrue(opcodes.contains(OpCodes.LOAD_FAST_LOAD_FAST));
+        Assert.assertTrue(opcodes.contains(OpCodes.BINARY_OP_POP_AND_JUMP_IF_FALSE));
+        Assert.assertTrue(opcodes.contains(OpCodes.LOAD_FAST_LOAD_ATTR));
+        // the fused instructions stay in place
+        Assert.assertTrue(opcodes.contains(OpCodes.LOAD_FAST));
+        Assert.assertTrue(opcodes.contains(OpCodes.BINARY_OP));
+        Assert.assertTrue(opcodes.contains(OpCodes.POP_AND_JUMP_IF_FALSE));
+        Assert.assertTrue(opcodes.contains(OpCodes.LOAD_ATTR));
+    }
+
     private void doTest(String src) {
         doTest(src, InputType.FILE);
     }
@@ -1022,11 +1049,15 @@ public class CompilerTests extends PythonTests {
     }
 
     private static CodeUnit assemble(String src, InputType type) {
+        return assemble(src, type, EnumSet.noneOf(Compiler.Flags.class));
+    }
+
+    private static CodeUnit assemble(String src, InputType type, EnumSet<Compiler.Flags> flags) {
         ErrorCallback errorCallback = new TestErrorCallbackImpl();
         Parser parser = Compiler.createParser(src, errorCallback, type, false);
         ModTy result = (ModTy) parser.parse();
         Compiler compiler = new Compiler(errorCallback);
-        CompilationUnit cu = compiler.compile(result, EnumSet.noneOf(Compiler.Flags.class), 2);
+        CompilationUnit cu = compiler.compile(result, flags, 2);
         return cu.assemble();
     }
 
@@ -52,6 +52,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -68,6 +69,7 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
 
 public class ObjectHashMapTests {
     public static final class DictKey implements TruffleObject {
@@ -179,6 +181,49 @@ public class ObjectHashMapTests {
         }
     }
 
+    @Test
+    public void testConcurrentReads() throws InterruptedException {
+        ObjectHashMap map = new ObjectHashMap();
+        map.enableConcurrentReads();
+        LinkedHashMap<Long, Object> expected = new LinkedHashMap<>();
+        putValues(map, expected, new Random(42), 200);
+        Long[] stableKeys = expected.keySet().toArray(new Long[0]);
+        for (Long key : stableKeys) {
+            assertEquals(expected.get(key), getConcurrent(map, key));
+        }
+        assertNull(getConcurrent(map, 42L));
+
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                for (int iter = 0; iter < 200; iter++) {
+                    for (Long key : stableKeys) {
+                        Object value = getConcurrent(map, key);
+                        if (value != ObjectHashMap.NEEDS_GIL && value != expected.get(key)) {
+                            failed.set(true);
+                        }
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        // the writer triggers insertions, removals, compactions and rehashing of other keys
+        Random rand = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            long key = rand.nextLong();
+            if (!expected.containsKey(key)) {
+                put(map, key, PyObjectHashNode.hash(key), newValue());
+                remove(map, key, PyObjectHashNode.hash(key));
+            }
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        Assert.assertFalse(failed.get());
+        assertEqual("after concurrent reads", expected, map);
+    }
+
     private static void testBasics(ObjectHashMap map) {
         LinkedHashMap<Long, Object> expected = new LinkedHashMap<>();
         Random rand = new Random(42);
@@ -320,6 +365,10 @@ public class ObjectHashMapTests {
                         new EqNodeStub());
     }
 
+    private static Object getConcurrent(ObjectHashMap map, Long key) {
+        return map.getConcurrent(key, PyObjectHashNode.hash(key), TruffleString.EqualNode.getUncached());
+    }
+
     private static void remove(ObjectHashMap map, Object key, long hash) {
         ObjectHashMap.RemoveNode.doRemoveWithRestart(null, map, key, hash,
                         BranchProfile.getUncached(), ConditionProfile.getUncached(), ConditionProfile.getUncached(), ConditionProfile.getUncached(),
@@ -0,0 +1,221 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import asyncio
+import unittest
+
+import _asyncio
+
+
+class FutureTests(unittest.TestCase):
+    def setUp(self):
+        self.loop = asyncio.new_event_loop()
+
+    def tearDown(self):
+        self.loop.close()
+
+    def test_uses_accelerated_classes(self):
+        self.assertIs(asyncio.Future, _asyncio.Future)
+        self.assertIs(asyncio.Task, _asyncio.Task)
+        self.assertIs(asyncio.events._get_running_loop, _asyncio._get_running_loop)
+
+    def test_result(self):
+        f = _asyncio.Future(loop=self.loop)
+        self.assertFalse(f.done())
+        self.assertIs(f.get_loop(), self.loop)
+        self.assertRaises(asyncio.InvalidStateError, f.result)
+        f.set_result(42)
+        self.assertTrue(f.done())
+        self.assertEqual(f.result(), 42)
+        self.assertIsNone(f.exception())
+        self.assertRaises(asyncio.InvalidStateError, f.set_result, 1)
+
+    def test_exception(self):
+        f = _asyncio.Future(loop=self.loop)
+        f.set_exception(ValueError)
+        self.assertIsInstance(f.exception(), ValueError)
+        self.assertRaises(ValueError, f.result)
+        g = _asyncio.Future(loop=self.loop)
+        self.assertRaises(TypeError, g.set_exception, StopIteration())
+
+    def test_cancel(self):
+        f = _asyncio.Future(loop=self.loop)
+        self.assertTrue(f.cancel())
+        self.assertTrue(f.cancelled())
+        self.assertFalse(f.cancel())
+        self.assertRaises(asyncio.CancelledError, f.result)
+
+    def test_callbacks(self):
+        f = _asyncio.Future(loop=self.loop)
+        calls = []
+        def cb(fut):
+            calls.append(fut.result())
+        f.add_done_callback(cb)
+        f.add_done_callback(cb)
+        f.add_done_callback(print)
+        self.assertEqual(f.remove_done_callback(print), 1)
+        f.set_result('x')
+        self.assertEqual(calls, [])
+        self.loop.run_until_complete(asyncio.sleep(0))
+        self.assertEqual(calls, ['x', 'x'])
+
+    def test_await(self):
+        async def waiter(fut):
+            return await fut
+
+        f = _asyncio.Future(loop=self.loop)
+        self.loop.call_soon(f.set_result, 7)
+        self.assertEqual(self.loop.run_until_complete(waiter(f)), 7)
+
+    def test_iter_protocol(self):
+        f = _asyncio.Future(loop=self.loop)
+        it = iter(f)
+        self.assertIs(next(it), f)
+        f.set_result(3)
+        with self.assertRaises(StopIteration) as cm:
+            next(it)
+        self.assertEqual(cm.exception.value, 3)
+
+    def test_uninitialized(self):
+        f = _asyncio.Future.__new__(_asyncio.Future)
+        self.assertRaises((RuntimeError, asyncio.InvalidStateError), f.result)
+
+    def test_repr(self):
+        f = _asyncio.Future(loop=self.loop)
+        self.assertIn('pending', repr(f))
+        f.set_result(1)
+        self.assertIn('finished result=1', repr(f))
+
+
+class TaskTests(unittest.TestCase):
+    def setUp(self):
+        self.loop = asyncio.new_event_loop()
+
+    def tearDown(self):
+        self.loop.close()
+
+    def test_run(self):
+        async def add(a, b):
+            await asyncio.sleep(0)
+            return a + b
+
+        async def main():
+            results = await asyncio.gather(add(1, 2), add(3, 4))
+            return results, asyncio.current_task()
+
+        results, task = self.loop.run_until_complete(main())
+        self.assertEqual(results, [3, 7])
+        self.assertIsInstance(task, _asyncio.Task)
+        self.assertTrue(task.done())
+
+    def test_name(self):
+        async def noop():
+            pass
+
+        t = self.loop.create_task(noop(), name=5)
+        self.assertEqual(t.get_name(), '5')
+        t.set_name('other')
+        self.assertEqual(t.get_name(), 'other')
+        self.assertTrue(self.loop.create_task(noop()).get_name().startswith('Task-'))
+        self.loop.run_until_complete(asyncio.sleep(0))
+
+    def test_not_a_coroutine(self):
+        self.assertRaises(TypeError, _asyncio.Task, 42, loop=self.loop)
+
+    def test_exception(self):
+        async def fail():
+            raise KeyError('k')
+
+        t = self.loop.create_task(fail())
+        self.assertRaises(KeyError, self.loop.run_until_complete, t)
+        self.assertIsInstance(t.exception(), KeyError)
+
+    def test_cancel(self):
+        started = []
+
+        async def sleeper():
+            started.append(True)
+            await asyncio.sleep(10)
+
+        t = self.loop.create_task(sleeper())
+        self.loop.run_until_complete(asyncio.sleep(0))
+        self.assertEqual(started, [True])
+        self.assertTrue(t.cancel())
+        self.assertRaises(asyncio.CancelledError, self.loop.run_until_complete, t)
+        self.assertTrue(t.cancelled())
+
+    def test_cancel_before_start(self):
+        async def coro():
+            return 1
+
+        t = self.loop.create_task(coro())
+        t.cancel()
+        self.assertRaises(asyncio.CancelledError, self.loop.run_until_complete, t)
+
+    def test_set_result_not_supported(self):
+        async def coro():
+            pass
+
+        t = self.loop.create_task(coro())
+        self.assertRaises(RuntimeError, t.set_result, 1)
+        self.assertRaises(RuntimeError, t.set_exception, ValueError())
+        self.loop.run_until_complete(t)
+
+    def test_bad_yield(self):
+        class BadAwaitable:
+            def __await__(self):
+                yield 42
+
+        async def coro():
+            await BadAwaitable()
+
+        t = self.loop.create_task(coro())
+        with self.assertRaisesRegex(RuntimeError, 'bad yield'):
+            self.loop.run_until_complete(t)
+
+    def test_all_tasks(self):
+        async def main():
+            return asyncio.all_tasks()
+
+        tasks = self.loop.run_until_complete(main())
+        self.assertEqual(len(tasks), 1)
+
+
+if __name__ == '__main__':
+    unittest.main()
@@ -0,0 +1,93 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import unittest
+
+import _bisect
+
+
+class BisectTests(unittest.TestCase):
+    def check_bisect(self, data, probes):
+        for x in probes:
+            self.assertEqual(_bisect.bisect_left(data, x), sum(1 for item in data if item < x))
+            self.assertEqual(_bisect.bisect_right(data, x), sum(1 for item in data if item <= x))
+            self.assertEqual(_bisect.bisect_left(data, x, 1, 3), min(max(sum(1 for item in data if item < x), 1), 3))
+            self.assertEqual(_bisect.bisect_right(data, x, hi=None), sum(1 for item in data if item <= x))
+
+    def test_primitive_storages(self):
+        self.check_bisect([1, 2, 2, 3, 5, 8], [0, 2, 4, 8, 9])
+        self.check_bisect([1, 2, 2, 3, 2 ** 40, 2 ** 41], [0, 2, 4, 2 ** 40, 2 ** 42])
+        self.check_bisect([0.5, 1.0, 1.0, 2.5, 4.0], [0.0, 1.0, 3.0, 4.0, 5.0])
+
+    def test_mixed_types(self):
+        self.check_bisect([1, 2, 2, 3, 5, 8], [1.5, 2.0, 2 ** 70, True])
+        self.check_bisect([0.5, 1.0, 1.0, 2.5, 4.0], [1, 3, 0])
+        self.check_bisect(["a", "c", "c", "e"], ["b", "c", "f"])
+        self.check_bisect((1, 3, 5), [0, 3, 6])
+
+    def test_insort(self):
+        for data, items in [([], [3, 1, 2, 2]), ([], [1.5, 0.5, 2.5]), ([1, 2], [1.5, 2 ** 70])]:
+            for x in items:
+                _bisect.insort_right(data, x)
+                _bisect.insort_left(data, x)
+            self.assertEqual(data, sorted(data))
+
+        class MyList(list):
+            def insert(self, index, value):
+                super().insert(index, value * 10)
+
+        data = MyList([1, 30])
+        _bisect.insort_right(data, 2)
+        self.assertEqual(data, [1, 20, 30])
+
+    def test_errors(self):
+        self.assertRaises(ValueError, _bisect.bisect_left, [1, 2], 1, -1)
+        self.assertRaises(TypeError, _bisect.bisect_right, [1, 2], 1, 0.5)
+        self.assertRaises(IndexError, _bisect.bisect_right, [1, 2], 1, 0, 10)
+        self.assertEqual(_bisect.bisect_right([1, 2], 1, 5, 5), 5)
+
+    def test_negative_hi(self):
+        # only -1 means len(a), other negative values leave an empty range
+        self.assertEqual(_bisect.bisect_left([1, 2, 3], 2, 0, -5), 0)
+        self.assertEqual(_bisect.bisect_right([1, 2, 3], 2, 1, -2), 1)
+        self.assertEqual(_bisect.bisect_right([1, 2, 3], 2, 0, -1), 2)
+        self.assertEqual(_bisect.bisect_left((1.0, 2.0, 3.0), 2.0, 0, -5), 0)
+        data = [1, 3]
+        _bisect.insort_left(data, 2, 1, -3)
+        self.assertEqual(data, [1, 2, 3])
@@ -4,6 +4,7 @@
 # Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
     
 import unittest
+import math
 
 class MyIndexable(object):
     def __init__(self, value):
@@ -91,3 +92,65 @@ class BuiltinTest(unittest.TestCase):
     def test_min(self):
         self.assertEqual(min((), default=1, key="adsf"), 1)
         
+
+    def test_primitive_sequence_min_max(self):
+        ints = [3, -7, 12, 0, 5]
+        longs = [3, -2**40, 2**41, 0]
+        floats = [1.5, -0.0, 2.25, -3.75]
+        for seq in (ints, tuple(ints), longs, tuple(longs), floats, tuple(floats)):
+            self.assertEqual(min(seq), sorted(seq)[0])
+            self.assertEqual(max(seq), sorted(seq)[-1])
+        self.assertEqual(min([], default=42), 42)
+        self.assertEqual(max([1.0][:0], default=None), None)
+        self.assertRaises(ValueError, max, [1, 2][:0])
+        nan = float('nan')
+        self.assertEqual(max([1.0, nan, 3.0]), 3.0)
+        self.assertTrue(math.isnan(max([nan, 1.0])))
+        self.assertEqual(str(max([0.0, -0.0])), '0.0')
+        self.assertEqual(str(min([-0.0, 0.0])), '-0.0')
+
+        class MyList(list):
+            def __iter__(self):
+                return iter([100])
+        self.assertEqual(max(MyList([1, 2, 3])), 100)
+
+    def test_primitive_sequence_sum(self):
+        self.assertEqual(sum([1, 2, 3]), 6)
+        self.assertEqual(sum((1, 2, 3), 10), 16)
+        self.assertEqual(sum([2**31 - 1] * 4), 4 * (2**31 - 1))
+        self.assertEqual(sum([2**62, 2**62, 2**62, -2**62]), 2**63)
+        self.assertEqual(sum([2**40, -2**41], 2**62 + 2**61), 2**62 + 2**61 - 2**40)
+        self.assertEqual(sum([0.5, 0.25]), 0.75)
+        self.assertEqual(sum([0.5, 0.25], 1), 1.75)
+        self.assertEqual(sum((0.5, 0.25), 1.0), 1.75)
+        self.assertEqual(type(sum([0.5][:0])), int)
+        self.assertEqual(str(sum([-0.0])), '0.0')
+        self.assertEqual(str(sum([-0.0], -0.0)), '-0.0')
+        self.assertEqual(sum([1, 2], 0.5), 3.5)
+
+    def test_primitive_sequence_any_all(self):
+        self.assertTrue(all([1, 2, 3]))
+        self.assertFalse(all([1, 0, 3]))
+        self.assertTrue(any((0, 0, 2**40)))
+        self.assertFalse(any([0, 0]))
+        self.assertFalse(all([2**40, 0]))
+        self.assertTrue(any([0.0, float('nan')]))
+        self.assertFalse(any([0.0, -0.0]))
+        self.assertTrue(all([0.5, float('inf')]))
+        self.assertTrue(all([]))
+        self.assertFalse(any([]))
+
+    def test_primitive_sequence_contains(self):
+        self.assertIn(2, [1, 2**40, 2])
+        self.assertIn(2**40, [1, 2**40])
+        self.assertNotIn(2**40, [1, 2, 3])
+        self.assertIn(2.0, [1, 2, 3])
+        self.assertNotIn(2.5, [1, 2, 3])
+        self.assertIn(4.0, [2**40, 4])
+        self.assertNotIn(float('nan'), [2**40, 4])
+        self.assertNotIn(float(2**63), [2**40, 2**62])
+        self.assertIn(3, [1.5, 3.0])
+        self.assertIn(0, [1.5, -0.0])
+        self.assertIn(2**53, [1.5, float(2**53)])
+        self.assertNotIn(2**53 + 1, [1.5, float(2**53)])
+        self.assertEqual((1.5, 3.0).index(3), 1)
@@ -0,0 +1,89 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import os
+import subprocess
+import sys
+import tempfile
+
+
+def run_with_cache(cache_dir, module_dir, code):
+    cmd = sys.executable.split(" ")  # our sys.executable on Java is a cmdline
+    cmd += ["--python.CodeCacheDirectory=" + cache_dir, "-c", "import sys; sys.path.insert(0, %r); %s" % (module_dir, code)]
+    return subprocess.run(cmd, stdout=subprocess.PIPE, stderr=subprocess.PIPE, text=True, check=True).stdout
+
+
+def cache_entries(cache_dir):
+    return sorted(f for f in os.listdir(cache_dir) if f.endswith(".gpyu"))
+
+
+if sys.implementation.name == "graalpy" and __graalpython__.uses_bytecode_interpreter:
+    def test_code_cache_reuse_and_invalidation():
+        with tempfile.TemporaryDirectory() as cache_dir, tempfile.TemporaryDirectory() as module_dir:
+            module = os.path.join(module_dir, "cached_mod.py")
+            with open(module, "w") as f:
+                f.write("def f(x):\n    return x * 2\n")
+            code = "import cached_mod; print(cached_mod.f(21))"
+
+            assert run_with_cache(cache_dir, module_dir, code).strip() == "42"
+            entries = cache_entries(cache_dir)
+            assert len(entries) >= 1
+
+            # second run loads the cached entry and must not create a new one for the module
+            assert run_with_cache(cache_dir, module_dir, code).strip() == "42"
+            assert cache_entries(cache_dir) == entries
+
+            # changing the source content changes the key
+            with open(module, "w") as f:
+                f.write("def f(x):\n    return x * 3\n")
+            assert run_with_cache(cache_dir, module_dir, code).strip() == "63"
+            assert len(cache_entries(cache_dir)) == len(entries) + 1
+
+    def test_code_cache_corrupted_entry():
+        with tempfile.TemporaryDirectory() as cache_dir, tempfile.TemporaryDirectory() as module_dir:
+            with open(os.path.join(module_dir, "cached_mod2.py"), "w") as f:
+                f.write("VALUE = 'ok'\n")
+            code = "import cached_mod2; print(cached_mod2.VALUE)"
+            assert run_with_cache(cache_dir, module_dir, code).strip() == "ok"
+            for entry in cache_entries(cache_dir):
+                with open(os.path.join(cache_dir, entry), "r+b") as f:
+                    f.seek(8)
+                    f.write(b"\xff" * 16)
+            # corrupted entries are ignored and recompiled
+            assert run_with_cache(cache_dir, module_dir, code).strip() == "ok"
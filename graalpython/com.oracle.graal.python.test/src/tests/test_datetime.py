@@ -0,0 +1,204 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import datetime
+import pickle
+import unittest
+
+import _datetime
+
+
+class DatetimeModuleTest(unittest.TestCase):
+
+    def test_types_come_from_accelerator(self):
+        self.assertIs(datetime.date, _datetime.date)
+        self.assertIs(datetime.datetime, _datetime.datetime)
+        self.assertIs(datetime.timedelta, _datetime.timedelta)
+        self.assertIs(datetime.timezone, _datetime.timezone)
+        self.assertEqual(datetime.MAXYEAR, 9999)
+
+    def test_timedelta_normalization(self):
+        td = datetime.timedelta(days=1, hours=-1, minutes=30, microseconds=-1)
+        self.assertEqual((td.days, td.seconds, td.microseconds), (0, 84599, 999999))
+        self.assertEqual(datetime.timedelta(microseconds=-1), datetime.timedelta(-1, 86399, 999999))
+        self.assertEqual(datetime.timedelta(seconds=0.5, milliseconds=0.0005).microseconds, 500000)
+        self.assertEqual(datetime.timedelta(microseconds=2.5), datetime.timedelta(microseconds=2))
+        self.assertEqual(datetime.timedelta(microseconds=3.5), datetime.timedelta(microseconds=4))
+        self.assertEqual(datetime.timedelta(weeks=10 ** 5).days, 7 * 10 ** 5)
+        self.assertRaises(OverflowError, datetime.timedelta, days=10 ** 9)
+        self.assertRaises(TypeError, datetime.timedelta, days="1")
+
+    def test_timedelta_arithmetic(self):
+        td = datetime.timedelta(hours=1, microseconds=3)
+        self.assertEqual(td * 2, datetime.timedelta(hours=2, microseconds=6))
+        self.assertEqual(2 * td, td * 2)
+        self.assertEqual(td * 0.5, datetime.timedelta(minutes=30, microseconds=2))
+        self.assertEqual(td / 2, datetime.timedelta(minutes=30, microseconds=2))
+        self.assertEqual(td // datetime.timedelta(minutes=7), 8)
+        self.assertEqual(td % datetime.timedelta(minutes=7), datetime.timedelta(minutes=4, microseconds=3))
+        self.assertEqual(-td, datetime.timedelta(-1, 82799, 999997))
+        self.assertEqual(abs(-td), td)
+        self.assertEqual(td.total_seconds(), 3600.000003)
+        # beyond 2**53 microseconds, the division must still round only once
+        self.assertEqual(datetime.timedelta(microseconds=6880829246188498465).total_seconds(), 6880829246188.498)
+        self.assertEqual(repr(td), "datetime.timedelta(seconds=3600, microseconds=3)")
+        self.assertEqual(str(-td), "-1 day, 22:59:59.999997")
+        self.assertRaises(ZeroDivisionError, lambda: td // 0)
+
+    def test_date(self):
+        d = datetime.date(2020, 2, 29)
+        self.assertEqual(d.toordinal(), 737484)
+        self.assertEqual(datetime.date.fromordinal(737484), d)
+        self.assertEqual(d + datetime.timedelta(days=1), datetime.date(2020, 3, 1))
+        self.assertEqual(d - datetime.date(2019, 2, 28), datetime.timedelta(days=366))
+        self.assertEqual(d.isocalendar(), (2020, 9, 6))
+        self.assertEqual(datetime.date.fromisocalendar(2020, 9, 6), d)
+        self.assertEqual(d.isoformat(), "2020-02-29")
+        self.assertEqual(datetime.date.fromisoformat("2020-02-29"), d)
+        self.assertEqual(repr(d), "datetime.date(2020, 2, 29)")
+        self.assertEqual(d.ctime(), "Sat Feb 29 00:00:00 2020")
+        self.assertEqual(d.strftime("%Y/%m/%d"), "2020/02/29")
+        self.assertEqual(format(d, "%d.%m."), "29.02.")
+        self.assertRaises(ValueError, datetime.date, 2019, 2, 29)
+        self.assertRaises(OverflowError, lambda: datetime.date.max + datetime.timedelta(days=1))
+
+    def test_datetime_naive(self):
+        dt = datetime.datetime(2021, 12, 31, 23, 59, 59, 999999)
+        self.assertEqual(dt + datetime.timedelta(microseconds=1), datetime.datetime(2022, 1, 1))
+        self.assertEqual(dt - datetime.datetime(2021, 12, 31), datetime.timedelta(seconds=86399, microseconds=999999))
+        self.assertEqual(dt.isoformat(), "2021-12-31T23:59:59.999999")
+        self.assertEqual(dt.isoformat(" ", "seconds"), "2021-12-31 23:59:59")
+        self.assertEqual(str(dt.replace(microsecond=0)), "2021-12-31 23:59:59")
+        self.assertEqual(repr(dt.replace(fold=1)), "datetime.datetime(2021, 12, 31, 23, 59, 59, 999999, fold=1)")
+        self.assertEqual(dt.date(), datetime.date(2021, 12, 31))
+        self.assertEqual(dt.time(), datetime.time(23, 59, 59, 999999))
+        self.assertEqual(dt.strftime("%H:%M:%S.%f"), "23:59:59.999999")
+        self.assertEqual(datetime.datetime.fromisoformat("2021-12-31T23:59:59.999999"), dt)
+        self.assertEqual(datetime.datetime.combine(dt.date(), dt.time()), dt)
+        self.assertEqual(datetime.datetime.strptime("2021-12-31 23:59", "%Y-%m-%d %H:%M"), datetime.datetime(2021, 12, 31, 23, 59))
+        self.assertEqual(dt.timetuple()[:6], (2021, 12, 31, 23, 59, 59))
+        self.assertNotEqual(dt, dt.date())
+        self.assertRaises(TypeError, lambda: dt < dt.date())
+
+    def test_datetime_aware(self):
+        utc = datetime.timezone.utc
+        plus2 = datetime.timezone(datetime.timedelta(hours=2), "CEST")
+        a = datetime.datetime(2022, 6, 1, 12, tzinfo=utc)
+        b = datetime.datetime(2022, 6, 1, 14, tzinfo=plus2)
+        self.assertEqual(a, b)
+        self.assertEqual(hash(a), hash(b))
+        self.assertEqual(b - a, datetime.timedelta(0))
+        self.assertEqual(a.astimezone(plus2), b)
+        self.assertEqual(b.utcoffset(), datetime.timedelta(hours=2))
+        self.assertEqual(b.tzname(), "CEST")
+        self.assertEqual(b.isoformat(), "2022-06-01T14:00:00+02:00")
+        self.assertEqual(a.timestamp(), 1654084800.0)
+        self.assertEqual(datetime.datetime(891, 2, 4, 12, 46, 18, 497970, tzinfo=utc).timestamp(), -34046910821.50203)
+        self.assertEqual(datetime.datetime.fromtimestamp(1654084800, utc), a)
+        self.assertEqual(datetime.datetime.utcfromtimestamp(1654084800), a.replace(tzinfo=None))
+        self.assertEqual(datetime.datetime.fromisoformat("2022-06-01T14:00:00+02:00"), b)
+        self.assertEqual(b.strftime("%z %Z"), "+0200 CEST")
+        self.assertNotEqual(a, a.replace(tzinfo=None))
+        self.assertRaises(TypeError, lambda: a < a.replace(tzinfo=None))
+        self.assertRaises(TypeError, lambda: a - a.replace(tzinfo=None))
+
+    def test_time(self):
+        t = datetime.time(12, 30, 15, 500, tzinfo=datetime.timezone(datetime.timedelta(hours=-5)))
+        self.assertEqual(t.isoformat(), "12:30:15.000500-05:00")
+        self.assertEqual(t.isoformat("minutes"), "12:30-05:00")
+        self.assertEqual(datetime.time.fromisoformat("12:30:15.000500-05:00"), t)
+        self.assertEqual(t, datetime.time(17, 30, 15, 500, tzinfo=datetime.timezone.utc))
+        self.assertEqual(t.strftime("%H%M"), "1230")
+        self.assertEqual(repr(datetime.time(1, 2)), "datetime.time(1, 2)")
+        self.assertTrue(datetime.time(0))
+
+    def test_timezone(self):
+        self.assertIs(datetime.timezone(datetime.timedelta(0)), datetime.timezone.utc)
+        self.assertEqual(repr(datetime.timezone.utc), "datetime.timezone.utc")
+        tz = datetime.timezone(-datetime.timedelta(hours=3, minutes=30))
+        self.assertEqual(str(tz), "UTC-03:30")
+        self.assertEqual(repr(tz), "datetime.timezone(datetime.timedelta(days=-1, seconds=73800))")
+        self.assertRaises(ValueError, datetime.timezone, datetime.timedelta(hours=24))
+        self.assertRaises(TypeError, datetime.timezone, 1)
+
+    def test_tzinfo_subclass(self):
+        class Fixed(datetime.tzinfo):
+            def __init__(self, hours):
+                self.offset = datetime.timedelta(hours=hours)
+
+            def utcoffset(self, dt):
+                return self.offset
+
+            def dst(self, dt):
+                return datetime.timedelta(0)
+
+            def tzname(self, dt):
+                return "FIXED"
+
+        tz = Fixed(3)
+        dt = datetime.datetime(2022, 1, 1, 3, tzinfo=tz)
+        self.assertEqual(dt, datetime.datetime(2022, 1, 1, tzinfo=datetime.timezone.utc))
+        self.assertEqual(tz.fromutc(datetime.datetime(2022, 1, 1, tzinfo=tz)), dt)
+        self.assertEqual(datetime.datetime(2022, 1, 1, tzinfo=datetime.timezone.utc).astimezone(tz), dt)
+        self.assertRaises(NotImplementedError, datetime.tzinfo().utcoffset, None)
+
+    def test_pickle(self):
+        values = [
+            datetime.timedelta(-3, 5, 7),
+            datetime.date(2000, 1, 1),
+            datetime.datetime(2000, 1, 1, 1, 2, 3, 4, fold=1),
+            datetime.datetime(2000, 1, 1, tzinfo=datetime.timezone(datetime.timedelta(hours=1), "X")),
+            datetime.time(1, 2, 3, 456789, tzinfo=datetime.timezone.utc),
+            datetime.timezone.utc,
+        ]
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            for value in values:
+                copy = pickle.loads(pickle.dumps(value, proto))
+                self.assertEqual(copy, value)
+                self.assertIs(type(copy), type(value))
+
+    def test_subclass(self):
+        class MyDate(datetime.date):
+            pass
+
+        d = MyDate(2000, 1, 1)
+        self.assertIs(type(d + datetime.timedelta(days=1)), MyDate)
+        self.assertIs(type(d.replace(day=2)), MyDate)
+        self.assertIs(type(MyDate.fromordinal(1)), MyDate)
+        self.assertTrue(repr(d).endswith("MyDate(2000, 1, 1)"))
@@ -0,0 +1,201 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import decimal
+import fractions
+import pickle
+import unittest
+
+import _decimal
+from decimal import Decimal, Context, localcontext
+
+
+class DecimalModuleTest(unittest.TestCase):
+
+    def test_types_come_from_accelerator(self):
+        self.assertIs(decimal.Decimal, _decimal.Decimal)
+        self.assertIs(decimal.Context, _decimal.Context)
+        self.assertEqual(decimal.MAX_PREC, _decimal.MAX_PREC)
+        self.assertTrue(issubclass(decimal.DivisionByZero, ZeroDivisionError))
+        self.assertTrue(issubclass(decimal.Underflow, decimal.Subnormal))
+        self.assertTrue(issubclass(decimal.FloatOperation, TypeError))
+        self.assertEqual(Decimal('1.5').as_tuple(), decimal.DecimalTuple(0, (1, 5), -1))
+
+    def test_construction(self):
+        self.assertEqual(str(Decimal('  1_000.50\n')), '1000.50')
+        self.assertEqual(str(Decimal(-12)), '-12')
+        self.assertEqual(str(Decimal(0.1)), '0.1000000000000000055511151231257827021181583404541015625')
+        self.assertEqual(str(Decimal((1, (3, 1, 4), -2))), '-3.14')
+        self.assertEqual(str(Decimal((0, (), 'F'))), 'Infinity')
+        self.assertEqual(repr(Decimal('-nan123')), "Decimal('-NaN123')")
+        self.assertEqual(str(Decimal('1e-7')), '1E-7')
+        self.assertRaises(decimal.InvalidOperation, Decimal, '1 0')
+        self.assertRaises(ValueError, Decimal, [1, 2])
+        self.assertRaises(TypeError, Decimal, 1j)
+        self.assertEqual(str(Decimal.from_float(0.25)), '0.25')
+
+    def test_arithmetic(self):
+        with localcontext() as ctx:
+            ctx.prec = 28
+            self.assertEqual(str(Decimal(1) / Decimal(7)), '0.1428571428571428571428571429')
+            self.assertEqual(str(Decimal('1.30') + Decimal('1.20')), '2.50')
+            self.assertEqual(str(Decimal('1.30') * 3), '3.90')
+            self.assertEqual(str(7 - Decimal('0.5')), '6.5')
+            self.assertEqual(str(Decimal(-7) // 2), '-3')
+            self.assertEqual(str(Decimal(-7) % 2), '-1')
+            self.assertEqual(divmod(Decimal(7), 2), (Decimal(3), Decimal(1)))
+            self.assertEqual(str(Decimal(2) ** 10), '1024')
+            self.assertEqual(str(pow(Decimal(3), 4, 5)), '1')
+            self.assertEqual(str(Decimal(2).sqrt()), '1.414213562373095048801688724')
+            self.assertEqual(str(Decimal(1).exp()), '2.718281828459045235360287471')
+            self.assertEqual(str(Decimal(100).log10()), '2')
+            self.assertEqual(str(Decimal('123456789012345678901234567890') * 10), '1.234567890123456789012345679E+30')
+            self.assertTrue(ctx.flags[decimal.Inexact])
+            self.assertTrue(ctx.flags[decimal.Rounded])
+
+    def test_traps(self):
+        with localcontext() as ctx:
+            self.assertRaises(decimal.DivisionByZero, lambda: Decimal(1) / 0)
+            self.assertRaises(ZeroDivisionError, lambda: Decimal(1) / 0)
+            self.assertRaises(decimal.InvalidOperation, lambda: Decimal(0) / 0)
+            ctx.traps[decimal.DivisionByZero] = False
+            self.assertEqual(str(Decimal(-1) / 0), '-Infinity')
+            self.assertTrue(ctx.flags[decimal.DivisionByZero])
+            ctx.traps[decimal.Inexact] = True
+            self.assertRaises(decimal.Inexact, lambda: Decimal(1) / 3)
+        self.assertFalse(decimal.getcontext().traps[decimal.Inexact])
+
+    def test_rounding(self):
+        self.assertEqual(str(Decimal('7.325').quantize(Decimal('.01'), rounding=decimal.ROUND_DOWN)), '7.32')
+        self.assertEqual(str(Decimal('7.325').quantize(Decimal('1.'), rounding=decimal.ROUND_UP)), '8')
+        self.assertEqual(str(Decimal('2.5').quantize(Decimal(1))), '2')
+        self.assertEqual(round(Decimal('2.5')), 2)
+        self.assertEqual(round(Decimal('3.5')), 4)
+        self.assertEqual(str(round(Decimal('3.14159'), 2)), '3.14')
+        self.assertEqual(int(Decimal('-3.9')), -3)
+        self.assertEqual(int(Decimal('1e30')), 10 ** 30)
+        self.assertEqual(float(Decimal('0.1')), 0.1)
+        self.assertEqual(float(Decimal('-1.5e-300')), -1.5e-300)
+        import math
+        self.assertEqual(math.floor(Decimal('-3.1')), -4)
+        self.assertEqual(math.ceil(Decimal('3.1')), 4)
+        self.assertRaises(ValueError, int, Decimal('NaN'))
+        self.assertRaises(OverflowError, int, Decimal('-Infinity'))
+
+    def test_comparison_and_hash(self):
+        self.assertEqual(Decimal('1.0'), 1)
+        self.assertEqual(Decimal('0.5'), 0.5)
+        self.assertEqual(Decimal('0.5'), fractions.Fraction(1, 2))
+        self.assertLess(Decimal('0.3'), fractions.Fraction(1, 3))
+        self.assertLess(Decimal(1), Decimal(2))
+        self.assertNotEqual(Decimal('NaN'), Decimal('NaN'))
+        self.assertEqual(hash(Decimal('1.50')), hash(1.5))
+        self.assertEqual(hash(Decimal(10 ** 30)), hash(10 ** 30))
+        self.assertEqual(hash(Decimal('123e100')), hash(123 * 10 ** 100))
+        self.assertEqual(hash(Decimal('-7e-30')), hash(fractions.Fraction(-7, 10 ** 30)))
+        self.assertEqual(hash(Decimal('0.125')), hash(0.125))
+        self.assertEqual(hash(Decimal('-1')), -2)
+        self.assertEqual(hash(Decimal('-Infinity')), hash(float('-inf')))
+        self.assertRaises(TypeError, hash, Decimal('sNaN'))
+        with localcontext() as ctx:
+            self.assertRaises(decimal.InvalidOperation, lambda: Decimal('NaN') < 1)
+            ctx.traps[decimal.FloatOperation] = True
+            self.assertRaises(decimal.FloatOperation, lambda: Decimal(1) < 1.5)
+            self.assertFalse(Decimal(1) == 1.5)
+            self.assertTrue(ctx.flags[decimal.FloatOperation])
+
+    def test_format(self):
+        self.assertEqual(format(Decimal('1234567.891'), ',.2f'), '1,234,567.89')
+        self.assertEqual(format(Decimal('-0.0001'), '.2e'), '-1.00e-4')
+        self.assertEqual(format(Decimal('12.5'), '>8'), '    12.5')
+        self.assertEqual(format(Decimal('0.125'), '.1%'), '12.5%')
+        self.assertEqual(format(Decimal('1e100'), 'g'), '1e+100')
+        self.assertEqual(Decimal('1234.5').__format__('n', {'decimal_point': ',', 'thousands_sep': '.', 'grouping': '\3'}), '1.234,5')
+
+    def test_methods(self):
+        self.assertEqual(str(Decimal('1.20').normalize()), '1.2')
+        self.assertEqual(Decimal('-0').is_signed(), True)
+        self.assertEqual(Decimal('1E-1000000').is_subnormal(), True)
+        self.assertEqual(Decimal('-Infinity').number_class(), '-Infinity')
+        self.assertEqual(Decimal('1.5').as_integer_ratio(), (3, 2))
+        self.assertEqual(Decimal('123E+1').to_eng_string(), '1.23E+3')
+        self.assertEqual(str(Decimal('1101').logical_and(Decimal('1011'))), '1001')
+        self.assertEqual(str(Decimal(12).shift(2)), '1200')
+        self.assertEqual(Decimal(1).compare_total(Decimal('1.0')), Decimal(1))
+        self.assertEqual(str(Decimal('2.345').to_integral_value(decimal.ROUND_HALF_UP)), '2')
+        self.assertEqual(Decimal(5).copy_sign(Decimal(-1)), Decimal(-5))
+        self.assertEqual(Decimal(2).fma(3, 4), 10)
+
+    def test_context(self):
+        ctx = Context(prec=5, rounding=decimal.ROUND_HALF_UP, traps=[decimal.Overflow])
+        self.assertEqual(repr(ctx), "Context(prec=5, rounding=ROUND_HALF_UP, Emin=-999999, Emax=999999, capitals=1, "
+                                    "clamp=0, flags=[], traps=[Overflow])")
+        self.assertEqual(str(ctx.divide(1, 8)), '0.125')
+        self.assertEqual(str(ctx.add(Decimal('1.00005'), 0)), '1.0001')
+        self.assertTrue(ctx.flags[decimal.Inexact])
+        self.assertEqual(str(ctx.create_decimal('3.14159')), '3.1416')
+        self.assertEqual(ctx.Etiny(), -1000003)
+        self.assertRaises(ValueError, setattr, ctx, 'prec', 0)
+        self.assertRaises(TypeError, setattr, ctx, 'rounding', 'ROUND_NOWHERE')
+        self.assertRaises(AttributeError, delattr, ctx, 'prec')
+        self.assertRaises(KeyError, ctx.traps.__getitem__, 'Overflow')
+        self.assertRaises(TypeError, ctx.to_sci_string, 1.5)
+        ctx.clear_flags()
+        self.assertEqual(len(ctx.flags), 9)
+        self.assertEqual(list(ctx.flags.values()), [False] * 9)
+        self.assertEqual(ctx.traps, dict.fromkeys(ctx.traps, False) | {decimal.Overflow: True})
+        copy = pickle.loads(pickle.dumps(ctx))
+        self.assertEqual(repr(copy), repr(ctx))
+
+    def test_contexts_are_independent(self):
+        decimal.setcontext(decimal.BasicContext)
+        try:
+            self.assertEqual(decimal.getcontext().prec, 9)
+            self.assertIsNot(decimal.getcontext(), decimal.BasicContext)
+            with localcontext(Context(prec=3)) as ctx:
+                self.assertIs(decimal.getcontext(), ctx)
+                self.assertEqual(str(Decimal(2) / 3), '0.667')
+            self.assertEqual(str(Decimal(2) / 3), '0.666666667')
+        finally:
+            decimal.setcontext(decimal.DefaultContext)
+        self.assertEqual(decimal.getcontext().prec, 28)
+
+    def test_pickle(self):
+        for value in (Decimal('-1.50'), Decimal('sNaN7'), Decimal('-Infinity')):
+            self.assertEqual(repr(pickle.loads(pickle.dumps(value))), repr(value))
@@ -0,0 +1,161 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _sha3
+import hashlib
+import unittest
+
+DATA = b'The quick brown fox jumps over the lazy dog'
+
+EXPECTED = {
+    'md5': '9e107d9d372bb6826bd81d3542a419d6',
+    'sha1': '2fd4e1c67a2d28fced849ee1bb76e7391b93eb12',
+    'sha224': '730e109bd7a8a32b1cb9d9a09aa2325d2430587ddbc0c38bad911525',
+    'sha256': 'd7a8fbb307d7809469ca9abcb0082e4f8d5651e46d3cdb762d02d0bf37c9e592',
+    'sha384': 'ca737f1014a48f4c0b6dd43cb177b0afd9e5169367544c494011e3317dbf9a509cb1e5dc1e85a941bbee3d7f2afbc9b1',
+    'sha512': '07e547d9586f6a73f73fbac0435ed76951218fb7d0c8d788a309d785436bbb642e93a252a954f23912547d1e8a3b5ed6e1bfd7097821233fa0538f3db854fee6',
+    'sha3_224': 'd15dadceaa4d5d7bb3b48f446421d542e08ad8887305e28d58335795',
+    'sha3_256': '69070dda01975c8c120c3aada1b282394e7f032fa9cf32f4cb2259a0897dfc04',
+    'sha3_384': '7063465e08a93bce31cd89d2e3ca8f602498696e253592ed26f07bf7e703cf328581e1471a7ba7ab119b1a9ebdf8be41',
+    'sha3_512': '01dedd5de4ef14642445ba5f5b97c15e47b9ad931326e4b0727cd94cefc44fff23f07bf543139939b49128caf436dc1bdee54fcb24023a08d9403f9b4bf0d450',
+    'blake2b': 'a8add4bdddfd93e4877d2746e62817b116364a1fa7bc148d95090bc7333b3673f82401cf7aa2e4cb1ecd90296e3f14cb5413f8ed77be73045b13914cdcd6a918',
+    'blake2s': '606beeec743ccbeff6cbcdf5d5302aa855c256c29b88c8ed331ea1a6bf3c8812',
+}
+
+
+class HashlibTests(unittest.TestCase):
+
+    def test_known_digests(self):
+        for name, expected in EXPECTED.items():
+            h = hashlib.new(name, DATA)
+            self.assertEqual(h.hexdigest(), expected, name)
+            self.assertEqual(h.digest(), bytes.fromhex(expected), name)
+            self.assertEqual(h.name, name)
+            self.assertEqual(h.digest_size, len(expected) // 2)
+
+    def test_incremental_update(self):
+        for name, expected in EXPECTED.items():
+            h = getattr(hashlib, name)()
+            for i in range(0, len(DATA), 5):
+                h.update(DATA[i:i + 5])
+            self.assertEqual(h.hexdigest(), expected, name)
+
+    def test_buffer_types(self):
+        expected = EXPECTED['sha256']
+        self.assertEqual(hashlib.sha256(bytearray(DATA)).hexdigest(), expected)
+        self.assertEqual(hashlib.sha256(memoryview(DATA)).hexdigest(), expected)
+        self.assertEqual(hashlib.sha256(memoryview(b'xx' + DATA)[2:]).hexdigest(), expected)
+
+    def test_large_input(self):
+        data = bytes(range(256)) * 1024
+        self.assertEqual(hashlib.sha1(data).hexdigest(), '37ef77696fc255bf53b4cdd014b223676f2dc8bb')
+        h = hashlib.sha1()
+        h.update(data[:100000])
+        h.update(data[100000:])
+        self.assertEqual(h.hexdigest(), '37ef77696fc255bf53b4cdd014b223676f2dc8bb')
+
+    def test_digest_does_not_reset(self):
+        h = hashlib.md5(DATA[:10])
+        h.digest()
+        h.update(DATA[10:])
+        self.assertEqual(h.hexdigest(), EXPECTED['md5'])
+
+    def test_copy(self):
+        for name, expected in EXPECTED.items():
+            h = getattr(hashlib, name)(DATA[:10])
+            c = h.copy()
+            h.update(b'garbage')
+            c.update(DATA[10:])
+            self.assertEqual(c.hexdigest(), expected, name)
+            self.assertNotEqual(h.hexdigest(), expected, name)
+
+    def test_block_size(self):
+        sizes = {'md5': 64, 'sha1': 64, 'sha224': 64, 'sha256': 64, 'sha384': 128, 'sha512': 128,
+                 'sha3_224': 144, 'sha3_256': 136, 'sha3_384': 104, 'sha3_512': 72,
+                 'shake_128': 168, 'shake_256': 136, 'blake2b': 128, 'blake2s': 64}
+        for name, size in sizes.items():
+            self.assertEqual(getattr(hashlib, name)().block_size, size, name)
+
+    def test_shake(self):
+        self.assertEqual(hashlib.shake_128(DATA).hexdigest(20), 'f4202e3c5852f9182a0430fd8144f0a74b95e741')
+        self.assertEqual(hashlib.shake_256(DATA).hexdigest(20), '2f671343d9b2e1604dc9dcf0753e5fe15c7c64a0')
+        h = _sha3.shake_128(DATA)
+        self.assertEqual(h.digest(10), h.digest(20)[:10])
+        self.assertEqual(h.digest_size, 0)
+        self.assertEqual(h.digest(0), b'')
+        self.assertRaises(TypeError, h.digest)
+        self.assertRaises(ValueError, h.digest, -1)
+        self.assertRaises(ValueError, h.digest, 2 ** 29)
+
+    def test_sha3_attributes(self):
+        h = _sha3.sha3_256()
+        self.assertEqual(h._capacity_bits, 512)
+        self.assertEqual(h._rate_bits, 1088)
+        self.assertEqual(h._suffix, b'\x06')
+        h = _sha3.shake_128()
+        self.assertEqual(h._capacity_bits, 256)
+        self.assertEqual(h._rate_bits, 1344)
+        self.assertEqual(h._suffix, b'\x1f')
+
+    def test_blake2_parameters(self):
+        h = hashlib.blake2b(DATA, digest_size=16, key=b'key', salt=b'salt', person=b'me')
+        self.assertEqual(h.hexdigest(), '532606c299af2e802625ffae97d12c40')
+        h = hashlib.blake2s(DATA, digest_size=16, key=b'key', salt=b'salt', person=b'me', fanout=2, depth=3,
+                            leaf_size=4, node_offset=5, node_depth=6, inner_size=7, last_node=True)
+        self.assertEqual(h.hexdigest(), 'ab7913ada9f935981385fc329b82161d')
+        self.assertEqual(hashlib.blake2b.MAX_DIGEST_SIZE, 64)
+        self.assertEqual(hashlib.blake2s.SALT_SIZE, 8)
+
+    def test_blake2_errors(self):
+        self.assertRaises(ValueError, hashlib.blake2b, digest_size=0)
+        self.assertRaises(ValueError, hashlib.blake2s, digest_size=33)
+        self.assertRaises(ValueError, hashlib.blake2s, key=b'x' * 33)
+        self.assertRaises(ValueError, hashlib.blake2b, salt=b'x' * 17)
+        self.assertRaises(ValueError, hashlib.blake2b, person=b'x' * 17)
+        self.assertRaises(ValueError, hashlib.blake2b, fanout=256)
+        self.assertRaises(ValueError, hashlib.blake2b, depth=0)
+        self.assertRaises(ValueError, hashlib.blake2b, leaf_size=-1)
+        self.assertRaises(OverflowError, hashlib.blake2b, leaf_size=2 ** 32)
+        self.assertRaises(OverflowError, hashlib.blake2s, node_offset=2 ** 48)
+        self.assertRaises(ValueError, hashlib.blake2b, inner_size=65)
+
+    def test_errors(self):
+        self.assertRaises(TypeError, hashlib.md5, 'text')
+        self.assertRaises(TypeError, hashlib.sha256, 42)
+        self.assertRaises(TypeError, hashlib.sha256().update, 'text')
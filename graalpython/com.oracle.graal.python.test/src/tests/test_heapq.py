@@ -0,0 +1,119 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import random
+import unittest
+
+import _heapq
+
+
+def check_invariant(heap, max_heap=False):
+    for pos, item in enumerate(heap):
+        if pos:
+            parent = heap[(pos - 1) >> 1]
+            if max_heap:
+                assert item <= parent, (heap, pos)
+            else:
+                assert parent <= item, (heap, pos)
+
+
+class HeapqTests(unittest.TestCase):
+    def check_storage(self, data, below, above):
+        heap = []
+        for item in data:
+            _heapq.heappush(heap, item)
+            check_invariant(heap)
+        self.assertEqual([_heapq.heappop(heap) for _ in range(len(data))], sorted(data))
+        self.assertEqual(heap, [])
+
+        heap = list(data)
+        _heapq.heapify(heap)
+        check_invariant(heap)
+        self.assertEqual(_heapq.heappushpop(heap, below), below)
+        self.assertEqual(_heapq.heapreplace(heap, above), min(data))
+        check_invariant(heap)
+
+        heap = list(data)
+        _heapq._heapify_max(heap)
+        check_invariant(heap, max_heap=True)
+        self.assertEqual(_heapq._heapreplace_max(heap, min(data)), max(data))
+        check_invariant(heap, max_heap=True)
+        result = []
+        while heap:
+            result.append(_heapq._heappop_max(heap))
+        self.assertEqual(result, sorted([min(data)] + sorted(data)[:-1], reverse=True))
+
+    def test_int_storage(self):
+        self.check_storage([random.randrange(-1000, 1000) for _ in range(100)], -1001, 1001)
+
+    def test_long_storage(self):
+        self.check_storage([random.randrange(-2 ** 40, 2 ** 40) for _ in range(100)], -2 ** 41, 2 ** 41)
+
+    def test_double_storage(self):
+        self.check_storage([random.random() for _ in range(100)], -1.0, 2.0)
+
+    def test_object_storage(self):
+        self.check_storage([str(random.randrange(1000)) for _ in range(100)], "", "a")
+
+    def test_generalize(self):
+        heap = [3, 1, 2]
+        _heapq.heapify(heap)
+        _heapq.heappush(heap, 0.5)
+        _heapq.heappush(heap, 2 ** 70)
+        self.assertEqual(_heapq.heapreplace(heap, 1.5), 0.5)
+        self.assertEqual([_heapq.heappop(heap) for _ in range(len(heap))], [1, 1.5, 2, 3, 2 ** 70])
+
+    def test_errors(self):
+        self.assertRaises(TypeError, _heapq.heappush, (), 1)
+        self.assertRaises(TypeError, _heapq.heapify, None)
+        self.assertRaises(IndexError, _heapq.heappop, [])
+        self.assertRaises(IndexError, _heapq.heapreplace, [], 1)
+        self.assertEqual(_heapq.heappushpop([], 1), 1)
+
+        class Evil:
+            def __init__(self, heap):
+                self.heap = heap
+
+            def __lt__(self, other):
+                self.heap.clear()
+                return True
+
+        heap = []
+        heap.extend(Evil(heap) for _ in range(4))
+        self.assertRaises(RuntimeError, _heapq.heapify, heap)
@@ -80,6 +80,28 @@ def test_identity():
     nan = float('nan')
     assert nan is nan
 
+def test_ids_unique_across_threads():
+    import threading
+    results = []
+
+    def assign_ids():
+        objects = [object() for _ in range(1000)]
+        strings = ["s%d" % i for i in range(1000)]
+        results.append(({id(o) for o in objects}, objects, [id(s) for s in strings], strings))
+
+    threads = [threading.Thread(target=assign_ids) for _ in range(4)]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    object_ids = set()
+    for ids, objects, string_ids, strings in results:
+        assert len(ids) == len(objects)
+        object_ids |= ids
+        assert string_ids == [id(s) for s in strings]
+    assert len(object_ids) == 4 * 1000
+
+
 def test_string_interned():
     x='1234'
     y='1234'
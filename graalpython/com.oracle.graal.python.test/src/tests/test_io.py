@@ -312,5 +312,87 @@ class IOBaseTests(unittest.TestCase):
         self.assertEqual(["ab\r\n", "cd"], t.readlines())
 
 
+
+class FileIOLargeReadTests(unittest.TestCase):
+    # large enough for memory-mapped reads when they are enabled with --python.MMapReadThreshold,
+    # see FileIOMMapReadTests
+
+    SIZE = (9 << 20) + 12345
+
+    def setUp(self):
+        import tempfile
+        fd, self.path = tempfile.mkstemp()
+        self.data = bytes(i * 31 % 251 for i in range(256)) * (self.SIZE // 256) + b'tail'
+        with _io.FileIO(fd, 'w') as f:
+            f.write(self.data)
+
+    def tearDown(self):
+        import os
+        os.unlink(self.path)
+
+    def test_readall(self):
+        with _io.FileIO(self.path, 'r') as f:
+            self.assertEqual(self.data, f.readall())
+            self.assertEqual(len(self.data), f.tell())
+            self.assertEqual(b'', f.readall())
+        with _io.FileIO(self.path, 'r') as f:
+            # unaligned start position
+            f.seek(4097)
+            self.assertEqual(self.data[4097:], f.read())
+
+    def test_readinto(self):
+        with _io.FileIO(self.path, 'r') as f:
+            f.seek(12345)
+            buf = bytearray(len(self.data))
+            n = f.readinto(buf)
+            self.assertEqual(len(self.data) - 12345, n)
+            self.assertEqual(self.data[12345:], buf[:n])
+            self.assertEqual(len(self.data), f.tell())
+            self.assertEqual(0, f.readinto(buf))
+        with _io.FileIO(self.path, 'r') as f:
+            buf = bytearray(len(self.data) // 2)
+            self.assertEqual(len(buf), f.readinto(memoryview(buf)))
+            self.assertEqual(self.data[:len(buf)], buf)
+            self.assertEqual(len(buf), f.tell())
+            with open(self.path, 'rb') as g:
+                self.assertEqual(self.data, g.read())
+
+    def test_readall_growing_file(self):
+        import threading
+        chunk = b'0123456789abcdef' * 4096
+        count = 64
+
+        def append():
+            with _io.FileIO(self.path, 'a') as w:
+                for _ in range(count):
+                    w.write(chunk)
+
+        # appends that race with a read of the initial contents have to be picked up by reading on
+        # until EOF, and in any case no byte may be lost or read twice
+        with _io.FileIO(self.path, 'r') as f:
+            t = threading.Thread(target=append)
+            t.start()
+            result = [f.readall()]
+            while t.is_alive():
+                result.append(f.readall())
+            t.join()
+            result.append(f.readall())
+            self.assertEqual(self.data + chunk * count, b''.join(result))
+            self.assertEqual(len(self.data) + len(chunk) * count, f.tell())
+
+
+class FileIOMMapReadTests(unittest.TestCase):
+
+    def test_large_reads_with_mmap(self):
+        import sys
+        if sys.implementation.name != "graalpy":
+            return
+        import subprocess
+        # run the large read tests again with memory-mapped reads enabled for every read
+        result = subprocess.run([sys.executable, "--experimental-options", "--python.MMapReadThreshold=1", __file__, "FileIOLargeReadTests"],
+                                stdout=subprocess.PIPE, stderr=subprocess.STDOUT)
+        self.assertEqual(0, result.returncode, result.stdout.decode(errors='replace'))
+
+
 if __name__ == '__main__':
     unittest.main()
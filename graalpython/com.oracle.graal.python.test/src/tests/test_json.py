@@ -83,3 +83,89 @@ class JsonTest(unittest.TestCase):
             1521583201347000000,
             10,
         }
+
+
+def _stream_decoder(**kwargs):
+    import json
+    import _json
+    return _json.StreamDecoder(json.JSONDecoder(), **kwargs)
+
+
+@unittest.skipUnless(hasattr(__import__("_json"), "StreamDecoder"), "requires _json.StreamDecoder")
+class JsonStreamDecoderTest(unittest.TestCase):
+    DOCS = [{"a": [1, 2, {"b": "x\\\"}y"}]}, "str\"ing", 12.5e3, -7, True, None, [], {}, "héllo ☃ \U0001d11e",
+            [[[["deep"]]]], 1521583201331000000]
+
+    def encoded(self):
+        import json
+        return ("\n".join(json.dumps(d, ensure_ascii=False) for d in self.DOCS) + "\n").encode("utf-8")
+
+    def test_documents_any_chunking(self):
+        data = self.encoded()
+        for size in (1, 2, 3, 7, 64, len(data)):
+            decoder = _stream_decoder()
+            result = []
+            for i in range(0, len(data), size):
+                result += decoder.feed(data[i:i + size])
+            result += decoder.close()
+            self.assertEqual(self.DOCS, result, size)
+
+    def test_scalars_need_delimiter(self):
+        decoder = _stream_decoder()
+        self.assertEqual([], decoder.feed(b"12"))
+        self.assertEqual([], decoder.feed(b"3"))
+        self.assertEqual([123], decoder.feed(b" 4"))
+        self.assertEqual([4, "s", [5]], decoder.feed(b'"s"[5] 6'))
+        self.assertEqual([6], decoder.close())
+
+    def test_events(self):
+        decoder = _stream_decoder(events=True)
+        events = decoder.feed(b'{"a": [1, "x", null], "b": {"c": true}}\n[]')
+        self.assertEqual([
+            ("", "start_map", None),
+            ("", "map_key", "a"),
+            ("a", "start_array", None),
+            ("a.item", "number", 1),
+            ("a.item", "string", "x"),
+            ("a.item", "null", None),
+            ("a", "end_array", None),
+            ("", "map_key", "b"),
+            ("b", "start_map", None),
+            ("b", "map_key", "c"),
+            ("b.c", "boolean", True),
+            ("b", "end_map", None),
+            ("", "end_map", None),
+            ("", "start_array", None),
+            ("", "end_array", None),
+        ], events)
+        self.assertEqual([], decoder.close())
+
+    def test_events_deep_nesting(self):
+        depth = 100000
+        decoder = _stream_decoder(events=True)
+        events = decoder.feed(b"[" * depth + b"]" * depth)
+        self.assertEqual(2 * depth, len(events))
+        self.assertEqual("end_array", events[-1][1])
+
+    def test_hooks(self):
+        import decimal
+        import json
+        import _json
+        decoder = _json.StreamDecoder(json.JSONDecoder(parse_float=decimal.Decimal, object_pairs_hook=list))
+        self.assertEqual([[("x", decimal.Decimal("1.5"))]], decoder.feed(b'{"x": 1.5}'))
+
+    def test_errors(self):
+        import json
+        decoder = _stream_decoder()
+        self.assertEqual([], decoder.feed(b'[1, 2'))
+        self.assertRaises(json.JSONDecodeError, decoder.close)
+        self.assertRaises(ValueError, decoder.feed, b"1")
+
+        self.assertRaises(json.JSONDecodeError, _stream_decoder().feed, b'{"a": 1}}\n')
+        self.assertRaises(json.JSONDecodeError, _stream_decoder().feed, b'1x ')
+        self.assertRaises(json.JSONDecodeError, _stream_decoder().feed, b'[1,]')
+        self.assertRaises(UnicodeDecodeError, _stream_decoder().feed, b'"\xff"')
+
+        decoder = _stream_decoder()
+        self.assertEqual([], decoder.feed(b'"\xe2\x98'))
+        self.assertRaises(UnicodeDecodeError, decoder.close)
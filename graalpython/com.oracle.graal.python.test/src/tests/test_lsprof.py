@@ -0,0 +1,102 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import sys
+import unittest
+
+
+def fib(n):
+    return n if n < 2 else fib(n - 1) + fib(n - 2)
+
+
+def caller():
+    lst = []
+    for i in range(10):
+        lst.append(fib(5))
+    return lst
+
+
+def stats_by_name(profiler):
+    result = {}
+    for entry in profiler.getstats():
+        code = entry.code
+        result[code if isinstance(code, str) else code.co_name] = entry
+    return result
+
+
+@unittest.skipIf(sys.implementation.name == "graalpy" and not __graalpython__.uses_bytecode_interpreter, "deterministic profiling needs the bytecode interpreter")
+class TestDeterministicProfiler(unittest.TestCase):
+
+    def test_exact_counts(self):
+        import _lsprof
+        profiler = _lsprof.Profiler()
+        profiler.enable()
+        caller()
+        profiler.disable()
+        stats = stats_by_name(profiler)
+        self.assertEqual(stats["caller"].callcount, 1)
+        # fib(5) makes 15 calls, 14 of them recursive
+        self.assertEqual(stats["fib"].callcount, 150)
+        self.assertEqual(stats["fib"].reccallcount, 140)
+        self.assertGreaterEqual(stats["caller"].totaltime, stats["caller"].inlinetime)
+        self.assertGreaterEqual(stats["caller"].totaltime, stats["fib"].totaltime)
+        [append] = [name for name in stats if "append" in name]
+        self.assertEqual(stats[append].callcount, 10)
+        fib_calls = [sub for sub in stats["caller"].calls if not isinstance(sub.code, str) and sub.code.co_name == "fib"]
+        self.assertEqual(fib_calls[0].callcount, 10)
+
+    def test_no_builtins_no_subcalls(self):
+        import _lsprof
+        profiler = _lsprof.Profiler(subcalls=False, builtins=False)
+        profiler.enable()
+        caller()
+        profiler.disable()
+        stats = stats_by_name(profiler)
+        self.assertFalse([name for name in stats if "append" in name])
+        self.assertIsNone(stats["caller"].calls)
+        profiler.clear()
+        self.assertEqual(profiler.getstats(), [])
+
+    def test_cprofile(self):
+        import cProfile
+        import pstats
+        profiler = cProfile.Profile()
+        profiler.runcall(caller)
+        calls = {func[2]: stat[1] for func, stat in pstats.Stats(profiler).stats.items()}
+        self.assertEqual(calls["fib"], 150)
@@ -51,10 +51,22 @@ try:
         lambda: set_strategy(dict(), 'empty'),
         lambda: set_strategy(dict(), 'dynamicobject'),
         lambda: set_strategy(dict(), 'economicmap'),
+        lambda: set_strategy(dict(), 'primitivemap'),
+        lambda: set_strategy(dict(), 'primitivemap_str'),
+        lambda: __graalpython__.share_dict(dict()),
     ]
+    share_dict = __graalpython__.share_dict
+    get_strategy = __graalpython__.get_storage_strategy
 except NameError:
     # For CPython, just to verify the test results
     FACTORIES = [lambda: dict()]
+    share_dict = lambda d: d
+    get_strategy = None
+
+
+def assert_strategy(d, expected):
+    if get_strategy:
+        assert get_strategy(d) == expected, get_strategy(d)
 
 
 ALL_KEYS = [1, 1.5, 'foo', MyCustomString()]
@@ -232,3 +244,104 @@ def test_side_effects():
         assert log == [
             "Hash on 'foo'",
             "Eq on '%s' and 'foo'" % key]
+
+
+def test_shared_dict_concurrent_reads():
+    import threading
+    d = share_dict({'key%d' % i: i for i in range(1000)})
+    d.update({i: -i for i in range(1000)})
+    errors = []
+
+    def reader():
+        for _ in range(20):
+            for i in range(1000):
+                if d['key%d' % i] != i or d[i] != -i:
+                    errors.append(i)
+
+    def writer():
+        for i in range(2000):
+            d['tmp%d' % i] = i
+            if i % 3 == 0:
+                del d['tmp%d' % i]
+
+    threads = [threading.Thread(target=reader) for _ in range(4)] + [threading.Thread(target=writer)]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    assert errors == []
+    assert len(d) == 2000 + 2000 - 667
+
+
+class HashAsOne:
+    def __hash__(self):
+        return 1
+
+    def __eq__(self, other):
+        return other == 1
+
+
+def test_primitive_keys_and_values():
+    counts = {}
+    for i in range(200):
+        counts[i % 50] = counts.get(i % 50, 0) + 1
+    assert len(counts) == 50
+    assert list(counts.keys()) == list(range(50))
+    assert all(v == 4 for v in counts.values())
+    assert counts[1.0] == 4
+    assert counts[True] == 4
+    assert counts[HashAsOne()] == 4
+    assert 'a' not in counts
+    assert_raises_keyerror(counts, 50)
+    assert_strategy(counts, 'primitivemap')
+
+    hist = {}
+    for name in ['a', 'b', 'a', 'c']:
+        hist[name] = hist.get(name, 0.0) + 0.5
+    assert hist == {'a': 1.0, 'b': 0.5, 'c': 0.5}
+    assert list(reversed(hist)) == ['c', 'b', 'a']
+    assert hist.copy() == hist
+    assert_strategy(hist, 'primitivemap_str')
+
+
+def test_primitive_generalization():
+    d = {1: 1}
+    d[True] = 2
+    assert d == {1: 2}
+    assert list(d.keys())[0] is not True
+
+    d = {True: 1}
+    d[2] = 2
+    assert list(d.keys())[0] is True
+
+    d = {'a': 1}
+    assert_strategy(d, 'primitivemap_str')
+    d['b'] = 2.5
+    d[3] = 'x'
+    assert_strategy(d, 'economicmap')
+    assert d == {'a': 1, 'b': 2.5, 3: 'x'}
+    assert list(d) == ['a', 'b', 3]
+
+    d = {i: i for i in range(100)}
+    del d[50]
+    assert 50 not in d and len(d) == 99
+    d.clear()
+    assert d == {}
+    d[1] = 1.5
+    assert d == {1: 1.5}
+    d[2] = 2
+    assert d == {1: 1.5, 2: 2}
+
+
+def test_primitive_colliding_keys():
+    # ints hash to themselves, so all these keys have the same low bits
+    for stride in [1 << 16, 1 << 32, 1000]:
+        d = {}
+        for i in range(5000):
+            d[i * stride] = i
+        assert_strategy(d, 'primitivemap')
+        assert len(d) == 5000
+        for i in range(5000):
+            assert d[i * stride] == i
+        assert (5000 * stride) not in d
+        assert list(d) == [i * stride for i in range(5000)]
@@ -222,6 +222,25 @@ def test_readline():
     assert m.readline() == b'ab'
 
 
+def test_memoryview():
+    data = bytes(range(256)) * 64
+    with open(TESTFN, "wb") as f:
+        f.write(data)
+    try:
+        with open(TESTFN, "rb") as f:
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+            mv = memoryview(m)
+            assert len(mv) == len(data)
+            assert mv[100:5000].tobytes() == data[100:5000]
+            assert bytes(mv) == data
+            buf = bytearray(10)
+            buf[3:8] = mv[4095:4100]
+            assert buf == b'\0\0\0' + data[4095:4100] + b'\0\0'
+            mv.release()
+            m.close()
+    finally:
+        os.unlink(TESTFN)
+
 def test_main():
     #run_unittest(MmapTests, LargeMmapTests)
     run_unittest(MmapTests)
@@ -71,3 +71,59 @@ def test_wait():
     assert set(res) == set([b, x])
     assert b.recv() == 1
     assert x.recv() == 2
+
+
+def test_send_bytes_buffers():
+    x, y = multiprocessing.connection.Pipe(False)  # Truffle multiprocessing pipe
+    data = b"abcdefgh" * 1000
+    y.send_bytes(data)
+    y.send_bytes(data, 8, 16)
+    mutable = bytearray(b"xyz")
+    y.send_bytes(mutable)
+    mutable[0] = ord("X")
+    y.send_bytes(memoryview(data)[:3])
+    assert x.recv_bytes() == data
+    assert x.recv_bytes() == data[8:24]
+    assert x.recv_bytes() == b"xyz"
+    assert x.recv_bytes() == b"abc"
+    y.close()
+    try:
+        x.recv_bytes()
+    except EOFError:
+        pass
+    else:
+        assert False, "expected EOFError"
+
+
+def test_send_bytes_many():
+    import threading
+    x, y = multiprocessing.connection.Pipe(False)  # Truffle multiprocessing pipe
+    payload = bytes(range(256)) * 4096
+    count = 200
+    received = []
+
+    def reader():
+        for _ in range(count):
+            received.append(x.recv_bytes())
+
+    t = threading.Thread(target=reader)
+    t.start()
+    for i in range(count):
+        y.send_bytes(payload[i:])
+    t.join()
+    assert [len(r) for r in received] == [len(payload) - i for i in range(count)]
+    assert all(r == payload[i:] for i, r in enumerate(received))
+
+
+def test_spawn_context_pool():
+    import sys
+    if sys.implementation.name == "graalpy":
+        import subprocess
+        src = "\n".join([
+            "from multiprocessing import Pool",
+            "for _ in range(3):",
+            "    with Pool(2) as p:",
+            "        assert p.map(abs, range(-5, 5)) == [5, 4, 3, 2, 1, 0, 1, 2, 3, 4]",
+        ])
+        result = subprocess.run([sys.executable, "--experimental-options", "--python.SpawnContextPoolSize=2", "-c", src])
+        assert result.returncode == 0
@@ -169,4 +169,59 @@ def test_class_attr():
     CCC().bar()
 
 def test_reduce_ex_with_none():
-    assert_raises(TypeError, object(), None)
\ No newline at end of file
+    assert_raises(TypeError, object(), None)
+
+def test_stable_attribute_layout():
+    # enough instances with the same attributes for the class to switch to the compact layout
+    class Point:
+        def __init__(self, x, y, label):
+            self.x = x
+            self.y = y
+            self.label = label
+
+    points = [Point(i, i * 0.5, str(i)) for i in range(1000)]
+    for i, p in enumerate(points):
+        assert (p.x, p.y, p.label) == (i, i * 0.5, str(i))
+
+    p = points[-1]
+    p.x = "not an int anymore"
+    p.y = 2 ** 100
+    assert (p.x, p.y) == ("not an int anymore", 2 ** 100)
+    for i in range(10):
+        setattr(p, "extra%d" % i, i)
+    assert [getattr(p, "extra%d" % i) for i in range(10)] == list(range(10))
+    del p.label
+    assert not hasattr(p, "label")
+    assert p.__dict__["extra3"] == 3
+    p.__dict__["z"] = 1.5
+    assert p.z == 1.5
+
+    class Other:
+        pass
+
+    q = points[-2]
+    q.__class__ = Other
+    assert type(q) is Other
+    assert vars(q) == {"x": 998, "y": 499.0, "label": "998"}
+
+    import copy
+    r = copy.copy(points[10])
+    assert (r.x, r.y, r.label) == (10, 5.0, "10")
+
+
+def test_stable_slots_layout():
+    class Pair:
+        __slots__ = ("a", "b")
+
+        def __init__(self, a, b):
+            self.a = a
+            self.b = b
+
+    pairs = [Pair(i, -i) for i in range(1000)]
+    assert sum(p.a + p.b for p in pairs) == 0
+    p = pairs[500]
+    del p.a
+    assert_raises(AttributeError, getattr, p, "a")
+    assert_raises(AttributeError, setattr, p, "c", 1)
+    p.a = "a"
+    assert (p.a, p.b) == ("a", -500)
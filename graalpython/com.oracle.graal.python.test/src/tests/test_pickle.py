@@ -66,5 +66,100 @@ class TestPickle(unittest.TestCase):
         assert [16,17,18,19] == [next(teeit2) for i in range(1, 5)]
         assert [16,17,18,19] == [next(teeit) for i in range(1, 5)]
 
+    def test_accelerated_module(self):
+        import _pickle
+        self.assertIs(pickle.Pickler, _pickle.Pickler)
+        self.assertIs(pickle.Unpickler, _pickle.Unpickler)
+        self.assertTrue(issubclass(_pickle.PicklingError, _pickle.PickleError))
+        self.assertTrue(issubclass(_pickle.UnpicklingError, _pickle.PickleError))
+
+    def test_roundtrip_protocols(self):
+        values = [None, True, False, 0, -1, 255, 65535, 2 ** 31, -2 ** 63, 2 ** 100, 1.5,
+                  "", "abc", "\u20ac\U0001F600", b"", b"xyz", bytearray(b"ba"),
+                  (), (1,), (1, 2), (1, 2, 3), (1, 2, 3, 4), [], [1, [2, 3]],
+                  {}, {"a": 1, 2: [3]}, set(), {1, 2, 3}, frozenset({"x"}), complex(1, 2),
+                  Ellipsis, NotImplemented, len, TestPickle, b"a" * 70000, "s" * 70000]
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            for value in values:
+                data = pickle.dumps(value, protocol=proto)
+                self.assertEqual(pickle.loads(data), value, msg="protocol %d" % proto)
+
+    def test_recursive(self):
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            lst = [1]
+            lst.append(lst)
+            res = pickle.loads(pickle.dumps(lst, proto))
+            self.assertIs(res[1], res)
+            d = {}
+            d["self"] = d
+            res = pickle.loads(pickle.dumps(d, proto))
+            self.assertIs(res["self"], res)
+            shared = [1, 2]
+            res = pickle.loads(pickle.dumps((shared, shared), proto))
+            self.assertIs(res[0], res[1])
+
+    def test_pickler_unpickler_file(self):
+        import io
+        f = io.BytesIO()
+        p = pickle.Pickler(f, 2)
+        p.dump([1, 2])
+        p.dump("second")
+        f.seek(0)
+        u = pickle.Unpickler(f)
+        self.assertEqual(u.load(), [1, 2])
+        self.assertEqual(u.load(), "second")
+        self.assertRaises(EOFError, u.load)
+
+    def test_persistent(self):
+        import io
+
+        class P(pickle.Pickler):
+            def persistent_id(self, obj):
+                return "pid" if obj == "external" else None
+
+        class U(pickle.Unpickler):
+            def persistent_load(self, pid):
+                return "loaded:" + pid
+
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            f = io.BytesIO()
+            P(f, proto).dump(["external", "internal"])
+            f.seek(0)
+            self.assertEqual(U(f).load(), ["loaded:pid", "internal"])
+
+    def test_memo(self):
+        import io
+        p = pickle.Pickler(io.BytesIO(), 2)
+        obj = [1]
+        p.dump(obj)
+        memo = p.memo.copy()
+        self.assertEqual(len(memo), 1)
+        p.clear_memo()
+        self.assertEqual(len(p.memo.copy()), 0)
+        with self.assertRaises(TypeError):
+            p.memo = 1
+
+    def test_pickle_buffer(self):
+        buf = pickle.PickleBuffer(b"abc")
+        self.assertEqual(bytes(buf.raw()), b"abc")
+        data = pickle.dumps(buf, protocol=5)
+        self.assertEqual(pickle.loads(data), b"abc")
+        buffers = []
+        ba = bytearray(b"out-of-band")
+        data = pickle.dumps(pickle.PickleBuffer(ba), protocol=5, buffer_callback=buffers.append)
+        self.assertEqual(len(buffers), 1)
+        self.assertEqual(bytes(pickle.loads(data, buffers=buffers)), b"out-of-band")
+        buf.release()
+        self.assertRaises(ValueError, buf.raw)
+
+    def test_errors(self):
+        self.assertRaises(ValueError, pickle.dumps, 1, protocol=6)
+        self.assertRaises(ValueError, pickle.dumps, pickle.PickleBuffer(b"x"), protocol=4, buffer_callback=print)
+        self.assertRaises((pickle.PicklingError, AttributeError), pickle.dumps, lambda: 1)
+        self.assertRaises(EOFError, pickle.loads, b"")
+        self.assertRaises(pickle.UnpicklingError, pickle.loads, b"\xff")
+        self.assertRaises(TypeError, pickle.Unpickler, object())
+
+
 if __name__ == '__main__':
     unittest.main()
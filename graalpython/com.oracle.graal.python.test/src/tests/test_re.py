@@ -488,3 +488,39 @@ class ReTests(unittest.TestCase):
             r"(//?| ==?)|([[]]+)")
         for m in regex.finditer(''):
             self.fail()
+
+    def test_match_object(self):
+        m = re.compile(r"(?P<first>\w+) (?P<last>\w+)?(x)?").search("-- Isaac Newton --", 1, 17)
+        self.assertIsInstance(m, re.Match)
+        self.assertEqual(m.group(), "Isaac Newton")
+        self.assertEqual(m.group(1, "last"), ("Isaac", "Newton"))
+        self.assertEqual(m["first"], "Isaac")
+        self.assertEqual(m.groups(), ("Isaac", "Newton", None))
+        self.assertEqual(m.groups("-"), ("Isaac", "Newton", "-"))
+        self.assertEqual(m.groupdict(), {"first": "Isaac", "last": "Newton"})
+        self.assertEqual(m.span("last"), (9, 15))
+        self.assertEqual(m.start(3), -1)
+        self.assertEqual(m.regs, ((3, 15), (3, 8), (9, 15), (-1, -1)))
+        self.assertEqual((m.pos, m.endpos), (1, 17))
+        self.assertEqual(m.lastindex, 2)
+        self.assertEqual(m.lastgroup, "last")
+        self.assertEqual(m.expand(r"\g<last>, \1"), "Newton, Isaac")
+        self.assertEqual(repr(m), "<re.Match object; span=(3, 15), match='Isaac Newton'>")
+        self.assertRaises(IndexError, m.group, 4)
+        self.assertRaises(IndexError, m.group, "middle")
+        self.assertEqual(re.search(b"a(b)", bytearray(b"xab")).group(1), b"b")
+
+    def test_sub_templates(self):
+        self.assertEqual(re.sub(r"(\w)(\d)?", r"<\2\1>", "a1b"), "<1a><b>")
+        self.assertEqual(re.sub(r"(?P<x>a)", r"\g<x>\g<0>\n", "bab"), "baa\nb")
+        self.assertEqual(re.subn(r"a", lambda m: m.group().upper(), "aba", count=1), ("Aba", 1))
+        self.assertEqual(re.sub(r"x*", "-", "abxd"), "-a-b--d-")
+        self.assertEqual(re.sub(rb"(a)", rb"[\1]", bytearray(b"bab")), b"b[a]b")
+        self.assertEqual(re.sub(rb"a", lambda m: None, b"bab"), b"bb")
+        self.assertRaises(TypeError, re.sub, r"a", lambda m: 1, "a")
+
+    def test_findall_split_bytes(self):
+        self.assertEqual(re.findall(rb"(a)(b)?", b"abac"), [(b"a", b"b"), (b"a", b"")])
+        self.assertEqual(re.compile(rb"\w").findall(bytearray(b"abc"), 1, 2), [b"b"])
+        self.assertEqual(re.split(rb"(,)|;", b"a,b;c"), [b"a", b",", b"b", None, b"c"])
+        self.assertEqual(re.split(r"x*", "axbc", maxsplit=2), ["", "a", "bc"])
@@ -37,10 +37,12 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import errno
 import os
 import select
 import sys
 import tempfile
+import time
 import unittest
 
 PREFIX = 'select_graalpython_test'
@@ -95,3 +97,88 @@ class SelectTests(unittest.TestCase):
             fds = [F(f.fileno()), F(stdout_fd), F(f.fileno())]
             res = select.select(fds, [], [], 1)
             assert res == ([fds[0], fds[2]], [], [])
+
+
+@unittest.skipUnless(hasattr(select, 'poll'), 'select.poll is not available')
+class PollTests(unittest.TestCase):
+    def setUp(self):
+        self.r, self.w = os.pipe()
+
+    def tearDown(self):
+        for fd in (self.r, self.w):
+            try:
+                os.close(fd)
+            except OSError:
+                pass
+
+    def test_poll_register_modify_unregister(self):
+        p = select.poll()
+        p.register(self.r, select.POLLIN)
+        self.assertEqual(p.poll(0), [])
+        os.write(self.w, b'x')
+        self.assertEqual(p.poll(1000), [(self.r, select.POLLIN)])
+        # registrations are kept between calls
+        self.assertEqual(p.poll(1000), [(self.r, select.POLLIN)])
+        p.modify(self.r, select.POLLOUT)
+        self.assertEqual(p.poll(0), [])
+        p.modify(self.r, select.POLLIN)
+        self.assertEqual(p.poll(0), [(self.r, select.POLLIN)])
+        p.unregister(self.r)
+        self.assertEqual(p.poll(0), [])
+        self.assertRaises(KeyError, p.unregister, self.r)
+        with self.assertRaises(OSError) as cm:
+            p.modify(self.r, select.POLLIN)
+        self.assertEqual(cm.exception.errno, errno.ENOENT)
+
+    def test_poll_multiple_fds(self):
+        p = select.poll()
+        p.register(self.r)
+        p.register(self.w, select.POLLOUT)
+        self.assertEqual(p.poll(0), [(self.w, select.POLLOUT)])
+        os.write(self.w, b'x')
+        self.assertEqual(sorted(p.poll(1000)), sorted([(self.r, select.POLLIN), (self.w, select.POLLOUT)]))
+        self.assertEqual(os.read(self.r, 1), b'x')
+        self.assertEqual(p.poll(0), [(self.w, select.POLLOUT)])
+
+    def test_poll_closed_fd(self):
+        p = select.poll()
+        p.register(self.r, select.POLLIN)
+        os.close(self.r)
+        self.assertEqual(p.poll(0), [(self.r, select.POLLNVAL)])
+
+    def test_poll_timeout(self):
+        p = select.poll()
+        p.register(self.r, select.POLLIN)
+        start = time.monotonic()
+        self.assertEqual(p.poll(50), [])
+        self.assertEqual(p.poll(10.5), [])
+        self.assertGreaterEqual(time.monotonic() - start, 0.05)
+        self.assertRaises(TypeError, p.poll, 'abc')
+
+    def test_poll_eventmask_validation(self):
+        p = select.poll()
+        self.assertRaises(ValueError, p.register, self.r, -1)
+        self.assertRaises(OverflowError, p.register, self.r, 1 << 16)
+        self.assertRaises(TypeError, p.register, 'abc')
+
+    def test_poll_blocking_mode_restored(self):
+        p = select.poll()
+        p.register(self.r, select.POLLIN)
+        os.write(self.w, b'x')
+        self.assertEqual(p.poll(1000), [(self.r, select.POLLIN)])
+        self.assertTrue(os.get_blocking(self.r))
+        os.set_blocking(self.r, False)
+        self.assertEqual(p.poll(1000), [(self.r, select.POLLIN)])
+        os.set_blocking(self.r, True)
+        self.assertTrue(os.get_blocking(self.r))
+        self.assertEqual(os.read(self.r, 1), b'x')
+
+    def test_default_selector_uses_poll(self):
+        import selectors
+        self.assertTrue(issubclass(selectors.DefaultSelector, (selectors.PollSelector, selectors.EpollSelector)))
+        with selectors.DefaultSelector() as sel:
+            sel.register(self.r, selectors.EVENT_READ, 'data')
+            self.assertEqual(sel.select(0), [])
+            os.write(self.w, b'x')
+            [(key, events)] = sel.select(1)
+            self.assertEqual((key.fd, key.data, events), (self.r, 'data', selectors.EVENT_READ))
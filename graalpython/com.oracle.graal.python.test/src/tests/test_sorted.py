@@ -45,3 +45,30 @@ class TestSorted(unittest.TestCase):
 
         # Use eval to get the fast path specialization
         self.assertEqual(eval("sorted(MyList())", {"MyList": MyList}), [2, 4, 5])
+
+    def test_large_homogeneous(self):
+        # large enough to take the parallel path in the runtime
+        n = 1 << 17
+
+        def sort(lst, **kwargs):
+            lst = list(lst)
+            lst.sort(**kwargs)
+            return lst
+
+        ints = [(i * 7919) % n - n // 2 for i in range(n)]
+        self.assertEqual(sort(ints), list(range(-n // 2, n // 2)))
+        self.assertEqual(sort(ints, reverse=True), list(range(n // 2 - 1, -n // 2 - 1, -1)))
+        floats = [x / 3 for x in ints]
+        self.assertEqual(sort(floats), [x / 3 for x in range(-n // 2, n // 2)])
+        strs = [str(x) for x in ints]
+        expected = sort(strs, key=lambda s: s.encode())
+        self.assertEqual(sort(strs), expected)
+        self.assertEqual(sort(strs, reverse=True), expected[::-1])
+
+    def test_large_key_stability(self):
+        n = 1 << 17
+        data = [(i % 10, i) for i in range(n)]
+        data.sort(key=lambda t: t[0])
+        self.assertEqual(data, [(k, i) for k in range(10) for i in range(k, n, 10)])
+        data.sort(key=lambda t: t[1] % 10, reverse=True)
+        self.assertEqual(data, [(k, i) for k in range(9, -1, -1) for i in range(k, n, 10)])
@@ -0,0 +1,164 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import unittest
+
+import sqlite3
+import _sqlite3
+
+
+@unittest.skipIf(_sqlite3._s is None, "native sqlite3 support is not available")
+class SQLite3Tests(unittest.TestCase):
+
+    def setUp(self):
+        self.con = sqlite3.connect(":memory:")
+        self.con.execute("create table t(i integer, s text, f real, b blob)")
+
+    def tearDown(self):
+        self.con.close()
+
+    def test_roundtrip(self):
+        values = [(1, "a", 1.5, b"\x00\x01"), (2**62, "é\U0001f600", -0.25, None), (None, None, None, b"")]
+        self.con.executemany("insert into t values (?, ?, ?, ?)", values)
+        self.assertEqual(self.con.execute("select * from t").fetchall(), values)
+
+    def test_executemany_rowcount_and_mappings(self):
+        cur = self.con.executemany("insert into t(i, s) values (:i, :s)", ({"i": i, "s": str(i)} for i in range(100)))
+        self.assertEqual(cur.rowcount, 100)
+        self.assertIsNone(cur.lastrowid)
+        self.assertEqual(self.con.execute("select count(*), sum(i) from t").fetchone(), (100, 4950))
+
+    def test_executemany_errors(self):
+        with self.assertRaises(sqlite3.ProgrammingError):
+            self.con.executemany("insert into t(i) values (?)", [(1, 2)])
+        with self.assertRaises(sqlite3.InterfaceError):
+            self.con.executemany("insert into t(i) values (?)", [(object(),)])
+        with self.assertRaises(sqlite3.ProgrammingError):
+            self.con.executemany("select ?", [(1,)])
+        with self.assertRaises(OverflowError):
+            self.con.execute("insert into t(i) values (?)", (2**64,))
+
+    def test_fetch_in_chunks(self):
+        self.con.executemany("insert into t(i) values (?)", ((i,) for i in range(1000)))
+        cur = self.con.execute("select i from t order by i")
+        self.assertEqual(cur.fetchone(), (0,))
+        self.assertEqual(cur.fetchmany(3), [(1,), (2,), (3,)])
+        self.assertEqual(next(cur), (4,))
+        self.assertEqual([r[0] for r in cur], list(range(5, 1000)))
+        self.assertIsNone(cur.fetchone())
+        self.assertEqual(cur.fetchall(), [])
+
+    def test_transactions(self):
+        self.con.execute("insert into t(i) values (1)")
+        self.assertTrue(self.con.in_transaction)
+        self.con.rollback()
+        self.assertFalse(self.con.in_transaction)
+        self.assertEqual(self.con.execute("select count(*) from t").fetchone(), (0,))
+        with self.con:
+            self.con.execute("insert into t(i) values (1)")
+        self.assertFalse(self.con.in_transaction)
+        self.con.isolation_level = None
+        self.con.execute("insert into t(i) values (2)")
+        self.assertFalse(self.con.in_transaction)
+
+    def test_row_factory(self):
+        self.con.execute("insert into t(i, s) values (1, 'x')")
+        self.con.row_factory = sqlite3.Row
+        row = self.con.execute("select i, s as name from t").fetchone()
+        self.assertEqual(row.keys(), ["i", "name"])
+        self.assertEqual(row["NAME"], "x")
+        self.assertEqual(row[0], 1)
+        self.assertEqual(tuple(row), (1, "x"))
+        self.con.row_factory = lambda cursor, r: {d[0]: v for d, v in zip(cursor.description, r)}
+        self.assertEqual(self.con.execute("select i from t").fetchall(), [{"i": 1}])
+
+    def test_text_factory(self):
+        self.con.execute("insert into t(s) values ('abc')")
+        self.con.text_factory = bytes
+        self.assertEqual(self.con.execute("select s from t").fetchone(), (b"abc",))
+        self.con.text_factory = lambda b: b.decode().upper()
+        self.assertEqual(self.con.execute("select s from t").fetchone(), ("ABC",))
+
+    def test_adapters_and_converters(self):
+        import datetime
+        con = sqlite3.connect(":memory:", detect_types=sqlite3.PARSE_DECLTYPES | sqlite3.PARSE_COLNAMES)
+        try:
+            con.execute("create table d(x date, y timestamp)")
+            day = datetime.date(2020, 2, 29)
+            stamp = datetime.datetime(2020, 2, 29, 12, 30, 1, 500)
+            con.execute("insert into d values (?, ?)", (day, stamp))
+            self.assertEqual(con.execute("select x, y from d").fetchone(), (day, stamp))
+            cur = con.execute('select x as "x [timestamp]" from d')
+            self.assertEqual(cur.description[0][0], "x")
+        finally:
+            con.close()
+
+    def test_executescript(self):
+        self.con.executescript("""
+            insert into t(i) values (1);
+            -- a comment
+            insert into t(i) values (2);
+        """)
+        self.assertEqual(self.con.execute("select sum(i) from t").fetchone(), (3,))
+        with self.assertRaises(sqlite3.Warning):
+            self.con.execute("select 1; select 2")
+
+    def test_errors(self):
+        with self.assertRaises(sqlite3.OperationalError):
+            self.con.execute("select * from nonexistent")
+        self.con.execute("create table u(x unique)")
+        self.con.execute("insert into u values (1)")
+        with self.assertRaises(sqlite3.IntegrityError):
+            self.con.execute("insert into u values (1)")
+        self.con.close()
+        with self.assertRaises(sqlite3.ProgrammingError):
+            self.con.execute("select 1")
+
+    def test_lastrowid_and_description(self):
+        cur = self.con.execute("insert into t(i) values (42)")
+        self.assertEqual(cur.rowcount, 1)
+        self.assertEqual(cur.lastrowid, 1)
+        self.assertIsNone(cur.description)
+        cur = self.con.execute("select i as a, s as b from t")
+        self.assertEqual([d[0] for d in cur.description], ["a", "b"])
+        self.assertEqual(cur.rowcount, -1)
+
+    def test_complete_statement(self):
+        self.assertTrue(sqlite3.complete_statement("select 1;"))
+        self.assertFalse(sqlite3.complete_statement("select 1"))
@@ -269,3 +269,94 @@ def test_pack_varargs():
     except TypeError:
         raised = True
     assert raised
+
+
+def test_format_errors():
+    assert_raises(struct.error, struct.calcsize, 'z')
+    assert_raises(struct.error, struct.calcsize, '3')
+    assert_raises(struct.error, struct.calcsize, '<P')
+    assert_raises(TypeError, struct.Struct, 1)
+    assert struct.Struct(b'<i').format == '<i'
+    assert struct.Struct('i').format == 'i'
+    assert struct.calcsize('ci') == struct.calcsize('i') * 2
+    assert struct.calcsize('<ci') == 5
+    assert struct.calcsize('c0i') == 4
+    assert struct.calcsize('i 2h') == 8
+    assert struct.calcsize('0i') == 0
+
+
+def test_integer_ranges():
+    for fmt, good, bad in [('b', (-128, 127), (-129, 128)),
+                           ('B', (0, 255), (-1, 256)),
+                           ('<h', (-32768, 32767), (-32769, 32768)),
+                           ('<H', (0, 65535), (-1, 65536)),
+                           ('<i', (-2**31, 2**31 - 1), (-2**31 - 1, 2**31)),
+                           ('<I', (0, 2**32 - 1), (-1, 2**32)),
+                           ('<q', (-2**63, 2**63 - 1), (-2**63 - 1, 2**63)),
+                           ('<Q', (0, 2**64 - 1), (-1, 2**64))]:
+        for v in good:
+            assert struct.unpack(fmt, struct.pack(fmt, v)) == (v,), fmt
+        for v in bad:
+            assert_raises(struct.error, struct.pack, fmt, v)
+
+    class Index:
+        def __index__(self):
+            return 42
+
+    assert struct.pack('<i', Index()) == b'\x2a\x00\x00\x00'
+    assert_raises(struct.error, struct.pack, 'i', 1.0)
+    assert_raises(struct.error, struct.pack, 'd', 'x')
+    assert_raises(OverflowError, struct.pack, '<f', 1e300)
+    assert_raises(OverflowError, struct.pack, '<e', 65520.0)
+    assert struct.pack('<e', 65519.0) == b'\xff\x7b'
+
+
+def test_item_count_errors():
+    assert_raises(struct.error, struct.pack, 'ii', 1)
+    assert_raises(struct.error, struct.pack, 'i', 1, 2)
+    assert_raises(struct.error, struct.unpack, 'i', b'123')
+    assert_raises(TypeError, struct.unpack, 'i', 'abcd')
+    assert_raises(struct.error, struct.pack_into, 'i')
+    assert_raises(struct.error, struct.pack_into, 'i', bytearray(4))
+    assert_raises(TypeError, struct.pack_into, 'i', b'1234', 0, 1)
+    assert_raises(struct.error, struct.pack_into, 'i', bytearray(4), 0)
+
+
+def test_negative_offsets():
+    buf = bytearray(8)
+    struct.pack_into('<i', buf, -4, 7)
+    assert buf == b'\x00\x00\x00\x00\x07\x00\x00\x00'
+    assert struct.unpack_from('<i', buf, -4) == (7,)
+    assert_raises(struct.error, struct.pack_into, '<i', buf, -2, 7)
+    assert_raises(struct.error, struct.pack_into, '<i', buf, -12, 7)
+    assert_raises(struct.error, struct.unpack_from, '<i', buf, -12)
+
+
+def test_buffer_views():
+    buf = bytearray(12)
+    view = memoryview(buf)[4:]
+    struct.pack_into('<2h', view, 2, 1, -1)
+    assert buf == b'\x00' * 6 + b'\x01\x00\xff\xff' + b'\x00' * 2
+    assert struct.unpack_from('<2h', view, 2) == (1, -1)
+    assert list(struct.iter_unpack('<h', view)) == [(0,), (1,), (-1,), (0,)]
+    struct.pack_into('4s', buf, 0, b'ab')
+    assert buf[:4] == b'ab\x00\x00'
+
+
+def test_strings():
+    assert struct.pack('3s', b'abcdef') == b'abc'
+    assert struct.pack('3s', bytearray(b'ab')) == b'ab\x00'
+    assert struct.pack('p', b'x' * 300) == b'\x00'
+    assert struct.pack('4p', b'abcdef') == b'\x03abc'
+    assert struct.unpack('4p', b'\x09abc') == (b'abc',)
+    assert_raises(struct.error, struct.pack, 'c', 1)
+    assert_raises(struct.error, struct.pack, 'c', b'ab')
+    assert_raises(struct.error, struct.pack, 's', 'abc')
+
+
+def test_clearcache():
+    fmts = ['<%di' % i for i in range(150)]
+    for fmt in fmts:
+        assert struct.calcsize(fmt) == 4 * int(fmt[1:-1])
+    struct._clearcache()
+    assert struct.pack(fmts[3], 1, 2, 3) == b'\x01\x00\x00\x00\x02\x00\x00\x00\x03\x00\x00\x00'
@@ -0,0 +1,139 @@
+# Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# Exercises sequences that the bytecode compiler fuses into superinstructions. Each function is
+# run repeatedly so that the instructions get quickened before the types change.
+
+
+def add(a, b):
+    return a + b
+
+
+def count_below(a, b):
+    n = 0
+    while a < b:
+        a = a + 1
+        n += 1
+    return n
+
+
+def get_x(o):
+    return o.x
+
+
+def get_x_or_default(o):
+    try:
+        return o.x
+    except AttributeError:
+        return -1
+
+
+def unbound_pair(flag):
+    if flag:
+        a = 1
+    b = 2
+    return a * b
+
+
+class X:
+    def __init__(self, x):
+        self.x = x
+
+
+def test_load_fast_load_fast_binary_op():
+    for i in range(100):
+        assert add(i, 1) == i + 1
+    for i in range(100):
+        assert add(i + 0.5, 1.5) == i + 2.0
+    assert add(2 ** 31 - 1, 1) == 2 ** 31
+    assert add("a", "b") == "ab"
+    assert add([1], [2]) == [1, 2]
+    assert add(1, 2.5) == 3.5
+
+
+def test_compare_and_jump():
+    for i in range(100):
+        assert count_below(0, i) == i
+    for i in range(100):
+        assert count_below(0.5, i) == i
+    assert count_below(1 << 40, (1 << 40) + 3) == 3
+    assert count_below(0, 3.5) == 4
+
+
+def test_load_fast_load_attr():
+    for i in range(100):
+        assert get_x(X(i)) == i
+        assert get_x_or_default(X(i)) == i
+    assert get_x_or_default(object()) == -1
+    try:
+        get_x(object())
+    except AttributeError:
+        pass
+    else:
+        assert False, "expected AttributeError"
+
+
+def test_unbound_in_pair():
+    for i in range(100):
+        assert unbound_pair(True) == 2
+    try:
+        unbound_pair(False)
+    except UnboundLocalError:
+        pass
+    else:
+        assert False, "expected UnboundLocalError"
+
+
+def test_tracing_sees_every_line():
+    import sys
+    lines = []
+
+    def tracer(frame, event, arg):
+        if frame.f_code is count_below.__code__ and event == 'line':
+            lines.append(frame.f_lineno - count_below.__code__.co_firstlineno)
+        return tracer
+
+    for i in range(10):
+        count_below(0, 2)
+    sys.settrace(tracer)
+    try:
+        assert count_below(0, 2) == 2
+    finally:
+        sys.settrace(None)
+    assert lines == [1, 2, 3, 4, 2, 3, 4, 2, 5], lines
@@ -513,3 +513,39 @@ if syscfg.get_config_var('WITH_THREAD'):
             lock.release()
             self.assertFalse(lock.locked())
             self.assertTrue(lock.acquire(blocking=False))
+
+
+    class SwitchIntervalTests(unittest.TestCase):
+
+        def test_switchinterval(self):
+            old = sys.getswitchinterval()
+            self.assertAlmostEqual(old, 0.005)
+            try:
+                sys.setswitchinterval(0.001)
+                self.assertAlmostEqual(sys.getswitchinterval(), 0.001)
+                self.assertRaises(ValueError, sys.setswitchinterval, 0.0)
+            finally:
+                sys.setswitchinterval(old)
+
+        @unittest.skipUnless(sys.implementation.name == 'graalpy', "GraalPython specific")
+        def test_gil_stats(self):
+            def spin():
+                deadline = time.time() + 0.2
+                while time.time() < deadline:
+                    pass
+
+            threads = [threading.Thread(target=spin) for _ in range(2)]
+            for t in threads:
+                t.start()
+            idents = [t.ident for t in threads]
+            for t in threads:
+                t.join()
+            stats = __graalpython__.gil_stats()
+            me = stats[threading.get_ident()]
+            for key in ('wait_time', 'hold_time', 'acquisitions', 'switches', 'drop_requests'):
+                self.assertIn(key, me)
+            self.assertGreater(me['acquisitions'], 0)
+            self.assertGreater(me['hold_time'], 0.0)
+            # the spinning threads are dead by now and no longer reported
+            for ident in idents:
+                self.assertNotIn(ident, stats)
@@ -58,6 +58,7 @@ import com.oracle.graal.python.builtins.objects.ellipsis.PEllipsis;
 import com.oracle.graal.python.builtins.objects.frame.PFrame;
 import com.oracle.graal.python.builtins.objects.function.BuiltinMethodDescriptor;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.object.PythonCompactObject;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.type.MroShape;
 import com.oracle.graal.python.builtins.objects.type.PythonAbstractClass;
@@ -88,6 +89,7 @@ import com.oracle.graal.python.pegparser.sst.ArgumentsTy;
 import com.oracle.graal.python.pegparser.sst.ModTy;
 import com.oracle.graal.python.pegparser.sst.StmtTy;
 import com.oracle.graal.python.pegparser.tokenizer.SourceRange;
+import com.oracle.graal.python.runtime.CodeUnitCache;
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
@@ -257,6 +259,8 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     private final ConcurrentHashMap<BuiltinMethodDescriptor, RootCallTarget> descriptorCallTargets = new ConcurrentHashMap<>();
 
     private final Shape emptyShape = Shape.newBuilder().allowImplicitCastIntToDouble(false).allowImplicitCastIntToLong(true).shapeFlags(0).propertyAssumptions(true).build();
+    private final Shape compactEmptyShape = PythonCompactObject.newShapeBuilder().allowImplicitCastIntToDouble(false).allowImplicitCastIntToLong(true).shapeFlags(0).propertyAssumptions(
+                    true).build();
     @CompilationFinal(dimensions = 1) private final Shape[] builtinTypeInstanceShapes = new Shape[PythonBuiltinClassType.VALUES.length];
 
     @CompilationFinal(dimensions = 1) private static final Object[] CONTEXT_INSENSITIVE_SINGLETONS = new Object[]{PNone.NONE, PNone.NO_VALUE, PEllipsis.INSTANCE, PNotImplemented.NOT_IMPLEMENTED};
@@ -535,9 +539,24 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     public RootCallTarget parseForBytecodeInterpreter(PythonContext context, Source source, InputType type, boolean topLevel, int optimize, boolean interactiveTerminal, List<String> argumentNames) {
         RaisePythonExceptionErrorCallback errorCb = new RaisePythonExceptionErrorCallback(source, PythonOptions.isPExceptionWithJavaStacktrace(this));
         try {
+            TruffleFile cacheEntry = null;
+            if (!interactiveTerminal && (argumentNames == null || argumentNames.isEmpty())) {
+                cacheEntry = CodeUnitCache.getEntry(context, source, type, optimize, getCompilerFlags());
+                if (cacheEntry != null) {
+                    CodeUnit co = CodeUnitCache.load(cacheEntry);
+                    if (co != null) {
+                        return createBytecodeCallTarget(context, co, source, topLevel, false, errorCb);
+                    }
+                }
+            }
             Parser parser = Compiler.createParser(source.getCharacters().toString(), errorCb, type, interactiveTerminal);
             ModTy mod = (ModTy) parser.parse();
             assert mod != null;
+            if (cacheEntry != null) {
+                CodeUnit co = compileCodeUnit(mod, optimize, null, errorCb);
+                CodeUnitCache.store(context, cacheEntry, co);
+                return createBytecodeCallTarget(context, co, source, topLevel, false, errorCb);
+            }
             return compileForBytecodeInterpreter(context, mod, source, topLevel, optimize, argumentNames, errorCb);
         } catch (PException e) {
             if (topLevel) {
@@ -555,30 +574,9 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
             errorCb = new RaisePythonExceptionErrorCallback(source, PythonOptions.isPExceptionWithJavaStacktrace(this));
         }
         try {
-            Compiler compiler = new Compiler(errorCb);
             boolean hasArguments = argumentNames != null && !argumentNames.isEmpty();
-            if (hasArguments) {
-                mod = transformASTForExecutionWithArguments(argumentNames, mod);
-            }
-            CompilationUnit cu = compiler.compile(mod, EnumSet.noneOf(Compiler.Flags.class), optimize);
-            CodeUnit co = cu.assemble();
-            RootNode rootNode = PBytecodeRootNode.create(this, co, source, errorCb);
-            if (topLevel) {
-                GilNode gil = GilNode.getUncached();
-                boolean wasAcquired = gil.acquire(context, rootNode);
-                try {
-                    errorCb.triggerDeprecationWarnings();
-                } finally {
-                    gil.release(context, wasAcquired);
-                }
-            }
-            if (hasArguments) {
-                rootNode = new RootNodeWithArguments(this, rootNode);
-            }
-            if (topLevel && context.isCoreInitialized()) {
-                rootNode = new TopLevelExceptionHandler(this, rootNode, source);
-            }
-            return PythonUtils.getOrCreateCallTarget(rootNode);
+            CodeUnit co = compileCodeUnit(mod, optimize, argumentNames, errorCb);
+            return createBytecodeCallTarget(context, co, source, topLevel, hasArguments, errorCb);
         } catch (PException e) {
             if (topLevel) {
                 PythonUtils.getOrCreateCallTarget(new TopLevelExceptionHandler(this, e)).call();
@@ -587,6 +585,44 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         }
     }
 
+    private EnumSet<Compiler.Flags> getCompilerFlags() {
+        EnumSet<Compiler.Flags> flags = EnumSet.noneOf(Compiler.Flags.class);
+        if (getEngineOption(PythonOptions.BytecodeSuperinstructions)) {
+            flags.add(Compiler.Flags.SUPERINSTRUCTIONS);
+        }
+        return flags;
+    }
+
+    private CodeUnit compileCodeUnit(ModTy mod, int optimize, List<String> argumentNames, RaisePythonExceptionErrorCallback errorCb) {
+        Compiler compiler = new Compiler(errorCb);
+        ModTy module = mod;
+        if (argumentNames != null && !argumentNames.isEmpty()) {
+            module = transformASTForExecutionWithArguments(argumentNames, module);
+        }
+        CompilationUnit cu = compiler.compile(module, getCompilerFlags(), optimize);
+        return cu.assemble();
+    }
+
+    private RootCallTarget createBytecodeCallTarget(PythonContext context, CodeUnit co, Source source, boolean topLevel, boolean hasArguments, RaisePythonExceptionErrorCallback errorCb) {
+        RootNode rootNode = PBytecodeRootNode.create(this, co, source, errorCb);
+        if (topLevel) {
+            GilNode gil = GilNode.getUncached();
+            boolean wasAcquired = gil.acquire(context, rootNode);
+            try {
+                errorCb.triggerDeprecationWarnings();
+            } finally {
+                gil.release(context, wasAcquired);
+            }
+        }
+        if (hasArguments) {
+            rootNode = new RootNodeWithArguments(this, rootNode);
+        }
+        if (topLevel && context.isCoreInitialized()) {
+            rootNode = new TopLevelExceptionHandler(this, rootNode, source);
+        }
+        return PythonUtils.getOrCreateCallTarget(rootNode);
+    }
+
     private ModTy transformASTForExecutionWithArguments(List<String> argumentNames, ModTy mod) {
         NodeFactory nodeFactory = new NodeFactory();
         ArgTy[] astArgArray = new ArgTy[argumentNames.size()];
@@ -1024,7 +1060,6 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     protected void initializeMultiThreading(PythonContext context) {
         if (singleThreadedAssumption.isValid()) {
             singleThreadedAssumption.invalidate();
-            context.initializeMultiThreading();
         }
     }
 
@@ -1050,6 +1085,18 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         }
     }
 
+    /**
+     * Like {@link #getShapeForClass} but for {@link PythonCompactObject} instances. The shape flags
+     * are taken over from the regular instance shape of the class.
+     */
+    public Shape getCompactShapeForClass(PythonManagedClass klass) {
+        Shape.DerivedBuilder shapeBuilder = Shape.newBuilder(compactEmptyShape).shapeFlags(klass.getInstanceShape().getFlags());
+        if (isSingleContext()) {
+            shapeBuilder.addConstantProperty(HiddenAttributes.CLASS, klass, 0);
+        }
+        return shapeBuilder.build();
+    }
+
     public static Shape getShapeForClassWithoutDict(PythonManagedClass klass) {
         return Shape.newBuilder(klass.getInstanceShape()).shapeFlags(PythonObject.HAS_SLOTS_BUT_NO_DICT_FLAG).build();
     }
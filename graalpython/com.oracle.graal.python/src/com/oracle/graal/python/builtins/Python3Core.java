@@ -68,6 +68,7 @@ import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.modules.ArrayModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.AtexitModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.BinasciiModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.BisectModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.BuiltinConstructors;
 import com.oracle.graal.python.builtins.modules.BuiltinFunctions;
 import com.oracle.graal.python.builtins.modules.CmathModuleBuiltins;
@@ -84,6 +85,7 @@ import com.oracle.graal.python.builtins.modules.GcModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalHPyDebugModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalHPyUniversalModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.GraalPythonModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.HeapqModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ImpModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ItertoolsModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.JArrayModuleBuiltins;
@@ -111,6 +113,7 @@ import com.oracle.graal.python.builtins.modules.SelectModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SignalModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SocketModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.StringModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.StructModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SysConfigModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TermiosModuleBuiltins;
@@ -122,6 +125,10 @@ import com.oracle.graal.python.builtins.modules.WeakRefModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ZipImportModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ast.AstBuiltins;
 import com.oracle.graal.python.builtins.modules.ast.AstModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureIterBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.TaskBuiltins;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2CompressorBuiltins;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2DecompressorBuiltins;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2ModuleBuiltins;
@@ -186,6 +193,26 @@ import com.oracle.graal.python.builtins.modules.ctypes.StgDictBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.StructUnionTypeBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.StructureBuiltins;
 import com.oracle.graal.python.builtins.modules.ctypes.UnionTypeBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DateTimeBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.TimeBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.TimeDeltaBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.TimeZoneBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.TzInfoBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.ContextManagerBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalContextBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.SignalDictMixinBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Blake2ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.DigestObjectBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Md5ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha1ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha256ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha3Builtins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha3ModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.hashlib.Sha512ModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.io.BufferedIOBaseBuiltins;
 import com.oracle.graal.python.builtins.modules.io.BufferedIOMixinBuiltins;
 import com.oracle.graal.python.builtins.modules.io.BufferedRWPairBuiltins;
@@ -207,9 +234,17 @@ import com.oracle.graal.python.builtins.modules.io.TextIOWrapperBuiltins;
 import com.oracle.graal.python.builtins.modules.json.JSONEncoderBuiltins;
 import com.oracle.graal.python.builtins.modules.json.JSONModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.json.JSONScannerBuiltins;
+import com.oracle.graal.python.builtins.modules.json.JSONStreamDecoderBuiltins;
 import com.oracle.graal.python.builtins.modules.lzma.LZMACompressorBuiltins;
 import com.oracle.graal.python.builtins.modules.lzma.LZMADecompressorBuiltins;
 import com.oracle.graal.python.builtins.modules.lzma.LZMAModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.PickleBufferBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.PickleModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.PicklerBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.PicklerMemoProxyBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.UnpicklerBuiltins;
+import com.oracle.graal.python.builtins.modules.pickle.UnpicklerMemoProxyBuiltins;
+import com.oracle.graal.python.builtins.modules.sqlite3.SQLite3ModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.zlib.ZLibModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.zlib.ZlibCompressBuiltins;
 import com.oracle.graal.python.builtins.modules.zlib.ZlibDecompressBuiltins;
@@ -316,8 +351,10 @@ import com.oracle.graal.python.builtins.objects.property.PropertyBuiltins;
 import com.oracle.graal.python.builtins.objects.queue.SimpleQueueBuiltins;
 import com.oracle.graal.python.builtins.objects.random.RandomBuiltins;
 import com.oracle.graal.python.builtins.objects.range.RangeBuiltins;
+import com.oracle.graal.python.builtins.objects.re.MatchBuiltins;
 import com.oracle.graal.python.builtins.objects.referencetype.ReferenceTypeBuiltins;
 import com.oracle.graal.python.builtins.objects.reversed.ReversedBuiltins;
+import com.oracle.graal.python.builtins.objects.select.PollBuiltins;
 import com.oracle.graal.python.builtins.objects.set.BaseSetBuiltins;
 import com.oracle.graal.python.builtins.objects.set.FrozenSetBuiltins;
 import com.oracle.graal.python.builtins.objects.set.SetBuiltins;
@@ -328,6 +365,8 @@ import com.oracle.graal.python.builtins.objects.ssl.SSLContextBuiltins;
 import com.oracle.graal.python.builtins.objects.ssl.SSLErrorBuiltins;
 import com.oracle.graal.python.builtins.objects.ssl.SSLSocketBuiltins;
 import com.oracle.graal.python.builtins.objects.str.StringBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructUnpackIteratorBuiltins;
 import com.oracle.graal.python.builtins.objects.superobject.SuperBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.LockBuiltins;
 import com.oracle.graal.python.builtins.objects.thread.RLockBuiltins;
@@ -409,8 +448,7 @@ public abstract class Python3Core extends ParserErrorCallback {
                         toTruffleStringUncached("_sysconfig"),
                         toTruffleStringUncached("zipimport"),
                         toTruffleStringUncached("java"),
-                        toTruffleStringUncached("pip_hook"),
-                        toTruffleStringUncached("_struct")));
+                        toTruffleStringUncached("pip_hook")));
         // add service loader defined python file extensions
         if (!ImageInfo.inImageRuntimeCode()) {
             ServiceLoader<PythonBuiltins> providers = ServiceLoader.load(PythonBuiltins.class, Python3Core.class.getClassLoader());
@@ -624,9 +662,29 @@ public abstract class Python3Core extends ParserErrorCallback {
                         new JArrayModuleBuiltins(),
                         new CSVModuleBuiltins(),
                         new JSONModuleBuiltins(),
+                        new AsyncioModuleBuiltins(),
+                        new FutureBuiltins(),
+                        new FutureIterBuiltins(),
+                        new TaskBuiltins(),
+                        new DatetimeModuleBuiltins(),
+                        new TimeDeltaBuiltins(),
+                        new DateBuiltins(),
+                        new DateTimeBuiltins(),
+                        new TimeBuiltins(),
+                        new TzInfoBuiltins(),
+                        new TimeZoneBuiltins(),
+                        new DecimalModuleBuiltins(),
+                        new DecimalBuiltins(),
+                        new DecimalContextBuiltins(),
+                        new SignalDictMixinBuiltins(),
+                        new ContextManagerBuiltins(),
+                        new HeapqModuleBuiltins(),
+                        new BisectModuleBuiltins(),
                         new SREModuleBuiltins(),
+                        new MatchBuiltins(),
                         new AstModuleBuiltins(),
                         new SelectModuleBuiltins(),
+                        new PollBuiltins(),
                         new SocketModuleBuiltins(),
                         new SocketBuiltins(),
                         new SignalModuleBuiltins(),
@@ -681,6 +739,29 @@ public abstract class Python3Core extends ParserErrorCallback {
                         new ZlibCompressBuiltins(),
                         new ZlibDecompressBuiltins(),
 
+                        // hashlib
+                        new Md5ModuleBuiltins(),
+                        new Sha1ModuleBuiltins(),
+                        new Sha256ModuleBuiltins(),
+                        new Sha512ModuleBuiltins(),
+                        new Sha3ModuleBuiltins(),
+                        new Blake2ModuleBuiltins(),
+                        new DigestObjectBuiltins(),
+                        new Sha3Builtins(),
+
+                        // struct
+                        new StructModuleBuiltins(),
+                        new StructBuiltins(),
+                        new StructUnpackIteratorBuiltins(),
+
+                        // pickle
+                        new PickleModuleBuiltins(),
+                        new PicklerBuiltins(),
+                        new PicklerMemoProxyBuiltins(),
+                        new UnpicklerBuiltins(),
+                        new UnpicklerMemoProxyBuiltins(),
+                        new PickleBufferBuiltins(),
+
                         new MMapModuleBuiltins(),
                         new FcntlModuleBuiltins(),
                         new MMapBuiltins(),
@@ -708,6 +789,7 @@ public abstract class Python3Core extends ParserErrorCallback {
                         // json
                         new JSONScannerBuiltins(),
                         new JSONEncoderBuiltins(),
+                        new JSONStreamDecoderBuiltins(),
 
                         // csv
                         new CSVDialectBuiltins(),
@@ -749,6 +831,7 @@ public abstract class Python3Core extends ParserErrorCallback {
             builtins.add(new BZ2CompressorBuiltins());
             builtins.add(new BZ2DecompressorBuiltins());
             builtins.add(new BZ2ModuleBuiltins());
+            builtins.add(new SQLite3ModuleBuiltins());
         }
         if (!ImageInfo.inImageRuntimeCode()) {
             ServiceLoader<PythonBuiltins> providers = ServiceLoader.load(PythonBuiltins.class, Python3Core.class.getClassLoader());
@@ -799,7 +882,8 @@ public abstract class Python3Core extends ParserErrorCallback {
     public static class SysModuleState {
         private int recursionLimit = ImageInfo.inImageCode() ? NATIVE_REC_LIM : REC_LIM;
         private int checkInterval = 100;
-        private double switchInterval = 0.005;
+        // in microseconds, see sys.setswitchinterval
+        private double switchInterval = 5000;
 
         public int getRecursionLimit() {
             return recursionLimit;
@@ -955,6 +1039,7 @@ public abstract class Python3Core extends ParserErrorCallback {
              */
             if (ImageInfo.inImageCode() && !getContext().isNativeAccessAllowed()) {
                 removeBuiltinModule(BuiltinNames.T_BZ2);
+                removeBuiltinModule(BuiltinNames.T__SQLITE3_SUPPORT);
             }
 
             globalScopeObject = PythonMapScope.createTopScope(getContext());
@@ -48,8 +48,11 @@ import static com.oracle.graal.python.nodes.BuiltinNames.J_SIMPLE_QUEUE;
 import static com.oracle.graal.python.nodes.BuiltinNames.J_TUPLE_GETTER;
 import static com.oracle.graal.python.nodes.BuiltinNames.J_TYPES;
 import static com.oracle.graal.python.nodes.BuiltinNames.J_WRAPPER_DESCRIPTOR;
+import static com.oracle.graal.python.nodes.BuiltinNames.J__ASYNCIO;
 import static com.oracle.graal.python.nodes.BuiltinNames.J__CONTEXTVARS;
 import static com.oracle.graal.python.nodes.BuiltinNames.J__CTYPES;
+import static com.oracle.graal.python.nodes.BuiltinNames.J__DATETIME;
+import static com.oracle.graal.python.nodes.BuiltinNames.J__DECIMAL;
 import static com.oracle.graal.python.nodes.BuiltinNames.J__SOCKET;
 import static com.oracle.graal.python.nodes.BuiltinNames.J__SSL;
 import static com.oracle.graal.python.nodes.BuiltinNames.J__STRUCT;
@@ -161,6 +164,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PRLock("RLock", J__THREAD),
     PSemLock("SemLock", "_multiprocessing"),
     PSocket("socket", J__SOCKET),
+    PPoll("poll", null, "select", Flags.PRIVATE_DERIVED_WODICT),
     PStaticmethod("staticmethod", J_BUILTINS, Flags.PUBLIC_BASE_WDICT),
     PClassmethod("classmethod", J_BUILTINS, Flags.PUBLIC_BASE_WDICT),
     PInstancemethod("instancemethod", J_BUILTINS, Flags.PUBLIC_BASE_WDICT),
@@ -174,6 +178,7 @@ public enum PythonBuiltinClassType implements TruffleObject {
     UnpicklerMemoProxy("UnpicklerMemoProxy", "_pickle"),
     Unpickler("Unpickler", "_pickle"),
     PickleBuffer("PickleBuffer", "_pickle"),
+    PMatch("Match", "_sre", "re", Flags.PUBLIC_DERIVED_WODICT),
 
     // bz2
     BZ2Compressor("BZ2Compressor", "_bz2"),
@@ -187,6 +192,22 @@ public enum PythonBuiltinClassType implements TruffleObject {
     ZlibCompress("Compress", "zlib"),
     ZlibDecompress("Decompress", "zlib"),
 
+    // hashlib
+    MD5Type("md5", null, "_md5", Flags.PUBLIC_DERIVED_WODICT),
+    SHA1Type("sha1", null, "_sha1", Flags.PUBLIC_DERIVED_WODICT),
+    SHA224Type("sha224", null, "_sha256", Flags.PUBLIC_DERIVED_WODICT),
+    SHA256Type("sha256", null, "_sha256", Flags.PUBLIC_DERIVED_WODICT),
+    SHA384Type("sha384", null, "_sha512", Flags.PUBLIC_DERIVED_WODICT),
+    SHA512Type("sha512", null, "_sha512", Flags.PUBLIC_DERIVED_WODICT),
+    SHA3_224Type("sha3_224", "_sha3"),
+    SHA3_256Type("sha3_256", "_sha3"),
+    SHA3_384Type("sha3_384", "_sha3"),
+    SHA3_512Type("sha3_512", "_sha3"),
+    Shake128Type("shake_128", "_sha3"),
+    Shake256Type("shake_256", "_sha3"),
+    Blake2bType("blake2b", "_blake2"),
+    Blake2sType("blake2s", "_blake2"),
+
     // io
     PIOBase("_IOBase", "_io", Flags.PUBLIC_BASE_WDICT),
     PRawIOBase("_RawIOBase", "_io"),
@@ -249,12 +270,46 @@ public enum PythonBuiltinClassType implements TruffleObject {
     // json
     JSONScanner("Scanner", "_json", Flags.PUBLIC_BASE_WODICT),
     JSONEncoder("Encoder", "_json", Flags.PUBLIC_BASE_WODICT),
+    JSONStreamDecoder("StreamDecoder", "_json", Flags.PUBLIC_BASE_WODICT),
 
     // csv
     CSVDialect("Dialect", "_csv", Flags.PUBLIC_BASE_WODICT),
     CSVReader("Reader", "_csv", Flags.PUBLIC_BASE_WODICT),
     CSVWriter("Writer", "_csv", Flags.PUBLIC_BASE_WODICT),
 
+    // _asyncio
+    AsyncioFuture("Future", J__ASYNCIO, Flags.PUBLIC_BASE_WDICT),
+    AsyncioTask("Task", J__ASYNCIO, Flags.PUBLIC_BASE_WDICT),
+    AsyncioFutureIter("FutureIter", null, J__ASYNCIO, Flags.PRIVATE_DERIVED_WODICT),
+
+    // _datetime
+    PTimeDelta("timedelta", J__DATETIME, "datetime", Flags.PUBLIC_BASE_WODICT),
+    PDate("date", J__DATETIME, "datetime", Flags.PUBLIC_BASE_WODICT),
+    PDateTime("datetime", J__DATETIME, "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTime("time", J__DATETIME, "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTzInfo("tzinfo", J__DATETIME, "datetime", Flags.PUBLIC_BASE_WODICT),
+    PTimeZone("timezone", J__DATETIME, "datetime", Flags.PUBLIC_DERIVED_WODICT),
+
+    // _decimal
+    PDecimal("Decimal", J__DECIMAL, "decimal", Flags.PUBLIC_BASE_WODICT),
+    PDecimalContext("Context", J__DECIMAL, "decimal", Flags.PUBLIC_BASE_WODICT),
+    PDecimalSignalDictMixin("SignalDictMixin", null, "decimal", Flags.PUBLIC_BASE_WODICT),
+    PDecimalContextManager("ContextManager", null, "decimal", Flags.PUBLIC_DERIVED_WODICT),
+    DecimalException("DecimalException", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalClamped("Clamped", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalInvalidOperation("InvalidOperation", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalConversionSyntax("ConversionSyntax", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalDivisionImpossible("DivisionImpossible", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalDivisionUndefined("DivisionUndefined", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalInvalidContext("InvalidContext", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalDivisionByZero("DivisionByZero", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalInexact("Inexact", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalRounded("Rounded", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalSubnormal("Subnormal", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalOverflow("Overflow", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalUnderflow("Underflow", J__DECIMAL, "decimal", Flags.EXCEPTION),
+    DecimalFloatOperation("FloatOperation", J__DECIMAL, "decimal", Flags.EXCEPTION),
+
     // _ast (rest of the classes are not builtin, they are generated in AstModuleBuiltins)
     AST("AST", "_ast", "ast", Flags.PUBLIC_BASE_WDICT),
 
@@ -736,6 +791,27 @@ public enum PythonBuiltinClassType implements TruffleObject {
 
         Empty.base = Exception;
 
+        AsyncioTask.base = AsyncioFuture;
+
+        PDateTime.base = PDate;
+        PTimeZone.base = PTzInfo;
+
+        // _decimal; the signals with more than one base get the others in DecimalModuleBuiltins
+        DecimalException.base = ArithmeticError;
+        DecimalClamped.base = DecimalException;
+        DecimalInvalidOperation.base = DecimalException;
+        DecimalConversionSyntax.base = DecimalInvalidOperation;
+        DecimalDivisionImpossible.base = DecimalInvalidOperation;
+        DecimalDivisionUndefined.base = DecimalInvalidOperation;
+        DecimalInvalidContext.base = DecimalInvalidOperation;
+        DecimalDivisionByZero.base = DecimalException;
+        DecimalInexact.base = DecimalException;
+        DecimalRounded.base = DecimalException;
+        DecimalSubnormal.base = DecimalException;
+        DecimalOverflow.base = DecimalInexact;
+        DecimalUnderflow.base = DecimalInexact;
+        DecimalFloatOperation.base = DecimalException;
+
         boolean assertionsEnabled = false;
         assert (assertionsEnabled = true) == true;
         HashSet<String> set = assertionsEnabled ? new HashSet<>() : null;
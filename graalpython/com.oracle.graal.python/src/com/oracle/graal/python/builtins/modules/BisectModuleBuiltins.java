@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.BuiltinNames.J__BISECT;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T_INSERT;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyListCheckExactNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.lib.PyObjectSizeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Bisection algorithms, following CPython's {@code _bisectmodule.c}. Exact lists backed by an int,
+ * long or double storage are searched on the unboxed array when the probe has the matching
+ * primitive type; everything else goes through {@code __getitem__} and
+ * {@link PyObjectRichCompareBool}.
+ */
+@CoreFunctions(defineModule = J__BISECT)
+public final class BisectModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BisectModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Returns the index where {@code x} should be inserted into the slice {@code a[lo:hi]}. With
+     * {@code right} set, the index is after any existing entries equal to {@code x}. Like in
+     * CPython, {@code hi == -1} stands for {@code len(a)} and any other negative {@code hi} gives
+     * {@code lo}.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class BisectNode extends PNodeWithRaise {
+
+        abstract int execute(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right);
+
+        @Specialization(guards = {"isIntStorage(a)", "isExact.execute(a)"}, limit = "1")
+        int doInt(PList a, int x, int lo, int hi, boolean right,
+                        @Cached @SuppressWarnings("unused") PyListCheckExactNode isExact) {
+            IntSequenceStorage storage = (IntSequenceStorage) a.getSequenceStorage();
+            int[] array = storage.getInternalIntArray();
+            int n = storage.length();
+            checkLo(lo);
+            if (hi == -1) {
+                hi = n;
+            }
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                checkIndex(mid, n);
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        @Specialization(guards = {"isLongStorage(a)", "isExact.execute(a)"}, limit = "1")
+        int doLong(PList a, long x, int lo, int hi, boolean right,
+                        @Cached @SuppressWarnings("unused") PyListCheckExactNode isExact) {
+            LongSequenceStorage storage = (LongSequenceStorage) a.getSequenceStorage();
+            long[] array = storage.getInternalLongArray();
+            int n = storage.length();
+            checkLo(lo);
+            if (hi == -1) {
+                hi = n;
+            }
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                checkIndex(mid, n);
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        @Specialization(guards = {"isLongStorage(a)", "isExact.execute(a)"}, limit = "1")
+        int doLongInt(PList a, int x, int lo, int hi, boolean right,
+                        @Cached PyListCheckExactNode isExact) {
+            return doLong(a, x, lo, hi, right, isExact);
+        }
+
+        @Specialization(guards = {"isDoubleStorage(a)", "isExact.execute(a)"}, limit = "1")
+        int doDouble(PList a, double x, int lo, int hi, boolean right,
+                        @Cached @SuppressWarnings("unused") PyListCheckExactNode isExact) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) a.getSequenceStorage();
+            double[] array = storage.getInternalDoubleArray();
+            int n = storage.length();
+            checkLo(lo);
+            if (hi == -1) {
+                hi = n;
+            }
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                checkIndex(mid, n);
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        @Specialization
+        int doGeneric(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached PyObjectGetItem getItem,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            checkLo(lo);
+            if (hi == -1) {
+                hi = sizeNode.execute(frame, a);
+            }
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                Object item = getItem.execute(frame, a, mid);
+                if (right ? ltNode.execute(frame, x, item) : !ltNode.execute(frame, item, x)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        private void checkLo(int lo) {
+            if (lo < 0) {
+                throw raise(ValueError, ErrorMessages.LO_MUST_BE_NON_NEGATIVE);
+            }
+        }
+
+        private void checkIndex(int index, int length) {
+            // an explicit 'hi' may reach past the end of the list
+            if (index >= length) {
+                throw raise(IndexError, ErrorMessages.LIST_INDEX_OUT_OF_RANGE);
+            }
+        }
+    }
+
+    abstract static class InsortNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right);
+
+        @Specialization(guards = "isExact.execute(a)", limit = "1")
+        static void doList(VirtualFrame frame, PList a, Object x, int lo, int hi, boolean right,
+                        @Cached @SuppressWarnings("unused") PyListCheckExactNode isExact,
+                        @Cached BisectNode bisectNode,
+                        @Cached SequenceStorageNodes.InsertItemNode insertItem) {
+            int index = bisectNode.execute(frame, a, x, lo, hi, right);
+            a.setSequenceStorage(insertItem.execute(a.getSequenceStorage(), index, x));
+        }
+
+        @Specialization
+        static void doGeneric(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right,
+                        @Cached BisectNode bisectNode,
+                        @Cached PyObjectCallMethodObjArgs callInsert) {
+            int index = bisectNode.execute(frame, a, x, lo, hi, right);
+            callInsert.execute(frame, a, T_INSERT, index, x);
+        }
+    }
+
+    @Builtin(name = "bisect_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectRightNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static int bisect(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @Cached BisectNode bisectNode) {
+            return bisectNode.execute(frame, a, x, lo, hi, true);
+        }
+    }
+
+    @Builtin(name = "bisect_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectLeftNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static int bisect(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @Cached BisectNode bisectNode) {
+            return bisectNode.execute(frame, a, x, lo, hi, false);
+        }
+    }
+
+    @Builtin(name = "insort_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortRightNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object insort(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @Cached InsortNode insortNode) {
+            insortNode.execute(frame, a, x, lo, hi, true);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "insort_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortLeftNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object insort(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @Cached InsortNode insortNode) {
+            insortNode.execute(frame, a, x, lo, hi, false);
+            return PNone.NONE;
+        }
+    }
+}
@@ -158,6 +158,7 @@ import com.oracle.graal.python.builtins.objects.traceback.PTraceback;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.PythonAbstractClass;
 import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.builtins.objects.type.PythonManagedClass;
 import com.oracle.graal.python.builtins.objects.type.SpecialMethodSlot;
 import com.oracle.graal.python.builtins.objects.type.TypeBuiltins;
@@ -1562,9 +1563,21 @@ public final class BuiltinConstructors extends PythonBuiltins {
             if (self.isAbstractClass()) {
                 throw getReportAbstractClassNode().execute(frame, self);
             }
+            if (self instanceof PythonClass) {
+                return createInstance((PythonClass) self);
+            }
             return factory().createPythonObject(self);
         }
 
+        private PythonObject createInstance(PythonClass cls) {
+            if (cls.isLayoutUndecided()) {
+                PythonObject instance = factory().createPythonObject(cls, cls.getInstanceShape());
+                cls.observeAllocation(getLanguage(), instance);
+                return instance;
+            }
+            return factory().createPythonObject(cls, cls.getAllocationShape());
+        }
+
         @Specialization
         Object doBuiltinTypeType(PythonBuiltinClassType self, Object[] varargs, PKeyword[] kwargs) {
             checkExcessArgs(self, varargs, kwargs);
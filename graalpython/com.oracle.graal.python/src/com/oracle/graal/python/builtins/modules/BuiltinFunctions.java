@@ -243,8 +243,11 @@ import com.oracle.graal.python.runtime.PythonParser.ParserMode;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.BoolSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.CharsetMapping;
 import com.oracle.graal.python.util.PythonUtils;
@@ -354,37 +357,68 @@ public final class BuiltinFunctions extends PythonBuiltins {
         abstract boolean execute(Frame frame, Object storageObj, NodeType nodeType);
 
         @Specialization
-        boolean doBoolSequence(VirtualFrame frame,
-                        BoolSequenceStorage sequenceStorage,
+        boolean doBoolSequence(BoolSequenceStorage sequenceStorage,
                         NodeType nodeType) {
             boolean[] internalArray = sequenceStorage.getInternalBoolArray();
             int seqLength = sequenceStorage.length();
 
             loopConditionProfile.profileCounted(seqLength);
             for (int i = 0; loopConditionProfile.inject(i < seqLength); i++) {
-                if (nodeType == NodeType.ALL && !isTrueNode.execute(frame, internalArray[i])) {
-                    return false;
-                } else if (nodeType == NodeType.ANY && isTrueNode.execute(frame, internalArray[i])) {
-                    return true;
+                if (internalArray[i] != (nodeType == NodeType.ALL)) {
+                    return nodeType == NodeType.ANY;
                 }
             }
 
             return nodeType == NodeType.ALL;
         }
 
+        /*
+         * The truth value of a primitive element is known statically, so the loops over the unboxed
+         * storages below neither box nor call PyObjectIsTrueNode.
+         */
         @Specialization
-        boolean doIntSequence(VirtualFrame frame,
-                        IntSequenceStorage sequenceStorage,
+        boolean doIntSequence(IntSequenceStorage sequenceStorage,
                         NodeType nodeType) {
             int[] internalArray = sequenceStorage.getInternalIntArray();
             int seqLength = sequenceStorage.length();
 
             loopConditionProfile.profileCounted(seqLength);
             for (int i = 0; loopConditionProfile.inject(i < seqLength); i++) {
-                if (nodeType == NodeType.ALL && !isTrueNode.execute(frame, internalArray[i])) {
-                    return false;
-                } else if (nodeType == NodeType.ANY && isTrueNode.execute(frame, internalArray[i])) {
-                    return true;
+                if ((internalArray[i] != 0) != (nodeType == NodeType.ALL)) {
+                    return nodeType == NodeType.ANY;
+                }
+            }
+
+            return nodeType == NodeType.ALL;
+        }
+
+        @Specialization
+        boolean doLongSequence(LongSequenceStorage sequenceStorage,
+                        NodeType nodeType) {
+            long[] internalArray = sequenceStorage.getInternalLongArray();
+            int seqLength = sequenceStorage.length();
+
+            loopConditionProfile.profileCounted(seqLength);
+            for (int i = 0; loopConditionProfile.inject(i < seqLength); i++) {
+                if ((internalArray[i] != 0) != (nodeType == NodeType.ALL)) {
+                    return nodeType == NodeType.ANY;
+                }
+            }
+
+            return nodeType == NodeType.ALL;
+        }
+
+        @Specialization
+        boolean doDoubleSequence(DoubleSequenceStorage sequenceStorage,
+                        NodeType nodeType) {
+            double[] internalArray = sequenceStorage.getInternalDoubleArray();
+            int seqLength = sequenceStorage.length();
+
+            loopConditionProfile.profileCounted(seqLength);
+            for (int i = 0; loopConditionProfile.inject(i < seqLength); i++) {
+                // NaN != 0.0 holds, so NaN is true just like in CPython
+                if ((internalArray[i] != 0.0) != (nodeType == NodeType.ALL)) {
+                    return nodeType == NodeType.ANY;
                 }
             }
 
@@ -1646,6 +1680,93 @@ public final class BuiltinFunctions extends PythonBuiltins {
             }
         }
 
+        /*
+         * Fast paths for builtin lists and tuples backed by unboxed storages. Builtin int and float
+         * comparisons cannot be overridden, so we can scan the backing arrays directly. For doubles
+         * we mirror CPython's "item > current" (resp. "<") comparison such that NaNs and signed
+         * zeros are handled the same way as in the generic path.
+         */
+        @Specialization(guards = {"args.length == 0", "isIntStorage(arg1)", "cannotBeOverridden(arg1, getClassNode)"}, limit = "1")
+        Object minmaxIntStorage(PSequence arg1, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PNone key, Object defaultVal,
+                        @SuppressWarnings("unused") @Shared("getClassNode") @Cached GetClassNode getClassNode,
+                        @Shared("hasDefaultProfile") @Cached ConditionProfile hasDefaultProfile) {
+            IntSequenceStorage storage = (IntSequenceStorage) arg1.getSequenceStorage();
+            int length = storage.length();
+            if (length == 0) {
+                return emptySequence(defaultVal, hasDefaultProfile);
+            }
+            int[] values = storage.getInternalIntArray();
+            int result = values[0];
+            if (this instanceof MaxNode) {
+                for (int i = 1; i < length; i++) {
+                    result = Math.max(result, values[i]);
+                }
+            } else {
+                for (int i = 1; i < length; i++) {
+                    result = Math.min(result, values[i]);
+                }
+            }
+            LoopNode.reportLoopCount(this, length);
+            return result;
+        }
+
+        @Specialization(guards = {"args.length == 0", "isLongStorage(arg1)", "cannotBeOverridden(arg1, getClassNode)"}, limit = "1")
+        Object minmaxLongStorage(PSequence arg1, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PNone key, Object defaultVal,
+                        @SuppressWarnings("unused") @Shared("getClassNode") @Cached GetClassNode getClassNode,
+                        @Shared("hasDefaultProfile") @Cached ConditionProfile hasDefaultProfile) {
+            LongSequenceStorage storage = (LongSequenceStorage) arg1.getSequenceStorage();
+            int length = storage.length();
+            if (length == 0) {
+                return emptySequence(defaultVal, hasDefaultProfile);
+            }
+            long[] values = storage.getInternalLongArray();
+            long result = values[0];
+            if (this instanceof MaxNode) {
+                for (int i = 1; i < length; i++) {
+                    result = Math.max(result, values[i]);
+                }
+            } else {
+                for (int i = 1; i < length; i++) {
+                    result = Math.min(result, values[i]);
+                }
+            }
+            LoopNode.reportLoopCount(this, length);
+            return result;
+        }
+
+        @Specialization(guards = {"args.length == 0", "isDoubleStorage(arg1)", "cannotBeOverridden(arg1, getClassNode)"}, limit = "1")
+        Object minmaxDoubleStorage(PSequence arg1, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PNone key, Object defaultVal,
+                        @SuppressWarnings("unused") @Shared("getClassNode") @Cached GetClassNode getClassNode,
+                        @Shared("hasDefaultProfile") @Cached ConditionProfile hasDefaultProfile) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) arg1.getSequenceStorage();
+            int length = storage.length();
+            if (length == 0) {
+                return emptySequence(defaultVal, hasDefaultProfile);
+            }
+            double[] values = storage.getInternalDoubleArray();
+            double result = values[0];
+            if (this instanceof MaxNode) {
+                for (int i = 1; i < length; i++) {
+                    double value = values[i];
+                    result = value > result ? value : result;
+                }
+            } else {
+                for (int i = 1; i < length; i++) {
+                    double value = values[i];
+                    result = value < result ? value : result;
+                }
+            }
+            LoopNode.reportLoopCount(this, length);
+            return result;
+        }
+
+        private Object emptySequence(Object defaultVal, ConditionProfile hasDefaultProfile) {
+            if (hasDefaultProfile.profile(PGuards.isNoValue(defaultVal))) {
+                throw raise(PythonErrorType.ValueError, ErrorMessages.ARG_IS_EMPTY_SEQ, getName());
+            }
+            return defaultVal;
+        }
+
         @Specialization(guards = "args.length == 0")
         Object maxSequence(VirtualFrame frame, Object arg1, Object[] args, @SuppressWarnings("unused") PNone key, Object defaultVal,
                         @Cached PyObjectGetIter getIter,
@@ -1654,7 +1775,7 @@ public final class BuiltinFunctions extends PythonBuiltins {
                         @Cached("createIfTrueNode()") CoerceToBooleanNode castToBooleanNode,
                         @Cached IsBuiltinClassProfile errorProfile1,
                         @Cached IsBuiltinClassProfile errorProfile2,
-                        @Cached ConditionProfile hasDefaultProfile) {
+                        @Shared("hasDefaultProfile") @Cached ConditionProfile hasDefaultProfile) {
             return minmaxSequenceWithKey(frame, arg1, args, null, defaultVal, getIter, nextNode, compare, castToBooleanNode, null, errorProfile1, errorProfile2, hasDefaultProfile);
         }
 
@@ -2198,6 +2319,85 @@ public final class BuiltinFunctions extends PythonBuiltins {
         @Child private IsBuiltinClassProfile errorProfile2 = IsBuiltinClassProfile.create();
         @Child private IsBuiltinClassProfile errorProfile3 = IsBuiltinClassProfile.create();
 
+        /*
+         * Fast paths for builtin lists and tuples backed by unboxed storages: we sum the backing
+         * array directly instead of iterating and boxing every element.
+         */
+        @Specialization(guards = {"isIntStorage(arg1)", "cannotBeOverridden(arg1, getClassNode)", "isNoValueOrInt(start)"}, limit = "1")
+        Object sumIntStorage(PSequence arg1, Object start,
+                        @SuppressWarnings("unused") @Shared("getClassNode") @Cached GetClassNode getClassNode) {
+            IntSequenceStorage storage = (IntSequenceStorage) arg1.getSequenceStorage();
+            int[] values = storage.getInternalIntArray();
+            int length = storage.length();
+            // the sum of at most 2^31 ints and an int start value cannot overflow a long
+            long value = start instanceof Integer ? (int) start : 0;
+            for (int i = 0; i < length; i++) {
+                value += values[i];
+            }
+            LoopNode.reportLoopCount(this, length);
+            if (PInt.isIntRange(value)) {
+                return (int) value;
+            }
+            return value;
+        }
+
+        @Specialization(guards = {"isLongStorage(arg1)", "cannotBeOverridden(arg1, getClassNode)", "isNoValueOrIntOrLong(start)"}, limit = "1")
+        Object sumLongStorage(VirtualFrame frame, PSequence arg1, Object start,
+                        @SuppressWarnings("unused") @Shared("getClassNode") @Cached GetClassNode getClassNode,
+                        @Cached BranchProfile overflowProfile) {
+            LongSequenceStorage storage = (LongSequenceStorage) arg1.getSequenceStorage();
+            long[] values = storage.getInternalLongArray();
+            int length = storage.length();
+            long value = start instanceof Integer ? (int) start : start instanceof Long ? (long) start : 0;
+            for (int i = 0; i < length; i++) {
+                try {
+                    value = Math.addExact(value, values[i]);
+                } catch (ArithmeticException e) {
+                    overflowProfile.enter();
+                    // continue with arbitrary precision from the element that overflowed
+                    Object result = value;
+                    for (int j = i; j < length; j++) {
+                        result = add.executeObject(frame, result, values[j]);
+                    }
+                    LoopNode.reportLoopCount(this, length);
+                    return result;
+                }
+            }
+            LoopNode.reportLoopCount(this, length);
+            return value;
+        }
+
+        @Specialization(guards = {"isDoubleStorage(arg1)", "cannotBeOverridden(arg1, getClassNode)", "isNoValueOrIntOrDouble(start)"}, limit = "1")
+        Object sumDoubleStorage(PSequence arg1, Object start,
+                        @SuppressWarnings("unused") @Shared("getClassNode") @Cached GetClassNode getClassNode) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) arg1.getSequenceStorage();
+            double[] values = storage.getInternalDoubleArray();
+            int length = storage.length();
+            if (length == 0) {
+                // sum([]) is the int 0, not a float
+                return start instanceof PNone ? 0 : start;
+            }
+            // int + float is the same as float(int) + float, so adding the start first is exact
+            double value = start instanceof Double ? (double) start : start instanceof Integer ? (int) start : 0;
+            for (int i = 0; i < length; i++) {
+                value += values[i];
+            }
+            LoopNode.reportLoopCount(this, length);
+            return value;
+        }
+
+        static boolean isNoValueOrInt(Object start) {
+            return start == NO_VALUE || start instanceof Integer;
+        }
+
+        static boolean isNoValueOrIntOrLong(Object start) {
+            return start == NO_VALUE || start instanceof Integer || start instanceof Long;
+        }
+
+        static boolean isNoValueOrIntOrDouble(Object start) {
+            return start == NO_VALUE || start instanceof Integer || start instanceof Double;
+        }
+
         @Specialization(rewriteOn = UnexpectedResultException.class)
         int sumIntNone(VirtualFrame frame, Object arg1, @SuppressWarnings("unused") PNone start,
                         @Shared("getIter") @Cached PyObjectGetIter getIter) throws UnexpectedResultException {
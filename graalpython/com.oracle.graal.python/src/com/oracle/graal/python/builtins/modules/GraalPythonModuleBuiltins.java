@@ -49,6 +49,7 @@ import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___NAME__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.T_INSERT;
 import static com.oracle.graal.python.nodes.StringLiterals.J_LLVM_LANGUAGE;
 import static com.oracle.graal.python.nodes.StringLiterals.T_COLON;
+import static com.oracle.graal.python.nodes.StringLiterals.T_EMPTY_STRING;
 import static com.oracle.graal.python.nodes.StringLiterals.T_PATH;
 import static com.oracle.graal.python.nodes.StringLiterals.T_STRICT;
 import static com.oracle.graal.python.nodes.StringLiterals.T_SURROGATEESCAPE;
@@ -86,6 +87,7 @@ import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.PrimitiveMapStorage;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum.ErrorAndMessagePair;
@@ -116,6 +118,7 @@ import com.oracle.graal.python.nodes.statement.AbstractImportNode;
 import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.runtime.GlobalInterpreterLock.GilStats;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
@@ -229,6 +232,7 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
             mod.setAttribute(tsLiteral("dump_truffle_ast"), PNone.NO_VALUE);
             mod.setAttribute(tsLiteral("tdebug"), PNone.NO_VALUE);
             mod.setAttribute(tsLiteral("set_storage_strategy"), PNone.NO_VALUE);
+            mod.setAttribute(tsLiteral("get_storage_strategy"), PNone.NO_VALUE);
             mod.setAttribute(tsLiteral("dump_heap"), PNone.NO_VALUE);
         }
     }
@@ -661,6 +665,10 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
                     return new DynamicObjectStorage(lang);
                 case "economicmap":
                     return EconomicMapStorage.create();
+                case "primitivemap":
+                    return PrimitiveMapStorage.create(0, 0);
+                case "primitivemap_str":
+                    return PrimitiveMapStorage.create(T_EMPTY_STRING, 0.0);
                 default:
                     throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.UNKNOWN_STORAGE_STRATEGY);
             }
@@ -673,6 +681,83 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    // Internal builtin used for testing: returns the name of the strategy of a set or map, using
+    // the same names as set_storage_strategy
+    @Builtin(name = "get_storage_strategy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class GetStorageStrategyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString doSet(PSet set) {
+            return getName(set.getDictStorage());
+        }
+
+        @Specialization
+        static TruffleString doDict(PDict dict) {
+            return getName(dict.getDictStorage());
+        }
+
+        @TruffleBoundary
+        private static TruffleString getName(HashingStorage storage) {
+            String name;
+            if (storage instanceof EmptyStorage) {
+                name = "empty";
+            } else if (storage instanceof DynamicObjectStorage) {
+                name = "dynamicobject";
+            } else if (storage instanceof EconomicMapStorage) {
+                name = "economicmap";
+            } else if (storage instanceof PrimitiveMapStorage) {
+                name = ((PrimitiveMapStorage) storage).hasStringKeys() ? "primitivemap_str" : "primitivemap";
+            } else {
+                name = storage.getClass().getSimpleName();
+            }
+            return toTruffleStringUncached(name);
+        }
+    }
+
+    @Builtin(name = "gil_stats", minNumOfPositionalArgs = 0, doc = "Returns a dict mapping thread identifiers to the GIL usage counters of that thread.")
+    @GenerateNodeFactory
+    public abstract static class GilStatsNode extends PythonBuiltinNode {
+        private static final TruffleString T_WAIT_TIME = tsLiteral("wait_time");
+        private static final TruffleString T_HOLD_TIME = tsLiteral("hold_time");
+        private static final TruffleString T_ACQUISITIONS = tsLiteral("acquisitions");
+        private static final TruffleString T_SWITCHES = tsLiteral("switches");
+        private static final TruffleString T_DROP_REQUESTS = tsLiteral("drop_requests");
+        private static final double NANOS_PER_SECOND = 1e9;
+
+        @Specialization
+        @TruffleBoundary
+        PDict doIt() {
+            PDict result = factory().createDict();
+            for (GilStats stats : getContext().getGilStats()) {
+                PDict entry = factory().createDict();
+                entry.setItem(T_WAIT_TIME, stats.getWaitNanos() / NANOS_PER_SECOND);
+                entry.setItem(T_HOLD_TIME, stats.getHoldNanos(stats.getThread() == Thread.currentThread()) / NANOS_PER_SECOND);
+                entry.setItem(T_ACQUISITIONS, stats.getAcquisitions());
+                entry.setItem(T_SWITCHES, stats.getSwitches());
+                entry.setItem(T_DROP_REQUESTS, stats.getDropRequests());
+                result.setItem(stats.getThread().getId(), entry);
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = "share_dict", minNumOfPositionalArgs = 1, doc = "Allows lock-free lookups in the dict from threads that do not hold the GIL.")
+    @GenerateNodeFactory
+    public abstract static class ShareDictNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        static PDict doDict(PDict dict) {
+            HashingStorage storage = dict.getDictStorage();
+            if (!(storage instanceof EconomicMapStorage)) {
+                HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
+                storage = lib.addAllToOther(storage, EconomicMapStorage.create(lib.length(storage)));
+                dict.setDictStorage(storage);
+            }
+            ((EconomicMapStorage) storage).enableConcurrentReads();
+            return dict;
+        }
+    }
+
     @Builtin(name = J_EXTEND, minNumOfPositionalArgs = 1, doc = "Extends Java class and return HostAdapterCLass")
     @GenerateNodeFactory
     public abstract static class JavaExtendNode extends PythonUnaryBuiltinNode {
@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.nodes.BuiltinNames.J__HEAPQ;
+import static com.oracle.graal.python.nodes.BuiltinNames.T_LIST;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemScalarNode;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.SetItemScalarNode;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.builtins.ListNodes;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Heap queue algorithm, following CPython's {@code _heapqmodule.c}. Lists backed by an int, long
+ * or double storage are sifted directly on the unboxed array; all other lists go through
+ * {@link PyObjectRichCompareBool} and check after every comparison that the list was not resized.
+ */
+@CoreFunctions(defineModule = J__HEAPQ)
+public final class HeapqModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HeapqModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Follow the path to the root, moving parents down until finding a place the item at
+     * {@code pos} fits. With {@code max} set, the heap is a max-heap.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class SiftDownNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, PList heap, int startPos, int pos, boolean max);
+
+        @Specialization(guards = "isIntStorage(heap)")
+        static void doInt(PList heap, int startPos, int pos, boolean max) {
+            siftDown(((IntSequenceStorage) heap.getSequenceStorage()).getInternalIntArray(), startPos, pos, max);
+        }
+
+        @Specialization(guards = "isLongStorage(heap)")
+        static void doLong(PList heap, int startPos, int pos, boolean max) {
+            siftDown(((LongSequenceStorage) heap.getSequenceStorage()).getInternalLongArray(), startPos, pos, max);
+        }
+
+        @Specialization(guards = "isDoubleStorage(heap)")
+        static void doDouble(PList heap, int startPos, int pos, boolean max) {
+            siftDown(((DoubleSequenceStorage) heap.getSequenceStorage()).getInternalDoubleArray(), startPos, pos, max);
+        }
+
+        @Specialization(guards = {"!isIntStorage(heap)", "!isLongStorage(heap)", "!isDoubleStorage(heap)"})
+        void doGeneric(VirtualFrame frame, PList heap, int startPos, int pos, boolean max,
+                        @Cached GetItemScalarNode getItem,
+                        @Cached SetItemScalarNode setItem,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            int size = storage.length();
+            Object newItem = getItem.execute(storage, pos);
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                Object parent = getItem.execute(storage, parentPos);
+                boolean lt = max ? ltNode.execute(frame, parent, newItem) : ltNode.execute(frame, newItem, parent);
+                storage = heap.getSequenceStorage();
+                if (size != storage.length()) {
+                    throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, T_LIST);
+                }
+                if (!lt) {
+                    break;
+                }
+                parent = getItem.execute(storage, parentPos);
+                newItem = getItem.execute(storage, pos);
+                setItem.execute(storage, parentPos, newItem);
+                setItem.execute(storage, pos, parent);
+                pos = parentPos;
+            }
+        }
+
+        static void siftDown(int[] heap, int startPos, int pos, boolean max) {
+            int newItem = heap[pos];
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                int parent = heap[parentPos];
+                if (!(max ? parent < newItem : newItem < parent)) {
+                    break;
+                }
+                heap[pos] = parent;
+                pos = parentPos;
+            }
+            heap[pos] = newItem;
+        }
+
+        static void siftDown(long[] heap, int startPos, int pos, boolean max) {
+            long newItem = heap[pos];
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                long parent = heap[parentPos];
+                if (!(max ? parent < newItem : newItem < parent)) {
+                    break;
+                }
+                heap[pos] = parent;
+                pos = parentPos;
+            }
+            heap[pos] = newItem;
+        }
+
+        static void siftDown(double[] heap, int startPos, int pos, boolean max) {
+            // Java's '<' on doubles matches Python's float comparison, including NaN
+            double newItem = heap[pos];
+            while (pos > startPos) {
+                int parentPos = (pos - 1) >> 1;
+                double parent = heap[parentPos];
+                if (!(max ? parent < newItem : newItem < parent)) {
+                    break;
+                }
+                heap[pos] = parent;
+                pos = parentPos;
+            }
+            heap[pos] = newItem;
+        }
+    }
+
+    /**
+     * Bubble the smaller (or, with {@code max} set, the larger) child up until hitting a leaf,
+     * then sift the item that was at {@code pos} down to its final place.
+     */
+    @ImportStatic(PGuards.class)
+    abstract static class SiftUpNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, PList heap, int pos, boolean max);
+
+        @Specialization(guards = "isIntStorage(heap)")
+        static void doInt(PList heap, int pos, boolean max) {
+            IntSequenceStorage storage = (IntSequenceStorage) heap.getSequenceStorage();
+            int[] array = storage.getInternalIntArray();
+            int endPos = storage.length();
+            int startPos = pos;
+            int limit = endPos >> 1;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                if (childPos + 1 < endPos && !(max ? array[childPos + 1] < array[childPos] : array[childPos] < array[childPos + 1])) {
+                    childPos++;
+                }
+                int tmp = array[childPos];
+                array[childPos] = array[pos];
+                array[pos] = tmp;
+                pos = childPos;
+            }
+            SiftDownNode.siftDown(array, startPos, pos, max);
+        }
+
+        @Specialization(guards = "isLongStorage(heap)")
+        static void doLong(PList heap, int pos, boolean max) {
+            LongSequenceStorage storage = (LongSequenceStorage) heap.getSequenceStorage();
+            long[] array = storage.getInternalLongArray();
+            int endPos = storage.length();
+            int startPos = pos;
+            int limit = endPos >> 1;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                if (childPos + 1 < endPos && !(max ? array[childPos + 1] < array[childPos] : array[childPos] < array[childPos + 1])) {
+                    childPos++;
+                }
+                long tmp = array[childPos];
+                array[childPos] = array[pos];
+                array[pos] = tmp;
+                pos = childPos;
+            }
+            SiftDownNode.siftDown(array, startPos, pos, max);
+        }
+
+        @Specialization(guards = "isDoubleStorage(heap)")
+        static void doDouble(PList heap, int pos, boolean max) {
+            DoubleSequenceStorage storage = (DoubleSequenceStorage) heap.getSequenceStorage();
+            double[] array = storage.getInternalDoubleArray();
+            int endPos = storage.length();
+            int startPos = pos;
+            int limit = endPos >> 1;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                if (childPos + 1 < endPos && !(max ? array[childPos + 1] < array[childPos] : array[childPos] < array[childPos + 1])) {
+                    childPos++;
+                }
+                double tmp = array[childPos];
+                array[childPos] = array[pos];
+                array[pos] = tmp;
+                pos = childPos;
+            }
+            SiftDownNode.siftDown(array, startPos, pos, max);
+        }
+
+        @Specialization(guards = {"!isIntStorage(heap)", "!isLongStorage(heap)", "!isDoubleStorage(heap)"})
+        void doGeneric(VirtualFrame frame, PList heap, int pos, boolean max,
+                        @Cached GetItemScalarNode getItem,
+                        @Cached SetItemScalarNode setItem,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode,
+                        @Cached SiftDownNode siftDownNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            int endPos = storage.length();
+            int startPos = pos;
+            int limit = endPos >> 1;
+            while (pos < limit) {
+                int childPos = 2 * pos + 1;
+                if (childPos + 1 < endPos) {
+                    Object left = getItem.execute(storage, childPos);
+                    Object right = getItem.execute(storage, childPos + 1);
+                    boolean lt = max ? ltNode.execute(frame, right, left) : ltNode.execute(frame, left, right);
+                    if (!lt) {
+                        childPos++;
+                    }
+                    storage = heap.getSequenceStorage();
+                    if (endPos != storage.length()) {
+                        throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, T_LIST);
+                    }
+                }
+                Object child = getItem.execute(storage, childPos);
+                setItem.execute(storage, childPos, getItem.execute(storage, pos));
+                setItem.execute(storage, pos, child);
+                pos = childPos;
+            }
+            siftDownNode.execute(frame, heap, startPos, pos, max);
+        }
+    }
+
+    abstract static class PopNode extends PNodeWithRaise {
+
+        abstract Object execute(VirtualFrame frame, PList heap, boolean max);
+
+        @Specialization
+        Object pop(VirtualFrame frame, PList heap, boolean max,
+                        @Cached GetItemScalarNode getItem,
+                        @Cached SetItemScalarNode setItem,
+                        @Cached SequenceStorageNodes.DeleteItemNode deleteItem,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            int n = storage.length();
+            if (n == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object last = getItem.execute(storage, n - 1);
+            deleteItem.execute(storage, n - 1);
+            if (n == 1) {
+                return last;
+            }
+            Object result = getItem.execute(storage, 0);
+            setItem.execute(storage, 0, last);
+            siftUpNode.execute(frame, heap, 0, max);
+            return result;
+        }
+    }
+
+    abstract static class ReplaceNode extends PNodeWithRaise {
+
+        abstract Object execute(VirtualFrame frame, PList heap, Object item, boolean max);
+
+        @Specialization
+        Object replace(VirtualFrame frame, PList heap, Object item, boolean max,
+                        @Cached GetItemScalarNode getItem,
+                        @Cached("createForList()") SequenceStorageNodes.SetItemNode setItem,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (storage.length() == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object result = getItem.execute(storage, 0);
+            heap.setSequenceStorage(setItem.execute(storage, 0, item));
+            siftUpNode.execute(frame, heap, 0, max);
+            return result;
+        }
+
+        static SequenceStorageNodes.SetItemNode createForList() {
+            return SequenceStorageNodes.SetItemNode.createForList();
+        }
+    }
+
+    abstract static class HeapifyNode extends PNodeWithRaise {
+
+        abstract void execute(VirtualFrame frame, PList heap, boolean max);
+
+        @Specialization
+        static void heapify(VirtualFrame frame, PList heap, boolean max,
+                        @Cached SiftUpNode siftUpNode) {
+            // Transform bottom-up. The largest index there's any point to looking at is the
+            // largest with a child index in-range, so must have 2*i + 1 < n, or i < (n-1)/2.
+            int n = heap.getSequenceStorage().length();
+            for (int i = (n >> 1) - 1; i >= 0; i--) {
+                siftUpNode.execute(frame, heap, i, max);
+            }
+        }
+    }
+
+    @Builtin(name = "heappush", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapPushNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static Object push(VirtualFrame frame, PList heap, Object item,
+                        @Cached ListNodes.AppendNode appendNode,
+                        @Cached SiftDownNode siftDownNode) {
+            appendNode.execute(heap, item);
+            siftDownNode.execute(frame, heap, 0, heap.getSequenceStorage().length() - 1, false);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heappop", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapPopNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object pop(VirtualFrame frame, PList heap,
+                        @Cached PopNode popNode) {
+            return popNode.execute(frame, heap, false);
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heappop_max", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapPopMaxNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object pop(VirtualFrame frame, PList heap,
+                        @Cached PopNode popNode) {
+            return popNode.execute(frame, heap, true);
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapreplace", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapReplaceNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static Object replace(VirtualFrame frame, PList heap, Object item,
+                        @Cached ReplaceNode replaceNode) {
+            return replaceNode.execute(frame, heap, item, false);
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heapreplace_max", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapReplaceMaxNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static Object replace(VirtualFrame frame, PList heap, Object item,
+                        @Cached ReplaceNode replaceNode) {
+            return replaceNode.execute(frame, heap, item, true);
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heappushpop", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapPushPopNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        Object pushPop(VirtualFrame frame, PList heap, Object item,
+                        @Cached GetItemScalarNode getItem,
+                        @Cached PyObjectRichCompareBool.LtNode ltNode,
+                        @Cached ReplaceNode replaceNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (storage.length() == 0 || !ltNode.execute(frame, getItem.execute(storage, 0), item)) {
+                return item;
+            }
+            // the comparison may have emptied the list, which the replace node reports
+            return replaceNode.execute(frame, heap, item, false);
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapify", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapifyBuiltinNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object heapify(VirtualFrame frame, PList heap,
+                        @Cached HeapifyNode heapifyNode) {
+            heapifyNode.execute(frame, heap, false);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heapify_max", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapifyMaxNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object heapify(VirtualFrame frame, PList heap,
+                        @Cached HeapifyNode heapifyNode) {
+            heapifyNode.execute(frame, heap, true);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object error(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+}
@@ -49,29 +49,36 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.list.PList;
-import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.tuple.StructSequence;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.InstrumentInfo;
+import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.TruffleContext;
 import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
-import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.tools.profiler.CPUSampler;
 import com.oracle.truffle.tools.profiler.CPUSampler.Payload;
@@ -135,6 +142,10 @@ public class LsprofModuleBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         Profiler doit(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            if (getContext().getOption(PythonOptions.EnableBytecodeInterpreter)) {
+                // the bytecode interpreter reports calls and returns to the profiler directly
+                return factory().trace(new Profiler(cls, factory().getShape(cls), null));
+            }
             Env env = getContext().getEnv();
             Map<String, InstrumentInfo> instruments = env.getInstruments();
             InstrumentInfo instrumentInfo = instruments.get(CPUSamplerInstrument.ID);
@@ -149,22 +160,6 @@ public class LsprofModuleBuiltins extends PythonBuiltins {
     }
 }
 
-class Profiler extends PythonBuiltinObject {
-    boolean subcalls;
-    boolean builtins;
-    double timeunit;
-    Object externalTimer;
-    double time;
-    final CPUSampler sampler;
-
-    public Profiler(Object cls, Shape instanceShape, CPUSampler sampler) {
-        super(cls, instanceShape);
-        this.sampler = sampler;
-        this.sampler.setFilter(SourceSectionFilter.newBuilder().includeInternal(true).build());
-        this.sampler.setPeriod(1);
-    }
-}
-
 @CoreFunctions(extendClasses = PythonBuiltinClassType.LsprofProfiler)
 class ProfilerBuiltins extends PythonBuiltins {
     @Override
@@ -176,20 +171,12 @@ class ProfilerBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class Init extends PythonBuiltinNode {
         @Specialization
-        PNone doit(Profiler self, Object timer, double timeunit, long subcalls, long builtins) {
-            self.subcalls = subcalls > 0;
-            self.builtins = builtins > 0;
-            self.timeunit = timeunit;
-            self.externalTimer = timer;
-            return PNone.NONE;
-        }
-
-        @Specialization
-        @SuppressWarnings("unused")
-        PNone doit(Profiler self, Object timer, PNone timeunit, PNone subcalls, PNone builtins) {
-            self.subcalls = true;
-            self.builtins = true;
-            self.timeunit = -1;
+        PNone doit(VirtualFrame frame, Profiler self, Object timer, Object timeunit, Object subcalls, Object builtins,
+                        @Cached PyFloatAsDoubleNode asDoubleNode,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            self.subcalls = subcalls == PNone.NO_VALUE || isTrueNode.execute(frame, subcalls);
+            self.builtins = builtins == PNone.NO_VALUE || isTrueNode.execute(frame, builtins);
+            self.timeunit = timeunit == PNone.NO_VALUE ? -1 : asDoubleNode.execute(frame, timeunit);
             self.externalTimer = timer;
             return PNone.NONE;
         }
@@ -203,9 +190,13 @@ class ProfilerBuiltins extends PythonBuiltins {
         PNone doit(Profiler self, long subcalls, long builtins) {
             self.subcalls = subcalls > 0;
             self.builtins = builtins > 0;
-            // TODO: deal with any arguments
             self.time = System.currentTimeMillis();
-            self.sampler.setCollecting(true);
+            if (self.isDeterministic()) {
+                PythonLanguage language = getLanguage();
+                getContext().getThreadState(language).setProfileFun(self, language);
+            } else {
+                self.sampler.setCollecting(true);
+            }
             return PNone.NONE;
         }
 
@@ -231,7 +222,16 @@ class ProfilerBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         PNone doit(Profiler self) {
-            self.sampler.setCollecting(false);
+            if (self.isDeterministic()) {
+                PythonLanguage language = getLanguage();
+                PythonThreadState threadState = getContext().getThreadState(language);
+                if (threadState.getProfileFun() == self) {
+                    threadState.setProfileFun(null, language);
+                }
+                self.flushUnmatched();
+            } else {
+                self.sampler.setCollecting(false);
+            }
             self.time = (System.currentTimeMillis() - self.time) / 1000D;
             return PNone.NONE;
         }
@@ -243,7 +243,11 @@ class ProfilerBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         PNone doit(Profiler self) {
-            self.sampler.clearData();
+            if (self.isDeterministic()) {
+                self.clearEntries();
+            } else {
+                self.sampler.clearData();
+            }
             return PNone.NONE;
         }
     }
@@ -275,6 +279,9 @@ class ProfilerBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         PList doit(Profiler self) {
+            if (self.isDeterministic()) {
+                return getDeterministicStats(self);
+            }
             double avgSampleSeconds = self.sampler.getPeriod() / 1000D;
             List<PTuple> entries = new ArrayList<>();
             Map<TruffleContext, CPUSamplerData> data = self.sampler.getData();
@@ -291,6 +298,42 @@ class ProfilerBuiltins extends PythonBuiltins {
             return factory().createList(entries.toArray());
         }
 
+        private PList getDeterministicStats(Profiler self) {
+            List<Profiler.Entry> entries = self.getEntries();
+            Object[] stats = new Object[entries.size()];
+            for (int i = 0; i < stats.length; i++) {
+                Profiler.Entry entry = entries.get(i);
+                Object calls = PNone.NONE;
+                if (self.subcalls) {
+                    Object[] subentries = entry.calls == null ? PythonUtils.EMPTY_OBJECT_ARRAY : new Object[entry.calls.size()];
+                    int j = 0;
+                    if (entry.calls != null) {
+                        for (Profiler.Entry subentry : entry.calls.values()) {
+                            subentries[j++] = factory().createStructSeq(LsprofModuleBuiltins.PROFILER_SUBENTRY_DESC, getEntryFields(subentry));
+                        }
+                    }
+                    calls = factory().createList(subentries);
+                }
+                Object[] fields = Arrays.copyOf(getEntryFields(entry), 6);
+                fields[5] = calls;
+                stats[i] = factory().createStructSeq(LsprofModuleBuiltins.PROFILER_ENTRY_DESC, fields);
+            }
+            return factory().createList(stats);
+        }
+
+        private Object[] getEntryFields(Profiler.Entry entry) {
+            Object code;
+            RootCallTarget callTarget = Profiler.getCallTarget(entry.key);
+            if (callTarget != null) {
+                code = factory().createCode(callTarget);
+            } else if (entry.key instanceof PBuiltinFunction) {
+                code = toTruffleStringUncached(Profiler.getBuiltinLabel((PBuiltinFunction) entry.key));
+            } else {
+                code = toTruffleStringUncached(String.valueOf(entry.key));
+            }
+            return new Object[]{code, entry.callCount, entry.recursiveCallCount, entry.totalTime * 1e-9, entry.inlineTime * 1e-9};
+        }
+
         private void countNode(List<PTuple> entries, ProfilerNode<Payload> node, double avgSampleTime) {
             Collection<ProfilerNode<Payload>> children = node.getChildren();
             Object[] profilerEntry = getProfilerEntry(node, avgSampleTime);
@@ -394,6 +394,36 @@ public final class MarshalModuleBuiltins extends PythonBuiltins {
             }
         }
 
+        /**
+         * Reads directly from a (possibly memory-mapped) byte buffer, so that the data does not
+         * have to be copied to the Java heap before unmarshalling.
+         */
+        static final class ByteBufferInputStream extends InputStream {
+            private final ByteBuffer buffer;
+
+            ByteBufferInputStream(ByteBuffer buffer) {
+                this.buffer = buffer;
+            }
+
+            @Override
+            public int read() {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                return buffer.get() & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, buffer.remaining());
+                buffer.get(b, off, n);
+                return n;
+            }
+        }
+
         private static final PythonObjectFactory factory = PythonObjectFactory.getUncached();
         final HashMap<Object, Integer> refMap;
         final ArrayList<Object> refList;
@@ -427,6 +457,16 @@ public final class MarshalModuleBuiltins extends PythonBuiltins {
             this.refMap = null;
         }
 
+        Marshal(ByteBuffer in) {
+            this.in = new ByteBufferInputStream(in);
+            this.refList = new ArrayList<>();
+            this.version = -1;
+            this.pyTrue = null;
+            this.pyFalse = null;
+            this.out = null;
+            this.refMap = null;
+        }
+
         Marshal(Object in) {
             this.in = new FileLikeInputStream(in);
             this.refList = new ArrayList<>();
@@ -1333,4 +1373,16 @@ public final class MarshalModuleBuiltins extends PythonBuiltins {
             throw PRaiseNode.getUncached().raise(ValueError, ErrorMessages.BAD_MARSHAL_DATA_S, e.getMessage());
         }
     }
+
+    @TruffleBoundary
+    public static CodeUnit deserializeCodeUnit(ByteBuffer buffer) {
+        try {
+            Marshal marshal = new Marshal(buffer);
+            return marshal.readCodeUnit();
+        } catch (Marshal.MarshalError me) {
+            throw PRaiseNode.getUncached().raise(me.type, me.message, me.arguments);
+        } catch (NumberFormatException e) {
+            throw PRaiseNode.getUncached().raise(ValueError, ErrorMessages.BAD_MARSHAL_DATA_S, e.getMessage());
+        }
+    }
 }
@@ -53,12 +53,14 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.thread.PSemLock;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyObjectGetItem;
@@ -284,32 +286,62 @@ public class MultiprocessingModuleBuiltins extends PythonBuiltins {
     @Builtin(name = "_write", minNumOfPositionalArgs = 2, parameterNames = {"fd", "data"})
     @GenerateNodeFactory
     public abstract static class WriteNode extends PythonBinaryBuiltinNode {
-        @Specialization(limit = "1")
-        Object doWrite(int fd, PBytes data,
-                        @CachedLibrary("data") PythonBufferAccessLibrary bufferLib,
+        @Specialization(limit = "3")
+        Object doWrite(VirtualFrame frame, int fd, Object data,
+                        @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
                         @Cached GilNode gil) {
             SharedMultiprocessingData sharedData = getContext().getSharedMultiprocessingData();
-            gil.release(true);
+            Object buffer = bufferAcquireLib.acquireReadonly(data, frame, this);
             try {
-                byte[] bytes = bufferLib.getCopiedByteArray(data);
-                sharedData.addPipeData(fd, bytes,
-                                () -> {
-                                    throw PRaiseNode.raiseUncached(this, OSError, ErrorMessages.BAD_FILE_DESCRIPTOR);
-                                },
-                                () -> {
-                                    throw PConstructAndRaiseNode.getUncached().raiseOSError(null, OSErrorEnum.EPIPE.getNumber(), OSErrorEnum.EPIPE.getMessage(), null);
-                                });
-                return bytes.length;
+                byte[] bytes = getMessageBytes(data, buffer, bufferLib);
+                gil.release(true);
+                try {
+                    sharedData.addPipeData(this, fd, bytes,
+                                    () -> {
+                                        throw PRaiseNode.raiseUncached(this, OSError, ErrorMessages.BAD_FILE_DESCRIPTOR);
+                                    },
+                                    () -> {
+                                        throw PConstructAndRaiseNode.getUncached().raiseOSError(null, OSErrorEnum.EPIPE.getNumber(), OSErrorEnum.EPIPE.getMessage(), null);
+                                    });
+                    return bytes.length;
+                } finally {
+                    gil.acquire();
+                }
             } finally {
-                gil.acquire();
+                bufferLib.release(buffer, frame, this);
             }
         }
 
-        @Specialization(limit = "1")
-        Object doWrite(long fd, PBytes data,
-                        @CachedLibrary("data") PythonBufferAccessLibrary bufferLib,
+        @Specialization(limit = "3")
+        Object doWrite(VirtualFrame frame, long fd, Object data,
+                        @CachedLibrary("data") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
                         @Cached GilNode gil) {
-            return doWrite((int) fd, data, bufferLib, gil);
+            return doWrite(frame, (int) fd, data, bufferAcquireLib, bufferLib, gil);
+        }
+
+        /**
+         * Inner contexts share the heap, so the backing array of an immutable {@code bytes} object
+         * (or of a read-only memoryview spanning one) can be handed to the reader as is. Any other
+         * buffer is copied, since the writer may still modify it.
+         */
+        private static byte[] getMessageBytes(Object data, Object buffer, PythonBufferAccessLibrary bufferLib) {
+            if (isImmutable(data) && bufferLib.hasInternalByteArray(buffer)) {
+                byte[] array = bufferLib.getInternalByteArray(buffer);
+                if (array.length == bufferLib.getBufferLength(buffer)) {
+                    return array;
+                }
+            }
+            return bufferLib.getCopiedByteArray(buffer);
+        }
+
+        private static boolean isImmutable(Object data) {
+            if (data instanceof PMemoryView) {
+                PMemoryView memoryView = (PMemoryView) data;
+                return memoryView.isReadOnly() && memoryView.getOwner() instanceof PBytes;
+            }
+            return data instanceof PBytes;
         }
     }
 
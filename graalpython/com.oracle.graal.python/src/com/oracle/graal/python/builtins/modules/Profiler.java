@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
+import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.runtime.PythonContext.ProfileEvent;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.tools.profiler.CPUSampler;
+
+/**
+ * The {@code _lsprof.Profiler} object. With the bytecode interpreter, the profiler installs itself
+ * as the profile function of the thread that enables it and the interpreter reports every call and
+ * return directly to {@link #profileEvent}, so the statistics hold exact call counts and times
+ * like those of CPython's {@code _lsprof}. Otherwise, the statistics are estimated from a
+ * {@link CPUSampler}.
+ */
+public final class Profiler extends PythonBuiltinObject {
+    boolean subcalls;
+    boolean builtins;
+    double timeunit;
+    Object externalTimer;
+    double time;
+    final CPUSampler sampler;
+
+    /** Statistics of one function, keyed by its root node or built-in function. */
+    static final class Entry {
+        final Object key;
+        long callCount;
+        long recursiveCallCount;
+        long totalTime;
+        long inlineTime;
+        int recursionLevel;
+        IdentityHashMap<Object, Entry> calls;
+
+        Entry(Object key) {
+            this.key = key;
+        }
+
+        Entry getSubEntry(Object calleeKey) {
+            if (calls == null) {
+                calls = new IdentityHashMap<>();
+            }
+            return calls.computeIfAbsent(calleeKey, Entry::new);
+        }
+    }
+
+    /** An active call, i.e., a frame of the profiler's shadow stack. */
+    private static final class Context {
+        final Entry entry;
+        final Entry subEntry;
+        final Context previous;
+        final long start;
+        long subcallTime;
+
+        Context(Entry entry, Entry subEntry, Context previous, long start) {
+            this.entry = entry;
+            this.subEntry = subEntry;
+            this.previous = previous;
+            this.start = start;
+        }
+    }
+
+    private final IdentityHashMap<Object, Entry> entries = new IdentityHashMap<>();
+    private Context current;
+
+    public Profiler(Object cls, Shape instanceShape, CPUSampler sampler) {
+        super(cls, instanceShape);
+        this.sampler = sampler;
+        if (sampler != null) {
+            this.sampler.setFilter(SourceSectionFilter.newBuilder().includeInternal(true).build());
+            this.sampler.setPeriod(1);
+        }
+    }
+
+    boolean isDeterministic() {
+        return sampler == null;
+    }
+
+    /**
+     * Records a profile event. For {@link ProfileEvent#CALL} and {@link ProfileEvent#RETURN}, the
+     * {@code rootNode} is the function being entered or left, for the other events, {@code arg} is
+     * the called built-in function.
+     */
+    @TruffleBoundary
+    public void profileEvent(RootNode rootNode, ProfileEvent event, Object arg) {
+        switch (event) {
+            case CALL:
+                enter(rootNode);
+                break;
+            case RETURN:
+                leave(rootNode);
+                break;
+            case C_CALL:
+                if (builtins) {
+                    enter(getBuiltinKey(arg));
+                }
+                break;
+            case C_RETURN:
+            case C_EXCEPTION:
+                if (builtins) {
+                    leave(getBuiltinKey(arg));
+                }
+                break;
+        }
+    }
+
+    private static Object getBuiltinKey(Object callable) {
+        // bound methods are created on each access, the function is shared
+        return callable instanceof PBuiltinMethod ? ((PBuiltinMethod) callable).getFunction() : callable;
+    }
+
+    private void enter(Object key) {
+        Entry entry = entries.computeIfAbsent(key, Entry::new);
+        Entry subEntry = null;
+        if (subcalls && current != null) {
+            subEntry = current.entry.getSubEntry(key);
+            subEntry.recursionLevel++;
+        }
+        entry.recursionLevel++;
+        current = new Context(entry, subEntry, current, now());
+    }
+
+    private void leave(Object key) {
+        // ignore returns from calls that started before the profiler was enabled
+        if (current != null && current.entry.key == key) {
+            pop(now());
+        }
+    }
+
+    private void pop(long now) {
+        Context ctx = current;
+        long totalTime = now - ctx.start;
+        long inlineTime = totalTime - ctx.subcallTime;
+        current = ctx.previous;
+        if (current != null) {
+            current.subcallTime += totalTime;
+        }
+        account(ctx.entry, totalTime, inlineTime);
+        if (ctx.subEntry != null) {
+            account(ctx.subEntry, totalTime, inlineTime);
+        }
+    }
+
+    private static void account(Entry entry, long totalTime, long inlineTime) {
+        if (--entry.recursionLevel == 0) {
+            entry.totalTime += totalTime;
+        } else {
+            entry.recursiveCallCount++;
+        }
+        entry.inlineTime += inlineTime;
+        entry.callCount++;
+    }
+
+    /**
+     * Accounts the calls that are still active, as CPython does when the profiler is disabled.
+     */
+    @TruffleBoundary
+    void flushUnmatched() {
+        long now = now();
+        while (current != null) {
+            pop(now);
+        }
+    }
+
+    @TruffleBoundary
+    void clearEntries() {
+        entries.clear();
+        current = null;
+    }
+
+    @TruffleBoundary
+    List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Returns the current time in nanoseconds, which is the unit of all times in {@link Entry}.
+     */
+    private long now() {
+        if (externalTimer == null || externalTimer == PNone.NO_VALUE || externalTimer == PNone.NONE) {
+            return System.nanoTime();
+        }
+        double value = PyFloatAsDoubleNode.getUncached().execute(null, CallNode.getUncached().execute(externalTimer));
+        return (long) (value * (timeunit > 0 ? timeunit : 1) * 1e9);
+    }
+
+    static String getBuiltinLabel(PBuiltinFunction function) {
+        Object enclosingType = function.getEnclosingType();
+        if (enclosingType != null) {
+            return "<method '" + function.getName() + "' of '" + TypeNodes.GetNameNode.getUncached().execute(enclosingType) + "' objects>";
+        }
+        return "<built-in method " + function.getName() + ">";
+    }
+
+    static RootCallTarget getCallTarget(Object key) {
+        return key instanceof RootNode ? ((RootNode) key).getCallTarget() : null;
+    }
+}
@@ -49,7 +49,6 @@ import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
 
 import java.util.List;
 
-import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.Python3Core;
@@ -57,18 +56,29 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
 import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.re.PMatch;
+import com.oracle.graal.python.builtins.objects.re.TRegexNodes;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.lib.PyObjectSizeNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.BufferToTruffleStringNode;
 import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
 import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
-import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
-import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.ArrayBuilder;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
@@ -78,11 +88,9 @@ import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.dsl.TypeSystemReference;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.interop.ArityException;
 import com.oracle.truffle.api.interop.ExceptionType;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
-import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
@@ -229,39 +237,72 @@ public class SREModuleBuiltins extends PythonBuiltins {
         }
     }
 
-    @Builtin(name = "tregex_call_exec", minNumOfPositionalArgs = 3)
+    /**
+     * Clamps {@code pos} and {@code endpos} to the input length like CPython's {@code state_init}.
+     * Returns {@code endpos} in the upper and {@code pos} in the lower half of the result.
+     */
+    private static long normalizeBounds(long pos, long endpos, int length) {
+        int end = (int) Math.max(0, Math.min(endpos, length));
+        int start = (int) Math.max(0, Math.min(pos, end));
+        return ((long) end << 32) | start;
+    }
+
+    /**
+     * Returns {@code input[start:end]} as a {@code str} or as {@code bytes}.
+     */
+    private static Object substring(TruffleString input, boolean binary, int start, int end, TruffleString.SubstringNode substringNode, TruffleString.CopyToByteArrayNode copyToByteArrayNode,
+                    PythonObjectFactory factory) {
+        if (binary) {
+            byte[] bytes = new byte[end - start];
+            copyToByteArrayNode.execute(input, start, bytes, 0, bytes.length, Encoding.ISO_8859_1);
+            return factory.createBytes(bytes);
+        }
+        return substringNode.execute(input, start, end - start, TS_ENCODING, false);
+    }
+
+    @Builtin(name = "tregex_search", minNumOfPositionalArgs = 5, parameterNames = {"pattern", "regex", "string", "pos", "endpos"})
     @TypeSystemReference(PythonArithmeticTypes.class)
     @GenerateNodeFactory
-    abstract static class TRegexCallExec extends PythonTernaryBuiltinNode {
+    abstract static class TRegexSearchNode extends PythonBuiltinNode {
 
-        @Specialization(limit = "1")
-        Object call(VirtualFrame frame, Object callable, Object inputStringOrBytes, Number fromIndex,
-                        @Cached CastToTruffleStringNode cast,
+        @Specialization
+        Object search(VirtualFrame frame, Object pattern, Object regex, Object string, long pos, long endpos,
+                        @Cached ConditionProfile isStringProfile,
+                        @Cached CastToTruffleStringNode castToStringNode,
+                        @Cached TruffleString.CodePointLengthNode codePointLengthNode,
                         @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
                         @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
                         @Cached BufferToTruffleStringNode bufferToTruffleStringNode,
-                        @CachedLibrary("callable") InteropLibrary interop) {
-            PythonContext context = getContext();
-            PythonLanguage language = getLanguage();
-            TruffleString input;
+                        @Cached TruffleString.SubstringNode substringNode,
+                        @Cached TRegexNodes.ExecNode execNode,
+                        @Cached TRegexNodes.IsMatchNode isMatchNode,
+                        @Cached TRegexNodes.GetGroupCountNode getGroupCountNode) {
             Object buffer = null;
             try {
-                try {
-                    // This would materialize the string if it was native
-                    input = cast.execute(inputStringOrBytes);
-                } catch (CannotCastException e1) {
-                    // It's bytes or other buffer object
-                    buffer = bufferAcquireLib.acquireReadonly(inputStringOrBytes, frame, this);
+                TruffleString input;
+                int length;
+                Encoding encoding;
+                if (isStringProfile.profile(PGuards.isString(string))) {
+                    input = castToStringNode.execute(string);
+                    length = codePointLengthNode.execute(input, TS_ENCODING);
+                    encoding = TS_ENCODING;
+                } else {
+                    buffer = bufferAcquireLib.acquireReadonly(string, frame, this);
                     input = bufferToTruffleStringNode.execute(buffer, 0);
+                    length = bufferLib.getBufferLength(buffer);
+                    encoding = Encoding.ISO_8859_1;
                 }
-                Object state = IndirectCallContext.enter(frame, language, context, this);
-                try {
-                    return interop.execute(callable, input, fromIndex);
-                } catch (ArityException | UnsupportedTypeException | UnsupportedMessageException e2) {
-                    throw CompilerDirectives.shouldNotReachHere("could not call TRegex exec method", e2);
-                } finally {
-                    IndirectCallContext.exit(frame, language, context, state);
+                long bounds = normalizeBounds(pos, endpos, length);
+                int start = (int) bounds;
+                int end = (int) (bounds >>> 32);
+                if (end != length) {
+                    input = substringNode.execute(input, 0, end, encoding, true);
                 }
+                Object result = execNode.execute(frame, regex, input, start);
+                if (!isMatchNode.execute(result)) {
+                    return PNone.NONE;
+                }
+                return factory().createMatch(pattern, string, result, start, end, getGroupCountNode.execute(regex) - 1);
             } finally {
                 if (buffer != null) {
                     bufferLib.release(buffer, frame, this);
@@ -269,4 +310,325 @@ public class SREModuleBuiltins extends PythonBuiltins {
             }
         }
     }
+
+    @Builtin(name = "tregex_findall", minNumOfPositionalArgs = 5, parameterNames = {"regex", "must_advance_regex", "string", "pos", "endpos"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class TRegexFindAllNode extends PythonBuiltinNode {
+
+        @Specialization
+        PList findall(VirtualFrame frame, Object regex, Object mustAdvanceRegex, Object string, long pos, long endpos,
+                        @Cached ConditionProfile isStringProfile,
+                        @Cached CastToTruffleStringNode castToStringNode,
+                        @Cached TruffleString.CodePointLengthNode codePointLengthNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached BufferToTruffleStringNode bufferToTruffleStringNode,
+                        @Cached TruffleString.SubstringNode substringNode,
+                        @Cached TruffleString.CopyToByteArrayNode copyToByteArrayNode,
+                        @Cached TRegexNodes.ExecNode execNode,
+                        @Cached TRegexNodes.IsMatchNode isMatchNode,
+                        @Cached TRegexNodes.GetStartNode getStartNode,
+                        @Cached TRegexNodes.GetEndNode getEndNode,
+                        @Cached TRegexNodes.GetGroupCountNode getGroupCountNode) {
+            Object buffer = null;
+            try {
+                TruffleString input;
+                int length;
+                boolean binary = !isStringProfile.profile(PGuards.isString(string));
+                if (!binary) {
+                    input = castToStringNode.execute(string);
+                    length = codePointLengthNode.execute(input, TS_ENCODING);
+                } else {
+                    buffer = bufferAcquireLib.acquireReadonly(string, frame, this);
+                    input = bufferToTruffleStringNode.execute(buffer, 0);
+                    length = bufferLib.getBufferLength(buffer);
+                }
+                long bounds = normalizeBounds(pos, endpos, length);
+                int searchPos = (int) bounds;
+                int end = (int) (bounds >>> 32);
+                if (end != length) {
+                    input = substringNode.execute(input, 0, end, binary ? Encoding.ISO_8859_1 : TS_ENCODING, true);
+                }
+                int groups = getGroupCountNode.execute(regex) - 1;
+                ArrayBuilder<Object> matches = new ArrayBuilder<>();
+                boolean mustAdvance = false;
+                while (searchPos <= end) {
+                    Object result = execNode.execute(frame, mustAdvance ? mustAdvanceRegex : regex, input, searchPos);
+                    if (!isMatchNode.execute(result)) {
+                        break;
+                    }
+                    if (groups <= 1) {
+                        int start = getStartNode.execute(result, groups);
+                        if (start < 0) {
+                            matches.add(substring(input, binary, 0, 0, substringNode, copyToByteArrayNode, factory()));
+                        } else {
+                            matches.add(substring(input, binary, start, getEndNode.execute(result, groups), substringNode, copyToByteArrayNode, factory()));
+                        }
+                    } else {
+                        Object[] items = new Object[groups];
+                        for (int i = 0; i < groups; i++) {
+                            int start = getStartNode.execute(result, i + 1);
+                            if (start < 0) {
+                                items[i] = substring(input, binary, 0, 0, substringNode, copyToByteArrayNode, factory());
+                            } else {
+                                items[i] = substring(input, binary, start, getEndNode.execute(result, i + 1), substringNode, copyToByteArrayNode, factory());
+                            }
+                        }
+                        matches.add(factory().createTuple(items));
+                    }
+                    int matchStart = getStartNode.execute(result, 0);
+                    searchPos = getEndNode.execute(result, 0);
+                    mustAdvance = matchStart == searchPos;
+                }
+                return factory().createList(matches.toObjectArray(new Object[matches.size()]));
+            } finally {
+                if (buffer != null) {
+                    bufferLib.release(buffer, frame, this);
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "tregex_split", minNumOfPositionalArgs = 4, parameterNames = {"regex", "must_advance_regex", "string", "maxsplit"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class TRegexSplitNode extends PythonBuiltinNode {
+
+        @Specialization
+        PList split(VirtualFrame frame, Object regex, Object mustAdvanceRegex, Object string, long maxsplit,
+                        @Cached ConditionProfile isStringProfile,
+                        @Cached CastToTruffleStringNode castToStringNode,
+                        @Cached TruffleString.CodePointLengthNode codePointLengthNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached BufferToTruffleStringNode bufferToTruffleStringNode,
+                        @Cached TruffleString.SubstringNode substringNode,
+                        @Cached TruffleString.CopyToByteArrayNode copyToByteArrayNode,
+                        @Cached TRegexNodes.ExecNode execNode,
+                        @Cached TRegexNodes.IsMatchNode isMatchNode,
+                        @Cached TRegexNodes.GetStartNode getStartNode,
+                        @Cached TRegexNodes.GetEndNode getEndNode,
+                        @Cached TRegexNodes.GetGroupCountNode getGroupCountNode) {
+            Object buffer = null;
+            try {
+                TruffleString input;
+                int length;
+                boolean binary = !isStringProfile.profile(PGuards.isString(string));
+                if (!binary) {
+                    input = castToStringNode.execute(string);
+                    length = codePointLengthNode.execute(input, TS_ENCODING);
+                } else {
+                    buffer = bufferAcquireLib.acquireReadonly(string, frame, this);
+                    input = bufferToTruffleStringNode.execute(buffer, 0);
+                    length = bufferLib.getBufferLength(buffer);
+                }
+                int groups = getGroupCountNode.execute(regex) - 1;
+                ArrayBuilder<Object> parts = new ArrayBuilder<>();
+                long n = 0;
+                int collectPos = 0;
+                int searchPos = 0;
+                boolean mustAdvance = false;
+                while ((maxsplit == 0 || n < maxsplit) && searchPos <= length) {
+                    Object result = execNode.execute(frame, mustAdvance ? mustAdvanceRegex : regex, input, searchPos);
+                    if (!isMatchNode.execute(result)) {
+                        break;
+                    }
+                    n++;
+                    int start = getStartNode.execute(result, 0);
+                    int end = getEndNode.execute(result, 0);
+                    parts.add(substring(input, binary, collectPos, start, substringNode, copyToByteArrayNode, factory()));
+                    for (int i = 1; i <= groups; i++) {
+                        int groupStart = getStartNode.execute(result, i);
+                        if (groupStart < 0) {
+                            parts.add(PNone.NONE);
+                        } else {
+                            parts.add(substring(input, binary, groupStart, getEndNode.execute(result, i), substringNode, copyToByteArrayNode, factory()));
+                        }
+                    }
+                    collectPos = end;
+                    searchPos = end;
+                    mustAdvance = start == end;
+                }
+                parts.add(substring(input, binary, collectPos, length, substringNode, copyToByteArrayNode, factory()));
+                return factory().createList(parts.toObjectArray(new Object[parts.size()]));
+            } finally {
+                if (buffer != null) {
+                    bufferLib.release(buffer, frame, this);
+                }
+            }
+        }
+    }
+
+    /**
+     * A replacement template of {@code sub}: {@code parts[i]} is either a literal, or {@code null}
+     * if it is to be replaced by group {@code groups[i]} of the match.
+     */
+    static final class SubTemplate {
+        final TruffleString[] parts;
+        final int[] groups;
+
+        SubTemplate(TruffleString[] parts, int[] groups) {
+            this.parts = parts;
+            this.groups = groups;
+        }
+
+        /**
+         * Converts a template as returned by {@code sre_parse.parse_template}, i.e., a tuple of a
+         * list of {@code (index, group)} pairs and a list of literals with {@code None} for the
+         * group references. Literals of binary templates are stored as Latin-1 strings.
+         */
+        @TruffleBoundary
+        static SubTemplate create(Object template, boolean binary) {
+            PyObjectGetItem getItem = PyObjectGetItem.getUncached();
+            PyObjectSizeNode size = PyObjectSizeNode.getUncached();
+            Object groupRefs = getItem.execute(null, template, 0);
+            Object literals = getItem.execute(null, template, 1);
+            int n = size.execute(null, literals);
+            TruffleString[] parts = new TruffleString[n];
+            int[] groups = new int[n];
+            for (int i = 0; i < n; i++) {
+                Object literal = getItem.execute(null, literals, i);
+                if (literal != PNone.NONE) {
+                    if (binary) {
+                        byte[] bytes = PythonBufferAccessLibrary.getUncached().getCopiedByteArray(literal);
+                        parts[i] = TruffleString.fromByteArrayUncached(bytes, Encoding.ISO_8859_1, false);
+                    } else {
+                        parts[i] = CastToTruffleStringNode.getUncached().execute(literal);
+                    }
+                }
+            }
+            int refs = size.execute(null, groupRefs);
+            for (int i = 0; i < refs; i++) {
+                Object ref = getItem.execute(null, groupRefs, i);
+                int index = CastToJavaIntExactNode.getUncached().execute(getItem.execute(null, ref, 0));
+                groups[index] = CastToJavaIntExactNode.getUncached().execute(getItem.execute(null, ref, 1));
+            }
+            return new SubTemplate(parts, groups);
+        }
+    }
+
+    @Builtin(name = "tregex_subn", minNumOfPositionalArgs = 6, parameterNames = {"pattern", "regex", "must_advance_regex", "repl", "string", "count"})
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class TRegexSubnNode extends PythonBuiltinNode {
+
+        @Specialization
+        PTuple subn(VirtualFrame frame, Object pattern, Object regex, Object mustAdvanceRegex, Object repl, Object string, long count,
+                        @Cached ConditionProfile isStringProfile,
+                        @Cached ConditionProfile isCallableProfile,
+                        @Cached CastToTruffleStringNode castToStringNode,
+                        @Cached TruffleString.CodePointLengthNode codePointLengthNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached BufferToTruffleStringNode bufferToTruffleStringNode,
+                        @Cached TruffleString.SubstringNode substringNode,
+                        @Cached TruffleString.CopyToByteArrayNode copyToByteArrayNode,
+                        @Cached TruffleString.FromByteArrayNode fromByteArrayNode,
+                        @Cached TruffleStringBuilder.AppendStringNode appendStringNode,
+                        @Cached TruffleStringBuilder.ToStringNode toStringNode,
+                        @Cached PyCallableCheckNode callableCheckNode,
+                        @Cached CallNode callNode,
+                        @Cached TRegexNodes.ExecNode execNode,
+                        @Cached TRegexNodes.IsMatchNode isMatchNode,
+                        @Cached TRegexNodes.GetStartNode getStartNode,
+                        @Cached TRegexNodes.GetEndNode getEndNode,
+                        @Cached TRegexNodes.GetGroupCountNode getGroupCountNode) {
+            Object buffer = null;
+            try {
+                TruffleString input;
+                int length;
+                boolean binary = !isStringProfile.profile(PGuards.isString(string));
+                Encoding encoding;
+                if (!binary) {
+                    input = castToStringNode.execute(string);
+                    length = codePointLengthNode.execute(input, TS_ENCODING);
+                    encoding = TS_ENCODING;
+                } else {
+                    buffer = bufferAcquireLib.acquireReadonly(string, frame, this);
+                    input = bufferToTruffleStringNode.execute(buffer, 0);
+                    length = bufferLib.getBufferLength(buffer);
+                    encoding = Encoding.ISO_8859_1;
+                }
+                boolean callable = isCallableProfile.profile(callableCheckNode.execute(repl));
+                SubTemplate template = callable ? null : SubTemplate.create(repl, binary);
+                int groupCount = getGroupCountNode.execute(regex) - 1;
+                TruffleStringBuilder sb = TruffleStringBuilder.create(encoding);
+                long n = 0;
+                int pos = 0;
+                boolean mustAdvance = false;
+                while ((count == 0 || n < count) && pos <= length) {
+                    Object result = execNode.execute(frame, mustAdvance ? mustAdvanceRegex : regex, input, pos);
+                    if (!isMatchNode.execute(result)) {
+                        break;
+                    }
+                    n++;
+                    int start = getStartNode.execute(result, 0);
+                    int end = getEndNode.execute(result, 0);
+                    appendStringNode.execute(sb, substringNode.execute(input, pos, start - pos, encoding, true));
+                    if (callable) {
+                        PMatch match = factory().createMatch(pattern, string, result, 0, length, groupCount);
+                        Object item = callNode.execute(frame, repl, match);
+                        if (item != PNone.NONE) {
+                            appendStringNode.execute(sb, replacementToString(frame, item, binary, castToStringNode, bufferAcquireLib, bufferLib, fromByteArrayNode));
+                        }
+                    } else {
+                        for (int i = 0; i < template.parts.length; i++) {
+                            TruffleString part = template.parts[i];
+                            if (part != null) {
+                                appendStringNode.execute(sb, part);
+                            } else {
+                                int group = template.groups[i];
+                                int groupStart = getStartNode.execute(result, group);
+                                if (groupStart >= 0) {
+                                    int groupEnd = getEndNode.execute(result, group);
+                                    appendStringNode.execute(sb, substringNode.execute(input, groupStart, groupEnd - groupStart, encoding, true));
+                                }
+                            }
+                        }
+                    }
+                    pos = end;
+                    mustAdvance = start == end;
+                }
+                appendStringNode.execute(sb, substringNode.execute(input, pos, length - pos, encoding, true));
+                TruffleString resultString = toStringNode.execute(sb);
+                Object resultObject;
+                if (binary) {
+                    byte[] bytes = new byte[resultString.byteLength(Encoding.ISO_8859_1)];
+                    copyToByteArrayNode.execute(resultString, 0, bytes, 0, bytes.length, Encoding.ISO_8859_1);
+                    resultObject = factory().createBytes(bytes);
+                } else {
+                    resultObject = resultString;
+                }
+                return factory().createTuple(new Object[]{resultObject, n});
+            } finally {
+                if (buffer != null) {
+                    bufferLib.release(buffer, frame, this);
+                }
+            }
+        }
+
+        private TruffleString replacementToString(VirtualFrame frame, Object item, boolean binary, CastToTruffleStringNode castToStringNode, PythonBufferAcquireLibrary bufferAcquireLib,
+                        PythonBufferAccessLibrary bufferLib, TruffleString.FromByteArrayNode fromByteArrayNode) {
+            if (!binary) {
+                try {
+                    return castToStringNode.execute(item);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.EXPECTED_STR_INSTANCE_P_FOUND, item);
+                }
+            }
+            Object itemBuffer;
+            try {
+                itemBuffer = bufferAcquireLib.acquireReadonly(item, frame, this);
+            } catch (PException e) {
+                throw raise(TypeError, ErrorMessages.EXPECTED_BYTESLIKE_GOT_P, item);
+            }
+            try {
+                byte[] bytes = bufferLib.getCopiedByteArray(itemBuffer);
+                return fromByteArrayNode.execute(bytes, 0, bytes.length, Encoding.ISO_8859_1, false);
+            } finally {
+                bufferLib.release(itemBuffer, frame, this);
+            }
+        }
+    }
 }
@@ -52,6 +52,7 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.select.PPoll;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
 import com.oracle.graal.python.lib.PyObjectGetItem;
@@ -63,6 +64,7 @@ import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixConstants;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.ChannelNotSelectableException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
@@ -87,12 +89,17 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 public class SelectModuleBuiltins extends PythonBuiltins {
 
     /*
-     * ATTENTION: if we ever add "poll" support, update the code in
-     * MultiprocessingModuleBuilins#SelectNode to use it if available
+     * NOTE: MultiprocessingModuleBuilins#SelectNode still polls with select(), because it also has
+     * to wait for the Java managed queues, which cannot be added to a poll set
      */
 
     public SelectModuleBuiltins() {
         addBuiltinConstant("error", PythonErrorType.OSError);
+        for (PosixConstants.IntConstant constant : PosixConstants.pollEvents) {
+            if (constant.defined) {
+                addBuiltinConstant(constant.name, constant.getValueIfDefined());
+            }
+        }
     }
 
     @Override
@@ -207,4 +214,19 @@ public class SelectModuleBuiltins extends PythonBuiltins {
             }
         }
     }
+
+    @Builtin(name = "poll")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBuiltinNode {
+
+        @Specialization
+        PPoll poll(VirtualFrame frame,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            try {
+                return factory().createPoll(getContext(), posixLib.pollCreate(getPosixSupport()));
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
 }
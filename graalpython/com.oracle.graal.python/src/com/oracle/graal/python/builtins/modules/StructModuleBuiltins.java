@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.nodes.BuiltinNames.J__STRUCT;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.struct.PStruct;
+import com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.objects.struct.StructNodes;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PythonErrorType;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(defineModule = J__STRUCT)
+public class StructModuleBuiltins extends PythonBuiltins {
+
+    public StructModuleBuiltins() {
+        addBuiltinConstant("error", PythonErrorType.StructError);
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return StructModuleBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "Struct", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "format"}, constructsClass = PythonBuiltinClassType.PStruct)
+    @GenerateNodeFactory
+    public abstract static class StructNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PStruct struct(Object cls, Object format,
+                        @Cached StructNodes.GetStructInfoNode getStructInfoNode) {
+            return factory().createStruct(cls, getStructInfoNode.execute(format));
+        }
+    }
+
+    @Builtin(name = "pack", minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    public abstract static class PackNode extends PythonBuiltinNode {
+        @Specialization
+        static PBytes pack(VirtualFrame frame, Object format, Object[] args,
+                        @Cached StructNodes.GetStructInfoNode getStructInfoNode,
+                        @Cached StructNodes.PackNode packNode) {
+            return packNode.execute(frame, getStructInfoNode.execute(format), args);
+        }
+    }
+
+    @Builtin(name = "pack_into", minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    public abstract static class PackIntoNode extends PythonBuiltinNode {
+        @Specialization
+        static PNone packInto(VirtualFrame frame, Object format, Object[] args,
+                        @Cached StructNodes.GetStructInfoNode getStructInfoNode,
+                        @Cached StructNodes.PackIntoNode packIntoNode) {
+            packIntoNode.execute(frame, getStructInfoNode.execute(format), args);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unpack", minNumOfPositionalArgs = 2, parameterNames = {"format", "buffer"}, numOfPositionalOnlyArgs = 2)
+    @ArgumentClinic(name = "buffer", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @GenerateNodeFactory
+    public abstract static class UnpackNode extends PythonBinaryClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PTuple unpack(VirtualFrame frame, Object format, Object buffer,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached StructNodes.GetStructInfoNode getStructInfoNode,
+                        @Cached StructNodes.UnpackNode unpackNode) {
+            try {
+                return unpackNode.execute(getStructInfoNode.execute(format), buffer);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StructModuleBuiltinsClinicProviders.UnpackNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "unpack_from", minNumOfPositionalArgs = 2, parameterNames = {"format", "buffer", "offset"}, numOfPositionalOnlyArgs = 1)
+    @ArgumentClinic(name = "buffer", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "offset", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    public abstract static class UnpackFromNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PTuple unpackFrom(VirtualFrame frame, Object format, Object buffer, int offset,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached StructNodes.GetStructInfoNode getStructInfoNode,
+                        @Cached StructNodes.UnpackFromNode unpackFromNode) {
+            try {
+                return unpackFromNode.execute(getStructInfoNode.execute(format), buffer, offset);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StructModuleBuiltinsClinicProviders.UnpackFromNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "iter_unpack", minNumOfPositionalArgs = 2, parameterNames = {"format", "buffer"}, numOfPositionalOnlyArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class IterUnpackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PStructUnpackIterator iterUnpack(VirtualFrame frame, Object format, Object buffer,
+                        @Cached StructNodes.GetStructInfoNode getStructInfoNode,
+                        @Cached StructNodes.IterUnpackNode iterUnpackNode) {
+            return iterUnpackNode.execute(frame, getStructInfoNode.execute(format), buffer);
+        }
+    }
+
+    @Builtin(name = "calcsize", minNumOfPositionalArgs = 1, parameterNames = {"format"}, numOfPositionalOnlyArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class CalcSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int calcSize(Object format,
+                        @Cached StructNodes.GetStructInfoNode getStructInfoNode) {
+            return getStructInfoNode.execute(format).getSize();
+        }
+    }
+
+    @Builtin(name = "_clearcache")
+    @GenerateNodeFactory
+    public abstract static class ClearCacheNode extends PythonBuiltinNode {
+        @Specialization
+        PNone clearCache() {
+            clearCache(getContext());
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static void clearCache(PythonContext context) {
+            context.getStructCache().clear();
+        }
+    }
+}
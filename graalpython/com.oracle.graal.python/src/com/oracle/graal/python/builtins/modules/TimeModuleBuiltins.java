@@ -90,6 +90,7 @@ import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaDoubleNode;
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -185,6 +186,36 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
         return System.currentTimeMillis() / 1000.0;
     }
 
+    /**
+     * The zone this module uses for local time, {@code _datetime} uses it for naive local times.
+     */
+    @TruffleBoundary
+    public static ZoneId getCurrentZoneId(Python3Core core) {
+        return (ZoneId) core.lookupBuiltinModule(T_TIME).getAttribute(CURRENT_ZONE_ID);
+    }
+
+    /**
+     * Formats {@code date}, laid out like the first nine fields of {@code struct_time}, the way
+     * {@code time.strftime} does.
+     */
+    public static TruffleString strftime(String format, int[] date) {
+        return StrfTimeNode.format(format, date, TruffleString.FromJavaStringNode.getUncached());
+    }
+
+    /**
+     * Creates a {@code struct_time} without zone information from fields laid out as for
+     * {@link #strftime}.
+     */
+    public static PTuple createStructTime(PythonObjectFactory factory, int[] date) {
+        Object[] values = new Object[11];
+        for (int i = 0; i < date.length; i++) {
+            values[i] = date[i];
+        }
+        values[9] = PNone.NONE;
+        values[10] = PNone.NONE;
+        return factory.createStructSeq(STRUCT_TIME_DESC, values);
+    }
+
     private static final int TM_YEAR = 0; /* year */
     private static final int TM_MON = 1; /* month */
     private static final int TM_MDAY = 2; /* day of the month */
@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.nodes.BuiltinNames.J__ASYNCIO;
+import static com.oracle.graal.python.nodes.BuiltinNames.T__ASYNCIO;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GETATTR__;
+import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.TaskBuiltinsFactory.StepNodeGen;
+import com.oracle.graal.python.builtins.modules.asyncio.TaskBuiltinsFactory.WakeupNodeGen;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.lib.PyDictDelItem;
+import com.oracle.graal.python.lib.PyDictGetItem;
+import com.oracle.graal.python.lib.PyDictSetItem;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.attributes.WriteAttributeToObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.object.HiddenKey;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Java counterpart of CPython's {@code _asynciomodule.c}. {@code asyncio.futures},
+ * {@code asyncio.tasks} and {@code asyncio.events} pick up the classes and functions defined here
+ * instead of their pure Python versions, so that completing a future, scheduling its callbacks and
+ * stepping a task's coroutine do not have to go through Python frames.
+ */
+@CoreFunctions(defineModule = J__ASYNCIO)
+public final class AsyncioModuleBuiltins extends PythonBuiltins {
+
+    static final HiddenKey STATE_KEY = new HiddenKey("asyncio_state");
+
+    private static final TruffleString T_ALL_TASKS = tsLiteral("_all_tasks");
+    private static final TruffleString T_CURRENT_TASKS = tsLiteral("_current_tasks");
+    private static final TruffleString T_GET_EVENT_LOOP = tsLiteral("get_event_loop");
+    private static final TruffleString T_ADD = tsLiteral("add");
+    private static final TruffleString T_DISCARD = tsLiteral("discard");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return AsyncioModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        addBuiltinConstant(SpecialAttributeNames.T___DOC__, "Accelerator module for asyncio");
+        super.initialize(core);
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        PythonModule module = core.lookupBuiltinModule(T__ASYNCIO);
+        PDict currentTasks = core.factory().createDict();
+        module.setAttribute(T_CURRENT_TASKS, currentTasks);
+        module.setAttribute(STATE_KEY, new AsyncioState(currentTasks));
+    }
+
+    /**
+     * Per-context state of the module. CPython imports the Python helpers it calls into when
+     * {@code _asyncio} is imported; we look them up on first use instead, since the
+     * {@code asyncio} package that defines them is also what imports this module.
+     */
+    static final class AsyncioState {
+        final PDict currentTasks;
+        /** The {@code weakref.WeakSet} of all tasks, created on first use. */
+        private Object allTasks;
+        long taskNameCounter;
+
+        private boolean initialized;
+        Object getEventLoopPolicy;
+        Object futureReprInfo;
+        Object taskReprInfo;
+        Object taskGetStack;
+        Object taskPrintStack;
+        Object allTasksCompat;
+        Object cancelledError;
+        Object invalidStateError;
+        Object isCoroutine;
+        Object isGenerator;
+        Object extractStack;
+        /** {@code Task.__step} and {@code Task.__wakeup}, bound to a task whenever scheduled. */
+        PBuiltinFunction taskStep;
+        PBuiltinFunction taskWakeup;
+
+        AsyncioState(PDict currentTasks) {
+            this.currentTasks = currentTasks;
+        }
+
+        AsyncioState ensureInitialized() {
+            if (!initialized) {
+                initialize();
+            }
+            return this;
+        }
+
+        @TruffleBoundary
+        private void initialize() {
+            getEventLoopPolicy = importAttribute("asyncio.events", "get_event_loop_policy");
+            futureReprInfo = importAttribute("asyncio.base_futures", "_future_repr_info");
+            taskReprInfo = importAttribute("asyncio.base_tasks", "_task_repr_info");
+            taskGetStack = importAttribute("asyncio.base_tasks", "_task_get_stack");
+            taskPrintStack = importAttribute("asyncio.base_tasks", "_task_print_stack");
+            allTasksCompat = importAttribute("asyncio.tasks", "_all_tasks_compat");
+            cancelledError = importAttribute("asyncio.exceptions", "CancelledError");
+            invalidStateError = importAttribute("asyncio.exceptions", "InvalidStateError");
+            isCoroutine = importAttribute("asyncio.coroutines", "iscoroutine");
+            isGenerator = importAttribute("inspect", "isgenerator");
+            extractStack = importAttribute("traceback", "extract_stack");
+            PythonLanguage language = PythonLanguage.get(null);
+            taskStep = PythonUtils.createMethod(language, null, TaskBuiltins.StepNode.class, null, 1, StepNodeGen::create);
+            taskWakeup = PythonUtils.createMethod(language, null, TaskBuiltins.WakeupNode.class, null, 0, WakeupNodeGen::create);
+            initialized = true;
+        }
+
+        Object getAllTasks() {
+            if (allTasks == null) {
+                createAllTasks();
+            }
+            return allTasks;
+        }
+
+        @TruffleBoundary
+        private void createAllTasks() {
+            allTasks = CallNode.getUncached().execute(importAttribute("_weakrefset", "WeakSet"));
+        }
+
+        @TruffleBoundary
+        private static Object importAttribute(String moduleName, String name) {
+            TruffleString tsName = toTruffleStringUncached(name);
+            Object module = AbstractImportNode.importModule(toTruffleStringUncached(moduleName), new TruffleString[]{tsName});
+            return PyObjectGetAttr.getUncached().execute(null, module, tsName);
+        }
+    }
+
+    abstract static class GetAsyncioStateNode extends PNodeWithContext {
+        abstract AsyncioState execute();
+
+        @Specialization
+        AsyncioState get(@Cached ReadAttributeFromObjectNode readNode) {
+            return (AsyncioState) readNode.execute(getContext().lookupBuiltinModule(T__ASYNCIO), STATE_KEY);
+        }
+    }
+
+    @Builtin(name = "Future", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.AsyncioFuture, takesVarArgs = true, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    abstract static class FutureNode extends PythonVarargsBuiltinNode {
+        // All the "real" work is done by __init__
+
+        @Override
+        public Object varArgExecute(VirtualFrame frame, Object self, Object[] arguments, PKeyword[] keywords) throws VarargsBuiltinDirectInvocationNotSupported {
+            if (arguments.length >= 1) {
+                return doGeneric(arguments[0], null, null);
+            }
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw VarargsBuiltinDirectInvocationNotSupported.INSTANCE;
+        }
+
+        @Specialization
+        @SuppressWarnings("unused")
+        PFuture doGeneric(Object cls, Object[] args, PKeyword[] kwargs) {
+            return factory().createFuture(cls);
+        }
+    }
+
+    @Builtin(name = "Task", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.AsyncioTask, takesVarArgs = true, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    abstract static class TaskNode extends PythonVarargsBuiltinNode {
+        // All the "real" work is done by __init__
+
+        @Override
+        public Object varArgExecute(VirtualFrame frame, Object self, Object[] arguments, PKeyword[] keywords) throws VarargsBuiltinDirectInvocationNotSupported {
+            if (arguments.length >= 1) {
+                return doGeneric(arguments[0], null, null);
+            }
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw VarargsBuiltinDirectInvocationNotSupported.INSTANCE;
+        }
+
+        @Specialization
+        @SuppressWarnings("unused")
+        PTask doGeneric(Object cls, Object[] args, PKeyword[] kwargs) {
+            return factory().createTask(cls);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code get_event_loop}: the running loop, or the loop of the current
+     * event loop policy.
+     */
+    abstract static class GetEventLoopNode extends PNodeWithContext {
+        abstract Object execute(VirtualFrame frame);
+
+        @Specialization
+        Object get(VirtualFrame frame,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object loop = getContext().getThreadState(getLanguage()).getRunningLoop();
+            if (loop != null) {
+                return loop;
+            }
+            Object policy = callNode.execute(frame, getState.execute().ensureInitialized().getEventLoopPolicy);
+            return callMethod.execute(frame, policy, T_GET_EVENT_LOOP);
+        }
+    }
+
+    @Builtin(name = "get_event_loop", doc = "Return an asyncio event loop.\n\n" +
+                    "When called from a coroutine or a callback (e.g. scheduled with call_soon\n" +
+                    "or similar API), this function will always return the running event loop.\n\n" +
+                    "If there is no running event loop set, the function will return\n" +
+                    "the result of `get_event_loop_policy().get_event_loop()` call.")
+    @GenerateNodeFactory
+    abstract static class GetEventLoopBuiltinNode extends PythonBuiltinNode {
+        @Specialization
+        static Object get(VirtualFrame frame,
+                        @Cached GetEventLoopNode getEventLoop) {
+            return getEventLoop.execute(frame);
+        }
+    }
+
+    @Builtin(name = "get_running_loop", doc = "Return the running event loop.  Raise a RuntimeError if there is none.\n\n" +
+                    "This function is thread-specific.")
+    @GenerateNodeFactory
+    abstract static class GetRunningLoopNode extends PythonBuiltinNode {
+        @Specialization
+        Object get() {
+            Object loop = getContext().getThreadState(getLanguage()).getRunningLoop();
+            if (loop == null) {
+                throw raise(RuntimeError, ErrorMessages.NO_RUNNING_EVENT_LOOP);
+            }
+            return loop;
+        }
+    }
+
+    @Builtin(name = "_get_running_loop", doc = "Return the running event loop or None.\n\n" +
+                    "This is a low-level function intended to be used by event loops.\n" +
+                    "This function is thread-specific.")
+    @GenerateNodeFactory
+    abstract static class InternalGetRunningLoopNode extends PythonBuiltinNode {
+        @Specialization
+        Object get() {
+            Object loop = getContext().getThreadState(getLanguage()).getRunningLoop();
+            return loop == null ? PNone.NONE : loop;
+        }
+    }
+
+    @Builtin(name = "_set_running_loop", minNumOfPositionalArgs = 1, parameterNames = {"loop"}, doc = "Set the running event loop.\n\n" +
+                    "This is a low-level function intended to be used by event loops.\n" +
+                    "This function is thread-specific.")
+    @GenerateNodeFactory
+    abstract static class InternalSetRunningLoopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object set(Object loop) {
+            getContext().getThreadState(getLanguage()).setRunningLoop(loop == PNone.NONE ? null : loop);
+            return PNone.NONE;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code register_task}: adds the task to the weak set of all tasks.
+     */
+    abstract static class RegisterTaskNode extends PNodeWithContext {
+        abstract void execute(VirtualFrame frame, Object task);
+
+        @Specialization
+        static void register(VirtualFrame frame, Object task,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            callMethod.execute(frame, getState.execute().getAllTasks(), T_ADD, task);
+        }
+    }
+
+    @Builtin(name = "_register_task", minNumOfPositionalArgs = 1, parameterNames = {"task"}, doc = "Register a new task in asyncio as executed by loop.\n\nReturns None.")
+    @GenerateNodeFactory
+    abstract static class InternalRegisterTaskNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object register(VirtualFrame frame, Object task,
+                        @Cached RegisterTaskNode registerTaskNode) {
+            registerTaskNode.execute(frame, task);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_unregister_task", minNumOfPositionalArgs = 1, parameterNames = {"task"}, doc = "Unregister a task.\n\nReturns None.")
+    @GenerateNodeFactory
+    abstract static class InternalUnregisterTaskNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object unregister(VirtualFrame frame, Object task,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            callMethod.execute(frame, getState.execute().getAllTasks(), T_DISCARD, task);
+            return PNone.NONE;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code enter_task}: records the task as the one currently executed
+     * by the loop.
+     */
+    abstract static class EnterTaskNode extends PNodeWithContext {
+        abstract void execute(VirtualFrame frame, Object loop, Object task);
+
+        @Specialization
+        static void enter(VirtualFrame frame, Object loop, Object task,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached PyDictGetItem getItem,
+                        @Cached PyDictSetItem setItem,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached PRaiseNode raiseNode) {
+            PDict currentTasks = getState.execute().currentTasks;
+            Object current = getItem.execute(frame, currentTasks, loop);
+            if (current != null) {
+                throw raiseNode.raise(RuntimeError, ErrorMessages.CANNOT_ENTER_TASK_S_WHILE_S_IS_EXECUTED, reprNode.execute(frame, task), reprNode.execute(frame, current));
+            }
+            setItem.execute(frame, currentTasks, loop, task);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code leave_task}.
+     */
+    abstract static class LeaveTaskNode extends PNodeWithContext {
+        abstract void execute(VirtualFrame frame, Object loop, Object task);
+
+        @Specialization
+        static void leave(VirtualFrame frame, Object loop, Object task,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached PyDictGetItem getItem,
+                        @Cached PyDictDelItem delItem,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached PRaiseNode raiseNode) {
+            PDict currentTasks = getState.execute().currentTasks;
+            Object current = getItem.execute(frame, currentTasks, loop);
+            if (current != task) {
+                Object currentRepr = reprNode.execute(frame, current == null ? PNone.NONE : current);
+                throw raiseNode.raise(RuntimeError, ErrorMessages.LEAVING_TASK_S_DOES_NOT_MATCH_S, reprNode.execute(frame, task), currentRepr);
+            }
+            delItem.execute(frame, currentTasks, loop);
+        }
+    }
+
+    @Builtin(name = "_enter_task", minNumOfPositionalArgs = 2, parameterNames = {"loop", "task"}, doc = "Enter into task execution or resume suspended task.\n\n" +
+                    "Task belongs to loop.\n\nReturns None.")
+    @GenerateNodeFactory
+    abstract static class InternalEnterTaskNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object enter(VirtualFrame frame, Object loop, Object task,
+                        @Cached EnterTaskNode enterTaskNode) {
+            enterTaskNode.execute(frame, loop, task);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_leave_task", minNumOfPositionalArgs = 2, parameterNames = {"loop", "task"}, doc = "Leave task execution or suspend a task.\n\n" +
+                    "Task belongs to loop.\n\nReturns None.")
+    @GenerateNodeFactory
+    abstract static class InternalLeaveTaskNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object leave(VirtualFrame frame, Object loop, Object task,
+                        @Cached LeaveTaskNode leaveTaskNode) {
+            leaveTaskNode.execute(frame, loop, task);
+            return PNone.NONE;
+        }
+    }
+
+    // the weak set of all tasks is created lazily, it needs the weakref module
+    @Builtin(name = J___GETATTR__, minNumOfPositionalArgs = 2, declaresExplicitSelf = true)
+    @GenerateNodeFactory
+    abstract static class GetAttrNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object getattr(PythonModule self, Object name,
+                        @Cached CastToTruffleStringNode castToStringNode,
+                        @Cached TruffleString.EqualNode equalNode,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached WriteAttributeToObjectNode writeNode) {
+            TruffleString attr = castToStringNode.execute(name);
+            if (!equalNode.execute(attr, T_ALL_TASKS, PythonUtils.TS_ENCODING)) {
+                throw raise(AttributeError, ErrorMessages.MODULE_S_HAS_NO_ATTR_S, T__ASYNCIO, attr);
+            }
+            Object allTasks = getState.execute().getAllTasks();
+            writeNode.execute(self, T_ALL_TASKS, allTasks);
+            return allTasks;
+        }
+    }
+}
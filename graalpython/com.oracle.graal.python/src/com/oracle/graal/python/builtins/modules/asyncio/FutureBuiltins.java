@@ -0,0 +1,643 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___AWAIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T_JOIN;
+import static com.oracle.graal.python.nodes.StringLiterals.T_SPACE;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.GetAsyncioStateNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.GetEventLoopNode;
+import com.oracle.graal.python.builtins.modules.asyncio.PFuture.State;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.str.StringUtils.SimpleTruffleStringFormatNode;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.AsyncioFuture)
+public final class FutureBuiltins extends PythonBuiltins {
+
+    private static final TruffleString T_CALL_SOON = tsLiteral("call_soon");
+    private static final TruffleString T_CONTEXT = tsLiteral("context");
+    private static final TruffleString T_GET_DEBUG = tsLiteral("get_debug");
+    private static final TruffleString T_REPR_INFO = tsLiteral("_repr_info");
+    private static final TruffleString T_PENDING = tsLiteral("PENDING");
+    private static final TruffleString T_CANCELLED = tsLiteral("CANCELLED");
+    private static final TruffleString T_FINISHED = tsLiteral("FINISHED");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return FutureBuiltinsFactory.getFactories();
+    }
+
+    static void ensureAlive(PythonBuiltinBaseNode node, PFuture future) {
+        if (!future.isAlive()) {
+            throw node.raise(RuntimeError, ErrorMessages.FUTURE_NOT_INITIALIZED);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code call_soon}: {@code loop.call_soon(callback, [arg],
+     * context=context)}.
+     */
+    abstract static class CallSoonNode extends Node {
+        abstract void execute(VirtualFrame frame, Object loop, Object callback, Object arg, Object context);
+
+        @Specialization
+        static void callSoon(VirtualFrame frame, Object loop, Object callback, Object arg, Object context,
+                        @Cached PyObjectGetAttr getAttr,
+                        @Cached CallNode callNode) {
+            Object callSoon = getAttr.execute(frame, loop, T_CALL_SOON);
+            Object[] args = arg == null ? new Object[]{callback} : new Object[]{callback, arg};
+            PKeyword[] keywords = context == null ? PKeyword.EMPTY_KEYWORDS : new PKeyword[]{new PKeyword(T_CONTEXT, context)};
+            callNode.execute(frame, callSoon, args, keywords);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code future_schedule_callbacks}.
+     */
+    abstract static class ScheduleCallbacksNode extends Node {
+        abstract void execute(VirtualFrame frame, PFuture future);
+
+        @Specialization
+        static void schedule(VirtualFrame frame, PFuture future,
+                        @Cached CallSoonNode callSoonNode) {
+            Object[] callbacks = future.takeCallbacks();
+            for (int i = 0; i < callbacks.length; i += 2) {
+                callSoonNode.execute(frame, future.loop, callbacks[i], future, callbacks[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code future_init}.
+     */
+    abstract static class FutureInitNode extends Node {
+        abstract void execute(VirtualFrame frame, PFuture future, Object loop);
+
+        @Specialization
+        static void init(VirtualFrame frame, PFuture future, Object loopArg,
+                        @Cached GetEventLoopNode getEventLoopNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyObjectIsTrueNode isTrueNode,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode) {
+            future.reset();
+            Object loop = PGuards.isPNone(loopArg) ? getEventLoopNode.execute(frame) : loopArg;
+            future.loop = loop;
+            if (isTrueNode.execute(frame, callMethod.execute(frame, loop, T_GET_DEBUG))) {
+                future.sourceTraceback = callNode.execute(frame, getState.execute().ensureInitialized().extractStack);
+            }
+        }
+    }
+
+    abstract static class CreateCancelledErrorNode extends Node {
+        abstract PBaseException execute(VirtualFrame frame);
+
+        @Specialization
+        static PBaseException create(VirtualFrame frame,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode,
+                        @Cached PRaiseNode raiseNode) {
+            return checkException(callNode.execute(frame, getState.execute().ensureInitialized().cancelledError), raiseNode);
+        }
+    }
+
+    abstract static class CreateInvalidStateErrorNode extends Node {
+        abstract PBaseException execute(VirtualFrame frame, TruffleString message);
+
+        @Specialization
+        static PBaseException create(VirtualFrame frame, TruffleString message,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode,
+                        @Cached PRaiseNode raiseNode) {
+            return checkException(callNode.execute(frame, getState.execute().ensureInitialized().invalidStateError, message), raiseNode);
+        }
+    }
+
+    private static PBaseException checkException(Object exception, PRaiseNode raiseNode) {
+        if (!(exception instanceof PBaseException)) {
+            throw raiseNode.raise(TypeError, ErrorMessages.EXCEPTIONS_MUST_DERIVE_FROM_BASE_EX);
+        }
+        return (PBaseException) exception;
+    }
+
+    /**
+     * Equivalent of CPython's {@code future_set_result}.
+     */
+    abstract static class FutureSetResultNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, PFuture future, Object result);
+
+        @Specialization
+        void set(VirtualFrame frame, PFuture future, Object result,
+                        @Cached CreateInvalidStateErrorNode createInvalidStateErrorNode,
+                        @Cached ScheduleCallbacksNode scheduleCallbacksNode) {
+            if (future.state != State.PENDING) {
+                throw getRaiseNode().raiseExceptionObject(createInvalidStateErrorNode.execute(frame, ErrorMessages.INVALID_STATE));
+            }
+            future.result = result;
+            future.state = State.FINISHED;
+            scheduleCallbacksNode.execute(frame, future);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code future_set_exception}. Exception classes are instantiated
+     * without arguments.
+     */
+    abstract static class FutureSetExceptionNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, PFuture future, Object exception);
+
+        @Specialization
+        void set(VirtualFrame frame, PFuture future, Object exception,
+                        @Cached CreateInvalidStateErrorNode createInvalidStateErrorNode,
+                        @Cached TypeNodes.IsTypeNode isTypeNode,
+                        @Cached IsSubtypeNode isSubtypeNode,
+                        @Cached CallNode callNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isStopIteration,
+                        @Cached ScheduleCallbacksNode scheduleCallbacksNode) {
+            if (future.state != State.PENDING) {
+                throw getRaiseNode().raiseExceptionObject(createInvalidStateErrorNode.execute(frame, ErrorMessages.INVALID_STATE));
+            }
+            Object value = exception;
+            if (isTypeNode.execute(exception) && isSubtypeNode.execute(exception, PythonBuiltinClassType.PBaseException)) {
+                value = callNode.execute(frame, exception);
+                if (future.state != State.PENDING) {
+                    throw getRaiseNode().raiseExceptionObject(createInvalidStateErrorNode.execute(frame, ErrorMessages.INVALID_STATE));
+                }
+            }
+            if (!(value instanceof PBaseException)) {
+                throw raise(TypeError, ErrorMessages.INVALID_EXCEPTION_OBJECT);
+            }
+            if (isStopIteration.profileClass(getClassNode.execute(value), PythonBuiltinClassType.StopIteration)) {
+                throw raise(TypeError, ErrorMessages.STOP_ITERATION_CANNOT_BE_RAISED_INTO_FUTURE);
+            }
+            future.exception = (PBaseException) value;
+            future.state = State.FINISHED;
+            scheduleCallbacksNode.execute(frame, future);
+            future.logTraceback = true;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code future_cancel}.
+     */
+    abstract static class FutureCancelNode extends Node {
+        abstract boolean execute(VirtualFrame frame, PFuture future);
+
+        @Specialization
+        static boolean cancel(VirtualFrame frame, PFuture future,
+                        @Cached ScheduleCallbacksNode scheduleCallbacksNode) {
+            future.logTraceback = false;
+            if (future.state != State.PENDING) {
+                return false;
+            }
+            future.state = State.CANCELLED;
+            scheduleCallbacksNode.execute(frame, future);
+            return true;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code future_add_done_callback}: callbacks of a future that is
+     * already done are scheduled right away.
+     */
+    abstract static class FutureAddDoneCallbackNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, PFuture future, Object callback, Object context);
+
+        @Specialization
+        void add(VirtualFrame frame, PFuture future, Object callback, Object context,
+                        @Cached CallSoonNode callSoonNode) {
+            if (!future.isAlive()) {
+                throw raise(RuntimeError, ErrorMessages.UNINITIALIZED_FUTURE_OBJECT);
+            }
+            if (future.state != State.PENDING) {
+                callSoonNode.execute(frame, future.loop, callback, future, context);
+            } else {
+                future.addCallback(callback, context);
+            }
+        }
+    }
+
+    /**
+     * Returns the result of a done future or raises its exception, like {@code Future.result()}.
+     */
+    abstract static class FutureGetResultNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, PFuture future);
+
+        @Specialization
+        Object get(VirtualFrame frame, PFuture future,
+                        @Cached CreateCancelledErrorNode createCancelledErrorNode,
+                        @Cached CreateInvalidStateErrorNode createInvalidStateErrorNode) {
+            if (future.state == State.CANCELLED) {
+                throw getRaiseNode().raiseExceptionObject(createCancelledErrorNode.execute(frame));
+            }
+            if (future.state != State.FINISHED) {
+                throw getRaiseNode().raiseExceptionObject(createInvalidStateErrorNode.execute(frame, ErrorMessages.RESULT_IS_NOT_SET));
+            }
+            future.logTraceback = false;
+            if (future.exception != null) {
+                throw getRaiseNode().raiseExceptionObject(future.exception);
+            }
+            return future.result;
+        }
+    }
+
+    @Builtin(name = J___INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self"}, keywordOnlyNames = {"loop"})
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object init(VirtualFrame frame, PFuture self, Object loop,
+                        @Cached FutureInitNode futureInitNode) {
+            futureInitNode.execute(frame, self, loop);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "result", minNumOfPositionalArgs = 1, doc = "Return the result this future represents.\n\n" +
+                    "If the future has been cancelled, raises CancelledError.  If the\n" +
+                    "future's result isn't yet available, raises InvalidStateError.  If\n" +
+                    "the future is done and has an exception set, this exception is raised.")
+    @GenerateNodeFactory
+    abstract static class ResultNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object result(VirtualFrame frame, PFuture self,
+                        @Cached FutureGetResultNode getResultNode) {
+            ensureAlive(this, self);
+            return getResultNode.execute(frame, self);
+        }
+    }
+
+    @Builtin(name = "exception", minNumOfPositionalArgs = 1, doc = "Return the exception that was set on this future.\n\n" +
+                    "The exception (or None if no exception was set) is returned only if\n" +
+                    "the future is done.  If the future has been cancelled, raises\n" +
+                    "CancelledError.  If the future isn't done yet, raises\n" +
+                    "InvalidStateError.")
+    @GenerateNodeFactory
+    abstract static class ExceptionNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object exception(VirtualFrame frame, PFuture self,
+                        @Cached CreateCancelledErrorNode createCancelledErrorNode,
+                        @Cached CreateInvalidStateErrorNode createInvalidStateErrorNode) {
+            ensureAlive(this, self);
+            if (self.state == State.CANCELLED) {
+                throw getRaiseNode().raiseExceptionObject(createCancelledErrorNode.execute(frame));
+            }
+            if (self.state != State.FINISHED) {
+                throw getRaiseNode().raiseExceptionObject(createInvalidStateErrorNode.execute(frame, ErrorMessages.EXCEPTION_IS_NOT_SET));
+            }
+            if (self.exception != null) {
+                self.logTraceback = false;
+                return self.exception;
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "set_result", minNumOfPositionalArgs = 2, parameterNames = {"$self", "result"}, doc = "Mark the future done and set its result.\n\n" +
+                    "If the future is already done when this method is called, raises\n" +
+                    "InvalidStateError.")
+    @GenerateNodeFactory
+    abstract static class SetResultNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object set(VirtualFrame frame, PFuture self, Object result,
+                        @Cached FutureSetResultNode setResultNode) {
+            ensureAlive(this, self);
+            setResultNode.execute(frame, self, result);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "set_exception", minNumOfPositionalArgs = 2, parameterNames = {"$self", "exception"}, doc = "Mark the future done and set an exception.\n\n" +
+                    "If the future is already done when this method is called, raises\n" +
+                    "InvalidStateError.")
+    @GenerateNodeFactory
+    abstract static class SetExceptionNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object set(VirtualFrame frame, PFuture self, Object exception,
+                        @Cached FutureSetExceptionNode setExceptionNode) {
+            ensureAlive(this, self);
+            setExceptionNode.execute(frame, self, exception);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "add_done_callback", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fn"}, keywordOnlyNames = {"context"}, //
+                    doc = "Add a callback to be run when the future becomes done.\n\n" +
+                                    "The callback is called with a single argument - the future object. If\n" +
+                                    "the future is already done when this is called, the callback is\n" +
+                                    "scheduled with call_soon.")
+    @GenerateNodeFactory
+    abstract static class AddDoneCallbackNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object add(VirtualFrame frame, PFuture self, Object fn, Object context,
+                        @Cached FutureAddDoneCallbackNode addDoneCallbackNode) {
+            Object ctx = context;
+            if (PGuards.isPNone(ctx)) {
+                ctx = factory().copyContextVarsContext(getContext().getThreadState(getLanguage()).getContextVarsContext());
+            }
+            addDoneCallbackNode.execute(frame, self, fn, ctx);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "remove_done_callback", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fn"}, doc = "Remove all instances of a callback from the \"call when done\" list.\n\n" +
+                    "Returns the number of callbacks removed.")
+    @GenerateNodeFactory
+    abstract static class RemoveDoneCallbackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        int remove(VirtualFrame frame, PFuture self, Object fn,
+                        @Cached PyObjectRichCompareBool.EqNode eqNode) {
+            ensureAlive(this, self);
+            Object[] callbacks = self.getCallbacks();
+            Object[] kept = new Object[callbacks.length];
+            int n = 0;
+            for (int i = 0; i < callbacks.length; i += 2) {
+                if (!eqNode.execute(frame, callbacks[i], fn)) {
+                    kept[n++] = callbacks[i];
+                    kept[n++] = callbacks[i + 1];
+                }
+            }
+            if (n != callbacks.length) {
+                self.setCallbacks(kept, n);
+            }
+            return (callbacks.length - n) / 2;
+        }
+    }
+
+    @Builtin(name = "cancel", minNumOfPositionalArgs = 1, doc = "Cancel the future and schedule callbacks.\n\n" +
+                    "If the future is already done or cancelled, return False.  Otherwise,\n" +
+                    "change the future's state to cancelled, schedule the callbacks and\n" +
+                    "return True.")
+    @GenerateNodeFactory
+    abstract static class CancelNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean cancel(VirtualFrame frame, PFuture self,
+                        @Cached FutureCancelNode cancelNode) {
+            ensureAlive(this, self);
+            return cancelNode.execute(frame, self);
+        }
+    }
+
+    @Builtin(name = "cancelled", minNumOfPositionalArgs = 1, doc = "Return True if the future was cancelled.")
+    @GenerateNodeFactory
+    abstract static class CancelledNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean cancelled(PFuture self) {
+            return self.isAlive() && self.state == State.CANCELLED;
+        }
+    }
+
+    @Builtin(name = "done", minNumOfPositionalArgs = 1, doc = "Return True if the future is done.\n\n" +
+                    "Done means either that a result / exception are available, or that the\n" +
+                    "future was cancelled.")
+    @GenerateNodeFactory
+    abstract static class DoneNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean done(PFuture self) {
+            return self.isAlive() && self.state != State.PENDING;
+        }
+    }
+
+    @Builtin(name = "get_loop", minNumOfPositionalArgs = 1, doc = "Return the event loop the Future is bound to.")
+    @GenerateNodeFactory
+    abstract static class GetLoopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object getLoop(PFuture self) {
+            ensureAlive(this, self);
+            return self.loop;
+        }
+    }
+
+    @Builtin(name = J___ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PFutureIter iter(PFuture self) {
+            ensureAlive(this, self);
+            return factory().createFutureIter(self);
+        }
+    }
+
+    @Builtin(name = J___AWAIT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AwaitNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PFutureIter doAwait(PFuture self) {
+            ensureAlive(this, self);
+            return factory().createFutureIter(self);
+        }
+    }
+
+    @Builtin(name = "_repr_info", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object reprInfo(VirtualFrame frame, PFuture self,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode) {
+            return callNode.execute(frame, getState.execute().ensureInitialized().futureReprInfo, self);
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(VirtualFrame frame, PFuture self,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached CastToTruffleStringNode castToStringNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached TypeNodes.GetNameNode getNameNode,
+                        @Cached SimpleTruffleStringFormatNode formatNode) {
+            Object info = callMethod.execute(frame, self, T_REPR_INFO);
+            TruffleString joined = castToStringNode.execute(callMethod.execute(frame, T_SPACE, T_JOIN, info));
+            return formatNode.format("<%s %s>", getNameNode.execute(getClassNode.execute(self)), joined);
+        }
+    }
+
+    @Builtin(name = "_state", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class StateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object state(PFuture self) {
+            ensureAlive(this, self);
+            switch (self.state) {
+                case PENDING:
+                    return T_PENDING;
+                case CANCELLED:
+                    return T_CANCELLED;
+                default:
+                    return T_FINISHED;
+            }
+        }
+    }
+
+    @Builtin(name = "_asyncio_future_blocking", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class BlockingNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static boolean get(PFuture self, @SuppressWarnings("unused") PNone value) {
+            return self.isAlive() && self.blocking;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PFuture self, Object value,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            ensureAlive(this, self);
+            self.blocking = isTrueNode.execute(frame, value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_log_traceback", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class LogTracebackNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static boolean get(PFuture self, @SuppressWarnings("unused") PNone value) {
+            return self.isAlive() && self.logTraceback;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(VirtualFrame frame, PFuture self, Object value,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            if (isTrueNode.execute(frame, value)) {
+                throw raise(ValueError, ErrorMessages.LOG_TRACEBACK_CAN_ONLY_BE_SET_TO_FALSE);
+            }
+            self.logTraceback = false;
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_loop", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LoopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object loop(PFuture self) {
+            return self.isAlive() ? self.loop : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_callbacks", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class CallbacksNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object callbacks(PFuture self) {
+            ensureAlive(this, self);
+            if (!self.hasCallbacks()) {
+                return PNone.NONE;
+            }
+            Object[] callbacks = self.getCallbacks();
+            Object[] items = new Object[callbacks.length / 2];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = factory().createTuple(new Object[]{callbacks[2 * i], callbacks[2 * i + 1]});
+            }
+            return factory().createList(items);
+        }
+    }
+
+    @Builtin(name = "_result", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ResultAttrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object result(PFuture self) {
+            return self.result != null ? self.result : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_exception", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ExceptionAttrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object exception(PFuture self) {
+            return self.exception != null ? self.exception : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_source_traceback", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SourceTracebackNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object sourceTraceback(PFuture self) {
+            return self.isAlive() && self.sourceTraceback != null ? self.sourceTraceback : PNone.NONE;
+        }
+    }
+}
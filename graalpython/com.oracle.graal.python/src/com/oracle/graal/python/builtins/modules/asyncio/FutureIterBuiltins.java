@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NEXT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.FutureGetResultNode;
+import com.oracle.graal.python.builtins.modules.asyncio.PFuture.State;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.generator.GeneratorBuiltins;
+import com.oracle.graal.python.builtins.objects.traceback.PTraceback;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.AsyncioFutureIter)
+public final class FutureIterBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return FutureIterBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Equivalent of CPython's {@code FutureIter_iternext}: the first call on a pending future
+     * yields the future itself with its blocking flag set, which is what tells the task to wait
+     * for it.
+     */
+    abstract static class FutureIterNextNode extends PNodeWithRaise {
+        abstract Object execute(VirtualFrame frame, PFutureIter self);
+
+        @Specialization
+        Object next(VirtualFrame frame, PFutureIter self,
+                        @Cached FutureGetResultNode getResultNode) {
+            PFuture future = self.future;
+            if (future == null) {
+                throw raiseStopIteration();
+            }
+            if (future.state == State.PENDING) {
+                if (!future.blocking) {
+                    future.blocking = true;
+                    return future;
+                }
+                throw raise(RuntimeError, ErrorMessages.AWAIT_WASNT_USED_WITH_FUTURE);
+            }
+            self.future = null;
+            throw raiseStopIteration(getResultNode.execute(frame, future));
+        }
+    }
+
+    @Builtin(name = J___ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PFutureIter iter(PFutureIter self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = J___NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object next(VirtualFrame frame, PFutureIter self,
+                        @Cached FutureIterNextNode nextNode) {
+            return nextNode.execute(frame, self);
+        }
+    }
+
+    @Builtin(name = "send", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SendNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object send(VirtualFrame frame, PFutureIter self, Object value,
+                        @Cached FutureIterNextNode nextNode) {
+            if (value != PNone.NONE) {
+                throw raise(TypeError, ErrorMessages.CANT_SEND_NON_NONE_TO_FUTURE_ITER);
+            }
+            return nextNode.execute(frame, self);
+        }
+    }
+
+    @Builtin(name = "throw", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class ThrowNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object doThrow(VirtualFrame frame, PFutureIter self, Object type, Object value, Object tb,
+                        @Cached GeneratorBuiltins.ThrowNode.PrepareExceptionNode prepareExceptionNode) {
+            if (!PGuards.isPNone(tb) && !(tb instanceof PTraceback)) {
+                throw raise(TypeError, ErrorMessages.THROW_THIRD_ARG_MUST_BE_TRACEBACK);
+            }
+            PBaseException exception = prepareExceptionNode.execute(frame, type, value);
+            if (tb instanceof PTraceback) {
+                exception.setTraceback((PTraceback) tb);
+            }
+            self.future = null;
+            throw getRaiseNode().raiseExceptionObject(exception);
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object close(PFutureIter self) {
+            self.future = null;
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import java.util.ArrayList;
+
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * State of an {@code _asyncio.Future}, equivalent of CPython's {@code FutureObj}.
+ */
+public class PFuture extends PythonBuiltinObject {
+
+    enum State {
+        PENDING,
+        CANCELLED,
+        FINISHED
+    }
+
+    private static final Object[] NO_CALLBACKS = new Object[0];
+
+    State state = State.PENDING;
+    /** The event loop of the future, {@code null} until {@code __init__} ran. */
+    Object loop;
+    /*
+     * The first callback is stored separately, most futures only ever get one: the wakeup of the
+     * task awaiting them.
+     */
+    Object callback0;
+    Object context0;
+    /** Further callbacks as flat (callback, context) pairs. */
+    ArrayList<Object> callbacks;
+    Object result;
+    PBaseException exception;
+    Object sourceTraceback;
+    boolean blocking;
+    boolean logTraceback;
+
+    public PFuture(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    final boolean isAlive() {
+        return loop != null;
+    }
+
+    final void reset() {
+        state = State.PENDING;
+        loop = null;
+        callback0 = null;
+        context0 = null;
+        callbacks = null;
+        result = null;
+        exception = null;
+        sourceTraceback = null;
+        blocking = false;
+        logTraceback = false;
+    }
+
+    final boolean hasCallbacks() {
+        return callback0 != null || callbacks != null;
+    }
+
+    @TruffleBoundary
+    final void addCallback(Object callback, Object context) {
+        if (callback0 == null && callbacks == null) {
+            callback0 = callback;
+            context0 = context;
+        } else {
+            if (callbacks == null) {
+                callbacks = new ArrayList<>(4);
+            }
+            callbacks.add(callback);
+            callbacks.add(context);
+        }
+    }
+
+    /**
+     * Returns the callbacks as flat (callback, context) pairs in registration order.
+     */
+    @TruffleBoundary
+    final Object[] getCallbacks() {
+        if (!hasCallbacks()) {
+            return NO_CALLBACKS;
+        }
+        int size = (callback0 != null ? 2 : 0) + (callbacks != null ? callbacks.size() : 0);
+        Object[] pairs = new Object[size];
+        int i = 0;
+        if (callback0 != null) {
+            pairs[i++] = callback0;
+            pairs[i++] = context0;
+        }
+        if (callbacks != null) {
+            for (Object o : callbacks) {
+                pairs[i++] = o;
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Removes all callbacks and returns them like {@link #getCallbacks()}.
+     */
+    final Object[] takeCallbacks() {
+        Object[] pairs = getCallbacks();
+        callback0 = null;
+        context0 = null;
+        callbacks = null;
+        return pairs;
+    }
+
+    /**
+     * Replaces the callbacks with the given flat (callback, context) pairs, used by
+     * {@code remove_done_callback}.
+     */
+    @TruffleBoundary
+    final void setCallbacks(Object[] pairs, int length) {
+        callback0 = null;
+        context0 = null;
+        callbacks = null;
+        for (int i = 0; i < length; i += 2) {
+            addCallback(pairs[i], pairs[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,684 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.asyncio;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DeprecationWarning;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___INIT__;
+import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.WarningsModuleBuiltins.WarnNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.AsyncioState;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.EnterTaskNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.GetAsyncioStateNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.GetEventLoopNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.LeaveTaskNode;
+import com.oracle.graal.python.builtins.modules.asyncio.AsyncioModuleBuiltins.RegisterTaskNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.CallSoonNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.CreateCancelledErrorNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.CreateInvalidStateErrorNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.FutureAddDoneCallbackNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.FutureCancelNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.FutureInitNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.FutureSetExceptionNode;
+import com.oracle.graal.python.builtins.modules.asyncio.FutureBuiltins.FutureSetResultNode;
+import com.oracle.graal.python.builtins.modules.asyncio.PFuture.State;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.exception.StopIterationBuiltins.StopIterationValueNode;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.generator.GeneratorBuiltins;
+import com.oracle.graal.python.builtins.objects.generator.PGenerator;
+import com.oracle.graal.python.builtins.objects.str.StringUtils.SimpleTruffleStringFormatNode;
+import com.oracle.graal.python.lib.PyDictGetItem;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.lib.PyObjectSetAttr;
+import com.oracle.graal.python.lib.PyObjectStrAsObjectNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckExactNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.AsyncioTask)
+public final class TaskBuiltins extends PythonBuiltins {
+
+    private static final TruffleString T_SEND = tsLiteral("send");
+    private static final TruffleString T_THROW = tsLiteral("throw");
+    private static final TruffleString T_CANCEL = tsLiteral("cancel");
+    private static final TruffleString T_RESULT = tsLiteral("result");
+    private static final TruffleString T_ADD_DONE_CALLBACK = tsLiteral("add_done_callback");
+    private static final TruffleString T_ASYNCIO_FUTURE_BLOCKING = tsLiteral("_asyncio_future_blocking");
+    private static final TruffleString T_GET_LOOP = tsLiteral("get_loop");
+    private static final TruffleString T__LOOP = tsLiteral("_loop");
+    private static final TruffleString T_CONTEXT = tsLiteral("context");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TaskBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Equivalent of CPython's {@code task_call_step_soon}: schedules {@code task.__step(exc)}.
+     */
+    abstract static class ScheduleStepNode extends Node {
+        abstract void execute(VirtualFrame frame, PTask task, Object exc);
+
+        @Specialization
+        static void schedule(VirtualFrame frame, PTask task, Object exc,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallSoonNode callSoonNode) {
+            Object step = factory.createBuiltinMethod(task, getState.execute().ensureInitialized().taskStep);
+            callSoonNode.execute(frame, task.loop, step, exc, task.context);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code task_set_error_soon}: the {@code RuntimeError} is thrown into
+     * the coroutine on its next step.
+     */
+    abstract static class SetErrorSoonNode extends Node {
+        abstract void execute(VirtualFrame frame, PTask task, TruffleString format, Object arg1, Object arg2);
+
+        @Specialization
+        static void set(VirtualFrame frame, PTask task, TruffleString format, Object arg1, Object arg2,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached PythonObjectFactory factory,
+                        @Cached ScheduleStepNode scheduleStepNode) {
+            Object[] args;
+            if (arg2 == null) {
+                args = new Object[]{reprNode.execute(frame, arg1)};
+            } else {
+                args = new Object[]{reprNode.execute(frame, arg1), reprNode.execute(frame, arg2)};
+            }
+            scheduleStepNode.execute(frame, task, factory.createBaseException(RuntimeError, format, args));
+        }
+    }
+
+    abstract static class IsCoroutineNode extends Node {
+        abstract boolean execute(VirtualFrame frame, Object coro);
+
+        @Specialization
+        @SuppressWarnings("unused")
+        static boolean doGenerator(PGenerator coro) {
+            return true;
+        }
+
+        @Fallback
+        static boolean doOther(VirtualFrame frame, Object coro,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            return isTrueNode.execute(frame, callNode.execute(frame, getState.execute().ensureInitialized().isCoroutine, coro));
+        }
+    }
+
+    abstract static class CoroSendNode extends Node {
+        abstract Object execute(VirtualFrame frame, Object coro, Object value);
+
+        @Specialization
+        static Object doGenerator(VirtualFrame frame, PGenerator coro, Object value,
+                        @Cached GeneratorBuiltins.SendNode sendNode) {
+            return sendNode.execute(frame, coro, value);
+        }
+
+        @Fallback
+        static Object doOther(VirtualFrame frame, Object coro, Object value,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, coro, T_SEND, value);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code get_future_loop}.
+     */
+    abstract static class GetFutureLoopNode extends Node {
+        abstract Object execute(VirtualFrame frame, Object future);
+
+        @Specialization
+        static Object get(VirtualFrame frame, Object future,
+                        @Cached PyObjectLookupAttr lookupAttr,
+                        @Cached PyObjectGetAttr getAttr,
+                        @Cached CallNode callNode) {
+            Object getLoop = lookupAttr.execute(frame, future, T_GET_LOOP);
+            if (getLoop != PNone.NO_VALUE) {
+                return callNode.execute(frame, getLoop);
+            }
+            return getAttr.execute(frame, future, T__LOOP);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code task_step}: runs one step of the task's coroutine while the
+     * task is registered as the current task of its loop.
+     */
+    abstract static class TaskStepNode extends Node {
+        abstract void execute(VirtualFrame frame, PTask task, Object exc);
+
+        @Specialization
+        static void step(VirtualFrame frame, PTask task, Object exc,
+                        @Cached EnterTaskNode enterTaskNode,
+                        @Cached TaskStepImplNode stepImplNode,
+                        @Cached LeaveTaskNode leaveTaskNode) {
+            enterTaskNode.execute(frame, task.loop, task);
+            try {
+                stepImplNode.execute(frame, task, exc);
+            } finally {
+                leaveTaskNode.execute(frame, task.loop, task);
+            }
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code task_step_impl}. {@code exc} is {@code null} if the coroutine
+     * should be resumed with {@code None}.
+     */
+    abstract static class TaskStepImplNode extends PNodeWithRaise {
+        abstract void execute(VirtualFrame frame, PTask task, Object exc);
+
+        @Specialization
+        void step(VirtualFrame frame, PTask task, Object excArg,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CreateCancelledErrorNode createCancelledErrorNode,
+                        @Cached CreateInvalidStateErrorNode createInvalidStateErrorNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached SimpleTruffleStringFormatNode formatNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsSubtypeNode isSubtypeNode,
+                        @Cached CoroSendNode sendNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached StopIterationValueNode getValueNode,
+                        @Cached FutureSetResultNode setResultNode,
+                        @Cached FutureSetExceptionNode setExceptionNode,
+                        @Cached FutureCancelNode cancelNode,
+                        @Cached HandleYieldNode handleYieldNode) {
+            if (task.state != State.PENDING) {
+                TruffleString message = formatNode.format(ErrorMessages.STEP_ALREADY_DONE_S_S, reprNode.execute(frame, task), reprNode.execute(frame, excArg == null ? PNone.NONE : excArg));
+                throw getRaiseNode().raiseExceptionObject(createInvalidStateErrorNode.execute(frame, message));
+            }
+            AsyncioState state = getState.execute().ensureInitialized();
+            Object exc = excArg;
+            if (task.mustCancel) {
+                if (exc != null && !isSubtypeNode.execute(getClassNode.execute(exc), state.cancelledError)) {
+                    exc = null;
+                }
+                if (exc == null) {
+                    exc = createCancelledErrorNode.execute(frame);
+                }
+                task.mustCancel = false;
+            }
+            task.futWaiter = null;
+
+            Object result;
+            try {
+                if (exc == null) {
+                    result = sendNode.execute(frame, task.coro, PNone.NONE);
+                } else {
+                    result = callMethod.execute(frame, task.coro, T_THROW, exc);
+                }
+            } catch (PException e) {
+                PBaseException exception = e.getUnreifiedException();
+                Object excClass = getClassNode.execute(exception);
+                if (isSubtypeNode.execute(excClass, PythonBuiltinClassType.StopIteration)) {
+                    if (task.mustCancel) {
+                        // The task was cancelled right before the coroutine returned
+                        task.mustCancel = false;
+                        cancelNode.execute(frame, task);
+                    } else {
+                        setResultNode.execute(frame, task, getValueNode.execute(exception));
+                    }
+                } else if (isSubtypeNode.execute(excClass, state.cancelledError)) {
+                    cancelNode.execute(frame, task);
+                } else {
+                    setExceptionNode.execute(frame, task, e.setCatchingFrameAndGetEscapedException(frame, this));
+                    if (isSubtypeNode.execute(excClass, PythonBuiltinClassType.KeyboardInterrupt) || isSubtypeNode.execute(excClass, PythonBuiltinClassType.SystemExit)) {
+                        throw e;
+                    }
+                }
+                return;
+            }
+            handleYieldNode.execute(frame, task, result);
+        }
+    }
+
+    /**
+     * Deals with the value a task's coroutine yielded: either a future to wait for, {@code None}
+     * for a bare yield, or something the task cannot handle.
+     */
+    abstract static class HandleYieldNode extends Node {
+        abstract void execute(VirtualFrame frame, PTask task, Object result);
+
+        @Specialization
+        static void handle(VirtualFrame frame, PTask task, Object result,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isFutureProfile,
+                        @Cached IsBuiltinClassProfile isTaskProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached FutureAddDoneCallbackNode addDoneCallbackNode,
+                        @Cached PyObjectLookupAttr lookupAttr,
+                        @Cached PyObjectSetAttr setAttr,
+                        @Cached PyObjectGetAttr getAttr,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyObjectIsTrueNode isTrueNode,
+                        @Cached CallNode callNode,
+                        @Cached GetFutureLoopNode getFutureLoopNode,
+                        @Cached ScheduleStepNode scheduleStepNode,
+                        @Cached SetErrorSoonNode setErrorSoonNode) {
+            if (result == task) {
+                setErrorSoonNode.execute(frame, task, ErrorMessages.TASK_CANNOT_AWAIT_ON_ITSELF_S, task, null);
+                return;
+            }
+            AsyncioState state = getState.execute().ensureInitialized();
+            if (result instanceof PFuture) {
+                Object cls = getClassNode.execute(result);
+                if (isFutureProfile.profileClass(cls, PythonBuiltinClassType.AsyncioFuture) || isTaskProfile.profileClass(cls, PythonBuiltinClassType.AsyncioTask)) {
+                    // Fast path for our own futures, no need to go through the attributes
+                    PFuture future = (PFuture) result;
+                    if (future.loop != task.loop) {
+                        setErrorSoonNode.execute(frame, task, ErrorMessages.TASK_S_GOT_FUTURE_S_ATTACHED_TO_DIFFERENT_LOOP, task, result);
+                    } else if (!future.blocking) {
+                        setErrorSoonNode.execute(frame, task, ErrorMessages.YIELD_INSTEAD_OF_YIELD_FROM_IN_TASK_S_WITH_S, task, result);
+                    } else {
+                        future.blocking = false;
+                        addDoneCallbackNode.execute(frame, future, factory.createBuiltinMethod(task, state.taskWakeup), task.context);
+                        waitFor(frame, task, future, callMethod, isTrueNode);
+                    }
+                    return;
+                }
+            }
+            if (result == PNone.NONE) {
+                // Bare yield relinquishes control for one event loop iteration
+                scheduleStepNode.execute(frame, task, null);
+                return;
+            }
+            Object blocking = lookupAttr.execute(frame, result, T_ASYNCIO_FUTURE_BLOCKING);
+            if (blocking != PNone.NO_VALUE && blocking != PNone.NONE) {
+                // A future from another implementation, e.g. asyncio.futures._PyFuture
+                if (getFutureLoopNode.execute(frame, result) != task.loop) {
+                    setErrorSoonNode.execute(frame, task, ErrorMessages.TASK_S_GOT_FUTURE_S_ATTACHED_TO_DIFFERENT_LOOP, task, result);
+                } else if (!isTrueNode.execute(frame, blocking)) {
+                    setErrorSoonNode.execute(frame, task, ErrorMessages.YIELD_INSTEAD_OF_YIELD_FROM_IN_TASK_S_WITH_S, task, result);
+                } else {
+                    setAttr.execute(frame, result, T_ASYNCIO_FUTURE_BLOCKING, false);
+                    Object addDoneCallback = getAttr.execute(frame, result, T_ADD_DONE_CALLBACK);
+                    Object wakeup = factory.createBuiltinMethod(task, state.taskWakeup);
+                    callNode.execute(frame, addDoneCallback, new Object[]{wakeup}, new PKeyword[]{new PKeyword(T_CONTEXT, task.context)});
+                    waitFor(frame, task, result, callMethod, isTrueNode);
+                }
+                return;
+            }
+            if (isTrueNode.execute(frame, callNode.execute(frame, state.isGenerator, result))) {
+                setErrorSoonNode.execute(frame, task, ErrorMessages.YIELD_INSTEAD_OF_YIELD_FROM_FOR_GENERATOR_IN_TASK_S_WITH_S, task, result);
+            } else {
+                setErrorSoonNode.execute(frame, task, ErrorMessages.TASK_GOT_BAD_YIELD_S, result, null);
+            }
+        }
+
+        private static void waitFor(VirtualFrame frame, PTask task, Object future, PyObjectCallMethodObjArgs callMethod, PyObjectIsTrueNode isTrueNode) {
+            task.futWaiter = future;
+            if (task.mustCancel && isTrueNode.execute(frame, callMethod.execute(frame, future, T_CANCEL))) {
+                task.mustCancel = false;
+            }
+        }
+    }
+
+    @Builtin(name = J___INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "coro"}, keywordOnlyNames = {"loop", "name"})
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object init(VirtualFrame frame, PTask self, Object coro, Object loop, Object name,
+                        @Cached FutureInitNode futureInitNode,
+                        @Cached IsCoroutineNode isCoroutineNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached PyUnicodeCheckExactNode isExactStr,
+                        @Cached PyObjectStrAsObjectNode strNode,
+                        @Cached ScheduleStepNode scheduleStepNode,
+                        @Cached RegisterTaskNode registerTaskNode) {
+            futureInitNode.execute(frame, self, loop);
+            if (!isCoroutineNode.execute(frame, coro)) {
+                self.logDestroyPending = false;
+                throw raise(TypeError, ErrorMessages.A_COROUTINE_WAS_EXPECTED_GOT_S, reprNode.execute(frame, coro));
+            }
+            self.context = factory().copyContextVarsContext(getContext().getThreadState(getLanguage()).getContextVarsContext());
+            self.mustCancel = false;
+            self.logDestroyPending = true;
+            self.coro = coro;
+            if (PGuards.isPNone(name)) {
+                self.name = nextTaskName(getState.execute());
+            } else if (isExactStr.execute(name)) {
+                self.name = name;
+            } else {
+                self.name = strNode.execute(frame, name);
+            }
+            scheduleStepNode.execute(frame, self, null);
+            registerTaskNode.execute(frame, self);
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static TruffleString nextTaskName(AsyncioState state) {
+            return toTruffleStringUncached("Task-" + ++state.taskNameCounter);
+        }
+    }
+
+    /**
+     * The callback scheduled for each step of the task. It is not registered on the class, the
+     * {@code step} of {@link AsyncioState} is bound to the task instead.
+     */
+    @Builtin(name = "__step", minNumOfPositionalArgs = 1, parameterNames = {"$self", "exc"})
+    abstract static class StepNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object step(VirtualFrame frame, PTask self, Object exc,
+                        @Cached TaskStepNode taskStepNode) {
+            taskStepNode.execute(frame, self, PGuards.isPNone(exc) ? null : exc);
+            return PNone.NONE;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code task_wakeup}, the done callback added to the future a task
+     * waits for. Like {@link StepNode}, it is only ever used bound to a task.
+     */
+    @Builtin(name = "__wakeup", minNumOfPositionalArgs = 2, parameterNames = {"$self", "future"})
+    abstract static class WakeupNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object wakeup(VirtualFrame frame, PTask self, Object future,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isFutureProfile,
+                        @Cached IsBuiltinClassProfile isTaskProfile,
+                        @Cached CreateCancelledErrorNode createCancelledErrorNode,
+                        @Cached CreateInvalidStateErrorNode createInvalidStateErrorNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached TaskStepNode taskStepNode) {
+            Object exc = null;
+            Object cls = getClassNode.execute(future);
+            if (future instanceof PFuture && (isFutureProfile.profileClass(cls, PythonBuiltinClassType.AsyncioFuture) || isTaskProfile.profileClass(cls, PythonBuiltinClassType.AsyncioTask))) {
+                PFuture fut = (PFuture) future;
+                if (fut.state == State.CANCELLED) {
+                    exc = createCancelledErrorNode.execute(frame);
+                } else if (fut.state != State.FINISHED) {
+                    exc = createInvalidStateErrorNode.execute(frame, ErrorMessages.RESULT_IS_NOT_SET);
+                } else {
+                    fut.logTraceback = false;
+                    exc = fut.exception;
+                }
+            } else {
+                try {
+                    callMethod.execute(frame, future, T_RESULT);
+                } catch (PException e) {
+                    exc = e.setCatchingFrameAndGetEscapedException(frame, this);
+                }
+            }
+            taskStepNode.execute(frame, self, exc);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "cancel", minNumOfPositionalArgs = 1, doc = "Request that this task cancel itself.\n\n" +
+                    "This arranges for a CancelledError to be thrown into the\n" +
+                    "wrapped coroutine on the next cycle through the event loop.\n" +
+                    "The coroutine then has a chance to clean up or even deny\n" +
+                    "the request using try/except/finally.")
+    @GenerateNodeFactory
+    abstract static class CancelNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean cancel(VirtualFrame frame, PTask self,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            self.logTraceback = false;
+            if (self.state != State.PENDING) {
+                return false;
+            }
+            if (self.futWaiter != null && isTrueNode.execute(frame, callMethod.execute(frame, self.futWaiter, T_CANCEL))) {
+                // Leave self.mustCancel false, the waiter will wake us up with the CancelledError
+                return true;
+            }
+            self.mustCancel = true;
+            return true;
+        }
+    }
+
+    @Builtin(name = "get_coro", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetCoroNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTask self) {
+            return self.coro;
+        }
+    }
+
+    @Builtin(name = "get_name", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetNameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTask self) {
+            return self.name != null ? self.name : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "set_name", minNumOfPositionalArgs = 2, parameterNames = {"$self", "value"})
+    @GenerateNodeFactory
+    abstract static class SetNameNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object set(VirtualFrame frame, PTask self, Object value,
+                        @Cached PyUnicodeCheckExactNode isExactStr,
+                        @Cached PyObjectStrAsObjectNode strNode) {
+            self.name = isExactStr.execute(value) ? value : strNode.execute(frame, value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "get_stack", minNumOfPositionalArgs = 1, parameterNames = {"$self"}, keywordOnlyNames = {"limit"}, doc = "Return the list of stack frames for this task's coroutine.\n\n" +
+                    "If the coroutine is not done, this returns the stack where it is\n" +
+                    "suspended.  If the coroutine has completed successfully or was\n" +
+                    "cancelled, this returns an empty list.  If the coroutine was\n" +
+                    "terminated by an exception, this returns the list of traceback\n" +
+                    "frames.")
+    @GenerateNodeFactory
+    abstract static class GetStackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object get(VirtualFrame frame, PTask self, Object limit,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode) {
+            return callNode.execute(frame, getState.execute().ensureInitialized().taskGetStack, self, noneIfMissing(limit));
+        }
+    }
+
+    @Builtin(name = "print_stack", minNumOfPositionalArgs = 1, parameterNames = {"$self"}, keywordOnlyNames = {"limit", "file"}, doc = "Print the stack or traceback for this task's coroutine.\n\n" +
+                    "This produces output similar to that of the traceback module,\n" +
+                    "for the frames retrieved by get_stack().  The limit argument\n" +
+                    "is passed to get_stack().  The file argument is an I/O stream\n" +
+                    "to which the output is written; by default output is written\n" +
+                    "to sys.stderr.")
+    @GenerateNodeFactory
+    abstract static class PrintStackNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static Object print(VirtualFrame frame, PTask self, Object limit, Object file,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode) {
+            return callNode.execute(frame, getState.execute().ensureInitialized().taskPrintStack, self, noneIfMissing(limit), noneIfMissing(file));
+        }
+    }
+
+    private static Object noneIfMissing(Object value) {
+        return value == PNone.NO_VALUE ? PNone.NONE : value;
+    }
+
+    @Builtin(name = "_repr_info", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object reprInfo(VirtualFrame frame, PTask self,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode) {
+            return callNode.execute(frame, getState.execute().ensureInitialized().taskReprInfo, self);
+        }
+    }
+
+    @Builtin(name = "set_result", minNumOfPositionalArgs = 2, parameterNames = {"$self", "result"})
+    @GenerateNodeFactory
+    abstract static class SetResultNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        Object set(PTask self, Object result) {
+            throw raise(RuntimeError, ErrorMessages.TASK_DOES_NOT_SUPPORT_S_OPERATION, "set_result");
+        }
+    }
+
+    @Builtin(name = "set_exception", minNumOfPositionalArgs = 2, parameterNames = {"$self", "exception"})
+    @GenerateNodeFactory
+    abstract static class SetExceptionNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        Object set(PTask self, Object exception) {
+            throw raise(RuntimeError, ErrorMessages.TASK_DOES_NOT_SUPPORT_S_OPERATION, "set_exception");
+        }
+    }
+
+    @Builtin(name = "current_task", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "loop"}, isClassmethod = true, doc = "Return the currently running task in an event loop or None.\n\n" +
+                    "By default the current task for the current event loop is returned.\n\n" +
+                    "None is returned when called not in the context of a Task.")
+    @GenerateNodeFactory
+    abstract static class CurrentTaskNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object current(VirtualFrame frame, @SuppressWarnings("unused") Object cls, Object loopArg,
+                        @Cached WarnNode warnNode,
+                        @Cached GetEventLoopNode getEventLoopNode,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached PyDictGetItem getItem) {
+            warnNode.warnFormat(frame, DeprecationWarning, ErrorMessages.TASK_CURRENT_TASK_DEPRECATED);
+            Object loop = PGuards.isPNone(loopArg) ? getEventLoopNode.execute(frame) : loopArg;
+            Object task = getItem.execute(frame, getState.execute().currentTasks, loop);
+            return task != null ? task : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "all_tasks", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "loop"}, isClassmethod = true, doc = "Return a set of all tasks for an event loop.\n\n" +
+                    "By default all tasks for the current event loop are returned.")
+    @GenerateNodeFactory
+    abstract static class AllTasksNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object all(VirtualFrame frame, @SuppressWarnings("unused") Object cls, Object loop,
+                        @Cached WarnNode warnNode,
+                        @Cached GetAsyncioStateNode getState,
+                        @Cached CallNode callNode) {
+            warnNode.warnFormat(frame, DeprecationWarning, ErrorMessages.TASK_ALL_TASKS_DEPRECATED);
+            return callNode.execute(frame, getState.execute().ensureInitialized().allTasksCompat, noneIfMissing(loop));
+        }
+    }
+
+    @Builtin(name = "_log_destroy_pending", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class LogDestroyPendingNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static boolean get(PTask self, @SuppressWarnings("unused") PNone value) {
+            return self.logDestroyPending;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(VirtualFrame frame, PTask self, Object value,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            self.logDestroyPending = isTrueNode.execute(frame, value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_must_cancel", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MustCancelNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean get(PTask self) {
+            return self.mustCancel;
+        }
+    }
+
+    @Builtin(name = "_coro", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class CoroNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTask self) {
+            return self.coro != null ? self.coro : PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_fut_waiter", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FutWaiterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTask self) {
+            return self.futWaiter != null ? self.futWaiter : PNone.NONE;
+        }
+    }
+}
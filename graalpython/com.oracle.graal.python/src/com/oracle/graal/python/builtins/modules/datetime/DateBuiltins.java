@@ -0,0 +1,576 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MAXYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MINYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_SECOND;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___SUB__;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewDateNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeDeltaNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.StrftimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.TimestampToMicrosecondsNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.lib.PyObjectStrAsObjectNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDate)
+public final class DateBuiltins extends PythonBuiltins {
+
+    static final TruffleString T_ISOFORMAT = tsLiteral("isoformat");
+    static final TruffleString T_STRFTIME = tsLiteral("strftime");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        addBuiltinConstant("min", core.factory().createDate(PythonBuiltinClassType.PDate, MINYEAR, 1, 1));
+        addBuiltinConstant("max", core.factory().createDate(PythonBuiltinClassType.PDate, MAXYEAR, 12, 31));
+        addBuiltinConstant("resolution", core.factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, 1, 0, 0));
+        super.initialize(core);
+    }
+
+    /**
+     * Converts a POSIX timestamp in seconds to {@code {year, month, day, hour, minute, second,
+     * fold}} in the local zone of the {@code time} module, or in UTC if {@code utc} is set.
+     */
+    static int[] fromTimestamp(PNodeWithRaise node, Python3Core core, long seconds, boolean utc) {
+        int[] fields = DatetimeUtils.fromTimestamp(seconds, utc ? null : TimeModuleBuiltins.getCurrentZoneId(core));
+        if (fields == null) {
+            throw node.raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+        }
+        return fields;
+    }
+
+    @Builtin(name = "year", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class YearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getYear();
+        }
+    }
+
+    @Builtin(name = "month", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MonthNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getMonth();
+        }
+    }
+
+    @Builtin(name = "day", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDate self) {
+            return self.getDay();
+        }
+    }
+
+    @Builtin(name = "today", minNumOfPositionalArgs = 1, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class TodayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object today(VirtualFrame frame, Object cls,
+                        @Cached NewDateNode newDateNode) {
+            long seconds = Math.floorDiv(DatetimeUtils.currentTimeMicroseconds(), US_PER_SECOND);
+            int[] fields = fromTimestamp(this, getContext(), seconds, false);
+            return newDateNode.execute(frame, cls, fields[0], fields[1], fields[2]);
+        }
+    }
+
+    @Builtin(name = "fromtimestamp", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "timestamp"})
+    @GenerateNodeFactory
+    abstract static class FromTimestampNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromTimestamp(VirtualFrame frame, Object cls, Object timestamp,
+                        @Cached TimestampToMicrosecondsNode toMicrosecondsNode,
+                        @Cached NewDateNode newDateNode) {
+            long us = toMicrosecondsNode.execute(frame, timestamp, true);
+            int[] fields = DateBuiltins.fromTimestamp(this, getContext(), Math.floorDiv(us, US_PER_SECOND), false);
+            return newDateNode.execute(frame, cls, fields[0], fields[1], fields[2]);
+        }
+    }
+
+    @Builtin(name = "fromordinal", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "ordinal"})
+    @ArgumentClinic(name = "ordinal", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class FromOrdinalNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateBuiltinsClinicProviders.FromOrdinalNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object fromOrdinal(VirtualFrame frame, Object cls, int ordinal,
+                        @Cached NewDateNode newDateNode) {
+            if (ordinal < 1) {
+                throw raise(ValueError, ErrorMessages.ORDINAL_MUST_BE_GE_1);
+            }
+            int[] ymd = DatetimeUtils.ordToYmd(ordinal);
+            return newDateNode.execute(frame, cls, ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "date_string"})
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object dateString,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached NewDateNode newDateNode) {
+            if (!unicodeCheckNode.execute(dateString)) {
+                throw raise(TypeError, ErrorMessages.FROMISOFORMAT_ARG_MUST_BE_STR);
+            }
+            String s = castToJavaStringNode.execute(dateString);
+            int[] ymd = new int[3];
+            if (s.length() != 10 || DatetimeUtils.parseIsoDate(s, ymd) != DatetimeUtils.ISO_OK) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, reprNode.execute(frame, dateString));
+            }
+            return newDateNode.execute(frame, cls, ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = "fromisocalendar", minNumOfPositionalArgs = 4, isClassmethod = true, parameterNames = {"$cls", "year", "week", "day"})
+    @ArgumentClinic(name = "year", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "week", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "day", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class FromIsoCalendarNode extends PythonQuaternaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateBuiltinsClinicProviders.FromIsoCalendarNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object fromIsoCalendar(VirtualFrame frame, Object cls, int year, int week, int day,
+                        @Cached NewDateNode newDateNode) {
+            if (year < MINYEAR || year > MAXYEAR) {
+                throw raise(ValueError, ErrorMessages.YEAR_IS_OUT_OF_RANGE_D, year);
+            }
+            if (week <= 0 || week >= 53) {
+                boolean outOfRange = true;
+                if (week == 53) {
+                    // ISO years have 53 weeks if they start on a Thursday, or on a Wednesday in
+                    // leap years
+                    int firstWeekday = DatetimeUtils.ymdToOrd(year, 1, 1) % 7;
+                    outOfRange = !(firstWeekday == 4 || firstWeekday == 3 && DatetimeUtils.isLeap(year));
+                }
+                if (outOfRange) {
+                    throw raise(ValueError, ErrorMessages.INVALID_WEEK_D, week);
+                }
+            }
+            if (day <= 0 || day >= 8) {
+                throw raise(ValueError, ErrorMessages.INVALID_DAY_D_RANGE_IS_1_7, day);
+            }
+            int ordinal = DatetimeUtils.isoWeek1Monday(year) + (week - 1) * 7 + day - 1;
+            int[] ymd = DatetimeUtils.ordToYmd(ordinal);
+            return newDateNode.execute(frame, cls, ymd[0], ymd[1], ymd[2]);
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(PDate self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            String typeName = DatetimeUtils.getTpName(getClassNode.execute(self));
+            return fromJavaStringNode.execute(formatRepr(typeName, self), PythonUtils.TS_ENCODING);
+        }
+
+        @TruffleBoundary
+        private static String formatRepr(String typeName, PDate self) {
+            return PythonUtils.formatJString("%s(%d, %d, %d)", typeName, self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString isoformat(PDate self) {
+            return DatetimeUtils.formatDate(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = J___STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, PDate self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isDateProfile,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (isDateProfile.profileClass(getClassNode.execute(self), PythonBuiltinClassType.PDate)) {
+                return DatetimeUtils.formatDate(self.getYear(), self.getMonth(), self.getDay());
+            }
+            return callMethod.execute(frame, self, T_ISOFORMAT);
+        }
+    }
+
+    @Builtin(name = "ctime", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CTimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString ctime(PDate self) {
+            return DatetimeUtils.formatCTime(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0);
+        }
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"})
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.TString)
+    @GenerateNodeFactory
+    abstract static class StrftimeDateNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateBuiltinsClinicProviders.StrftimeDateNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static TruffleString strftime(VirtualFrame frame, PDate self, TruffleString format,
+                        @Cached StrftimeNode strftimeNode) {
+            int[] timeTuple = DatetimeUtils.timeTuple(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0, -1);
+            return strftimeNode.execute(frame, self, PNone.NONE, format, timeTuple);
+        }
+    }
+
+    @Builtin(name = J___FORMAT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"})
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.TString)
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateBuiltinsClinicProviders.FormatNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object format(VirtualFrame frame, Object self, TruffleString format,
+                        @Cached PyObjectStrAsObjectNode strNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (format.isEmpty()) {
+                return strNode.execute(frame, self);
+            }
+            return callMethod.execute(frame, self, T_STRFTIME, format);
+        }
+    }
+
+    @Builtin(name = "timetuple", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TimeTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object timetuple(PDate self) {
+            return TimeModuleBuiltins.createStructTime(factory(), DatetimeUtils.timeTuple(self.getYear(), self.getMonth(), self.getDay(), 0, 0, 0, -1));
+        }
+    }
+
+    @Builtin(name = "toordinal", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ToOrdinalNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int toordinal(PDate self) {
+            return self.toOrdinal();
+        }
+    }
+
+    @Builtin(name = "weekday", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WeekdayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int weekday(PDate self) {
+            return DatetimeUtils.weekday(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "isoweekday", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsoWeekdayNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int isoweekday(PDate self) {
+            return DatetimeUtils.weekday(self.getYear(), self.getMonth(), self.getDay()) + 1;
+        }
+    }
+
+    @Builtin(name = "isocalendar", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsoCalendarNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object isocalendar(PDate self) {
+            return factory().createTuple(DatetimeUtils.isoCalendar(self.getYear(), self.getMonth(), self.getDay()));
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "year", "month", "day"})
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object replace(VirtualFrame frame, PDate self, Object year, Object month, Object day,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached GetClassNode getClassNode) {
+            int y = year == PNone.NO_VALUE ? self.getYear() : asIntNode.execute(frame, year);
+            int m = month == PNone.NO_VALUE ? self.getMonth() : asIntNode.execute(frame, month);
+            int d = day == PNone.NO_VALUE ? self.getDay() : asIntNode.execute(frame, day);
+            DatetimeNodes.checkDateArgs(this, y, m, d);
+            return factory().createDate(getClassNode.execute(self), y, m, d);
+        }
+    }
+
+    abstract static class AbstractComparisonNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        boolean compare(PDate self, PDate other) {
+            return fromCompareResult(self.compareDateTo(other));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        @SuppressWarnings("unused")
+        protected boolean fromCompareResult(int cmp) {
+            throw new AbstractMethodError("fromCompareResult");
+        }
+    }
+
+    @Builtin(name = J___EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp == 0;
+        }
+    }
+
+    @Builtin(name = J___NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp != 0;
+        }
+    }
+
+    @Builtin(name = J___LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp < 0;
+        }
+    }
+
+    @Builtin(name = J___LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp <= 0;
+        }
+    }
+
+    @Builtin(name = J___GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp > 0;
+        }
+    }
+
+    @Builtin(name = J___GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp >= 0;
+        }
+    }
+
+    @Builtin(name = J___HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PDate self) {
+            return DatetimeNodes.hashFields(self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code add_date_timedelta}, only the days of the delta are used.
+     */
+    static Object addDays(VirtualFrame frame, PNodeWithRaise node, PDate date, long days, GetClassNode getClassNode, NewDateNode newDateNode) {
+        long ordinal = date.toOrdinal() + days;
+        if (ordinal < 1 || ordinal > DatetimeUtils.MAXORDINAL) {
+            throw node.raise(OverflowError, ErrorMessages.DATE_VALUE_OUT_OF_RANGE);
+        }
+        int[] ymd = DatetimeUtils.ordToYmd((int) ordinal);
+        return newDateNode.execute(frame, getClassNode.execute(date), ymd[0], ymd[1], ymd[2]);
+    }
+
+    // datetime defines its own arithmetic, and date's must not apply to datetimes
+    @Builtin(name = J___ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "!isDateTime(self)")
+        Object add(VirtualFrame frame, PDate self, PTimeDelta other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateNode newDateNode) {
+            return addDays(frame, this, self, other.getDays(), getClassNode, newDateNode);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        static boolean isDateTime(Object object) {
+            return object instanceof PDateTime;
+        }
+    }
+
+    @Builtin(name = J___RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RAddNode extends AddNode {
+    }
+
+    @Builtin(name = J___SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = {"!isDateTime(self)", "!isDateTime(other)"})
+        static PTimeDelta subDate(PDate self, PDate other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            return newTimeDeltaNode.execute(self.toOrdinal() - other.toOrdinal(), 0, 0);
+        }
+
+        @Specialization(guards = "!isDateTime(self)")
+        Object subDelta(VirtualFrame frame, PDate self, PTimeDelta other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateNode newDateNode) {
+            return addDays(frame, this, self, -(long) other.getDays(), getClassNode, newDateNode);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        static boolean isDateTime(Object object) {
+            return object instanceof PDateTime;
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDate self,
+                        @Cached GetClassNode getClassNode) {
+            byte[] state = {(byte) (self.getYear() >> 8), (byte) self.getYear(), (byte) self.getMonth(), (byte) self.getDay()};
+            Object[] args = {factory().createBytes(state)};
+            return factory().createTuple(new Object[]{getClassNode.execute(self), factory().createTuple(args)});
+        }
+    }
+}
@@ -0,0 +1,951 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.EPOCH_SECONDS;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MAXORDINAL;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MAXYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MINYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.SECONDS_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_HOUR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_MINUTE;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_SECOND;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE_EX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___SUB__;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.time.ZoneId;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.CallTzNameNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.CallUtcOffsetNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewDateTimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeDeltaNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeZoneNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.StrftimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.TimestampToMicrosecondsNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDateTime)
+public final class DateTimeBuiltins extends PythonBuiltins {
+
+    static final TruffleString T_FROMUTC = tsLiteral("fromutc");
+    private static final TruffleString T__STRPTIME = tsLiteral("_strptime");
+    private static final TruffleString T__STRPTIME_DATETIME = tsLiteral("_strptime_datetime");
+    private static final TruffleString T_SPACE_SEP = tsLiteral(" ");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DateTimeBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        addBuiltinConstant("min", core.factory().createDateTime(PythonBuiltinClassType.PDateTime, MINYEAR, 1, 1, 0, 0, 0, 0, PNone.NONE, 0));
+        addBuiltinConstant("max", core.factory().createDateTime(PythonBuiltinClassType.PDateTime, MAXYEAR, 12, 31, 23, 59, 59, 999999, PNone.NONE, 0));
+        addBuiltinConstant("resolution", core.factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, 0, 0, 1));
+        super.initialize(core);
+    }
+
+    /**
+     * Creates a datetime from a POSIX timestamp in microseconds, in local time or in UTC.
+     */
+    static Object fromTimestamp(VirtualFrame frame, PNodeWithRaise node, Python3Core core, Object cls, long us, boolean utc, Object tzinfo, NewDateTimeNode newDateTimeNode) {
+        int[] fields = DateBuiltins.fromTimestamp(node, core, Math.floorDiv(us, US_PER_SECOND), utc);
+        int microsecond = (int) Math.floorMod(us, US_PER_SECOND);
+        return newDateTimeNode.execute(frame, cls, fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], microsecond, tzinfo, fields[6]);
+    }
+
+    /**
+     * Splits microseconds since 0000-12-31, as returned by {@link PDateTime#toMicroseconds()},
+     * into {@code {year, month, day, hour, minute, second, microsecond}}.
+     */
+    static int[] fromMicroseconds(PNodeWithRaise node, long us) {
+        long ordinal = Math.floorDiv(us, US_PER_DAY);
+        if (ordinal < 1 || ordinal > MAXORDINAL) {
+            throw node.raise(OverflowError, ErrorMessages.DATE_VALUE_OUT_OF_RANGE);
+        }
+        long time = Math.floorMod(us, US_PER_DAY);
+        int[] ymd = DatetimeUtils.ordToYmd((int) ordinal);
+        return new int[]{ymd[0], ymd[1], ymd[2], (int) (time / US_PER_HOUR), (int) (time / US_PER_MINUTE % 60), (int) (time / US_PER_SECOND % 60), (int) (time % US_PER_SECOND)};
+    }
+
+    /**
+     * Equivalent of CPython's {@code add_datetime_timedelta}. The result keeps the
+     * {@code tzinfo}, but not the {@code fold}.
+     */
+    static Object addDelta(VirtualFrame frame, PNodeWithRaise node, PDateTime dt, PTimeDelta delta, int factor, GetClassNode getClassNode, NewDateTimeNode newDateTimeNode) {
+        if (Math.abs(delta.getDays()) > MAXORDINAL) {
+            throw node.raise(OverflowError, ErrorMessages.DATE_VALUE_OUT_OF_RANGE);
+        }
+        long deltaUs = delta.getDays() * US_PER_DAY + delta.getSeconds() * US_PER_SECOND + delta.getMicroseconds();
+        int[] f = fromMicroseconds(node, dt.toMicroseconds() + factor * deltaUs);
+        return newDateTimeNode.execute(frame, getClassNode.execute(dt), f[0], f[1], f[2], f[3], f[4], f[5], f[6], dt.getTzInfo(), 0);
+    }
+
+    /**
+     * The POSIX timestamp in seconds of the fields of a datetime taken as UTC.
+     */
+    static long toEpochSeconds(int year, int month, int day, int hour, int minute, int second) {
+        return DatetimeUtils.ymdToOrd(year, month, day) * (long) SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - EPOCH_SECONDS;
+    }
+
+    /**
+     * Equivalent of CPython's {@code local_to_seconds}: the POSIX timestamp of a naive datetime
+     * in local time. The {@code fold} picks the offset in ambiguous or missing local times.
+     */
+    static long localToEpochSeconds(Python3Core core, PDateTime dt) {
+        ZoneId zone = TimeModuleBuiltins.getCurrentZoneId(core);
+        int offset = DatetimeUtils.localUtcOffset(zone, dt.getYear(), dt.getMonth(), dt.getDay(), dt.getHour(), dt.getMinute(), dt.getSecond(), dt.getFold());
+        return toEpochSeconds(dt.getYear(), dt.getMonth(), dt.getDay(), dt.getHour(), dt.getMinute(), dt.getSecond()) - offset;
+    }
+
+    /**
+     * Equivalent of CPython's {@code local_timezone_from_timestamp}: a fixed offset
+     * {@code timezone} with the local offset and zone name at the given time.
+     */
+    static Object localTimeZone(VirtualFrame frame, Python3Core core, long epochSeconds, NewTimeDeltaNode newTimeDeltaNode, NewTimeZoneNode newTimeZoneNode) {
+        ZoneId zone = TimeModuleBuiltins.getCurrentZoneId(core);
+        int offset = DatetimeUtils.localUtcOffsetAt(zone, epochSeconds);
+        return newTimeZoneNode.execute(frame, newTimeDeltaNode.execute(0, offset, 0), DatetimeUtils.localZoneName(zone, epochSeconds));
+    }
+
+    /**
+     * The {@code tm_isdst} flag for {@code timetuple}: -1 if there is no {@code tzinfo} or it
+     * returns {@code None} from {@code dst()}.
+     */
+    static int getDstFlag(VirtualFrame frame, PDateTime self, CallUtcOffsetNode callDstNode) {
+        if (!self.hasTzInfo()) {
+            return -1;
+        }
+        Object dst = callDstNode.executeDst(frame, self.getTzInfo(), self);
+        if (dst == PNone.NONE) {
+            return -1;
+        }
+        return ((PTimeDelta) dst).isZero() ? 0 : 1;
+    }
+
+    static int[] timeTuple(PDateTime self, int dstFlag) {
+        return DatetimeUtils.timeTuple(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), dstFlag);
+    }
+
+    @Builtin(name = "hour", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class HourNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getHour();
+        }
+    }
+
+    @Builtin(name = "minute", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MinuteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getMinute();
+        }
+    }
+
+    @Builtin(name = "second", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getSecond();
+        }
+    }
+
+    @Builtin(name = "microsecond", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getMicrosecond();
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PDateTime self) {
+            return self.getTzInfo();
+        }
+    }
+
+    @Builtin(name = "fold", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FoldNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PDateTime self) {
+            return self.getFold();
+        }
+    }
+
+    @Builtin(name = "now", minNumOfPositionalArgs = 1, isClassmethod = true, parameterNames = {"$cls", "tz"})
+    @GenerateNodeFactory
+    abstract static class NowNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object now(VirtualFrame frame, Object cls, Object tzArg,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached NewDateTimeNode newDateTimeNode,
+                        @Cached PyObjectCallMethodObjArgs callFromUtc) {
+            Object tz = tzArg == PNone.NO_VALUE ? PNone.NONE : tzArg;
+            checkTzInfoNode.execute(tz);
+            Object self = fromTimestamp(frame, this, getContext(), cls, DatetimeUtils.currentTimeMicroseconds(), tz != PNone.NONE, tz, newDateTimeNode);
+            if (tz != PNone.NONE) {
+                return callFromUtc.execute(frame, tz, T_FROMUTC, self);
+            }
+            return self;
+        }
+    }
+
+    @Builtin(name = "utcnow", minNumOfPositionalArgs = 1, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class UtcNowNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object utcnow(VirtualFrame frame, Object cls,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return fromTimestamp(frame, this, getContext(), cls, DatetimeUtils.currentTimeMicroseconds(), true, PNone.NONE, newDateTimeNode);
+        }
+    }
+
+    @Builtin(name = "fromtimestamp", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "timestamp", "tz"})
+    @GenerateNodeFactory
+    abstract static class FromTimestampNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object fromTimestamp(VirtualFrame frame, Object cls, Object timestamp, Object tzArg,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached TimestampToMicrosecondsNode toMicrosecondsNode,
+                        @Cached NewDateTimeNode newDateTimeNode,
+                        @Cached PyObjectCallMethodObjArgs callFromUtc) {
+            Object tz = tzArg == PNone.NO_VALUE ? PNone.NONE : tzArg;
+            checkTzInfoNode.execute(tz);
+            long us = toMicrosecondsNode.execute(frame, timestamp, false);
+            Object self = DateTimeBuiltins.fromTimestamp(frame, this, getContext(), cls, us, tz != PNone.NONE, tz, newDateTimeNode);
+            if (tz != PNone.NONE) {
+                return callFromUtc.execute(frame, tz, T_FROMUTC, self);
+            }
+            return self;
+        }
+    }
+
+    @Builtin(name = "utcfromtimestamp", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "timestamp"})
+    @GenerateNodeFactory
+    abstract static class UtcFromTimestampNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object utcfromtimestamp(VirtualFrame frame, Object cls, Object timestamp,
+                        @Cached TimestampToMicrosecondsNode toMicrosecondsNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            long us = toMicrosecondsNode.execute(frame, timestamp, false);
+            return fromTimestamp(frame, this, getContext(), cls, us, true, PNone.NONE, newDateTimeNode);
+        }
+    }
+
+    @Builtin(name = "combine", minNumOfPositionalArgs = 3, isClassmethod = true, parameterNames = {"$cls", "date", "time", "tzinfo"})
+    @GenerateNodeFactory
+    abstract static class CombineNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        Object combine(VirtualFrame frame, Object cls, Object date, Object time, Object tzinfo,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            if (!(date instanceof PDate)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "combine()", 1, "datetime.date", date);
+            }
+            if (!(time instanceof PTime)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "combine()", 2, "datetime.time", time);
+            }
+            PDate d = (PDate) date;
+            PTime t = (PTime) time;
+            Object tz = tzinfo == PNone.NO_VALUE ? t.getTzInfo() : tzinfo;
+            checkTzInfoNode.execute(tz);
+            return newDateTimeNode.execute(frame, cls, d.getYear(), d.getMonth(), d.getDay(), t.getHour(), t.getMinute(), t.getSecond(), t.getMicrosecond(), tz, t.getFold());
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "date_string"})
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object dateString,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode,
+                        @Cached NewTimeZoneNode newTimeZoneNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            if (!unicodeCheckNode.execute(dateString)) {
+                throw raise(TypeError, ErrorMessages.FROMISOFORMAT_ARG_MUST_BE_STR);
+            }
+            String s = castToJavaStringNode.execute(dateString);
+            int[] ymd = new int[3];
+            int[] time = new int[6];
+            int rv = DatetimeUtils.parseIsoDate(s, ymd);
+            if (rv == DatetimeUtils.ISO_OK && s.length() > 10) {
+                // the separator can be any character, including one outside of the BMP
+                int start = Character.isHighSurrogate(s.charAt(10)) ? 12 : 11;
+                rv = DatetimeUtils.parseIsoTime(s, start, time);
+            }
+            if (rv < 0) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, reprNode.execute(frame, dateString));
+            }
+            Object tzinfo = PNone.NONE;
+            if (rv == DatetimeUtils.ISO_OK_WITH_OFFSET) {
+                tzinfo = newTimeZoneNode.execute(frame, newTimeDeltaNode.execute(0, time[4], time[5]), null);
+            }
+            return newDateTimeNode.execute(frame, cls, ymd[0], ymd[1], ymd[2], time[0], time[1], time[2], time[3], tzinfo, 0);
+        }
+    }
+
+    @Builtin(name = "strptime", minNumOfPositionalArgs = 3, isClassmethod = true, parameterNames = {"$cls", "date_string", "format"})
+    @GenerateNodeFactory
+    abstract static class StrptimeNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static Object strptime(VirtualFrame frame, Object cls, Object dateString, Object format,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            Object strptimeModule = AbstractImportNode.importModule(T__STRPTIME);
+            return callMethod.execute(frame, strptimeModule, T__STRPTIME_DATETIME, cls, dateString, format);
+        }
+    }
+
+    @Builtin(name = "date", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object date(PDateTime self) {
+            return factory().createDate(PythonBuiltinClassType.PDate, self.getYear(), self.getMonth(), self.getDay());
+        }
+    }
+
+    @Builtin(name = "time", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object time(PDateTime self) {
+            return factory().createTime(PythonBuiltinClassType.PTime, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), PNone.NONE, self.getFold());
+        }
+    }
+
+    @Builtin(name = "timetz", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TimeTzNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object timetz(PDateTime self) {
+            return factory().createTime(PythonBuiltinClassType.PTime, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), self.getTzInfo(), self.getFold());
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "year", "month", "day", "hour", "minute", "second", "microsecond", "tzinfo"}, keywordOnlyNames = {"fold"})
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonBuiltinNode {
+        @Specialization
+        Object replace(VirtualFrame frame, PDateTime self, Object year, Object month, Object day, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached GetClassNode getClassNode) {
+            int y = year == PNone.NO_VALUE ? self.getYear() : asIntNode.execute(frame, year);
+            int mo = month == PNone.NO_VALUE ? self.getMonth() : asIntNode.execute(frame, month);
+            int d = day == PNone.NO_VALUE ? self.getDay() : asIntNode.execute(frame, day);
+            int h = hour == PNone.NO_VALUE ? self.getHour() : asIntNode.execute(frame, hour);
+            int mi = minute == PNone.NO_VALUE ? self.getMinute() : asIntNode.execute(frame, minute);
+            int s = second == PNone.NO_VALUE ? self.getSecond() : asIntNode.execute(frame, second);
+            int us = microsecond == PNone.NO_VALUE ? self.getMicrosecond() : asIntNode.execute(frame, microsecond);
+            Object tz = tzinfo == PNone.NO_VALUE ? self.getTzInfo() : tzinfo;
+            int f = fold == PNone.NO_VALUE ? self.getFold() : asIntNode.execute(frame, fold);
+            DatetimeNodes.checkDateArgs(this, y, mo, d);
+            DatetimeNodes.checkTimeArgs(this, h, mi, s, us, f);
+            checkTzInfoNode.execute(tz);
+            return factory().createDateTime(getClassNode.execute(self), y, mo, d, h, mi, s, us, tz, f);
+        }
+    }
+
+    @Builtin(name = "astimezone", minNumOfPositionalArgs = 1, parameterNames = {"$self", "tz"})
+    @GenerateNodeFactory
+    abstract static class AsTimeZoneNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object astimezone(VirtualFrame frame, PDateTime self, Object tzArg,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode,
+                        @Cached NewTimeZoneNode newTimeZoneNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectCallMethodObjArgs callFromUtc) {
+            Object tz = tzArg == PNone.NO_VALUE ? PNone.NONE : tzArg;
+            checkTzInfoNode.execute(tz);
+            Object selfTzInfo = self.getTzInfo();
+            Object offset = PNone.NONE;
+            if (selfTzInfo != PNone.NONE) {
+                if (selfTzInfo == tz) {
+                    // conversion to the own time zone is a no-op
+                    return self;
+                }
+                offset = callUtcOffsetNode.executeUtcOffset(frame, selfTzInfo, self);
+            }
+            if (offset == PNone.NONE) {
+                // naive datetimes are taken to be in local time
+                selfTzInfo = localTimeZone(frame, getContext(), localToEpochSeconds(getContext(), self), newTimeDeltaNode, newTimeZoneNode);
+                offset = callUtcOffsetNode.executeUtcOffset(frame, selfTzInfo, self);
+            }
+            long utcUs = self.toMicroseconds() - ((PTimeDelta) offset).toMicrosecondsExact();
+            int[] f = fromMicroseconds(this, utcUs);
+            if (tz == PNone.NONE) {
+                tz = localTimeZone(frame, getContext(), toEpochSeconds(f[0], f[1], f[2], f[3], f[4], f[5]), newTimeDeltaNode, newTimeZoneNode);
+            }
+            Object utc = factory().createDateTime(getClassNode.execute(self), f[0], f[1], f[2], f[3], f[4], f[5], f[6], tz, 0);
+            return callFromUtc.execute(frame, tz, T_FROMUTC, utc);
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcoffset(VirtualFrame frame, PDateTime self,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            return callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), self);
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object dst(VirtualFrame frame, PDateTime self,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            return callUtcOffsetNode.executeDst(frame, self.getTzInfo(), self);
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TzNameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object tzname(VirtualFrame frame, PDateTime self,
+                        @Cached CallTzNameNode callTzNameNode) {
+            return callTzNameNode.execute(frame, self.getTzInfo(), self);
+        }
+    }
+
+    @Builtin(name = "timetuple", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TimeTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object timetuple(VirtualFrame frame, PDateTime self,
+                        @Cached CallUtcOffsetNode callDstNode) {
+            return TimeModuleBuiltins.createStructTime(factory(), timeTuple(self, getDstFlag(frame, self, callDstNode)));
+        }
+    }
+
+    @Builtin(name = "utctimetuple", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class UtcTimeTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object utctimetuple(VirtualFrame frame, PDateTime self,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            Object offset = callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), self);
+            int[] timeTuple;
+            if (offset == PNone.NONE) {
+                timeTuple = timeTuple(self, 0);
+            } else {
+                int[] f = fromMicroseconds(this, self.toMicroseconds() - ((PTimeDelta) offset).toMicrosecondsExact());
+                timeTuple = DatetimeUtils.timeTuple(f[0], f[1], f[2], f[3], f[4], f[5], 0);
+            }
+            return TimeModuleBuiltins.createStructTime(factory(), timeTuple);
+        }
+    }
+
+    @Builtin(name = "timestamp", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TimestampNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        double timestamp(VirtualFrame frame, PDateTime self,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            if (self.hasTzInfo()) {
+                Object offset = callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), self);
+                if (offset == PNone.NONE) {
+                    throw raise(TypeError, ErrorMessages.CANT_SUBTRACT_OFFSET_NAIVE_AND_AWARE_DATETIMES);
+                }
+                long us = self.toMicroseconds() - ((PTimeDelta) offset).toMicrosecondsExact() - EPOCH_SECONDS * US_PER_SECOND;
+                return TimeDeltaBuiltins.microsecondsToSeconds(us);
+            }
+            return localToEpochSeconds(getContext(), self) + self.getMicrosecond() / 1e6;
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, parameterNames = {"$self", "sep", "timespec"})
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        TruffleString isoformat(VirtualFrame frame, PDateTime self, Object sepArg, Object timespecArg,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            String sep = "T";
+            if (sepArg != PNone.NO_VALUE) {
+                try {
+                    sep = castToJavaStringNode.execute(sepArg);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.ISOFORMAT_ARG_1_MUST_BE_UNICODE_CHAR_NOT_P, sepArg);
+                }
+                if (!isSingleCodePoint(sep)) {
+                    throw raise(TypeError, ErrorMessages.ISOFORMAT_ARG_1_MUST_BE_UNICODE_CHAR_NOT_P, sepArg);
+                }
+            }
+            int timespec = DatetimeUtils.TIMESPEC_AUTO;
+            if (timespecArg != PNone.NO_VALUE) {
+                try {
+                    timespec = DatetimeUtils.parseTimespec(castToJavaStringNode.execute(timespecArg));
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "isoformat()", 2, "str", timespecArg);
+                }
+                if (timespec == DatetimeUtils.TIMESPEC_INVALID) {
+                    throw raise(ValueError, ErrorMessages.UNKNOWN_TIMESPEC_VALUE);
+                }
+            }
+            Object offset = callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), self);
+            return format(self, sep, timespec, offset instanceof PTimeDelta ? (PTimeDelta) offset : null);
+        }
+
+        @TruffleBoundary
+        private static boolean isSingleCodePoint(String s) {
+            return s.codePointCount(0, s.length()) == 1;
+        }
+
+        @TruffleBoundary
+        static TruffleString format(PDateTime self, String sep, int timespec, PTimeDelta offset) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(PythonUtils.formatJString("%04d-%02d-%02d", self.getYear(), self.getMonth(), self.getDay())).append(sep);
+            sb.append(DatetimeUtils.formatTime(self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), timespec));
+            if (offset != null) {
+                sb.append(DatetimeUtils.formatUtcOffset(offset, ":"));
+            }
+            return PythonUtils.toTruffleStringUncached(sb.toString());
+        }
+    }
+
+    @Builtin(name = J___STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, PDateTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isDateTimeProfile,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (isDateTimeProfile.profileClass(getClassNode.execute(self), PythonBuiltinClassType.PDateTime)) {
+                Object offset = callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), self);
+                return IsoFormatNode.format(self, " ", DatetimeUtils.TIMESPEC_AUTO, offset instanceof PTimeDelta ? (PTimeDelta) offset : null);
+            }
+            return callMethod.execute(frame, self, DateBuiltins.T_ISOFORMAT, T_SPACE_SEP);
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(VirtualFrame frame, PDateTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode) {
+            String typeName = DatetimeUtils.getTpName(getClassNode.execute(self));
+            TruffleString tzinfoRepr = self.hasTzInfo() ? reprNode.execute(frame, self.getTzInfo()) : null;
+            return format(typeName, self, tzinfoRepr);
+        }
+
+        @TruffleBoundary
+        private static TruffleString format(String typeName, PDateTime self, TruffleString tzinfoRepr) {
+            StringBuilder sb = new StringBuilder(typeName).append('(');
+            sb.append(self.getYear()).append(", ").append(self.getMonth()).append(", ").append(self.getDay()).append(", ");
+            DatetimeUtils.appendTimeRepr(sb, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond());
+            if (self.getFold() != 0) {
+                sb.append(", fold=").append(self.getFold());
+            }
+            if (tzinfoRepr != null) {
+                sb.append(", tzinfo=").append(tzinfoRepr);
+            }
+            return PythonUtils.toTruffleStringUncached(sb.append(')').toString());
+        }
+    }
+
+    @Builtin(name = "ctime", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CTimeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString ctime(PDateTime self) {
+            return DatetimeUtils.formatCTime(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond());
+        }
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"})
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.TString)
+    @GenerateNodeFactory
+    abstract static class StrftimeDateTimeNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateTimeBuiltinsClinicProviders.StrftimeDateTimeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static TruffleString strftime(VirtualFrame frame, PDateTime self, TruffleString format,
+                        @Cached CallUtcOffsetNode callDstNode,
+                        @Cached StrftimeNode strftimeNode) {
+            return strftimeNode.execute(frame, self, self, format, timeTuple(self, getDstFlag(frame, self, callDstNode)));
+        }
+    }
+
+    abstract static class AbstractComparisonNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        boolean compare(VirtualFrame frame, PDateTime self, PDateTime other,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode,
+                        @Cached GetClassNode getClassNode) {
+            if (self.getTzInfo() == other.getTzInfo()) {
+                return fromCompareResult(self.compareFieldsTo(other));
+            }
+            Object offset1 = callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), self);
+            Object offset2 = callUtcOffsetNode.executeUtcOffset(frame, other.getTzInfo(), other);
+            int diff;
+            if (sameOffset(offset1, offset2)) {
+                diff = self.compareFieldsTo(other);
+            } else if (offset1 != PNone.NONE && offset2 != PNone.NONE) {
+                long us1 = self.toMicroseconds() - ((PTimeDelta) offset1).toMicrosecondsExact();
+                long us2 = other.toMicroseconds() - ((PTimeDelta) offset2).toMicrosecondsExact();
+                diff = Long.compare(us1, us2);
+            } else if (!isOrdering()) {
+                return fromCompareResult(1);
+            } else {
+                throw raise(TypeError, ErrorMessages.CANT_COMPARE_OFFSET_NAIVE_AND_AWARE_S, "datetimes");
+            }
+            if (diff == 0 && !isOrdering() && (pep495Exception(frame, self, offset1, callUtcOffsetNode, getClassNode) || pep495Exception(frame, other, offset2, callUtcOffsetNode, getClassNode))) {
+                diff = 1;
+            }
+            return fromCompareResult(diff);
+        }
+
+        @Specialization(guards = "!isDateTime(other)")
+        boolean compareDate(PDateTime self, PDate other,
+                        @Cached GetClassNode getClassNode) {
+            if (!isOrdering()) {
+                return fromCompareResult(1);
+            }
+            throw raise(TypeError, ErrorMessages.CANT_COMPARE_S_TO_S, DatetimeUtils.getTpName(getClassNode.execute(self)), DatetimeUtils.getTpName(getClassNode.execute(other)));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        static boolean isDateTime(Object object) {
+            return object instanceof PDateTime;
+        }
+
+        static boolean sameOffset(Object offset1, Object offset2) {
+            return offset1 == offset2 || offset1 instanceof PTimeDelta && offset2 instanceof PTimeDelta && ((PTimeDelta) offset1).compareTo((PTimeDelta) offset2) == 0;
+        }
+
+        /**
+         * Equivalent of CPython's {@code pep495_eq_exception}: times in a fold of their time zone
+         * never compare equal to times in other zones.
+         */
+        private boolean pep495Exception(VirtualFrame frame, PDateTime dt, Object offset, CallUtcOffsetNode callUtcOffsetNode, GetClassNode getClassNode) {
+            if (dt.getTzInfo() instanceof PTimeZone || !dt.hasTzInfo()) {
+                // the offset does not depend on the fold
+                return false;
+            }
+            PDateTime flipped = factory().createDateTime(getClassNode.execute(dt), dt.getYear(), dt.getMonth(), dt.getDay(), dt.getHour(), dt.getMinute(), dt.getSecond(), dt.getMicrosecond(),
+                            dt.getTzInfo(), 1 - dt.getFold());
+            return !sameOffset(callUtcOffsetNode.executeUtcOffset(frame, dt.getTzInfo(), flipped), offset);
+        }
+
+        @SuppressWarnings("unused")
+        protected boolean fromCompareResult(int cmp) {
+            throw new AbstractMethodError("fromCompareResult");
+        }
+
+        /**
+         * Whether this is an ordering comparison, which raises for incomparable operands, rather
+         * than {@code ==} or {@code !=}.
+         */
+        protected boolean isOrdering() {
+            return true;
+        }
+    }
+
+    @Builtin(name = J___EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp == 0;
+        }
+
+        @Override
+        protected boolean isOrdering() {
+            return false;
+        }
+    }
+
+    @Builtin(name = J___NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp != 0;
+        }
+
+        @Override
+        protected boolean isOrdering() {
+            return false;
+        }
+    }
+
+    @Builtin(name = J___LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp < 0;
+        }
+    }
+
+    @Builtin(name = J___LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp <= 0;
+        }
+    }
+
+    @Builtin(name = J___GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp > 0;
+        }
+    }
+
+    @Builtin(name = J___GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp >= 0;
+        }
+    }
+
+    @Builtin(name = J___HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        long hash(VirtualFrame frame, PDateTime self,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode,
+                        @Cached GetClassNode getClassNode) {
+            Object offset = PNone.NONE;
+            if (self.hasTzInfo()) {
+                // the hash must not depend on the fold, so the offset is that of fold=0
+                PDateTime self0 = self;
+                if (self.getFold() != 0 && !(self.getTzInfo() instanceof PTimeZone)) {
+                    self0 = factory().createDateTime(getClassNode.execute(self), self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(),
+                                    self.getMicrosecond(), self.getTzInfo(), 0);
+                }
+                offset = callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), self0);
+            }
+            if (offset == PNone.NONE) {
+                return DatetimeNodes.hashFields(self.getYear(), self.getMonth(), self.getDay(), self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond());
+            }
+            // hash like the timedelta of the UTC time, so that equal aware datetimes hash equal
+            long us = self.toMicroseconds() - ((PTimeDelta) offset).toMicrosecondsExact();
+            return DatetimeNodes.hashFields((int) Math.floorDiv(us, US_PER_DAY), (int) (Math.floorMod(us, US_PER_DAY) / US_PER_SECOND), (int) Math.floorMod(us, US_PER_SECOND));
+        }
+    }
+
+    @Builtin(name = J___ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object add(VirtualFrame frame, PDateTime self, PTimeDelta other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return addDelta(frame, this, self, other, 1, getClassNode, newDateTimeNode);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = J___RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RAddNode extends AddNode {
+    }
+
+    @Builtin(name = J___SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object subDelta(VirtualFrame frame, PDateTime self, PTimeDelta other,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewDateTimeNode newDateTimeNode) {
+            return addDelta(frame, this, self, other, -1, getClassNode, newDateTimeNode);
+        }
+
+        @Specialization
+        PTimeDelta subDateTime(VirtualFrame frame, PDateTime self, PDateTime other,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            long us = self.toMicroseconds() - other.toMicroseconds();
+            if (self.getTzInfo() != other.getTzInfo()) {
+                Object offset1 = callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), self);
+                Object offset2 = callUtcOffsetNode.executeUtcOffset(frame, other.getTzInfo(), other);
+                if ((offset1 == PNone.NONE) != (offset2 == PNone.NONE)) {
+                    throw raise(TypeError, ErrorMessages.CANT_SUBTRACT_OFFSET_NAIVE_AND_AWARE_DATETIMES);
+                }
+                if (offset1 != PNone.NONE) {
+                    us -= ((PTimeDelta) offset1).toMicrosecondsExact() - ((PTimeDelta) offset2).toMicrosecondsExact();
+                }
+            }
+            return newTimeDeltaNode.executeMicroseconds(us);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = J___REDUCE_EX__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "protocol"})
+    @ArgumentClinic(name = "protocol", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class ReduceExNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DateTimeBuiltinsClinicProviders.ReduceExNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object reduceEx(PDateTime self, int protocol,
+                        @Cached GetClassNode getClassNode) {
+            return reduce(factory(), self, protocol, getClassNode);
+        }
+
+        static Object reduce(PythonObjectFactory factory, PDateTime self, int protocol, GetClassNode getClassNode) {
+            int us = self.getMicrosecond();
+            int month = self.getFold() != 0 && protocol > 3 ? self.getMonth() + 128 : self.getMonth();
+            byte[] state = {(byte) (self.getYear() >> 8), (byte) self.getYear(), (byte) month, (byte) self.getDay(), (byte) self.getHour(), (byte) self.getMinute(), (byte) self.getSecond(),
+                            (byte) (us >> 16), (byte) (us >> 8), (byte) us};
+            Object bytes = factory.createBytes(state);
+            Object[] args = self.hasTzInfo() ? new Object[]{bytes, self.getTzInfo()} : new Object[]{bytes};
+            return factory.createTuple(new Object[]{getClassNode.execute(self), factory.createTuple(args)});
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDateTime self,
+                        @Cached GetClassNode getClassNode) {
+            return ReduceExNode.reduce(factory(), self, 2, getClassNode);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MAXYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MINYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_HOUR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_MINUTE;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_SECOND;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_WEEK;
+import static com.oracle.graal.python.nodes.BuiltinNames.J__DATETIME;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeDeltaNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeZoneNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetInternalByteArrayNode;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.util.CastToJavaBigIntegerNode;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Java counterpart of CPython's {@code _datetimemodule.c}. The {@code datetime} module imports the
+ * types defined here instead of its pure Python implementation, so that creating, comparing and
+ * doing arithmetic with dates and times does not go through Python frames.
+ */
+@CoreFunctions(defineModule = J__DATETIME)
+public final class DatetimeModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DatetimeModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        addBuiltinConstant(SpecialAttributeNames.T___DOC__, "Fast implementation of the datetime type.");
+        addBuiltinConstant("MINYEAR", MINYEAR);
+        addBuiltinConstant("MAXYEAR", MAXYEAR);
+        super.initialize(core);
+    }
+
+    /**
+     * Returns the pickled state of a date, time or datetime if {@code arg} is a {@code bytes}
+     * object of the given size whose month (or hour) byte at {@code checkIndex} is in range.
+     */
+    static byte[] getPickleState(Object arg, int size, int checkIndex, int min, int max, GetInternalByteArrayNode getBytesNode) {
+        if (arg instanceof PBytes) {
+            SequenceStorage storage = ((PBytes) arg).getSequenceStorage();
+            if (storage.length() == size) {
+                byte[] state = getBytesNode.execute(storage);
+                int value = state[checkIndex] & 0x7f;
+                if (value >= min && value <= max) {
+                    return state;
+                }
+            }
+        }
+        return null;
+    }
+
+    static Object missingArgument(PNodeWithRaise node, String function, String name, int position) {
+        throw node.raise(TypeError, ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS, function, name, position);
+    }
+
+    /**
+     * The {@code tzinfo} passed with a pickled state must be {@code None} or a {@code tzinfo}.
+     */
+    static void checkTzInfoState(PNodeWithRaise node, Object tzinfo, GetClassNode getClassNode, IsSubtypeNode isSubtypeNode) {
+        if (tzinfo != PNone.NONE && !(tzinfo instanceof PTimeZone) && !isSubtypeNode.execute(getClassNode.execute(tzinfo), PythonBuiltinClassType.PTzInfo)) {
+            throw node.raise(TypeError, ErrorMessages.BAD_TZINFO_STATE_ARG);
+        }
+    }
+
+    @Builtin(name = "timedelta", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PTimeDelta, parameterNames = {"$cls", "days", "seconds", "microseconds", "milliseconds",
+                    "minutes", "hours", "weeks"})
+    @GenerateNodeFactory
+    abstract static class TimeDeltaNode extends PythonBuiltinNode {
+        private static final String[] COMPONENT_NAMES = {"microseconds", "milliseconds", "seconds", "minutes", "hours", "days", "weeks"};
+        private static final long[] COMPONENT_FACTORS = {1, 1000, US_PER_SECOND, US_PER_MINUTE, US_PER_HOUR, US_PER_DAY, US_PER_WEEK};
+
+        @Specialization
+        PTimeDelta timedelta(VirtualFrame frame, Object cls, Object days, Object seconds, Object microseconds, Object milliseconds, Object minutes, Object hours, Object weeks,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached CastToJavaBigIntegerNode toBigIntegerNode,
+                        @Cached PyFloatAsDoubleNode asDoubleNode,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            Object[] components = {microseconds, milliseconds, seconds, minutes, hours, days, weeks};
+            Long fastResult = sumSmallInts(components);
+            if (fastResult != null) {
+                return newTimeDeltaNode.executeMicroseconds(cls, fastResult);
+            }
+            // Equivalent of CPython's accum: integral parts are summed exactly, the fractional
+            // microseconds are collected in a double and rounded once at the end
+            BigInteger sum = BigInteger.ZERO;
+            double leftover = 0;
+            for (int i = 0; i < components.length; i++) {
+                Object component = components[i];
+                if (component == PNone.NO_VALUE) {
+                    continue;
+                }
+                if (longCheckNode.execute(component)) {
+                    sum = addProduct(sum, toBigIntegerNode.execute(component), COMPONENT_FACTORS[i]);
+                } else if (component instanceof Double || component instanceof PFloat) {
+                    double value = asDoubleNode.execute(frame, component);
+                    double intPart = truncate(value);
+                    sum = addProduct(sum, toBigInteger(intPart), COMPONENT_FACTORS[i]);
+                    double fracPart = value - intPart;
+                    if (fracPart != 0) {
+                        double scaled = fracPart * COMPONENT_FACTORS[i];
+                        double scaledIntPart = truncate(scaled);
+                        sum = addProduct(sum, toBigInteger(scaledIntPart), 1);
+                        leftover += scaled - scaledIntPart;
+                    }
+                } else {
+                    throw raise(TypeError, ErrorMessages.UNSUPPORTED_TYPE_FOR_TIMEDELTA_S_COMPONENT_P, COMPONENT_NAMES[i], component);
+                }
+            }
+            if (leftover != 0) {
+                sum = addLeftover(sum, leftover);
+            }
+            return newTimeDeltaNode.executeMicroseconds(cls, sum);
+        }
+
+        /**
+         * The total in microseconds if all components are Java integers and it fits a
+         * {@code long}, otherwise {@code null}.
+         */
+        private static Long sumSmallInts(Object[] components) {
+            long total = 0;
+            for (int i = 0; i < components.length; i++) {
+                Object component = components[i];
+                long value;
+                if (component == PNone.NO_VALUE) {
+                    continue;
+                } else if (component instanceof Integer) {
+                    value = (int) component;
+                } else if (component instanceof Long) {
+                    value = (long) component;
+                } else {
+                    return null;
+                }
+                try {
+                    total = Math.addExact(total, Math.multiplyExact(value, COMPONENT_FACTORS[i]));
+                } catch (ArithmeticException e) {
+                    return null;
+                }
+            }
+            return total;
+        }
+
+        private static double truncate(double value) {
+            return value < 0 ? Math.ceil(value) : Math.floor(value);
+        }
+
+        /**
+         * Rounds half away from zero like C's {@code round}.
+         */
+        private static double roundC(double value) {
+            return Math.copySign(Math.floor(Math.abs(value) + 0.5), value);
+        }
+
+        private BigInteger toBigInteger(double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw raise(Double.isNaN(value) ? ValueError : OverflowError, ErrorMessages.CANNOT_CONVERT_FLOAT_F_TO_INT, value);
+            }
+            return bigFromDouble(value);
+        }
+
+        @TruffleBoundary
+        private static BigInteger bigFromDouble(double value) {
+            return new BigDecimal(value, MathContext.UNLIMITED).toBigInteger();
+        }
+
+        @TruffleBoundary
+        private static BigInteger addProduct(BigInteger sum, BigInteger value, long factor) {
+            return sum.add(value.multiply(BigInteger.valueOf(factor)));
+        }
+
+        @TruffleBoundary
+        private static BigInteger addLeftover(BigInteger sum, double leftover) {
+            double wholeUs = roundC(leftover);
+            if (Math.abs(wholeUs - leftover) == 0.5) {
+                // exactly halfway: round half to even, taking the parity of the sum into account
+                int odd = sum.testBit(0) ? 1 : 0;
+                wholeUs = 2.0 * roundC((leftover + odd) * 0.5) - odd;
+            }
+            return sum.add(BigInteger.valueOf((long) wholeUs));
+        }
+    }
+
+    @Builtin(name = "date", minNumOfPositionalArgs = 2, constructsClass = PythonBuiltinClassType.PDate, parameterNames = {"$cls", "year", "month", "day"})
+    @GenerateNodeFactory
+    abstract static class DateNode extends PythonBuiltinNode {
+        @Specialization
+        Object date(VirtualFrame frame, Object cls, Object year, Object month, Object day,
+                        @Cached GetInternalByteArrayNode getBytesNode,
+                        @Cached PyLongAsIntNode asIntNode) {
+            if (month == PNone.NO_VALUE && day == PNone.NO_VALUE) {
+                byte[] state = getPickleState(year, 4, 2, 1, 12, getBytesNode);
+                if (state != null) {
+                    int y = (state[0] & 0xff) << 8 | state[1] & 0xff;
+                    return factory().createDate(cls, y, state[2], state[3]);
+                }
+            }
+            int y = asIntNode.execute(frame, year);
+            int m = asIntNode.execute(frame, month == PNone.NO_VALUE ? missingArgument(this, "date", "month", 2) : month);
+            int d = asIntNode.execute(frame, day == PNone.NO_VALUE ? missingArgument(this, "date", "day", 3) : day);
+            DatetimeNodes.checkDateArgs(this, y, m, d);
+            return factory().createDate(cls, y, m, d);
+        }
+    }
+
+    @Builtin(name = "datetime", minNumOfPositionalArgs = 2, constructsClass = PythonBuiltinClassType.PDateTime, parameterNames = {"$cls", "year", "month", "day", "hour", "minute", "second",
+                    "microsecond", "tzinfo"}, keywordOnlyNames = {"fold"})
+    @GenerateNodeFactory
+    abstract static class DateTimeNode extends PythonBuiltinNode {
+        @Specialization
+        Object datetime(VirtualFrame frame, Object cls, Object year, Object month, Object day, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached GetInternalByteArrayNode getBytesNode,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsSubtypeNode isSubtypeNode) {
+            if (day == PNone.NO_VALUE && hour == PNone.NO_VALUE && minute == PNone.NO_VALUE && second == PNone.NO_VALUE && microsecond == PNone.NO_VALUE && tzinfo == PNone.NO_VALUE &&
+                            fold == PNone.NO_VALUE) {
+                byte[] state = getPickleState(year, 10, 2, 1, 12, getBytesNode);
+                if (state != null) {
+                    Object tz = month == PNone.NO_VALUE ? PNone.NONE : month;
+                    checkTzInfoState(this, tz, getClassNode, isSubtypeNode);
+                    int y = (state[0] & 0xff) << 8 | state[1] & 0xff;
+                    int us = (state[7] & 0xff) << 16 | (state[8] & 0xff) << 8 | state[9] & 0xff;
+                    int f = (state[2] & 0x80) != 0 ? 1 : 0;
+                    return factory().createDateTime(cls, y, state[2] & 0x7f, state[3], state[4], state[5], state[6], us, tz, f);
+                }
+            }
+            int y = asIntNode.execute(frame, year);
+            int m = asIntNode.execute(frame, month == PNone.NO_VALUE ? missingArgument(this, "datetime", "month", 2) : month);
+            int d = asIntNode.execute(frame, day == PNone.NO_VALUE ? missingArgument(this, "datetime", "day", 3) : day);
+            int h = hour == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, hour);
+            int mi = minute == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, minute);
+            int s = second == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, second);
+            int us = microsecond == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, microsecond);
+            Object tz = tzinfo == PNone.NO_VALUE ? PNone.NONE : tzinfo;
+            int f = fold == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, fold);
+            DatetimeNodes.checkDateArgs(this, y, m, d);
+            DatetimeNodes.checkTimeArgs(this, h, mi, s, us, f);
+            checkTzInfoNode.execute(tz);
+            return factory().createDateTime(cls, y, m, d, h, mi, s, us, tz, f);
+        }
+    }
+
+    @Builtin(name = "time", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PTime, parameterNames = {"$cls", "hour", "minute", "second", "microsecond", "tzinfo"},
+                    keywordOnlyNames = {"fold"})
+    @GenerateNodeFactory
+    abstract static class TimeNode extends PythonBuiltinNode {
+        @Specialization
+        Object time(VirtualFrame frame, Object cls, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached GetInternalByteArrayNode getBytesNode,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsSubtypeNode isSubtypeNode) {
+            if (second == PNone.NO_VALUE && microsecond == PNone.NO_VALUE && tzinfo == PNone.NO_VALUE && fold == PNone.NO_VALUE) {
+                byte[] state = getPickleState(hour, 6, 0, 0, 23, getBytesNode);
+                if (state != null) {
+                    Object tz = minute == PNone.NO_VALUE ? PNone.NONE : minute;
+                    checkTzInfoState(this, tz, getClassNode, isSubtypeNode);
+                    int us = (state[3] & 0xff) << 16 | (state[4] & 0xff) << 8 | state[5] & 0xff;
+                    int f = (state[0] & 0x80) != 0 ? 1 : 0;
+                    return factory().createTime(cls, state[0] & 0x7f, state[1], state[2], us, tz, f);
+                }
+            }
+            int h = hour == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, hour);
+            int mi = minute == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, minute);
+            int s = second == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, second);
+            int us = microsecond == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, microsecond);
+            Object tz = tzinfo == PNone.NO_VALUE ? PNone.NONE : tzinfo;
+            int f = fold == PNone.NO_VALUE ? 0 : asIntNode.execute(frame, fold);
+            DatetimeNodes.checkTimeArgs(this, h, mi, s, us, f);
+            checkTzInfoNode.execute(tz);
+            return factory().createTime(cls, h, mi, s, us, tz, f);
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PTzInfo, takesVarArgs = true, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonBuiltinNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        Object tzinfo(Object cls, Object[] args, PKeyword[] kwargs) {
+            // like CPython, the base class ignores its arguments so that subclasses can take any
+            return factory().createPythonObject(cls);
+        }
+    }
+
+    @Builtin(name = "timezone", minNumOfPositionalArgs = 2, constructsClass = PythonBuiltinClassType.PTimeZone, parameterNames = {"$cls", "offset", "name"})
+    @GenerateNodeFactory
+    abstract static class TimeZoneNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object timezone(VirtualFrame frame, @SuppressWarnings("unused") Object cls, Object offset, Object name,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached NewTimeZoneNode newTimeZoneNode) {
+            if (!(offset instanceof PTimeDelta)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "timezone()", 1, "datetime.timedelta", offset);
+            }
+            if (name != PNone.NO_VALUE && !unicodeCheckNode.execute(name)) {
+                throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "timezone()", 2, "str", name);
+            }
+            return newTimeZoneNode.execute(frame, (PTimeDelta) offset, name == PNone.NO_VALUE ? null : name);
+        }
+    }
+}
@@ -0,0 +1,584 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MAXYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MAX_DELTA_DAYS;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MINYEAR;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.SECONDS_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_SECOND;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.math.BigInteger;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.lib.PyLongAsLongAndOverflowNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Nodes shared by the {@code _datetime} builtins: constructing objects the way CPython's
+ * {@code new_*_subclass_ex} functions do, validating arguments and calling into {@code tzinfo}
+ * objects.
+ */
+public abstract class DatetimeNodes {
+
+    static final TruffleString T_UTCOFFSET = tsLiteral("utcoffset");
+    static final TruffleString T_DST = tsLiteral("dst");
+    static final TruffleString T_TZNAME = tsLiteral("tzname");
+    static final TruffleString T_FOLD = tsLiteral("fold");
+    static final TruffleString T_UTC = tsLiteral("utc");
+
+    private static final BigInteger BIG_US_PER_SECOND = BigInteger.valueOf(US_PER_SECOND);
+    private static final BigInteger BIG_SECONDS_PER_DAY = BigInteger.valueOf(SECONDS_PER_DAY);
+
+    static void checkDateArgs(PNodeWithRaise node, int year, int month, int day) {
+        if (year < MINYEAR || year > MAXYEAR) {
+            throw node.raise(ValueError, ErrorMessages.YEAR_D_IS_OUT_OF_RANGE, year);
+        }
+        if (month < 1 || month > 12) {
+            throw node.raise(ValueError, ErrorMessages.MONTH_MUST_BE_IN_1_12);
+        }
+        if (day < 1 || day > DatetimeUtils.daysInMonth(year, month)) {
+            throw node.raise(ValueError, ErrorMessages.DAY_IS_OUT_OF_RANGE_FOR_MONTH);
+        }
+    }
+
+    static void checkTimeArgs(PNodeWithRaise node, int hour, int minute, int second, int microsecond, int fold) {
+        if (hour < 0 || hour > 23) {
+            throw node.raise(ValueError, ErrorMessages.HOUR_MUST_BE_IN_0_23);
+        }
+        if (minute < 0 || minute > 59) {
+            throw node.raise(ValueError, ErrorMessages.MINUTE_MUST_BE_IN_0_59);
+        }
+        if (second < 0 || second > 59) {
+            throw node.raise(ValueError, ErrorMessages.SECOND_MUST_BE_IN_0_59);
+        }
+        if (microsecond < 0 || microsecond > 999999) {
+            throw node.raise(ValueError, ErrorMessages.MICROSECOND_MUST_BE_IN_0_999999);
+        }
+        if (fold != 0 && fold != 1) {
+            throw node.raise(ValueError, ErrorMessages.FOLD_MUST_BE_EITHER_0_OR_1);
+        }
+    }
+
+    /**
+     * Hashes the fields of an object like a tuple of ints would be hashed.
+     */
+    static long hashFields(int... fields) {
+        long multiplier = 0xf4243;
+        long hash = 0x345678;
+        for (int field : fields) {
+            hash = (hash ^ (field == -1 ? -2 : field)) * multiplier;
+            multiplier += 82520 + fields.length + fields.length;
+        }
+        hash += 97531;
+        return hash == -1 ? -2 : hash;
+    }
+
+    /**
+     * Creates a {@code timedelta} from unnormalized fields, raising {@code OverflowError} if the
+     * result is out of range.
+     */
+    public abstract static class NewTimeDeltaNode extends PNodeWithRaise {
+
+        public abstract PTimeDelta execute(Object cls, long days, long seconds, long microseconds);
+
+        public final PTimeDelta execute(long days, long seconds, long microseconds) {
+            return execute(PythonBuiltinClassType.PTimeDelta, days, seconds, microseconds);
+        }
+
+        public final PTimeDelta executeMicroseconds(Object cls, long microseconds) {
+            return execute(cls, 0, 0, microseconds);
+        }
+
+        public final PTimeDelta executeMicroseconds(long microseconds) {
+            return execute(PythonBuiltinClassType.PTimeDelta, 0, 0, microseconds);
+        }
+
+        public final PTimeDelta executeMicroseconds(Object cls, BigInteger microseconds) {
+            if (microseconds.bitLength() < Long.SIZE) {
+                return executeMicroseconds(cls, microseconds.longValue());
+            }
+            BigInteger[] secondsAndUs = divmod(microseconds, BIG_US_PER_SECOND);
+            BigInteger[] daysAndSeconds = divmod(secondsAndUs[0], BIG_SECONDS_PER_DAY);
+            if (daysAndSeconds[0].bitLength() >= Long.SIZE) {
+                throw raise(OverflowError, ErrorMessages.DAYS_D_MUST_HAVE_MAGNITUDE_LE_D, daysAndSeconds[0], MAX_DELTA_DAYS);
+            }
+            return execute(cls, longValue(daysAndSeconds[0]), longValue(daysAndSeconds[1]), longValue(secondsAndUs[1]));
+        }
+
+        public final PTimeDelta executeMicroseconds(BigInteger microseconds) {
+            return executeMicroseconds(PythonBuiltinClassType.PTimeDelta, microseconds);
+        }
+
+        @Specialization
+        PTimeDelta create(Object cls, long days, long seconds, long microseconds,
+                        @Cached ConditionProfile normalizeProfile,
+                        @Cached PythonObjectFactory factory) {
+            long d = days;
+            long s = seconds;
+            long us = microseconds;
+            if (normalizeProfile.profile(us < 0 || us >= US_PER_SECOND || s < 0 || s >= SECONDS_PER_DAY)) {
+                s += Math.floorDiv(us, US_PER_SECOND);
+                us = Math.floorMod(us, US_PER_SECOND);
+                d += Math.floorDiv(s, SECONDS_PER_DAY);
+                s = Math.floorMod(s, SECONDS_PER_DAY);
+            }
+            if (d < -MAX_DELTA_DAYS || d > MAX_DELTA_DAYS) {
+                throw raise(OverflowError, ErrorMessages.DAYS_D_MUST_HAVE_MAGNITUDE_LE_D, d, MAX_DELTA_DAYS);
+            }
+            return factory.createTimeDelta(cls, (int) d, (int) s, (int) us);
+        }
+
+        @TruffleBoundary
+        private static BigInteger[] divmod(BigInteger a, BigInteger b) {
+            BigInteger[] result = a.divideAndRemainder(b);
+            if (result[1].signum() < 0) {
+                result[0] = result[0].subtract(BigInteger.ONE);
+                result[1] = result[1].add(b);
+            }
+            return result;
+        }
+
+        @TruffleBoundary
+        private static long longValue(BigInteger value) {
+            return value.longValue();
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code new_date_subclass_ex}: creates the object directly for
+     * {@code date} and {@code datetime}, and calls other classes with {@code (year, month, day)}.
+     */
+    public abstract static class NewDateNode extends PNodeWithRaise {
+
+        public abstract Object execute(VirtualFrame frame, Object cls, int year, int month, int day);
+
+        @Specialization
+        Object create(VirtualFrame frame, Object cls, int year, int month, int day,
+                        @Cached IsBuiltinClassProfile isDateProfile,
+                        @Cached IsBuiltinClassProfile isDateTimeProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isDateProfile.profileClass(cls, PythonBuiltinClassType.PDate)) {
+                checkDateArgs(this, year, month, day);
+                return factory.createDate(cls, year, month, day);
+            } else if (isDateTimeProfile.profileClass(cls, PythonBuiltinClassType.PDateTime)) {
+                checkDateArgs(this, year, month, day);
+                return factory.createDateTime(cls, year, month, day, 0, 0, 0, 0, PNone.NONE, 0);
+            }
+            return callNode.execute(frame, cls, year, month, day);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code new_datetime_subclass_fold_ex}. Subclasses get {@code fold}
+     * as a keyword argument, and only if it is set.
+     */
+    public abstract static class NewDateTimeNode extends PNodeWithRaise {
+
+        public abstract Object execute(VirtualFrame frame, Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold);
+
+        @Specialization
+        Object create(VirtualFrame frame, Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold,
+                        @Cached IsBuiltinClassProfile isDateTimeProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isDateTimeProfile.profileClass(cls, PythonBuiltinClassType.PDateTime)) {
+                checkDateArgs(this, year, month, day);
+                checkTimeArgs(this, hour, minute, second, microsecond, fold);
+                return factory.createDateTime(cls, year, month, day, hour, minute, second, microsecond, tzinfo, fold);
+            }
+            Object[] args = {year, month, day, hour, minute, second, microsecond, tzinfo};
+            PKeyword[] kwargs = fold != 0 ? new PKeyword[]{new PKeyword(T_FOLD, fold)} : PKeyword.EMPTY_KEYWORDS;
+            return callNode.execute(frame, cls, args, kwargs);
+        }
+    }
+
+    /**
+     * Creates a {@code time} like {@link NewDateTimeNode} creates datetimes.
+     */
+    public abstract static class NewTimeNode extends PNodeWithRaise {
+
+        public abstract Object execute(VirtualFrame frame, Object cls, int hour, int minute, int second, int microsecond, Object tzinfo, int fold);
+
+        @Specialization
+        Object create(VirtualFrame frame, Object cls, int hour, int minute, int second, int microsecond, Object tzinfo, int fold,
+                        @Cached IsBuiltinClassProfile isTimeProfile,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            if (isTimeProfile.profileClass(cls, PythonBuiltinClassType.PTime)) {
+                checkTimeArgs(this, hour, minute, second, microsecond, fold);
+                return factory.createTime(cls, hour, minute, second, microsecond, tzinfo, fold);
+            }
+            Object[] args = {hour, minute, second, microsecond, tzinfo};
+            PKeyword[] kwargs = fold != 0 ? new PKeyword[]{new PKeyword(T_FOLD, fold)} : PKeyword.EMPTY_KEYWORDS;
+            return callNode.execute(frame, cls, args, kwargs);
+        }
+    }
+
+    /**
+     * Raises a {@code TypeError} unless the argument is {@code None} or a {@code tzinfo}.
+     */
+    public abstract static class CheckTzInfoNode extends PNodeWithRaise {
+
+        public abstract void execute(Object tzinfo);
+
+        @Specialization
+        void check(Object tzinfo,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsSubtypeNode isSubtypeNode) {
+            if (tzinfo != PNone.NONE && !(tzinfo instanceof PTimeZone) && !isSubtypeNode.execute(getClassNode.execute(tzinfo), PythonBuiltinClassType.PTzInfo)) {
+                throw raise(TypeError, ErrorMessages.TZINFO_ARG_MUST_BE_NONE_OR_TZINFO_SUBCLASS_NOT_P, tzinfo);
+            }
+        }
+    }
+
+    /**
+     * Calls {@code tzinfo.utcoffset(arg)} or {@code tzinfo.dst(arg)} and validates the result,
+     * like CPython's {@code call_tzinfo_method}. Returns a {@link PTimeDelta} or {@link PNone#NONE}.
+     * The offset of a {@code timezone} is read directly.
+     */
+    public abstract static class CallUtcOffsetNode extends PNodeWithRaise {
+
+        public abstract Object execute(VirtualFrame frame, Object tzinfo, Object arg, TruffleString method);
+
+        public final Object executeUtcOffset(VirtualFrame frame, Object tzinfo, Object arg) {
+            return execute(frame, tzinfo, arg, T_UTCOFFSET);
+        }
+
+        public final Object executeDst(VirtualFrame frame, Object tzinfo, Object arg) {
+            return execute(frame, tzinfo, arg, T_DST);
+        }
+
+        @Specialization
+        static Object none(@SuppressWarnings("unused") PNone tzinfo, @SuppressWarnings("unused") Object arg, @SuppressWarnings("unused") TruffleString method) {
+            return PNone.NONE;
+        }
+
+        @Specialization
+        static Object timezone(PTimeZone tzinfo, @SuppressWarnings("unused") Object arg, TruffleString method,
+                        @Cached TruffleString.EqualNode equalNode) {
+            if (equalNode.execute(method, T_UTCOFFSET, TS_ENCODING)) {
+                return tzinfo.getOffset();
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = {"!isNone(tzinfo)", "!isTimeZone(tzinfo)"})
+        Object call(VirtualFrame frame, Object tzinfo, Object arg, TruffleString method,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode) {
+            Object offset = callMethod.execute(frame, tzinfo, method, arg);
+            if (offset == PNone.NONE) {
+                return offset;
+            }
+            if (!(offset instanceof PTimeDelta)) {
+                throw raise(TypeError, ErrorMessages.TZINFO_S_MUST_RETURN_NONE_OR_TIMEDELTA_NOT_P, method, offset);
+            }
+            PTimeDelta delta = (PTimeDelta) offset;
+            if (!isValidOffset(delta)) {
+                throw raise(ValueError, ErrorMessages.OFFSET_MUST_BE_TIMEDELTA_STRICTLY_BETWEEN_S, reprNode.execute(frame, delta));
+            }
+            return delta;
+        }
+
+        static boolean isTimeZone(Object tzinfo) {
+            return tzinfo instanceof PTimeZone;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code new_timezone}: validates the offset and returns the
+     * {@code timezone.utc} singleton for a zero offset without a name.
+     */
+    public abstract static class NewTimeZoneNode extends PNodeWithRaise {
+
+        /**
+         * @param name the name or {@code null} if none was given
+         */
+        public abstract Object execute(VirtualFrame frame, PTimeDelta offset, Object name);
+
+        @Specialization
+        Object create(VirtualFrame frame, PTimeDelta offset, Object name,
+                        @Cached ConditionProfile isUtcProfile,
+                        @Cached ReadAttributeFromObjectNode readUtcNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached PythonObjectFactory factory) {
+            if (isUtcProfile.profile(name == null && offset.isZero())) {
+                return readUtcNode.execute(PythonContext.get(this).lookupType(PythonBuiltinClassType.PTimeZone), T_UTC);
+            }
+            if (!isValidOffset(offset)) {
+                throw raise(ValueError, ErrorMessages.OFFSET_MUST_BE_TIMEDELTA_STRICTLY_BETWEEN_S, reprNode.execute(frame, offset));
+            }
+            return factory.createTimeZone(offset, name);
+        }
+    }
+
+    /**
+     * Whether the timedelta lies strictly between -24 and 24 hours.
+     */
+    static boolean isValidOffset(PTimeDelta delta) {
+        int days = delta.getDays();
+        return !(days == -1 && delta.getSeconds() == 0 && delta.getMicroseconds() < 1 || days < -1 || days >= 1);
+    }
+
+    /**
+     * Calls {@code tzinfo.tzname(arg)}, returns a string or {@link PNone#NONE}.
+     */
+    public abstract static class CallTzNameNode extends PNodeWithRaise {
+
+        public abstract Object execute(VirtualFrame frame, Object tzinfo, Object arg);
+
+        @Specialization
+        static Object none(@SuppressWarnings("unused") PNone tzinfo, @SuppressWarnings("unused") Object arg) {
+            return PNone.NONE;
+        }
+
+        @Specialization
+        static Object timezone(PTimeZone tzinfo, @SuppressWarnings("unused") Object arg) {
+            return TimeZoneBuiltins.getName(tzinfo);
+        }
+
+        @Specialization(guards = {"!isNone(tzinfo)", "!isTimeZone(tzinfo)"})
+        Object call(VirtualFrame frame, Object tzinfo, Object arg,
+                        @Cached PyObjectCallMethodObjArgs callMethod,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode) {
+            Object name = callMethod.execute(frame, tzinfo, T_TZNAME, arg);
+            if (name != PNone.NONE && !unicodeCheckNode.execute(name)) {
+                throw raise(TypeError, ErrorMessages.TZINFO_TZNAME_MUST_RETURN_NONE_OR_STRING_NOT_P, name);
+            }
+            return name;
+        }
+
+        static boolean isTimeZone(Object tzinfo) {
+            return tzinfo instanceof PTimeZone;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code wrap_strftime}: replaces {@code %z}, {@code %Z} and
+     * {@code %f}, which {@code time.strftime} does not know, and formats the rest with the
+     * formatter of the {@code time} module.
+     */
+    public abstract static class StrftimeNode extends PNodeWithRaise {
+
+        /**
+         * @param object the date, time or datetime whose {@code tzinfo} and {@code microsecond}
+         *            are used
+         * @param tzinfoArg the argument passed to the {@code tzinfo} methods
+         * @param timeTuple the nine fields of a {@code struct_time}
+         */
+        public abstract TruffleString execute(VirtualFrame frame, Object object, Object tzinfoArg, TruffleString format, int[] timeTuple);
+
+        @Specialization
+        TruffleString strftime(VirtualFrame frame, Object object, Object tzinfoArg, TruffleString format, int[] timeTuple,
+                        @Cached TruffleString.ToJavaStringNode toJavaStringNode,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode,
+                        @Cached CallTzNameNode callTzNameNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            String fmt = toJavaStringNode.execute(format);
+            if (fmt.indexOf('\0') >= 0) {
+                throw raise(ValueError, ErrorMessages.EMBEDDED_NULL_CHARACTER);
+            }
+            String zReplacement = null;
+            String capitalZReplacement = null;
+            String fReplacement = null;
+            int idx = indexOfPercent(fmt, 0);
+            while (idx >= 0 && idx + 1 < fmt.length()) {
+                char c = fmt.charAt(idx + 1);
+                if (c == 'z' && zReplacement == null) {
+                    zReplacement = "";
+                    Object offset = callUtcOffsetNode.executeUtcOffset(frame, getTzInfo(object), tzinfoArg);
+                    if (offset instanceof PTimeDelta) {
+                        zReplacement = DatetimeUtils.formatUtcOffset((PTimeDelta) offset, "");
+                    }
+                } else if (c == 'Z' && capitalZReplacement == null) {
+                    capitalZReplacement = "";
+                    Object name = callTzNameNode.execute(frame, getTzInfo(object), tzinfoArg);
+                    if (name != PNone.NONE) {
+                        capitalZReplacement = castToJavaStringNode.execute(name);
+                    }
+                } else if (c == 'f' && fReplacement == null) {
+                    fReplacement = formatMicrosecond(getMicrosecond(object));
+                }
+                idx = indexOfPercent(fmt, idx + 2);
+            }
+            if (zReplacement != null || capitalZReplacement != null || fReplacement != null) {
+                fmt = replace(fmt, zReplacement, capitalZReplacement, fReplacement);
+            }
+            return TimeModuleBuiltins.strftime(fmt, timeTuple);
+        }
+
+        @TruffleBoundary
+        private static int indexOfPercent(String fmt, int from) {
+            return fmt.indexOf('%', from);
+        }
+
+        @TruffleBoundary
+        private static String formatMicrosecond(int microsecond) {
+            return PythonUtils.formatJString("%06d", microsecond);
+        }
+
+        @TruffleBoundary
+        private static String replace(String fmt, String z, String capitalZ, String f) {
+            StringBuilder sb = new StringBuilder(fmt.length());
+            int i = 0;
+            while (i < fmt.length()) {
+                char c = fmt.charAt(i);
+                if (c != '%' || i + 1 >= fmt.length()) {
+                    sb.append(c);
+                    i++;
+                    continue;
+                }
+                char next = fmt.charAt(i + 1);
+                if (next == 'z' && z != null) {
+                    sb.append(z);
+                } else if (next == 'Z' && capitalZ != null) {
+                    // the name is passed on to time.strftime, so it must not contain directives
+                    sb.append(capitalZ.replace("%", "%%"));
+                } else if (next == 'f' && f != null) {
+                    sb.append(f);
+                } else {
+                    sb.append(c).append(next);
+                }
+                i += 2;
+            }
+            return sb.toString();
+        }
+
+        private static Object getTzInfo(Object object) {
+            if (object instanceof PDateTime) {
+                return ((PDateTime) object).getTzInfo();
+            } else if (object instanceof PTime) {
+                return ((PTime) object).getTzInfo();
+            }
+            return PNone.NONE;
+        }
+
+        private static int getMicrosecond(Object object) {
+            if (object instanceof PDateTime) {
+                return ((PDateTime) object).getMicrosecond();
+            } else if (object instanceof PTime) {
+                return ((PTime) object).getMicrosecond();
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Converts a POSIX timestamp given as int or float to microseconds, like CPython's
+     * {@code _PyTime_ObjectToTimeval}. With {@code floor} the result is rounded down to whole
+     * seconds, as for {@code date.fromtimestamp}, otherwise it is rounded to the nearest
+     * microsecond with ties going to even.
+     */
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    public abstract static class TimestampToMicrosecondsNode extends PNodeWithRaise {
+
+        /** Timestamps beyond this many seconds are far out of the range of {@code datetime}. */
+        private static final double MAX_SECONDS = 1e12;
+
+        public abstract long execute(VirtualFrame frame, Object timestamp, boolean floor);
+
+        @Specialization
+        long doDouble(double timestamp, boolean floor) {
+            if (Double.isNaN(timestamp)) {
+                throw raise(ValueError, ErrorMessages.INVALID_VALUE_NAN);
+            }
+            if (!(Math.abs(timestamp) < MAX_SECONDS)) {
+                throw raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+            }
+            if (floor) {
+                return (long) Math.floor(timestamp) * US_PER_SECOND;
+            }
+            double intPart = timestamp >= 0 ? Math.floor(timestamp) : Math.ceil(timestamp);
+            double us = Math.rint((timestamp - intPart) * 1e6);
+            return (long) intPart * US_PER_SECOND + (long) us;
+        }
+
+        @Specialization
+        long doLong(long timestamp, @SuppressWarnings("unused") boolean floor) {
+            if (Math.abs(timestamp) >= MAX_SECONDS) {
+                throw raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+            }
+            return timestamp * US_PER_SECOND;
+        }
+
+        @Specialization(guards = "!isPFloat(timestamp)")
+        long doOther(VirtualFrame frame, Object timestamp, boolean floor,
+                        @Cached PyLongAsLongAndOverflowNode asLongNode) {
+            try {
+                return doLong(asLongNode.execute(frame, timestamp), floor);
+            } catch (OverflowException e) {
+                throw raise(OverflowError, ErrorMessages.TIMESTAMP_OUT_OF_RANGE);
+            }
+        }
+    }
+}
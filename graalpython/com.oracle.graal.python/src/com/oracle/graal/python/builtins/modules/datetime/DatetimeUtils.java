@@ -0,0 +1,578 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.TimeZone;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes.GetNameNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Calendar arithmetic, formatting and parsing shared by the {@code _datetime} builtins. Mostly a
+ * port of the corresponding static helpers in CPython's {@code _datetimemodule.c}.
+ */
+public final class DatetimeUtils {
+
+    public static final int MINYEAR = 1;
+    public static final int MAXYEAR = 9999;
+    /** The ordinal of {@code date.max}. */
+    static final int MAXORDINAL = 3652059;
+    static final int MAX_DELTA_DAYS = 999999999;
+
+    static final long US_PER_SECOND = 1000000L;
+    static final long US_PER_MINUTE = 60 * US_PER_SECOND;
+    static final long US_PER_HOUR = 60 * US_PER_MINUTE;
+    static final long US_PER_DAY = 24 * US_PER_HOUR;
+    static final long US_PER_WEEK = 7 * US_PER_DAY;
+    static final int SECONDS_PER_DAY = 24 * 3600;
+
+    /** Seconds between 0001-01-01T00:00 and the Unix epoch. */
+    static final long EPOCH_SECONDS = 719163L * SECONDS_PER_DAY;
+
+    private static final int[] DAYS_IN_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] DAYS_BEFORE_MONTH = {0, 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    private static final String[] DAY_NAMES = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private static final String[] MONTH_NAMES = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    /** The accepted {@code timespec} values of {@code isoformat}, in order of precision. */
+    private static final String[] TIMESPECS = {"hours", "minutes", "seconds", "milliseconds", "microseconds"};
+    static final int TIMESPEC_AUTO = -1;
+    static final int TIMESPEC_INVALID = -2;
+
+    private DatetimeUtils() {
+    }
+
+    static boolean isLeap(int year) {
+        return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int daysInMonth(int year, int month) {
+        assert month >= 1 && month <= 12;
+        if (month == 2 && isLeap(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month];
+    }
+
+    static int daysBeforeMonth(int year, int month) {
+        assert month >= 1 && month <= 12;
+        int days = DAYS_BEFORE_MONTH[month];
+        if (month > 2 && isLeap(year)) {
+            days++;
+        }
+        return days;
+    }
+
+    static int daysBeforeYear(int year) {
+        int y = year - 1;
+        assert year >= 1;
+        return y * 365 + y / 4 - y / 100 + y / 400;
+    }
+
+    /**
+     * The proleptic Gregorian ordinal of the date, 0001-01-01 is day 1.
+     */
+    static int ymdToOrd(int year, int month, int day) {
+        return daysBeforeYear(year) + daysBeforeMonth(year, month) + day;
+    }
+
+    private static final int DI400Y = 146097; // days in 400 years
+    private static final int DI100Y = 36524; // days in 100 years
+    private static final int DI4Y = 1461; // days in 4 years
+
+    /**
+     * The inverse of {@link #ymdToOrd}, returns {@code {year, month, day}}.
+     */
+    static int[] ordToYmd(int ordinal) {
+        /*
+         * The 400-year cycle starts on 0001-01-01; 100, 4 and 1 year cycles are peeled off the
+         * remaining days, see CPython's ord_to_ymd for the details.
+         */
+        int n = ordinal - 1;
+        int n400 = n / DI400Y;
+        n = n % DI400Y;
+        int year = n400 * 400 + 1;
+
+        int n100 = n / DI100Y;
+        n = n % DI100Y;
+
+        int n4 = n / DI4Y;
+        n = n % DI4Y;
+
+        int n1 = n / 365;
+        n = n % 365;
+
+        year += n100 * 100 + n4 * 4 + n1;
+        if (n1 == 4 || n100 == 4) {
+            // the last day of a leap year
+            assert n == 0;
+            return new int[]{year - 1, 12, 31};
+        }
+
+        boolean leapyear = n1 == 3 && (n4 != 24 || n100 == 3);
+        assert leapyear == isLeap(year);
+        int month = (n + 50) >> 5;
+        int preceding = DAYS_BEFORE_MONTH[month] + (month > 2 && leapyear ? 1 : 0);
+        if (preceding > n) {
+            month--;
+            preceding -= daysInMonth(year, month);
+        }
+        n -= preceding;
+        assert 0 <= n && n < daysInMonth(year, month);
+        return new int[]{year, month, n + 1};
+    }
+
+    /**
+     * The day of the week, Monday is 0.
+     */
+    static int weekday(int year, int month, int day) {
+        return (ymdToOrd(year, month, day) + 6) % 7;
+    }
+
+    /**
+     * The ordinal of the Monday starting ISO week 1 of the year.
+     */
+    static int isoWeek1Monday(int year) {
+        int firstDay = ymdToOrd(year, 1, 1);
+        int firstWeekday = (firstDay + 6) % 7;
+        int week1Monday = firstDay - firstWeekday;
+        if (firstWeekday > 3) {
+            week1Monday += 7;
+        }
+        return week1Monday;
+    }
+
+    /**
+     * Returns {@code {year, week, weekday}} of the ISO calendar.
+     */
+    static int[] isoCalendar(int year, int month, int day) {
+        int isoYear = year;
+        int week1Monday = isoWeek1Monday(isoYear);
+        int today = ymdToOrd(year, month, day);
+        int week = Math.floorDiv(today - week1Monday, 7);
+        int weekday = Math.floorMod(today - week1Monday, 7);
+        if (week < 0) {
+            isoYear--;
+            week1Monday = isoWeek1Monday(isoYear);
+            week = Math.floorDiv(today - week1Monday, 7);
+            weekday = Math.floorMod(today - week1Monday, 7);
+        } else if (week >= 52 && today >= isoWeek1Monday(isoYear + 1)) {
+            isoYear++;
+            week = 0;
+        }
+        return new int[]{isoYear, week + 1, weekday + 1};
+    }
+
+    static long timeToMicroseconds(int hour, int minute, int second, int microsecond) {
+        return hour * US_PER_HOUR + minute * US_PER_MINUTE + second * US_PER_SECOND + microsecond;
+    }
+
+    /**
+     * Builds the nine fields of a {@code struct_time}.
+     */
+    static int[] timeTuple(int year, int month, int day, int hour, int minute, int second, int dstFlag) {
+        return new int[]{year, month, day, hour, minute, second, weekday(year, month, day), daysBeforeMonth(year, month) + day, dstFlag};
+    }
+
+    /**
+     * Equivalent of CPython's {@code Py_TYPE(obj)->tp_name}, used in the reprs.
+     */
+    @TruffleBoundary
+    static String getTpName(Object cls) {
+        if (cls instanceof PythonBuiltinClassType) {
+            return ((PythonBuiltinClassType) cls).getPrintName().toJavaStringUncached();
+        } else if (cls instanceof PythonBuiltinClass) {
+            return ((PythonBuiltinClass) cls).getType().getPrintName().toJavaStringUncached();
+        }
+        return GetNameNode.getUncached().execute(cls).toJavaStringUncached();
+    }
+
+    // formatting
+
+    @TruffleBoundary
+    static TruffleString formatDate(int year, int month, int day) {
+        return PythonUtils.toTruffleStringUncached(PythonUtils.formatJString("%04d-%02d-%02d", year, month, day));
+    }
+
+    /**
+     * Returns the index of {@code timespec} in {@link #TIMESPECS}, or {@link #TIMESPEC_AUTO} or
+     * {@link #TIMESPEC_INVALID}.
+     */
+    @TruffleBoundary
+    static int parseTimespec(String timespec) {
+        if (timespec == null || timespec.equals("auto")) {
+            return TIMESPEC_AUTO;
+        }
+        for (int i = 0; i < TIMESPECS.length; i++) {
+            if (TIMESPECS[i].equals(timespec)) {
+                return i;
+            }
+        }
+        return TIMESPEC_INVALID;
+    }
+
+    /**
+     * Formats the time for {@code isoformat}, {@code timespec} is a valid result of
+     * {@link #parseTimespec}.
+     */
+    @TruffleBoundary
+    static String formatTime(int hour, int minute, int second, int microsecond, int timespec) {
+        int spec = timespec;
+        if (spec == TIMESPEC_AUTO) {
+            spec = microsecond == 0 ? 2 : 4;
+        }
+        switch (spec) {
+            case 0:
+                return PythonUtils.formatJString("%02d", hour);
+            case 1:
+                return PythonUtils.formatJString("%02d:%02d", hour, minute);
+            case 2:
+                return PythonUtils.formatJString("%02d:%02d:%02d", hour, minute, second);
+            case 3:
+                return PythonUtils.formatJString("%02d:%02d:%02d.%03d", hour, minute, second, microsecond / 1000);
+            default:
+                return PythonUtils.formatJString("%02d:%02d:%02d.%06d", hour, minute, second, microsecond);
+        }
+    }
+
+    /**
+     * Formats a UTC offset of less than a day like CPython's {@code format_utcoffset}: the sign,
+     * hours and minutes, and seconds and microseconds only if they are not zero.
+     */
+    @TruffleBoundary
+    static String formatUtcOffset(PTimeDelta offset, String sep) {
+        StringBuilder sb = new StringBuilder();
+        appendOffset(sb, offset, sep);
+        return sb.toString();
+    }
+
+    private static void appendOffset(StringBuilder sb, PTimeDelta offset, String sep) {
+        long us = (long) offset.getDays() * US_PER_DAY + offset.getSeconds() * US_PER_SECOND + offset.getMicroseconds();
+        char sign = '+';
+        if (us < 0) {
+            sign = '-';
+            us = -us;
+        }
+        int microseconds = (int) (us % US_PER_SECOND);
+        int seconds = (int) (us / US_PER_SECOND % 60);
+        int minutes = (int) (us / US_PER_MINUTE % 60);
+        int hours = (int) (us / US_PER_HOUR);
+        sb.append(sign).append(PythonUtils.formatJString("%02d%s%02d", hours, sep, minutes));
+        if (microseconds != 0) {
+            sb.append(PythonUtils.formatJString("%s%02d.%06d", sep, seconds, microseconds));
+        } else if (seconds != 0) {
+            sb.append(PythonUtils.formatJString("%s%02d", sep, seconds));
+        }
+    }
+
+    /**
+     * The default name of a {@code timezone}, e.g. {@code UTC+05:30}.
+     */
+    @TruffleBoundary
+    static TruffleString formatTimeZoneName(PTimeDelta offset) {
+        if (offset.isZero()) {
+            return PythonUtils.toTruffleStringUncached("UTC");
+        }
+        StringBuilder sb = new StringBuilder("UTC");
+        appendOffset(sb, offset, ":");
+        return PythonUtils.toTruffleStringUncached(sb.toString());
+    }
+
+    @TruffleBoundary
+    static TruffleString formatTimeDelta(PTimeDelta delta) {
+        StringBuilder sb = new StringBuilder();
+        int days = delta.getDays();
+        if (days != 0) {
+            sb.append(days).append(" day").append(days == 1 || days == -1 ? "" : "s").append(", ");
+        }
+        int seconds = delta.getSeconds();
+        sb.append(PythonUtils.formatJString("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60));
+        if (delta.getMicroseconds() != 0) {
+            sb.append(PythonUtils.formatJString(".%06d", delta.getMicroseconds()));
+        }
+        return PythonUtils.toTruffleStringUncached(sb.toString());
+    }
+
+    @TruffleBoundary
+    static TruffleString formatTimeDeltaRepr(String typeName, PTimeDelta delta) {
+        StringBuilder sb = new StringBuilder(typeName).append('(');
+        String sep = "";
+        if (delta.getDays() != 0) {
+            sb.append("days=").append(delta.getDays());
+            sep = ", ";
+        }
+        if (delta.getSeconds() != 0) {
+            sb.append(sep).append("seconds=").append(delta.getSeconds());
+            sep = ", ";
+        }
+        if (delta.getMicroseconds() != 0) {
+            sb.append(sep).append("microseconds=").append(delta.getMicroseconds());
+            sep = ", ";
+        }
+        if (sep.isEmpty()) {
+            sb.append('0');
+        }
+        return PythonUtils.toTruffleStringUncached(sb.append(')').toString());
+    }
+
+    @TruffleBoundary
+    static TruffleString formatCTime(int year, int month, int day, int hour, int minute, int second) {
+        return PythonUtils.toTruffleStringUncached(PythonUtils.formatJString("%s %s %2d %02d:%02d:%02d %04d", DAY_NAMES[weekday(year, month, day)], MONTH_NAMES[month - 1], day, hour, minute, second, year));
+    }
+
+    /**
+     * Formats the fields of a time for the reprs of {@code time} and {@code datetime}, leaving out
+     * trailing zero seconds and microseconds.
+     */
+    static void appendTimeRepr(StringBuilder sb, int hour, int minute, int second, int microsecond) {
+        sb.append(hour).append(", ").append(minute);
+        if (microsecond != 0) {
+            sb.append(", ").append(second).append(", ").append(microsecond);
+        } else if (second != 0) {
+            sb.append(", ").append(second);
+        }
+    }
+
+    // parsing of isoformat strings, see CPython's parse_isoformat_date and friends
+
+    /** Successfully parsed, no UTC offset. */
+    static final int ISO_OK = 0;
+    /** Successfully parsed with a UTC offset. */
+    static final int ISO_OK_WITH_OFFSET = 1;
+    static final int ISO_ERROR = -1;
+
+    private static char charAt(String s, int i) {
+        return i < s.length() ? s.charAt(i) : '\0';
+    }
+
+    /**
+     * Parses exactly {@code n} ASCII digits, returns -1 if there are not enough.
+     */
+    private static int parseDigits(String s, int start, int n) {
+        int value = 0;
+        for (int i = start; i < start + n; i++) {
+            char c = charAt(s, i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses {@code YYYY-MM-DD} at the start of the string into {@code result[0..2]}.
+     */
+    static int parseIsoDate(String s, int[] result) {
+        int year = parseDigits(s, 0, 4);
+        if (year < 0 || charAt(s, 4) != '-') {
+            return ISO_ERROR;
+        }
+        int month = parseDigits(s, 5, 2);
+        if (month < 0 || charAt(s, 7) != '-') {
+            return ISO_ERROR;
+        }
+        int day = parseDigits(s, 8, 2);
+        if (day < 0) {
+            return ISO_ERROR;
+        }
+        result[0] = year;
+        result[1] = month;
+        result[2] = day;
+        return ISO_OK;
+    }
+
+    /**
+     * Parses {@code HH[:MM[:SS[.fff[fff]]]]} between {@code start} and {@code end} into
+     * {@code result[offset..offset+3]}. Returns 1 if the character at {@code end} is not the end
+     * of the string, 0 if it is, and {@link #ISO_ERROR} if the string is malformed.
+     */
+    private static int parseHhMmSsFf(String s, int start, int end, int[] result, int offset) {
+        int p = start;
+        for (int i = 0; i < 3; i++) {
+            int value = parseDigits(s, p, 2);
+            if (value < 0) {
+                return ISO_ERROR;
+            }
+            result[offset + i] = value;
+            p += 2;
+            char c = charAt(s, p++);
+            if (p >= end) {
+                return c != '\0' ? 1 : 0;
+            } else if (c == ':') {
+                continue;
+            } else if (c == '.') {
+                break;
+            } else {
+                return ISO_ERROR;
+            }
+        }
+        int remaining = end - p;
+        if (remaining != 6 && remaining != 3) {
+            return ISO_ERROR;
+        }
+        int us = parseDigits(s, p, remaining);
+        if (us < 0) {
+            return ISO_ERROR;
+        }
+        result[offset + 3] = remaining == 3 ? us * 1000 : us;
+        return charAt(s, p + remaining) != '\0' ? 1 : 0;
+    }
+
+    /**
+     * Parses {@code HH[:MM[:SS[.fff[fff]]]][+HH:MM[:SS[.ffffff]]]} starting at {@code start}. The
+     * time goes to {@code result[0..3]}, the UTC offset in seconds and microseconds to
+     * {@code result[4..5]}.
+     */
+    static int parseIsoTime(String s, int start, int[] result) {
+        int end = s.length();
+        int tzPos = start;
+        while (tzPos < end) {
+            char c = s.charAt(tzPos);
+            if (c == '+' || c == '-') {
+                break;
+            }
+            tzPos++;
+        }
+        int rv = parseHhMmSsFf(s, start, tzPos, result, 0);
+        if (rv < 0) {
+            return rv;
+        } else if (tzPos == end) {
+            return rv == 1 ? ISO_ERROR : ISO_OK;
+        }
+        int tzLen = end - tzPos;
+        if (tzLen != 6 && tzLen != 9 && tzLen != 16) {
+            return ISO_ERROR;
+        }
+        int sign = s.charAt(tzPos) == '-' ? -1 : 1;
+        int[] tz = new int[4];
+        rv = parseHhMmSsFf(s, tzPos + 1, end, tz, 0);
+        result[4] = sign * (tz[0] * 3600 + tz[1] * 60 + tz[2]);
+        result[5] = sign * tz[3];
+        return rv != 0 ? ISO_ERROR : ISO_OK_WITH_OFFSET;
+    }
+
+    // local time, using the zone of the time module
+
+    /**
+     * The current POSIX time in microseconds.
+     */
+    @TruffleBoundary
+    static long currentTimeMicroseconds() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * US_PER_SECOND + now.getNano() / 1000;
+    }
+
+    /**
+     * Converts a POSIX timestamp to local or UTC broken down time. Returns
+     * {@code {year, month, day, hour, minute, second, fold}}, or {@code null} if the timestamp is
+     * out of range.
+     */
+    @TruffleBoundary
+    static int[] fromTimestamp(long seconds, ZoneId zone) {
+        ZonedDateTime zdt;
+        try {
+            zdt = Instant.ofEpochSecond(seconds).atZone(zone == null ? ZoneOffset.UTC : zone);
+        } catch (DateTimeException e) {
+            return null;
+        }
+        int fold = 0;
+        if (zone != null) {
+            ZoneOffsetTransition transition = zone.getRules().getTransition(zdt.toLocalDateTime());
+            if (transition != null && transition.isOverlap() && zdt.getOffset().equals(transition.getOffsetAfter())) {
+                fold = 1;
+            }
+        }
+        return new int[]{zdt.getYear(), zdt.getMonthValue(), zdt.getDayOfMonth(), zdt.getHour(), zdt.getMinute(), zdt.getSecond(), fold};
+    }
+
+    /**
+     * The offset from UTC in seconds of the given naive local time. In a gap or an overlap,
+     * {@code fold == 0} picks the offset before the transition and {@code fold == 1} the one
+     * after, which is what CPython's {@code local_to_seconds} does.
+     */
+    @TruffleBoundary
+    static int localUtcOffset(ZoneId zone, int year, int month, int day, int hour, int minute, int second, int fold) {
+        LocalDateTime ldt = LocalDateTime.of(year, month, day, hour, minute, second);
+        ZoneOffsetTransition transition = zone.getRules().getTransition(ldt);
+        if (transition != null) {
+            return (fold == 0 ? transition.getOffsetBefore() : transition.getOffsetAfter()).getTotalSeconds();
+        }
+        return zone.getRules().getOffset(ldt).getTotalSeconds();
+    }
+
+    /**
+     * The offset from UTC in seconds of the zone at the given timestamp.
+     */
+    @TruffleBoundary
+    static int localUtcOffsetAt(ZoneId zone, long seconds) {
+        return zone.getRules().getOffset(Instant.ofEpochSecond(seconds)).getTotalSeconds();
+    }
+
+    /**
+     * The name of the local zone at the given timestamp, as in {@code time.localtime().tm_zone}.
+     */
+    @TruffleBoundary
+    static TruffleString localZoneName(ZoneId zone, long seconds) {
+        boolean dst = zone.getRules().isDaylightSavings(Instant.ofEpochSecond(seconds));
+        return PythonUtils.toTruffleStringUncached(TimeZone.getTimeZone(zone).getDisplayName(dst, TimeZone.SHORT));
+    }
+
+    /**
+     * Whether daylight saving time is in effect at the given timestamp.
+     */
+    @TruffleBoundary
+    static boolean isDaylightSavings(ZoneId zone, long seconds) {
+        return zone.getRules().isDaylightSavings(Instant.ofEpochSecond(seconds));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code datetime.datetime}. The {@code tzinfo} is {@link PNone#NONE} for naive datetimes.
+ */
+public final class PDateTime extends PDate {
+
+    private final int hour;
+    private final int minute;
+    private final int second;
+    private final int microsecond;
+    private final Object tzinfo;
+    private final int fold;
+
+    public PDateTime(Object cls, Shape instanceShape, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        super(cls, instanceShape, year, month, day);
+        this.hour = hour;
+        this.minute = minute;
+        this.second = second;
+        this.microsecond = microsecond;
+        this.tzinfo = tzinfo;
+        this.fold = fold;
+    }
+
+    public int getHour() {
+        return hour;
+    }
+
+    public int getMinute() {
+        return minute;
+    }
+
+    public int getSecond() {
+        return second;
+    }
+
+    public int getMicrosecond() {
+        return microsecond;
+    }
+
+    public Object getTzInfo() {
+        return tzinfo;
+    }
+
+    public boolean hasTzInfo() {
+        return tzinfo != PNone.NONE;
+    }
+
+    public int getFold() {
+        return fold;
+    }
+
+    /**
+     * The number of microseconds since 0000-12-31, i.e., the ordinal in days plus the time.
+     */
+    long toMicroseconds() {
+        return toOrdinal() * DatetimeUtils.US_PER_DAY + DatetimeUtils.timeToMicroseconds(hour, minute, second, microsecond);
+    }
+
+    /**
+     * Compares all fields except {@code tzinfo} and {@code fold}.
+     */
+    int compareFieldsTo(PDateTime other) {
+        int result = compareDateTo(other);
+        if (result != 0) {
+            return result;
+        }
+        return Long.compare(DatetimeUtils.timeToMicroseconds(hour, minute, second, microsecond),
+                        DatetimeUtils.timeToMicroseconds(other.hour, other.minute, other.second, other.microsecond));
+    }
+}
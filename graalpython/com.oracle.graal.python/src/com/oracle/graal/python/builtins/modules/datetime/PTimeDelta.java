@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code datetime.timedelta}. The fields are always normalized: {@code 0 <= seconds < 86400},
+ * {@code 0 <= microseconds < 1000000} and {@code |days| <= 999999999}.
+ */
+public final class PTimeDelta extends PythonBuiltinObject {
+
+    private final int days;
+    private final int seconds;
+    private final int microseconds;
+
+    public PTimeDelta(Object cls, Shape instanceShape, int days, int seconds, int microseconds) {
+        super(cls, instanceShape);
+        this.days = days;
+        this.seconds = seconds;
+        this.microseconds = microseconds;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public int getMicroseconds() {
+        return microseconds;
+    }
+
+    /**
+     * The total number of microseconds, or throws {@link ArithmeticException} if that does not fit
+     * a {@code long}, which only happens for more than about 106 million days.
+     */
+    long toMicrosecondsExact() {
+        return Math.addExact(Math.multiplyExact(days, DatetimeUtils.US_PER_DAY), seconds * DatetimeUtils.US_PER_SECOND + microseconds);
+    }
+
+    boolean isZero() {
+        return days == 0 && seconds == 0 && microseconds == 0;
+    }
+
+    int compareTo(PTimeDelta other) {
+        if (days != other.days) {
+            return days < other.days ? -1 : 1;
+        }
+        if (seconds != other.seconds) {
+            return seconds < other.seconds ? -1 : 1;
+        }
+        return Integer.compare(microseconds, other.microseconds);
+    }
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.SECONDS_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_SECOND;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE_EX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___STR__;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.CallTzNameNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.CallUtcOffsetNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.CheckTzInfoNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeDeltaNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeZoneNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.StrftimeNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.lib.PyObjectStrAsObjectNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTime)
+public final class TimeBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        addBuiltinConstant("min", core.factory().createTime(PythonBuiltinClassType.PTime, 0, 0, 0, 0, PNone.NONE, 0));
+        addBuiltinConstant("max", core.factory().createTime(PythonBuiltinClassType.PTime, 23, 59, 59, 999999, PNone.NONE, 0));
+        addBuiltinConstant("resolution", core.factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, 0, 0, 1));
+        super.initialize(core);
+    }
+
+    /**
+     * The UTC offset of a time. The {@code tzinfo} methods of times are called with {@code None}.
+     */
+    static PTimeDelta getUtcOffset(VirtualFrame frame, PTime self, CallUtcOffsetNode callUtcOffsetNode) {
+        Object offset = callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), PNone.NONE);
+        return offset instanceof PTimeDelta ? (PTimeDelta) offset : null;
+    }
+
+    @Builtin(name = "hour", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class HourNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getHour();
+        }
+    }
+
+    @Builtin(name = "minute", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MinuteNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getMinute();
+        }
+    }
+
+    @Builtin(name = "second", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getSecond();
+        }
+    }
+
+    @Builtin(name = "microsecond", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getMicrosecond();
+        }
+    }
+
+    @Builtin(name = "tzinfo", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class TzInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PTime self) {
+            return self.getTzInfo();
+        }
+    }
+
+    @Builtin(name = "fold", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class FoldNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTime self) {
+            return self.getFold();
+        }
+    }
+
+    @Builtin(name = "fromisoformat", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "time_string"})
+    @GenerateNodeFactory
+    abstract static class FromIsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromIsoFormat(VirtualFrame frame, Object cls, Object timeString,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode,
+                        @Cached NewTimeZoneNode newTimeZoneNode,
+                        @Cached NewTimeNode newTimeNode) {
+            if (!unicodeCheckNode.execute(timeString)) {
+                throw raise(TypeError, ErrorMessages.FROMISOFORMAT_ARG_MUST_BE_STR);
+            }
+            int[] time = new int[6];
+            int rv = DatetimeUtils.parseIsoTime(castToJavaStringNode.execute(timeString), 0, time);
+            if (rv < 0) {
+                throw raise(ValueError, ErrorMessages.INVALID_ISOFORMAT_STRING_S, reprNode.execute(frame, timeString));
+            }
+            Object tzinfo = PNone.NONE;
+            if (rv == DatetimeUtils.ISO_OK_WITH_OFFSET) {
+                tzinfo = newTimeZoneNode.execute(frame, newTimeDeltaNode.execute(0, time[4], time[5]), null);
+            }
+            return newTimeNode.execute(frame, cls, time[0], time[1], time[2], time[3], tzinfo, 0);
+        }
+    }
+
+    @Builtin(name = "replace", minNumOfPositionalArgs = 1, parameterNames = {"$self", "hour", "minute", "second", "microsecond", "tzinfo"}, keywordOnlyNames = {"fold"})
+    @GenerateNodeFactory
+    abstract static class ReplaceNode extends PythonBuiltinNode {
+        @Specialization
+        Object replace(VirtualFrame frame, PTime self, Object hour, Object minute, Object second, Object microsecond, Object tzinfo, Object fold,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @Cached CheckTzInfoNode checkTzInfoNode,
+                        @Cached GetClassNode getClassNode) {
+            int h = hour == PNone.NO_VALUE ? self.getHour() : asIntNode.execute(frame, hour);
+            int mi = minute == PNone.NO_VALUE ? self.getMinute() : asIntNode.execute(frame, minute);
+            int s = second == PNone.NO_VALUE ? self.getSecond() : asIntNode.execute(frame, second);
+            int us = microsecond == PNone.NO_VALUE ? self.getMicrosecond() : asIntNode.execute(frame, microsecond);
+            Object tz = tzinfo == PNone.NO_VALUE ? self.getTzInfo() : tzinfo;
+            int f = fold == PNone.NO_VALUE ? self.getFold() : asIntNode.execute(frame, fold);
+            DatetimeNodes.checkTimeArgs(this, h, mi, s, us, f);
+            checkTzInfoNode.execute(tz);
+            return factory().createTime(getClassNode.execute(self), h, mi, s, us, tz, f);
+        }
+    }
+
+    @Builtin(name = "isoformat", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timespec"})
+    @GenerateNodeFactory
+    abstract static class IsoFormatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        TruffleString isoformat(VirtualFrame frame, PTime self, Object timespecArg,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            int timespec = DatetimeUtils.TIMESPEC_AUTO;
+            if (timespecArg != PNone.NO_VALUE) {
+                try {
+                    timespec = DatetimeUtils.parseTimespec(castToJavaStringNode.execute(timespecArg));
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "isoformat()", 1, "str", timespecArg);
+                }
+                if (timespec == DatetimeUtils.TIMESPEC_INVALID) {
+                    throw raise(ValueError, ErrorMessages.UNKNOWN_TIMESPEC_VALUE);
+                }
+            }
+            return format(self, timespec, getUtcOffset(frame, self, callUtcOffsetNode));
+        }
+
+        @TruffleBoundary
+        static TruffleString format(PTime self, int timespec, PTimeDelta offset) {
+            String result = DatetimeUtils.formatTime(self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond(), timespec);
+            if (offset != null) {
+                result += DatetimeUtils.formatUtcOffset(offset, ":");
+            }
+            return PythonUtils.toTruffleStringUncached(result);
+        }
+    }
+
+    @Builtin(name = J___STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object str(VirtualFrame frame, PTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached IsBuiltinClassProfile isTimeProfile,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (isTimeProfile.profileClass(getClassNode.execute(self), PythonBuiltinClassType.PTime)) {
+                return IsoFormatNode.format(self, DatetimeUtils.TIMESPEC_AUTO, getUtcOffset(frame, self, callUtcOffsetNode));
+            }
+            return callMethod.execute(frame, self, DateBuiltins.T_ISOFORMAT);
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(VirtualFrame frame, PTime self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode) {
+            String typeName = DatetimeUtils.getTpName(getClassNode.execute(self));
+            TruffleString tzinfoRepr = self.hasTzInfo() ? reprNode.execute(frame, self.getTzInfo()) : null;
+            return format(typeName, self, tzinfoRepr);
+        }
+
+        @TruffleBoundary
+        private static TruffleString format(String typeName, PTime self, TruffleString tzinfoRepr) {
+            StringBuilder sb = new StringBuilder(typeName).append('(');
+            DatetimeUtils.appendTimeRepr(sb, self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond());
+            if (tzinfoRepr != null) {
+                sb.append(", tzinfo=").append(tzinfoRepr);
+            }
+            if (self.getFold() != 0) {
+                sb.append(", fold=").append(self.getFold());
+            }
+            return PythonUtils.toTruffleStringUncached(sb.append(')').toString());
+        }
+    }
+
+    @Builtin(name = "strftime", minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"})
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.TString)
+    @GenerateNodeFactory
+    abstract static class StrftimeTimeNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TimeBuiltinsClinicProviders.StrftimeTimeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static TruffleString strftime(VirtualFrame frame, PTime self, TruffleString format,
+                        @Cached StrftimeNode strftimeNode) {
+            // the date fields are those of 1900-01-01, as in CPython
+            int[] timeTuple = DatetimeUtils.timeTuple(1900, 1, 1, self.getHour(), self.getMinute(), self.getSecond(), -1);
+            return strftimeNode.execute(frame, self, PNone.NONE, format, timeTuple);
+        }
+    }
+
+    @Builtin(name = J___FORMAT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "format"})
+    @ArgumentClinic(name = "format", conversion = ClinicConversion.TString)
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TimeBuiltinsClinicProviders.FormatNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static Object format(VirtualFrame frame, Object self, TruffleString format,
+                        @Cached PyObjectStrAsObjectNode strNode,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            if (format.isEmpty()) {
+                return strNode.execute(frame, self);
+            }
+            return callMethod.execute(frame, self, DateBuiltins.T_STRFTIME, format);
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object utcoffset(VirtualFrame frame, PTime self,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            return callUtcOffsetNode.executeUtcOffset(frame, self.getTzInfo(), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object dst(VirtualFrame frame, PTime self,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            return callUtcOffsetNode.executeDst(frame, self.getTzInfo(), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TzNameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object tzname(VirtualFrame frame, PTime self,
+                        @Cached CallTzNameNode callTzNameNode) {
+            return callTzNameNode.execute(frame, self.getTzInfo(), PNone.NONE);
+        }
+    }
+
+    abstract static class AbstractComparisonNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        boolean compare(VirtualFrame frame, PTime self, PTime other,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            if (self.getTzInfo() == other.getTzInfo()) {
+                return fromCompareResult(Long.compare(self.toMicroseconds(), other.toMicroseconds()));
+            }
+            PTimeDelta offset1 = getUtcOffset(frame, self, callUtcOffsetNode);
+            PTimeDelta offset2 = getUtcOffset(frame, other, callUtcOffsetNode);
+            if (offset1 == null && offset2 == null || offset1 != null && offset2 != null && offset1.compareTo(offset2) == 0) {
+                return fromCompareResult(Long.compare(self.toMicroseconds(), other.toMicroseconds()));
+            } else if (offset1 != null && offset2 != null) {
+                long us1 = self.toMicroseconds() - offset1.toMicrosecondsExact();
+                long us2 = other.toMicroseconds() - offset2.toMicrosecondsExact();
+                return fromCompareResult(Long.compare(us1, us2));
+            } else if (!isOrdering()) {
+                return fromCompareResult(1);
+            }
+            throw raise(TypeError, ErrorMessages.CANT_COMPARE_OFFSET_NAIVE_AND_AWARE_S, "times");
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        @SuppressWarnings("unused")
+        protected boolean fromCompareResult(int cmp) {
+            throw new AbstractMethodError("fromCompareResult");
+        }
+
+        /**
+         * Whether this is an ordering comparison, which raises for incomparable operands, rather
+         * than {@code ==} or {@code !=}.
+         */
+        protected boolean isOrdering() {
+            return true;
+        }
+    }
+
+    @Builtin(name = J___EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp == 0;
+        }
+
+        @Override
+        protected boolean isOrdering() {
+            return false;
+        }
+    }
+
+    @Builtin(name = J___NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp != 0;
+        }
+
+        @Override
+        protected boolean isOrdering() {
+            return false;
+        }
+    }
+
+    @Builtin(name = J___LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp < 0;
+        }
+    }
+
+    @Builtin(name = J___LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp <= 0;
+        }
+    }
+
+    @Builtin(name = J___GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp > 0;
+        }
+    }
+
+    @Builtin(name = J___GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp >= 0;
+        }
+    }
+
+    @Builtin(name = J___HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(VirtualFrame frame, PTime self,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode) {
+            PTimeDelta offset = getUtcOffset(frame, self, callUtcOffsetNode);
+            if (offset == null) {
+                return DatetimeNodes.hashFields(self.getHour(), self.getMinute(), self.getSecond(), self.getMicrosecond());
+            }
+            // hash like the timedelta of the time in UTC, so that equal aware times hash equal
+            long us = self.toMicroseconds() - offset.toMicrosecondsExact();
+            long seconds = Math.floorDiv(us, US_PER_SECOND);
+            return DatetimeNodes.hashFields((int) Math.floorDiv(seconds, SECONDS_PER_DAY), (int) Math.floorMod(seconds, SECONDS_PER_DAY), (int) Math.floorMod(us, US_PER_SECOND));
+        }
+    }
+
+    @Builtin(name = J___REDUCE_EX__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "protocol"})
+    @ArgumentClinic(name = "protocol", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class ReduceExNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TimeBuiltinsClinicProviders.ReduceExNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object reduceEx(PTime self, int protocol,
+                        @Cached GetClassNode getClassNode) {
+            return reduce(factory(), self, protocol, getClassNode);
+        }
+
+        static Object reduce(PythonObjectFactory factory, PTime self, int protocol, GetClassNode getClassNode) {
+            int us = self.getMicrosecond();
+            int hour = self.getFold() != 0 && protocol > 3 ? self.getHour() + 128 : self.getHour();
+            byte[] state = {(byte) hour, (byte) self.getMinute(), (byte) self.getSecond(), (byte) (us >> 16), (byte) (us >> 8), (byte) us};
+            Object bytes = factory.createBytes(state);
+            Object[] args = self.hasTzInfo() ? new Object[]{bytes, self.getTzInfo()} : new Object[]{bytes};
+            return factory.createTuple(new Object[]{getClassNode.execute(self), factory.createTuple(args)});
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PTime self,
+                        @Cached GetClassNode getClassNode) {
+            return ReduceExNode.reduce(factory(), self, 2, getClassNode);
+        }
+    }
+}
@@ -0,0 +1,666 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZeroDivisionError;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.MAX_DELTA_DAYS;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.SECONDS_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_DAY;
+import static com.oracle.graal.python.builtins.modules.datetime.DatetimeUtils.US_PER_SECOND;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ABS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___BOOL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___DIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___FLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___MOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NEG__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___POS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RSUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___SUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___TRUEDIV__;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeDeltaNode;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTimeDelta)
+public final class TimeDeltaBuiltins extends PythonBuiltins {
+
+    private static final BigInteger BIG_US_PER_DAY = BigInteger.valueOf(US_PER_DAY);
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TimeDeltaBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        addBuiltinConstant("min", core.factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, -MAX_DELTA_DAYS, 0, 0));
+        addBuiltinConstant("max", core.factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, MAX_DELTA_DAYS, SECONDS_PER_DAY - 1, (int) US_PER_SECOND - 1));
+        addBuiltinConstant("resolution", core.factory().createTimeDelta(PythonBuiltinClassType.PTimeDelta, 0, 0, 1));
+        super.initialize(core);
+    }
+
+    @TruffleBoundary
+    static BigInteger toMicrosecondsBig(PTimeDelta delta) {
+        return BigInteger.valueOf(delta.getDays()).multiply(BIG_US_PER_DAY).add(BigInteger.valueOf(delta.getSeconds() * US_PER_SECOND + delta.getMicroseconds()));
+    }
+
+    /**
+     * Equivalent of CPython's {@code divide_and_round}: {@code a / b} rounded to the nearest
+     * integer, with ties going to even.
+     */
+    @TruffleBoundary
+    static BigInteger divideAndRound(BigInteger a, BigInteger b) {
+        BigInteger[] qr = a.divideAndRemainder(b);
+        BigInteger q = qr[0];
+        BigInteger r = qr[1];
+        if (r.signum() != 0 && r.signum() != b.signum()) {
+            // make the remainder have the sign of the divisor, like Python's divmod
+            q = q.subtract(BigInteger.ONE);
+            r = r.add(b);
+        }
+        r = r.shiftLeft(1);
+        int cmp = r.compareTo(b);
+        boolean greaterThanHalf = b.signum() > 0 ? cmp > 0 : cmp < 0;
+        if (greaterThanHalf || cmp == 0 && q.testBit(0)) {
+            q = q.add(BigInteger.ONE);
+        }
+        return q;
+    }
+
+    @TruffleBoundary
+    static BigInteger floorDiv(BigInteger a, BigInteger b) {
+        BigInteger[] qr = a.divideAndRemainder(b);
+        if (qr[1].signum() != 0 && qr[1].signum() != b.signum()) {
+            return qr[0].subtract(BigInteger.ONE);
+        }
+        return qr[0];
+    }
+
+    @TruffleBoundary
+    static BigInteger floorMod(BigInteger a, BigInteger b) {
+        BigInteger r = a.remainder(b);
+        if (r.signum() != 0 && r.signum() != b.signum()) {
+            return r.add(b);
+        }
+        return r;
+    }
+
+    /**
+     * Returns the exact ratio {@code {numerator, denominator}} of a finite double, with a
+     * positive power of two as the denominator.
+     */
+    @TruffleBoundary
+    static BigInteger[] asIntegerRatio(PNodeWithRaise node, double value) {
+        if (Double.isNaN(value)) {
+            throw node.raise(ValueError, ErrorMessages.CANNOT_CONVERT_S_TO_INT_RATIO, "NaN");
+        } else if (Double.isInfinite(value)) {
+            throw node.raise(OverflowError, ErrorMessages.CANNOT_CONVERT_S_TO_INT_RATIO, "Infinity");
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        int exponent = (int) ((bits >> 52) & 0x7ff);
+        long mantissa = bits & 0xfffffffffffffL;
+        if (exponent == 0) {
+            exponent = 1;
+        } else {
+            mantissa |= 1L << 52;
+        }
+        exponent -= 1075;
+        BigInteger numerator = BigInteger.valueOf(value < 0 ? -mantissa : mantissa);
+        if (exponent >= 0) {
+            return new BigInteger[]{numerator.shiftLeft(exponent), BigInteger.ONE};
+        }
+        return new BigInteger[]{numerator, BigInteger.ONE.shiftLeft(-exponent)};
+    }
+
+    @TruffleBoundary
+    private static double trueDivide(BigInteger a, BigInteger b) {
+        return new BigDecimal(a).divide(new BigDecimal(b), MathContext.DECIMAL128).doubleValue();
+    }
+
+    /**
+     * Converts microseconds to seconds with a single rounding, like CPython's
+     * {@code delta_total_seconds}. Up to 2**53 microseconds (about 104 thousand days) both
+     * operands of the division are exact doubles; beyond that, the conversion to double would
+     * round once more.
+     */
+    static double microsecondsToSeconds(long us) {
+        if (-MAX_EXACT_DOUBLE <= us && us <= MAX_EXACT_DOUBLE) {
+            return us / 1e6;
+        }
+        return trueDivide(BigInteger.valueOf(us), BigInteger.valueOf(US_PER_SECOND));
+    }
+
+    @Builtin(name = "days", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DaysNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getDays();
+        }
+    }
+
+    @Builtin(name = "seconds", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getSeconds();
+        }
+    }
+
+    @Builtin(name = "microseconds", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class MicrosecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int get(PTimeDelta self) {
+            return self.getMicroseconds();
+        }
+    }
+
+    @Builtin(name = "total_seconds", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TotalSecondsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static double get(PTimeDelta self) {
+            try {
+                return microsecondsToSeconds(self.toMicrosecondsExact());
+            } catch (ArithmeticException e) {
+                return trueDivide(toMicrosecondsBig(self), BigInteger.valueOf(US_PER_SECOND));
+            }
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(PTimeDelta self,
+                        @Cached GetClassNode getClassNode) {
+            return DatetimeUtils.formatTimeDeltaRepr(DatetimeUtils.getTpName(getClassNode.execute(self)), self);
+        }
+    }
+
+    @Builtin(name = J___STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString str(PTimeDelta self) {
+            return DatetimeUtils.formatTimeDelta(self);
+        }
+    }
+
+    @Builtin(name = J___BOOL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class BoolNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean bool(PTimeDelta self) {
+            return !self.isZero();
+        }
+    }
+
+    @Builtin(name = J___HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long hash(PTimeDelta self) {
+            return DatetimeNodes.hashFields(self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    abstract static class AbstractComparisonNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        boolean compare(PTimeDelta self, PTimeDelta other) {
+            return fromCompareResult(self.compareTo(other));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        @SuppressWarnings("unused")
+        protected boolean fromCompareResult(int cmp) {
+            throw new AbstractMethodError("fromCompareResult");
+        }
+    }
+
+    @Builtin(name = J___EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp == 0;
+        }
+    }
+
+    @Builtin(name = J___NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp != 0;
+        }
+    }
+
+    @Builtin(name = J___LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp < 0;
+        }
+    }
+
+    @Builtin(name = J___LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp <= 0;
+        }
+    }
+
+    @Builtin(name = J___GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp > 0;
+        }
+    }
+
+    @Builtin(name = J___GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends AbstractComparisonNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp >= 0;
+        }
+    }
+
+    @Builtin(name = J___ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PTimeDelta add(PTimeDelta self, PTimeDelta other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            // the sums of normalized fields cannot overflow
+            return newTimeDeltaNode.execute((long) self.getDays() + other.getDays(), self.getSeconds() + other.getSeconds(), self.getMicroseconds() + other.getMicroseconds());
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = J___RADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RAddNode extends AddNode {
+    }
+
+    @Builtin(name = J___SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PTimeDelta sub(PTimeDelta self, PTimeDelta other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            return newTimeDeltaNode.execute((long) self.getDays() - other.getDays(), self.getSeconds() - other.getSeconds(), self.getMicroseconds() - other.getMicroseconds());
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = J___RSUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RSubNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PTimeDelta rsub(PTimeDelta self, PTimeDelta other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            return newTimeDeltaNode.execute((long) other.getDays() - self.getDays(), other.getSeconds() - self.getSeconds(), other.getMicroseconds() - self.getMicroseconds());
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = J___NEG__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NegNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PTimeDelta neg(PTimeDelta self,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            return newTimeDeltaNode.execute(-(long) self.getDays(), -self.getSeconds(), -self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = J___POS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class PosNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PTimeDelta pos(PTimeDelta self,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            return newTimeDeltaNode.execute(self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = J___ABS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PTimeDelta abs(PTimeDelta self,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            if (self.getDays() < 0) {
+                return newTimeDeltaNode.execute(-(long) self.getDays(), -self.getSeconds(), -self.getMicroseconds());
+            }
+            return newTimeDeltaNode.execute(self.getDays(), self.getSeconds(), self.getMicroseconds());
+        }
+    }
+
+    @Builtin(name = J___MUL__, minNumOfPositionalArgs = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class MulNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PTimeDelta mulLong(PTimeDelta self, long other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            try {
+                return newTimeDeltaNode.executeMicroseconds(Math.multiplyExact(self.toMicrosecondsExact(), other));
+            } catch (ArithmeticException e) {
+                return newTimeDeltaNode.executeMicroseconds(multiply(toMicrosecondsBig(self), BigInteger.valueOf(other)));
+            }
+        }
+
+        @Specialization
+        static PTimeDelta mulPInt(PTimeDelta self, PInt other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            return newTimeDeltaNode.executeMicroseconds(multiply(toMicrosecondsBig(self), other.getValue()));
+        }
+
+        @Specialization
+        PTimeDelta mulDouble(PTimeDelta self, double other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            BigInteger[] ratio = asIntegerRatio(this, other);
+            return newTimeDeltaNode.executeMicroseconds(divideAndRound(multiply(toMicrosecondsBig(self), ratio[0]), ratio[1]));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        @TruffleBoundary
+        private static BigInteger multiply(BigInteger a, BigInteger b) {
+            return a.multiply(b);
+        }
+    }
+
+    @Builtin(name = J___RMUL__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RMulNode extends MulNode {
+    }
+
+    @Builtin(name = J___TRUEDIV__, minNumOfPositionalArgs = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class TrueDivNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        double divDelta(PTimeDelta self, PTimeDelta other) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.DIVISION_BY_ZERO);
+            }
+            try {
+                long a = self.toMicrosecondsExact();
+                long b = other.toMicrosecondsExact();
+                if (Math.abs(a) <= MAX_EXACT_DOUBLE && Math.abs(b) <= MAX_EXACT_DOUBLE) {
+                    return (double) a / (double) b;
+                }
+            } catch (ArithmeticException e) {
+                // fall through
+            }
+            return trueDivide(toMicrosecondsBig(self), toMicrosecondsBig(other));
+        }
+
+        @Specialization
+        PTimeDelta divLong(PTimeDelta self, long other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            if (other == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.DIVISION_BY_ZERO);
+            }
+            return newTimeDeltaNode.executeMicroseconds(divideAndRound(toMicrosecondsBig(self), BigInteger.valueOf(other)));
+        }
+
+        @Specialization
+        PTimeDelta divPInt(PTimeDelta self, PInt other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.DIVISION_BY_ZERO);
+            }
+            return newTimeDeltaNode.executeMicroseconds(divideAndRound(toMicrosecondsBig(self), other.getValue()));
+        }
+
+        @Specialization
+        PTimeDelta divDouble(PTimeDelta self, double other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            BigInteger[] ratio = asIntegerRatio(this, other);
+            if (ratio[0].signum() == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.DIVISION_BY_ZERO);
+            }
+            return newTimeDeltaNode.executeMicroseconds(divideAndRound(multiply(toMicrosecondsBig(self), ratio[1]), ratio[0]));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        @TruffleBoundary
+        private static BigInteger multiply(BigInteger a, BigInteger b) {
+            return a.multiply(b);
+        }
+    }
+
+    @Builtin(name = J___FLOORDIV__, minNumOfPositionalArgs = 2)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class FloorDivNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object divDelta(PTimeDelta self, PTimeDelta other) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            try {
+                return Math.floorDiv(self.toMicrosecondsExact(), other.toMicrosecondsExact());
+            } catch (ArithmeticException e) {
+                return factory().createInt(floorDiv(toMicrosecondsBig(self), toMicrosecondsBig(other)));
+            }
+        }
+
+        @Specialization
+        PTimeDelta divLong(PTimeDelta self, long other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            if (other == 0) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            try {
+                long us = self.toMicrosecondsExact();
+                if (us != Long.MIN_VALUE || other != -1) {
+                    return newTimeDeltaNode.executeMicroseconds(Math.floorDiv(us, other));
+                }
+            } catch (ArithmeticException e) {
+                // fall through
+            }
+            return newTimeDeltaNode.executeMicroseconds(floorDiv(toMicrosecondsBig(self), BigInteger.valueOf(other)));
+        }
+
+        @Specialization
+        PTimeDelta divPInt(PTimeDelta self, PInt other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            return newTimeDeltaNode.executeMicroseconds(floorDiv(toMicrosecondsBig(self), other.getValue()));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = J___MOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ModNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTimeDelta mod(PTimeDelta self, PTimeDelta other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            try {
+                return newTimeDeltaNode.executeMicroseconds(Math.floorMod(self.toMicrosecondsExact(), other.toMicrosecondsExact()));
+            } catch (ArithmeticException e) {
+                return newTimeDeltaNode.executeMicroseconds(floorMod(toMicrosecondsBig(self), toMicrosecondsBig(other)));
+            }
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = J___DIVMOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object divmod(PTimeDelta self, PTimeDelta other,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode) {
+            if (other.isZero()) {
+                throw raise(ZeroDivisionError, ErrorMessages.S_DIVISION_OR_MODULO_BY_ZERO, "integer");
+            }
+            try {
+                long a = self.toMicrosecondsExact();
+                long b = other.toMicrosecondsExact();
+                return factory().createTuple(new Object[]{Math.floorDiv(a, b), newTimeDeltaNode.executeMicroseconds(Math.floorMod(a, b))});
+            } catch (ArithmeticException e) {
+                BigInteger a = toMicrosecondsBig(self);
+                BigInteger b = toMicrosecondsBig(other);
+                return factory().createTuple(new Object[]{factory().createInt(floorDiv(a, b)), newTimeDeltaNode.executeMicroseconds(floorMod(a, b))});
+            }
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PTimeDelta self,
+                        @Cached GetClassNode getClassNode) {
+            Object[] args = {self.getDays(), self.getSeconds(), self.getMicroseconds()};
+            return factory().createTuple(new Object[]{getClassNode.execute(self), factory().createTuple(args)});
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.datetime;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.NotImplementedError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___GETINITARGS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___GETSTATE__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.CallUtcOffsetNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewDateTimeNode;
+import com.oracle.graal.python.builtins.modules.datetime.DatetimeNodes.NewTimeDeltaNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectSizeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PTzInfo)
+public final class TzInfoBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TzInfoBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "tzname", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class TzNameNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object tzname(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(NotImplementedError, ErrorMessages.TZINFO_SUBCLASS_MUST_IMPLEMENT_S, "tzname");
+        }
+    }
+
+    @Builtin(name = "utcoffset", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class UtcOffsetNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object utcoffset(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(NotImplementedError, ErrorMessages.TZINFO_SUBCLASS_MUST_IMPLEMENT_S, "utcoffset");
+        }
+    }
+
+    @Builtin(name = "dst", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DstNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object dst(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object dt) {
+            throw raise(NotImplementedError, ErrorMessages.TZINFO_SUBCLASS_MUST_IMPLEMENT_S, "dst");
+        }
+    }
+
+    /**
+     * The default {@code fromutc} of CPython's {@code tzinfo_fromutc}, which assumes that the
+     * standard offset of the zone does not depend on the date.
+     */
+    @Builtin(name = "fromutc", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class FromUtcNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromutc(VirtualFrame frame, Object self, Object dtObj,
+                        @Cached CallUtcOffsetNode callUtcOffsetNode,
+                        @Cached GetClassNode getClassNode,
+                        @Cached NewTimeDeltaNode newTimeDeltaNode,
+                        @Cached NewDateTimeNode newDateTimeNode,
+                        @Cached PyObjectCallMethodObjArgs callAddNode) {
+            if (!(dtObj instanceof PDateTime)) {
+                throw raise(TypeError, ErrorMessages.FROMUTC_ARG_MUST_BE_DATETIME);
+            }
+            PDateTime dt = (PDateTime) dtObj;
+            if (dt.getTzInfo() != self) {
+                throw raise(ValueError, ErrorMessages.FROMUTC_DT_TZINFO_IS_NOT_SELF);
+            }
+            Object offset = callUtcOffsetNode.executeUtcOffset(frame, self, dt);
+            if (offset == PNone.NONE) {
+                throw raise(ValueError, ErrorMessages.FROMUTC_NON_NONE_S_RESULT_REQUIRED, "utcoffset");
+            }
+            Object dst = callUtcOffsetNode.executeDst(frame, self, dt);
+            if (dst == PNone.NONE) {
+                throw raise(ValueError, ErrorMessages.FROMUTC_NON_NONE_S_RESULT_REQUIRED, "dst");
+            }
+            long deltaUs = ((PTimeDelta) offset).toMicrosecondsExact() - ((PTimeDelta) dst).toMicrosecondsExact();
+            PTimeDelta delta = newTimeDeltaNode.executeMicroseconds(deltaUs);
+            Object result = DateTimeBuiltins.addDelta(frame, this, dt, delta, 1, getClassNode, newDateTimeNode);
+            dst = callUtcOffsetNode.executeDst(frame, self, result);
+            if (dst == PNone.NONE) {
+                throw raise(ValueError, ErrorMessages.FROMUTC_INCONSISTENT_DST);
+            }
+            if (!((PTimeDelta) dst).isZero()) {
+                if (result instanceof PDateTime) {
+                    return DateTimeBuiltins.addDelta(frame, this, (PDateTime) result, (PTimeDelta) dst, 1, getClassNode, newDateTimeNode);
+                }
+                return callAddNode.execute(frame, result, T___ADD__, dst);
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(VirtualFrame frame, Object self,
+                        @Cached PyObjectLookupAttr lookupAttr,
+                        @Cached CallNode callNode,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached GetClassNode getClassNode) {
+            Object args;
+            Object getInitArgs = lookupAttr.execute(frame, self, T___GETINITARGS__);
+            if (getInitArgs != PNone.NO_VALUE) {
+                args = callNode.execute(frame, getInitArgs);
+            } else {
+                args = factory().createEmptyTuple();
+            }
+            Object state;
+            Object getState = lookupAttr.execute(frame, self, T___GETSTATE__);
+            if (getState != PNone.NO_VALUE) {
+                state = callNode.execute(frame, getState);
+            } else {
+                Object dict = lookupAttr.execute(frame, self, T___DICT__);
+                state = dict != PNone.NO_VALUE && sizeNode.execute(frame, dict) > 0 ? dict : PNone.NONE;
+            }
+            Object cls = getClassNode.execute(self);
+            if (state == PNone.NONE) {
+                return factory().createTuple(new Object[]{cls, args});
+            }
+            return factory().createTuple(new Object[]{cls, args, state});
+        }
+    }
+}
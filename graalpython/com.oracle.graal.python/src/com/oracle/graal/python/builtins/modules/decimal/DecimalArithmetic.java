@@ -0,0 +1,2518 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalValue.POWERS_OF_TEN;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalValue.digits;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalValue.finite;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalValue.powerOfTen;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The operations of the General Decimal Arithmetic Specification on {@link DecimalValue}s, for one
+ * set of context parameters. This is a port of the algorithms in {@code _pydecimal.py}, but the
+ * exceptional conditions are collected like {@code libmpdec} does: an operation always computes
+ * its result and accumulates the raised conditions in {@link #getStatus()}; it is up to the caller
+ * to update the flags of the context and to raise the trapped signals afterwards.
+ *
+ * Operations on coefficients that fit a {@code long} avoid {@link BigInteger} where that is
+ * straightforward, in particular in addition, multiplication, comparison and rounding.
+ */
+public final class DecimalArithmetic {
+
+    // The status flags of libmpdec; the same bits are used for the flags and traps of a context.
+    static final int CLAMPED = 0x1;
+    static final int CONVERSION_SYNTAX = 0x2;
+    static final int DIVISION_BY_ZERO = 0x4;
+    static final int DIVISION_IMPOSSIBLE = 0x8;
+    static final int DIVISION_UNDEFINED = 0x10;
+    static final int FPU_ERROR = 0x20;
+    static final int INEXACT = 0x40;
+    static final int INVALID_CONTEXT = 0x80;
+    static final int INVALID_OPERATION = 0x100;
+    static final int MALLOC_ERROR = 0x200;
+    static final int FLOAT_OPERATION = 0x400;
+    static final int OVERFLOW = 0x800;
+    static final int ROUNDED = 0x1000;
+    static final int SUBNORMAL = 0x2000;
+    static final int UNDERFLOW = 0x4000;
+    /** All conditions that are reported as the {@code InvalidOperation} signal. */
+    static final int IEEE_INVALID_OPERATION = CONVERSION_SYNTAX | DIVISION_IMPOSSIBLE | DIVISION_UNDEFINED | FPU_ERROR | INVALID_CONTEXT | INVALID_OPERATION | MALLOC_ERROR;
+
+    // The rounding modes, in the order of libmpdec.
+    static final int ROUND_UP = 0;
+    static final int ROUND_DOWN = 1;
+    static final int ROUND_CEILING = 2;
+    static final int ROUND_FLOOR = 3;
+    static final int ROUND_HALF_UP = 4;
+    static final int ROUND_HALF_DOWN = 5;
+    static final int ROUND_HALF_EVEN = 6;
+    static final int ROUND_05UP = 7;
+    static final int ROUNDING_MODES = 8;
+
+    static final long MAX_PREC = 999999999999999999L;
+    static final long MAX_EMAX = 999999999999999999L;
+    static final long MIN_EMIN = -999999999999999999L;
+    static final long MIN_ETINY = MIN_EMIN - (MAX_PREC - 1);
+
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+    private static final BigInteger FIVE = BigInteger.valueOf(5);
+
+    // mulModHash relies on the modulus being the Mersenne prime 2**61 - 1
+    private static final long HASH_MODULUS = SysModuleBuiltins.HASH_MODULUS;
+    // the inverse of 10 modulo the hash modulus, 10**(modulus - 2) by Fermat's little theorem
+    private static final long HASH_INVERSE_OF_10 = 2075258708292324556L;
+
+    private final long prec;
+    private int rounding;
+    private final long emin;
+    private final long emax;
+    private final boolean clamp;
+
+    private int status;
+    /**
+     * How the last rounding of a coefficient changed it: 1 if it was rounded away from zero, 0 if
+     * only zeros were dropped and -1 if it was rounded towards zero.
+     */
+    private int changed;
+
+    public DecimalArithmetic(long prec, int rounding, long emin, long emax, boolean clamp) {
+        assert prec >= 1 && prec <= MAX_PREC && rounding >= 0 && rounding < ROUNDING_MODES;
+        this.prec = prec;
+        this.rounding = rounding;
+        this.emin = emin;
+        this.emax = emax;
+        this.clamp = clamp;
+    }
+
+    /** The arithmetic that {@code Decimal} uses to check that conversions are exact. */
+    static DecimalArithmetic createMax() {
+        return new DecimalArithmetic(MAX_PREC, ROUND_HALF_EVEN, MIN_EMIN, MAX_EMAX, false);
+    }
+
+    /** The conditions raised by the operations performed so far. */
+    public int getStatus() {
+        return status;
+    }
+
+    long getPrec() {
+        return prec;
+    }
+
+    int getRounding() {
+        return rounding;
+    }
+
+    long etiny() {
+        return emin - prec + 1;
+    }
+
+    long etop() {
+        return emax - prec + 1;
+    }
+
+    private DecimalValue signal(int condition) {
+        status |= condition;
+        return DecimalValue.NAN;
+    }
+
+    private DecimalValue invalid() {
+        return signal(INVALID_OPERATION);
+    }
+
+    // Helpers for coefficients
+
+    /** Multiplies a coefficient by {@code 10**n}. */
+    @TruffleBoundary
+    private static BigInteger scale(BigInteger c, long n) {
+        if (n == 0 || c.signum() == 0) {
+            return c;
+        }
+        return c.multiply(powerOfTen(n));
+    }
+
+    private static DecimalValue scaled(int sign, DecimalValue v, long n, long exp) {
+        if (v.isSmall() && n < POWERS_OF_TEN.length) {
+            long c = v.getSmallCoefficient();
+            long p = POWERS_OF_TEN[(int) n];
+            if (Math.multiplyHigh(c, p) == 0 && c * p >= 0) {
+                return finite(sign, c * p, exp);
+            }
+        }
+        return finite(sign, scale(v.getCoefficient(), n), exp);
+    }
+
+    /** {@code c * 10**n}, or -1 if that does not fit a {@code long}. */
+    private static long scaleSmall(long c, long n) {
+        if (n >= POWERS_OF_TEN.length) {
+            return c == 0 ? 0 : -1;
+        }
+        long p = POWERS_OF_TEN[(int) n];
+        long r = c * p;
+        if (Math.multiplyHigh(c, p) != 0 || r < 0) {
+            return -1;
+        }
+        return r;
+    }
+
+    private static int lastDigit(BigInteger c) {
+        return c.mod(BigInteger.TEN).intValue();
+    }
+
+    /**
+     * Decides in which direction a coefficient is rounded, following the {@code _round_*}
+     * functions of {@code _pydecimal}.
+     *
+     * @param lastDigit the least significant digit that is kept
+     * @param halfCmp the sign of {@code dropped - half}, where {@code half} is half a unit of the
+     *            last kept digit
+     * @param exact whether all dropped digits are zero
+     */
+    private static int roundingDirection(int mode, int sign, long lastDigit, int halfCmp, boolean exact) {
+        int down = exact ? 0 : -1;
+        switch (mode) {
+            case ROUND_DOWN:
+                return down;
+            case ROUND_UP:
+                return -down;
+            case ROUND_HALF_UP:
+                return halfCmp >= 0 ? 1 : down;
+            case ROUND_HALF_DOWN:
+                return halfCmp > 0 ? 1 : down;
+            case ROUND_HALF_EVEN:
+                return halfCmp > 0 || halfCmp == 0 && (lastDigit & 1) != 0 ? 1 : down;
+            case ROUND_CEILING:
+                return sign == 1 ? down : -down;
+            case ROUND_FLOOR:
+                return sign == 0 ? down : -down;
+            case ROUND_05UP:
+                return lastDigit != 0 && lastDigit != 5 ? down : -down;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Drops the {@code drop > 0} least significant digits of the coefficient of the finite
+     * nonzero {@code v}, rounding with {@code mode}. Sets {@link #changed} and returns the new
+     * coefficient, which may have one digit more than expected if rounding carried over.
+     */
+    private DecimalValue dropDigits(DecimalValue v, long drop, int mode, long newExp) {
+        assert drop > 0 && !v.isZero();
+        int sign = v.getSign();
+        long ndigits = v.digits();
+        if (drop > ndigits) {
+            // all digits are dropped and they are less than half a unit
+            changed = roundingDirection(mode, sign, 0, -1, false);
+            return finite(sign, changed == 1 ? 1 : 0, newExp);
+        }
+        if (v.isSmall() && drop < POWERS_OF_TEN.length) {
+            long c = v.getSmallCoefficient();
+            long d = POWERS_OF_TEN[(int) drop];
+            long q = c / d;
+            long r = c - q * d;
+            // r < d <= 10**18, so 2 * r cannot overflow
+            changed = roundingDirection(mode, sign, q % 10, Long.compare(2 * r, d), r == 0);
+            return finite(sign, changed == 1 ? q + 1 : q, newExp);
+        }
+        return dropDigitsBig(v, drop, mode, newExp);
+    }
+
+    @TruffleBoundary
+    private DecimalValue dropDigitsBig(DecimalValue v, long drop, int mode, long newExp) {
+        BigInteger d = powerOfTen(drop);
+        BigInteger[] qr = v.getCoefficient().divideAndRemainder(d);
+        BigInteger q = qr[0];
+        BigInteger r = qr[1];
+        changed = roundingDirection(mode, v.getSign(), lastDigit(q), r.shiftLeft(1).compareTo(d), r.signum() == 0);
+        return finite(v.getSign(), changed == 1 ? q.add(BigInteger.ONE) : q, newExp);
+    }
+
+    // Rounding and fitting into the context
+
+    /**
+     * Equivalent of {@code Decimal._rescale}: returns {@code v} with exponent {@code exp}, padding
+     * with zeros or rounding with {@code mode}. Quiet, and ignores the context.
+     */
+    DecimalValue rescale(DecimalValue v, long exp, int mode) {
+        if (v.isSpecial()) {
+            return v;
+        }
+        if (v.isZero()) {
+            return finite(v.getSign(), 0, exp);
+        }
+        if (v.getExponent() >= exp) {
+            return scaled(v.getSign(), v, v.getExponent() - exp, exp);
+        }
+        return dropDigits(v, exp - v.getExponent(), mode, exp);
+    }
+
+    /**
+     * Equivalent of {@code Decimal._round}: rounds the nonzero finite {@code v} to {@code places}
+     * significant digits. Quiet, and ignores the context.
+     */
+    DecimalValue roundToPlaces(DecimalValue v, long places, int mode) {
+        assert places > 0;
+        if (v.isSpecial() || v.isZero()) {
+            return v;
+        }
+        DecimalValue result = rescale(v, v.adjusted() + 1 - places, mode);
+        if (result.adjusted() != v.adjusted()) {
+            result = rescale(result, result.adjusted() + 1 - places, mode);
+        }
+        return result;
+    }
+
+    /** Equivalent of {@code Decimal._fix_nan}: cuts the payload of a NaN to fit the context. */
+    @TruffleBoundary
+    DecimalValue fixNaN(DecimalValue v) {
+        assert v.isNaN();
+        long maxPayload = prec - (clamp ? 1 : 0);
+        if (v.hasPayload() && v.digits() > maxPayload) {
+            BigInteger payload = v.getCoefficient().mod(powerOfTen(maxPayload));
+            return DecimalValue.nan(v.getSign(), payload, v.isSNaN());
+        }
+        return v;
+    }
+
+    private DecimalValue overflowResult(int sign, int mode) {
+        status |= OVERFLOW;
+        if (mode == ROUND_HALF_UP || mode == ROUND_HALF_EVEN || mode == ROUND_HALF_DOWN || mode == ROUND_UP) {
+            return DecimalValue.infinity(sign);
+        }
+        if (sign == 0 ? mode == ROUND_CEILING : mode == ROUND_FLOOR) {
+            return DecimalValue.infinity(sign);
+        }
+        return largestFinite(sign);
+    }
+
+    @TruffleBoundary
+    private DecimalValue largestFinite(int sign) {
+        return finite(sign, powerOfTen(prec).subtract(BigInteger.ONE), etop());
+    }
+
+    /**
+     * Equivalent of {@code Decimal._fix}: rounds {@code v} to the precision of the context and
+     * fits its exponent into the allowed range. Does not signal on sNaNs.
+     */
+    DecimalValue fix(DecimalValue v) {
+        return fix(v, rounding);
+    }
+
+    private DecimalValue fix(DecimalValue v, int mode) {
+        if (v.isSpecial()) {
+            return v.isNaN() ? fixNaN(v) : v;
+        }
+        long etiny = etiny();
+        long etop = etop();
+        long exp = v.getExponent();
+        int sign = v.getSign();
+        if (v.isZero()) {
+            long expMax = clamp ? etop : emax;
+            long newExp = Math.min(Math.max(exp, etiny), expMax);
+            if (newExp != exp) {
+                status |= CLAMPED;
+                return finite(sign, 0, newExp);
+            }
+            return v;
+        }
+        long expMin = v.digits() + exp - prec;
+        if (expMin > etop) {
+            DecimalValue result = overflowResult(sign, mode);
+            status |= INEXACT | ROUNDED;
+            return result;
+        }
+        boolean subnormal = expMin < etiny;
+        if (subnormal) {
+            expMin = etiny;
+        }
+        if (exp < expMin) {
+            DecimalValue result = dropDigits(v, expMin - exp, mode, expMin);
+            int direction = changed;
+            if (direction > 0 && result.digits() > prec) {
+                // carried over into a new digit, e.g. 999.9 -> 1000
+                result = dropDigits(result, 1, ROUND_DOWN, ++expMin);
+            }
+            if (expMin > etop) {
+                result = overflowResult(sign, mode);
+            }
+            if (direction != 0 && subnormal) {
+                status |= UNDERFLOW;
+            }
+            if (subnormal) {
+                status |= SUBNORMAL;
+            }
+            if (direction != 0) {
+                status |= INEXACT;
+            }
+            status |= ROUNDED;
+            if (result.isZero()) {
+                status |= CLAMPED;
+            }
+            return result;
+        }
+        if (subnormal) {
+            status |= SUBNORMAL;
+        }
+        if (clamp && exp > etop) {
+            status |= CLAMPED;
+            return scaled(sign, v, exp - etop, etop);
+        }
+        return v;
+    }
+
+    /**
+     * Equivalent of {@code Decimal._check_nans}: returns the NaN result if one of the operands is
+     * a NaN and {@code null} otherwise. {@code b} may be {@code null}.
+     */
+    private DecimalValue checkNaNs(DecimalValue a, DecimalValue b) {
+        if (a.isSNaN()) {
+            status |= INVALID_OPERATION;
+            return fixNaN(a.toQuiet());
+        }
+        if (b != null && b.isSNaN()) {
+            status |= INVALID_OPERATION;
+            return fixNaN(b.toQuiet());
+        }
+        if (a.isNaN()) {
+            return fixNaN(a);
+        }
+        if (b != null && b.isNaN()) {
+            return fixNaN(b);
+        }
+        return null;
+    }
+
+    /** Like {@link #checkNaNs}, but quiet NaNs signal as well. */
+    private DecimalValue compareCheckNaNs(DecimalValue a, DecimalValue b) {
+        if (a.isNaN() || b.isNaN()) {
+            DecimalValue result = checkNaNs(a, b);
+            status |= INVALID_OPERATION;
+            return result;
+        }
+        return null;
+    }
+
+    // Comparison
+
+    /**
+     * Equivalent of {@code Decimal._cmp}: compares two values that are not NaNs numerically and
+     * returns -1, 0 or 1.
+     */
+    static int compareValues(DecimalValue a, DecimalValue b) {
+        assert !a.isNaN() && !b.isNaN();
+        if (a.isInfinite() || b.isInfinite()) {
+            int ainf = a.isInfinite() ? (a.isNegative() ? -1 : 1) : 0;
+            int binf = b.isInfinite() ? (b.isNegative() ? -1 : 1) : 0;
+            return Integer.compare(ainf, binf);
+        }
+        if (a.isZero()) {
+            if (b.isZero()) {
+                return 0;
+            }
+            return b.isNegative() ? 1 : -1;
+        }
+        if (b.isZero()) {
+            return a.isNegative() ? -1 : 1;
+        }
+        if (a.getSign() != b.getSign()) {
+            return a.isNegative() ? -1 : 1;
+        }
+        int signFactor = a.isNegative() ? -1 : 1;
+        long aAdjusted = a.adjusted();
+        long bAdjusted = b.adjusted();
+        if (aAdjusted != bAdjusted) {
+            return aAdjusted > bAdjusted ? signFactor : -signFactor;
+        }
+        return signFactor * compareCoefficients(a, b);
+    }
+
+    /** Compares the magnitudes of two nonzero finite values with the same adjusted exponent. */
+    private static int compareCoefficients(DecimalValue a, DecimalValue b) {
+        long diff = a.getExponent() - b.getExponent();
+        if (a.isSmall() && b.isSmall()) {
+            // the coefficients differ in length by exactly diff digits
+            long ca = a.getSmallCoefficient();
+            long cb = b.getSmallCoefficient();
+            long sa = diff > 0 ? scaleSmall(ca, diff) : ca;
+            long sb = diff < 0 ? scaleSmall(cb, -diff) : cb;
+            if (sa >= 0 && sb >= 0) {
+                return Long.compare(sa, sb);
+            }
+        }
+        return compareCoefficientsBig(a, b, diff);
+    }
+
+    @TruffleBoundary
+    private static int compareCoefficientsBig(DecimalValue a, DecimalValue b, long diff) {
+        BigInteger ca = a.getCoefficient();
+        BigInteger cb = b.getCoefficient();
+        if (diff > 0) {
+            ca = scale(ca, diff);
+        } else if (diff < 0) {
+            cb = scale(cb, -diff);
+        }
+        return ca.compareTo(cb);
+    }
+
+    /** Equivalent of {@code Decimal.compare}. */
+    DecimalValue compare(DecimalValue a, DecimalValue b) {
+        if (a.isNaN() || b.isNaN()) {
+            return checkNaNs(a, b);
+        }
+        return DecimalValue.fromLong(compareValues(a, b));
+    }
+
+    /** Equivalent of {@code Decimal.compare_signal}. */
+    DecimalValue compareSignal(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = compareCheckNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        return DecimalValue.fromLong(compareValues(a, b));
+    }
+
+    /**
+     * Compares {@code a} and {@code b} for a rich comparison. Returns {@link Integer#MAX_VALUE}
+     * if one of them is a NaN; in that case, sNaNs and ordering comparisons signal
+     * {@code InvalidOperation}.
+     */
+    int richCompare(DecimalValue a, DecimalValue b, boolean equality) {
+        if (a.isNaN() || b.isNaN()) {
+            if (a.isSNaN() || b.isSNaN() || !equality) {
+                status |= INVALID_OPERATION;
+            }
+            return Integer.MAX_VALUE;
+        }
+        return compareValues(a, b);
+    }
+
+    /** Equivalent of {@code Decimal.compare_total}: a total ordering of the representations. */
+    static int compareTotal(DecimalValue a, DecimalValue b) {
+        if (a.getSign() != b.getSign()) {
+            return a.isNegative() ? -1 : 1;
+        }
+        int signFactor = a.isNegative() ? -1 : 1;
+        if (a.isNaN() || b.isNaN()) {
+            if (a.getKind() == b.getKind()) {
+                return signFactor * comparePayloads(a, b);
+            }
+            // NaN > sNaN > everything else, for positive values
+            int aRank = a.isQNaN() ? 2 : a.isSNaN() ? 1 : 0;
+            int bRank = b.isQNaN() ? 2 : b.isSNaN() ? 1 : 0;
+            return signFactor * Integer.compare(aRank, bRank);
+        }
+        int cmp = compareValues(a, b);
+        if (cmp != 0) {
+            return cmp;
+        }
+        if (a.isInfinite()) {
+            return 0;
+        }
+        return signFactor * Long.compare(a.getExponent(), b.getExponent());
+    }
+
+    private static int comparePayloads(DecimalValue a, DecimalValue b) {
+        if (a.isSmall() && b.isSmall()) {
+            return Long.compare(a.getSmallCoefficient(), b.getSmallCoefficient());
+        }
+        return compareBig(a.getCoefficient(), b.getCoefficient());
+    }
+
+    @TruffleBoundary
+    private static int compareBig(BigInteger a, BigInteger b) {
+        return a.compareTo(b);
+    }
+
+    /** Equivalent of {@code Decimal.compare_total_mag}. */
+    static int compareTotalMag(DecimalValue a, DecimalValue b) {
+        return compareTotal(a.abs(), b.abs());
+    }
+
+    private DecimalValue minMaxNaNs(DecimalValue a, DecimalValue b) {
+        // if one operand is a quiet NaN and the other is a number, the number is returned
+        if (a.isQNaN() && !b.isNaN()) {
+            return fix(b);
+        }
+        if (b.isQNaN() && !a.isNaN()) {
+            return fix(a);
+        }
+        return checkNaNs(a, b);
+    }
+
+    /** Equivalent of {@code Decimal.max} and friends. */
+    DecimalValue minMax(DecimalValue a, DecimalValue b, boolean max, boolean magnitude) {
+        if (a.isNaN() || b.isNaN()) {
+            return minMaxNaNs(a, b);
+        }
+        int c = magnitude ? compareValues(a.abs(), b.abs()) : compareValues(a, b);
+        if (c == 0) {
+            c = compareTotal(a, b);
+        }
+        if (max) {
+            return fix(c == -1 ? b : a);
+        } else {
+            return fix(c == -1 ? a : b);
+        }
+    }
+
+    // Addition, subtraction, multiplication and division
+
+    /** Equivalent of {@code Decimal.__pos__}. */
+    DecimalValue plus(DecimalValue a) {
+        if (a.isNaN()) {
+            return checkNaNs(a, null);
+        }
+        if (a.isZero() && rounding != ROUND_FLOOR) {
+            // +(-0) is 0, except when rounding to floor
+            return fix(a.abs());
+        }
+        return fix(a);
+    }
+
+    /** Equivalent of {@code Decimal.__neg__}. */
+    DecimalValue minus(DecimalValue a) {
+        if (a.isNaN()) {
+            return checkNaNs(a, null);
+        }
+        if (a.isZero() && rounding != ROUND_FLOOR) {
+            return fix(a.abs());
+        }
+        return fix(a.negate());
+    }
+
+    /** Equivalent of {@code Decimal.__abs__}. */
+    DecimalValue abs(DecimalValue a) {
+        if (a.isNaN()) {
+            return checkNaNs(a, null);
+        }
+        return a.isNegative() ? minus(a) : plus(a);
+    }
+
+    DecimalValue add(DecimalValue a, DecimalValue b) {
+        if (a.isSpecial() || b.isSpecial()) {
+            DecimalValue nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+            if (a.isInfinite()) {
+                if (a.getSign() != b.getSign() && b.isInfinite()) {
+                    return invalid();
+                }
+                return a;
+            }
+            if (b.isInfinite()) {
+                return b;
+            }
+        }
+        long exp = Math.min(a.getExponent(), b.getExponent());
+        // if the result is zero, it is negative when rounding to floor
+        int zeroSign = rounding == ROUND_FLOOR && a.getSign() != b.getSign() ? 1 : 0;
+        if (a.isZero() && b.isZero()) {
+            return fix(finite(zeroSign == 1 ? 1 : Math.min(a.getSign(), b.getSign()), 0, exp));
+        }
+        if (a.isZero()) {
+            return fix(rescale(b, Math.max(exp, b.getExponent() - prec - 1), rounding));
+        }
+        if (b.isZero()) {
+            return fix(rescale(a, Math.max(exp, a.getExponent() - prec - 1), rounding));
+        }
+        if (a.isSmall() && b.isSmall()) {
+            long ca = scaleSmall(a.getSmallCoefficient(), a.getExponent() - exp);
+            long cb = scaleSmall(b.getSmallCoefficient(), b.getExponent() - exp);
+            if (ca >= 0 && cb >= 0) {
+                long sa = a.isNegative() ? -ca : ca;
+                long sb = b.isNegative() ? -cb : cb;
+                long sum = sa + sb;
+                if (((sa ^ sum) & (sb ^ sum)) >= 0) {
+                    if (sum == 0) {
+                        return fix(finite(zeroSign, 0, exp));
+                    }
+                    return fix(sum < 0 ? finite(1, -sum, exp) : finite(0, sum, exp));
+                }
+            }
+        }
+        return addBig(a, b, exp, zeroSign);
+    }
+
+    @TruffleBoundary
+    private DecimalValue addBig(DecimalValue a, DecimalValue b, long exp, int zeroSign) {
+        // Equivalent of _normalize: if the operand with the smaller exponent is below the
+        // rounding position of the other one, it is replaced by a smaller value with the same
+        // effect on the rounding, so that we never need to align very different exponents.
+        DecimalValue tmp = a;
+        DecimalValue other = b;
+        if (a.getExponent() < b.getExponent()) {
+            tmp = b;
+            other = a;
+        }
+        BigInteger otherCoefficient = other.getCoefficient();
+        long otherExp = other.getExponent();
+        long limit = tmp.getExponent() + Math.min(-1, tmp.digits() - prec - 2);
+        if (other.digits() + otherExp - 1 < limit) {
+            otherCoefficient = BigInteger.ONE;
+            otherExp = limit;
+        }
+        BigInteger tmpCoefficient = scale(tmp.getCoefficient(), tmp.getExponent() - otherExp);
+        if (tmp.isNegative()) {
+            tmpCoefficient = tmpCoefficient.negate();
+        }
+        if (other.isNegative()) {
+            otherCoefficient = otherCoefficient.negate();
+        }
+        BigInteger sum = tmpCoefficient.add(otherCoefficient);
+        if (sum.signum() == 0) {
+            return fix(finite(zeroSign, 0, exp));
+        }
+        return fix(finite(sum.signum() < 0 ? 1 : 0, sum.abs(), otherExp));
+    }
+
+    DecimalValue subtract(DecimalValue a, DecimalValue b) {
+        if (a.isNaN() || b.isNaN()) {
+            return checkNaNs(a, b);
+        }
+        return add(a, b.negate());
+    }
+
+    DecimalValue multiply(DecimalValue a, DecimalValue b) {
+        int sign = a.getSign() ^ b.getSign();
+        if (a.isSpecial() || b.isSpecial()) {
+            DecimalValue nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+            if (a.isInfinite() && b.isZero() || b.isInfinite() && a.isZero()) {
+                return invalid();
+            }
+            return DecimalValue.infinity(sign);
+        }
+        long exp = a.getExponent() + b.getExponent();
+        if (a.isZero() || b.isZero()) {
+            return fix(finite(sign, 0, exp));
+        }
+        if (a.isSmall() && b.isSmall()) {
+            long ca = a.getSmallCoefficient();
+            long cb = b.getSmallCoefficient();
+            long product = ca * cb;
+            if (Math.multiplyHigh(ca, cb) == 0 && product >= 0) {
+                return fix(finite(sign, product, exp));
+            }
+        }
+        return fix(finite(sign, multiplyBig(a, b), exp));
+    }
+
+    @TruffleBoundary
+    private static BigInteger multiplyBig(DecimalValue a, DecimalValue b) {
+        return a.getCoefficient().multiply(b.getCoefficient());
+    }
+
+    /** Equivalent of {@code Decimal.__truediv__}. */
+    DecimalValue divide(DecimalValue a, DecimalValue b) {
+        int sign = a.getSign() ^ b.getSign();
+        if (a.isSpecial() || b.isSpecial()) {
+            DecimalValue nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+            if (a.isInfinite() && b.isInfinite()) {
+                return invalid();
+            }
+            if (a.isInfinite()) {
+                return DecimalValue.infinity(sign);
+            }
+            status |= CLAMPED;
+            return finite(sign, 0, etiny());
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                return signal(DIVISION_UNDEFINED);
+            }
+            status |= DIVISION_BY_ZERO;
+            return DecimalValue.infinity(sign);
+        }
+        if (a.isZero()) {
+            return fix(finite(sign, 0, a.getExponent() - b.getExponent()));
+        }
+        return fix(divideBig(sign, a, b));
+    }
+
+    @TruffleBoundary
+    private DecimalValue divideBig(int sign, DecimalValue a, DecimalValue b) {
+        long shift = b.digits() - a.digits() + prec + 1;
+        long exp = a.getExponent() - b.getExponent() - shift;
+        BigInteger[] qr;
+        if (shift >= 0) {
+            qr = scale(a.getCoefficient(), shift).divideAndRemainder(b.getCoefficient());
+        } else {
+            qr = a.getCoefficient().divideAndRemainder(scale(b.getCoefficient(), -shift));
+        }
+        BigInteger q = qr[0];
+        if (qr[1].signum() != 0) {
+            // the result is not exact; make sure that it is not rounded as if it was
+            if (q.mod(FIVE).signum() == 0) {
+                q = q.add(BigInteger.ONE);
+            }
+        } else {
+            // the result is exact; get as close to the ideal exponent as possible
+            long idealExp = a.getExponent() - b.getExponent();
+            while (exp < idealExp) {
+                BigInteger[] q10 = q.divideAndRemainder(BigInteger.TEN);
+                if (q10[1].signum() != 0) {
+                    break;
+                }
+                q = q10[0];
+                exp++;
+            }
+        }
+        return finite(sign, q, exp);
+    }
+
+    /**
+     * Equivalent of {@code Decimal._divide}: returns the integer quotient and the remainder, for
+     * a finite {@code a} and a nonzero {@code b}.
+     */
+    private DecimalValue[] divideInteger(DecimalValue a, DecimalValue b) {
+        int sign = a.getSign() ^ b.getSign();
+        long idealExp = b.isInfinite() ? a.getExponent() : Math.min(a.getExponent(), b.getExponent());
+        long expDiff = a.adjusted() - b.adjusted();
+        if (a.isZero() || b.isInfinite() || expDiff <= -2) {
+            return new DecimalValue[]{finite(sign, 0, 0), rescale(a, idealExp, rounding)};
+        }
+        if (expDiff <= prec) {
+            if (a.isSmall() && b.isSmall()) {
+                long ca = a.getSmallCoefficient();
+                long cb = b.getSmallCoefficient();
+                long diff = a.getExponent() - b.getExponent();
+                if (diff >= 0) {
+                    ca = scaleSmall(ca, diff);
+                } else {
+                    cb = scaleSmall(cb, -diff);
+                }
+                if (ca >= 0 && cb >= 0) {
+                    long q = ca / cb;
+                    if (digits(q) <= prec) {
+                        return new DecimalValue[]{finite(sign, q, 0), finite(a.getSign(), ca - q * cb, idealExp)};
+                    }
+                    return divisionImpossible();
+                }
+            }
+            DecimalValue[] result = divideIntegerBig(sign, a, b, idealExp);
+            if (result != null) {
+                return result;
+            }
+        }
+        return divisionImpossible();
+    }
+
+    @TruffleBoundary
+    private DecimalValue[] divideIntegerBig(int sign, DecimalValue a, DecimalValue b, long idealExp) {
+        BigInteger ca = a.getCoefficient();
+        BigInteger cb = b.getCoefficient();
+        long diff = a.getExponent() - b.getExponent();
+        if (diff >= 0) {
+            ca = scale(ca, diff);
+        } else {
+            cb = scale(cb, -diff);
+        }
+        BigInteger[] qr = ca.divideAndRemainder(cb);
+        if (digits(qr[0]) <= prec) {
+            return new DecimalValue[]{finite(sign, qr[0], 0), finite(a.getSign(), qr[1], idealExp)};
+        }
+        return null;
+    }
+
+    private DecimalValue[] divisionImpossible() {
+        DecimalValue nan = signal(DIVISION_IMPOSSIBLE);
+        return new DecimalValue[]{nan, nan};
+    }
+
+    /** Equivalent of {@code Decimal.__divmod__}. */
+    DecimalValue[] divmod(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = checkNaNs(a, b);
+        if (nan != null) {
+            return new DecimalValue[]{nan, nan};
+        }
+        int sign = a.getSign() ^ b.getSign();
+        if (a.isInfinite()) {
+            if (b.isInfinite()) {
+                nan = invalid();
+                return new DecimalValue[]{nan, nan};
+            }
+            return new DecimalValue[]{DecimalValue.infinity(sign), invalid()};
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                nan = signal(DIVISION_UNDEFINED);
+                return new DecimalValue[]{nan, nan};
+            }
+            status |= DIVISION_BY_ZERO;
+            return new DecimalValue[]{DecimalValue.infinity(sign), invalid()};
+        }
+        DecimalValue[] result = divideInteger(a, b);
+        if (!b.isInfinite()) {
+            result[0] = fix(result[0]);
+        }
+        result[1] = fix(result[1]);
+        return result;
+    }
+
+    /**
+     * Equivalent of {@code Decimal.__floordiv__}. Unlike {@code _pydecimal}, a nonzero quotient is
+     * fitted into the context, like {@code libmpdec} does.
+     */
+    DecimalValue divideToInteger(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        int sign = a.getSign() ^ b.getSign();
+        if (a.isInfinite()) {
+            if (b.isInfinite()) {
+                return invalid();
+            }
+            return DecimalValue.infinity(sign);
+        }
+        if (b.isZero()) {
+            if (!a.isZero()) {
+                status |= DIVISION_BY_ZERO;
+                return DecimalValue.infinity(sign);
+            }
+            return signal(DIVISION_UNDEFINED);
+        }
+        DecimalValue quotient = divideInteger(a, b)[0];
+        return b.isInfinite() ? quotient : fix(quotient);
+    }
+
+    /** Equivalent of {@code Decimal.__mod__}. */
+    DecimalValue remainder(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isInfinite()) {
+            return invalid();
+        }
+        if (b.isZero()) {
+            if (!a.isZero()) {
+                return invalid();
+            }
+            return signal(DIVISION_UNDEFINED);
+        }
+        return fix(divideInteger(a, b)[1]);
+    }
+
+    /** Equivalent of {@code Decimal.remainder_near}. */
+    DecimalValue remainderNear(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isInfinite()) {
+            return invalid();
+        }
+        if (b.isZero()) {
+            if (!a.isZero()) {
+                return invalid();
+            }
+            return signal(DIVISION_UNDEFINED);
+        }
+        if (b.isInfinite()) {
+            return fix(a);
+        }
+        long idealExp = Math.min(a.getExponent(), b.getExponent());
+        if (a.isZero()) {
+            return fix(finite(a.getSign(), 0, idealExp));
+        }
+        long expDiff = a.adjusted() - b.adjusted();
+        if (expDiff >= prec + 1) {
+            return signal(DIVISION_IMPOSSIBLE);
+        }
+        if (expDiff <= -2) {
+            return fix(rescale(a, idealExp, rounding));
+        }
+        return remainderNearBig(a, b, idealExp);
+    }
+
+    @TruffleBoundary
+    private DecimalValue remainderNearBig(DecimalValue a, DecimalValue b, long idealExp) {
+        BigInteger ca = a.getCoefficient();
+        BigInteger cb = b.getCoefficient();
+        long diff = a.getExponent() - b.getExponent();
+        if (diff >= 0) {
+            ca = scale(ca, diff);
+        } else {
+            cb = scale(cb, -diff);
+        }
+        BigInteger[] qr = ca.divideAndRemainder(cb);
+        BigInteger q = qr[0];
+        BigInteger r = qr[1];
+        // make sure that abs(remainder) <= abs(b) / 2
+        if (r.shiftLeft(1).add(q.testBit(0) ? BigInteger.ONE : BigInteger.ZERO).compareTo(cb) > 0) {
+            r = r.subtract(cb);
+            q = q.add(BigInteger.ONE);
+        }
+        if (digits(q) > prec) {
+            return signal(DIVISION_IMPOSSIBLE);
+        }
+        int sign = a.getSign();
+        if (r.signum() < 0) {
+            sign = 1 - sign;
+            r = r.negate();
+        }
+        return fix(finite(sign, r, idealExp));
+    }
+
+    /** Equivalent of {@code Decimal.fma}: {@code a * b + c} with a single rounding. */
+    DecimalValue fma(DecimalValue a, DecimalValue b, DecimalValue c) {
+        DecimalValue product;
+        if (a.isSpecial() || b.isSpecial()) {
+            if (a.isSNaN()) {
+                status |= INVALID_OPERATION;
+                return fixNaN(a.toQuiet());
+            }
+            if (b.isSNaN()) {
+                status |= INVALID_OPERATION;
+                return fixNaN(b.toQuiet());
+            }
+            if (a.isNaN()) {
+                product = a;
+            } else if (b.isNaN()) {
+                product = b;
+            } else if (a.isInfinite() && b.isZero() || b.isInfinite() && a.isZero()) {
+                return invalid();
+            } else {
+                product = DecimalValue.infinity(a.getSign() ^ b.getSign());
+            }
+        } else {
+            product = finite(a.getSign() ^ b.getSign(), multiplyBig(a, b), a.getExponent() + b.getExponent());
+        }
+        return add(product, c);
+    }
+
+    // Powers
+
+    /**
+     * Equivalent of the two argument form of {@code Decimal.__pow__}. Like {@code _pydecimal}, the
+     * result is always correctly rounded, whereas {@code libmpdec} may differ in the last place or
+     * in results that underflow far below the subnormal range.
+     */
+    @TruffleBoundary
+    DecimalValue power(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        if (b.isZero()) {
+            if (a.isZero()) {
+                return invalid();
+            }
+            return DecimalValue.ONE;
+        }
+        int resultSign = 0;
+        DecimalValue x = a;
+        if (a.isNegative()) {
+            if (isInteger(b)) {
+                if (!isEven(b)) {
+                    resultSign = 1;
+                }
+            } else if (!a.isZero()) {
+                return invalid();
+            }
+            x = a.negate();
+        }
+        if (x.isZero()) {
+            return b.isNegative() ? DecimalValue.infinity(resultSign) : finite(resultSign, 0, 0);
+        }
+        if (x.isInfinite()) {
+            return b.isNegative() ? finite(resultSign, 0, 0) : DecimalValue.infinity(resultSign);
+        }
+        if (compareValues(x, DecimalValue.ONE) == 0) {
+            long exp;
+            if (isInteger(b)) {
+                long multiplier;
+                if (b.isNegative()) {
+                    multiplier = 0;
+                } else if (compareValues(b, DecimalValue.fromLong(prec)) > 0) {
+                    multiplier = prec;
+                } else {
+                    multiplier = toBigInteger(b).longValue();
+                }
+                BigInteger product = BigInteger.valueOf(x.getExponent()).multiply(BigInteger.valueOf(multiplier));
+                if (product.compareTo(BigInteger.valueOf(1 - prec)) < 0) {
+                    exp = 1 - prec;
+                    status |= ROUNDED;
+                } else {
+                    exp = product.longValue();
+                }
+            } else {
+                status |= INEXACT | ROUNDED;
+                exp = 1 - prec;
+            }
+            return finite(resultSign, powerOfTen(-exp), exp);
+        }
+        long selfAdjusted = x.adjusted();
+        if (b.isInfinite()) {
+            if (!b.isNegative() == (selfAdjusted < 0)) {
+                return finite(resultSign, 0, 0);
+            }
+            return DecimalValue.infinity(resultSign);
+        }
+        DecimalValue result = null;
+        boolean exact = false;
+        // a cheap check whether the result certainly overflows or underflows
+        long bound = log10ExpBound(x) + b.adjusted();
+        if ((selfAdjusted >= 0) == !b.isNegative()) {
+            if (bound >= digits(emax)) {
+                result = finite(resultSign, 1, emax + 1);
+            }
+        } else {
+            if (bound >= digits(-etiny())) {
+                result = finite(resultSign, 1, etiny() - 1);
+            }
+        }
+        if (result == null) {
+            result = powerExact(x, b, prec + 1);
+            if (result != null) {
+                result = result.withSign(resultSign);
+                exact = true;
+            }
+        }
+        if (result == null) {
+            BigInteger yc = b.isNegative() ? b.getCoefficient().negate() : b.getCoefficient();
+            long extra = 3;
+            BigInteger[] power;
+            while (true) {
+                power = dpower(x.getCoefficient(), x.getExponent(), yc, b.getExponent(), prec + extra);
+                if (isSafeToRound(power[0], prec)) {
+                    break;
+                }
+                extra += 3;
+            }
+            result = finite(resultSign, power[0], saturate(power[1]));
+        }
+        if (exact && !isInteger(b)) {
+            // the result is exact, but it has to be marked inexact and rounded anyway
+            if (result.digits() <= prec) {
+                long expDiff = prec + 1 - result.digits();
+                result = finite(result.getSign(), scale(result.getCoefficient(), expDiff), result.getExponent() - expDiff);
+            }
+            DecimalArithmetic fixing = new DecimalArithmetic(prec, rounding, emin, emax, clamp);
+            result = fixing.fix(result);
+            int fixingStatus = fixing.status | INEXACT;
+            if ((fixingStatus & SUBNORMAL) != 0) {
+                fixingStatus |= UNDERFLOW;
+            }
+            status |= fixingStatus & (OVERFLOW | UNDERFLOW | SUBNORMAL | INEXACT | ROUNDED | CLAMPED);
+            return result;
+        }
+        return fix(result);
+    }
+
+    /**
+     * Equivalent of {@code Decimal._power_exact}: computes {@code x**y} if it is exactly
+     * representable with {@code p} digits and returns {@code null} otherwise. {@code x} must be
+     * positive and not equal to one and {@code y} must be finite and nonzero.
+     */
+    private static DecimalValue powerExact(DecimalValue x, DecimalValue y, long p) {
+        BigInteger xc = x.getCoefficient();
+        long xe = x.getExponent();
+        while (xc.mod(BigInteger.TEN).signum() == 0) {
+            xc = xc.divide(BigInteger.TEN);
+            xe++;
+        }
+        BigInteger yc = y.getCoefficient();
+        long ye = y.getExponent();
+        while (yc.mod(BigInteger.TEN).signum() == 0) {
+            yc = yc.divide(BigInteger.TEN);
+            ye++;
+        }
+
+        // x is a power of ten
+        if (xc.equals(BigInteger.ONE)) {
+            BigInteger e = BigInteger.valueOf(xe).multiply(yc);
+            while (e.mod(BigInteger.TEN).signum() == 0) {
+                e = e.divide(BigInteger.TEN);
+                ye++;
+            }
+            if (ye < 0) {
+                return null;
+            }
+            BigInteger exponent = e.multiply(powerOfTen(ye));
+            if (y.isNegative()) {
+                exponent = exponent.negate();
+            }
+            long zeros = 0;
+            if (isInteger(y) && !y.isNegative()) {
+                BigInteger idealExponent = BigInteger.valueOf(x.getExponent()).multiply(toBigInteger(y));
+                zeros = exponent.subtract(idealExponent).min(BigInteger.valueOf(p - 1)).longValue();
+            }
+            return finite(0, powerOfTen(zeros), saturate(exponent.subtract(BigInteger.valueOf(zeros))));
+        }
+
+        // y is negative: x must be a power of 2 or 5 and the result a power of 5 or 2
+        if (y.isNegative()) {
+            long lastDigit = xc.mod(BigInteger.TEN).longValue();
+            BigInteger e;
+            BigInteger exponent;
+            if (lastDigit % 2 == 0) {
+                if (xc.bitCount() != 1) {
+                    return null;
+                }
+                // log(5)/log(2) is a little less than 93/65
+                long maxE = p / 65 * 93 + p % 65 * 93 / 65;
+                if (ye >= digits(maxE)) {
+                    return null;
+                }
+                e = decimalLshiftExact(BigInteger.valueOf(xc.bitLength() - 1).multiply(yc), ye);
+                exponent = decimalLshiftExact(BigInteger.valueOf(xe).multiply(yc), ye);
+                if (e == null || exponent == null || e.compareTo(BigInteger.valueOf(maxE)) > 0) {
+                    return null;
+                }
+                xc = FIVE.pow(e.intValueExact());
+            } else if (lastDigit == 5) {
+                long e0 = xc.bitLength() * 28L / 65;
+                BigInteger[] qr = FIVE.pow(Math.toIntExact(e0)).divideAndRemainder(xc);
+                if (qr[1].signum() != 0) {
+                    return null;
+                }
+                xc = qr[0];
+                while (xc.mod(FIVE).signum() == 0) {
+                    xc = xc.divide(FIVE);
+                    e0--;
+                }
+                // log(2)/log(5) is a little less than 10/3
+                long maxE = p / 3 * 10 + p % 3 * 10 / 3;
+                if (ye >= digits(maxE)) {
+                    return null;
+                }
+                e = decimalLshiftExact(BigInteger.valueOf(e0).multiply(yc), ye);
+                exponent = decimalLshiftExact(BigInteger.valueOf(xe).multiply(yc), ye);
+                if (e == null || exponent == null || e.compareTo(BigInteger.valueOf(maxE)) > 0) {
+                    return null;
+                }
+                xc = TWO.pow(e.intValueExact());
+            } else {
+                return null;
+            }
+            if (digits(xc) > p) {
+                return null;
+            }
+            return finite(0, xc, saturate(e.negate().subtract(exponent)));
+        }
+
+        // y is positive: y = m/n with m and n relatively prime, and x must be an n-th power
+        BigInteger m;
+        long n;
+        long xcBits = xc.bitLength();
+        if (ye >= 0) {
+            m = yc.multiply(powerOfTen(ye));
+            n = 1;
+        } else {
+            if (xe != 0 && digits(yc.multiply(BigInteger.valueOf(xe)).abs()) <= -ye) {
+                return null;
+            }
+            if (digits(yc.multiply(BigInteger.valueOf(xcBits))) <= -ye) {
+                return null;
+            }
+            m = yc;
+            BigInteger bigN = powerOfTen(-ye);
+            while (!m.testBit(0) && !bigN.testBit(0)) {
+                m = m.shiftRight(1);
+                bigN = bigN.shiftRight(1);
+            }
+            while (m.mod(FIVE).signum() == 0 && bigN.mod(FIVE).signum() == 0) {
+                m = m.divide(FIVE);
+                bigN = bigN.divide(FIVE);
+            }
+            if (bigN.compareTo(BigInteger.valueOf(xcBits)) >= 0) {
+                return null;
+            }
+            n = bigN.longValue();
+        }
+        if (n > 1) {
+            if (xe % n != 0) {
+                return null;
+            }
+            xe = Math.floorDiv(xe, n);
+            // compute the n-th root of xc using Newton's method
+            BigInteger bigN = BigInteger.valueOf(n);
+            BigInteger root = BigInteger.ONE.shiftLeft(Math.toIntExact(-Math.floorDiv(-xcBits, n)));
+            BigInteger[] qr;
+            while (true) {
+                qr = xc.divideAndRemainder(root.pow((int) n - 1));
+                if (root.compareTo(qr[0]) <= 0) {
+                    break;
+                }
+                root = root.multiply(BigInteger.valueOf(n - 1)).add(qr[0]).divide(bigN);
+            }
+            if (!(root.equals(qr[0]) && qr[1].signum() == 0)) {
+                return null;
+            }
+            xc = root;
+        }
+        // avoid computing powers that have far more than p digits
+        if (xc.compareTo(BigInteger.ONE) > 0) {
+            long lb = log10Lb(xc);
+            if (m.compareTo(BigInteger.valueOf(p / lb * 100 + p % lb * 100 / lb)) > 0) {
+                return null;
+            }
+        }
+        int intM = m.intValueExact();
+        xc = xc.pow(intM);
+        BigInteger exponent = BigInteger.valueOf(xe).multiply(m);
+        if (xc.compareTo(powerOfTen(p)) > 0) {
+            return null;
+        }
+        long zeros = 0;
+        if (isInteger(y) && !y.isNegative()) {
+            BigInteger idealExponent = BigInteger.valueOf(x.getExponent()).multiply(toBigInteger(y));
+            zeros = exponent.subtract(idealExponent).min(BigInteger.valueOf(p - digits(xc))).longValue();
+        }
+        return finite(0, scale(xc, zeros), saturate(exponent.subtract(BigInteger.valueOf(zeros))));
+    }
+
+    /** Equivalent of {@code Decimal._power_modulo}: the three argument form of {@code pow}. */
+    @TruffleBoundary
+    DecimalValue powerModulo(DecimalValue a, DecimalValue b, DecimalValue modulo) {
+        if (a.isNaN() || b.isNaN() || modulo.isNaN()) {
+            for (DecimalValue v : new DecimalValue[]{a, b, modulo}) {
+                if (v.isSNaN()) {
+                    status |= INVALID_OPERATION;
+                    return fixNaN(v.toQuiet());
+                }
+            }
+            return fixNaN(a.isNaN() ? a : b.isNaN() ? b : modulo);
+        }
+        if (!isInteger(a) || !isInteger(b) || !isInteger(modulo)) {
+            return invalid();
+        }
+        if (b.isNegative() && !b.isZero()) {
+            return invalid();
+        }
+        if (modulo.isZero() || modulo.adjusted() >= prec) {
+            return invalid();
+        }
+        if (a.isZero() && b.isZero()) {
+            return invalid();
+        }
+        int sign = isEven(b) ? 0 : a.getSign();
+        BigInteger m = toBigInteger(modulo).abs();
+        DecimalValue base = rescale(a, Math.min(a.getExponent(), 0), rounding);
+        DecimalValue exponent = rescale(b, Math.min(b.getExponent(), 0), rounding);
+        BigInteger result = base.getCoefficient().mod(m).multiply(BigInteger.TEN.modPow(BigInteger.valueOf(base.getExponent()), m)).mod(m);
+        for (long i = 0; i < exponent.getExponent(); i++) {
+            result = result.modPow(BigInteger.TEN, m);
+        }
+        result = result.modPow(exponent.getCoefficient(), m);
+        return finite(sign, result, 0);
+    }
+
+    // Rounding to an exponent
+
+    /** Equivalent of {@code Decimal.quantize}. */
+    DecimalValue quantize(DecimalValue a, DecimalValue b, int mode) {
+        if (a.isSpecial() || b.isSpecial()) {
+            DecimalValue nan = checkNaNs(a, b);
+            if (nan != null) {
+                return nan;
+            }
+            if (a.isInfinite() && b.isInfinite()) {
+                return a;
+            }
+            return invalid();
+        }
+        long exp = b.getExponent();
+        if (exp < etiny() || exp > emax) {
+            return invalid();
+        }
+        if (a.isZero()) {
+            return fix(finite(a.getSign(), 0, exp));
+        }
+        if (a.adjusted() > emax || a.adjusted() - exp + 1 > prec) {
+            return invalid();
+        }
+        DecimalValue result = rescale(a, exp, mode);
+        if (result.adjusted() > emax || result.digits() > prec) {
+            return invalid();
+        }
+        if (!result.isZero() && result.adjusted() < emin) {
+            status |= SUBNORMAL;
+        }
+        if (result.getExponent() > a.getExponent()) {
+            if (compareValues(result, a) != 0) {
+                status |= INEXACT;
+            }
+            status |= ROUNDED;
+        }
+        return fix(result);
+    }
+
+    /** Equivalent of {@code Decimal.to_integral_value}. */
+    DecimalValue toIntegralValue(DecimalValue a, int mode) {
+        if (a.isSpecial()) {
+            DecimalValue nan = checkNaNs(a, null);
+            return nan != null ? nan : a;
+        }
+        if (a.getExponent() >= 0) {
+            return a;
+        }
+        return rescale(a, 0, mode);
+    }
+
+    /** Equivalent of {@code Decimal.to_integral_exact}. */
+    DecimalValue toIntegralExact(DecimalValue a, int mode) {
+        if (a.isSpecial()) {
+            DecimalValue nan = checkNaNs(a, null);
+            return nan != null ? nan : a;
+        }
+        if (a.getExponent() >= 0) {
+            return a;
+        }
+        if (a.isZero()) {
+            return finite(a.getSign(), 0, 0);
+        }
+        DecimalValue result = rescale(a, 0, mode);
+        if (compareValues(result, a) != 0) {
+            status |= INEXACT;
+        }
+        status |= ROUNDED;
+        return result;
+    }
+
+    /** Equivalent of {@code Decimal.normalize}: strips the trailing zeros of the coefficient. */
+    DecimalValue reduce(DecimalValue a) {
+        if (a.isNaN()) {
+            return checkNaNs(a, null);
+        }
+        DecimalValue dup = fix(a);
+        if (dup.isInfinite()) {
+            return dup;
+        }
+        if (dup.isZero()) {
+            return finite(dup.getSign(), 0, 0);
+        }
+        return stripZeros(dup, clamp ? etop() : emax);
+    }
+
+    private static DecimalValue stripZeros(DecimalValue v, long maxExp) {
+        long exp = v.getExponent();
+        if (v.isSmall()) {
+            long c = v.getSmallCoefficient();
+            while (c % 10 == 0 && exp < maxExp) {
+                c /= 10;
+                exp++;
+            }
+            return finite(v.getSign(), c, exp);
+        }
+        return stripZerosBig(v, maxExp);
+    }
+
+    @TruffleBoundary
+    private static DecimalValue stripZerosBig(DecimalValue v, long maxExp) {
+        BigInteger c = v.getCoefficient();
+        long exp = v.getExponent();
+        while (exp < maxExp) {
+            BigInteger[] qr = c.divideAndRemainder(BigInteger.TEN);
+            if (qr[1].signum() != 0) {
+                break;
+            }
+            c = qr[0];
+            exp++;
+        }
+        return finite(v.getSign(), c, exp);
+    }
+
+    /** Equivalent of {@code Decimal.scaleb}. */
+    DecimalValue scaleb(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        if (!b.isFinite() || b.getExponent() != 0) {
+            return invalid();
+        }
+        long limit = 2 * (emax + prec);
+        if (!b.isSmall() || b.getSmallCoefficient() > limit) {
+            return invalid();
+        }
+        if (a.isInfinite()) {
+            return a;
+        }
+        long n = b.isNegative() ? -b.getSmallCoefficient() : b.getSmallCoefficient();
+        return fix(a.withExponent(a.getExponent() + n));
+    }
+
+    /**
+     * Checks the second operand of {@code shift} and {@code rotate}, which must be an integer in
+     * the range {@code [-prec, prec]}. Returns the result if it is already determined, or
+     * {@code null}.
+     */
+    private DecimalValue checkShiftOperands(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        if (!b.isFinite() || b.getExponent() != 0 || !b.isSmall() || b.getSmallCoefficient() > prec) {
+            return invalid();
+        }
+        if (a.isInfinite()) {
+            return a;
+        }
+        return null;
+    }
+
+    /** Equivalent of {@code Decimal.shift}. */
+    @TruffleBoundary
+    DecimalValue shift(DecimalValue a, DecimalValue b) {
+        DecimalValue result = checkShiftOperands(a, b);
+        if (result != null) {
+            return result;
+        }
+        long n = b.isNegative() ? -b.getSmallCoefficient() : b.getSmallCoefficient();
+        BigInteger c = truncateToPrecision(a.getCoefficient());
+        if (n < 0) {
+            c = c.divide(powerOfTen(-n));
+        } else {
+            c = truncateToPrecision(scale(c, n));
+        }
+        return finite(a.getSign(), c, a.getExponent());
+    }
+
+    /** Equivalent of {@code Decimal.rotate}. */
+    @TruffleBoundary
+    DecimalValue rotate(DecimalValue a, DecimalValue b) {
+        DecimalValue result = checkShiftOperands(a, b);
+        if (result != null) {
+            return result;
+        }
+        long n = b.isNegative() ? prec - b.getSmallCoefficient() : b.getSmallCoefficient();
+        BigInteger c = truncateToPrecision(a.getCoefficient());
+        BigInteger low = truncateToPrecision(scale(c, n));
+        BigInteger high = n == 0 ? BigInteger.ZERO : c.divide(powerOfTen(prec - n));
+        return finite(a.getSign(), low.add(high), a.getExponent());
+    }
+
+    /** Keeps the last {@code prec} digits of {@code c}. */
+    private BigInteger truncateToPrecision(BigInteger c) {
+        if (digits(c) <= prec) {
+            return c;
+        }
+        return c.mod(powerOfTen(prec));
+    }
+
+    // Transcendental functions
+
+    /** Equivalent of {@code Decimal.sqrt}. */
+    @TruffleBoundary
+    DecimalValue sqrt(DecimalValue a) {
+        if (a.isSpecial()) {
+            DecimalValue nan = checkNaNs(a, null);
+            if (nan != null) {
+                return nan;
+            }
+            if (!a.isNegative()) {
+                return a;
+            }
+        }
+        if (a.isZero()) {
+            return fix(finite(a.getSign(), 0, Math.floorDiv(a.getExponent(), 2)));
+        }
+        if (a.isNegative()) {
+            return invalid();
+        }
+        // the result has p = prec + 1 digits; compute c with 2p or 2p - 1 digits and an even
+        // exponent, then find its integer square root
+        long p = prec + 1;
+        BigInteger c = a.getCoefficient();
+        long e = a.getExponent() >> 1;
+        long l;
+        if ((a.getExponent() & 1) != 0) {
+            c = c.multiply(BigInteger.TEN);
+            l = (a.digits() >> 1) + 1;
+        } else {
+            l = (a.digits() + 1) >> 1;
+        }
+        long shift = p - l;
+        boolean exact;
+        if (shift >= 0) {
+            c = scale(c, 2 * shift);
+            exact = true;
+        } else {
+            BigInteger[] qr = c.divideAndRemainder(powerOfTen(-2 * shift));
+            c = qr[0];
+            exact = qr[1].signum() == 0;
+        }
+        e -= shift;
+        BigInteger n = powerOfTen(p);
+        while (true) {
+            BigInteger q = c.divide(n);
+            if (n.compareTo(q) <= 0) {
+                break;
+            }
+            n = n.add(q).shiftRight(1);
+        }
+        exact = exact && n.multiply(n).equals(c);
+        if (exact) {
+            if (shift >= 0) {
+                n = n.divide(powerOfTen(shift));
+            } else {
+                n = scale(n, -shift);
+            }
+            e += shift;
+        } else if (n.mod(FIVE).signum() == 0) {
+            n = n.add(BigInteger.ONE);
+        }
+        return fix(finite(0, n, e), ROUND_HALF_EVEN);
+    }
+
+    /** Equivalent of {@code Decimal.exp}. */
+    @TruffleBoundary
+    DecimalValue exp(DecimalValue a) {
+        DecimalValue nan = checkNaNs(a, null);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isInfinite()) {
+            return a.isNegative() ? DecimalValue.ZERO : a;
+        }
+        if (a.isZero()) {
+            return DecimalValue.ONE;
+        }
+        long p = prec;
+        long adjusted = a.adjusted();
+        DecimalValue result;
+        if (!a.isNegative() && adjusted > digits((emax + 1) * 3)) {
+            // overflow
+            result = finite(0, 1, emax + 1);
+        } else if (a.isNegative() && adjusted > digits((-etiny() + 1) * 3)) {
+            // underflow to 0
+            result = finite(0, 1, etiny() - 1);
+        } else if (!a.isNegative() && adjusted < -p) {
+            // p + 1 digits; the final rounding gives the right result
+            result = finite(0, powerOfTen(p).add(BigInteger.ONE), -p);
+        } else if (a.isNegative() && adjusted < -p - 1) {
+            // p + 1 digits; the final rounding gives the right result
+            result = finite(0, powerOfTen(p + 1).subtract(BigInteger.ONE), -p - 1);
+        } else {
+            BigInteger c = a.isNegative() ? a.getCoefficient().negate() : a.getCoefficient();
+            long extra = 3;
+            BigInteger[] r;
+            while (true) {
+                r = dexp(c, a.getExponent(), p + extra);
+                if (isSafeToRound(r[0], p)) {
+                    break;
+                }
+                extra += 3;
+            }
+            result = finite(0, r[0], saturate(r[1]));
+        }
+        return fix(result, ROUND_HALF_EVEN);
+    }
+
+    /** Equivalent of {@code Decimal.ln}. */
+    @TruffleBoundary
+    DecimalValue ln(DecimalValue a) {
+        DecimalValue nan = checkNaNs(a, null);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isZero()) {
+            return DecimalValue.NEGATIVE_INFINITY;
+        }
+        if (a.isInfinite() && !a.isNegative()) {
+            return DecimalValue.INFINITY;
+        }
+        if (a.isNegative()) {
+            return invalid();
+        }
+        if (compareValues(a, DecimalValue.ONE) == 0) {
+            return DecimalValue.ZERO;
+        }
+        // at least p + 3 places
+        long places = prec - lnExpBound(a) + 2;
+        BigInteger coefficient;
+        while (true) {
+            coefficient = dlog(a.getCoefficient(), a.getExponent(), places);
+            if (isSafeToRound(coefficient, prec)) {
+                break;
+            }
+            places += 3;
+        }
+        return fix(finite(coefficient.signum() < 0 ? 1 : 0, coefficient.abs(), -places), ROUND_HALF_EVEN);
+    }
+
+    /** Equivalent of {@code Decimal.log10}. */
+    @TruffleBoundary
+    DecimalValue log10(DecimalValue a) {
+        DecimalValue nan = checkNaNs(a, null);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isZero()) {
+            return DecimalValue.NEGATIVE_INFINITY;
+        }
+        if (a.isInfinite() && !a.isNegative()) {
+            return DecimalValue.INFINITY;
+        }
+        if (a.isNegative()) {
+            return invalid();
+        }
+        DecimalValue result;
+        if (a.getCoefficient().equals(powerOfTen(a.digits() - 1))) {
+            // the result is exact
+            result = DecimalValue.fromLong(a.adjusted());
+        } else {
+            long places = prec - log10ExpBound(a) + 2;
+            BigInteger coefficient;
+            while (true) {
+                coefficient = dlog10(a.getCoefficient(), a.getExponent(), places);
+                if (isSafeToRound(coefficient, prec)) {
+                    break;
+                }
+                places += 3;
+            }
+            result = finite(coefficient.signum() < 0 ? 1 : 0, coefficient.abs(), -places);
+        }
+        return fix(result, ROUND_HALF_EVEN);
+    }
+
+    /** Equivalent of {@code Decimal.logb}. */
+    DecimalValue logb(DecimalValue a) {
+        DecimalValue nan = checkNaNs(a, null);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isInfinite()) {
+            return DecimalValue.INFINITY;
+        }
+        if (a.isZero()) {
+            status |= DIVISION_BY_ZERO;
+            return DecimalValue.NEGATIVE_INFINITY;
+        }
+        return fix(DecimalValue.fromLong(a.adjusted()));
+    }
+
+    /**
+     * Whether an approximation with an error of at most one in the last place can be correctly
+     * rounded to {@code prec} digits, i.e., whether the digits after the first {@code prec + 1}
+     * digits are not {@code 0} or {@code 5} followed by zeros.
+     */
+    private static boolean isSafeToRound(BigInteger coefficient, long prec) {
+        long n = digits(coefficient.abs()) - prec - 1;
+        if (n < 0) {
+            return false;
+        }
+        return coefficient.mod(powerOfTen(n).multiply(FIVE)).signum() != 0;
+    }
+
+    // Successors and predecessors
+
+    /** Equivalent of {@code Decimal.next_minus}. */
+    DecimalValue nextMinus(DecimalValue a) {
+        return next(a, false);
+    }
+
+    /** Equivalent of {@code Decimal.next_plus}. */
+    DecimalValue nextPlus(DecimalValue a) {
+        return next(a, true);
+    }
+
+    @TruffleBoundary
+    private DecimalValue next(DecimalValue a, boolean up) {
+        DecimalValue nan = checkNaNs(a, null);
+        if (nan != null) {
+            return nan;
+        }
+        if (a.isInfinite()) {
+            if (a.isNegative() != up) {
+                return a;
+            }
+            return finite(a.getSign(), powerOfTen(prec).subtract(BigInteger.ONE), etop());
+        }
+        // the conditions raised in the temporary context are ignored
+        DecimalArithmetic directed = new DecimalArithmetic(prec, up ? ROUND_CEILING : ROUND_FLOOR, emin, emax, clamp);
+        DecimalValue fixed = directed.fix(a);
+        if (compareValues(fixed, a) != 0) {
+            return fixed;
+        }
+        DecimalValue tiny = finite(up ? 0 : 1, 1, etiny() - 1);
+        return directed.add(a, tiny);
+    }
+
+    /** Equivalent of {@code Decimal.next_toward}. */
+    DecimalValue nextToward(DecimalValue a, DecimalValue b) {
+        DecimalValue nan = checkNaNs(a, b);
+        if (nan != null) {
+            return nan;
+        }
+        int comparison = compareValues(a, b);
+        if (comparison == 0) {
+            return a.withSign(b.getSign());
+        }
+        DecimalValue result = next(a, comparison < 0);
+        if (result.isInfinite()) {
+            status |= OVERFLOW | INEXACT | ROUNDED;
+        } else if (result.adjusted() < emin) {
+            status |= UNDERFLOW | SUBNORMAL | INEXACT | ROUNDED;
+            if (result.isZero()) {
+                status |= CLAMPED;
+            }
+        }
+        return result;
+    }
+
+    // Logical operations
+
+    static final int LOGICAL_AND = 0;
+    static final int LOGICAL_OR = 1;
+    static final int LOGICAL_XOR = 2;
+
+    private static boolean isLogical(DecimalValue v) {
+        if (!v.isFinite() || v.isNegative() || v.getExponent() != 0) {
+            return false;
+        }
+        String digits = v.coefficientString();
+        for (int i = 0; i < digits.length(); i++) {
+            if (digits.charAt(i) > '1') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Equivalent of {@code Decimal.logical_and}, {@code logical_or} and {@code logical_xor}. */
+    @TruffleBoundary
+    DecimalValue logical(DecimalValue a, DecimalValue b, int op) {
+        if (!isLogical(a) || !isLogical(b)) {
+            return invalid();
+        }
+        String x = a.coefficientString();
+        String y = b.coefficientString();
+        int n = (int) Math.min(Math.max(x.length(), y.length()), prec);
+        char[] result = new char[n];
+        for (int i = 0; i < n; i++) {
+            int dx = i < x.length() ? x.charAt(x.length() - 1 - i) - '0' : 0;
+            int dy = i < y.length() ? y.charAt(y.length() - 1 - i) - '0' : 0;
+            int r;
+            switch (op) {
+                case LOGICAL_AND:
+                    r = dx & dy;
+                    break;
+                case LOGICAL_OR:
+                    r = dx | dy;
+                    break;
+                default:
+                    r = dx ^ dy;
+                    break;
+            }
+            result[n - 1 - i] = (char) ('0' + r);
+        }
+        return finite(0, new BigInteger(new String(result)), 0);
+    }
+
+    /** Equivalent of {@code Decimal.logical_invert}. */
+    @TruffleBoundary
+    DecimalValue logicalInvert(DecimalValue a) {
+        if (!isLogical(a)) {
+            return invalid();
+        }
+        String x = a.coefficientString();
+        int n = Math.toIntExact(prec);
+        char[] result = new char[n];
+        for (int i = 0; i < n; i++) {
+            int d = i < x.length() ? x.charAt(x.length() - 1 - i) - '0' : 0;
+            result[n - 1 - i] = (char) ('1' - d);
+        }
+        return finite(0, new BigInteger(new String(result)), 0);
+    }
+
+    // Classification
+
+    boolean isNormal(DecimalValue a) {
+        return a.isFinite() && !a.isZero() && a.adjusted() >= emin;
+    }
+
+    boolean isSubnormal(DecimalValue a) {
+        return a.isFinite() && !a.isZero() && a.adjusted() < emin;
+    }
+
+    /** Equivalent of {@code Decimal.number_class}. */
+    String numberClass(DecimalValue a) {
+        if (a.isSNaN()) {
+            return "sNaN";
+        }
+        if (a.isQNaN()) {
+            return "NaN";
+        }
+        String sign = a.isNegative() ? "-" : "+";
+        if (a.isInfinite()) {
+            return sign + "Infinity";
+        }
+        if (a.isZero()) {
+            return sign + "Zero";
+        }
+        if (isSubnormal(a)) {
+            return sign + "Subnormal";
+        }
+        return sign + "Normal";
+    }
+
+    static boolean sameQuantum(DecimalValue a, DecimalValue b) {
+        if (a.isSpecial() || b.isSpecial()) {
+            return a.isNaN() && b.isNaN() || a.isInfinite() && b.isInfinite();
+        }
+        return a.getExponent() == b.getExponent();
+    }
+
+    /** Whether {@code v} is a finite integral value. */
+    static boolean isInteger(DecimalValue v) {
+        if (!v.isFinite()) {
+            return false;
+        }
+        if (v.getExponent() >= 0 || v.isZero()) {
+            return true;
+        }
+        long n = -v.getExponent();
+        if (v.isSmall()) {
+            // a nonzero long has fewer than POWERS_OF_TEN.length trailing zeros
+            return n < POWERS_OF_TEN.length && v.getSmallCoefficient() % POWERS_OF_TEN[(int) n] == 0;
+        }
+        return n < v.digits() && isMultipleOfPowerOfTen(v.getCoefficient(), n);
+    }
+
+    @TruffleBoundary
+    private static boolean isMultipleOfPowerOfTen(BigInteger c, long n) {
+        return c.mod(powerOfTen(n)).signum() == 0;
+    }
+
+    /** Whether the integral value {@code v} is even. */
+    @TruffleBoundary
+    private static boolean isEven(DecimalValue v) {
+        if (v.isZero() || v.getExponent() > 0) {
+            return true;
+        }
+        return !v.getCoefficient().divide(powerOfTen(-v.getExponent())).testBit(0);
+    }
+
+    // Integer helpers for the transcendental functions, ported from _pydecimal
+
+    /** Clamps a computed exponent so that it fits a long and still overflows or underflows. */
+    private static long saturate(BigInteger exp) {
+        BigInteger limit = BigInteger.valueOf(Long.MAX_VALUE / 2);
+        if (exp.compareTo(limit) > 0) {
+            return limit.longValue();
+        }
+        if (exp.compareTo(limit.negate()) < 0) {
+            return -limit.longValue();
+        }
+        return exp.longValue();
+    }
+
+    /** Python's {@code divmod} for a positive divisor. */
+    private static BigInteger[] floorDivMod(BigInteger a, BigInteger b) {
+        BigInteger[] qr = a.divideAndRemainder(b);
+        if (qr[1].signum() < 0) {
+            qr[0] = qr[0].subtract(BigInteger.ONE);
+            qr[1] = qr[1].add(b);
+        }
+        return qr;
+    }
+
+    /** The number of characters of {@code str(n)}. */
+    private static long strLength(BigInteger n) {
+        return digits(n.abs()) + (n.signum() < 0 ? 1 : 0);
+    }
+
+    /** The number of characters of {@code str(n)}. */
+    private static long strLength(long n) {
+        return strLength(BigInteger.valueOf(n));
+    }
+
+    /** {@code n * 10**e} if that is an integer, or {@code null}. */
+    private static BigInteger decimalLshiftExact(BigInteger n, long e) {
+        if (n.signum() == 0) {
+            return BigInteger.ZERO;
+        } else if (e >= 0) {
+            return scale(n, e);
+        }
+        BigInteger d = powerOfTen(-e);
+        BigInteger[] qr = n.divideAndRemainder(d);
+        return qr[1].signum() == 0 ? qr[0] : null;
+    }
+
+    /** Closest integer to the square root of the positive {@code n}, starting with {@code a}. */
+    private static BigInteger sqrtNearest(BigInteger n, BigInteger a) {
+        BigInteger b = BigInteger.ZERO;
+        while (!a.equals(b)) {
+            b = a;
+            // a + ceil(n / a), halved
+            a = a.add(n.add(a).subtract(BigInteger.ONE).divide(a)).shiftRight(1);
+        }
+        return a;
+    }
+
+    /** Closest integer to {@code x / 2**shift}, rounding to even in case of a tie. */
+    private static BigInteger rshiftNearest(BigInteger x, int shift) {
+        BigInteger b = BigInteger.ONE.shiftLeft(shift);
+        BigInteger q = x.shiftRight(shift);
+        BigInteger twiceRemainder = x.and(b.subtract(BigInteger.ONE)).shiftLeft(1);
+        return twiceRemainder.add(q.testBit(0) ? BigInteger.ONE : BigInteger.ZERO).compareTo(b) > 0 ? q.add(BigInteger.ONE) : q;
+    }
+
+    /** Closest integer to {@code a / b} for a positive {@code b}, rounding to even on a tie. */
+    private static BigInteger divNearest(BigInteger a, BigInteger b) {
+        BigInteger[] qr = floorDivMod(a, b);
+        BigInteger q = qr[0];
+        return qr[1].shiftLeft(1).add(q.testBit(0) ? BigInteger.ONE : BigInteger.ZERO).compareTo(b) > 0 ? q.add(BigInteger.ONE) : q;
+    }
+
+    /** The number of terms needed by {@link #ilog} and {@link #iexp} for the precision of M. */
+    private static long seriesTerms(BigInteger m) {
+        return -Math.floorDiv(-10 * digits(m), 24);
+    }
+
+    /** Integer approximation to {@code M * log(x / M)}. */
+    private static BigInteger ilog(BigInteger x, BigInteger m) {
+        final int l = 8;
+        BigInteger y = x.subtract(m);
+        int r = 0;
+        while (r <= l && y.abs().shiftLeft(l - r).compareTo(m) >= 0 || r > l && y.abs().shiftRight(r - l).compareTo(m) >= 0) {
+            BigInteger root = sqrtNearest(m.multiply(m.add(rshiftNearest(y, r))), m);
+            y = divNearest(m.multiply(y).shiftLeft(1), m.add(root));
+            r++;
+        }
+        long t = seriesTerms(m);
+        BigInteger yshift = rshiftNearest(y, r);
+        BigInteger w = divNearest(m, BigInteger.valueOf(t));
+        for (long k = t - 1; k > 0; k--) {
+            w = divNearest(m, BigInteger.valueOf(k)).subtract(divNearest(yshift.multiply(w), m));
+        }
+        return divNearest(w.multiply(y), m);
+    }
+
+    /** The exponent of the most significant digit of {@code c * 10**e}, or that plus one. */
+    private static long logExponent(BigInteger c, long e) {
+        long l = digits(c);
+        return e + l - (e + l >= 1 ? 1 : 0);
+    }
+
+    /** Integer approximation to {@code 10**p * log10(c * 10**e)}, with an error of at most 1. */
+    private static BigInteger dlog10(BigInteger c, long e, long places) {
+        long p = places + 2;
+        long f = logExponent(c, e);
+        BigInteger logD;
+        BigInteger logTenPower;
+        if (p > 0) {
+            BigInteger m = powerOfTen(p);
+            long k = e + p - f;
+            if (k >= 0) {
+                c = scale(c, k);
+            } else {
+                c = divNearest(c, powerOfTen(-k));
+            }
+            logD = ilog(c, m);
+            logD = divNearest(logD.multiply(m), log10Digits(p));
+            logTenPower = BigInteger.valueOf(f).multiply(m);
+        } else {
+            logD = BigInteger.ZERO;
+            logTenPower = divNearest(BigInteger.valueOf(f), powerOfTen(-p));
+        }
+        return divNearest(logTenPower.add(logD), BigInteger.valueOf(100));
+    }
+
+    /** Integer approximation to {@code 10**p * log(c * 10**e)}, with an error of at most 1. */
+    private static BigInteger dlog(BigInteger c, long e, long places) {
+        long p = places + 2;
+        long f = logExponent(c, e);
+        BigInteger logD;
+        if (p > 0) {
+            long k = e + p - f;
+            if (k >= 0) {
+                c = scale(c, k);
+            } else {
+                c = divNearest(c, powerOfTen(-k));
+            }
+            logD = ilog(c, powerOfTen(p));
+        } else {
+            logD = BigInteger.ZERO;
+        }
+        BigInteger fLogTen = BigInteger.ZERO;
+        if (f != 0) {
+            long extra = strLength(Math.abs(f)) - 1;
+            if (p + extra >= 0) {
+                fLogTen = divNearest(BigInteger.valueOf(f).multiply(log10Digits(p + extra)), powerOfTen(extra));
+            }
+        }
+        return divNearest(fLogTen.add(logD), BigInteger.valueOf(100));
+    }
+
+    private static volatile String log10DigitsCache = "23025850929940456840179914546843642076011014886";
+
+    /** {@code floor(10**p * log(10))}, computing and caching more digits when needed. */
+    private static BigInteger log10Digits(long p) {
+        String digits = log10DigitsCache;
+        if (p >= digits.length()) {
+            long extra = 3;
+            String computed;
+            while (true) {
+                BigInteger m = powerOfTen(p + extra + 2);
+                computed = divNearest(ilog(m.multiply(BigInteger.TEN), m), BigInteger.valueOf(100)).toString();
+                if (!computed.endsWith("0".repeat((int) extra))) {
+                    break;
+                }
+                extra += 3;
+            }
+            // remove the trailing zeros and the last digit, which may be wrong
+            int end = computed.length();
+            while (computed.charAt(end - 1) == '0') {
+                end--;
+            }
+            digits = computed.substring(0, end - 1);
+            log10DigitsCache = digits;
+        }
+        return new BigInteger(digits.substring(0, Math.toIntExact(p + 1)));
+    }
+
+    /** Integer approximation to {@code M * exp(x / M)} for a small {@code x / M}. */
+    private static BigInteger iexp(BigInteger x, BigInteger m) {
+        final int l = 8;
+        int r = floorDivMod(x.shiftLeft(l), m)[0].abs().bitLength();
+        long t = seriesTerms(m);
+        BigInteger y = divNearest(x, BigInteger.valueOf(t));
+        BigInteger mshift = m.shiftLeft(r);
+        for (long i = t - 1; i > 0; i--) {
+            y = divNearest(x.multiply(mshift.add(y)), mshift.multiply(BigInteger.valueOf(i)));
+        }
+        for (int k = r - 1; k >= 0; k--) {
+            mshift = m.shiftLeft(k + 2);
+            y = divNearest(y.multiply(y.add(mshift)), mshift);
+        }
+        return m.add(y);
+    }
+
+    /**
+     * Approximation to {@code exp(c * 10**e)} with {@code p} digits. Returns the coefficient and
+     * the exponent of the result.
+     */
+    private static BigInteger[] dexp(BigInteger c, long e, long places) {
+        long p = places + 2;
+        long extra = Math.max(0, e + strLength(c) - 1);
+        long q = p + extra;
+        // compute quotient c * 10**e / log(10) = quot + rem / log(10)
+        long shift = e + q;
+        BigInteger cshift;
+        if (shift >= 0) {
+            cshift = scale(c, shift);
+        } else {
+            cshift = floorDivMod(c, powerOfTen(-shift))[0];
+        }
+        BigInteger[] qr = floorDivMod(cshift, log10Digits(q));
+        BigInteger rem = divNearest(qr[1], powerOfTen(extra));
+        BigInteger coefficient = divNearest(iexp(rem, powerOfTen(p)), BigInteger.valueOf(1000));
+        return new BigInteger[]{coefficient, qr[0].subtract(BigInteger.valueOf(p - 3))};
+    }
+
+    /**
+     * Approximation to {@code x**y} with {@code p} digits, where {@code x = xc * 10**xe} is
+     * positive and not one and {@code y = yc * 10**ye} is nonzero. Returns the coefficient and
+     * the exponent of the result.
+     */
+    private static BigInteger[] dpower(BigInteger xc, long xe, BigInteger yc, long ye, long p) {
+        // the result is computed as exp(y * log(x)) with p + b + 1 places of the logarithm
+        long b = digits(yc.abs()) + ye;
+        BigInteger lxc = dlog(xc, xe, p + b + 1);
+        long shift = ye - b;
+        BigInteger pc;
+        if (shift >= 0) {
+            pc = scale(lxc.multiply(yc), shift);
+        } else {
+            pc = divNearest(lxc.multiply(yc), powerOfTen(-shift));
+        }
+        if (pc.signum() == 0) {
+            // we prefer a result that is not exactly 1
+            if ((digits(xc) + xe >= 1) == (yc.signum() > 0)) {
+                return new BigInteger[]{powerOfTen(p - 1).add(BigInteger.ONE), BigInteger.valueOf(1 - p)};
+            } else {
+                return new BigInteger[]{powerOfTen(p).subtract(BigInteger.ONE), BigInteger.valueOf(-p)};
+            }
+        }
+        BigInteger[] result = dexp(pc, -(p + 1), p + 1);
+        return new BigInteger[]{divNearest(result[0], BigInteger.TEN), result[1].add(BigInteger.ONE)};
+    }
+
+    /** A lower bound for {@code 100 * log10(c)} for a positive {@code c}. */
+    private static long log10Lb(BigInteger c) {
+        String s = c.toString();
+        final int[] correction = {0, 100, 70, 53, 40, 31, 23, 16, 10, 5};
+        return 100L * s.length() - correction[s.charAt(0) - '0'];
+    }
+
+    /** A lower bound for the adjusted exponent of {@code ln(v)} for a positive finite v. */
+    private static long lnExpBound(DecimalValue v) {
+        long adjusted = v.adjusted();
+        if (adjusted >= 1) {
+            // argument >= 10; we use 23/10 = 2.3 as a lower bound for ln(10)
+            return strLength(BigInteger.valueOf(adjusted).multiply(BigInteger.valueOf(23)).divide(BigInteger.TEN)) - 1;
+        }
+        if (adjusted <= -2) {
+            // argument <= 0.1
+            return strLength(BigInteger.valueOf(-1 - adjusted).multiply(BigInteger.valueOf(23)).divide(BigInteger.TEN)) - 1;
+        }
+        BigInteger c = v.getCoefficient();
+        long e = v.getExponent();
+        if (adjusted == 0) {
+            // 1 < argument < 10
+            String num = c.subtract(powerOfTen(-e)).toString();
+            String den = c.toString();
+            return num.length() - den.length() - (num.compareTo(den) < 0 ? 1 : 0);
+        }
+        // adjusted == -1, 0.1 <= argument < 1
+        return e + strLength(powerOfTen(-e).subtract(c)) - 1;
+    }
+
+    /** A lower bound for the adjusted exponent of {@code log10(v)} for a positive finite v. */
+    private static long log10ExpBound(DecimalValue v) {
+        long adjusted = v.adjusted();
+        if (adjusted >= 1) {
+            return strLength(adjusted) - 1;
+        }
+        if (adjusted <= -2) {
+            return strLength(-1 - adjusted) - 1;
+        }
+        BigInteger c = v.getCoefficient();
+        long e = v.getExponent();
+        if (adjusted == 0) {
+            // 1 < argument < 10, we use 231 as an upper bound for 100 * ln(10)
+            String num = c.subtract(powerOfTen(-e)).toString();
+            String den = c.multiply(BigInteger.valueOf(231)).toString();
+            return num.length() - den.length() - (num.compareTo(den) < 0 ? 1 : 0) + 2;
+        }
+        // adjusted == -1, 0.1 <= argument < 1
+        String num = powerOfTen(-e).subtract(c).toString();
+        return num.length() + e - (num.compareTo("231") < 0 ? 1 : 0) - 1;
+    }
+
+    // Conversions
+
+    /**
+     * Converts a string to a decimal and fits it into the context. The string must only contain
+     * ASCII characters; whitespace and underscores must have been handled by the caller.
+     */
+    DecimalValue fromString(String s) {
+        DecimalValue v = parse(s);
+        if (v == null) {
+            return signal(CONVERSION_SYNTAX);
+        }
+        if (v.isNaN()) {
+            if (v.hasPayload() && v.digits() > prec - (clamp ? 1 : 0)) {
+                return signal(CONVERSION_SYNTAX);
+            }
+            return v;
+        }
+        return fix(v);
+    }
+
+    /**
+     * Turns the result of a conversion that must be exact into {@code NaN} with
+     * {@code InvalidOperation} if the conversion lost information, like the conversions of the
+     * {@code Decimal} constructor do. Only the error conditions are kept in the status.
+     */
+    DecimalValue toExact(DecimalValue v) {
+        boolean inexact = (status & (INEXACT | ROUNDED | CLAMPED)) != 0;
+        status &= IEEE_INVALID_OPERATION | DIVISION_BY_ZERO;
+        if (inexact) {
+            return invalid();
+        }
+        return v;
+    }
+
+    /**
+     * Parses the syntax of a numeric string of the specification, returning {@code null} for a
+     * syntax error. Exponents that do not fit a {@code long} are saturated.
+     */
+    @TruffleBoundary
+    static DecimalValue parse(String s) {
+        int n = s.length();
+        int i = 0;
+        int sign = 0;
+        if (i < n && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            sign = s.charAt(i) == '-' ? 1 : 0;
+            i++;
+        }
+        String rest = s.substring(i);
+        if (rest.equalsIgnoreCase("inf") || rest.equalsIgnoreCase("infinity")) {
+            return DecimalValue.infinity(sign);
+        }
+        if (rest.regionMatches(true, 0, "nan", 0, 3)) {
+            return parseNaN(sign, rest.substring(3), false);
+        }
+        if (rest.regionMatches(true, 0, "snan", 0, 4)) {
+            return parseNaN(sign, rest.substring(4), true);
+        }
+        StringBuilder digits = new StringBuilder();
+        long fractionDigits = 0;
+        boolean seenDot = false;
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+                if (seenDot) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits.length() == 0) {
+            return null;
+        }
+        BigInteger exp = BigInteger.ZERO;
+        if (i < n) {
+            char c = s.charAt(i++);
+            if (c != 'e' && c != 'E') {
+                return null;
+            }
+            int start = i;
+            if (i < n && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                i++;
+            }
+            if (i == n) {
+                return null;
+            }
+            for (int j = i; j < n; j++) {
+                if (s.charAt(j) < '0' || s.charAt(j) > '9') {
+                    return null;
+                }
+            }
+            exp = new BigInteger(s.substring(start));
+        }
+        long exponent = saturate(exp.subtract(BigInteger.valueOf(fractionDigits)));
+        if (digits.length() < POWERS_OF_TEN.length) {
+            return finite(sign, Long.parseLong(digits.toString()), exponent);
+        }
+        return finite(sign, new BigInteger(digits.toString()), exponent);
+    }
+
+    private static DecimalValue parseNaN(int sign, String payload, boolean signaling) {
+        for (int i = 0; i < payload.length(); i++) {
+            if (payload.charAt(i) < '0' || payload.charAt(i) > '9') {
+                return null;
+            }
+        }
+        return DecimalValue.nan(sign, payload.isEmpty() ? BigInteger.ZERO : new BigInteger(payload), signaling);
+    }
+
+    /** The exact value of a double, like {@code Decimal.from_float}. */
+    @TruffleBoundary
+    static DecimalValue fromDouble(double d) {
+        int sign = Math.copySign(1.0, d) == 1.0 ? 0 : 1;
+        if (Double.isNaN(d)) {
+            return DecimalValue.NAN.withSign(sign);
+        }
+        if (Double.isInfinite(d)) {
+            return DecimalValue.infinity(sign);
+        }
+        BigDecimal exact = new BigDecimal(Math.abs(d));
+        return finite(sign, exact.unscaledValue(), -exact.scale());
+    }
+
+    /** Converts a finite value to an integer, truncating towards zero. */
+    @TruffleBoundary
+    static BigInteger toBigInteger(DecimalValue v) {
+        assert v.isFinite();
+        BigInteger c = v.getCoefficient();
+        if (v.getExponent() >= 0) {
+            c = scale(c, v.getExponent());
+        } else if (-v.getExponent() >= v.digits()) {
+            c = BigInteger.ZERO;
+        } else {
+            c = c.divide(powerOfTen(-v.getExponent()));
+        }
+        return v.isNegative() ? c.negate() : c;
+    }
+
+    /**
+     * The numerator and the denominator of the finite {@code v}, in lowest terms, like
+     * {@code Decimal.as_integer_ratio}.
+     */
+    @TruffleBoundary
+    static BigInteger[] asIntegerRatio(DecimalValue v) {
+        assert v.isFinite();
+        if (v.isZero()) {
+            return new BigInteger[]{BigInteger.ZERO, BigInteger.ONE};
+        }
+        BigInteger n = v.getCoefficient();
+        BigInteger d;
+        if (v.getExponent() >= 0) {
+            n = scale(n, v.getExponent());
+            d = BigInteger.ONE;
+        } else {
+            long d5 = -v.getExponent();
+            while (d5 > 0 && n.mod(FIVE).signum() == 0) {
+                n = n.divide(FIVE);
+                d5--;
+            }
+            long d2 = -v.getExponent();
+            int shift2 = (int) Math.min(n.getLowestSetBit(), d2);
+            n = n.shiftRight(shift2);
+            d2 -= shift2;
+            d = FIVE.pow(Math.toIntExact(d5)).shiftLeft(Math.toIntExact(d2));
+        }
+        return new BigInteger[]{v.isNegative() ? n.negate() : n, d};
+    }
+
+    /**
+     * The hash of a finite value, consistent with the hashes of numerically equal integers and
+     * fractions: {@code c * 10**exp} modulo the prime {@link SysModuleBuiltins#HASH_MODULUS}.
+     */
+    static long hash(DecimalValue v) {
+        assert v.isFinite();
+        long result;
+        if (v.isSmall()) {
+            long exponent = v.getExponent();
+            long expHash = exponent >= 0 ? powModHash(10, exponent) : powModHash(HASH_INVERSE_OF_10, -exponent);
+            result = mulModHash(Math.floorMod(v.getSmallCoefficient(), HASH_MODULUS), expHash);
+        } else {
+            result = hashBig(v);
+        }
+        if (v.isNegative()) {
+            result = -result;
+        }
+        return result == -1 ? -2 : result;
+    }
+
+    @TruffleBoundary
+    private static long hashBig(DecimalValue v) {
+        BigInteger m = BigInteger.valueOf(HASH_MODULUS);
+        BigInteger base = v.getExponent() >= 0 ? BigInteger.TEN : BigInteger.valueOf(HASH_INVERSE_OF_10);
+        BigInteger expHash = base.modPow(BigInteger.valueOf(Math.abs(v.getExponent())), m);
+        return v.getCoefficient().multiply(expHash).mod(m).longValue();
+    }
+
+    private static long powModHash(long base, long exponent) {
+        long result = 1;
+        long b = base;
+        for (long e = exponent; e > 0; e >>= 1) {
+            if ((e & 1) != 0) {
+                result = mulModHash(result, b);
+            }
+            b = mulModHash(b, b);
+        }
+        return result;
+    }
+
+    /** {@code a * b} modulo the hash modulus {@code 2**61 - 1}, for {@code 0 <= a, b < 2**61 - 1}. */
+    private static long mulModHash(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        // the product is high * 2**64 + low, and 2**61 is 1 modulo 2**61 - 1
+        long r = (low & HASH_MODULUS) + ((high << 3) | (low >>> 61));
+        r = (r & HASH_MODULUS) + (r >>> 61);
+        return r >= HASH_MODULUS ? r - HASH_MODULUS : r;
+    }
+
+    /** The string representation in scientific notation, like {@code Decimal.__str__}. */
+    @TruffleBoundary
+    static String toScientificString(DecimalValue v, boolean capitals) {
+        return toString(v, false, capitals);
+    }
+
+    /** The string representation in engineering notation, like {@code Decimal.to_eng_string}. */
+    @TruffleBoundary
+    static String toEngineeringString(DecimalValue v, boolean capitals) {
+        return toString(v, true, capitals);
+    }
+
+    private static String toString(DecimalValue v, boolean engineering, boolean capitals) {
+        String sign = v.isNegative() ? "-" : "";
+        if (v.isInfinite()) {
+            return sign + "Infinity";
+        }
+        if (v.isNaN()) {
+            String payload = v.hasPayload() ? v.coefficientString() : "";
+            return sign + (v.isSNaN() ? "sNaN" : "NaN") + payload;
+        }
+        String digits = v.coefficientString();
+        long exp = v.getExponent();
+        long leftDigits = exp + digits.length();
+        long dotPlace;
+        if (exp <= 0 && leftDigits > -6) {
+            // no exponent required
+            dotPlace = leftDigits;
+        } else if (!engineering) {
+            // usual scientific notation: 1 digit on left of the point
+            dotPlace = 1;
+        } else if (v.isZero()) {
+            // engineering notation, zero
+            dotPlace = Math.floorMod(leftDigits + 1, 3) - 1;
+        } else {
+            // engineering notation, nonzero
+            dotPlace = Math.floorMod(leftDigits - 1, 3) + 1;
+        }
+        StringBuilder sb = new StringBuilder(sign);
+        if (dotPlace <= 0) {
+            sb.append("0.");
+            for (long i = 0; i < -dotPlace; i++) {
+                sb.append('0');
+            }
+            sb.append(digits);
+        } else if (dotPlace >= digits.length()) {
+            sb.append(digits);
+            for (long i = digits.length(); i < dotPlace; i++) {
+                sb.append('0');
+            }
+        } else {
+            sb.append(digits, 0, (int) dotPlace).append('.').append(digits, (int) dotPlace, digits.length());
+        }
+        if (leftDigits != dotPlace) {
+            long e = leftDigits - dotPlace;
+            sb.append(capitals ? 'E' : 'e').append(e < 0 ? '-' : '+').append(Math.abs(e));
+        }
+        return sb.toString();
+    }
+}
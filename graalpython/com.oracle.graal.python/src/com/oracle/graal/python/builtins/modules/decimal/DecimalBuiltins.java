@@ -0,0 +1,1505 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MemoryError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.FLOAT_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.ROUND_CEILING;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.ROUND_DOWN;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.ROUND_FLOOR;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.ROUND_HALF_EVEN;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ABS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___BOOL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___CEIL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___COMPLEX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___DEEPCOPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___DIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___FLOAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___FLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___FLOOR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___FORMAT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___INT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___MOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___MUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NEG__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___POS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___POW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RDIVMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RFLOORDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RMOD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RMUL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ROUND__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RPOW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RSUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___RTRUEDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___STR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___SUB__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___TRUEDIV__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___TRUNC__;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.BuiltinFunctions.IsInstanceNode;
+import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalModuleBuiltins.GetDecimalStateNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.AddStatusNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertOperandNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetContextArgNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetCurrentContextNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetRoundingNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ToDecimalValueNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.complex.PComplex;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.lib.PyDictGetItem;
+import com.oracle.graal.python.lib.PyLongAsLongAndOverflowNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToJavaBigIntegerNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDecimal)
+public final class DecimalBuiltins extends PythonBuiltins {
+
+    private static final TruffleString T_NUMERATOR = tsLiteral("numerator");
+    private static final TruffleString T_DENOMINATOR = tsLiteral("denominator");
+    private static final TruffleString T_DECIMAL_POINT = tsLiteral("decimal_point");
+    private static final TruffleString T_THOUSANDS_SEP = tsLiteral("thousands_sep");
+    private static final TruffleString T_GROUPING = tsLiteral("grouping");
+    private static final TruffleString T_F = tsLiteral("F");
+    private static final TruffleString T_N = tsLiteral("N");
+    private static final TruffleString T_LOWER_N = tsLiteral("n");
+
+    /** The powers of ten that are exactly representable as doubles. */
+    private static final double[] DOUBLE_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalBuiltinsFactory.getFactories();
+    }
+
+    @TruffleBoundary
+    static String toScientificString(DecimalValue v, PDecimalContext context) {
+        return DecimalArithmetic.toScientificString(v, context.isCapitals());
+    }
+
+    /**
+     * Base of the binary number methods. Like CPython's {@code CONVERT_BINOP}, both operands must
+     * be a {@code Decimal} or an {@code int}, and the operation is done in the current context.
+     */
+    abstract static class BinaryNumberOpNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        Object doDecimals(PDecimal left, PDecimal right,
+                        @Shared("getContext") @Cached GetCurrentContextNode getContextNode,
+                        @Shared("addStatus") @Cached AddStatusNode addStatusNode) {
+            return compute(left.getValue(), right.getValue(), getContextNode, addStatusNode);
+        }
+
+        @Specialization
+        Object doGeneric(Object left, Object right,
+                        @Cached ToDecimalValueNode toLeftNode,
+                        @Cached ToDecimalValueNode toRightNode,
+                        @Shared("getContext") @Cached GetCurrentContextNode getContextNode,
+                        @Shared("addStatus") @Cached AddStatusNode addStatusNode) {
+            DecimalValue a = toLeftNode.execute(left);
+            DecimalValue b = toRightNode.execute(right);
+            if (a == null || b == null) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            return compute(a, b, getContextNode, addStatusNode);
+        }
+
+        private Object compute(DecimalValue a, DecimalValue b, GetCurrentContextNode getContextNode, AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextNode.execute();
+            DecimalArithmetic arith = context.createArithmetic();
+            Object result;
+            try {
+                result = op(arith, a, b);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return result;
+        }
+
+        @SuppressWarnings("unused")
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            throw new AbstractMethodError("op");
+        }
+    }
+
+    @Builtin(name = J___RADD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @Builtin(name = J___ADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AddNode extends BinaryNumberOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.add(a, b));
+        }
+    }
+
+    @Builtin(name = J___RSUB__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @Builtin(name = J___SUB__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SubNode extends BinaryNumberOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.subtract(a, b));
+        }
+    }
+
+    @Builtin(name = J___RMUL__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @Builtin(name = J___MUL__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class MulNode extends BinaryNumberOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.multiply(a, b));
+        }
+    }
+
+    @Builtin(name = J___RTRUEDIV__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @Builtin(name = J___TRUEDIV__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class TrueDivNode extends BinaryNumberOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.divide(a, b));
+        }
+    }
+
+    @Builtin(name = J___RFLOORDIV__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @Builtin(name = J___FLOORDIV__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class FloorDivNode extends BinaryNumberOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.divideToInteger(a, b));
+        }
+    }
+
+    @Builtin(name = J___RMOD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @Builtin(name = J___MOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ModNode extends BinaryNumberOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.remainder(a, b));
+        }
+    }
+
+    @Builtin(name = J___RDIVMOD__, minNumOfPositionalArgs = 2, reverseOperation = true)
+    @Builtin(name = J___DIVMOD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends BinaryNumberOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            DecimalValue[] result = arith.divmod(a, b);
+            return factory().createTuple(new Object[]{factory().createDecimal(result[0]), factory().createDecimal(result[1])});
+        }
+    }
+
+    @Builtin(name = J___RPOW__, minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3, reverseOperation = true)
+    @Builtin(name = J___POW__, minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class PowNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object pow(Object left, Object right, Object mod,
+                        @Cached ToDecimalValueNode toLeftNode,
+                        @Cached ToDecimalValueNode toRightNode,
+                        @Cached ToDecimalValueNode toModNode,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached AddStatusNode addStatusNode) {
+            DecimalValue a = toLeftNode.execute(left);
+            DecimalValue b = toRightNode.execute(right);
+            if (a == null || b == null) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            DecimalValue c = null;
+            if (mod != PNone.NO_VALUE && mod != PNone.NONE) {
+                c = toModNode.execute(mod);
+                if (c == null) {
+                    return PNotImplemented.NOT_IMPLEMENTED;
+                }
+            }
+            PDecimalContext context = getContextNode.execute();
+            DecimalArithmetic arith = context.createArithmetic();
+            DecimalValue result;
+            try {
+                result = c == null ? arith.power(a, b) : arith.powerModulo(a, b, c);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+    }
+
+    /**
+     * Base of the unary number methods, which round the result to the current context.
+     */
+    abstract static class UnaryNumberOpNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PDecimal doDecimal(PDecimal self,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextNode.execute();
+            DecimalArithmetic arith = context.createArithmetic();
+            DecimalValue result;
+            try {
+                result = op(arith, self.getValue());
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+
+        @SuppressWarnings("unused")
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            throw new AbstractMethodError("op");
+        }
+    }
+
+    @Builtin(name = J___NEG__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class NegNode extends UnaryNumberOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.minus(a);
+        }
+    }
+
+    @Builtin(name = J___POS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class PosNode extends UnaryNumberOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.plus(a);
+        }
+    }
+
+    @Builtin(name = J___ABS__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends UnaryNumberOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.abs(a);
+        }
+    }
+
+    @Builtin(name = J___BOOL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class BoolNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean bool(PDecimal self) {
+            return !self.getValue().isZero();
+        }
+    }
+
+    /**
+     * Converts to an {@code int} like CPython's {@code dec_as_long}, rounding to an integral value
+     * with the given rounding mode first.
+     */
+    static Object toInteger(PythonBuiltinBaseNode node, PythonObjectFactory factory, DecimalValue v, int mode, PDecimalContext context, AddStatusNode addStatusNode) {
+        if (v.isSpecial()) {
+            if (v.isNaN()) {
+                throw node.raise(ValueError, ErrorMessages.CANNOT_CONVERT_S_TO_INT, "NaN");
+            }
+            throw node.raise(OverflowError, ErrorMessages.CANNOT_CONVERT_S_TO_INT, "Infinity");
+        }
+        DecimalArithmetic arith = context.createArithmetic();
+        DecimalValue integral;
+        try {
+            integral = arith.toIntegralValue(v, mode);
+        } catch (ArithmeticException e) {
+            throw node.raise(MemoryError);
+        }
+        addStatusNode.execute(context, arith.getStatus());
+        if (integral.isSmall() && integral.getExponent() == 0) {
+            long c = integral.getSmallCoefficient();
+            return integral.isNegative() ? -c : c;
+        }
+        BigInteger result = DecimalArithmetic.toBigInteger(integral);
+        if (PInt.bigIntegerFitsInLong(result)) {
+            return PInt.longValue(result);
+        }
+        return factory.createInt(result);
+    }
+
+    /**
+     * Base of {@code __int__}, {@code __floor__} and {@code __ceil__}.
+     */
+    abstract static class ToIntegerBaseNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        Object doDecimal(PDecimal self,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached AddStatusNode addStatusNode) {
+            return toInteger(this, factory(), self.getValue(), mode(), getContextNode.execute(), addStatusNode);
+        }
+
+        protected int mode() {
+            throw new AbstractMethodError("mode");
+        }
+    }
+
+    @Builtin(name = J___INT__, minNumOfPositionalArgs = 1)
+    @Builtin(name = J___TRUNC__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IntNode extends ToIntegerBaseNode {
+        @Override
+        protected int mode() {
+            return ROUND_DOWN;
+        }
+    }
+
+    @Builtin(name = J___FLOOR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FloorNode extends ToIntegerBaseNode {
+        @Override
+        protected int mode() {
+            return ROUND_FLOOR;
+        }
+    }
+
+    @Builtin(name = J___CEIL__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CeilNode extends ToIntegerBaseNode {
+        @Override
+        protected int mode() {
+            return ROUND_CEILING;
+        }
+    }
+
+    @Builtin(name = J___ROUND__, minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class RoundNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object round(VirtualFrame frame, PDecimal self, Object ndigits,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached PyLongAsLongAndOverflowNode asLongNode,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextNode.execute();
+            if (ndigits == PNone.NO_VALUE) {
+                return toInteger(this, factory(), self.getValue(), ROUND_HALF_EVEN, context, addStatusNode);
+            }
+            if (!longCheckNode.execute(ndigits)) {
+                throw raise(TypeError, ErrorMessages.OPTIONAL_ARG_MUST_BE_AN_INTEGER);
+            }
+            long n;
+            try {
+                n = asLongNode.execute(frame, ndigits);
+            } catch (OverflowException e) {
+                throw raise(OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "C ssize_t");
+            }
+            DecimalArithmetic arith = context.createArithmetic();
+            DecimalValue result;
+            try {
+                result = arith.quantize(self.getValue(), DecimalValue.finite(0, 1, n == Long.MIN_VALUE ? Long.MAX_VALUE : -n), arith.getRounding());
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = J___FLOAT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FloatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        double toFloat(PDecimal self) {
+            return toDouble(this, self.getValue());
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code PyDec_AsFloat}. Coefficients and exponents that are small
+     * enough are converted with a single correctly rounded operation, the others through the
+     * string representation.
+     */
+    static double toDouble(PythonBuiltinBaseNode node, DecimalValue v) {
+        if (v.isNaN()) {
+            if (v.isSNaN()) {
+                throw node.raise(ValueError, ErrorMessages.CANNOT_CONVERT_SIGNALING_NAN_TO_FLOAT);
+            }
+            return v.isNegative() ? -Double.NaN : Double.NaN;
+        }
+        if (v.isFinite() && v.isSmall() && v.getSmallCoefficient() < (1L << 53)) {
+            long exp = v.getExponent();
+            double c = v.isNegative() ? -(double) v.getSmallCoefficient() : (double) v.getSmallCoefficient();
+            if (exp >= 0 && exp < DOUBLE_POWERS_OF_TEN.length) {
+                return c * DOUBLE_POWERS_OF_TEN[(int) exp];
+            } else if (exp < 0 && -exp < DOUBLE_POWERS_OF_TEN.length) {
+                return c / DOUBLE_POWERS_OF_TEN[(int) -exp];
+            }
+        }
+        return parseDouble(DecimalArithmetic.toScientificString(v, true));
+    }
+
+    @TruffleBoundary
+    private static double parseDouble(String s) {
+        return Double.parseDouble(s);
+    }
+
+    @Builtin(name = J___COMPLEX__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ComplexNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PComplex toComplex(PDecimal self) {
+            return factory().createComplex(toDouble(this, self.getValue()), 0);
+        }
+    }
+
+    @Builtin(name = "real", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class RealNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PDecimal real(PDecimal self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "imag", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ImagNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal imag(@SuppressWarnings("unused") PDecimal self) {
+            return factory().createDecimal(DecimalValue.ZERO);
+        }
+    }
+
+    /**
+     * Base of the rich comparisons, like CPython's {@code dec_richcompare}. Besides decimals and
+     * ints, floats and rationals are compared exactly; floats signal {@code FloatOperation}.
+     */
+    abstract static class RichCompareNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        Object compare(VirtualFrame frame, PDecimal self, Object other,
+                        @Cached ToDecimalValueNode toDecimalValueNode,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached GetDecimalStateNode getStateNode,
+                        @Cached IsInstanceNode isInstanceNode,
+                        @Cached PyObjectGetAttr getAttrNode,
+                        @Cached CastToJavaBigIntegerNode castToBigIntegerNode,
+                        @Cached AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextNode.execute();
+            DecimalValue a = self.getValue();
+            DecimalValue b = toDecimalValueNode.execute(other);
+            if (b == null) {
+                boolean equality = isEquality();
+                if (other instanceof Double || other instanceof PFloat) {
+                    if (equality) {
+                        context.flags |= FLOAT_OPERATION;
+                    } else {
+                        addStatusNode.execute(context, FLOAT_OPERATION);
+                    }
+                    b = DecimalArithmetic.fromDouble(other instanceof Double ? (double) other : ((PFloat) other).getValue());
+                } else if (equality && other instanceof PComplex) {
+                    PComplex complex = (PComplex) other;
+                    if (complex.getImag() != 0) {
+                        return PNotImplemented.NOT_IMPLEMENTED;
+                    }
+                    context.flags |= FLOAT_OPERATION;
+                    b = DecimalArithmetic.fromDouble(complex.getReal());
+                } else if (isInstanceNode.executeWith(frame, other, getStateNode.execute().rational)) {
+                    b = DecimalValue.fromBigInteger(castToBigIntegerNode.execute(getAttrNode.execute(frame, other, T_NUMERATOR)));
+                    if (!a.isSpecial()) {
+                        // compare numerator against self * denominator, both exact
+                        BigInteger denominator = castToBigIntegerNode.execute(getAttrNode.execute(frame, other, T_DENOMINATOR));
+                        a = DecimalNodes.multiplyCoefficient(a, denominator);
+                    }
+                } else {
+                    return PNotImplemented.NOT_IMPLEMENTED;
+                }
+            }
+            DecimalArithmetic arith = context.createArithmetic();
+            int cmp = arith.richCompare(a, b, isEquality());
+            if (cmp == Integer.MAX_VALUE) {
+                if (arith.getStatus() != 0) {
+                    addStatusNode.execute(context, arith.getStatus());
+                }
+                return resultForNaN();
+            }
+            return fromCompareResult(cmp);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        protected boolean isEquality() {
+            return false;
+        }
+
+        protected boolean resultForNaN() {
+            return false;
+        }
+
+        @SuppressWarnings("unused")
+        protected boolean fromCompareResult(int cmp) {
+            throw new AbstractMethodError("fromCompareResult");
+        }
+    }
+
+    @Builtin(name = J___EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends RichCompareNode {
+        @Override
+        protected boolean isEquality() {
+            return true;
+        }
+
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp == 0;
+        }
+    }
+
+    @Builtin(name = J___NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends RichCompareNode {
+        @Override
+        protected boolean isEquality() {
+            return true;
+        }
+
+        @Override
+        protected boolean resultForNaN() {
+            return true;
+        }
+
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp != 0;
+        }
+    }
+
+    @Builtin(name = J___LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LtNode extends RichCompareNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp < 0;
+        }
+    }
+
+    @Builtin(name = J___LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LeNode extends RichCompareNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp <= 0;
+        }
+    }
+
+    @Builtin(name = J___GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GtNode extends RichCompareNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp > 0;
+        }
+    }
+
+    @Builtin(name = J___GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GeNode extends RichCompareNode {
+        @Override
+        protected boolean fromCompareResult(int cmp) {
+            return cmp >= 0;
+        }
+    }
+
+    @Builtin(name = J___HASH__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HashNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        long hash(PDecimal self) {
+            DecimalValue v = self.getValue();
+            if (v.isSpecial()) {
+                if (v.isSNaN()) {
+                    throw raise(TypeError, ErrorMessages.CANNOT_HASH_A_SIGNALING_NAN_VALUE);
+                } else if (v.isNaN()) {
+                    return 0;
+                }
+                return v.isNegative() ? -SysModuleBuiltins.HASH_INF : SysModuleBuiltins.HASH_INF;
+            }
+            return DecimalArithmetic.hash(v);
+        }
+    }
+
+    @Builtin(name = J___STR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StrNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString str(PDecimal self,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            return fromJavaStringNode.execute(toScientificString(self.getValue(), getContextNode.execute()), TS_ENCODING);
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(PDecimal self,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            return fromJavaStringNode.execute(reprString(toScientificString(self.getValue(), getContextNode.execute())), TS_ENCODING);
+        }
+
+        @TruffleBoundary
+        private static String reprString(String s) {
+            return "Decimal('" + s + "')";
+        }
+    }
+
+    @Builtin(name = J___FORMAT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "format_spec", "override"})
+    @GenerateNodeFactory
+    abstract static class FormatNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        TruffleString format(VirtualFrame frame, PDecimal self, Object formatSpec, Object override,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached PyDictGetItem getItemNode,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            if (!unicodeCheckNode.execute(formatSpec)) {
+                throw raise(TypeError, ErrorMessages.FORMAT_ARG_MUST_BE_STR);
+            }
+            DecimalFormatter.Spec spec = DecimalFormatter.parse(castToJavaStringNode.execute(formatSpec));
+            if (spec == null) {
+                throw raise(ValueError, ErrorMessages.INVALID_FORMAT_STRING);
+            }
+            if (override != PNone.NO_VALUE) {
+                if (!(override instanceof PDict)) {
+                    throw raise(TypeError, ErrorMessages.OPTIONAL_ARGUMENT_MUST_BE_A_DICT);
+                }
+                PDict dict = (PDict) override;
+                String decimalPoint = getOverride(frame, dict, T_DECIMAL_POINT, getItemNode, unicodeCheckNode, castToJavaStringNode);
+                String thousandsSep = getOverride(frame, dict, T_THOUSANDS_SEP, getItemNode, unicodeCheckNode, castToJavaStringNode);
+                String grouping = getOverride(frame, dict, T_GROUPING, getItemNode, unicodeCheckNode, castToJavaStringNode);
+                if (!applyOverride(spec, decimalPoint, thousandsSep, grouping)) {
+                    throw raise(ValueError, ErrorMessages.INVALID_OVERRIDE_DICT);
+                }
+            }
+            PDecimalContext context = getContextNode.execute();
+            return fromJavaStringNode.execute(DecimalFormatter.format(self.getValue(), spec, context.rounding, context.isCapitals()), TS_ENCODING);
+        }
+
+        private String getOverride(VirtualFrame frame, PDict dict, TruffleString key, PyDictGetItem getItemNode, PyUnicodeCheckNode unicodeCheckNode, CastToJavaStringNode castToJavaStringNode) {
+            Object value = getItemNode.execute(frame, dict, key);
+            if (value == null) {
+                return null;
+            }
+            if (!unicodeCheckNode.execute(value)) {
+                throw raise(ValueError, ErrorMessages.INVALID_OVERRIDE_DICT);
+            }
+            return castToJavaStringNode.execute(value);
+        }
+
+        /**
+         * Applies the locale conventions given in the override dict, checking them like
+         * {@code mpd_validate_lconv}. Only the first group size of {@code grouping} is used.
+         */
+        @TruffleBoundary
+        private static boolean applyOverride(DecimalFormatter.Spec spec, String decimalPoint, String thousandsSep, String grouping) {
+            if (decimalPoint != null) {
+                if (decimalPoint.isEmpty() || decimalPoint.length() > 4) {
+                    return false;
+                }
+                spec.decimalPoint = decimalPoint;
+            }
+            if (thousandsSep != null) {
+                if (thousandsSep.length() > 4) {
+                    return false;
+                }
+                spec.thousandsSeparator = thousandsSep;
+            }
+            if (grouping != null) {
+                for (int i = 0; i < grouping.length(); i++) {
+                    if (grouping.charAt(i) > 127) {
+                        return false;
+                    }
+                }
+                spec.groupSize = grouping.isEmpty() ? 0 : grouping.charAt(0);
+            }
+            return true;
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDecimal self,
+                        @Cached GetClassNode getClassNode,
+                        @Cached GetCurrentContextNode getContextNode,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            TruffleString str = fromJavaStringNode.execute(toScientificString(self.getValue(), getContextNode.execute()), TS_ENCODING);
+            return factory().createTuple(new Object[]{getClassNode.execute(self), factory().createTuple(new Object[]{str})});
+        }
+    }
+
+    @Builtin(name = J___COPY__, minNumOfPositionalArgs = 1)
+    @Builtin(name = "canonical", minNumOfPositionalArgs = 1)
+    @Builtin(name = "conjugate", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PDecimal copy(PDecimal self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = J___DEEPCOPY__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PDecimal deepcopy(PDecimal self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "radix", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class RadixNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal radix(@SuppressWarnings("unused") PDecimal self) {
+            return factory().createDecimal(DecimalValue.fromLong(10));
+        }
+    }
+
+    @Builtin(name = "adjusted", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AdjustedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long adjusted(PDecimal self) {
+            return self.getValue().adjusted();
+        }
+    }
+
+    @Builtin(name = "copy_abs", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyAbsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal copyAbs(PDecimal self) {
+            return factory().createDecimal(self.getValue().abs());
+        }
+    }
+
+    @Builtin(name = "copy_negate", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNegateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal copyNegate(PDecimal self) {
+            return factory().createDecimal(self.getValue().negate());
+        }
+    }
+
+    /**
+     * Base of the predicates that do not depend on a context.
+     */
+    abstract static class PredicateNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean doDecimal(PDecimal self) {
+            return test(self.getValue());
+        }
+
+        @SuppressWarnings("unused")
+        protected boolean test(DecimalValue v) {
+            throw new AbstractMethodError("test");
+        }
+    }
+
+    @Builtin(name = "is_canonical", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsCanonicalNode extends PredicateNode {
+        @Override
+        protected boolean test(DecimalValue v) {
+            return true;
+        }
+    }
+
+    @Builtin(name = "is_finite", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsFiniteNode extends PredicateNode {
+        @Override
+        protected boolean test(DecimalValue v) {
+            return v.isFinite();
+        }
+    }
+
+    @Builtin(name = "is_infinite", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsInfiniteNode extends PredicateNode {
+        @Override
+        protected boolean test(DecimalValue v) {
+            return v.isInfinite();
+        }
+    }
+
+    @Builtin(name = "is_nan", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsNaNNode extends PredicateNode {
+        @Override
+        protected boolean test(DecimalValue v) {
+            return v.isNaN();
+        }
+    }
+
+    @Builtin(name = "is_qnan", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsQNaNNode extends PredicateNode {
+        @Override
+        protected boolean test(DecimalValue v) {
+            return v.isQNaN();
+        }
+    }
+
+    @Builtin(name = "is_snan", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsSNaNNode extends PredicateNode {
+        @Override
+        protected boolean test(DecimalValue v) {
+            return v.isSNaN();
+        }
+    }
+
+    @Builtin(name = "is_signed", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsSignedNode extends PredicateNode {
+        @Override
+        protected boolean test(DecimalValue v) {
+            return v.isNegative();
+        }
+    }
+
+    @Builtin(name = "is_zero", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsZeroNode extends PredicateNode {
+        @Override
+        protected boolean test(DecimalValue v) {
+            return v.isZero();
+        }
+    }
+
+    @Builtin(name = "is_normal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class IsNormalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean isNormal(PDecimal self, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode) {
+            return getContextArgNode.execute(contextArg).createArithmetic().isNormal(self.getValue());
+        }
+    }
+
+    @Builtin(name = "is_subnormal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class IsSubnormalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean isSubnormal(PDecimal self, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode) {
+            return getContextArgNode.execute(contextArg).createArithmetic().isSubnormal(self.getValue());
+        }
+    }
+
+    @Builtin(name = "number_class", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class NumberClassNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static TruffleString numberClass(PDecimal self, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            return fromJavaStringNode.execute(getContextArgNode.execute(contextArg).createArithmetic().numberClass(self.getValue()), TS_ENCODING);
+        }
+    }
+
+    @Builtin(name = "to_eng_string", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class ToEngStringNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static TruffleString toEngString(PDecimal self, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            boolean capitals = getContextArgNode.execute(contextArg).isCapitals();
+            return fromJavaStringNode.execute(DecimalArithmetic.toEngineeringString(self.getValue(), capitals), TS_ENCODING);
+        }
+    }
+
+    /**
+     * Base of the methods with an optional context that apply a unary operation in it.
+     */
+    abstract static class UnaryContextOpNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PDecimal doDecimal(PDecimal self, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextArgNode.execute(contextArg);
+            DecimalArithmetic arith = context.createArithmetic();
+            DecimalValue result;
+            try {
+                result = op(arith, self.getValue());
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+
+        @SuppressWarnings("unused")
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            throw new AbstractMethodError("op");
+        }
+    }
+
+    @Builtin(name = "exp", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class ExpNode extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.exp(a);
+        }
+    }
+
+    @Builtin(name = "ln", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class LnNode extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.ln(a);
+        }
+    }
+
+    @Builtin(name = "log10", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class Log10Node extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.log10(a);
+        }
+    }
+
+    @Builtin(name = "logb", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class LogbNode extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.logb(a);
+        }
+    }
+
+    @Builtin(name = "logical_invert", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class LogicalInvertNode extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.logicalInvert(a);
+        }
+    }
+
+    @Builtin(name = "next_minus", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class NextMinusNode extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.nextMinus(a);
+        }
+    }
+
+    @Builtin(name = "next_plus", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class NextPlusNode extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.nextPlus(a);
+        }
+    }
+
+    @Builtin(name = "normalize", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class NormalizeNode extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.reduce(a);
+        }
+    }
+
+    @Builtin(name = "sqrt", minNumOfPositionalArgs = 1, parameterNames = {"$self", "context"})
+    @GenerateNodeFactory
+    abstract static class SqrtNode extends UnaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.sqrt(a);
+        }
+    }
+
+    /**
+     * Base of the methods {@code to_integral}, {@code to_integral_value} and
+     * {@code to_integral_exact}, which take an optional rounding mode and context.
+     */
+    abstract static class ToIntegralBaseNode extends PythonTernaryBuiltinNode {
+
+        @Specialization
+        PDecimal doDecimal(PDecimal self, Object rounding, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached GetRoundingNode getRoundingNode,
+                        @Cached AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextArgNode.execute(contextArg);
+            DecimalArithmetic arith = context.createArithmetic();
+            int mode = rounding == PNone.NO_VALUE || rounding == PNone.NONE ? context.rounding : getRoundingNode.execute(rounding);
+            DecimalValue result;
+            try {
+                result = op(arith, self.getValue(), mode);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+
+        @SuppressWarnings("unused")
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, int mode) {
+            return arith.toIntegralValue(a, mode);
+        }
+    }
+
+    @Builtin(name = "to_integral", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"})
+    @Builtin(name = "to_integral_value", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"})
+    @GenerateNodeFactory
+    abstract static class ToIntegralValueNode extends ToIntegralBaseNode {
+    }
+
+    @Builtin(name = "to_integral_exact", minNumOfPositionalArgs = 1, parameterNames = {"$self", "rounding", "context"})
+    @GenerateNodeFactory
+    abstract static class ToIntegralExactNode extends ToIntegralBaseNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, int mode) {
+            return arith.toIntegralExact(a, mode);
+        }
+    }
+
+    /**
+     * Base of the methods with a second operand and an optional context, like CPython's
+     * {@code Dec_BinaryFuncVA}. The operand must be a {@code Decimal} or an {@code int}.
+     */
+    abstract static class BinaryContextOpNode extends PythonTernaryBuiltinNode {
+
+        @Specialization
+        PDecimal doDecimal(PDecimal self, Object other, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached ConvertOperandNode convertOperandNode,
+                        @Cached AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextArgNode.execute(contextArg);
+            DecimalValue b = convertOperandNode.execute(other);
+            DecimalArithmetic arith = context.createArithmetic();
+            DecimalValue result;
+            try {
+                result = op(arith, self.getValue(), b);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+
+        @SuppressWarnings("unused")
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            throw new AbstractMethodError("op");
+        }
+    }
+
+    @Builtin(name = "compare", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class CompareNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.compare(a, b);
+        }
+    }
+
+    @Builtin(name = "compare_signal", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class CompareSignalNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.compareSignal(a, b);
+        }
+    }
+
+    @Builtin(name = "max", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class MaxNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.minMax(a, b, true, false);
+        }
+    }
+
+    @Builtin(name = "max_mag", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class MaxMagNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.minMax(a, b, true, true);
+        }
+    }
+
+    @Builtin(name = "min", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class MinNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.minMax(a, b, false, false);
+        }
+    }
+
+    @Builtin(name = "min_mag", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class MinMagNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.minMax(a, b, false, true);
+        }
+    }
+
+    @Builtin(name = "next_toward", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class NextTowardNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.nextToward(a, b);
+        }
+    }
+
+    @Builtin(name = "remainder_near", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class RemainderNearNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.remainderNear(a, b);
+        }
+    }
+
+    @Builtin(name = "logical_and", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class LogicalAndNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.logical(a, b, DecimalArithmetic.LOGICAL_AND);
+        }
+    }
+
+    @Builtin(name = "logical_or", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class LogicalOrNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.logical(a, b, DecimalArithmetic.LOGICAL_OR);
+        }
+    }
+
+    @Builtin(name = "logical_xor", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class LogicalXorNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.logical(a, b, DecimalArithmetic.LOGICAL_XOR);
+        }
+    }
+
+    @Builtin(name = "rotate", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class RotateNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.rotate(a, b);
+        }
+    }
+
+    @Builtin(name = "scaleb", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class ScalebNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.scaleb(a, b);
+        }
+    }
+
+    @Builtin(name = "shift", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class ShiftNode extends BinaryContextOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return arith.shift(a, b);
+        }
+    }
+
+    @Builtin(name = "quantize", minNumOfPositionalArgs = 2, parameterNames = {"$self", "exp", "rounding", "context"})
+    @GenerateNodeFactory
+    abstract static class QuantizeNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDecimal quantize(PDecimal self, Object exp, Object rounding, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached GetRoundingNode getRoundingNode,
+                        @Cached ConvertOperandNode convertOperandNode,
+                        @Cached AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextArgNode.execute(contextArg);
+            int mode = rounding == PNone.NO_VALUE || rounding == PNone.NONE ? context.rounding : getRoundingNode.execute(rounding);
+            DecimalValue b = convertOperandNode.execute(exp);
+            DecimalArithmetic arith = context.createArithmetic();
+            DecimalValue result;
+            try {
+                result = arith.quantize(self.getValue(), b, mode);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = "fma", minNumOfPositionalArgs = 3, parameterNames = {"$self", "other", "third", "context"})
+    @GenerateNodeFactory
+    abstract static class FmaNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDecimal fma(PDecimal self, Object other, Object third, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached ConvertOperandNode convertOtherNode,
+                        @Cached ConvertOperandNode convertThirdNode,
+                        @Cached AddStatusNode addStatusNode) {
+            PDecimalContext context = getContextArgNode.execute(contextArg);
+            DecimalValue b = convertOtherNode.execute(other);
+            DecimalValue c = convertThirdNode.execute(third);
+            DecimalArithmetic arith = context.createArithmetic();
+            DecimalValue result;
+            try {
+                result = arith.fma(self.getValue(), b, c);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = "compare_total", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class CompareTotalNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDecimal compareTotal(PDecimal self, Object other, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached ConvertOperandNode convertOperandNode) {
+            getContextArgNode.execute(contextArg);
+            return factory().createDecimal(DecimalValue.fromLong(DecimalArithmetic.compareTotal(self.getValue(), convertOperandNode.execute(other))));
+        }
+    }
+
+    @Builtin(name = "compare_total_mag", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class CompareTotalMagNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDecimal compareTotalMag(PDecimal self, Object other, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached ConvertOperandNode convertOperandNode) {
+            getContextArgNode.execute(contextArg);
+            return factory().createDecimal(DecimalValue.fromLong(DecimalArithmetic.compareTotalMag(self.getValue(), convertOperandNode.execute(other))));
+        }
+    }
+
+    @Builtin(name = "copy_sign", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class CopySignNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDecimal copySign(PDecimal self, Object other, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached ConvertOperandNode convertOperandNode) {
+            getContextArgNode.execute(contextArg);
+            return factory().createDecimal(self.getValue().withSign(convertOperandNode.execute(other).getSign()));
+        }
+    }
+
+    @Builtin(name = "same_quantum", minNumOfPositionalArgs = 2, parameterNames = {"$self", "other", "context"})
+    @GenerateNodeFactory
+    abstract static class SameQuantumNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static boolean sameQuantum(PDecimal self, Object other, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached ConvertOperandNode convertOperandNode) {
+            getContextArgNode.execute(contextArg);
+            return DecimalArithmetic.sameQuantum(self.getValue(), convertOperandNode.execute(other));
+        }
+    }
+
+    @Builtin(name = "from_float", minNumOfPositionalArgs = 2, isClassmethod = true, parameterNames = {"$cls", "f"})
+    @GenerateNodeFactory
+    abstract static class FromFloatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object fromFloat(VirtualFrame frame, Object cls, Object f,
+                        @Cached ToDecimalValueNode toDecimalValueNode,
+                        @Cached IsBuiltinClassProfile isDecimalProfile,
+                        @Cached CallNode callNode) {
+            DecimalValue v;
+            if (f instanceof Double || f instanceof PFloat) {
+                v = DecimalArithmetic.fromDouble(f instanceof Double ? (double) f : ((PFloat) f).getValue());
+            } else {
+                v = f instanceof PDecimal ? null : toDecimalValueNode.execute(f);
+                if (v == null) {
+                    throw raise(TypeError, ErrorMessages.ARGUMENT_MUST_BE_INT_OR_FLOAT);
+                }
+            }
+            PDecimal result = factory().createDecimal(v);
+            if (isDecimalProfile.profileClass(cls, PythonBuiltinClassType.PDecimal)) {
+                return result;
+            }
+            return callNode.execute(frame, cls, result);
+        }
+    }
+
+    @Builtin(name = "as_tuple", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AsTupleNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object asTuple(VirtualFrame frame, PDecimal self,
+                        @Cached GetDecimalStateNode getStateNode,
+                        @Cached CallNode callNode) {
+            DecimalValue v = self.getValue();
+            Object exponent;
+            int[] digits;
+            if (v.isInfinite()) {
+                exponent = T_F;
+                digits = new int[]{0};
+            } else {
+                if (v.isNaN()) {
+                    exponent = v.isSNaN() ? T_N : T_LOWER_N;
+                } else {
+                    exponent = v.getExponent();
+                }
+                digits = v.isNaN() && !v.hasPayload() ? new int[0] : coefficientDigits(v);
+            }
+            Object digitsTuple = factory().createTuple(digits);
+            return callNode.execute(frame, getStateNode.execute().decimalTuple, v.getSign(), digitsTuple, exponent);
+        }
+
+        @TruffleBoundary
+        private static int[] coefficientDigits(DecimalValue v) {
+            String s = v.coefficientString();
+            int[] digits = new int[s.length()];
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = s.charAt(i) - '0';
+            }
+            return digits;
+        }
+    }
+
+    @Builtin(name = "as_integer_ratio", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class AsIntegerRatioNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object asIntegerRatio(PDecimal self) {
+            DecimalValue v = self.getValue();
+            if (v.isSpecial()) {
+                if (v.isNaN()) {
+                    throw raise(ValueError, ErrorMessages.CANNOT_CONVERT_S_TO_INT_RATIO, "NaN");
+                }
+                throw raise(OverflowError, ErrorMessages.CANNOT_CONVERT_S_TO_INT_RATIO, "Infinity");
+            }
+            BigInteger[] ratio = DecimalArithmetic.asIntegerRatio(v);
+            return factory().createTuple(new Object[]{factory().createInt(ratio[0]), factory().createInt(ratio[1])});
+        }
+    }
+}
@@ -0,0 +1,1167 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MemoryError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.CLAMPED;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.DIVISION_BY_ZERO;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.FLOAT_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.IEEE_INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.INEXACT;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.OVERFLOW;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.ROUNDED;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.SUBNORMAL;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.UNDERFLOW;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalModuleBuiltins.GetDecimalStateNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.AddStatusNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.AsSsizeNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ConvertOperandNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.FromObjectNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetRoundingNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.SignalsAsFlagsNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.ToDecimalValueNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDecimalContext)
+public final class DecimalContextBuiltins extends PythonBuiltins {
+
+    /** The signals in the order in which libmpdec lists them, used by {@code repr}. */
+    private static final int[] REPR_SIGNAL_BITS = {CLAMPED, IEEE_INVALID_OPERATION, DIVISION_BY_ZERO, INEXACT, FLOAT_OPERATION, OVERFLOW, ROUNDED, SUBNORMAL, UNDERFLOW};
+    private static final String[] REPR_SIGNAL_NAMES = {"Clamped", "InvalidOperation", "DivisionByZero", "Inexact", "FloatOperation", "Overflow", "Rounded", "Subnormal", "Underflow"};
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalContextBuiltinsFactory.getFactories();
+    }
+
+    static void setPrec(PNodeWithRaise node, PDecimalContext context, long prec) {
+        if (prec < 1 || prec > DecimalArithmetic.MAX_PREC) {
+            throw node.raise(ValueError, ErrorMessages.VALID_RANGE_FOR_PREC);
+        }
+        context.prec = prec;
+    }
+
+    static void setEmin(PNodeWithRaise node, PDecimalContext context, long emin) {
+        if (emin < DecimalArithmetic.MIN_EMIN || emin > 0) {
+            throw node.raise(ValueError, ErrorMessages.VALID_RANGE_FOR_EMIN);
+        }
+        context.emin = emin;
+    }
+
+    static void setEmax(PNodeWithRaise node, PDecimalContext context, long emax) {
+        if (emax < 0 || emax > DecimalArithmetic.MAX_EMAX) {
+            throw node.raise(ValueError, ErrorMessages.VALID_RANGE_FOR_EMAX);
+        }
+        context.emax = emax;
+    }
+
+    static void setCapitals(PNodeWithRaise node, PDecimalContext context, long capitals) {
+        if (capitals != 0 && capitals != 1) {
+            throw node.raise(ValueError, ErrorMessages.VALID_VALUES_FOR_CAPITALS);
+        }
+        context.capitals = (int) capitals;
+    }
+
+    static void setClamp(PNodeWithRaise node, PDecimalContext context, long clamp) {
+        if (clamp != 0 && clamp != 1) {
+            throw node.raise(ValueError, ErrorMessages.VALID_VALUES_FOR_CLAMP);
+        }
+        context.clamp = (int) clamp;
+    }
+
+    @Builtin(name = J___INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "prec", "rounding", "Emin", "Emax", "capitals", "clamp", "flags", "traps"})
+    @GenerateNodeFactory
+    abstract static class InitNode extends PythonBuiltinNode {
+        @Specialization
+        Object init(VirtualFrame frame, PDecimalContext self, Object prec, Object rounding, Object emin, Object emax, Object capitals, Object clamp, Object flags, Object traps,
+                        @Cached AsSsizeNode asSsizeNode,
+                        @Cached GetRoundingNode getRoundingNode,
+                        @Cached SignalsAsFlagsNode signalsAsFlagsNode) {
+            if (isGiven(prec)) {
+                setPrec(this, self, asSsizeNode.execute(frame, prec));
+            }
+            if (isGiven(rounding)) {
+                self.rounding = getRoundingNode.execute(rounding);
+            }
+            if (isGiven(emin)) {
+                setEmin(this, self, asSsizeNode.execute(frame, emin));
+            }
+            if (isGiven(emax)) {
+                setEmax(this, self, asSsizeNode.execute(frame, emax));
+            }
+            if (isGiven(capitals)) {
+                setCapitals(this, self, asSsizeNode.execute(frame, capitals));
+            }
+            if (isGiven(clamp)) {
+                setClamp(this, self, asSsizeNode.execute(frame, clamp));
+            }
+            if (isGiven(traps)) {
+                self.traps = signalsAsFlagsNode.execute(frame, traps, true);
+            }
+            if (isGiven(flags)) {
+                self.flags = signalsAsFlagsNode.execute(frame, flags, true);
+            }
+            return PNone.NONE;
+        }
+
+        private static boolean isGiven(Object value) {
+            return value != PNone.NO_VALUE && value != PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "prec", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class PrecNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static long get(PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            return self.prec;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached AsSsizeNode asSsizeNode) {
+            setPrec(this, self, asSsizeNode.execute(frame, value));
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, ErrorMessages.CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = "Emin", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class EminNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static long get(PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            return self.emin;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached AsSsizeNode asSsizeNode) {
+            setEmin(this, self, asSsizeNode.execute(frame, value));
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, ErrorMessages.CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = "Emax", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class EmaxNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static long get(PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            return self.emax;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached AsSsizeNode asSsizeNode) {
+            setEmax(this, self, asSsizeNode.execute(frame, value));
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, ErrorMessages.CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = "capitals", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class CapitalsNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static int get(PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            return self.capitals;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached AsSsizeNode asSsizeNode) {
+            setCapitals(this, self, asSsizeNode.execute(frame, value));
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, ErrorMessages.CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = "clamp", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class ClampNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static int get(PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            return self.clamp;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached AsSsizeNode asSsizeNode) {
+            setClamp(this, self, asSsizeNode.execute(frame, value));
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, ErrorMessages.CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = "rounding", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class RoundingNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static TruffleString get(PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            return DecimalNodes.ROUNDING_NAMES[self.rounding];
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        static Object set(PDecimalContext self, Object value,
+                        @Cached GetRoundingNode getRoundingNode) {
+            self.rounding = getRoundingNode.execute(value);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, ErrorMessages.CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = "flags", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class FlagsNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PDecimalContext self, @SuppressWarnings("unused") Object value,
+                        @Cached GetDecimalStateNode getStateNode) {
+            if (self.flagsDict == null) {
+                self.flagsDict = factory().createDecimalSignalDict(getStateNode.execute().signalDictType, self, false);
+            }
+            return self.flagsDict;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        static Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached SignalsAsFlagsNode signalsAsFlagsNode) {
+            self.flags = signalsAsFlagsNode.execute(frame, value, false);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, ErrorMessages.CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = "traps", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    abstract static class TrapsNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PDecimalContext self, @SuppressWarnings("unused") Object value,
+                        @Cached GetDecimalStateNode getStateNode) {
+            if (self.trapsDict == null) {
+                self.trapsDict = factory().createDecimalSignalDict(getStateNode.execute().signalDictType, self, true);
+            }
+            return self.trapsDict;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        static Object set(VirtualFrame frame, PDecimalContext self, Object value,
+                        @Cached SignalsAsFlagsNode signalsAsFlagsNode) {
+            self.traps = signalsAsFlagsNode.execute(frame, value, false);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDeleteMarker(value)")
+        Object delete(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object value) {
+            throw raise(AttributeError, ErrorMessages.CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(PDecimalContext self,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            return fromJavaStringNode.execute(reprString(self), TS_ENCODING);
+        }
+
+        @TruffleBoundary
+        private static String reprString(PDecimalContext self) {
+            return "Context(prec=" + self.prec + ", rounding=" + DecimalNodes.ROUNDING_NAMES[self.rounding] + ", Emin=" + self.emin + ", Emax=" + self.emax + ", capitals=" + self.capitals +
+                            ", clamp=" + self.clamp + ", flags=" + signalNames(self.flags) + ", traps=" + signalNames(self.traps) + ")";
+        }
+
+        private static String signalNames(int bits) {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < REPR_SIGNAL_BITS.length; i++) {
+                if ((bits & REPR_SIGNAL_BITS[i]) != 0) {
+                    if (sb.length() > 1) {
+                        sb.append(", ");
+                    }
+                    sb.append(REPR_SIGNAL_NAMES[i]);
+                }
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reduce(PDecimalContext self,
+                        @Cached GetClassNode getClassNode) {
+            PythonContext context = getContext();
+            Object[] args = {self.prec, DecimalNodes.ROUNDING_NAMES[self.rounding], self.emin, self.emax, self.capitals, self.clamp,
+                            factory().createList(DecimalNodes.signalsAsArray(context, self.flags)), factory().createList(DecimalNodes.signalsAsArray(context, self.traps))};
+            return factory().createTuple(new Object[]{getClassNode.execute(self), factory().createTuple(args)});
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @Builtin(name = J___COPY__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimalContext copy(PDecimalContext self) {
+            return DecimalNodes.copyContext(factory(), self);
+        }
+    }
+
+    @Builtin(name = "clear_flags", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ClearFlagsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object clear(PDecimalContext self) {
+            self.flags = 0;
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_traps", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ClearTrapsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object clear(PDecimalContext self) {
+            self.traps = 0;
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "Etiny", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EtinyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long etiny(PDecimalContext self) {
+            return self.etiny();
+        }
+    }
+
+    @Builtin(name = "Etop", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EtopNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static long etop(PDecimalContext self) {
+            return self.etop();
+        }
+    }
+
+    @Builtin(name = "radix", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class RadixNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDecimal radix(@SuppressWarnings("unused") PDecimalContext self) {
+            return factory().createDecimal(DecimalValue.fromLong(10));
+        }
+    }
+
+    @Builtin(name = "create_decimal", minNumOfPositionalArgs = 1, parameterNames = {"$self", "num"})
+    @GenerateNodeFactory
+    abstract static class CreateDecimalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PDecimal create(VirtualFrame frame, PDecimalContext self, Object num,
+                        @Cached FromObjectNode fromObjectNode) {
+            return factory().createDecimal(fromObjectNode.execute(frame, num, self, false));
+        }
+    }
+
+    @Builtin(name = "create_decimal_from_float", minNumOfPositionalArgs = 2, parameterNames = {"$self", "f"})
+    @GenerateNodeFactory
+    abstract static class CreateDecimalFromFloatNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PDecimal create(PDecimalContext self, Object f,
+                        @Cached ToDecimalValueNode toDecimalValueNode,
+                        @Cached AddStatusNode addStatusNode) {
+            DecimalValue v;
+            if (f instanceof Double || f instanceof PFloat) {
+                v = DecimalArithmetic.fromDouble(f instanceof Double ? (double) f : ((PFloat) f).getValue());
+            } else {
+                v = f instanceof PDecimal ? null : toDecimalValueNode.execute(f);
+                if (v == null) {
+                    throw raise(TypeError, ErrorMessages.ARGUMENT_MUST_BE_INT_OR_FLOAT);
+                }
+            }
+            DecimalArithmetic arith = self.createArithmetic();
+            DecimalValue result;
+            try {
+                result = arith.fix(v);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(self, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+    }
+
+    /**
+     * Base of the context methods that apply a unary operation to an operand, like CPython's
+     * {@code DecCtx_UnaryFunc}. The operand must be a {@code Decimal} or an {@code int}.
+     */
+    abstract static class UnaryOpNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PDecimal doContext(PDecimalContext self, Object a,
+                        @Cached ConvertOperandNode convertOperandNode,
+                        @Cached AddStatusNode addStatusNode) {
+            DecimalValue v = convertOperandNode.execute(a);
+            DecimalArithmetic arith = self.createArithmetic();
+            DecimalValue result;
+            try {
+                result = op(arith, v);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(self, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+
+        @SuppressWarnings("unused")
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            throw new AbstractMethodError("op");
+        }
+    }
+
+    @Builtin(name = "abs", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class AbsNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.abs(a);
+        }
+    }
+
+    @Builtin(name = "_apply", minNumOfPositionalArgs = 2)
+    @Builtin(name = "apply", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ApplyNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.fix(a);
+        }
+    }
+
+    @Builtin(name = "exp", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ExpNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.exp(a);
+        }
+    }
+
+    @Builtin(name = "ln", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LnNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.ln(a);
+        }
+    }
+
+    @Builtin(name = "log10", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class Log10Node extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.log10(a);
+        }
+    }
+
+    @Builtin(name = "logb", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LogbNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.logb(a);
+        }
+    }
+
+    @Builtin(name = "logical_invert", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class LogicalInvertNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.logicalInvert(a);
+        }
+    }
+
+    @Builtin(name = "minus", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class MinusNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.minus(a);
+        }
+    }
+
+    @Builtin(name = "next_minus", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NextMinusNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.nextMinus(a);
+        }
+    }
+
+    @Builtin(name = "next_plus", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NextPlusNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.nextPlus(a);
+        }
+    }
+
+    @Builtin(name = "normalize", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NormalizeNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.reduce(a);
+        }
+    }
+
+    @Builtin(name = "plus", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class PlusNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.plus(a);
+        }
+    }
+
+    @Builtin(name = "sqrt", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SqrtNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.sqrt(a);
+        }
+    }
+
+    @Builtin(name = "to_integral", minNumOfPositionalArgs = 2)
+    @Builtin(name = "to_integral_value", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ToIntegralValueNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.toIntegralValue(a, arith.getRounding());
+        }
+    }
+
+    @Builtin(name = "to_integral_exact", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ToIntegralExactNode extends UnaryOpNode {
+        @Override
+        protected DecimalValue op(DecimalArithmetic arith, DecimalValue a) {
+            return arith.toIntegralExact(a, arith.getRounding());
+        }
+    }
+
+    /**
+     * Base of the context methods that apply a binary operation, like CPython's
+     * {@code DecCtx_BinaryFunc}.
+     */
+    abstract static class BinaryOpNode extends PythonTernaryBuiltinNode {
+
+        @Specialization
+        Object doContext(PDecimalContext self, Object a, Object b,
+                        @Cached ConvertOperandNode convertFirstNode,
+                        @Cached ConvertOperandNode convertSecondNode,
+                        @Cached AddStatusNode addStatusNode) {
+            DecimalValue x = convertFirstNode.execute(a);
+            DecimalValue y = convertSecondNode.execute(b);
+            DecimalArithmetic arith = self.createArithmetic();
+            Object result;
+            try {
+                result = op(arith, x, y);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(self, arith.getStatus());
+            return result;
+        }
+
+        @SuppressWarnings("unused")
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            throw new AbstractMethodError("op");
+        }
+    }
+
+    @Builtin(name = "add", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class AddNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.add(a, b));
+        }
+    }
+
+    @Builtin(name = "subtract", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class SubtractNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.subtract(a, b));
+        }
+    }
+
+    @Builtin(name = "multiply", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MultiplyNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.multiply(a, b));
+        }
+    }
+
+    @Builtin(name = "divide", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class DivideNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.divide(a, b));
+        }
+    }
+
+    @Builtin(name = "divide_int", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class DivideIntNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.divideToInteger(a, b));
+        }
+    }
+
+    @Builtin(name = "divmod", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class DivModNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            DecimalValue[] result = arith.divmod(a, b);
+            return factory().createTuple(new Object[]{factory().createDecimal(result[0]), factory().createDecimal(result[1])});
+        }
+    }
+
+    @Builtin(name = "remainder", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class RemainderNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.remainder(a, b));
+        }
+    }
+
+    @Builtin(name = "remainder_near", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class RemainderNearNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.remainderNear(a, b));
+        }
+    }
+
+    @Builtin(name = "compare", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class CompareNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.compare(a, b));
+        }
+    }
+
+    @Builtin(name = "compare_signal", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class CompareSignalNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.compareSignal(a, b));
+        }
+    }
+
+    @Builtin(name = "compare_total", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class CompareTotalNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(DecimalValue.fromLong(DecimalArithmetic.compareTotal(a, b)));
+        }
+    }
+
+    @Builtin(name = "compare_total_mag", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class CompareTotalMagNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(DecimalValue.fromLong(DecimalArithmetic.compareTotalMag(a, b)));
+        }
+    }
+
+    @Builtin(name = "copy_sign", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class CopySignNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(a.withSign(b.getSign()));
+        }
+    }
+
+    @Builtin(name = "same_quantum", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class SameQuantumNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return DecimalArithmetic.sameQuantum(a, b);
+        }
+    }
+
+    @Builtin(name = "max", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MaxNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.minMax(a, b, true, false));
+        }
+    }
+
+    @Builtin(name = "max_mag", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MaxMagNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.minMax(a, b, true, true));
+        }
+    }
+
+    @Builtin(name = "min", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MinNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.minMax(a, b, false, false));
+        }
+    }
+
+    @Builtin(name = "min_mag", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class MinMagNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.minMax(a, b, false, true));
+        }
+    }
+
+    @Builtin(name = "next_toward", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class NextTowardNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.nextToward(a, b));
+        }
+    }
+
+    @Builtin(name = "quantize", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class QuantizeNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.quantize(a, b, arith.getRounding()));
+        }
+    }
+
+    @Builtin(name = "logical_and", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class LogicalAndNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.logical(a, b, DecimalArithmetic.LOGICAL_AND));
+        }
+    }
+
+    @Builtin(name = "logical_or", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class LogicalOrNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.logical(a, b, DecimalArithmetic.LOGICAL_OR));
+        }
+    }
+
+    @Builtin(name = "logical_xor", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class LogicalXorNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.logical(a, b, DecimalArithmetic.LOGICAL_XOR));
+        }
+    }
+
+    @Builtin(name = "rotate", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class RotateNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.rotate(a, b));
+        }
+    }
+
+    @Builtin(name = "scaleb", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class ScalebNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.scaleb(a, b));
+        }
+    }
+
+    @Builtin(name = "shift", minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class ShiftNode extends BinaryOpNode {
+        @Override
+        protected Object op(DecimalArithmetic arith, DecimalValue a, DecimalValue b) {
+            return factory().createDecimal(arith.shift(a, b));
+        }
+    }
+
+    @Builtin(name = "power", minNumOfPositionalArgs = 3, parameterNames = {"$self", "a", "b", "modulo"})
+    @GenerateNodeFactory
+    abstract static class PowerNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDecimal power(PDecimalContext self, Object a, Object b, Object modulo,
+                        @Cached ConvertOperandNode convertBaseNode,
+                        @Cached ConvertOperandNode convertExponentNode,
+                        @Cached ConvertOperandNode convertModuloNode,
+                        @Cached AddStatusNode addStatusNode) {
+            DecimalValue x = convertBaseNode.execute(a);
+            DecimalValue y = convertExponentNode.execute(b);
+            DecimalValue z = modulo == PNone.NO_VALUE || modulo == PNone.NONE ? null : convertModuloNode.execute(modulo);
+            DecimalArithmetic arith = self.createArithmetic();
+            DecimalValue result;
+            try {
+                result = z == null ? arith.power(x, y) : arith.powerModulo(x, y, z);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(self, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+    }
+
+    @Builtin(name = "fma", minNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class FmaNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        PDecimal fma(PDecimalContext self, Object a, Object b, Object c,
+                        @Cached ConvertOperandNode convertFirstNode,
+                        @Cached ConvertOperandNode convertSecondNode,
+                        @Cached ConvertOperandNode convertThirdNode,
+                        @Cached AddStatusNode addStatusNode) {
+            DecimalValue x = convertFirstNode.execute(a);
+            DecimalValue y = convertSecondNode.execute(b);
+            DecimalValue z = convertThirdNode.execute(c);
+            DecimalArithmetic arith = self.createArithmetic();
+            DecimalValue result;
+            try {
+                result = arith.fma(x, y, z);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            addStatusNode.execute(self, arith.getStatus());
+            return factory().createDecimal(result);
+        }
+    }
+
+    /**
+     * Base of the context methods that do not round their operand, such as the predicates and the
+     * sign manipulations.
+     */
+    abstract static class OperandOpNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        Object doContext(PDecimalContext self, Object a,
+                        @Cached ConvertOperandNode convertOperandNode) {
+            return op(self, convertOperandNode.execute(a));
+        }
+
+        @SuppressWarnings("unused")
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            throw new AbstractMethodError("op");
+        }
+    }
+
+    @Builtin(name = "is_finite", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsFiniteNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return a.isFinite();
+        }
+    }
+
+    @Builtin(name = "is_infinite", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsInfiniteNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return a.isInfinite();
+        }
+    }
+
+    @Builtin(name = "is_nan", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsNaNNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return a.isNaN();
+        }
+    }
+
+    @Builtin(name = "is_qnan", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsQNaNNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return a.isQNaN();
+        }
+    }
+
+    @Builtin(name = "is_snan", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsSNaNNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return a.isSNaN();
+        }
+    }
+
+    @Builtin(name = "is_signed", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsSignedNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return a.isNegative();
+        }
+    }
+
+    @Builtin(name = "is_zero", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsZeroNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return a.isZero();
+        }
+    }
+
+    @Builtin(name = "is_normal", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsNormalNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return context.createArithmetic().isNormal(a);
+        }
+    }
+
+    @Builtin(name = "is_subnormal", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsSubnormalNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return context.createArithmetic().isSubnormal(a);
+        }
+    }
+
+    @Builtin(name = "copy_decimal", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class CopyDecimalNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return factory().createDecimal(a);
+        }
+    }
+
+    @Builtin(name = "copy_abs", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class CopyAbsNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return factory().createDecimal(a.abs());
+        }
+    }
+
+    @Builtin(name = "copy_negate", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class CopyNegateNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return factory().createDecimal(a.negate());
+        }
+    }
+
+    @Builtin(name = "number_class", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NumberClassNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return toTruffleString(context.createArithmetic().numberClass(a));
+        }
+    }
+
+    @Builtin(name = "to_sci_string", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ToSciStringNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return toTruffleString(DecimalArithmetic.toScientificString(a, context.isCapitals()));
+        }
+    }
+
+    @Builtin(name = "to_eng_string", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ToEngStringNode extends OperandOpNode {
+        @Override
+        protected Object op(PDecimalContext context, DecimalValue a) {
+            return toTruffleString(DecimalArithmetic.toEngineeringString(a, context.isCapitals()));
+        }
+    }
+
+    @TruffleBoundary
+    private static TruffleString toTruffleString(String s) {
+        return TruffleString.fromJavaStringUncached(s, TS_ENCODING);
+    }
+
+    @Builtin(name = "canonical", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class CanonicalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PDecimal canonical(@SuppressWarnings("unused") PDecimalContext self, PDecimal a) {
+            return a;
+        }
+
+        @Specialization(guards = "!isPDecimal(a)")
+        PDecimal error(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object a) {
+            throw raise(TypeError, ErrorMessages.ARGUMENT_MUST_BE_A_DECIMAL);
+        }
+
+        static boolean isPDecimal(Object a) {
+            return a instanceof PDecimal;
+        }
+    }
+
+    @Builtin(name = "is_canonical", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class IsCanonicalNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static boolean isCanonical(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") PDecimal a) {
+            return true;
+        }
+
+        @Specialization(guards = "!isPDecimal(a)")
+        boolean error(@SuppressWarnings("unused") PDecimalContext self, @SuppressWarnings("unused") Object a) {
+            throw raise(TypeError, ErrorMessages.ARGUMENT_MUST_BE_A_DECIMAL);
+        }
+
+        static boolean isPDecimal(Object a) {
+            return a instanceof PDecimal;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Formatting of decimals according to a format specification, like {@code Decimal.__format__}.
+ * The format specification is {@code [[fill]align][sign][0][width][,][.precision][type]}, which is
+ * what {@code libmpdec} accepts; the formatting itself follows {@code _pydecimal}.
+ */
+final class DecimalFormatter {
+
+    private DecimalFormatter() {
+    }
+
+    static final class Spec {
+        int fill = ' ';
+        char align = '>';
+        char sign = '-';
+        boolean zeroPad;
+        int minimumWidth;
+        /** -1 if no precision is given. */
+        int precision = -1;
+        /** 0 if no type is given; 'n' is replaced by 'g' with the locale's separators. */
+        char type;
+        String thousandsSeparator = "";
+        int groupSize = 3;
+        String decimalPoint = ".";
+    }
+
+    /** Parses a format specification, returning {@code null} if it is not valid. */
+    @TruffleBoundary
+    static Spec parse(String format) {
+        Spec spec = new Spec();
+        int n = format.length();
+        int i = 0;
+        boolean haveAlign = false;
+        if (n >= 2 && isAlign(format.charAt(format.offsetByCodePoints(0, 1)))) {
+            spec.fill = format.codePointAt(0);
+            i = format.offsetByCodePoints(0, 1);
+            spec.align = format.charAt(i++);
+            haveAlign = true;
+        } else if (n >= 1 && isAlign(format.charAt(0))) {
+            spec.align = format.charAt(i++);
+            haveAlign = true;
+        }
+        if (i < n && (format.charAt(i) == '+' || format.charAt(i) == '-' || format.charAt(i) == ' ')) {
+            spec.sign = format.charAt(i++);
+        }
+        if (i < n && format.charAt(i) == '0') {
+            // zero padding implies an alignment, which must not be given twice
+            if (haveAlign) {
+                return null;
+            }
+            spec.zeroPad = true;
+            i++;
+        }
+        int start = i;
+        while (i < n && isDigit(format.charAt(i))) {
+            i++;
+        }
+        if (i > start) {
+            spec.minimumWidth = parseInt(format.substring(start, i));
+            if (spec.minimumWidth < 0) {
+                return null;
+            }
+        }
+        if (i < n && format.charAt(i) == ',') {
+            spec.thousandsSeparator = ",";
+            i++;
+        }
+        if (i < n && format.charAt(i) == '.') {
+            start = ++i;
+            while (i < n && isDigit(format.charAt(i))) {
+                i++;
+            }
+            if (i == start) {
+                return null;
+            }
+            spec.precision = parseInt(format.substring(start, i));
+            if (spec.precision < 0) {
+                return null;
+            }
+        }
+        if (i < n && "eEfFgGn%".indexOf(format.charAt(i)) >= 0) {
+            spec.type = format.charAt(i++);
+        }
+        if (i != n) {
+            return null;
+        }
+        if (spec.precision == 0 && (spec.type == 0 || spec.type == 'g' || spec.type == 'G' || spec.type == 'n')) {
+            spec.precision = 1;
+        }
+        if (spec.type == 'n') {
+            if (!spec.thousandsSeparator.isEmpty()) {
+                return null;
+            }
+            spec.type = 'g';
+            Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+            NumberFormat numberFormat = NumberFormat.getInstance(locale);
+            DecimalFormatSymbols symbols;
+            if (numberFormat instanceof DecimalFormat) {
+                symbols = ((DecimalFormat) numberFormat).getDecimalFormatSymbols();
+                spec.groupSize = ((DecimalFormat) numberFormat).getGroupingSize();
+            } else {
+                symbols = new DecimalFormatSymbols(locale);
+            }
+            spec.thousandsSeparator = String.valueOf(symbols.getGroupingSeparator());
+            spec.decimalPoint = String.valueOf(symbols.getDecimalSeparator());
+        }
+        return spec;
+    }
+
+    private static boolean isAlign(char c) {
+        return c == '<' || c == '>' || c == '=' || c == '^';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int parseInt(String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Formats {@code v}, rounding with {@code rounding} if the precision requires it. */
+    @TruffleBoundary
+    static String format(DecimalValue value, Spec spec, int rounding, boolean capitals) {
+        DecimalValue v = value;
+        if (v.isSpecial()) {
+            String body = DecimalArithmetic.toScientificString(v.abs(), true);
+            if (spec.type == '%') {
+                body += '%';
+            }
+            return align(formatSign(v.isNegative(), spec), body, spec);
+        }
+        char type = spec.type;
+        if (type == 0) {
+            type = capitals ? 'G' : 'g';
+        }
+        if (type == '%') {
+            v = v.withExponent(v.getExponent() + 2);
+        }
+        // rounding only depends on the rounding mode, so a quiet arithmetic with the maximum
+        // context can be used
+        DecimalArithmetic arithmetic = DecimalArithmetic.createMax();
+        int precision = spec.precision;
+        if (precision >= 0) {
+            if (type == 'e' || type == 'E') {
+                v = arithmetic.roundToPlaces(v, precision + 1, rounding);
+            } else if (type == 'f' || type == 'F' || type == '%') {
+                v = arithmetic.rescale(v, -precision, rounding);
+            } else if ((type == 'g' || type == 'G') && v.digits() > precision) {
+                v = arithmetic.roundToPlaces(v, precision, rounding);
+            }
+        }
+        // special case: zeros with a positive exponent can't be represented in fixed point
+        if (v.isZero() && v.getExponent() > 0 && (type == 'f' || type == 'F' || type == '%')) {
+            v = arithmetic.rescale(v, 0, rounding);
+        }
+        String digits = v.coefficientString();
+        long leftDigits = v.getExponent() + digits.length();
+        long dotPlace;
+        if (type == 'e' || type == 'E') {
+            dotPlace = v.isZero() && precision >= 0 ? 1 - precision : 1;
+        } else if (type == 'f' || type == 'F' || type == '%') {
+            dotPlace = leftDigits;
+        } else if (v.getExponent() <= 0 && leftDigits > -6) {
+            dotPlace = leftDigits;
+        } else {
+            dotPlace = 1;
+        }
+        String intPart;
+        String fracPart;
+        if (dotPlace < 0) {
+            intPart = "0";
+            fracPart = repeat('0', -dotPlace) + digits;
+        } else if (dotPlace > digits.length()) {
+            intPart = digits + repeat('0', dotPlace - digits.length());
+            fracPart = "";
+        } else {
+            intPart = dotPlace == 0 ? "0" : digits.substring(0, (int) dotPlace);
+            fracPart = digits.substring((int) dotPlace);
+        }
+        long exp = leftDigits - dotPlace;
+        return formatNumber(v.isNegative(), intPart, fracPart, exp, type, spec);
+    }
+
+    private static String formatNumber(boolean negative, String intPart, String fracPart, long exp, char type, Spec spec) {
+        String sign = formatSign(negative, spec);
+        StringBuilder suffix = new StringBuilder();
+        if (!fracPart.isEmpty()) {
+            suffix.append(spec.decimalPoint).append(fracPart);
+        }
+        if (exp != 0 || type == 'e' || type == 'E') {
+            char echar = type == 'E' || type == 'G' ? 'E' : 'e';
+            suffix.append(echar).append(exp < 0 ? '-' : '+').append(Math.abs(exp));
+        }
+        if (type == '%') {
+            suffix.append('%');
+        }
+        int minWidth = spec.zeroPad ? spec.minimumWidth - suffix.length() - sign.length() : 0;
+        return align(sign, insertThousandsSeparator(intPart, spec, minWidth) + suffix, spec);
+    }
+
+    private static String formatSign(boolean negative, Spec spec) {
+        if (negative) {
+            return "-";
+        } else if (spec.sign == '+' || spec.sign == ' ') {
+            return String.valueOf(spec.sign);
+        }
+        return "";
+    }
+
+    private static String align(String sign, String body, Spec spec) {
+        int paddingLength = Math.max(spec.minimumWidth - sign.length() - body.codePointCount(0, body.length()), 0);
+        String fill = new String(new int[]{spec.fill}, 0, 1);
+        switch (spec.align) {
+            case '<':
+                return sign + body + fill.repeat(paddingLength);
+            case '=':
+                return sign + fill.repeat(paddingLength) + body;
+            case '^':
+                int half = paddingLength / 2;
+                return fill.repeat(half) + sign + body + fill.repeat(paddingLength - half);
+            default:
+                return fill.repeat(paddingLength) + sign + body;
+        }
+    }
+
+    /**
+     * Inserts the thousands separator into the digits of the integer part, padding them with
+     * zeros to at least {@code minWidth} characters.
+     */
+    private static String insertThousandsSeparator(String intPart, Spec spec, int minWidth) {
+        String digits = intPart;
+        String separator = spec.thousandsSeparator;
+        if (separator.isEmpty() || spec.groupSize <= 0) {
+            return digits.length() < minWidth ? repeat('0', minWidth - digits.length()) + digits : digits;
+        }
+        StringBuilder result = new StringBuilder();
+        int width = minWidth;
+        while (true) {
+            int l = Math.min(Math.max(Math.max(digits.length(), width), 1), spec.groupSize);
+            String group = repeat('0', l - Math.min(l, digits.length())) + digits.substring(Math.max(0, digits.length() - l));
+            result.insert(0, group);
+            digits = digits.substring(0, Math.max(0, digits.length() - l));
+            width -= l;
+            if (digits.isEmpty() && width <= 0) {
+                break;
+            }
+            width -= separator.length();
+            result.insert(0, separator);
+        }
+        return result.toString();
+    }
+
+    private static String repeat(char c, long n) {
+        return String.valueOf(c).repeat(Math.toIntExact(n));
+    }
+}
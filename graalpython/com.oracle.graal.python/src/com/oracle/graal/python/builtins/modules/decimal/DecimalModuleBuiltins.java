@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalDivisionByZero;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalDivisionUndefined;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalException;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalFloatOperation;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalInexact;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalInvalidOperation;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalOverflow;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalRounded;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalSubnormal;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalUnderflow;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZeroDivisionError;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.CLAMPED;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.MAX_EMAX;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.MAX_PREC;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.MIN_EMIN;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.MIN_ETINY;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.ROUND_HALF_UP;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.UNDERFLOW;
+import static com.oracle.graal.python.nodes.BuiltinNames.J__DECIMAL;
+import static com.oracle.graal.python.nodes.BuiltinNames.T__DECIMAL;
+import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.FromObjectNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetContextArgNode;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.GetCurrentContextNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.contextvars.PContextVar;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectSetAttr;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.SpecialAttributeNames;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.object.HiddenKey;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Java counterpart of CPython's {@code _decimal.c}. The {@code decimal} module imports everything
+ * defined here instead of the pure Python {@code _pydecimal}, so that decimal arithmetic works on
+ * Java objects: coefficients that fit a {@code long} are computed without allocating, larger ones
+ * use {@link java.math.BigInteger}.
+ */
+@CoreFunctions(defineModule = J__DECIMAL)
+public final class DecimalModuleBuiltins extends PythonBuiltins {
+
+    static final HiddenKey STATE_KEY = new HiddenKey("decimal_state");
+
+    private static final TruffleString T_DECIMAL = tsLiteral("decimal");
+    private static final TruffleString T_DECIMAL_CONTEXT = tsLiteral("decimal_context");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DecimalModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        addBuiltinConstant(SpecialAttributeNames.T___DOC__, "C decimal arithmetic module");
+        addBuiltinConstant("__version__", "1.70");
+        addBuiltinConstant("__libmpdec_version__", "2.4.2");
+        addBuiltinConstant("MAX_PREC", MAX_PREC);
+        addBuiltinConstant("MAX_EMAX", MAX_EMAX);
+        addBuiltinConstant("MIN_EMIN", MIN_EMIN);
+        addBuiltinConstant("MIN_ETINY", MIN_ETINY);
+        addBuiltinConstant("HAVE_THREADS", true);
+        addBuiltinConstant("HAVE_CONTEXTVAR", true);
+        for (TruffleString name : DecimalNodes.ROUNDING_NAMES) {
+            addBuiltinConstant(name, name);
+        }
+        // the signals that derive from more than one class
+        setBases(core, DecimalDivisionByZero, DecimalException, ZeroDivisionError);
+        setBases(core, DecimalDivisionUndefined, DecimalInvalidOperation, ZeroDivisionError);
+        setBases(core, DecimalOverflow, DecimalInexact, DecimalRounded);
+        setBases(core, DecimalUnderflow, DecimalInexact, DecimalRounded, DecimalSubnormal);
+        setBases(core, DecimalFloatOperation, DecimalException, TypeError);
+        super.initialize(core);
+    }
+
+    private static void setBases(Python3Core core, PythonBuiltinClassType type, PythonBuiltinClassType... bases) {
+        PythonBuiltinClass[] baseClasses = new PythonBuiltinClass[bases.length];
+        for (int i = 0; i < bases.length; i++) {
+            baseClasses[i] = core.lookupType(bases[i]);
+        }
+        core.lookupType(type).setSuperClass(baseClasses);
+    }
+
+    @Override
+    public void postInitialize(Python3Core core) {
+        PythonModule module = core.lookupBuiltinModule(T__DECIMAL);
+        PythonObjectFactory factory = core.factory();
+
+        PDecimalContext defaultContext = factory.createDecimalContext(PythonBuiltinClassType.PDecimalContext);
+        PDecimalContext basicContext = factory.createDecimalContext(PythonBuiltinClassType.PDecimalContext);
+        basicContext.prec = 9;
+        basicContext.rounding = ROUND_HALF_UP;
+        basicContext.traps |= UNDERFLOW | CLAMPED;
+        PDecimalContext extendedContext = factory.createDecimalContext(PythonBuiltinClassType.PDecimalContext);
+        extendedContext.prec = 9;
+        extendedContext.traps = 0;
+        module.setAttribute(tsLiteral("DefaultContext"), defaultContext);
+        module.setAttribute(tsLiteral("BasicContext"), basicContext);
+        module.setAttribute(tsLiteral("ExtendedContext"), extendedContext);
+
+        CallNode callNode = CallNode.getUncached();
+        Object decimalTuple = callNode.execute(importAttribute("collections", "namedtuple"), tsLiteral("DecimalTuple"), tsLiteral("sign digits exponent"));
+        PyObjectSetAttr.getUncached().execute(null, decimalTuple, SpecialAttributeNames.T___MODULE__, T_DECIMAL);
+        module.setAttribute(tsLiteral("DecimalTuple"), decimalTuple);
+
+        Object[] signalDictBases = {core.lookupType(PythonBuiltinClassType.PDecimalSignalDictMixin), importAttribute("collections.abc", "MutableMapping")};
+        Object signalDictType = callNode.execute(core.lookupType(PythonBuiltinClassType.PythonClass), tsLiteral("SignalDict"), factory.createTuple(signalDictBases), factory.createDict());
+
+        Object number = importAttribute("numbers", "Number");
+        callNode.execute(PyObjectGetAttr.getUncached().execute(null, number, tsLiteral("register")), core.lookupType(PythonBuiltinClassType.PDecimal));
+        Object rational = importAttribute("numbers", "Rational");
+
+        PContextVar currentContext = factory.createContextVar(T_DECIMAL_CONTEXT, PContextVar.NO_DEFAULT);
+        module.setAttribute(STATE_KEY, new DecimalState(currentContext, defaultContext, basicContext, extendedContext, decimalTuple, signalDictType, rational));
+    }
+
+    @TruffleBoundary
+    private static Object importAttribute(String moduleName, String name) {
+        TruffleString tsName = toTruffleStringUncached(name);
+        Object module = AbstractImportNode.importModule(toTruffleStringUncached(moduleName), new TruffleString[]{tsName});
+        return PyObjectGetAttr.getUncached().execute(null, module, tsName);
+    }
+
+    /**
+     * Per-context state of the module. Like CPython built with {@code contextvars}, the current
+     * decimal context is stored in a context variable, so that it is local to threads and to
+     * asyncio tasks.
+     */
+    static final class DecimalState {
+        final PContextVar currentContext;
+        /** The templates {@code DefaultContext}, {@code BasicContext}, {@code ExtendedContext}. */
+        final PDecimalContext defaultContext;
+        final PDecimalContext basicContext;
+        final PDecimalContext extendedContext;
+        final Object decimalTuple;
+        final Object signalDictType;
+        final Object rational;
+
+        DecimalState(PContextVar currentContext, PDecimalContext defaultContext, PDecimalContext basicContext, PDecimalContext extendedContext, Object decimalTuple, Object signalDictType,
+                        Object rational) {
+            this.currentContext = currentContext;
+            this.defaultContext = defaultContext;
+            this.basicContext = basicContext;
+            this.extendedContext = extendedContext;
+            this.decimalTuple = decimalTuple;
+            this.signalDictType = signalDictType;
+            this.rational = rational;
+        }
+
+        boolean isTemplate(PDecimalContext context) {
+            return context == defaultContext || context == basicContext || context == extendedContext;
+        }
+    }
+
+    abstract static class GetDecimalStateNode extends PNodeWithContext {
+        abstract DecimalState execute();
+
+        @Specialization
+        DecimalState get(@Cached ReadAttributeFromObjectNode readNode) {
+            return (DecimalState) readNode.execute(getContext().lookupBuiltinModule(T__DECIMAL), STATE_KEY);
+        }
+    }
+
+    @Builtin(name = "Decimal", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PDecimal, parameterNames = {"$cls", "value", "context"})
+    @GenerateNodeFactory
+    abstract static class DecimalNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object create(VirtualFrame frame, Object cls, Object value, Object contextArg,
+                        @Cached GetContextArgNode getContextArgNode,
+                        @Cached IsBuiltinClassProfile isDecimalClassProfile,
+                        @Cached IsBuiltinClassProfile isDecimalValueProfile,
+                        @Cached FromObjectNode fromObjectNode) {
+            PDecimalContext context = getContextArgNode.execute(contextArg);
+            boolean isDecimal = isDecimalClassProfile.profileClass(cls, PythonBuiltinClassType.PDecimal);
+            if (isDecimal && value instanceof PDecimal && isDecimalValueProfile.profileObject(value, PythonBuiltinClassType.PDecimal)) {
+                return value;
+            }
+            DecimalValue result = fromObjectNode.execute(frame, value, context, true);
+            return factory().createDecimal(cls, result);
+        }
+    }
+
+    @Builtin(name = "Context", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PDecimalContext, takesVarArgs = true, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    abstract static class ContextNode extends PythonBuiltinNode {
+        // the parameters are set by __init__
+        @Specialization
+        PDecimalContext create(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs,
+                        @Cached GetDecimalStateNode getStateNode) {
+            PDecimalContext context = factory().createDecimalContext(cls);
+            context.setFrom(getStateNode.execute().defaultContext);
+            context.capitals = 1;
+            return context;
+        }
+    }
+
+    @Builtin(name = "getcontext", doc = "Get the current default context.")
+    @GenerateNodeFactory
+    abstract static class GetContextNode extends PythonBuiltinNode {
+        @Specialization
+        static PDecimalContext get(@Cached GetCurrentContextNode getCurrentContextNode) {
+            return getCurrentContextNode.execute();
+        }
+    }
+
+    @Builtin(name = "setcontext", minNumOfPositionalArgs = 1, parameterNames = {"context"}, doc = "Set a new default context.")
+    @GenerateNodeFactory
+    abstract static class SetContextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object set(PDecimalContext context,
+                        @Cached GetDecimalStateNode getStateNode) {
+            DecimalState state = getStateNode.execute();
+            PDecimalContext newContext = context;
+            if (state.isTemplate(context)) {
+                // like decimal.py, do not let the templates be modified through the current context
+                newContext = DecimalNodes.copyContext(factory(), context);
+                newContext.flags = 0;
+            }
+            state.currentContext.setValue(getContext().getThreadState(getLanguage()), newContext);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isContext(context)")
+        Object error(@SuppressWarnings("unused") Object context) {
+            throw raise(TypeError, ErrorMessages.ARGUMENT_MUST_BE_A_CONTEXT);
+        }
+
+        static boolean isContext(Object context) {
+            return context instanceof PDecimalContext;
+        }
+    }
+
+    @Builtin(name = "localcontext", parameterNames = {"ctx"}, doc = "Return a context manager that will set the default context to a copy of ctx\n" +
+                    "on entry to the with-statement and restore the previous default context when\n" +
+                    "exiting the with-statement. If no context is specified, a copy of the current\n" +
+                    "default context is used.")
+    @GenerateNodeFactory
+    abstract static class LocalContextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object create(Object ctx,
+                        @Cached GetCurrentContextNode getCurrentContextNode) {
+            PDecimalContext global = getCurrentContextNode.execute();
+            PDecimalContext local;
+            if (ctx == PNone.NO_VALUE || ctx == PNone.NONE) {
+                local = global;
+            } else if (ctx instanceof PDecimalContext) {
+                local = (PDecimalContext) ctx;
+            } else {
+                throw raise(TypeError, ErrorMessages.OPTIONAL_ARGUMENT_MUST_BE_A_CONTEXT);
+            }
+            return factory().createDecimalContextManager(DecimalNodes.copyContext(factory(), local), global);
+        }
+    }
+}
@@ -0,0 +1,726 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalClamped;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalConversionSyntax;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalDivisionByZero;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalDivisionImpossible;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalDivisionUndefined;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalFloatOperation;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalInexact;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalInvalidContext;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalInvalidOperation;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalOverflow;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalRounded;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalSubnormal;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.DecimalUnderflow;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.KeyError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MemoryError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.CLAMPED;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.CONVERSION_SYNTAX;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.DIVISION_BY_ZERO;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.DIVISION_IMPOSSIBLE;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.DIVISION_UNDEFINED;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.FLOAT_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.IEEE_INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.INEXACT;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.INVALID_CONTEXT;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.INVALID_OPERATION;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.OVERFLOW;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.ROUNDED;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.SUBNORMAL;
+import static com.oracle.graal.python.builtins.modules.decimal.DecimalArithmetic.UNDERFLOW;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.math.BigInteger;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalModuleBuiltins.DecimalState;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalModuleBuiltins.GetDecimalStateNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.str.StringUtils;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.lib.PyDictGetItem;
+import com.oracle.graal.python.lib.PyLongAsLongAndOverflowNode;
+import com.oracle.graal.python.lib.PyLongCheckNode;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectSizeNode;
+import com.oracle.graal.python.lib.PyUnicodeCheckNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Nodes shared by the {@code _decimal} builtins: converting operands, finding the context to work
+ * in and signalling the conditions raised by an operation, like the macros and helpers of CPython's
+ * {@code _decimal.c}.
+ */
+public abstract class DecimalNodes {
+
+    /**
+     * The signals in the order of CPython's {@code signal_map}, which is the order of the flags and
+     * traps lists and of the iteration over a signal dict.
+     */
+    static final PythonBuiltinClassType[] SIGNALS = {DecimalInvalidOperation, DecimalFloatOperation, DecimalDivisionByZero, DecimalOverflow, DecimalUnderflow, DecimalSubnormal,
+                    DecimalInexact, DecimalRounded, DecimalClamped};
+    static final int[] SIGNAL_BITS = {IEEE_INVALID_OPERATION, FLOAT_OPERATION, DIVISION_BY_ZERO, OVERFLOW, UNDERFLOW, SUBNORMAL, INEXACT, ROUNDED, CLAMPED};
+
+    /** The conditions reported as {@code InvalidOperation}, like CPython's {@code cond_map}. */
+    private static final PythonBuiltinClassType[] CONDITIONS = {DecimalInvalidOperation, DecimalConversionSyntax, DecimalDivisionImpossible, DecimalDivisionUndefined, DecimalInvalidContext};
+    private static final int[] CONDITION_BITS = {INVALID_OPERATION, CONVERSION_SYNTAX, DIVISION_IMPOSSIBLE, DIVISION_UNDEFINED, INVALID_CONTEXT};
+
+    /** The names of the rounding modes, indexed by mode. */
+    static final TruffleString[] ROUNDING_NAMES = {tsLiteral("ROUND_UP"), tsLiteral("ROUND_DOWN"), tsLiteral("ROUND_CEILING"), tsLiteral("ROUND_FLOOR"), tsLiteral("ROUND_HALF_UP"),
+                    tsLiteral("ROUND_HALF_DOWN"), tsLiteral("ROUND_HALF_EVEN"), tsLiteral("ROUND_05UP")};
+
+    private static final String[] JAVA_ROUNDING_NAMES = {"ROUND_UP", "ROUND_DOWN", "ROUND_CEILING", "ROUND_FLOOR", "ROUND_HALF_UP", "ROUND_HALF_DOWN", "ROUND_HALF_EVEN", "ROUND_05UP"};
+
+    /**
+     * The index of a signal class in {@link #SIGNALS}, or -1 if the key is not one of the signals.
+     */
+    static int signalIndex(Object key) {
+        PythonBuiltinClassType type;
+        if (key instanceof PythonBuiltinClass) {
+            type = ((PythonBuiltinClass) key).getType();
+        } else if (key instanceof PythonBuiltinClassType) {
+            type = (PythonBuiltinClassType) key;
+        } else {
+            return -1;
+        }
+        for (int i = 0; i < SIGNALS.length; i++) {
+            if (SIGNALS[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Equivalent of CPython's {@code exception_as_flag}: the bits of a signal class, raising
+     * {@code KeyError} for anything else.
+     */
+    static int signalBits(PNodeWithRaise node, Object key) {
+        int idx = signalIndex(key);
+        if (idx < 0) {
+            throw node.raise(KeyError, ErrorMessages.VALID_VALUES_FOR_SIGNALS);
+        }
+        return SIGNAL_BITS[idx];
+    }
+
+    /**
+     * The signal classes whose bits are set, in the order of {@link #SIGNALS}.
+     */
+    static Object[] signalsAsArray(PythonContext context, int bits) {
+        int n = 0;
+        Object[] result = new Object[SIGNALS.length];
+        for (int i = 0; i < SIGNALS.length; i++) {
+            if ((bits & SIGNAL_BITS[i]) != 0) {
+                result[n++] = context.lookupType(SIGNALS[i]);
+            }
+        }
+        return trim(result, n);
+    }
+
+    /**
+     * The rounding mode with the given name, or -1 if there is none.
+     */
+    @TruffleBoundary
+    static int roundingFromName(String name) {
+        for (int i = 0; i < JAVA_ROUNDING_NAMES.length; i++) {
+            if (JAVA_ROUNDING_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object[] trim(Object[] array, int length) {
+        if (length == array.length) {
+            return array;
+        }
+        Object[] result = new Object[length];
+        System.arraycopy(array, 0, result, 0, length);
+        return result;
+    }
+
+    /**
+     * Equivalent of CPython's {@code context_copy}: a new context of the same class with the same
+     * parameters, flags and traps.
+     */
+    static PDecimalContext copyContext(PythonObjectFactory factory, PDecimalContext context) {
+        PDecimalContext copy = factory.createDecimalContext(context.getInitialPythonClass());
+        copy.setFrom(context);
+        return copy;
+    }
+
+    /**
+     * Equivalent of CPython's {@code numeric_as_ascii}: replaces whitespace by a space and other
+     * non-ASCII characters by the decimal digit they stand for. Returns an empty string, which does
+     * not parse, if there is a character that is neither.
+     */
+    @TruffleBoundary
+    static String numericAsAscii(String s, boolean stripWhitespace, boolean ignoreUnderscores) {
+        int start = 0;
+        int end = s.length();
+        if (stripWhitespace) {
+            while (end > start && StringUtils.isSpace(s.codePointBefore(end))) {
+                end -= Character.charCount(s.codePointBefore(end));
+            }
+            while (start < end && StringUtils.isSpace(s.codePointAt(start))) {
+                start += Character.charCount(s.codePointAt(start));
+            }
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            int cp = s.codePointAt(i);
+            i += Character.charCount(cp);
+            if (ignoreUnderscores && cp == '_') {
+                continue;
+            }
+            if (cp > 0 && cp < 128) {
+                sb.append((char) cp);
+            } else if (StringUtils.isSpace(cp)) {
+                sb.append(' ');
+            } else if (cp != 0 && Character.isDigit(cp)) {
+                sb.append((char) ('0' + Character.digit(cp, 10)));
+            } else {
+                return "";
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converts an {@code int} or a {@code Decimal} to a decimal value, returning {@code null} for
+     * other objects. Like CPython's {@code convert_op} with {@code NOT_IMPL}, this is used by the
+     * number protocol.
+     */
+    public abstract static class ToDecimalValueNode extends Node {
+
+        public abstract DecimalValue execute(Object value);
+
+        @Specialization
+        static DecimalValue doDecimal(PDecimal value) {
+            return value.getValue();
+        }
+
+        @Specialization
+        static DecimalValue doBoolean(boolean value) {
+            return value ? DecimalValue.ONE : DecimalValue.ZERO;
+        }
+
+        @Specialization
+        static DecimalValue doInt(int value) {
+            return DecimalValue.fromLong(value);
+        }
+
+        @Specialization
+        static DecimalValue doLong(long value) {
+            return DecimalValue.fromLong(value);
+        }
+
+        @Specialization
+        static DecimalValue doPInt(PInt value) {
+            return DecimalValue.fromBigInteger(value.getValue());
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static DecimalValue doOther(Object value) {
+            return null;
+        }
+    }
+
+    /**
+     * Like {@link ToDecimalValueNode}, but raises a {@code TypeError} for objects that cannot be
+     * converted, like CPython's {@code convert_op} with {@code TYPE_ERR}.
+     */
+    public abstract static class ConvertOperandNode extends PNodeWithRaise {
+
+        public abstract DecimalValue execute(Object value);
+
+        @Specialization
+        DecimalValue convert(Object value,
+                        @Cached ToDecimalValueNode toDecimalValueNode) {
+            DecimalValue result = toDecimalValueNode.execute(value);
+            if (result == null) {
+                throw raise(TypeError, ErrorMessages.CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED, value);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code current_context}: the context of the current thread or
+     * {@code contextvars} context, created from {@code DefaultContext} on first use.
+     */
+    public abstract static class GetCurrentContextNode extends PNodeWithContext {
+
+        public abstract PDecimalContext execute();
+
+        @Specialization
+        PDecimalContext get(@Cached GetDecimalStateNode getStateNode,
+                        @Cached ConditionProfile initProfile,
+                        @Cached PythonObjectFactory factory) {
+            DecimalState state = getStateNode.execute();
+            PythonThreadState threadState = getContext().getThreadState(getLanguage());
+            Object context = state.currentContext.getValue(threadState);
+            if (initProfile.profile(context == null)) {
+                PDecimalContext newContext = copyContext(factory, state.defaultContext);
+                newContext.flags = 0;
+                state.currentContext.setValue(threadState, newContext);
+                return newContext;
+            }
+            return (PDecimalContext) context;
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code CONTEXT_CHECK_VA}: resolves an optional context argument,
+     * defaulting to the current context.
+     */
+    public abstract static class GetContextArgNode extends PNodeWithRaise {
+
+        public abstract PDecimalContext execute(Object context);
+
+        @Specialization
+        static PDecimalContext doContext(PDecimalContext context) {
+            return context;
+        }
+
+        @Specialization(guards = "isNoValue(context) || isNone(context)")
+        static PDecimalContext doDefault(@SuppressWarnings("unused") Object context,
+                        @Cached GetCurrentContextNode getCurrentContextNode) {
+            return getCurrentContextNode.execute();
+        }
+
+        @Fallback
+        PDecimalContext doOther(@SuppressWarnings("unused") Object context) {
+            throw raise(TypeError, ErrorMessages.OPTIONAL_ARGUMENT_MUST_BE_A_CONTEXT);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code dec_addstatus}: records the conditions in the flags of the
+     * context and raises the exception of the first trapped signal. The exception's argument is
+     * the list of all trapped conditions.
+     */
+    public abstract static class AddStatusNode extends PNodeWithRaise {
+
+        public abstract void execute(PDecimalContext context, int status);
+
+        @Specialization
+        void add(PDecimalContext context, int status,
+                        @Cached ConditionProfile trappedProfile,
+                        @Cached PythonObjectFactory factory) {
+            context.flags |= status;
+            int trapped = status & context.traps;
+            if (trappedProfile.profile(trapped != 0)) {
+                throw raise(firstSignal(trapped), new Object[]{factory.createList(conditionsAsArray(PythonContext.get(this), trapped))});
+            }
+        }
+
+        private static PythonBuiltinClassType firstSignal(int trapped) {
+            for (int i = 0; i < SIGNALS.length; i++) {
+                if ((trapped & SIGNAL_BITS[i]) != 0) {
+                    return SIGNALS[i];
+                }
+            }
+            throw CompilerDirectives.shouldNotReachHere();
+        }
+
+        /** Equivalent of CPython's {@code flags_as_list}. */
+        @TruffleBoundary
+        private static Object[] conditionsAsArray(PythonContext context, int trapped) {
+            Object[] signals = new Object[CONDITIONS.length + SIGNALS.length];
+            int n = 0;
+            for (int i = 0; i < CONDITIONS.length; i++) {
+                if ((trapped & CONDITION_BITS[i]) != 0) {
+                    signals[n++] = context.lookupType(CONDITIONS[i]);
+                }
+            }
+            for (int i = 1; i < SIGNALS.length; i++) {
+                if ((trapped & SIGNAL_BITS[i]) != 0) {
+                    signals[n++] = context.lookupType(SIGNALS[i]);
+                }
+            }
+            return trim(signals, n);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code getround}: converts the name of a rounding mode to the mode.
+     */
+    public abstract static class GetRoundingNode extends PNodeWithRaise {
+
+        public abstract int execute(Object rounding);
+
+        @Specialization
+        int get(Object rounding,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            if (unicodeCheckNode.execute(rounding)) {
+                int mode = roundingFromName(castToJavaStringNode.execute(rounding));
+                if (mode >= 0) {
+                    return mode;
+                }
+            }
+            throw raise(TypeError, ErrorMessages.VALID_VALUES_FOR_ROUNDING);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code PyLong_AsSsize_t} as used by the context setters: requires an
+     * {@code int} that fits into a {@code long}.
+     */
+    public abstract static class AsSsizeNode extends PNodeWithRaise {
+
+        public abstract long execute(VirtualFrame frame, Object value);
+
+        @Specialization
+        long get(VirtualFrame frame, Object value,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached PyLongAsLongAndOverflowNode asLongNode) {
+            if (!longCheckNode.execute(value)) {
+                throw raise(TypeError, ErrorMessages.INTEGER_REQUIRED);
+            }
+            try {
+                return asLongNode.execute(frame, value);
+            } catch (OverflowException e) {
+                throw raise(OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "C ssize_t");
+            }
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code PyDecType_FromObjectExact} and {@code PyDecType_FromObject}:
+     * converts the argument of the {@code Decimal} constructor or of
+     * {@code Context.create_decimal}. Exact conversions use the largest possible context and turn
+     * lossy results into {@code NaN}, the others are rounded to the context.
+     */
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    public abstract static class FromObjectNode extends PNodeWithRaise {
+
+        public abstract DecimalValue execute(VirtualFrame frame, Object value, PDecimalContext context, boolean exact);
+
+        @Specialization
+        DecimalValue doDecimal(PDecimal value, PDecimalContext context, boolean exact,
+                        @Shared("addStatus") @Cached AddStatusNode addStatusNode) {
+            DecimalValue v = value.getValue();
+            if (exact) {
+                return v;
+            }
+            if (v.isNaN() && v.hasPayload() && v.digits() > context.prec - context.clamp) {
+                addStatusNode.execute(context, CONVERSION_SYNTAX);
+                return DecimalValue.NAN;
+            }
+            return fix(context, v, addStatusNode);
+        }
+
+        @Specialization
+        DecimalValue doLong(long value, PDecimalContext context, boolean exact,
+                        @Shared("addStatus") @Cached AddStatusNode addStatusNode) {
+            DecimalValue v = DecimalValue.fromLong(value);
+            return exact ? v : fix(context, v, addStatusNode);
+        }
+
+        @Specialization
+        DecimalValue doDouble(double value, PDecimalContext context, boolean exact,
+                        @Shared("addStatus") @Cached AddStatusNode addStatusNode) {
+            addStatusNode.execute(context, FLOAT_OPERATION);
+            DecimalValue v = DecimalArithmetic.fromDouble(value);
+            return exact ? v : fix(context, v, addStatusNode);
+        }
+
+        @Specialization(guards = "!isPDecimal(value)")
+        DecimalValue doGeneric(VirtualFrame frame, Object value, PDecimalContext context, boolean exact,
+                        @Cached ToDecimalValueNode toDecimalValueNode,
+                        @Cached PyUnicodeCheckNode unicodeCheckNode,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Cached PyLongCheckNode longCheckNode,
+                        @Cached PyLongAsLongAndOverflowNode asLongNode,
+                        @Shared("addStatus") @Cached AddStatusNode addStatusNode) {
+            if (value == PNone.NO_VALUE) {
+                return DecimalValue.ZERO;
+            }
+            DecimalValue v = toDecimalValueNode.execute(value);
+            if (v != null) {
+                return exact ? v : fix(context, v, addStatusNode);
+            }
+            if (unicodeCheckNode.execute(value)) {
+                String s = numericAsAscii(castToJavaStringNode.execute(value), exact, exact);
+                return fromString(context, s, exact, addStatusNode);
+            }
+            if (value instanceof PTuple || value instanceof PList) {
+                String s = tupleAsString(frame, getObjectArrayNode.execute(value), getObjectArrayNode, unicodeCheckNode, castToJavaStringNode, longCheckNode, asLongNode);
+                return fromString(context, s, exact, addStatusNode);
+            }
+            throw raise(TypeError, ErrorMessages.CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED, value);
+        }
+
+        static boolean isPDecimal(Object value) {
+            return value instanceof PDecimal;
+        }
+
+        private DecimalValue fix(PDecimalContext context, DecimalValue v, AddStatusNode addStatusNode) {
+            DecimalArithmetic arith = context.createArithmetic();
+            DecimalValue result = arith.fix(v);
+            addStatusNode.execute(context, arith.getStatus());
+            return result;
+        }
+
+        private DecimalValue fromString(PDecimalContext context, String s, boolean exact, AddStatusNode addStatusNode) {
+            DecimalArithmetic arith = exact ? DecimalArithmetic.createMax() : context.createArithmetic();
+            DecimalValue result;
+            try {
+                result = arith.fromString(s);
+            } catch (ArithmeticException e) {
+                throw raise(MemoryError);
+            }
+            if (exact) {
+                result = arith.toExact(result);
+            }
+            addStatusNode.execute(context, arith.getStatus());
+            return result;
+        }
+
+        /**
+         * Equivalent of CPython's {@code dectuple_as_str}: turns a tuple
+         * {@code (sign, digits, exponent)} into a numeric string.
+         */
+        private String tupleAsString(VirtualFrame frame, Object[] items, GetObjectArrayNode getObjectArrayNode, PyUnicodeCheckNode unicodeCheckNode, CastToJavaStringNode castToJavaStringNode,
+                        PyLongCheckNode longCheckNode, PyLongAsLongAndOverflowNode asLongNode) {
+            if (items.length != 3) {
+                throw raise(ValueError, ErrorMessages.ARGUMENT_MUST_BE_A_SEQUENCE_OF_LENGTH_3);
+            }
+            long sign = asDigit(frame, items[0], longCheckNode, asLongNode, ErrorMessages.SIGN_MUST_BE_AN_INTEGER_WITH_THE_VALUE_0_OR_1);
+            if (sign != 0 && sign != 1) {
+                throw raise(ValueError, ErrorMessages.SIGN_MUST_BE_AN_INTEGER_WITH_THE_VALUE_0_OR_1);
+            }
+            String special = null;
+            long exp = 0;
+            Object expObject = items[2];
+            if (unicodeCheckNode.execute(expObject)) {
+                special = specialForCode(castToJavaStringNode.execute(expObject));
+                if (special == null) {
+                    throw raise(ValueError, ErrorMessages.STRING_ARGUMENT_IN_THIRD_POSITION_MUST_BE_F_N_OR_N);
+                }
+            } else {
+                if (!longCheckNode.execute(expObject)) {
+                    throw raise(ValueError, ErrorMessages.EXPONENT_MUST_BE_AN_INTEGER);
+                }
+                try {
+                    exp = asLongNode.execute(frame, expObject);
+                } catch (OverflowException e) {
+                    throw raise(OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "C ssize_t");
+                }
+            }
+            Object digitsObject = items[1];
+            if (!(digitsObject instanceof PTuple || digitsObject instanceof PList)) {
+                throw raise(ValueError, ErrorMessages.COEFFICIENT_MUST_BE_A_TUPLE_OF_DIGITS);
+            }
+            Object[] digits = getObjectArrayNode.execute(digitsObject);
+            char[] coefficient = new char[digits.length];
+            for (int i = 0; i < digits.length; i++) {
+                long d = asDigit(frame, digits[i], longCheckNode, asLongNode, ErrorMessages.COEFFICIENT_MUST_BE_A_TUPLE_OF_DIGITS);
+                if (d < 0 || d > 9) {
+                    throw raise(ValueError, ErrorMessages.COEFFICIENT_MUST_BE_A_TUPLE_OF_DIGITS);
+                }
+                coefficient[i] = (char) ('0' + d);
+            }
+            return buildNumericString(sign != 0, coefficient, special, exp);
+        }
+
+        private long asDigit(VirtualFrame frame, Object value, PyLongCheckNode longCheckNode, PyLongAsLongAndOverflowNode asLongNode, TruffleString message) {
+            if (!longCheckNode.execute(value)) {
+                throw raise(ValueError, message);
+            }
+            try {
+                return asLongNode.execute(frame, value);
+            } catch (OverflowException e) {
+                throw raise(ValueError, message);
+            }
+        }
+
+        @TruffleBoundary
+        private static String specialForCode(String code) {
+            switch (code) {
+                case "F":
+                    return "Inf";
+                case "n":
+                    return "NaN";
+                case "N":
+                    return "sNaN";
+                default:
+                    return null;
+            }
+        }
+
+        @TruffleBoundary
+        private static String buildNumericString(boolean negative, char[] coefficient, String special, long exp) {
+            StringBuilder sb = new StringBuilder(coefficient.length + 24);
+            sb.append(negative ? '-' : '+');
+            if (special != null) {
+                sb.append(special);
+                if (!special.equals("Inf")) {
+                    sb.append(coefficient);
+                }
+            } else {
+                if (coefficient.length == 0) {
+                    sb.append('0');
+                } else {
+                    sb.append(coefficient);
+                }
+                sb.append('E').append(exp);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Multiplies the coefficient of a finite decimal by a positive integer without rounding,
+     * keeping the exponent, like CPython's {@code multiply_by_denominator}. The result is only
+     * used for comparisons.
+     */
+    @TruffleBoundary
+    static DecimalValue multiplyCoefficient(DecimalValue v, BigInteger factor) {
+        return DecimalValue.finite(v.getSign(), v.getCoefficient().multiply(factor), v.getExponent());
+    }
+
+    /**
+     * Equivalent of CPython's {@code context_settraps_dict} and {@code context_settraps_list}:
+     * converts a {@code SignalDict}, a dict mapping every signal to a truth value or, if allowed,
+     * a list of signals to the corresponding bits.
+     */
+    public abstract static class SignalsAsFlagsNode extends PNodeWithRaise {
+
+        public abstract int execute(VirtualFrame frame, Object value, boolean allowList);
+
+        @Specialization
+        static int doSignalDict(PDecimalSignalDict value, @SuppressWarnings("unused") boolean allowList) {
+            return value.getBits();
+        }
+
+        @Specialization(guards = "allowList")
+        int doList(PList value, @SuppressWarnings("unused") boolean allowList,
+                        @Cached GetObjectArrayNode getObjectArrayNode) {
+            int bits = 0;
+            for (Object item : getObjectArrayNode.execute(value)) {
+                bits |= signalBits(this, item);
+            }
+            return bits;
+        }
+
+        @Specialization
+        int doDict(VirtualFrame frame, PDict value, @SuppressWarnings("unused") boolean allowList,
+                        @Cached DictAsFlagsNode dictAsFlagsNode) {
+            int bits = dictAsFlagsNode.execute(frame, value);
+            if (bits < 0) {
+                throw raise(KeyError, ErrorMessages.INVALID_SIGNAL_DICT);
+            }
+            return bits;
+        }
+
+        @Fallback
+        int doOther(@SuppressWarnings("unused") Object value, @SuppressWarnings("unused") boolean allowList) {
+            throw raise(TypeError, ErrorMessages.ARGUMENT_MUST_BE_A_SIGNAL_DICT);
+        }
+    }
+
+    /**
+     * Equivalent of CPython's {@code dict_as_flags}: the bits of a dict that maps every signal to a
+     * truth value, or -1 if the dict is not such a mapping.
+     */
+    public abstract static class DictAsFlagsNode extends Node {
+
+        public abstract int execute(VirtualFrame frame, PDict dict);
+
+        @Specialization
+        static int get(VirtualFrame frame, PDict dict,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached PyDictGetItem getItemNode,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            if (sizeNode.execute(frame, dict) != SIGNALS.length) {
+                return -1;
+            }
+            PythonContext context = PythonContext.get(getItemNode);
+            int bits = 0;
+            for (int i = 0; i < SIGNALS.length; i++) {
+                Object value = getItemNode.execute(frame, dict, context.lookupType(SIGNALS[i]));
+                if (value == null) {
+                    return -1;
+                }
+                if (isTrueNode.execute(frame, value)) {
+                    bits |= SIGNAL_BITS[i];
+                }
+            }
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * An immutable decimal number {@code (-1)**sign * coefficient * 10**exponent}, or an infinity or
+ * NaN. Coefficients that fit a {@code long} are stored as one; only larger coefficients use a
+ * {@link BigInteger}. The coefficient of a NaN is its diagnostic payload.
+ */
+public final class DecimalValue {
+
+    static final int FINITE = 0;
+    static final int INFINITE = 1;
+    static final int QNAN = 2;
+    static final int SNAN = 3;
+
+    static final DecimalValue ZERO = new DecimalValue(0, FINITE, 0, null, 0);
+    static final DecimalValue ONE = new DecimalValue(0, FINITE, 1, null, 0);
+    static final DecimalValue NEGATIVE_ONE = new DecimalValue(1, FINITE, 1, null, 0);
+    static final DecimalValue NAN = new DecimalValue(0, QNAN, 0, null, 0);
+    static final DecimalValue INFINITY = new DecimalValue(0, INFINITE, 0, null, 0);
+    static final DecimalValue NEGATIVE_INFINITY = new DecimalValue(1, INFINITE, 0, null, 0);
+
+    /** {@code 10**i} for all powers of ten that fit a {@code long}. */
+    static final long[] POWERS_OF_TEN = new long[19];
+    private static final BigInteger[] BIG_POWERS_OF_TEN = new BigInteger[64];
+
+    static {
+        long p = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = p;
+            p *= 10;
+        }
+        BigInteger q = BigInteger.ONE;
+        for (int i = 0; i < BIG_POWERS_OF_TEN.length; i++) {
+            BIG_POWERS_OF_TEN[i] = q;
+            q = q.multiply(BigInteger.TEN);
+        }
+    }
+
+    private final int sign;
+    private final int kind;
+    private final long coefficient;
+    private final BigInteger bigCoefficient;
+    private final long exponent;
+
+    private DecimalValue(int sign, int kind, long coefficient, BigInteger bigCoefficient, long exponent) {
+        assert sign == 0 || sign == 1;
+        assert coefficient >= 0 && (bigCoefficient == null || bigCoefficient.bitLength() >= 63);
+        this.sign = sign;
+        this.kind = kind;
+        this.coefficient = coefficient;
+        this.bigCoefficient = bigCoefficient;
+        this.exponent = exponent;
+    }
+
+    static DecimalValue finite(int sign, long coefficient, long exponent) {
+        return new DecimalValue(sign, FINITE, coefficient, null, exponent);
+    }
+
+    static DecimalValue finite(int sign, BigInteger coefficient, long exponent) {
+        assert coefficient.signum() >= 0;
+        if (coefficient.bitLength() < 63) {
+            return new DecimalValue(sign, FINITE, coefficient.longValue(), null, exponent);
+        }
+        return new DecimalValue(sign, FINITE, 0, coefficient, exponent);
+    }
+
+    static DecimalValue infinity(int sign) {
+        return sign == 0 ? INFINITY : NEGATIVE_INFINITY;
+    }
+
+    static DecimalValue nan(int sign, BigInteger payload, boolean signaling) {
+        int kind = signaling ? SNAN : QNAN;
+        if (payload.bitLength() < 63) {
+            return new DecimalValue(sign, kind, payload.longValue(), null, 0);
+        }
+        return new DecimalValue(sign, kind, 0, payload, 0);
+    }
+
+    /** Creates the finite number with the given value. */
+    static DecimalValue fromLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return finite(1, BigInteger.valueOf(value).negate(), 0);
+        }
+        return value < 0 ? finite(1, -value, 0) : finite(0, value, 0);
+    }
+
+    static DecimalValue fromBigInteger(BigInteger value) {
+        return finite(value.signum() < 0 ? 1 : 0, value.abs(), 0);
+    }
+
+    public int getSign() {
+        return sign;
+    }
+
+    int getKind() {
+        return kind;
+    }
+
+    public long getExponent() {
+        return exponent;
+    }
+
+    boolean isSpecial() {
+        return kind != FINITE;
+    }
+
+    public boolean isFinite() {
+        return kind == FINITE;
+    }
+
+    public boolean isInfinite() {
+        return kind == INFINITE;
+    }
+
+    public boolean isNaN() {
+        return kind >= QNAN;
+    }
+
+    public boolean isQNaN() {
+        return kind == QNAN;
+    }
+
+    public boolean isSNaN() {
+        return kind == SNAN;
+    }
+
+    boolean isNegative() {
+        return sign == 1;
+    }
+
+    /** Whether this is a finite zero; infinities and NaNs are not zero. */
+    public boolean isZero() {
+        return kind == FINITE && bigCoefficient == null && coefficient == 0;
+    }
+
+    /** Whether the coefficient is stored as a {@code long}. */
+    boolean isSmall() {
+        return bigCoefficient == null;
+    }
+
+    /** The coefficient as a {@code long}, only valid if {@link #isSmall()}. */
+    long getSmallCoefficient() {
+        assert bigCoefficient == null;
+        return coefficient;
+    }
+
+    @TruffleBoundary
+    BigInteger getCoefficient() {
+        return bigCoefficient != null ? bigCoefficient : BigInteger.valueOf(coefficient);
+    }
+
+    boolean hasPayload() {
+        return bigCoefficient != null || coefficient != 0;
+    }
+
+    /** The number of digits of the coefficient; zero has one digit. */
+    long digits() {
+        if (bigCoefficient == null) {
+            return digits(coefficient);
+        }
+        return digits(bigCoefficient);
+    }
+
+    /** The exponent of the most significant digit; zero for infinities and NaNs. */
+    public long adjusted() {
+        if (kind != FINITE) {
+            return 0;
+        }
+        return exponent + digits() - 1;
+    }
+
+    DecimalValue withSign(int newSign) {
+        if (newSign == sign) {
+            return this;
+        }
+        return new DecimalValue(newSign, kind, coefficient, bigCoefficient, exponent);
+    }
+
+    DecimalValue negate() {
+        return withSign(sign ^ 1);
+    }
+
+    DecimalValue abs() {
+        return withSign(0);
+    }
+
+    DecimalValue withExponent(long newExponent) {
+        assert kind == FINITE;
+        if (newExponent == exponent) {
+            return this;
+        }
+        return new DecimalValue(sign, kind, coefficient, bigCoefficient, newExponent);
+    }
+
+    /** The quiet NaN with the payload and sign of this signaling NaN. */
+    DecimalValue toQuiet() {
+        assert isNaN();
+        return new DecimalValue(sign, QNAN, coefficient, bigCoefficient, 0);
+    }
+
+    static int digits(long value) {
+        assert value >= 0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            if (value < POWERS_OF_TEN[i]) {
+                return i;
+            }
+        }
+        return POWERS_OF_TEN.length;
+    }
+
+    @TruffleBoundary
+    static long digits(BigInteger value) {
+        assert value.signum() >= 0;
+        if (value.bitLength() < 63) {
+            return digits(value.longValue());
+        }
+        // log10(2) rounded down, so the estimate is at most one too small
+        long estimate = (long) ((value.bitLength() - 1) * 0.30102999566398114) + 1;
+        if (value.compareTo(powerOfTen(estimate)) >= 0) {
+            estimate++;
+        }
+        return estimate;
+    }
+
+    @TruffleBoundary
+    static BigInteger powerOfTen(long n) {
+        assert n >= 0;
+        if (n < BIG_POWERS_OF_TEN.length) {
+            return BIG_POWERS_OF_TEN[(int) n];
+        }
+        if (n > Integer.MAX_VALUE) {
+            throw new ArithmeticException("power of ten too large");
+        }
+        return BigInteger.TEN.pow((int) n);
+    }
+
+    /** The digits of the coefficient, without leading zeros. */
+    @TruffleBoundary
+    String coefficientString() {
+        return bigCoefficient != null ? bigCoefficient.toString() : Long.toString(coefficient);
+    }
+
+    @Override
+    @TruffleBoundary
+    public String toString() {
+        return DecimalArithmetic.toScientificString(this, true);
+    }
+}
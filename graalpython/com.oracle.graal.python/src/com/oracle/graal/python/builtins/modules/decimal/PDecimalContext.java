@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code decimal.Context}. The flags and the traps are bit sets of the conditions defined in
+ * {@link DecimalArithmetic}.
+ */
+public final class PDecimalContext extends PythonBuiltinObject {
+
+    long prec = 28;
+    int rounding = DecimalArithmetic.ROUND_HALF_EVEN;
+    long emin = -999999;
+    long emax = 999999;
+    int capitals = 1;
+    int clamp;
+    int flags;
+    int traps = DecimalArithmetic.IEEE_INVALID_OPERATION | DecimalArithmetic.DIVISION_BY_ZERO | DecimalArithmetic.OVERFLOW;
+
+    /** The {@code SignalDict} views of the flags and the traps, created on first access. */
+    Object flagsDict;
+    Object trapsDict;
+
+    public PDecimalContext(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    /** Copies the parameters, flags and traps of {@code other}, but not its signal dicts. */
+    void setFrom(PDecimalContext other) {
+        prec = other.prec;
+        rounding = other.rounding;
+        emin = other.emin;
+        emax = other.emax;
+        capitals = other.capitals;
+        clamp = other.clamp;
+        flags = other.flags;
+        traps = other.traps;
+    }
+
+    /** A fresh arithmetic with the parameters of this context, starting with an empty status. */
+    DecimalArithmetic createArithmetic() {
+        return new DecimalArithmetic(prec, rounding, emin, emax, clamp != 0);
+    }
+
+    boolean isCapitals() {
+        return capitals != 0;
+    }
+
+    long etiny() {
+        return emin - prec + 1;
+    }
+
+    long etop() {
+        return emax - prec + 1;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.decimal;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___DELITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___LEN__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___SETITEM__;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalNodes.DictAsFlagsNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.lib.PyDictSetItem;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * The methods of {@code SignalDictMixin}, the base of the {@code SignalDict} type of
+ * {@code Context.flags} and {@code Context.traps}. The type itself also derives from
+ * {@code collections.abc.MutableMapping}, which provides the other mapping methods.
+ */
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDecimalSignalDictMixin)
+public final class SignalDictMixinBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SignalDictMixinBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = J___LEN__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class LenNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int len(@SuppressWarnings("unused") PDecimalSignalDict self) {
+            return DecimalNodes.SIGNALS.length;
+        }
+    }
+
+    @Builtin(name = J___ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object iter(VirtualFrame frame, @SuppressWarnings("unused") PDecimalSignalDict self,
+                        @Cached PyObjectGetIter getIter) {
+            Object[] signals = DecimalNodes.signalsAsArray(getContext(), -1);
+            return getIter.execute(frame, factory().createTuple(signals));
+        }
+    }
+
+    @Builtin(name = J___GETITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GetItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        boolean getItem(PDecimalSignalDict self, Object key) {
+            return (self.getBits() & DecimalNodes.signalBits(this, key)) != 0;
+        }
+    }
+
+    @Builtin(name = J___SETITEM__, minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class SetItemNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object setItem(VirtualFrame frame, PDecimalSignalDict self, Object key, Object value,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            int bit = DecimalNodes.signalBits(this, key);
+            if (isTrueNode.execute(frame, value)) {
+                self.setBits(self.getBits() | bit);
+            } else {
+                self.setBits(self.getBits() & ~bit);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = J___DELITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DelItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object delItem(@SuppressWarnings("unused") PDecimalSignalDict self, @SuppressWarnings("unused") Object key) {
+            throw raise(ValueError, ErrorMessages.SIGNAL_KEYS_CANNOT_BE_DELETED);
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(PDecimalSignalDict self,
+                        @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+            return fromJavaStringNode.execute(reprString(self.getBits()), TS_ENCODING);
+        }
+
+        @TruffleBoundary
+        private static String reprString(int bits) {
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < DecimalNodes.SIGNALS.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append("<class '").append(DecimalNodes.SIGNALS[i].getPrintName().toJavaStringUncached()).append("'>:");
+                sb.append((bits & DecimalNodes.SIGNAL_BITS[i]) != 0 ? "True" : "False");
+            }
+            return sb.append('}').toString();
+        }
+    }
+
+    /**
+     * Base of {@code __eq__} and {@code __ne__}, which compare with other signal dicts and with
+     * dicts that map every signal to a truth value.
+     */
+    abstract static class CompareNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        Object doSignalDict(PDecimalSignalDict self, PDecimalSignalDict other) {
+            return (self.getBits() == other.getBits()) != isNe();
+        }
+
+        @Specialization
+        Object doDict(VirtualFrame frame, PDecimalSignalDict self, PDict other,
+                        @Cached DictAsFlagsNode dictAsFlagsNode) {
+            int bits = dictAsFlagsNode.execute(frame, other);
+            if (bits < 0) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            return (self.getBits() == bits) != isNe();
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object notImplemented(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        protected boolean isNe() {
+            return false;
+        }
+    }
+
+    @Builtin(name = J___EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class EqNode extends CompareNode {
+    }
+
+    @Builtin(name = J___NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class NeNode extends CompareNode {
+        @Override
+        protected boolean isNe() {
+            return true;
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PDict copy(VirtualFrame frame, PDecimalSignalDict self,
+                        @Cached PyDictSetItem setItemNode) {
+            PythonContext context = getContext();
+            PDict dict = factory().createDict();
+            int bits = self.getBits();
+            for (int i = 0; i < DecimalNodes.SIGNALS.length; i++) {
+                setItemNode.execute(frame, dict, context.lookupType(DecimalNodes.SIGNALS[i]), (bits & DecimalNodes.SIGNAL_BITS[i]) != 0);
+            }
+            return dict;
+        }
+    }
+}
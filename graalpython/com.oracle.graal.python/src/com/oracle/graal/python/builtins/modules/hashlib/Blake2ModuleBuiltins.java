@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Blake2bType;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Blake2sType;
+import static com.oracle.graal.python.nodes.ErrorMessages.DEPTH_MUST_BE_BETWEEN_1_AND_255;
+import static com.oracle.graal.python.nodes.ErrorMessages.DIGEST_SIZE_MUST_BE_BETWEEN_1_AND_D_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.FANOUT_MUST_BE_BETWEEN_0_AND_255;
+import static com.oracle.graal.python.nodes.ErrorMessages.INNER_SIZE_MUST_BE_BETWEEN_0_AND_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.LEAF_SIZE_IS_TOO_LARGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.MAXIMUM_KEY_LENGTH_IS_D_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.MAXIMUM_PERSON_LENGTH_IS_D_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.MAXIMUM_SALT_LENGTH_IS_D_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.NODE_DEPTH_MUST_BE_BETWEEN_0_AND_255;
+import static com.oracle.graal.python.nodes.ErrorMessages.NODE_OFFSET_IS_TOO_LARGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.VALUE_MUST_BE_POSITIVE;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.security.MessageDigest;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CastToJavaUnsignedLongNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(defineModule = "_blake2")
+public class Blake2ModuleBuiltins extends PythonBuiltins {
+
+    private static final TruffleString T_BLAKE2B = tsLiteral("blake2b");
+    private static final TruffleString T_BLAKE2S = tsLiteral("blake2s");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return Blake2ModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        addBuiltinConstant("BLAKE2B_SALT_SIZE", Blake2bDigest.SALT_SIZE);
+        addBuiltinConstant("BLAKE2B_PERSON_SIZE", Blake2bDigest.PERSON_SIZE);
+        addBuiltinConstant("BLAKE2B_MAX_KEY_SIZE", Blake2bDigest.MAX_KEY_SIZE);
+        addBuiltinConstant("BLAKE2B_MAX_DIGEST_SIZE", Blake2bDigest.MAX_DIGEST_SIZE);
+        addBuiltinConstant("BLAKE2S_SALT_SIZE", Blake2sDigest.SALT_SIZE);
+        addBuiltinConstant("BLAKE2S_PERSON_SIZE", Blake2sDigest.PERSON_SIZE);
+        addBuiltinConstant("BLAKE2S_MAX_KEY_SIZE", Blake2sDigest.MAX_KEY_SIZE);
+        addBuiltinConstant("BLAKE2S_MAX_DIGEST_SIZE", Blake2sDigest.MAX_DIGEST_SIZE);
+        setTypeConstants(core.lookupType(Blake2bType), Blake2bDigest.SALT_SIZE, Blake2bDigest.PERSON_SIZE, Blake2bDigest.MAX_KEY_SIZE, Blake2bDigest.MAX_DIGEST_SIZE);
+        setTypeConstants(core.lookupType(Blake2sType), Blake2sDigest.SALT_SIZE, Blake2sDigest.PERSON_SIZE, Blake2sDigest.MAX_KEY_SIZE, Blake2sDigest.MAX_DIGEST_SIZE);
+    }
+
+    private static void setTypeConstants(PythonBuiltinClass type, int saltSize, int personSize, int maxKeySize, int maxDigestSize) {
+        type.setAttribute(tsLiteral("SALT_SIZE"), saltSize);
+        type.setAttribute(tsLiteral("PERSON_SIZE"), personSize);
+        type.setAttribute(tsLiteral("MAX_KEY_SIZE"), maxKeySize);
+        type.setAttribute(tsLiteral("MAX_DIGEST_SIZE"), maxDigestSize);
+    }
+
+    /**
+     * Common argument validation of the {@code blake2b} and {@code blake2s} constructors. The
+     * checks and messages follow CPython's {@code _blake2} module.
+     */
+    abstract static class Blake2NewNode extends PythonClinicBuiltinNode {
+
+        @Specialization
+        DigestObject doNew(VirtualFrame frame, Object cls, Object data, int digestSize, Object key, Object salt, Object person, int fanout, int depth, Object leafSizeObj, Object nodeOffsetObj,
+                        int nodeDepth, int innerSize, boolean lastNode,
+                        @Cached BytesNodes.ToBytesNode toBytesNode,
+                        @Cached CastToJavaUnsignedLongNode castToUnsignedNode,
+                        @Cached DigestNodes.UpdateNode updateNode) {
+            if (digestSize <= 0 || digestSize > getMaxDigestSize()) {
+                throw raise(ValueError, DIGEST_SIZE_MUST_BE_BETWEEN_1_AND_D_BYTES, getMaxDigestSize());
+            }
+            byte[] keyBytes = toBytes(frame, key, toBytesNode);
+            if (keyBytes.length > getMaxKeySize()) {
+                throw raise(ValueError, MAXIMUM_KEY_LENGTH_IS_D_BYTES, getMaxKeySize());
+            }
+            byte[] saltBytes = toBytes(frame, salt, toBytesNode);
+            if (saltBytes.length > getSaltSize()) {
+                throw raise(ValueError, MAXIMUM_SALT_LENGTH_IS_D_BYTES, getSaltSize());
+            }
+            byte[] personBytes = toBytes(frame, person, toBytesNode);
+            if (personBytes.length > getPersonSize()) {
+                throw raise(ValueError, MAXIMUM_PERSON_LENGTH_IS_D_BYTES, getPersonSize());
+            }
+            if (fanout < 0 || fanout > 255) {
+                throw raise(ValueError, FANOUT_MUST_BE_BETWEEN_0_AND_255);
+            }
+            if (depth <= 0 || depth > 255) {
+                throw raise(ValueError, DEPTH_MUST_BE_BETWEEN_1_AND_255);
+            }
+            long leafSize = toUnsignedLong(leafSizeObj, castToUnsignedNode);
+            if (Long.compareUnsigned(leafSize, 0xFFFFFFFFL) > 0) {
+                throw raise(OverflowError, LEAF_SIZE_IS_TOO_LARGE);
+            }
+            long nodeOffset = toUnsignedLong(nodeOffsetObj, castToUnsignedNode);
+            if (Long.compareUnsigned(nodeOffset, getMaxNodeOffset()) > 0) {
+                throw raise(OverflowError, NODE_OFFSET_IS_TOO_LARGE);
+            }
+            if (nodeDepth < 0 || nodeDepth > 255) {
+                throw raise(ValueError, NODE_DEPTH_MUST_BE_BETWEEN_0_AND_255);
+            }
+            if (innerSize < 0 || innerSize > getMaxDigestSize()) {
+                throw raise(ValueError, INNER_SIZE_MUST_BE_BETWEEN_0_AND_D, getMaxDigestSize());
+            }
+            MessageDigest digest = createDigest(digestSize, keyBytes, saltBytes, personBytes, fanout, depth, leafSize, nodeOffset, nodeDepth, innerSize, lastNode);
+            DigestObject self = factory().createDigestObject(cls, getName(), getBlockSize(), digest);
+            if (data != PNone.NO_VALUE) {
+                updateNode.execute(frame, self, data);
+            }
+            return self;
+        }
+
+        private static byte[] toBytes(VirtualFrame frame, Object value, BytesNodes.ToBytesNode toBytesNode) {
+            if (value == PNone.NO_VALUE) {
+                return PythonUtils.EMPTY_BYTE_ARRAY;
+            }
+            return toBytesNode.execute(frame, value);
+        }
+
+        private long toUnsignedLong(Object value, CastToJavaUnsignedLongNode castNode) {
+            if (value == PNone.NO_VALUE) {
+                return 0;
+            }
+            if (value instanceof Integer && (int) value < 0 || value instanceof Long && (long) value < 0 || value instanceof PInt && ((PInt) value).isNegative()) {
+                throw raise(ValueError, VALUE_MUST_BE_POSITIVE);
+            }
+            return castNode.execute(value);
+        }
+
+        protected abstract TruffleString getName();
+
+        protected abstract int getBlockSize();
+
+        protected abstract int getMaxDigestSize();
+
+        protected abstract int getMaxKeySize();
+
+        protected abstract int getSaltSize();
+
+        protected abstract int getPersonSize();
+
+        protected abstract long getMaxNodeOffset();
+
+        protected abstract MessageDigest createDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize,
+                        boolean lastNode);
+    }
+
+    @Builtin(name = "blake2b", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "data"}, numOfPositionalOnlyArgs = 2, keywordOnlyNames = {"digest_size", "key", "salt", "person", "fanout",
+                    "depth", "leaf_size", "node_offset", "node_depth", "inner_size", "last_node"}, constructsClass = PythonBuiltinClassType.Blake2bType)
+    @ArgumentClinic(name = "digest_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "64")
+    @ArgumentClinic(name = "fanout", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "depth", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "node_depth", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "inner_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "last_node", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class Blake2bNode extends Blake2NewNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return Blake2ModuleBuiltinsClinicProviders.Blake2bNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        protected TruffleString getName() {
+            return T_BLAKE2B;
+        }
+
+        @Override
+        protected int getBlockSize() {
+            return Blake2bDigest.BLOCK_SIZE;
+        }
+
+        @Override
+        protected int getMaxDigestSize() {
+            return Blake2bDigest.MAX_DIGEST_SIZE;
+        }
+
+        @Override
+        protected int getMaxKeySize() {
+            return Blake2bDigest.MAX_KEY_SIZE;
+        }
+
+        @Override
+        protected int getSaltSize() {
+            return Blake2bDigest.SALT_SIZE;
+        }
+
+        @Override
+        protected int getPersonSize() {
+            return Blake2bDigest.PERSON_SIZE;
+        }
+
+        @Override
+        protected long getMaxNodeOffset() {
+            return -1L; // the full unsigned 64-bit range
+        }
+
+        @Override
+        @TruffleBoundary
+        protected MessageDigest createDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize,
+                        boolean lastNode) {
+            return new Blake2bDigest(digestSize, key, salt, person, fanout, depth, leafSize, nodeOffset, nodeDepth, innerSize, lastNode);
+        }
+    }
+
+    @Builtin(name = "blake2s", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "data"}, numOfPositionalOnlyArgs = 2, keywordOnlyNames = {"digest_size", "key", "salt", "person", "fanout",
+                    "depth", "leaf_size", "node_offset", "node_depth", "inner_size", "last_node"}, constructsClass = PythonBuiltinClassType.Blake2sType)
+    @ArgumentClinic(name = "digest_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "32")
+    @ArgumentClinic(name = "fanout", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "depth", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "1")
+    @ArgumentClinic(name = "node_depth", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "inner_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0")
+    @ArgumentClinic(name = "last_node", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class Blake2sNode extends Blake2NewNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return Blake2ModuleBuiltinsClinicProviders.Blake2sNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Override
+        protected TruffleString getName() {
+            return T_BLAKE2S;
+        }
+
+        @Override
+        protected int getBlockSize() {
+            return Blake2sDigest.BLOCK_SIZE;
+        }
+
+        @Override
+        protected int getMaxDigestSize() {
+            return Blake2sDigest.MAX_DIGEST_SIZE;
+        }
+
+        @Override
+        protected int getMaxKeySize() {
+            return Blake2sDigest.MAX_KEY_SIZE;
+        }
+
+        @Override
+        protected int getSaltSize() {
+            return Blake2sDigest.SALT_SIZE;
+        }
+
+        @Override
+        protected int getPersonSize() {
+            return Blake2sDigest.PERSON_SIZE;
+        }
+
+        @Override
+        protected long getMaxNodeOffset() {
+            return Blake2sDigest.MAX_NODE_OFFSET;
+        }
+
+        @Override
+        @TruffleBoundary
+        protected MessageDigest createDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize,
+                        boolean lastNode) {
+            return new Blake2sDigest(digestSize, key, salt, person, fanout, depth, leafSize, nodeOffset, nodeDepth, innerSize, lastNode);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.memory.ByteArraySupport;
+
+/**
+ * BLAKE2s as specified in RFC 7693. The 32-bit counterpart of {@link Blake2bDigest}.
+ */
+final class Blake2sDigest extends MessageDigest implements Cloneable {
+    static final int BLOCK_SIZE = 64;
+    static final int MAX_DIGEST_SIZE = 32;
+    static final int MAX_KEY_SIZE = 32;
+    static final int SALT_SIZE = 8;
+    static final int PERSON_SIZE = 8;
+    static final long MAX_NODE_OFFSET = (1L << 48) - 1;
+
+    private static final ByteArraySupport LE = ByteArraySupport.littleEndian();
+
+    private static final int[] IV = {
+                    0x6A09E667, 0xBB67AE85, 0x3C6EF372, 0xA54FF53A, 0x510E527F, 0x9B05688C, 0x1F83D9AB, 0x5BE0CD19
+    };
+
+    private final int digestSize;
+    private final boolean lastNode;
+    private final int[] initialState;
+    private final byte[] keyBlock;
+
+    private int[] h = new int[8];
+    private byte[] buffer = new byte[BLOCK_SIZE];
+    private int bufferLength;
+    private int t0;
+    private int t1;
+    private int[] m = new int[16];
+    private int[] v = new int[16];
+
+    Blake2sDigest(int digestSize, byte[] key, byte[] salt, byte[] person, int fanout, int depth, long leafSize, long nodeOffset, int nodeDepth, int innerSize, boolean lastNode) {
+        super("BLAKE2s");
+        assert digestSize > 0 && digestSize <= MAX_DIGEST_SIZE;
+        assert key.length <= MAX_KEY_SIZE && salt.length <= SALT_SIZE && person.length <= PERSON_SIZE;
+        assert nodeOffset >= 0 && nodeOffset <= MAX_NODE_OFFSET;
+        this.digestSize = digestSize;
+        this.lastNode = lastNode;
+        byte[] params = new byte[32];
+        params[0] = (byte) digestSize;
+        params[1] = (byte) key.length;
+        params[2] = (byte) fanout;
+        params[3] = (byte) depth;
+        LE.putInt(params, 4, (int) leafSize);
+        LE.putInt(params, 8, (int) nodeOffset);
+        LE.putShort(params, 12, (short) (nodeOffset >>> 32));
+        params[14] = (byte) nodeDepth;
+        params[15] = (byte) innerSize;
+        System.arraycopy(salt, 0, params, 16, salt.length);
+        System.arraycopy(person, 0, params, 24, person.length);
+        initialState = new int[8];
+        for (int i = 0; i < 8; i++) {
+            initialState[i] = IV[i] ^ LE.getInt(params, i * 4);
+        }
+        if (key.length > 0) {
+            keyBlock = new byte[BLOCK_SIZE];
+            System.arraycopy(key, 0, keyBlock, 0, key.length);
+        } else {
+            keyBlock = null;
+        }
+        engineReset();
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return digestSize;
+    }
+
+    @Override
+    protected void engineReset() {
+        System.arraycopy(initialState, 0, h, 0, 8);
+        t0 = 0;
+        t1 = 0;
+        if (keyBlock != null) {
+            System.arraycopy(keyBlock, 0, buffer, 0, BLOCK_SIZE);
+            bufferLength = BLOCK_SIZE;
+        } else {
+            bufferLength = 0;
+        }
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        engineUpdate(new byte[]{input}, 0, 1);
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        int off = offset;
+        int remaining = len;
+        while (remaining > 0) {
+            if (bufferLength == BLOCK_SIZE) {
+                // the last block must be kept until we know whether it is the final one
+                incrementCounter(BLOCK_SIZE);
+                compress(buffer, 0, false);
+                bufferLength = 0;
+            }
+            if (bufferLength == 0) {
+                while (remaining > BLOCK_SIZE) {
+                    incrementCounter(BLOCK_SIZE);
+                    compress(input, off, false);
+                    off += BLOCK_SIZE;
+                    remaining -= BLOCK_SIZE;
+                }
+            }
+            int n = Math.min(remaining, BLOCK_SIZE - bufferLength);
+            System.arraycopy(input, off, buffer, bufferLength, n);
+            bufferLength += n;
+            off += n;
+            remaining -= n;
+        }
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        incrementCounter(bufferLength);
+        Arrays.fill(buffer, bufferLength, BLOCK_SIZE, (byte) 0);
+        compress(buffer, 0, true);
+        byte[] out = new byte[8 * 4];
+        for (int i = 0; i < 8; i++) {
+            LE.putInt(out, i * 4, h[i]);
+        }
+        engineReset();
+        return digestSize == out.length ? out : Arrays.copyOf(out, digestSize);
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        Blake2sDigest copy = (Blake2sDigest) super.clone();
+        copy.h = h.clone();
+        copy.buffer = buffer.clone();
+        copy.m = new int[16];
+        copy.v = new int[16];
+        return copy;
+    }
+
+    private void incrementCounter(int inc) {
+        t0 += inc;
+        if (Integer.compareUnsigned(t0, inc) < 0) {
+            t1++;
+        }
+    }
+
+    private void compress(byte[] block, int offset, boolean last) {
+        for (int i = 0; i < 16; i++) {
+            m[i] = LE.getInt(block, offset + i * 4);
+        }
+        System.arraycopy(h, 0, v, 0, 8);
+        System.arraycopy(IV, 0, v, 8, 8);
+        v[12] ^= t0;
+        v[13] ^= t1;
+        if (last) {
+            v[14] = ~v[14];
+            if (lastNode) {
+                v[15] = ~v[15];
+            }
+        }
+        for (int r = 0; r < 10; r++) {
+            byte[] s = Blake2bDigest.SIGMA[r];
+            g(0, 4, 8, 12, m[s[0]], m[s[1]]);
+            g(1, 5, 9, 13, m[s[2]], m[s[3]]);
+            g(2, 6, 10, 14, m[s[4]], m[s[5]]);
+            g(3, 7, 11, 15, m[s[6]], m[s[7]]);
+            g(0, 5, 10, 15, m[s[8]], m[s[9]]);
+            g(1, 6, 11, 12, m[s[10]], m[s[11]]);
+            g(2, 7, 8, 13, m[s[12]], m[s[13]]);
+            g(3, 4, 9, 14, m[s[14]], m[s[15]]);
+        }
+        for (int i = 0; i < 8; i++) {
+            h[i] ^= v[i] ^ v[i + 8];
+        }
+    }
+
+    private void g(int a, int b, int c, int d, int x, int y) {
+        v[a] = v[a] + v[b] + x;
+        v[d] = Integer.rotateRight(v[d] ^ v[a], 16);
+        v[c] = v[c] + v[d];
+        v[b] = Integer.rotateRight(v[b] ^ v[c], 12);
+        v[a] = v[a] + v[b] + y;
+        v[d] = Integer.rotateRight(v[d] ^ v[a], 8);
+        v[c] = v[c] + v[d];
+        v[b] = Integer.rotateRight(v[b] ^ v[c], 7);
+    }
+}
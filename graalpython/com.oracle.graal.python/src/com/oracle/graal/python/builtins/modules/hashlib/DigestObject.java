@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * The hash objects of the {@code _md5}, {@code _sha1}, {@code _sha256}, {@code _sha512},
+ * {@code _sha3} and {@code _blake2} modules. All algorithms are implemented as a
+ * {@link MessageDigest}: the SHA-1, SHA-2, SHA-3 and MD5 ones come from the JDK, while
+ * {@link Blake2bDigest}, {@link Blake2sDigest} and {@link ShakeDigest} are our own.
+ */
+public final class DigestObject extends PythonBuiltinObject {
+    private final TruffleString name;
+    private final int blockSize;
+    private final MessageDigest digest;
+
+    public DigestObject(Object cls, Shape instanceShape, TruffleString name, int blockSize, MessageDigest digest) {
+        super(cls, instanceShape);
+        this.name = name;
+        this.blockSize = blockSize;
+        this.digest = digest;
+    }
+
+    public TruffleString getName() {
+        return name;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @TruffleBoundary
+    public int getDigestSize() {
+        return digest.getDigestLength();
+    }
+
+    public boolean isShake() {
+        return digest instanceof ShakeDigest;
+    }
+
+    MessageDigest getDigest() {
+        return digest;
+    }
+
+    /**
+     * Updates the digest. Multiple threads may call this concurrently when the GIL was released
+     * for large inputs.
+     */
+    @TruffleBoundary
+    void update(byte[] data, int offset, int length) {
+        synchronized (this) {
+            digest.update(data, offset, length);
+        }
+    }
+
+    /**
+     * Returns the digest of the data so far, without resetting the state.
+     */
+    @TruffleBoundary
+    byte[] digest() {
+        assert !isShake();
+        return cloneDigest().digest();
+    }
+
+    /**
+     * Returns {@code length} bytes of output of an extendable-output function.
+     */
+    @TruffleBoundary
+    byte[] digest(int length) {
+        assert isShake();
+        byte[] result = new byte[length];
+        try {
+            cloneDigest().digest(result, 0, length);
+        } catch (java.security.DigestException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    MessageDigest cloneDigest() {
+        synchronized (this) {
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    @TruffleBoundary
+    static MessageDigest createJdkDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    @TruffleBoundary
+    static MessageDigest createShakeDigest(int capacityBits) {
+        return new ShakeDigest(capacityBits);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Blake2bType;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Blake2sType;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.MD5Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA1Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA224Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA256Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA384Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA3_224Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA3_256Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA3_384Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA3_512Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA512Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Shake128Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Shake256Type;
+import static com.oracle.graal.python.nodes.ErrorMessages.LENGTH_IS_TOO_LARGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.MISSING_D_REQUIRED_S_ARGUMENT_S_POS;
+import static com.oracle.graal.python.nodes.ErrorMessages.TAKES_EXACTLY_D_ARGUMENTS_D_GIVEN;
+import static com.oracle.graal.python.nodes.ErrorMessages.VALUE_MUST_BE_POSITIVE;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = {MD5Type, SHA1Type, SHA224Type, SHA256Type, SHA384Type, SHA512Type, SHA3_224Type, SHA3_256Type, SHA3_384Type, SHA3_512Type, Shake128Type, Shake256Type,
+                Blake2bType, Blake2sType})
+public class DigestObjectBuiltins extends PythonBuiltins {
+
+    /**
+     * CPython refuses to produce more than this many bytes of SHAKE output at once.
+     */
+    private static final int MAX_SHAKE_LENGTH = 1 << 29;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DigestObjectBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "update", minNumOfPositionalArgs = 2, parameterNames = {"$self", "data"})
+    @GenerateNodeFactory
+    abstract static class UpdateNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone update(VirtualFrame frame, DigestObject self, Object data,
+                        @Cached DigestNodes.UpdateNode updateNode) {
+            updateNode.execute(frame, self, data);
+            return PNone.NONE;
+        }
+    }
+
+    abstract static class DigestBaseNode extends PythonBinaryBuiltinNode {
+
+        protected byte[] shakeDigest(VirtualFrame frame, DigestObject self, Object length, PyNumberAsSizeNode asSizeNode) {
+            if (length == PNone.NO_VALUE) {
+                throw raise(TypeError, MISSING_D_REQUIRED_S_ARGUMENT_S_POS, getName(), "length", 1);
+            }
+            int len = asSizeNode.executeLossy(frame, length);
+            if (len < 0) {
+                throw raise(ValueError, VALUE_MUST_BE_POSITIVE);
+            }
+            if (len >= MAX_SHAKE_LENGTH) {
+                throw raise(ValueError, LENGTH_IS_TOO_LARGE);
+            }
+            return self.digest(len);
+        }
+
+        protected PException raiseUnexpectedLength() {
+            return raise(TypeError, TAKES_EXACTLY_D_ARGUMENTS_D_GIVEN, getName(), 0, 1);
+        }
+
+        protected abstract String getName();
+    }
+
+    @Builtin(name = "digest", minNumOfPositionalArgs = 1, parameterNames = {"$self", "length"})
+    @GenerateNodeFactory
+    abstract static class DigestNode extends DigestBaseNode {
+        @Specialization(guards = {"!self.isShake()", "isNoValue(length)"})
+        PBytes doDigest(DigestObject self, @SuppressWarnings("unused") PNone length) {
+            return factory().createBytes(self.digest());
+        }
+
+        @Specialization(guards = "self.isShake()")
+        PBytes doShake(VirtualFrame frame, DigestObject self, Object length,
+                        @Cached PyNumberAsSizeNode asSizeNode) {
+            return factory().createBytes(shakeDigest(frame, self, length, asSizeNode));
+        }
+
+        @Specialization(guards = {"!self.isShake()", "!isNoValue(length)"})
+        PBytes doError(@SuppressWarnings("unused") DigestObject self, @SuppressWarnings("unused") Object length) {
+            throw raiseUnexpectedLength();
+        }
+
+        @Override
+        protected String getName() {
+            return "digest";
+        }
+    }
+
+    @Builtin(name = "hexdigest", minNumOfPositionalArgs = 1, parameterNames = {"$self", "length"})
+    @GenerateNodeFactory
+    abstract static class HexDigestNode extends DigestBaseNode {
+        @Specialization(guards = {"!self.isShake()", "isNoValue(length)"})
+        static TruffleString doDigest(DigestObject self, @SuppressWarnings("unused") PNone length,
+                        @Shared("h") @Cached BytesNodes.ByteToHexNode toHexNode) {
+            byte[] result = self.digest();
+            return toHexNode.execute(result, result.length, (byte) 0, 0);
+        }
+
+        @Specialization(guards = "self.isShake()")
+        TruffleString doShake(VirtualFrame frame, DigestObject self, Object length,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Shared("h") @Cached BytesNodes.ByteToHexNode toHexNode) {
+            byte[] result = shakeDigest(frame, self, length, asSizeNode);
+            return toHexNode.execute(result, result.length, (byte) 0, 0);
+        }
+
+        @Specialization(guards = {"!self.isShake()", "!isNoValue(length)"})
+        TruffleString doError(@SuppressWarnings("unused") DigestObject self, @SuppressWarnings("unused") Object length) {
+            throw raiseUnexpectedLength();
+        }
+
+        @Override
+        protected String getName() {
+            return "hexdigest";
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        DigestObject copy(DigestObject self,
+                        @Cached GetClassNode getClassNode) {
+            return factory().createDigestObject(getClassNode.execute(self), self.getName(), self.getBlockSize(), self.cloneDigest());
+        }
+    }
+
+    @Builtin(name = "name", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString name(DigestObject self) {
+            return self.getName();
+        }
+    }
+
+    @Builtin(name = "digest_size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DigestSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int digestSize(DigestObject self) {
+            return self.getDigestSize();
+        }
+    }
+
+    @Builtin(name = "block_size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class BlockSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int blockSize(DigestObject self) {
+            return self.getBlockSize();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA224Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA256Type;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(defineModule = "_sha256")
+public class Sha256ModuleBuiltins extends PythonBuiltins {
+
+    private static final TruffleString T_SHA224 = tsLiteral("sha224");
+    private static final TruffleString T_SHA256 = tsLiteral("sha256");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return Sha256ModuleBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "sha224", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha224Node extends PythonUnaryBuiltinNode {
+        @Specialization
+        DigestObject sha224(VirtualFrame frame, Object string,
+                        @Cached DigestNodes.UpdateNode updateNode) {
+            DigestObject self = factory().createDigestObject(SHA224Type, T_SHA224, 64, DigestObject.createJdkDigest("SHA-224"));
+            if (string != PNone.NO_VALUE) {
+                updateNode.execute(frame, self, string);
+            }
+            return self;
+        }
+    }
+
+    @Builtin(name = "sha256", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha256Node extends PythonUnaryBuiltinNode {
+        @Specialization
+        DigestObject sha256(VirtualFrame frame, Object string,
+                        @Cached DigestNodes.UpdateNode updateNode) {
+            DigestObject self = factory().createDigestObject(SHA256Type, T_SHA256, 64, DigestObject.createJdkDigest("SHA-256"));
+            if (string != PNone.NO_VALUE) {
+                updateNode.execute(frame, self, string);
+            }
+            return self;
+        }
+    }
+}
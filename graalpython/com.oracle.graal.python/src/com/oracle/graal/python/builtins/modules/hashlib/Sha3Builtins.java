@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA3_224Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA3_256Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA3_384Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SHA3_512Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Shake128Type;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Shake256Type;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+/**
+ * The Keccak parameters exposed by the {@code _sha3} hash objects.
+ */
+@CoreFunctions(extendClasses = {SHA3_224Type, SHA3_256Type, SHA3_384Type, SHA3_512Type, Shake128Type, Shake256Type})
+public class Sha3Builtins extends PythonBuiltins {
+
+    private static final int KECCAK_WIDTH_BITS = 1600;
+    private static final byte SHA3_SUFFIX = 0x06;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return Sha3BuiltinsFactory.getFactories();
+    }
+
+    static int rateBits(DigestObject self) {
+        if (self.isShake()) {
+            return ((ShakeDigest) self.getDigest()).getRate() * 8;
+        }
+        return KECCAK_WIDTH_BITS - self.getDigestSize() * 16;
+    }
+
+    @Builtin(name = "_capacity_bits", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class CapacityBitsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int capacityBits(DigestObject self) {
+            return KECCAK_WIDTH_BITS - rateBits(self);
+        }
+    }
+
+    @Builtin(name = "_rate_bits", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class RateBitsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int rateBits(DigestObject self) {
+            return Sha3Builtins.rateBits(self);
+        }
+    }
+
+    @Builtin(name = "_suffix", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class SuffixNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PBytes suffix(DigestObject self) {
+            return factory().createBytes(new byte[]{self.isShake() ? ShakeDigest.SUFFIX : SHA3_SUFFIX});
+        }
+    }
+}
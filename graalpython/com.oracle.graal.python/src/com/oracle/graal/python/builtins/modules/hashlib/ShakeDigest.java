@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.hashlib;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.memory.ByteArraySupport;
+
+/**
+ * The SHAKE extendable-output functions from FIPS 202, which the JDK does not provide as a
+ * {@link MessageDigest}. The output length is passed to {@link #digest(byte[], int, int)}.
+ */
+final class ShakeDigest extends MessageDigest implements Cloneable {
+    private static final ByteArraySupport LE = ByteArraySupport.littleEndian();
+
+    private static final long[] ROUND_CONSTANTS = {
+                    0x0000000000000001L, 0x0000000000008082L, 0x800000000000808AL, 0x8000000080008000L,
+                    0x000000000000808BL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+                    0x000000000000008AL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000AL,
+                    0x000000008000808BL, 0x800000000000008BL, 0x8000000000008089L, 0x8000000000008003L,
+                    0x8000000000008002L, 0x8000000000000080L, 0x000000000000800AL, 0x800000008000000AL,
+                    0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+    private static final int[] ROTATIONS = {1, 3, 6, 10, 15, 21, 28, 36, 45, 55, 2, 14, 27, 41, 56, 8, 25, 43, 62, 18, 39, 61, 20, 44};
+    private static final int[] PI_LANES = {10, 7, 11, 17, 18, 3, 5, 16, 8, 21, 24, 4, 15, 23, 19, 13, 12, 2, 20, 14, 22, 9, 6, 1};
+
+    static final byte SUFFIX = 0x1F;
+
+    private final int rate;
+    private long[] state = new long[25];
+    private int position;
+
+    /**
+     * @param capacityBits 256 for SHAKE128 and 512 for SHAKE256
+     */
+    ShakeDigest(int capacityBits) {
+        super(capacityBits == 256 ? "SHAKE128" : "SHAKE256");
+        this.rate = (1600 - capacityBits) / 8;
+    }
+
+    int getRate() {
+        return rate;
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        // extendable output, the length is chosen by the caller
+        return 0;
+    }
+
+    @Override
+    protected void engineReset() {
+        Arrays.fill(state, 0);
+        position = 0;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        state[position >> 3] ^= (input & 0xFFL) << ((position & 7) << 3);
+        if (++position == rate) {
+            keccakF(state);
+            position = 0;
+        }
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        int off = offset;
+        int end = offset + len;
+        while (off < end) {
+            if ((position & 7) == 0 && end - off >= 8) {
+                // whole lanes
+                while (position < rate && end - off >= 8) {
+                    state[position >> 3] ^= LE.getLong(input, off);
+                    position += 8;
+                    off += 8;
+                }
+                if (position == rate) {
+                    keccakF(state);
+                    position = 0;
+                }
+            } else {
+                engineUpdate(input[off++]);
+            }
+        }
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        engineReset();
+        return new byte[0];
+    }
+
+    @Override
+    protected int engineDigest(byte[] buf, int offset, int len) {
+        state[position >> 3] ^= (SUFFIX & 0xFFL) << ((position & 7) << 3);
+        state[(rate - 1) >> 3] ^= 0x80L << (((rate - 1) & 7) << 3);
+        keccakF(state);
+        int pos = 0;
+        for (int i = 0; i < len; i++) {
+            if (pos == rate) {
+                keccakF(state);
+                pos = 0;
+            }
+            buf[offset + i] = (byte) (state[pos >> 3] >>> ((pos & 7) << 3));
+            pos++;
+        }
+        engineReset();
+        return len;
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        ShakeDigest copy = (ShakeDigest) super.clone();
+        copy.state = state.clone();
+        return copy;
+    }
+
+    private static void keccakF(long[] st) {
+        long[] bc = new long[5];
+        for (int round = 0; round < 24; round++) {
+            // theta
+            for (int i = 0; i < 5; i++) {
+                bc[i] = st[i] ^ st[i + 5] ^ st[i + 10] ^ st[i + 15] ^ st[i + 20];
+            }
+            for (int i = 0; i < 5; i++) {
+                long t = bc[(i + 4) % 5] ^ Long.rotateLeft(bc[(i + 1) % 5], 1);
+                for (int j = 0; j < 25; j += 5) {
+                    st[j + i] ^= t;
+                }
+            }
+            // rho and pi
+            long t = st[1];
+            for (int i = 0; i < 24; i++) {
+                int j = PI_LANES[i];
+                long tmp = st[j];
+                st[j] = Long.rotateLeft(t, ROTATIONS[i]);
+                t = tmp;
+            }
+            // chi
+            for (int j = 0; j < 25; j += 5) {
+                for (int i = 0; i < 5; i++) {
+                    bc[i] = st[j + i];
+                }
+                for (int i = 0; i < 5; i++) {
+                    st[j + i] ^= (~bc[(i + 1) % 5]) & bc[(i + 2) % 5];
+                }
+            }
+            // iota
+            st[0] ^= ROUND_CONSTANTS[round];
+        }
+    }
+}
@@ -47,6 +47,7 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeErr
 import static com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.mapPythonSeekWhenceToPosix;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_CUR;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_END;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_SET;
 import static com.oracle.graal.python.builtins.modules.io.IOBaseBuiltins.BUFSIZ;
 import static com.oracle.graal.python.builtins.modules.io.IOModuleBuiltins.DEFAULT_BUFFER_SIZE;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.J_CLOSE;
@@ -89,11 +90,13 @@ import static com.oracle.graal.python.nodes.ErrorMessages.UNCLOSED_FILE;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.J___INIT__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
 import static com.oracle.graal.python.nodes.StringLiterals.T_FALSE;
+import static com.oracle.graal.python.nodes.StringLiterals.T_JAVA;
 import static com.oracle.graal.python.nodes.StringLiterals.T_STRICT;
 import static com.oracle.graal.python.nodes.StringLiterals.T_TRUE;
 import static com.oracle.graal.python.nodes.StringLiterals.T_UTF8;
 import static com.oracle.graal.python.nodes.statement.ExceptionHandlingStatementNode.chainExceptions;
 import static com.oracle.graal.python.runtime.PosixConstants.AT_FDCWD;
+import static com.oracle.graal.python.runtime.PosixConstants.MAP_PRIVATE;
 import static com.oracle.graal.python.runtime.PosixConstants.O_APPEND;
 import static com.oracle.graal.python.runtime.PosixConstants.O_CREAT;
 import static com.oracle.graal.python.runtime.PosixConstants.O_EXCL;
@@ -101,6 +104,9 @@ import static com.oracle.graal.python.runtime.PosixConstants.O_RDONLY;
 import static com.oracle.graal.python.runtime.PosixConstants.O_RDWR;
 import static com.oracle.graal.python.runtime.PosixConstants.O_TRUNC;
 import static com.oracle.graal.python.runtime.PosixConstants.O_WRONLY;
+import static com.oracle.graal.python.runtime.PosixConstants.PROT_READ;
+import static com.oracle.graal.python.runtime.PosixConstants.S_IFMT;
+import static com.oracle.graal.python.runtime.PosixConstants.S_IFREG;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
@@ -135,6 +141,7 @@ import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
 import com.oracle.graal.python.lib.PyObjectIsTrueNode;
 import com.oracle.graal.python.lib.PyObjectLookupAttr;
 import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
+import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.attributes.SetAttributeNode;
 import com.oracle.graal.python.nodes.attributes.WriteAttributeToObjectNode;
@@ -155,6 +162,7 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -165,6 +173,7 @@ import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.strings.TruffleString;
@@ -215,6 +224,67 @@ public final class FileIOBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Reads a large chunk of a regular file by temporarily mapping it into memory. With the native
+     * POSIX backend, {@code read} fills a native buffer which is then copied into a Java array, while
+     * the mapped pages are copied straight into the destination array.
+     */
+    abstract static class MMapReadNode extends PNodeWithContext {
+
+        // mapping offsets must be page aligned, this is a multiple of all common page sizes
+        private static final long MAP_ALIGNMENT = 1 << 16;
+
+        /**
+         * Reads up to {@code maxLength} bytes from the current position of {@code fd} into
+         * {@code dest} and advances the position. Returns the number of bytes read, or -1 if the
+         * file cannot be read this way, in which case the position is left unchanged.
+         */
+        public abstract int execute(int fd, byte[] dest, int maxLength);
+
+        static boolean isEnabled(Node node, long length) {
+            int threshold = PythonContext.get(node).getOption(PythonOptions.MMapReadThreshold);
+            return threshold > 0 && length >= threshold;
+        }
+
+        @Specialization
+        int read(int fd, byte[] dest, int maxLength,
+                        @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                        @Cached TruffleString.EqualNode eqNode,
+                        @Cached GilNode gil) {
+            Object posixSupport = PythonContext.get(this).getPosixSupport();
+            if (eqNode.execute(T_JAVA, posixLib.getBackend(posixSupport), TS_ENCODING)) {
+                // the emulated backend implements mmap on top of a byte channel
+                return -1;
+            }
+            try {
+                long[] status = posixLib.fstat(posixSupport, fd);
+                if ((status[0] & S_IFMT.value) != S_IFREG.value) {
+                    return -1;
+                }
+                long pos = posixLib.lseek(posixSupport, fd, 0L, mapPythonSeekWhenceToPosix(SEEK_CUR));
+                long length = Math.min(maxLength, status[6] - pos);
+                if (pos < 0 || length <= 0) {
+                    return -1;
+                }
+                long mapOffset = pos & -MAP_ALIGNMENT;
+                long mapLength = pos - mapOffset + length;
+                Object handle = posixLib.mmap(posixSupport, mapLength, PROT_READ.value, MAP_PRIVATE.value, fd, mapOffset);
+                int n;
+                gil.release(true);
+                try {
+                    n = posixLib.mmapReadBytes(posixSupport, handle, pos - mapOffset, dest, (int) length);
+                } finally {
+                    gil.acquire();
+                    posixLib.mmapUnmap(posixSupport, handle, mapLength);
+                }
+                posixLib.lseek(posixSupport, fd, pos + n, mapPythonSeekWhenceToPosix(SEEK_SET));
+                return n;
+            } catch (PosixException e) {
+                return -1;
+            }
+        }
+    }
+
     public abstract static class FileIOInit extends PNodeWithRaise {
 
         @Child private PConstructAndRaiseNode constructAndRaiseNode;
@@ -563,6 +633,7 @@ public final class FileIOBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "!self.isClosed()")
         Object readall(VirtualFrame frame, PFileIO self,
+                        @Cached MMapReadNode mmapRead,
                         @Cached PosixModuleBuiltins.ReadNode posixRead,
                         @Cached BranchProfile readErrorProfile,
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode getBytes,
@@ -572,6 +643,8 @@ public final class FileIOBuiltins extends PythonBuiltins {
                         @Cached GilNode gil) {
             int bufsize = SMALLCHUNK;
             boolean mayBeQuick = false;
+            byte[] mapped = null;
+            int mappedLength = 0;
             try {
                 long pos = posixLib.lseek(getPosixSupport(), self.getFD(), 0L, mapPythonSeekWhenceToPosix(SEEK_CUR));
                 long[] status = posixLib.fstat(getPosixSupport(), self.getFD());
@@ -586,6 +659,17 @@ public final class FileIOBuiltins extends PythonBuiltins {
                                                      // (MAX_SIZE: MAX_INT)
                     mayBeQuick = true;
                 }
+                if (mayBeQuick && MMapReadNode.isEnabled(this, bufsize - 1)) {
+                    byte[] data = new byte[bufsize - 1];
+                    int n = mmapRead.execute(self.getFD(), data, data.length);
+                    if (n >= 0) {
+                        // the file may have grown since the fstat, so keep reading until EOF
+                        mapped = data;
+                        mappedLength = n;
+                        bufsize = SMALLCHUNK;
+                        mayBeQuick = false;
+                    }
+                }
             } catch (PosixException e) {
                 // ignore
             }
@@ -595,13 +679,16 @@ public final class FileIOBuiltins extends PythonBuiltins {
             try {
                 b = posixRead.read(self.getFD(), bufsize, posixLib, readErrorProfile, gil);
                 bytesRead = b.getSequenceStorage().length();
+                if (bytesRead == 0 && mapped != null) {
+                    return factory().createBytes(mapped, 0, mappedLength);
+                }
                 if (bytesRead == 0 || (mayBeQuick && bytesRead == bufsize - 1)) {
                     return b;
                 }
             } catch (PosixException e) {
                 exceptionProfile.enter();
                 if (e.getErrorCode() == EAGAIN.getNumber()) {
-                    return PNone.NONE;
+                    return mapped != null ? factory().createBytes(mapped, 0, mappedLength) : PNone.NONE;
                 }
                 throw raiseOSErrorFromPosixException(frame, e);
             }
@@ -609,6 +696,9 @@ public final class FileIOBuiltins extends PythonBuiltins {
             multipleReadsProfile.enter();
             byte[] buffer = getBytes.execute(b.getSequenceStorage());
             ByteArrayOutputStream result = createOutputStream();
+            if (mapped != null) {
+                append(result, mapped, mappedLength);
+            }
             append(result, buffer, bytesRead);
 
             while (true) {
@@ -633,7 +723,7 @@ public final class FileIOBuiltins extends PythonBuiltins {
                     }
                 } catch (PosixException e) {
                     if (e.getErrorCode() == EAGAIN.getNumber()) {
-                        if (bytesRead > 0) {
+                        if (bytesRead > 0 || mapped != null) {
                             break;
                         }
                         return PNone.NONE;
@@ -663,6 +753,7 @@ public final class FileIOBuiltins extends PythonBuiltins {
         @Specialization(guards = {"!self.isClosed()", "self.isReadable()"})
         Object readinto(VirtualFrame frame, PFileIO self, Object buffer,
                         @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached MMapReadNode mmapRead,
                         @Cached PosixModuleBuiltins.ReadNode posixRead,
                         @Cached BranchProfile readErrorProfile,
                         @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
@@ -672,6 +763,13 @@ public final class FileIOBuiltins extends PythonBuiltins {
                 if (size == 0) {
                     return 0;
                 }
+                if (MMapReadNode.isEnabled(this, size) && bufferLib.hasInternalByteArray(buffer)) {
+                    // read straight into the target, e.g. a bytearray or a memoryview of one
+                    int n = mmapRead.execute(self.getFD(), bufferLib.getInternalByteArray(buffer), size);
+                    if (n >= 0) {
+                        return n;
+                    }
+                }
                 try {
                     PBytes data = posixRead.read(self.getFD(), size, posixLib, readErrorProfile, gil);
                     int n = bufferLib.getBufferLength(data);
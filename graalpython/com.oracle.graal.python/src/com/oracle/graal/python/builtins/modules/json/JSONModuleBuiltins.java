@@ -190,6 +190,32 @@ public class JSONModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "StreamDecoder", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "context", "events"}, constructsClass = PythonBuiltinClassType.JSONStreamDecoder, //
+                    doc = "StreamDecoder(context, events=False)\n" +
+                                    "\n" +
+                                    "Incremental decoder for a stream of UTF-8 encoded JSON documents.\n" +
+                                    "The decoding options are taken from context like for make_scanner.\n" +
+                                    "feed(data) returns the list of top-level documents completed by data,\n" +
+                                    "or, if events is true, the list of (prefix, event, value) tuples for them.")
+    @ArgumentClinic(name = "events", conversion = ArgumentClinic.ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    public abstract static class MakeStreamDecoder extends PythonTernaryClinicBuiltinNode {
+
+        @Child private MakeScanner makeScanner = JSONModuleBuiltinsFactory.MakeScannerFactory.create(null);
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JSONModuleBuiltinsClinicProviders.MakeStreamDecoderClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PJSONStreamDecoder doNew(VirtualFrame frame, Object cls, Object context, boolean events,
+                        @Cached PythonObjectFactory factory) {
+            PJSONScanner scanner = (PJSONScanner) makeScanner.execute(frame, PythonBuiltinClassType.JSONScanner, context);
+            return factory.createJSONStreamDecoder(cls, scanner, events);
+        }
+    }
+
     @Builtin(name = "make_encoder", minNumOfPositionalArgs = 10, //
                     parameterNames = {"$cls", "markers", "default", "encoder", "indent", "key_separator", "item_separator", "sort_keys", "skipkeys", "allow_nan"}, //
                     constructsClass = PythonBuiltinClassType.JSONEncoder, //
@@ -6,10 +6,12 @@
 package com.oracle.graal.python.builtins.modules.json;
 
 import static com.oracle.graal.python.nodes.SpecialMethodNames.J___CALL__;
+import static com.oracle.graal.python.nodes.StringLiterals.T_EMPTY_STRING;
 import static com.oracle.graal.python.util.PythonUtils.toTruffleStringUncached;
 import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.oracle.graal.python.PythonLanguage;
@@ -57,6 +59,16 @@ public class JSONScannerBuiltins extends PythonBuiltins {
 
     public static final TruffleString T_JSON_DECODE_ERROR = tsLiteral("JSONDecodeError");
 
+    private static final TruffleString T_START_MAP = tsLiteral("start_map");
+    private static final TruffleString T_MAP_KEY = tsLiteral("map_key");
+    private static final TruffleString T_END_MAP = tsLiteral("end_map");
+    private static final TruffleString T_START_ARRAY = tsLiteral("start_array");
+    private static final TruffleString T_END_ARRAY = tsLiteral("end_array");
+    private static final TruffleString T_STRING = tsLiteral("string");
+    private static final TruffleString T_NUMBER = tsLiteral("number");
+    private static final TruffleString T_BOOLEAN = tsLiteral("boolean");
+    private static final TruffleString T_NULL = tsLiteral("null");
+
     static final class IntRef {
         int value;
     }
@@ -94,6 +106,22 @@ public class JSONScannerBuiltins extends PythonBuiltins {
         @Specialization
         protected PTuple call(PJSONScanner self, TruffleString string, int idx,
                         @Cached TruffleString.ToJavaStringNode toJavaStringNode) {
+            initShapes();
+            IntRef nextIdx = new IntRef();
+            Object result = scanOnceUnicode(self, toJavaStringNode.execute(string), idx, nextIdx);
+            return factory.createTuple(new Object[]{result, nextIdx.value});
+        }
+
+        /**
+         * Reads one complete top-level document starting at {@code idx}. Used by the stream
+         * decoder, which hands over the text of one document at a time.
+         */
+        Object scanDocument(PJSONScanner scanner, String string, int idx, IntRef nextIdx) {
+            initShapes();
+            return scanOnceUnicode(scanner, string, idx, nextIdx);
+        }
+
+        private void initShapes() {
             if (tupleInstanceShape == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 tupleInstanceShape = PythonLanguage.get(this).getBuiltinTypeInstanceShape(PythonBuiltinClassType.PTuple);
@@ -106,9 +134,111 @@ public class JSONScannerBuiltins extends PythonBuiltins {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 dictInstanceShape = PythonLanguage.get(this).getBuiltinTypeInstanceShape(PythonBuiltinClassType.PDict);
             }
-            IntRef nextIdx = new IntRef();
-            Object result = scanOnceUnicode(self, toJavaStringNode.execute(string), idx, nextIdx);
-            return factory.createTuple(new Object[]{result, nextIdx.value});
+        }
+
+        /**
+         * Reads one complete top-level document starting at {@code start} and appends ijson-style
+         * {@code (prefix, event, value)} tuples to {@code events} instead of building the document.
+         * Nesting is tracked with an explicit stack, so deeply nested input does not grow the Java
+         * stack. Strings, numbers and constants go through the same paths as
+         * {@link #scanOnceUnicode}.
+         */
+        @TruffleBoundary
+        void scanEvents(PJSONScanner scanner, String string, int start, IntRef nextIdx, List<Object> events) {
+            initShapes();
+            int length = string.length();
+            ArrayList<EventFrame> stack = new ArrayList<>();
+            TruffleString prefix = T_EMPTY_STRING;
+            int idx = start;
+            while (true) {
+                /* read a value; a non-empty container continues with its first member */
+                if (idx >= length) {
+                    throw decodeError(raiseNode, string, idx, ErrorMessages.EXPECTING_VALUE);
+                }
+                char c = string.charAt(idx);
+                if (c == '{' || c == '[') {
+                    boolean isMap = c == '{';
+                    addEvent(events, prefix, isMap ? T_START_MAP : T_START_ARRAY, PNone.NONE);
+                    idx = skipWhitespace(string, idx + 1, length);
+                    if (idx >= length || string.charAt(idx) != (isMap ? '}' : ']')) {
+                        EventFrame frame = new EventFrame(isMap, prefix);
+                        stack.add(frame);
+                        if (isMap) {
+                            prefix = scanMapKey(scanner, string, idx, nextIdx, frame, events);
+                            idx = nextIdx.value;
+                        } else {
+                            prefix = frame.itemPrefix;
+                        }
+                        continue;
+                    }
+                    addEvent(events, prefix, isMap ? T_END_MAP : T_END_ARRAY, PNone.NONE);
+                    idx++;
+                } else {
+                    Object value = scanOnceUnicode(scanner, string, idx, nextIdx);
+                    TruffleString event;
+                    if (c == '"') {
+                        event = T_STRING;
+                    } else if (value == PNone.NONE && c == 'n') {
+                        event = T_NULL;
+                    } else if (value instanceof Boolean && (c == 't' || c == 'f')) {
+                        event = T_BOOLEAN;
+                    } else {
+                        event = T_NUMBER;
+                    }
+                    addEvent(events, prefix, event, value);
+                    idx = nextIdx.value;
+                }
+
+                /* close finished containers and advance to the next member */
+                while (true) {
+                    if (stack.isEmpty()) {
+                        nextIdx.value = idx;
+                        return;
+                    }
+                    EventFrame frame = stack.get(stack.size() - 1);
+                    idx = skipWhitespace(string, idx, length);
+                    if (idx < length && string.charAt(idx) == (frame.isMap ? '}' : ']')) {
+                        stack.remove(stack.size() - 1);
+                        addEvent(events, frame.prefix, frame.isMap ? T_END_MAP : T_END_ARRAY, PNone.NONE);
+                        idx++;
+                        continue;
+                    }
+                    if (idx >= length || string.charAt(idx) != ',') {
+                        throw decodeError(raiseNode, string, idx, ErrorMessages.EXPECTING_COMMA_DELIMITER);
+                    }
+                    idx = skipWhitespace(string, idx + 1, length);
+                    if (frame.isMap) {
+                        prefix = scanMapKey(scanner, string, idx, nextIdx, frame, events);
+                        idx = nextIdx.value;
+                    } else {
+                        prefix = frame.itemPrefix;
+                    }
+                    break;
+                }
+            }
+        }
+
+        private TruffleString scanMapKey(PJSONScanner scanner, String string, int start, IntRef nextIdx, EventFrame frame, List<Object> events) {
+            int length = string.length();
+            if (start >= length || string.charAt(start) != '"') {
+                throw decodeError(raiseNode, string, start, ErrorMessages.EXPECTING_PROP_NAME_ECLOSED_IN_DBL_QUOTES);
+            }
+            TruffleString newKey = scanStringUnicode(string, start + 1, scanner.strict, nextIdx, raiseNode);
+            TruffleString key = scanner.memo.putIfAbsent(newKey, newKey);
+            if (key == null) {
+                key = newKey;
+            }
+            addEvent(events, frame.prefix, T_MAP_KEY, key);
+            int idx = skipWhitespace(string, nextIdx.value, length);
+            if (idx >= length || string.charAt(idx) != ':') {
+                throw decodeError(raiseNode, string, idx, ErrorMessages.EXPECTING_COLON_DELIMITER);
+            }
+            nextIdx.value = skipWhitespace(string, idx + 1, length);
+            return frame.childPrefix(key.toJavaStringUncached());
+        }
+
+        private void addEvent(List<Object> events, TruffleString prefix, TruffleString event, Object value) {
+            events.add(factory.createTuple(PythonBuiltinClassType.PTuple, tupleInstanceShape, new Object[]{prefix, event, value}));
         }
 
         private Object parseObjectUnicode(PJSONScanner scanner, String string, int start, IntRef nextIdx) {
@@ -456,6 +586,24 @@ public class JSONScannerBuiltins extends PythonBuiltins {
 
     }
 
+    private static final class EventFrame {
+        final boolean isMap;
+        final TruffleString prefix;
+        final String javaPrefix;
+        final TruffleString itemPrefix;
+
+        EventFrame(boolean isMap, TruffleString prefix) {
+            this.isMap = isMap;
+            this.prefix = prefix;
+            this.javaPrefix = prefix.toJavaStringUncached();
+            this.itemPrefix = isMap ? null : childPrefix("item");
+        }
+
+        TruffleString childPrefix(String name) {
+            return toTruffleStringUncached(javaPrefix.isEmpty() ? name : javaPrefix + '.' + name);
+        }
+    }
+
     @TruffleBoundary
     static TruffleString scanStringUnicode(String string, int start, boolean strict, IntRef nextIdx, PRaiseNode raiseNode) {
         String result;
@@ -532,7 +680,7 @@ public class JSONScannerBuiltins extends PythonBuiltins {
         throw decodeError(raiseNode, string, start - 1, ErrorMessages.UNTERMINATED_STR_STARTING_AT);
     }
 
-    private static RuntimeException decodeError(Node raisingNode, String jsonString, int pos, TruffleString format) {
+    static RuntimeException decodeError(Node raisingNode, String jsonString, int pos, TruffleString format) {
         CompilerAsserts.neverPartOfCompilation();
         Object module = AbstractImportNode.importModule(toTruffleStringUncached("json.decoder"));
         Object errorClass = PyObjectLookupAttr.getUncached().execute(null, module, T_JSON_DECODE_ERROR);
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CoderResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.json.JSONScannerBuiltins.CallScannerNode;
+import com.oracle.graal.python.builtins.modules.json.JSONScannerBuiltins.IntRef;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.JSONStreamDecoder)
+public final class JSONStreamDecoderBuiltins extends PythonBuiltins {
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
+    private static final TruffleString T_VALUE = tsLiteral("value");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return JSONStreamDecoderBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "feed", minNumOfPositionalArgs = 2, parameterNames = {"$self", "data"}, //
+                    doc = "feed(data) -> list\n" +
+                                    "\n" +
+                                    "Decode the next chunk of UTF-8 encoded input. Returns the documents\n" +
+                                    "(or events) of all top-level values completed by this chunk.")
+    @ArgumentClinic(name = "data", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @GenerateNodeFactory
+    abstract static class FeedNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JSONStreamDecoderBuiltinsClinicProviders.FeedNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        PList feed(VirtualFrame frame, PJSONStreamDecoder self, Object buffer,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached DecodeChunkNode decodeChunkNode) {
+            try {
+                return decodeChunkNode.execute(self, bufferLib.getInternalOrCopiedByteArray(buffer), bufferLib.getBufferLength(buffer), false);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1, parameterNames = {"$self"}, //
+                    doc = "close() -> list\n" +
+                                    "\n" +
+                                    "Signal the end of input. Returns what the last top-level value\n" +
+                                    "decodes to and raises JSONDecodeError if the input is truncated.")
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PList close(PJSONStreamDecoder self,
+                        @Cached DecodeChunkNode decodeChunkNode) {
+            return decodeChunkNode.execute(self, EMPTY_BYTES, 0, true);
+        }
+    }
+
+    /**
+     * Appends a chunk to the decoder and parses every top-level document it completes. Document
+     * boundaries are found by a single pass that only tracks string and nesting state, so each
+     * character is looked at once for splitting and once by the scanner, no matter how the input
+     * is chunked.
+     */
+    static final class DecodeChunkNode extends Node {
+
+        @Child private CallScannerNode scanNode = JSONScannerBuiltinsFactory.CallScannerNodeFactory.create(null);
+        @Child private PRaiseNode raiseNode = PRaiseNode.create();
+        @Child private PythonObjectFactory factory = PythonObjectFactory.create();
+        @Child private IsBuiltinClassProfile stopIterationProfile = IsBuiltinClassProfile.create();
+
+        static DecodeChunkNode create() {
+            return new DecodeChunkNode();
+        }
+
+        @TruffleBoundary
+        PList execute(PJSONStreamDecoder self, byte[] bytes, int length, boolean last) {
+            if (self.closed) {
+                throw raiseNode.raise(PythonBuiltinClassType.ValueError, ErrorMessages.STREAM_DECODER_CLOSED);
+            }
+            if (last) {
+                self.closed = true;
+            }
+            decodeUtf8(self, bytes, length, last);
+
+            StringBuilder text = self.text;
+            int n = text.length();
+            int docStart = 0;
+            int i = self.scanned;
+            List<Object> result = new ArrayList<>();
+            while (i < n) {
+                char c = text.charAt(i);
+                if (!self.inDocument) {
+                    i++;
+                    if (JSONModuleBuiltins.isWhitespace(c)) {
+                        continue;
+                    }
+                    self.inDocument = true;
+                    docStart = i - 1;
+                    if (c == '{' || c == '[') {
+                        self.depth = 1;
+                    } else if (c == '"') {
+                        self.inString = true;
+                    } else {
+                        self.scalar = true;
+                    }
+                } else if (self.inString) {
+                    i++;
+                    if (self.escaped) {
+                        self.escaped = false;
+                    } else if (c == '\\') {
+                        self.escaped = true;
+                    } else if (c == '"') {
+                        self.inString = false;
+                        if (self.depth == 0) {
+                            decodeDocument(self, text.substring(docStart, i), result);
+                        }
+                    }
+                } else if (self.scalar) {
+                    /* a bare number or constant ends at whitespace or at the start of the next value */
+                    if (JSONModuleBuiltins.isWhitespace(c) || c == '{' || c == '[' || c == '"') {
+                        decodeDocument(self, text.substring(docStart, i), result);
+                    } else {
+                        i++;
+                    }
+                } else {
+                    i++;
+                    if (c == '"') {
+                        self.inString = true;
+                    } else if (c == '{' || c == '[') {
+                        self.depth++;
+                    } else if ((c == '}' || c == ']') && --self.depth == 0) {
+                        decodeDocument(self, text.substring(docStart, i), result);
+                    }
+                }
+            }
+
+            if (self.inDocument) {
+                if (last) {
+                    /* a truncated container or string makes the scanner report the actual error */
+                    decodeDocument(self, text.substring(docStart, n), result);
+                } else {
+                    text.delete(0, docStart);
+                    self.scanned = n - docStart;
+                    return factory.createList(result.toArray());
+                }
+            }
+            text.setLength(0);
+            self.scanned = 0;
+            return factory.createList(result.toArray());
+        }
+
+        private void decodeDocument(PJSONStreamDecoder self, String document, List<Object> result) {
+            self.inDocument = false;
+            self.scalar = false;
+            self.inString = false;
+            self.escaped = false;
+            self.depth = 0;
+            IntRef nextIdx = new IntRef();
+            try {
+                if (self.events) {
+                    scanNode.scanEvents(self.scanner, document, 0, nextIdx, result);
+                } else {
+                    result.add(scanNode.scanDocument(self.scanner, document, 0, nextIdx));
+                }
+            } catch (PException e) {
+                e.expectStopIteration(stopIterationProfile);
+                Object pos = PyObjectLookupAttr.getUncached().execute(null, e.getUnreifiedException(), T_VALUE);
+                throw JSONScannerBuiltins.decodeError(raiseNode, document, pos instanceof Integer ? (int) pos : 0, ErrorMessages.EXPECTING_VALUE);
+            }
+            int idx = nextIdx.value;
+            while (idx < document.length() && JSONModuleBuiltins.isWhitespace(document.charAt(idx))) {
+                idx++;
+            }
+            if (idx < document.length()) {
+                throw JSONScannerBuiltins.decodeError(raiseNode, document, idx, ErrorMessages.EXTRA_DATA);
+            }
+        }
+
+        private void decodeUtf8(PJSONStreamDecoder self, byte[] bytes, int length, boolean last) {
+            ByteBuffer in;
+            if (self.pendingBytes != null) {
+                in = ByteBuffer.allocate(self.pendingBytes.remaining() + length);
+                in.put(self.pendingBytes).put(bytes, 0, length).flip();
+                self.pendingBytes = null;
+            } else {
+                in = ByteBuffer.wrap(bytes, 0, length);
+            }
+            // UTF-8 never produces more UTF-16 code units than it has bytes
+            CharBuffer out = CharBuffer.allocate(in.remaining());
+            CoderResult result = self.utf8Decoder.decode(in, out, last);
+            if (result.isError()) {
+                int start = in.position();
+                String reason = last && start + result.length() == in.limit() ? "unexpected end of data" : "invalid utf-8 sequence";
+                byte[] input = Arrays.copyOfRange(in.array(), in.arrayOffset(), in.arrayOffset() + in.limit());
+                throw PConstructAndRaiseNode.raiseUncachedUnicodeDecodeError("utf-8", factory.createBytes(input), start, start + result.length(), reason);
+            }
+            if (last) {
+                self.utf8Decoder.flush(out);
+            } else if (in.hasRemaining()) {
+                self.pendingBytes = ByteBuffer.allocate(in.remaining()).put(in).flip();
+            }
+            out.flip();
+            self.text.append(out);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * State of an incremental JSON decoder. Bytes are decoded to UTF-16 as they arrive, and only the
+ * text of the top-level document that is currently incomplete is retained between calls to
+ * {@code feed}.
+ */
+public final class PJSONStreamDecoder extends PythonBuiltinObject {
+
+    final PJSONScanner scanner;
+    final boolean events;
+
+    final CharsetDecoder utf8Decoder;
+    /** Trailing bytes of an incomplete UTF-8 sequence from the previous chunk. */
+    ByteBuffer pendingBytes;
+    /** Undecoded text, starting at the first character of the current (incomplete) document. */
+    final StringBuilder text = new StringBuilder();
+    /** Number of characters in {@link #text} that were already scanned for document boundaries. */
+    int scanned;
+
+    /* boundary scanner state */
+    boolean inDocument;
+    boolean scalar;
+    boolean inString;
+    boolean escaped;
+    int depth;
+
+    boolean closed;
+
+    public PJSONStreamDecoder(Object cls, Shape instanceShape, PJSONScanner scanner, boolean events) {
+        super(cls, instanceShape);
+        CompilerAsserts.neverPartOfCompilation();
+        this.scanner = scanner;
+        this.events = events;
+        this.utf8Decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.util.Arrays;
+
+/**
+ * Identity keyed map from objects to memo indices, the equivalent of CPython's
+ * {@code PyMemoTable}. It uses open addressing with linear probing over two parallel arrays, so
+ * neither lookups nor insertions box the indices or call back into Python for hashing and
+ * comparison.
+ */
+public final class MemoTable {
+    private static final int MIN_SIZE = 8;
+
+    private Object[] keys;
+    private int[] values;
+    private int size;
+
+    public MemoTable() {
+        this(MIN_SIZE);
+    }
+
+    private MemoTable(int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the memo index stored for {@code key} or {@code -1} if there is none.
+     */
+    public int get(Object key) {
+        assert key != null;
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        Object k;
+        while ((k = keys[i]) != null) {
+            if (k == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    public void put(Object key, int value) {
+        assert key != null && value >= 0;
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        Object k;
+        while ((k = keys[i]) != null) {
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        if (size * 3 >= keys.length * 2) {
+            resize(keys.length * 2);
+        }
+    }
+
+    public void clear() {
+        if (keys.length == MIN_SIZE) {
+            Arrays.fill(keys, null);
+        } else {
+            keys = new Object[MIN_SIZE];
+            values = new int[MIN_SIZE];
+        }
+        size = 0;
+    }
+
+    public MemoTable copy() {
+        MemoTable copy = new MemoTable(keys.length);
+        System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+        System.arraycopy(values, 0, copy.values, 0, values.length);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Number of slots, used together with {@link #keyAt(int)} and {@link #valueAt(int)} to iterate
+     * over the entries.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the key in the given slot, or {@code null} if the slot is empty.
+     */
+    public Object keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public int valueAt(int slot) {
+        return values[slot];
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new Object[newCapacity];
+        values = new int[newCapacity];
+        int mask = newCapacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object key = oldKeys[j];
+            if (key != null) {
+                int i = hash(key) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = System.identityHashCode(key);
+        // identity hash codes are not uniformly distributed in the low bits
+        return h ^ (h >>> 16);
+    }
+}
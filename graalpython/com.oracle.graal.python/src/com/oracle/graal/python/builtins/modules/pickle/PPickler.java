@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME_HEADER_SIZE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME_SIZE_MIN;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.FRAME_SIZE_TARGET;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * State of a {@code _pickle.Pickler}. The pickle is assembled in a growable byte array, which is
+ * also used to build the frames of protocol 4 and newer in place, like {@code PicklerObject} in
+ * CPython.
+ */
+public final class PPickler extends PythonBuiltinObject {
+    private static final int INITIAL_OUTPUT_SIZE = 64;
+
+    private int protocol;
+    private boolean bin;
+    private boolean fast;
+    private int fastNesting;
+    private MemoTable fastMemo;
+    private boolean fixImports;
+
+    /* null until __init__ was called */
+    private Object write;
+    private Object persistentId;
+    private Object dispatchTable;
+    private Object reducerOverride;
+    private Object bufferCallback;
+    /* the copyreg module, looked up lazily */
+    private Object copyreg;
+
+    private MemoTable memo = new MemoTable();
+
+    private byte[] output = new byte[INITIAL_OUTPUT_SIZE];
+    private int outputLen;
+    private boolean framing;
+    private int frameStart = -1;
+
+    public PPickler(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public void init(int proto, boolean fixImp, Object bufferCb) {
+        this.protocol = proto;
+        this.bin = proto > 0;
+        this.fixImports = fixImp && proto < 3;
+        this.bufferCallback = bufferCb;
+        this.fast = false;
+        this.fastNesting = 0;
+        this.fastMemo = null;
+        this.memo.clear();
+        clearBuffer();
+    }
+
+    public int getProtocol() {
+        return protocol;
+    }
+
+    public boolean isBin() {
+        return bin;
+    }
+
+    public void setBin(boolean bin) {
+        this.bin = bin;
+    }
+
+    public boolean isFast() {
+        return fast;
+    }
+
+    public void setFast(boolean fast) {
+        this.fast = fast;
+    }
+
+    /**
+     * Enters a container in fast mode. Since fast mode does not memoize, cycles are detected by
+     * remembering the containers on the current path once the nesting gets deep.
+     *
+     * @return {@code false} if the object is already on the path
+     */
+    public boolean fastSaveEnter(Object obj) {
+        if (++fastNesting >= PickleUtils.FAST_NESTING_LIMIT) {
+            if (fastMemo == null) {
+                fastMemo = new MemoTable();
+            }
+            if (fastMemo.get(obj) > 0) {
+                fastNesting = -1;
+                return false;
+            }
+            fastMemo.put(obj, 1);
+        }
+        return true;
+    }
+
+    public void fastSaveLeave(Object obj) {
+        if (fastNesting-- >= PickleUtils.FAST_NESTING_LIMIT) {
+            // there is no removal in the memo table, mark the entry as left instead
+            fastMemo.put(obj, 0);
+        }
+    }
+
+    public boolean isFixImports() {
+        return fixImports;
+    }
+
+    public Object getWrite() {
+        return write;
+    }
+
+    public void setWrite(Object write) {
+        this.write = write;
+    }
+
+    public Object getPersistentId() {
+        return persistentId;
+    }
+
+    public void setPersistentId(Object persistentId) {
+        this.persistentId = persistentId;
+    }
+
+    public Object getDispatchTable() {
+        return dispatchTable;
+    }
+
+    public void setDispatchTable(Object dispatchTable) {
+        this.dispatchTable = dispatchTable;
+    }
+
+    public Object getReducerOverride() {
+        return reducerOverride;
+    }
+
+    public void setReducerOverride(Object reducerOverride) {
+        this.reducerOverride = reducerOverride;
+    }
+
+    public Object getBufferCallback() {
+        return bufferCallback;
+    }
+
+    public Object getCopyreg() {
+        return copyreg;
+    }
+
+    public void setCopyreg(Object copyreg) {
+        this.copyreg = copyreg;
+    }
+
+    public MemoTable getMemo() {
+        return memo;
+    }
+
+    public void setMemo(MemoTable memo) {
+        this.memo = memo;
+    }
+
+    public void setFraming(boolean framing) {
+        this.framing = framing;
+    }
+
+    public boolean isFraming() {
+        return framing;
+    }
+
+    public byte[] getOutput() {
+        return output;
+    }
+
+    public int getOutputLen() {
+        return outputLen;
+    }
+
+    public void clearBuffer() {
+        if (output.length > FRAME_SIZE_TARGET * 2) {
+            output = new byte[INITIAL_OUTPUT_SIZE];
+        }
+        outputLen = 0;
+        frameStart = -1;
+    }
+
+    private int reserve(int n) {
+        int need = n;
+        boolean newFrame = framing && frameStart == -1;
+        if (newFrame) {
+            need += FRAME_HEADER_SIZE;
+        }
+        if (outputLen + need > output.length) {
+            int newSize = Math.max(output.length * 2, outputLen + need);
+            if (newSize < 0) {
+                throw new OutOfMemoryError();
+            }
+            output = PythonUtils.arrayCopyOf(output, newSize);
+        }
+        if (newFrame) {
+            frameStart = outputLen;
+            outputLen += FRAME_HEADER_SIZE;
+        }
+        int pos = outputLen;
+        outputLen += n;
+        return pos;
+    }
+
+    public void write(byte b) {
+        output[reserve(1)] = b;
+    }
+
+    public void write(byte b1, byte b2) {
+        int pos = reserve(2);
+        output[pos] = b1;
+        output[pos + 1] = b2;
+    }
+
+    public void write(byte[] data) {
+        write(data, 0, data.length);
+    }
+
+    public void write(byte[] data, int offset, int length) {
+        System.arraycopy(data, offset, output, reserve(length), length);
+    }
+
+    /**
+     * Writes the opcode followed by {@code size} bytes of {@code value} in little endian order.
+     */
+    public void writeSized(byte opcode, long value, int size) {
+        int pos = reserve(size + 1);
+        output[pos++] = opcode;
+        for (int i = 0; i < size; i++) {
+            output[pos + i] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    public void writeBigEndianLong(byte opcode, long value) {
+        int pos = reserve(9);
+        output[pos++] = opcode;
+        for (int i = 0; i < 8; i++) {
+            output[pos + i] = (byte) (value >>> ((7 - i) * 8));
+        }
+    }
+
+    /**
+     * Called between opcodes, commits the current frame once it reached the target size.
+     *
+     * @return {@code true} if a frame was committed and the output should be flushed to the file
+     */
+    public boolean opcodeBoundary() {
+        if (!framing || frameStart == -1) {
+            return false;
+        }
+        int frameLen = outputLen - frameStart - FRAME_HEADER_SIZE;
+        if (frameLen >= FRAME_SIZE_TARGET) {
+            commitFrame();
+            return write != null;
+        }
+        return false;
+    }
+
+    public void commitFrame() {
+        if (!framing || frameStart == -1) {
+            return;
+        }
+        int frameLen = outputLen - frameStart - FRAME_HEADER_SIZE;
+        if (frameLen >= FRAME_SIZE_MIN) {
+            output[frameStart] = FRAME;
+            for (int i = 0; i < 8; i++) {
+                output[frameStart + 1 + i] = (byte) ((long) frameLen >>> (i * 8));
+            }
+        } else {
+            System.arraycopy(output, frameStart + FRAME_HEADER_SIZE, output, frameStart, frameLen);
+            outputLen -= FRAME_HEADER_SIZE;
+        }
+        frameStart = -1;
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * State of a {@code _pickle.Unpickler}: the input buffer, the memo and the object and mark stacks
+ * of the pickle machine, like {@code UnpicklerObject} in CPython.
+ */
+public final class PUnpickler extends PythonBuiltinObject {
+    private static final int INITIAL_STACK_SIZE = 8;
+    private static final int INITIAL_MEMO_SIZE = 32;
+
+    private int protocol;
+    private boolean fixImports;
+    private TruffleString encoding;
+    private TruffleString errors;
+
+    /* null until __init__ was called, or if unpickling from bytes */
+    private Object read;
+    private Object readline;
+    private Object persistentLoad;
+    /* iterator over the out-of-band buffers, or null */
+    private Object buffers;
+    /* the copyreg module, looked up lazily */
+    private Object copyreg;
+
+    private byte[] input;
+    private int inputPos;
+    private int inputLen;
+
+    private Object[] memo = new Object[INITIAL_MEMO_SIZE];
+    private int memoLen;
+
+    private Object[] stack = new Object[INITIAL_STACK_SIZE];
+    private int stackSize;
+    private int[] marks = new int[INITIAL_STACK_SIZE];
+    private int numMarks;
+
+    public PUnpickler(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public void init(boolean fixImp, TruffleString enc, TruffleString err, Object buffersIter) {
+        this.fixImports = fixImp;
+        this.encoding = enc;
+        this.errors = err;
+        this.buffers = buffersIter;
+        this.protocol = 0;
+        memoClear();
+    }
+
+    public int getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(int protocol) {
+        this.protocol = protocol;
+    }
+
+    public boolean isFixImports() {
+        return fixImports;
+    }
+
+    public TruffleString getEncoding() {
+        return encoding;
+    }
+
+    public TruffleString getErrors() {
+        return errors;
+    }
+
+    public Object getRead() {
+        return read;
+    }
+
+    public Object getReadline() {
+        return readline;
+    }
+
+    public void setInputStream(Object read, Object readline) {
+        this.read = read;
+        this.readline = readline;
+    }
+
+    public Object getPersistentLoad() {
+        return persistentLoad;
+    }
+
+    public void setPersistentLoad(Object persistentLoad) {
+        this.persistentLoad = persistentLoad;
+    }
+
+    public Object getBuffers() {
+        return buffers;
+    }
+
+    public Object getCopyreg() {
+        return copyreg;
+    }
+
+    public void setCopyreg(Object copyreg) {
+        this.copyreg = copyreg;
+    }
+
+    // input
+
+    public void setInput(byte[] data, int length) {
+        this.input = data;
+        this.inputPos = 0;
+        this.inputLen = length;
+    }
+
+    public byte[] getInput() {
+        return input;
+    }
+
+    public int getInputPos() {
+        return inputPos;
+    }
+
+    public void setInputPos(int pos) {
+        assert pos >= 0 && pos <= inputLen;
+        this.inputPos = pos;
+    }
+
+    public int available() {
+        return inputLen - inputPos;
+    }
+
+    /**
+     * Consumes {@code n} bytes of the buffered input.
+     *
+     * @return the index of the first consumed byte in {@link #getInput()}, or {@code -1} if fewer
+     *         than {@code n} bytes are buffered
+     */
+    public int consume(int n) {
+        if (n > inputLen - inputPos) {
+            return -1;
+        }
+        int start = inputPos;
+        inputPos += n;
+        return start;
+    }
+
+    /**
+     * Consumes a line of the buffered input including the terminating newline.
+     *
+     * @return the index of the first byte of the line, or {@code -1} if no complete line is
+     *         buffered, in which case nothing is consumed
+     */
+    public int consumeLine() {
+        for (int i = inputPos; i < inputLen; i++) {
+            if (input[i] == '\n') {
+                int start = inputPos;
+                inputPos = i + 1;
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    // memo
+
+    public Object memoGet(long idx) {
+        return idx >= 0 && idx < memo.length ? memo[(int) idx] : null;
+    }
+
+    public void memoPut(int idx, Object value) {
+        if (idx >= memo.length) {
+            memo = PythonUtils.arrayCopyOf(memo, Math.max(idx + 1, memo.length * 2));
+        }
+        if (memo[idx] == null) {
+            memoLen++;
+        }
+        memo[idx] = value;
+    }
+
+    public int getMemoLen() {
+        return memoLen;
+    }
+
+    public Object[] getMemo() {
+        return memo;
+    }
+
+    public void memoClear() {
+        memo = new Object[INITIAL_MEMO_SIZE];
+        memoLen = 0;
+    }
+
+    // stacks
+
+    public int getStackSize() {
+        return stackSize;
+    }
+
+    public Object stackAt(int i) {
+        assert i < stackSize;
+        return stack[i];
+    }
+
+    public void stackSet(int i, Object value) {
+        assert i < stackSize;
+        stack[i] = value;
+    }
+
+    public Object stackTop() {
+        return stack[stackSize - 1];
+    }
+
+    public void push(Object value) {
+        if (stackSize == stack.length) {
+            stack = PythonUtils.arrayCopyOf(stack, stack.length * 2);
+        }
+        stack[stackSize++] = value;
+    }
+
+    public Object pop() {
+        assert stackSize > fence();
+        Object value = stack[--stackSize];
+        stack[stackSize] = null;
+        return value;
+    }
+
+    /**
+     * Removes all objects above {@code size} and returns them as a new array.
+     */
+    public Object[] popSlice(int size) {
+        Object[] slice = Arrays.copyOfRange(stack, size, stackSize);
+        truncateStack(size);
+        return slice;
+    }
+
+    public void truncateStack(int size) {
+        Arrays.fill(stack, size, stackSize, null);
+        stackSize = size;
+    }
+
+    public void clearStack() {
+        truncateStack(0);
+        numMarks = 0;
+    }
+
+    /**
+     * Index of the stack above which objects can be popped, objects below the last mark belong to
+     * an outer sequence.
+     */
+    public int fence() {
+        return numMarks > 0 ? marks[numMarks - 1] : 0;
+    }
+
+    public boolean isMarkSet() {
+        return numMarks > 0;
+    }
+
+    public void pushMark() {
+        if (numMarks == marks.length) {
+            marks = PythonUtils.arrayCopyOf(marks, marks.length * 2);
+        }
+        marks[numMarks++] = stackSize;
+    }
+
+    /**
+     * Pops the last mark and returns the stack index it points to.
+     */
+    public int popMark() {
+        assert numMarks > 0;
+        return marks[--numMarks];
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PickleBuffer;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Pickler;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Unpickler;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.lib.PyMemoryViewFromObject;
+import com.oracle.graal.python.nodes.BuiltinNames;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(defineModule = BuiltinNames.J__PICKLE)
+public class PickleModuleBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PickleModuleBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "Pickler", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = Pickler)
+    @GenerateNodeFactory
+    public abstract static class PicklerNode extends PythonBuiltinNode {
+        @Specialization
+        PPickler doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see PicklerBuiltins.InitNode
+            return factory().createPickler(cls);
+        }
+    }
+
+    @Builtin(name = "Unpickler", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = Unpickler)
+    @GenerateNodeFactory
+    public abstract static class UnpicklerNode extends PythonBuiltinNode {
+        @Specialization
+        PUnpickler doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see UnpicklerBuiltins.InitNode
+            return factory().createUnpickler(cls);
+        }
+    }
+
+    @Builtin(name = "PickleBuffer", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "buffer"}, constructsClass = PickleBuffer)
+    @GenerateNodeFactory
+    public abstract static class PickleBufferNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PPickleBuffer doNew(VirtualFrame frame, Object cls, Object buffer,
+                        @Cached PyMemoryViewFromObject memoryViewFromObject) {
+            return factory().createPickleBuffer(cls, memoryViewFromObject.execute(frame, buffer));
+        }
+    }
+
+    @Builtin(name = "dump", minNumOfPositionalArgs = 2, parameterNames = {"obj", "file", "protocol"}, keywordOnlyNames = {"fix_imports", "buffer_callback"})
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    public abstract static class DumpNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.DumpNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object dump(VirtualFrame frame, Object obj, Object file, Object protocol, boolean fixImports, Object bufferCallback,
+                        @Cached PicklerNodes.InitPicklerNode initNode,
+                        @Cached PicklerNodes.DumpNode dumpNode,
+                        @Cached PicklerNodes.FlushToFileNode flushNode) {
+            PPickler pickler = factory().createPickler(Pickler);
+            initNode.execute(frame, pickler, file, protocol, fixImports, bufferCallback);
+            dumpNode.execute(frame, pickler, obj);
+            flushNode.execute(frame, pickler);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dumps", minNumOfPositionalArgs = 1, parameterNames = {"obj", "protocol"}, keywordOnlyNames = {"fix_imports", "buffer_callback"})
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    public abstract static class DumpsNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.DumpsNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PBytes dumps(VirtualFrame frame, Object obj, Object protocol, boolean fixImports, Object bufferCallback,
+                        @Cached PicklerNodes.InitPicklerNode initNode,
+                        @Cached PicklerNodes.DumpNode dumpNode) {
+            PPickler pickler = factory().createPickler(Pickler);
+            initNode.execute(frame, pickler, null, protocol, fixImports, bufferCallback);
+            dumpNode.execute(frame, pickler, obj);
+            return factory().createBytes(PythonUtils.arrayCopyOf(pickler.getOutput(), pickler.getOutputLen()));
+        }
+    }
+
+    @Builtin(name = "load", minNumOfPositionalArgs = 1, parameterNames = {"file"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @ArgumentClinic(name = "encoding", conversion = ClinicConversion.TString, defaultValue = "T_ASCII_UPPERCASE")
+    @ArgumentClinic(name = "errors", conversion = ClinicConversion.TString, defaultValue = "T_STRICT")
+    @GenerateNodeFactory
+    public abstract static class LoadNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.LoadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object load(VirtualFrame frame, Object file, boolean fixImports, TruffleString encoding, TruffleString errors, Object buffers,
+                        @Cached UnpicklerNodes.InitUnpicklerNode initNode,
+                        @Cached UnpicklerNodes.LoadNode loadNode) {
+            PUnpickler unpickler = factory().createUnpickler(Unpickler);
+            initNode.execute(frame, unpickler, file, fixImports, encoding, errors, buffers);
+            return loadNode.execute(frame, unpickler);
+        }
+    }
+
+    @Builtin(name = "loads", minNumOfPositionalArgs = 1, parameterNames = {"data"}, numOfPositionalOnlyArgs = 1, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @ArgumentClinic(name = "data", conversion = ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @ArgumentClinic(name = "encoding", conversion = ClinicConversion.TString, defaultValue = "T_ASCII_UPPERCASE")
+    @ArgumentClinic(name = "errors", conversion = ClinicConversion.TString, defaultValue = "T_STRICT")
+    @GenerateNodeFactory
+    public abstract static class LoadsNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.LoadsNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        Object loads(VirtualFrame frame, Object data, boolean fixImports, TruffleString encoding, TruffleString errors, Object buffers,
+                        @CachedLibrary("data") PythonBufferAccessLibrary bufferLib,
+                        @Cached UnpicklerNodes.InitUnpicklerNode initNode,
+                        @Cached UnpicklerNodes.LoadNode loadNode) {
+            PUnpickler unpickler = factory().createUnpickler(Unpickler);
+            try {
+                initNode.execute(frame, unpickler, null, fixImports, encoding, errors, buffers);
+                unpickler.setInput(bufferLib.getInternalOrCopiedByteArray(data), bufferLib.getBufferLength(data));
+                return loadNode.execute(frame, unpickler);
+            } finally {
+                bufferLib.release(data, frame, this);
+            }
+        }
+    }
+}
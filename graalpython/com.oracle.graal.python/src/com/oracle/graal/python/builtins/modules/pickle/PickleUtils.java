@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Opcodes and limits of the pickle protocol, see {@code Lib/pickletools.py} for their meaning.
+ */
+public final class PickleUtils {
+    public static final int DEFAULT_PROTOCOL = 4;
+    public static final int HIGHEST_PROTOCOL = 5;
+
+    public static final int BATCHSIZE = 1000;
+    public static final int FAST_NESTING_LIMIT = 50;
+    public static final int FRAME_SIZE_MIN = 4;
+    public static final int FRAME_SIZE_TARGET = 64 * 1024;
+    public static final int FRAME_HEADER_SIZE = 9;
+
+    public static final byte MARK = '(';
+    public static final byte STOP = '.';
+    public static final byte POP = '0';
+    public static final byte POP_MARK = '1';
+    public static final byte DUP = '2';
+    public static final byte FLOAT = 'F';
+    public static final byte INT = 'I';
+    public static final byte BININT = 'J';
+    public static final byte BININT1 = 'K';
+    public static final byte LONG = 'L';
+    public static final byte BININT2 = 'M';
+    public static final byte NONE = 'N';
+    public static final byte PERSID = 'P';
+    public static final byte BINPERSID = 'Q';
+    public static final byte REDUCE = 'R';
+    public static final byte STRING = 'S';
+    public static final byte BINSTRING = 'T';
+    public static final byte SHORT_BINSTRING = 'U';
+    public static final byte UNICODE = 'V';
+    public static final byte BINUNICODE = 'X';
+    public static final byte APPEND = 'a';
+    public static final byte BUILD = 'b';
+    public static final byte GLOBAL = 'c';
+    public static final byte DICT = 'd';
+    public static final byte EMPTY_DICT = '}';
+    public static final byte APPENDS = 'e';
+    public static final byte GET = 'g';
+    public static final byte BINGET = 'h';
+    public static final byte INST = 'i';
+    public static final byte LONG_BINGET = 'j';
+    public static final byte LIST = 'l';
+    public static final byte EMPTY_LIST = ']';
+    public static final byte OBJ = 'o';
+    public static final byte PUT = 'p';
+    public static final byte BINPUT = 'q';
+    public static final byte LONG_BINPUT = 'r';
+    public static final byte SETITEM = 's';
+    public static final byte TUPLE = 't';
+    public static final byte EMPTY_TUPLE = ')';
+    public static final byte SETITEMS = 'u';
+    public static final byte BINFLOAT = 'G';
+
+    // protocol 2
+    public static final byte PROTO = (byte) 0x80;
+    public static final byte NEWOBJ = (byte) 0x81;
+    public static final byte EXT1 = (byte) 0x82;
+    public static final byte EXT2 = (byte) 0x83;
+    public static final byte EXT4 = (byte) 0x84;
+    public static final byte TUPLE1 = (byte) 0x85;
+    public static final byte TUPLE2 = (byte) 0x86;
+    public static final byte TUPLE3 = (byte) 0x87;
+    public static final byte NEWTRUE = (byte) 0x88;
+    public static final byte NEWFALSE = (byte) 0x89;
+    public static final byte LONG1 = (byte) 0x8a;
+    public static final byte LONG4 = (byte) 0x8b;
+
+    // protocol 3
+    public static final byte BINBYTES = 'B';
+    public static final byte SHORT_BINBYTES = 'C';
+
+    // protocol 4
+    public static final byte SHORT_BINUNICODE = (byte) 0x8c;
+    public static final byte BINUNICODE8 = (byte) 0x8d;
+    public static final byte BINBYTES8 = (byte) 0x8e;
+    public static final byte EMPTY_SET = (byte) 0x8f;
+    public static final byte ADDITEMS = (byte) 0x90;
+    public static final byte FROZENSET = (byte) 0x91;
+    public static final byte NEWOBJ_EX = (byte) 0x92;
+    public static final byte STACK_GLOBAL = (byte) 0x93;
+    public static final byte MEMOIZE = (byte) 0x94;
+    public static final byte FRAME = (byte) 0x95;
+
+    // protocol 5
+    public static final byte BYTEARRAY8 = (byte) 0x96;
+    public static final byte NEXT_BUFFER = (byte) 0x97;
+    public static final byte READONLY_BUFFER = (byte) 0x98;
+
+    public static final TruffleString T_COPYREG = tsLiteral("copyreg");
+    public static final TruffleString T_DISPATCH_TABLE = tsLiteral("dispatch_table");
+    public static final TruffleString T_EXTENSION_REGISTRY = tsLiteral("_extension_registry");
+    public static final TruffleString T_INVERTED_REGISTRY = tsLiteral("_inverted_registry");
+    public static final TruffleString T_EXTENSION_CACHE = tsLiteral("_extension_cache");
+    public static final TruffleString T__COMPAT_PICKLE = tsLiteral("_compat_pickle");
+    public static final TruffleString T_NAME_MAPPING = tsLiteral("NAME_MAPPING");
+    public static final TruffleString T_IMPORT_MAPPING = tsLiteral("IMPORT_MAPPING");
+    public static final TruffleString T_REVERSE_NAME_MAPPING = tsLiteral("REVERSE_NAME_MAPPING");
+    public static final TruffleString T_REVERSE_IMPORT_MAPPING = tsLiteral("REVERSE_IMPORT_MAPPING");
+    public static final TruffleString T_FUNCTOOLS = tsLiteral("functools");
+    public static final TruffleString T_PARTIAL = tsLiteral("partial");
+    public static final TruffleString T_LOCALS = tsLiteral("<locals>");
+    public static final TruffleString T_LATIN1 = tsLiteral("latin1");
+    public static final TruffleString T_BYTES_ENCODING = tsLiteral("bytes");
+    public static final TruffleString T_PERSISTENT_ID = tsLiteral("persistent_id");
+    public static final TruffleString T_PERSISTENT_LOAD = tsLiteral("persistent_load");
+    public static final TruffleString T_REDUCER_OVERRIDE = tsLiteral("reducer_override");
+    public static final TruffleString T_FIND_CLASS = tsLiteral("find_class");
+    public static final TruffleString T_ESCAPE_DECODE = tsLiteral("escape_decode");
+    public static final TruffleString T_TOREADONLY = tsLiteral("toreadonly");
+
+    private PickleUtils() {
+        // no instances
+    }
+}
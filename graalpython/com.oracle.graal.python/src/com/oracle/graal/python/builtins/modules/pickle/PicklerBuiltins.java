@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Pickler;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PicklingError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.T_DISPATCH_TABLE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.T_PERSISTENT_ID;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.T_REDUCER_OVERRIDE;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___INIT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = Pickler)
+public class PicklerBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PicklerBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = J___INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file", "protocol", "fix_imports", "buffer_callback"})
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PicklerBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone init(VirtualFrame frame, PPickler self, Object file, Object protocol, boolean fixImports, Object bufferCallback,
+                        @Cached PicklerNodes.InitPicklerNode initNode,
+                        @Cached PyObjectLookupAttr lookupPersistentId,
+                        @Cached PyObjectLookupAttr lookupDispatchTable,
+                        @Cached PyObjectLookupAttr lookupReducerOverride) {
+            initNode.execute(frame, self, file, protocol, fixImports, bufferCallback);
+            // subclasses may define these as methods or class attributes
+            self.setPersistentId(noValueToNull(lookupPersistentId.execute(frame, self, T_PERSISTENT_ID)));
+            self.setDispatchTable(noValueToNull(lookupDispatchTable.execute(frame, self, T_DISPATCH_TABLE)));
+            self.setReducerOverride(noValueToNull(lookupReducerOverride.execute(frame, self, T_REDUCER_OVERRIDE)));
+            return PNone.NONE;
+        }
+
+        private static Object noValueToNull(Object value) {
+            return value == PNone.NO_VALUE ? null : value;
+        }
+    }
+
+    @Builtin(name = "dump", minNumOfPositionalArgs = 2, parameterNames = {"$self", "obj"})
+    @GenerateNodeFactory
+    public abstract static class DumpNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone dump(VirtualFrame frame, PPickler self, Object obj,
+                        @Cached PicklerNodes.DumpNode dumpNode,
+                        @Cached PicklerNodes.FlushToFileNode flushNode) {
+            if (self.getWrite() == null) {
+                throw raise(PicklingError, ErrorMessages.INIT_WAS_NOT_CALLED_BY_P_INIT, "Pickler", self);
+            }
+            self.clearBuffer();
+            dumpNode.execute(frame, self, obj);
+            flushNode.execute(frame, self);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_memo", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ClearMemoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone clearMemo(PPickler self) {
+            self.getMemo().clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "memo", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class MemoNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            return factory().createPicklerMemoProxy(self);
+        }
+
+        @Specialization
+        static Object set(PPickler self, PPicklerMemoProxy value) {
+            self.setMemo(value.getPickler().getMemo().copy());
+            return PNone.NONE;
+        }
+
+        @Specialization
+        Object set(VirtualFrame frame, PPickler self, PDict value,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary hashingLib,
+                        @Cached PyLongAsLongNode asLongNode) {
+            MemoTable memo = new MemoTable();
+            for (DictEntry entry : entries(hashingLib, value.getDictStorage())) {
+                Object item = entry.getValue();
+                if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                    throw raise(TypeError, ErrorMessages.MEMO_VALUES_MUST_BE_2_ITEM_TUPLES);
+                }
+                SequenceStorage pair = ((PTuple) item).getSequenceStorage();
+                memo.put(pair.getItemNormalized(1), (int) asLongNode.execute(frame, pair.getItemNormalized(0)));
+            }
+            self.setMemo(memo);
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static DictEntry[] entries(HashingStorageLibrary hashingLib, HashingStorage storage) {
+            DictEntry[] entries = new DictEntry[hashingLib.length(storage)];
+            int n = 0;
+            for (DictEntry entry : hashingLib.entries(storage)) {
+                entries[n++] = entry;
+            }
+            return entries;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDict(value)", "!isMemoProxy(value)"})
+        Object set(@SuppressWarnings("unused") PPickler self, Object value) {
+            throw raise(TypeError, ErrorMessages.MEMO_MUST_BE_MEMO_PROXY_OR_DICT, "Pickler", value);
+        }
+
+        protected static boolean isMemoProxy(Object value) {
+            return value instanceof PPicklerMemoProxy;
+        }
+    }
+
+    @Builtin(name = "persistent_id", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class PersistentIdNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            if (self.getPersistentId() == null) {
+                throw raise(AttributeError, ErrorMessages.S, T_PERSISTENT_ID);
+            }
+            return self.getPersistentId();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(PPickler self, Object value,
+                        @Cached PyCallableCheckNode callableCheck) {
+            if (!callableCheck.execute(value)) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_A_CALLABLE_TAKING_ONE_ARGUMENT, T_PERSISTENT_ID);
+            }
+            self.setPersistentId(value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dispatch_table", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true, allowsDelete = true)
+    @GenerateNodeFactory
+    public abstract static class DispatchTableNode extends PythonBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            if (self.getDispatchTable() == null) {
+                throw raise(AttributeError, ErrorMessages.S, T_DISPATCH_TABLE);
+            }
+            return self.getDispatchTable();
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDeleteMarker(value)"})
+        static Object set(PPickler self, Object value) {
+            self.setDispatchTable(value);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "isDeleteMarker(value)"})
+        static Object delete(PPickler self, @SuppressWarnings("unused") Object value) {
+            self.setDispatchTable(null);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "bin", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class BinNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static int get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            return self.isBin() ? 1 : 0;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(VirtualFrame frame, PPickler self, Object value,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            self.setBin(isTrueNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "fast", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class FastNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        static int get(PPickler self, @SuppressWarnings("unused") PNone value) {
+            return self.isFast() ? 1 : 0;
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(VirtualFrame frame, PPickler self, Object value,
+                        @Cached PyObjectIsTrueNode isTrueNode) {
+            self.setFast(isTrueNode.execute(frame, value));
+            return PNone.NONE;
+        }
+    }
+}
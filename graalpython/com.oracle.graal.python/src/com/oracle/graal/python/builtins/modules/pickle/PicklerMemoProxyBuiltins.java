@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PicklerMemoProxy;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REDUCE__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.object.ObjectNodes;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyDictSetItem;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+
+@CoreFunctions(extendClasses = PicklerMemoProxy)
+public class PicklerMemoProxyBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PicklerMemoProxyBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Creates the dict {@code {id(obj): (index, obj)}} of a pickler's memo.
+     */
+    abstract static class MemoCopyNode extends Node {
+        static MemoCopyNode create() {
+            return PicklerMemoProxyBuiltinsFactory.MemoCopyNodeGen.create();
+        }
+
+        abstract PDict execute(VirtualFrame frame, PPicklerMemoProxy self);
+
+        @Specialization
+        static PDict copy(VirtualFrame frame, PPicklerMemoProxy self,
+                        @Cached ObjectNodes.GetIdNode getIdNode,
+                        @Cached PyDictSetItem setItem,
+                        @Cached PythonObjectFactory factory) {
+            MemoTable memo = self.getPickler().getMemo();
+            PDict result = factory.createDict();
+            for (int i = 0; i < memo.capacity(); i++) {
+                Object key = memo.keyAt(i);
+                if (key != null) {
+                    PTuple value = factory.createTuple(new Object[]{memo.valueAt(i), key});
+                    setItem.execute(frame, result, getIdNode.execute(key), value);
+                }
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = "clear", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ClearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PNone clear(PPicklerMemoProxy self) {
+            self.getPickler().getMemo().clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PDict copy(VirtualFrame frame, PPicklerMemoProxy self,
+                        @Cached MemoCopyNode copyNode) {
+            return copyNode.execute(frame, self);
+        }
+    }
+
+    @Builtin(name = J___REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple reduce(VirtualFrame frame, PPicklerMemoProxy self,
+                        @Cached MemoCopyNode copyNode) {
+            PTuple args = factory().createTuple(new Object[]{copyNode.execute(frame, self)});
+            return factory().createTuple(new Object[]{PythonBuiltinClassType.PDict, args});
+        }
+    }
+}
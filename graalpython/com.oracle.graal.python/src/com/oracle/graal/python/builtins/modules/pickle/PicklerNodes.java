@@ -0,0 +1,1414 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PicklingError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.io.IONodes.T_WRITE;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.*;
+import static com.oracle.graal.python.nodes.BuiltinNames.T_ENCODE;
+import static com.oracle.graal.python.nodes.BuiltinNames.T_GETATTR;
+import static com.oracle.graal.python.nodes.BuiltinNames.T__CODECS;
+import static com.oracle.graal.python.nodes.BuiltinNames.T___MAIN__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___CLASS__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___MODULE__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___NAME__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___NEWOBJ_EX__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___NEWOBJ__;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___QUALNAME__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T_ITEMS;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___NEW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___REDUCE_EX__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___REDUCE__;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import java.math.BigInteger;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.ellipsis.PEllipsis;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.set.PBaseSet;
+import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyDictGetItem;
+import com.oracle.graal.python.lib.PyIterNextNode;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.lib.PyObjectStrAsTruffleStringNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.object.IsNode;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleString.CodeRange;
+import com.oracle.truffle.api.strings.TruffleStringIterator;
+
+public final class PicklerNodes {
+
+    private PicklerNodes() {
+    }
+
+    /**
+     * Validates the arguments shared by {@code Pickler.__init__} and the module level functions and
+     * resets the pickler. If {@code file} is {@code null}, the pickle is only kept in memory.
+     */
+    public abstract static class InitPicklerNode extends PNodeWithRaise {
+        public static InitPicklerNode create() {
+            return PicklerNodesFactory.InitPicklerNodeGen.create();
+        }
+
+        public abstract void execute(VirtualFrame frame, PPickler self, Object file, Object protocol, boolean fixImports, Object bufferCallback);
+
+        @Specialization
+        void init(VirtualFrame frame, PPickler self, Object file, Object protocol, boolean fixImports, Object bufferCallback,
+                        @Cached PyLongAsLongNode asLongNode,
+                        @Cached PyObjectLookupAttr lookupWrite) {
+            int proto;
+            if (PGuards.isPNone(protocol)) {
+                proto = DEFAULT_PROTOCOL;
+            } else {
+                long value = asLongNode.execute(frame, protocol);
+                if (value < 0) {
+                    proto = HIGHEST_PROTOCOL;
+                } else if (value > HIGHEST_PROTOCOL) {
+                    throw raise(ValueError, ErrorMessages.PICKLE_PROTOCOL_MUST_BE_LE, HIGHEST_PROTOCOL);
+                } else {
+                    proto = (int) value;
+                }
+            }
+            Object callback = null;
+            if (!PGuards.isPNone(bufferCallback)) {
+                if (proto < 5) {
+                    throw raise(ValueError, ErrorMessages.BUFFER_CALLBACK_NEEDS_PROTOCOL_5);
+                }
+                callback = bufferCallback;
+            }
+            self.init(proto, fixImports, callback);
+            if (file != null) {
+                Object write = lookupWrite.execute(frame, file, T_WRITE);
+                if (write == PNone.NO_VALUE) {
+                    throw raise(TypeError, ErrorMessages.FILE_MUST_HAVE_WRITE_ATTR);
+                }
+                self.setWrite(write);
+            }
+        }
+    }
+
+    /**
+     * Hands the buffered output of the pickler to its {@code write} callable.
+     */
+    public abstract static class FlushToFileNode extends Node {
+        public static FlushToFileNode create() {
+            return PicklerNodesFactory.FlushToFileNodeGen.create();
+        }
+
+        public abstract void execute(VirtualFrame frame, PPickler self);
+
+        @Specialization
+        static void flush(VirtualFrame frame, PPickler self,
+                        @Cached PythonObjectFactory factory,
+                        @Cached CallNode callNode) {
+            self.commitFrame();
+            PBytes output = factory.createBytes(PythonUtils.arrayCopyOf(self.getOutput(), self.getOutputLen()));
+            self.clearBuffer();
+            callNode.execute(frame, self.getWrite(), output);
+        }
+    }
+
+    /**
+     * Writes the pickle of an object to the output buffer of the pickler, the equivalent of
+     * {@code dump} in CPython's {@code _pickle.c}. Exact instances of the built-in atomic and
+     * container types are written directly from their storages, everything else goes through
+     * {@code __reduce_ex__}.
+     */
+    public abstract static class DumpNode extends PNodeWithRaiseAndIndirectCall {
+        private static final byte[] LEN_TO_TUPLE_OPCODE = {EMPTY_TUPLE, TUPLE1, TUPLE2, TUPLE3};
+
+        @Child private GetClassNode getClassNode = GetClassNode.create();
+        @Child private IsBuiltinClassProfile isBuiltinClassProfile = IsBuiltinClassProfile.create();
+        @Child private IsBuiltinClassProfile errorProfile = IsBuiltinClassProfile.create();
+        @Child private IsNode isNode = IsNode.create();
+        @Child private TypeNodes.IsTypeNode isTypeNode = TypeNodes.IsTypeNode.create();
+        @Child private PyCallableCheckNode callableCheck = PyCallableCheckNode.create();
+        @Child private PyObjectLookupAttr lookupAttr = PyObjectLookupAttr.create();
+        @Child private PyObjectGetAttr getAttr = PyObjectGetAttr.create();
+        @Child private PyObjectGetItem getItem = PyObjectGetItem.create();
+        @Child private PyDictGetItem dictGetItem = PyDictGetItem.create();
+        @Child private PyObjectGetIter getIter = PyObjectGetIter.create();
+        @Child private PyIterNextNode nextNode = PyIterNextNode.create();
+        @Child private PyObjectIsTrueNode isTrueNode = PyObjectIsTrueNode.create();
+        @Child private CallNode callNode = CallNode.create();
+        @Child private PyLongAsLongNode asLongNode = PyLongAsLongNode.create();
+        @Child private HashingStorageLibrary hashingLib = HashingStorageLibrary.getFactory().createDispatched(4);
+        @Child private PythonBufferAccessLibrary bufferLib = PythonBufferAccessLibrary.getFactory().createDispatched(3);
+        @Child private CastToTruffleStringNode castToStringNode = CastToTruffleStringNode.create();
+        @Child private TruffleString.GetCodeRangeNode getCodeRangeNode = TruffleString.GetCodeRangeNode.create();
+        @Child private TruffleString.SwitchEncodingNode switchEncodingNode = TruffleString.SwitchEncodingNode.create();
+        @Child private TruffleString.CopyToByteArrayNode copyToByteArrayNode = TruffleString.CopyToByteArrayNode.create();
+        @Child private TruffleString.FromByteArrayNode fromByteArrayNode = TruffleString.FromByteArrayNode.create();
+        @Child private TruffleString.CreateCodePointIteratorNode createCodePointIteratorNode = TruffleString.CreateCodePointIteratorNode.create();
+        @Child private TruffleStringIterator.NextNode codePointNextNode = TruffleStringIterator.NextNode.create();
+        @Child private TruffleString.EqualNode equalNode = TruffleString.EqualNode.create();
+        @Child private FlushToFileNode flushToFileNode = FlushToFileNode.create();
+        @Child private PythonObjectFactory factory = PythonObjectFactory.create();
+
+        public static DumpNode create() {
+            return PicklerNodesFactory.DumpNodeGen.create();
+        }
+
+        public abstract void execute(VirtualFrame frame, PPickler self, Object obj);
+
+        @Specialization
+        void dump(VirtualFrame frame, PPickler self, Object obj) {
+            PythonContext context = getContext();
+            PythonLanguage language = getLanguage();
+            Object state = IndirectCallContext.enter(frame, language, context, this);
+            try {
+                dumpBoundary(self, obj);
+            } finally {
+                IndirectCallContext.exit(frame, language, context, state);
+            }
+        }
+
+        @TruffleBoundary
+        private void dumpBoundary(PPickler pickler, Object obj) {
+            int proto = pickler.getProtocol();
+            if (proto >= 2) {
+                pickler.write(PROTO, (byte) proto);
+            }
+            pickler.setFraming(proto >= 4);
+            try {
+                save(pickler, obj, false);
+                pickler.write(STOP);
+                pickler.commitFrame();
+            } finally {
+                pickler.setFraming(false);
+            }
+        }
+
+        private void save(PPickler pickler, Object obj, boolean persSave) {
+            saveObject(pickler, obj, persSave);
+            if (pickler.opcodeBoundary()) {
+                flushToFileNode.execute(null, pickler);
+            }
+        }
+
+        private void saveObject(PPickler pickler, Object obj, boolean persSave) {
+            if (!persSave && pickler.getPersistentId() != null && savePers(pickler, obj)) {
+                return;
+            }
+            // atomic types are never memoized
+            if (obj == PNone.NONE) {
+                pickler.write(NONE);
+                return;
+            } else if (obj instanceof Boolean) {
+                saveBool(pickler, (boolean) obj);
+                return;
+            } else if (obj instanceof Integer) {
+                saveLong(pickler, (int) obj);
+                return;
+            } else if (obj instanceof Long) {
+                saveLong(pickler, (long) obj);
+                return;
+            } else if (obj instanceof Double) {
+                saveFloat(pickler, (double) obj);
+                return;
+            }
+            Object cls = getClassNode.execute(obj);
+            if (obj instanceof PInt && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PInt)) {
+                BigInteger value = ((PInt) obj).getValue();
+                if (value.bitLength() < Long.SIZE) {
+                    saveLong(pickler, value.longValue());
+                } else {
+                    saveBigInteger(pickler, value);
+                }
+                return;
+            } else if (obj instanceof PFloat && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PFloat)) {
+                saveFloat(pickler, ((PFloat) obj).getValue());
+                return;
+            }
+
+            int memoIndex = pickler.getMemo().get(memoKey(obj));
+            if (memoIndex >= 0) {
+                memoGet(pickler, memoIndex);
+                return;
+            }
+
+            if (obj instanceof TruffleString) {
+                saveUnicode(pickler, obj, (TruffleString) obj);
+                return;
+            } else if (obj instanceof PString && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PString)) {
+                saveUnicode(pickler, obj, castToStringNode.execute(obj));
+                return;
+            } else if (obj instanceof PBytes && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PBytes)) {
+                saveBytes(pickler, (PBytes) obj);
+                return;
+            } else if (obj instanceof PDict && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PDict)) {
+                saveDict(pickler, (PDict) obj);
+                return;
+            } else if (obj instanceof PSet && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PSet)) {
+                saveSet(pickler, (PSet) obj);
+                return;
+            } else if (obj instanceof PFrozenSet && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PFrozenSet)) {
+                saveFrozenSet(pickler, (PFrozenSet) obj);
+                return;
+            } else if (obj instanceof PList && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PList)) {
+                saveList(pickler, (PList) obj);
+                return;
+            } else if (obj instanceof PTuple && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PTuple)) {
+                saveTuple(pickler, (PTuple) obj);
+                return;
+            } else if (obj instanceof PByteArray && isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PByteArray)) {
+                saveByteArray(pickler, (PByteArray) obj);
+                return;
+            } else if (obj instanceof PPickleBuffer) {
+                savePickleBuffer(pickler, (PPickleBuffer) obj);
+                return;
+            }
+
+            Object reducerOverride = pickler.getReducerOverride();
+            if (reducerOverride != null) {
+                Object reduceValue = callNode.execute(reducerOverride, obj);
+                if (reduceValue != PNotImplemented.NOT_IMPLEMENTED) {
+                    saveReduceValue(pickler, obj, reduceValue);
+                    return;
+                }
+            }
+            if (isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PythonClass)) {
+                saveType(pickler, obj);
+                return;
+            } else if (isBuiltinClassProfile.profileClass(cls, PythonBuiltinClassType.PFunction)) {
+                saveGlobal(pickler, obj, null);
+                return;
+            }
+
+            Object reduceValue;
+            Object reduceFunc = lookupDispatchTable(pickler, cls);
+            if (reduceFunc != null) {
+                reduceValue = callNode.execute(reduceFunc, obj);
+            } else if (isTypeNode.execute(obj)) {
+                saveGlobal(pickler, obj, null);
+                return;
+            } else {
+                Object reduceEx = lookupAttr.execute(null, obj, T___REDUCE_EX__);
+                if (reduceEx != PNone.NO_VALUE) {
+                    reduceValue = callNode.execute(reduceEx, pickler.getProtocol());
+                } else {
+                    Object reduce = lookupAttr.execute(null, obj, T___REDUCE__);
+                    if (reduce == PNone.NO_VALUE) {
+                        throw raise(PicklingError, ErrorMessages.CANNOT_PICKLE_OBJECT_TYPE, obj);
+                    }
+                    reduceValue = callNode.execute(reduce);
+                }
+            }
+            saveReduceValue(pickler, obj, reduceValue);
+        }
+
+        private void saveReduceValue(PPickler pickler, Object obj, Object reduceValue) {
+            if (PGuards.isString(reduceValue)) {
+                saveGlobal(pickler, obj, castToStringNode.execute(reduceValue));
+            } else if (reduceValue instanceof PTuple) {
+                saveReduce(pickler, (PTuple) reduceValue, obj);
+            } else {
+                throw raise(PicklingError, ErrorMessages.REDUCE_MUST_RETURN_STRING_OR_TUPLE);
+            }
+        }
+
+        /**
+         * Classes may be represented by a {@link PythonBuiltinClassType} or by the corresponding
+         * class object, the memo must see the same key for both.
+         */
+        private Object memoKey(Object obj) {
+            if (obj instanceof PythonBuiltinClassType) {
+                return getContext().lookupType((PythonBuiltinClassType) obj);
+            }
+            return obj;
+        }
+
+        private void memoPut(PPickler pickler, Object obj) {
+            if (pickler.isFast()) {
+                return;
+            }
+            MemoTable memo = pickler.getMemo();
+            int idx = memo.size();
+            memo.put(memoKey(obj), idx);
+            if (pickler.getProtocol() >= 4) {
+                pickler.write(MEMOIZE);
+            } else if (pickler.isBin()) {
+                if (idx < 256) {
+                    pickler.write(BINPUT, (byte) idx);
+                } else {
+                    pickler.writeSized(LONG_BINPUT, idx, 4);
+                }
+            } else {
+                writeText(pickler, PUT, Integer.toString(idx));
+            }
+        }
+
+        private static void memoGet(PPickler pickler, int idx) {
+            if (pickler.isBin()) {
+                if (idx < 256) {
+                    pickler.write(BINGET, (byte) idx);
+                } else {
+                    pickler.writeSized(LONG_BINGET, idx, 4);
+                }
+            } else {
+                writeText(pickler, GET, Integer.toString(idx));
+            }
+        }
+
+        /**
+         * Writes the opcode followed by the ASCII text and a newline, as used by protocol 0.
+         */
+        private static void writeText(PPickler pickler, byte opcode, String text) {
+            pickler.write(opcode);
+            for (int i = 0; i < text.length(); i++) {
+                pickler.write((byte) text.charAt(i));
+            }
+            pickler.write((byte) '\n');
+        }
+
+        /**
+         * Writes a sized opcode and its payload. Large payloads are not framed and, when pickling
+         * to a file, are handed to {@code write} directly instead of being copied into the output.
+         */
+        private void writeBytes(PPickler pickler, byte opcode, long size, int sizeLen, byte[] data, int length, Object payload) {
+            boolean bypassBuffer = length >= FRAME_SIZE_TARGET;
+            boolean framing = pickler.isFraming();
+            if (bypassBuffer) {
+                pickler.commitFrame();
+                pickler.setFraming(false);
+            }
+            pickler.writeSized(opcode, size, sizeLen);
+            if (bypassBuffer && pickler.getWrite() != null) {
+                flushToFileNode.execute(null, pickler);
+                Object out = payload != null ? payload : factory.createBytes(PythonUtils.arrayCopyOf(data, length));
+                callNode.execute(pickler.getWrite(), out);
+            } else {
+                pickler.write(data, 0, length);
+            }
+            pickler.setFraming(framing);
+        }
+
+        private boolean savePers(PPickler pickler, Object obj) {
+            Object pid = callNode.execute(pickler.getPersistentId(), obj);
+            if (pid == PNone.NONE) {
+                return false;
+            }
+            if (pickler.isBin()) {
+                save(pickler, pid, true);
+                pickler.write(BINPERSID);
+            } else {
+                TruffleString pidStr = PyObjectStrAsTruffleStringNode.getUncached().execute(null, pid);
+                if (getCodeRangeNode.execute(pidStr, TS_ENCODING) != CodeRange.ASCII) {
+                    throw raise(PicklingError, ErrorMessages.PERSISTENT_IDS_MUST_BE_ASCII);
+                }
+                writeText(pickler, PERSID, pidStr.toJavaStringUncached());
+            }
+            return true;
+        }
+
+        private static void saveBool(PPickler pickler, boolean value) {
+            if (pickler.getProtocol() >= 2) {
+                pickler.write(value ? NEWTRUE : NEWFALSE);
+            } else {
+                writeText(pickler, INT, value ? "01" : "00");
+            }
+        }
+
+        private static void saveLong(PPickler pickler, long value) {
+            if (value == (int) value) {
+                if (pickler.isBin()) {
+                    if (value >= 0 && value <= 0xff) {
+                        pickler.write(BININT1, (byte) value);
+                    } else if (value >= 0 && value <= 0xffff) {
+                        pickler.writeSized(BININT2, value, 2);
+                    } else {
+                        pickler.writeSized(BININT, value, 4);
+                    }
+                } else {
+                    writeText(pickler, INT, Long.toString(value));
+                }
+            } else if (pickler.getProtocol() >= 2) {
+                saveBigInteger(pickler, BigInteger.valueOf(value));
+            } else {
+                writeText(pickler, LONG, Long.toString(value) + 'L');
+            }
+        }
+
+        private static void saveBigInteger(PPickler pickler, BigInteger value) {
+            if (pickler.getProtocol() >= 2) {
+                if (value.signum() == 0) {
+                    pickler.write(LONG1, (byte) 0);
+                    return;
+                }
+                // little endian two's complement with the minimal number of bytes
+                byte[] bigEndian = value.toByteArray();
+                int n = bigEndian.length;
+                byte[] data = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    data[i] = bigEndian[n - 1 - i];
+                }
+                if (n < 256) {
+                    pickler.write(LONG1, (byte) n);
+                } else {
+                    pickler.writeSized(LONG4, n, 4);
+                }
+                pickler.write(data);
+            } else {
+                writeText(pickler, LONG, value.toString() + 'L');
+            }
+        }
+
+        private static void saveFloat(PPickler pickler, double value) {
+            if (pickler.isBin()) {
+                pickler.writeBigEndianLong(BINFLOAT, Double.doubleToRawLongBits(value));
+            } else {
+                writeText(pickler, FLOAT, PyObjectReprAsTruffleStringNode.getUncached().execute(null, value).toJavaStringUncached());
+            }
+        }
+
+        private void saveUnicode(PPickler pickler, Object obj, TruffleString str) {
+            if (pickler.isBin()) {
+                byte[] data = encodeUTF8(str);
+                int size = data.length;
+                if (size <= 0xff && pickler.getProtocol() >= 4) {
+                    writeBytes(pickler, SHORT_BINUNICODE, size, 1, data, size, null);
+                } else {
+                    writeBytes(pickler, BINUNICODE, size, 4, data, size, null);
+                }
+            } else {
+                pickler.write(UNICODE);
+                writeRawUnicodeEscape(pickler, str);
+                pickler.write((byte) '\n');
+            }
+            memoPut(pickler, obj);
+        }
+
+        /**
+         * Encodes to UTF-8 with the {@code surrogatepass} error handler.
+         */
+        private byte[] encodeUTF8(TruffleString str) {
+            if (getCodeRangeNode.execute(str, TS_ENCODING) != CodeRange.BROKEN) {
+                TruffleString utf8 = switchEncodingNode.execute(str, TruffleString.Encoding.UTF_8);
+                byte[] data = new byte[utf8.byteLength(TruffleString.Encoding.UTF_8)];
+                copyToByteArrayNode.execute(utf8, 0, data, 0, data.length, TruffleString.Encoding.UTF_8);
+                return data;
+            }
+            byte[] data = new byte[str.byteLength(TS_ENCODING)];
+            int n = 0;
+            TruffleStringIterator it = createCodePointIteratorNode.execute(str, TS_ENCODING);
+            while (it.hasNext()) {
+                int c = codePointNextNode.execute(it);
+                if (c < 0x80) {
+                    data[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    data[n++] = (byte) (0xc0 | (c >> 6));
+                    data[n++] = (byte) (0x80 | (c & 0x3f));
+                } else if (c < 0x10000) {
+                    data[n++] = (byte) (0xe0 | (c >> 12));
+                    data[n++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    data[n++] = (byte) (0x80 | (c & 0x3f));
+                } else {
+                    data[n++] = (byte) (0xf0 | (c >> 18));
+                    data[n++] = (byte) (0x80 | ((c >> 12) & 0x3f));
+                    data[n++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    data[n++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            return PythonUtils.arrayCopyOf(data, n);
+        }
+
+        private void writeRawUnicodeEscape(PPickler pickler, TruffleString str) {
+            TruffleStringIterator it = createCodePointIteratorNode.execute(str, TS_ENCODING);
+            while (it.hasNext()) {
+                int c = codePointNextNode.execute(it);
+                if (c >= 0x10000) {
+                    writeHexEscape(pickler, 'U', c, 8);
+                } else if (c >= 256 || c == '\\' || c == '\n') {
+                    writeHexEscape(pickler, 'u', c, 4);
+                } else {
+                    pickler.write((byte) c);
+                }
+            }
+        }
+
+        private static void writeHexEscape(PPickler pickler, char kind, int c, int digits) {
+            pickler.write((byte) '\\', (byte) kind);
+            for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+                pickler.write((byte) Character.forDigit((c >> shift) & 0xf, 16));
+            }
+        }
+
+        private void saveBytes(PPickler pickler, PBytes obj) {
+            byte[] data = bufferLib.getInternalOrCopiedByteArray(obj);
+            int size = bufferLib.getBufferLength(obj);
+            if (pickler.getProtocol() < 3) {
+                // older protocols have no bytes type, so the bytes are reduced to a latin1 string
+                PTuple reduceValue;
+                if (size == 0) {
+                    reduceValue = factory.createTuple(new Object[]{PythonBuiltinClassType.PBytes, factory.createEmptyTuple()});
+                } else {
+                    TruffleString latin1 = fromByteArrayNode.execute(data, 0, size, TruffleString.Encoding.ISO_8859_1, true);
+                    Object codecsEncode = getAttr.execute(null, getContext().lookupBuiltinModule(T__CODECS), T_ENCODE);
+                    Object[] args = {switchEncodingNode.execute(latin1, TS_ENCODING), T_LATIN1};
+                    reduceValue = factory.createTuple(new Object[]{codecsEncode, factory.createTuple(args)});
+                }
+                saveReduce(pickler, reduceValue, obj);
+                return;
+            }
+            if (size <= 0xff) {
+                writeBytes(pickler, SHORT_BINBYTES, size, 1, data, size, obj);
+            } else {
+                writeBytes(pickler, BINBYTES, size, 4, data, size, obj);
+            }
+            memoPut(pickler, obj);
+        }
+
+        private void saveByteArray(PPickler pickler, PByteArray obj) {
+            byte[] data = bufferLib.getInternalOrCopiedByteArray(obj);
+            int size = bufferLib.getBufferLength(obj);
+            if (pickler.getProtocol() < 5) {
+                Object args;
+                if (size == 0) {
+                    args = factory.createEmptyTuple();
+                } else {
+                    args = factory.createTuple(new Object[]{factory.createBytes(PythonUtils.arrayCopyOf(data, size))});
+                }
+                saveReduce(pickler, factory.createTuple(new Object[]{PythonBuiltinClassType.PByteArray, args}), obj);
+                return;
+            }
+            writeBytes(pickler, BYTEARRAY8, size, 8, data, size, obj);
+            memoPut(pickler, obj);
+        }
+
+        private void savePickleBuffer(PPickler pickler, PPickleBuffer obj) {
+            if (pickler.getProtocol() < 5) {
+                throw raise(PicklingError, ErrorMessages.PICKLEBUFFER_NEEDS_PROTOCOL_5);
+            }
+            PMemoryView view = obj.getView();
+            if (view == null) {
+                throw raise(ValueError, ErrorMessages.PICKLEBUFFER_FORBIDDEN_RELEASED);
+            }
+            if (!view.isCContiguous()) {
+                throw raise(PicklingError, ErrorMessages.PICKLEBUFFER_NOT_CONTIGUOUS);
+            }
+            boolean inBand = true;
+            Object bufferCallback = pickler.getBufferCallback();
+            if (bufferCallback != null) {
+                inBand = isTrueNode.execute(null, callNode.execute(bufferCallback, obj));
+            }
+            if (inBand) {
+                byte[] data = bufferLib.getInternalOrCopiedByteArray(view);
+                int size = bufferLib.getBufferLength(view);
+                if (view.isReadOnly()) {
+                    if (size <= 0xff) {
+                        writeBytes(pickler, SHORT_BINBYTES, size, 1, data, size, obj);
+                    } else {
+                        writeBytes(pickler, BINBYTES, size, 4, data, size, obj);
+                    }
+                } else {
+                    writeBytes(pickler, BYTEARRAY8, size, 8, data, size, obj);
+                }
+                memoPut(pickler, obj);
+            } else {
+                pickler.write(NEXT_BUFFER);
+                if (view.isReadOnly()) {
+                    pickler.write(READONLY_BUFFER);
+                }
+            }
+        }
+
+        private void saveTuple(PPickler pickler, PTuple obj) {
+            SequenceStorage storage = obj.getSequenceStorage();
+            int len = storage.length();
+            if (len == 0) {
+                if (pickler.getProtocol() > 0) {
+                    pickler.write(EMPTY_TUPLE);
+                } else {
+                    pickler.write(MARK, TUPLE);
+                }
+                return;
+            }
+            if (len <= 3 && pickler.getProtocol() >= 2) {
+                for (int i = 0; i < len; i++) {
+                    save(pickler, storage.getItemNormalized(i), false);
+                }
+                int memoIndex = pickler.getMemo().get(obj);
+                if (memoIndex >= 0) {
+                    // the tuple is recursive, throw away the elements and fetch it from the memo
+                    for (int i = 0; i < len; i++) {
+                        pickler.write(POP);
+                    }
+                    memoGet(pickler, memoIndex);
+                    return;
+                }
+                pickler.write(LEN_TO_TUPLE_OPCODE[len]);
+            } else {
+                pickler.write(MARK);
+                for (int i = 0; i < len; i++) {
+                    save(pickler, storage.getItemNormalized(i), false);
+                }
+                int memoIndex = pickler.getMemo().get(obj);
+                if (memoIndex >= 0) {
+                    if (pickler.isBin()) {
+                        pickler.write(POP_MARK);
+                    } else {
+                        for (int i = 0; i <= len; i++) {
+                            pickler.write(POP);
+                        }
+                    }
+                    memoGet(pickler, memoIndex);
+                    return;
+                }
+                pickler.write(TUPLE);
+            }
+            memoPut(pickler, obj);
+        }
+
+        private void fastSaveEnter(PPickler pickler, Object obj) {
+            if (pickler.isFast() && !pickler.fastSaveEnter(obj)) {
+                throw raise(ValueError, ErrorMessages.FAST_MODE_CANT_PICKLE_CYCLIC, obj);
+            }
+        }
+
+        private static void fastSaveLeave(PPickler pickler, Object obj) {
+            if (pickler.isFast()) {
+                pickler.fastSaveLeave(obj);
+            }
+        }
+
+        private void saveList(PPickler pickler, PList obj) {
+            fastSaveEnter(pickler, obj);
+            if (pickler.isBin()) {
+                pickler.write(EMPTY_LIST);
+            } else {
+                pickler.write(MARK, LIST);
+            }
+            memoPut(pickler, obj);
+            if (obj.getSequenceStorage().length() != 0) {
+                batchListExact(pickler, obj);
+            }
+            fastSaveLeave(pickler, obj);
+        }
+
+        /**
+         * Saves the items of an exact list directly from its storage. The storage is re-read for
+         * every item, since saving an item may run code that modifies the list.
+         */
+        private void batchListExact(PPickler pickler, PList list) {
+            if (!pickler.isBin()) {
+                for (int i = 0; i < list.getSequenceStorage().length(); i++) {
+                    save(pickler, list.getSequenceStorage().getItemNormalized(i), false);
+                    pickler.write(APPEND);
+                }
+                return;
+            }
+            if (list.getSequenceStorage().length() == 1) {
+                save(pickler, list.getSequenceStorage().getItemNormalized(0), false);
+                pickler.write(APPEND);
+                return;
+            }
+            int total = 0;
+            do {
+                int thisBatch = 0;
+                pickler.write(MARK);
+                while (total < list.getSequenceStorage().length()) {
+                    save(pickler, list.getSequenceStorage().getItemNormalized(total), false);
+                    total++;
+                    if (++thisBatch == BATCHSIZE) {
+                        break;
+                    }
+                }
+                pickler.write(APPENDS);
+            } while (total < list.getSequenceStorage().length());
+        }
+
+        private void batchList(PPickler pickler, Object iterator) {
+            if (!pickler.isBin()) {
+                Object item;
+                while ((item = nextNode.execute(null, iterator)) != null) {
+                    save(pickler, item, false);
+                    pickler.write(APPEND);
+                }
+                return;
+            }
+            int n;
+            do {
+                Object firstItem = nextNode.execute(null, iterator);
+                if (firstItem == null) {
+                    break;
+                }
+                Object item = nextNode.execute(null, iterator);
+                if (item == null) {
+                    // only one item to write
+                    save(pickler, firstItem, false);
+                    pickler.write(APPEND);
+                    break;
+                }
+                pickler.write(MARK);
+                save(pickler, firstItem, false);
+                n = 1;
+                while (item != null) {
+                    save(pickler, item, false);
+                    n++;
+                    if (n == BATCHSIZE) {
+                        break;
+                    }
+                    item = nextNode.execute(null, iterator);
+                }
+                pickler.write(APPENDS);
+            } while (n == BATCHSIZE);
+        }
+
+        private void saveDict(PPickler pickler, PDict obj) {
+            fastSaveEnter(pickler, obj);
+            if (pickler.isBin()) {
+                pickler.write(EMPTY_DICT);
+            } else {
+                pickler.write(MARK, DICT);
+            }
+            memoPut(pickler, obj);
+            if (hashingLib.length(obj.getDictStorage()) != 0) {
+                if (pickler.getProtocol() > 0) {
+                    batchDictExact(pickler, obj);
+                } else {
+                    batchDict(pickler, getIter.execute(null, callNode.execute(getAttr.execute(null, obj, T_ITEMS))));
+                }
+            }
+            fastSaveLeave(pickler, obj);
+        }
+
+        /**
+         * Saves the items of an exact dict directly from its storage. Saving the items may run
+         * arbitrary code, so they are copied out of the storage first and a change of the dict's
+         * size is reported like in CPython.
+         */
+        private void batchDictExact(PPickler pickler, PDict dict) {
+            HashingStorage storage = dict.getDictStorage();
+            int size = hashingLib.length(storage);
+            Object[] keys = new Object[size];
+            Object[] values = new Object[size];
+            int n = 0;
+            for (DictEntry entry : hashingLib.entries(storage)) {
+                keys[n] = entry.getKey();
+                values[n] = entry.getValue();
+                n++;
+            }
+            if (size == 1) {
+                save(pickler, keys[0], false);
+                save(pickler, values[0], false);
+                pickler.write(SETITEM);
+                return;
+            }
+            int pos = 0;
+            int i;
+            do {
+                i = 0;
+                pickler.write(MARK);
+                while (pos < size) {
+                    save(pickler, keys[pos], false);
+                    save(pickler, values[pos], false);
+                    pos++;
+                    if (++i == BATCHSIZE) {
+                        break;
+                    }
+                }
+                pickler.write(SETITEMS);
+                if (hashingLib.length(dict.getDictStorage()) != size) {
+                    throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "dictionary");
+                }
+            } while (i == BATCHSIZE);
+        }
+
+        private void batchDict(PPickler pickler, Object iterator) {
+            if (!pickler.isBin()) {
+                Object item;
+                while ((item = nextNode.execute(null, iterator)) != null) {
+                    PTuple pair = checkDictItem(item);
+                    save(pickler, pair.getSequenceStorage().getItemNormalized(0), false);
+                    save(pickler, pair.getSequenceStorage().getItemNormalized(1), false);
+                    pickler.write(SETITEM);
+                }
+                return;
+            }
+            int n;
+            do {
+                Object firstItem = nextNode.execute(null, iterator);
+                if (firstItem == null) {
+                    break;
+                }
+                PTuple firstPair = checkDictItem(firstItem);
+                Object item = nextNode.execute(null, iterator);
+                if (item == null) {
+                    // only one item to write
+                    save(pickler, firstPair.getSequenceStorage().getItemNormalized(0), false);
+                    save(pickler, firstPair.getSequenceStorage().getItemNormalized(1), false);
+                    pickler.write(SETITEM);
+                    break;
+                }
+                pickler.write(MARK);
+                save(pickler, firstPair.getSequenceStorage().getItemNormalized(0), false);
+                save(pickler, firstPair.getSequenceStorage().getItemNormalized(1), false);
+                n = 1;
+                while (item != null) {
+                    PTuple pair = checkDictItem(item);
+                    save(pickler, pair.getSequenceStorage().getItemNormalized(0), false);
+                    save(pickler, pair.getSequenceStorage().getItemNormalized(1), false);
+                    n++;
+                    if (n == BATCHSIZE) {
+                        break;
+                    }
+                    item = nextNode.execute(null, iterator);
+                }
+                pickler.write(SETITEMS);
+            } while (n == BATCHSIZE);
+        }
+
+        private PTuple checkDictItem(Object item) {
+            if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                throw raise(TypeError, ErrorMessages.DICT_ITEMS_ITERATOR_MUST_RETURN_2_TUPLES);
+            }
+            return (PTuple) item;
+        }
+
+        private Object[] setItems(PBaseSet set) {
+            HashingStorage storage = set.getDictStorage();
+            Object[] items = new Object[hashingLib.length(storage)];
+            int n = 0;
+            for (Object key : hashingLib.keys(storage)) {
+                items[n++] = key;
+            }
+            return items;
+        }
+
+        private void saveSet(PPickler pickler, PSet obj) {
+            Object[] items = setItems(obj);
+            if (pickler.getProtocol() < 4) {
+                Object args = factory.createTuple(new Object[]{factory.createList(items)});
+                saveReduce(pickler, factory.createTuple(new Object[]{PythonBuiltinClassType.PSet, args}), obj);
+                return;
+            }
+            pickler.write(EMPTY_SET);
+            memoPut(pickler, obj);
+            int size = items.length;
+            if (size == 0) {
+                return;
+            }
+            int pos = 0;
+            int i;
+            do {
+                i = 0;
+                pickler.write(MARK);
+                while (pos < size) {
+                    save(pickler, items[pos++], false);
+                    if (++i == BATCHSIZE) {
+                        break;
+                    }
+                }
+                pickler.write(ADDITEMS);
+                if (hashingLib.length(obj.getDictStorage()) != size) {
+                    throw raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "set");
+                }
+            } while (i == BATCHSIZE);
+        }
+
+        private void saveFrozenSet(PPickler pickler, PFrozenSet obj) {
+            Object[] items = setItems(obj);
+            if (pickler.getProtocol() < 4) {
+                Object args = factory.createTuple(new Object[]{factory.createList(items)});
+                saveReduce(pickler, factory.createTuple(new Object[]{PythonBuiltinClassType.PFrozenSet, args}), obj);
+                return;
+            }
+            pickler.write(MARK);
+            for (Object item : items) {
+                save(pickler, item, false);
+            }
+            int memoIndex = pickler.getMemo().get(obj);
+            if (memoIndex >= 0) {
+                // the frozenset is recursive, throw away the items and fetch it from the memo
+                pickler.write(POP_MARK);
+                memoGet(pickler, memoIndex);
+                return;
+            }
+            pickler.write(FROZENSET);
+            memoPut(pickler, obj);
+        }
+
+        private void saveType(PPickler pickler, Object obj) {
+            Object singleton = null;
+            if (isBuiltinClassProfile.profileClass(obj, PythonBuiltinClassType.PNone)) {
+                singleton = PNone.NONE;
+            } else if (isBuiltinClassProfile.profileClass(obj, PythonBuiltinClassType.PEllipsis)) {
+                singleton = PEllipsis.INSTANCE;
+            } else if (isBuiltinClassProfile.profileClass(obj, PythonBuiltinClassType.PNotImplemented)) {
+                singleton = PNotImplemented.NOT_IMPLEMENTED;
+            }
+            if (singleton != null) {
+                Object args = factory.createTuple(new Object[]{singleton});
+                saveReduce(pickler, factory.createTuple(new Object[]{PythonBuiltinClassType.PythonClass, args}), obj);
+            } else {
+                saveGlobal(pickler, obj, null);
+            }
+        }
+
+        private Object getCopyreg(PPickler pickler) {
+            Object copyreg = pickler.getCopyreg();
+            if (copyreg == null) {
+                copyreg = AbstractImportNode.importModule(T_COPYREG);
+                pickler.setCopyreg(copyreg);
+            }
+            return copyreg;
+        }
+
+        private Object lookupDispatchTable(PPickler pickler, Object cls) {
+            Object dispatchTable = pickler.getDispatchTable();
+            if (dispatchTable == null) {
+                Object table = getAttr.execute(null, getCopyreg(pickler), T_DISPATCH_TABLE);
+                if (table instanceof PDict) {
+                    return dictGetItem.execute(null, (PDict) table, cls);
+                }
+                dispatchTable = table;
+            }
+            try {
+                return getItem.execute(null, dispatchTable, cls);
+            } catch (PException e) {
+                e.expect(PythonBuiltinClassType.KeyError, errorProfile);
+                return null;
+            }
+        }
+
+        private TruffleString[] getDottedPath(TruffleString name) {
+            String[] parts = name.toJavaStringUncached().split("\\.", -1);
+            TruffleString[] path = new TruffleString[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                path[i] = PythonUtils.toTruffleStringUncached(parts[i]);
+            }
+            for (TruffleString part : path) {
+                if (equalNode.execute(part, T_LOCALS, TS_ENCODING)) {
+                    throw raise(AttributeError, ErrorMessages.CANT_PICKLE_LOCAL_OBJECT, repr(name));
+                }
+            }
+            return path;
+        }
+
+        private Object getDeepAttribute(Object obj, TruffleString[] path, Object[] parent) {
+            Object result = obj;
+            for (TruffleString name : path) {
+                if (parent != null) {
+                    parent[0] = result;
+                }
+                result = getAttr.execute(null, result, name);
+            }
+            return result;
+        }
+
+        private Object whichModule(Object obj, TruffleString[] dottedPath) {
+            Object moduleName = lookupAttr.execute(null, obj, T___MODULE__);
+            if (moduleName != PNone.NO_VALUE && moduleName != PNone.NONE) {
+                return moduleName;
+            }
+            // fall back on walking sys.modules
+            HashingStorage modules = getContext().getSysModules().getDictStorage();
+            int size = hashingLib.length(modules);
+            Object[] names = new Object[size];
+            Object[] values = new Object[size];
+            int n = 0;
+            for (DictEntry entry : hashingLib.entries(modules)) {
+                names[n] = entry.getKey();
+                values[n] = entry.getValue();
+                n++;
+            }
+            for (int i = 0; i < n; i++) {
+                Object name = names[i];
+                Object module = values[i];
+                if (module == PNone.NONE || (PGuards.isString(name) && equalNode.execute(castToStringNode.execute(name), T___MAIN__, TS_ENCODING))) {
+                    continue;
+                }
+                Object candidate;
+                try {
+                    candidate = getDeepAttribute(module, dottedPath, null);
+                } catch (PException e) {
+                    continue;
+                }
+                if (isNode.execute(candidate, obj)) {
+                    return name;
+                }
+            }
+            return T___MAIN__;
+        }
+
+        private static TruffleString repr(Object obj) {
+            return PyObjectReprAsTruffleStringNode.getUncached().execute(null, obj);
+        }
+
+        private TruffleString castToString(Object obj, TruffleString what) {
+            try {
+                return castToStringNode.execute(obj);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.ATTR_MUST_BE_STR_NOT_P, what, obj);
+            }
+        }
+
+        private void saveGlobal(PPickler pickler, Object obj, TruffleString name) {
+            Object globalNameObj = name;
+            if (globalNameObj == null) {
+                globalNameObj = lookupAttr.execute(null, obj, T___QUALNAME__);
+                if (globalNameObj == PNone.NO_VALUE) {
+                    globalNameObj = getAttr.execute(null, obj, T___NAME__);
+                }
+            }
+            TruffleString globalName = castToString(globalNameObj, T___QUALNAME__);
+            TruffleString[] dottedPath = getDottedPath(globalName);
+            TruffleString moduleName = castToString(whichModule(obj, dottedPath), T___MODULE__);
+
+            Object module;
+            try {
+                module = AbstractImportNode.importModule(moduleName);
+            } catch (PException e) {
+                throw raise(PicklingError, ErrorMessages.CANT_PICKLE_IMPORT_FAILED, repr(obj), repr(moduleName));
+            }
+            Object[] parent = new Object[1];
+            Object cls;
+            try {
+                cls = getDeepAttribute(module, dottedPath, parent);
+            } catch (PException e) {
+                throw raise(PicklingError, ErrorMessages.CANT_PICKLE_ATTR_LOOKUP_FAILED, repr(obj), globalName, moduleName);
+            }
+            if (!isNode.execute(cls, obj)) {
+                throw raise(PicklingError, ErrorMessages.CANT_PICKLE_NOT_SAME_OBJECT, repr(obj), moduleName, globalName);
+            }
+            TruffleString lastName = dottedPath[dottedPath.length - 1];
+
+            if (pickler.getProtocol() >= 2) {
+                // see whether the global is registered as an extension
+                Object registry = getAttr.execute(null, getCopyreg(pickler), T_EXTENSION_REGISTRY);
+                if (registry instanceof PDict) {
+                    Object codeObj = dictGetItem.execute(null, (PDict) registry, factory.createTuple(new Object[]{moduleName, globalName}));
+                    if (codeObj != null) {
+                        saveExtension(pickler, obj, codeObj);
+                        return;
+                    }
+                }
+            }
+
+            boolean parentIsModule = isNode.execute(parent[0], module);
+            if (parentIsModule) {
+                globalName = lastName;
+            }
+            if (pickler.getProtocol() >= 4) {
+                save(pickler, moduleName, false);
+                save(pickler, globalName, false);
+                pickler.write(STACK_GLOBAL);
+            } else if (!parentIsModule) {
+                Object getattr = getAttr.execute(null, getContext().getBuiltins(), T_GETATTR);
+                Object args = factory.createTuple(new Object[]{parent[0], lastName});
+                saveReduce(pickler, factory.createTuple(new Object[]{getattr, args}), null);
+            } else {
+                if (pickler.isFixImports()) {
+                    TruffleString[] fixed = reverseFixImports(moduleName, globalName);
+                    moduleName = fixed[0];
+                    globalName = fixed[1];
+                }
+                pickler.write(GLOBAL);
+                writeIdentifier(pickler, moduleName, ErrorMessages.CANT_PICKLE_MODULE_IDENTIFIER);
+                writeIdentifier(pickler, globalName, ErrorMessages.CANT_PICKLE_GLOBAL_IDENTIFIER);
+            }
+            memoPut(pickler, obj);
+        }
+
+        /**
+         * Writes a module or global name of the GLOBAL opcode, which is restricted to ASCII before
+         * protocol 3.
+         */
+        private void writeIdentifier(PPickler pickler, TruffleString identifier, TruffleString errorMessage) {
+            if (pickler.getProtocol() < 3 && getCodeRangeNode.execute(identifier, TS_ENCODING) != CodeRange.ASCII) {
+                throw raise(PicklingError, errorMessage, identifier, pickler.getProtocol());
+            }
+            pickler.write(encodeUTF8(identifier));
+            pickler.write((byte) '\n');
+        }
+
+        private void saveExtension(PPickler pickler, Object obj, Object codeObj) {
+            if (!(codeObj instanceof Integer || codeObj instanceof Long || codeObj instanceof PInt)) {
+                throw raise(PicklingError, ErrorMessages.CANT_PICKLE_EXTENSION_CODE_NOT_INT, repr(obj), repr(codeObj));
+            }
+            long code = asLongNode.execute(null, codeObj);
+            if (code <= 0 || code > 0x7fffffffL) {
+                throw raise(PicklingError, ErrorMessages.CANT_PICKLE_EXTENSION_CODE_OUT_OF_RANGE, repr(obj), code);
+            }
+            if (code <= 0xff) {
+                pickler.write(EXT1, (byte) code);
+            } else if (code <= 0xffff) {
+                pickler.writeSized(EXT2, code, 2);
+            } else {
+                pickler.writeSized(EXT4, code, 4);
+            }
+        }
+
+        /**
+         * Maps the names of Python 3 modules and globals to their Python 2 names using the reverse
+         * mappings of {@code _compat_pickle}.
+         */
+        private TruffleString[] reverseFixImports(TruffleString moduleName, TruffleString globalName) {
+            Object compatPickle = AbstractImportNode.importModule(T__COMPAT_PICKLE);
+            Object nameMapping = getAttr.execute(null, compatPickle, T_REVERSE_NAME_MAPPING);
+            Object importMapping = getAttr.execute(null, compatPickle, T_REVERSE_IMPORT_MAPPING);
+            if (!(nameMapping instanceof PDict)) {
+                throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_MAPPING_MUST_BE_DICT, T_REVERSE_NAME_MAPPING, nameMapping);
+            }
+            if (!(importMapping instanceof PDict)) {
+                throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_MAPPING_MUST_BE_DICT, T_REVERSE_IMPORT_MAPPING, importMapping);
+            }
+            Object item = dictGetItem.execute(null, (PDict) nameMapping, factory.createTuple(new Object[]{moduleName, globalName}));
+            if (item != null) {
+                if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                    throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_MAPPING_VALUES_2_TUPLES, T_REVERSE_NAME_MAPPING, item);
+                }
+                SequenceStorage pair = ((PTuple) item).getSequenceStorage();
+                Object fixedModule = pair.getItemNormalized(0);
+                Object fixedName = pair.getItemNormalized(1);
+                if (!PGuards.isString(fixedModule) || !PGuards.isString(fixedName)) {
+                    throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_MAPPING_VALUES_2_TUPLES, T_REVERSE_NAME_MAPPING, item);
+                }
+                return new TruffleString[]{castToStringNode.execute(fixedModule), castToStringNode.execute(fixedName)};
+            }
+            item = dictGetItem.execute(null, (PDict) importMapping, moduleName);
+            if (item != null) {
+                if (!PGuards.isString(item)) {
+                    throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_MAPPING_VALUES_STRINGS, T_REVERSE_IMPORT_MAPPING, item);
+                }
+                return new TruffleString[]{castToStringNode.execute(item), globalName};
+            }
+            return new TruffleString[]{moduleName, globalName};
+        }
+
+        private boolean isIterator(Object obj) {
+            return lookupAttr.execute(null, getClassNode.execute(obj), T___NEXT__) != PNone.NO_VALUE;
+        }
+
+        private void saveReduce(PPickler pickler, PTuple reduceValue, Object obj) {
+            SequenceStorage storage = reduceValue.getSequenceStorage();
+            int size = storage.length();
+            if (size < 2 || size > 6) {
+                throw raise(PicklingError, ErrorMessages.REDUCE_TUPLE_SIZE);
+            }
+            Object callable = storage.getItemNormalized(0);
+            Object argtup = storage.getItemNormalized(1);
+            Object state = size > 2 ? storage.getItemNormalized(2) : PNone.NONE;
+            Object listItems = size > 3 ? storage.getItemNormalized(3) : PNone.NONE;
+            Object dictItems = size > 4 ? storage.getItemNormalized(4) : PNone.NONE;
+            Object stateSetter = size > 5 ? storage.getItemNormalized(5) : PNone.NONE;
+
+            if (!callableCheck.execute(callable)) {
+                throw raise(PicklingError, ErrorMessages.REDUCE_FIRST_ITEM_MUST_BE_CALLABLE);
+            }
+            if (!(argtup instanceof PTuple)) {
+                throw raise(PicklingError, ErrorMessages.REDUCE_SECOND_ITEM_MUST_BE_TUPLE);
+            }
+            if (listItems != PNone.NONE && !isIterator(listItems)) {
+                throw raise(PicklingError, ErrorMessages.REDUCE_FOURTH_ITEM_MUST_BE_ITERATOR, listItems);
+            }
+            if (dictItems != PNone.NONE && !isIterator(dictItems)) {
+                throw raise(PicklingError, ErrorMessages.REDUCE_FIFTH_ITEM_MUST_BE_ITERATOR, dictItems);
+            }
+            if (stateSetter != PNone.NONE && !callableCheck.execute(stateSetter)) {
+                throw raise(PicklingError, ErrorMessages.REDUCE_SIXTH_ITEM_MUST_BE_CALLABLE, stateSetter);
+            }
+
+            boolean useNewobj = false;
+            boolean useNewobjEx = false;
+            if (pickler.getProtocol() >= 2) {
+                Object name = lookupAttr.execute(null, callable, T___NAME__);
+                if (PGuards.isString(name)) {
+                    TruffleString nameStr = castToStringNode.execute(name);
+                    useNewobjEx = equalNode.execute(nameStr, T___NEWOBJ_EX__, TS_ENCODING);
+                    useNewobj = !useNewobjEx && equalNode.execute(nameStr, T___NEWOBJ__, TS_ENCODING);
+                }
+            }
+
+            SequenceStorage args = ((PTuple) argtup).getSequenceStorage();
+            if (useNewobjEx) {
+                if (args.length() != 3) {
+                    throw raise(PicklingError, ErrorMessages.NEWOBJ_EX_ARGS_LENGTH, args.length());
+                }
+                Object cls = args.getItemNormalized(0);
+                Object newArgs = args.getItemNormalized(1);
+                Object kwargs = args.getItemNormalized(2);
+                if (!isTypeNode.execute(cls)) {
+                    throw raise(PicklingError, ErrorMessages.NEWOBJ_EX_FIRST_ITEM_MUST_BE_CLASS, cls);
+                }
+                if (!(newArgs instanceof PTuple)) {
+                    throw raise(PicklingError, ErrorMessages.NEWOBJ_EX_SECOND_ITEM_MUST_BE_TUPLE, newArgs);
+                }
+                if (!(kwargs instanceof PDict)) {
+                    throw raise(PicklingError, ErrorMessages.NEWOBJ_EX_THIRD_ITEM_MUST_BE_DICT, kwargs);
+                }
+                if (pickler.getProtocol() >= 4) {
+                    save(pickler, cls, false);
+                    save(pickler, newArgs, false);
+                    save(pickler, kwargs, false);
+                    pickler.write(NEWOBJ_EX);
+                } else {
+                    // emulate NEWOBJ_EX with functools.partial(cls.__new__, cls, *args, **kwargs)
+                    SequenceStorage newArgsStorage = ((PTuple) newArgs).getSequenceStorage();
+                    Object[] partialArgs = new Object[newArgsStorage.length() + 2];
+                    partialArgs[0] = getAttr.execute(null, cls, T___NEW__);
+                    partialArgs[1] = cls;
+                    for (int i = 0; i < newArgsStorage.length(); i++) {
+                        partialArgs[i + 2] = newArgsStorage.getItemNormalized(i);
+                    }
+                    HashingStorage kwargsStorage = ((PDict) kwargs).getDictStorage();
+                    PKeyword[] keywords = new PKeyword[hashingLib.length(kwargsStorage)];
+                    int n = 0;
+                    for (DictEntry entry : hashingLib.entries(kwargsStorage)) {
+                        keywords[n++] = new PKeyword(castToString(entry.getKey(), T___NEWOBJ_EX__), entry.getValue());
+                    }
+                    Object partial = getAttr.execute(null, AbstractImportNode.importModule(T_FUNCTOOLS), T_PARTIAL);
+                    save(pickler, callNode.execute(partial, partialArgs, keywords), false);
+                    save(pickler, factory.createEmptyTuple(), false);
+                    pickler.write(REDUCE);
+                }
+            } else if (useNewobj) {
+                if (args.length() == 0) {
+                    throw raise(PicklingError, ErrorMessages.NEWOBJ_ARGLIST_EMPTY);
+                }
+                Object cls = args.getItemNormalized(0);
+                if (!isTypeNode.execute(cls)) {
+                    throw raise(PicklingError, ErrorMessages.NEWOBJ_ARGS0_NOT_A_TYPE);
+                }
+                if (obj != null) {
+                    Object objClass = getAttr.execute(null, obj, T___CLASS__);
+                    if (!isNode.execute(objClass, cls)) {
+                        throw raise(PicklingError, ErrorMessages.NEWOBJ_ARGS0_WRONG_CLASS);
+                    }
+                }
+                save(pickler, cls, false);
+                Object[] rest = new Object[args.length() - 1];
+                for (int i = 0; i < rest.length; i++) {
+                    rest[i] = args.getItemNormalized(i + 1);
+                }
+                save(pickler, factory.createTuple(rest), false);
+                pickler.write(NEWOBJ);
+            } else {
+                save(pickler, callable, false);
+                save(pickler, argtup, false);
+                pickler.write(REDUCE);
+            }
+
+            if (obj != null) {
+                int memoIndex = pickler.getMemo().get(memoKey(obj));
+                if (memoIndex >= 0) {
+                    // the object is recursive, throw away the result and fetch it from the memo
+                    pickler.write(POP);
+                    memoGet(pickler, memoIndex);
+                } else {
+                    memoPut(pickler, obj);
+                }
+            }
+            if (listItems != PNone.NONE) {
+                batchList(pickler, listItems);
+            }
+            if (dictItems != PNone.NONE) {
+                batchDict(pickler, dictItems);
+            }
+            if (state != PNone.NONE) {
+                if (stateSetter == PNone.NONE) {
+                    save(pickler, state, false);
+                    pickler.write(BUILD);
+                } else {
+                    // call state_setter(obj, state) and discard the result to keep the stack intact
+                    save(pickler, stateSetter, false);
+                    save(pickler, obj, false);
+                    save(pickler, state, false);
+                    pickler.write(TUPLE2);
+                    pickler.write(REDUCE);
+                    pickler.write(POP);
+                }
+            }
+        }
+    }
+}
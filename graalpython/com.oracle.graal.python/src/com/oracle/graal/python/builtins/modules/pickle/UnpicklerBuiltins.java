@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Unpickler;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.UnpicklingError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.T_PERSISTENT_LOAD;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___INIT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.lib.PyCallableCheckNode;
+import com.oracle.graal.python.lib.PyLongAsLongNode;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = Unpickler)
+public class UnpicklerBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return UnpicklerBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = J___INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @ArgumentClinic(name = "encoding", conversion = ClinicConversion.TString, defaultValue = "T_ASCII_UPPERCASE")
+    @ArgumentClinic(name = "errors", conversion = ClinicConversion.TString, defaultValue = "T_STRICT")
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnpicklerBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone init(VirtualFrame frame, PUnpickler self, Object file, boolean fixImports, TruffleString encoding, TruffleString errors, Object buffers,
+                        @Cached UnpicklerNodes.InitUnpicklerNode initNode,
+                        @Cached PyObjectLookupAttr lookupPersistentLoad) {
+            initNode.execute(frame, self, file, fixImports, encoding, errors, buffers);
+            Object persistentLoad = lookupPersistentLoad.execute(frame, self, T_PERSISTENT_LOAD);
+            self.setPersistentLoad(persistentLoad == PNone.NO_VALUE ? null : persistentLoad);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "load", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class LoadNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object load(VirtualFrame frame, PUnpickler self,
+                        @Cached UnpicklerNodes.LoadNode loadNode) {
+            if (self.getRead() == null) {
+                throw raise(UnpicklingError, ErrorMessages.INIT_WAS_NOT_CALLED_BY_P_INIT, "Unpickler", self);
+            }
+            return loadNode.execute(frame, self);
+        }
+    }
+
+    @Builtin(name = "find_class", minNumOfPositionalArgs = 3, parameterNames = {"$self", "module_name", "global_name"})
+    @GenerateNodeFactory
+    public abstract static class FindClassNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        static Object findClass(VirtualFrame frame, PUnpickler self, Object moduleName, Object globalName,
+                        @Cached UnpicklerNodes.FindClassNode findClassNode) {
+            return findClassNode.execute(frame, self, moduleName, globalName);
+        }
+    }
+
+    @Builtin(name = "memo", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class MemoNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PUnpickler self, @SuppressWarnings("unused") PNone value) {
+            return factory().createUnpicklerMemoProxy(self);
+        }
+
+        @Specialization
+        static Object set(PUnpickler self, PUnpicklerMemoProxy value) {
+            PUnpickler other = value.getUnpickler();
+            Object[] otherMemo = other.getMemo();
+            self.memoClear();
+            for (int i = 0; i < otherMemo.length; i++) {
+                if (otherMemo[i] != null) {
+                    self.memoPut(i, otherMemo[i]);
+                }
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization
+        Object set(VirtualFrame frame, PUnpickler self, PDict value,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary hashingLib,
+                        @Cached PyLongAsLongNode asLongNode) {
+            DictEntry[] entries = entries(hashingLib, value.getDictStorage());
+            long[] indices = new long[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                indices[i] = asLongNode.execute(frame, entries[i].getKey());
+                if (indices[i] < 0) {
+                    throw raise(ValueError, ErrorMessages.MEMO_KEY_MUST_BE_POSITIVE_INTEGERS);
+                }
+            }
+            self.memoClear();
+            for (int i = 0; i < entries.length; i++) {
+                self.memoPut((int) indices[i], entries[i].getValue());
+            }
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static DictEntry[] entries(HashingStorageLibrary hashingLib, HashingStorage storage) {
+            DictEntry[] entries = new DictEntry[hashingLib.length(storage)];
+            int n = 0;
+            for (DictEntry entry : hashingLib.entries(storage)) {
+                entries[n++] = entry;
+            }
+            return entries;
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDict(value)", "!isMemoProxy(value)"})
+        Object set(@SuppressWarnings("unused") PUnpickler self, Object value) {
+            throw raise(TypeError, ErrorMessages.MEMO_MUST_BE_MEMO_PROXY_OR_DICT, "Unpickler", value);
+        }
+
+        protected static boolean isMemoProxy(Object value) {
+            return value instanceof PUnpicklerMemoProxy;
+        }
+    }
+
+    @Builtin(name = "persistent_load", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class PersistentLoadNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(value)")
+        Object get(PUnpickler self, @SuppressWarnings("unused") PNone value) {
+            if (self.getPersistentLoad() == null) {
+                throw raise(AttributeError, ErrorMessages.S, T_PERSISTENT_LOAD);
+            }
+            return self.getPersistentLoad();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        Object set(PUnpickler self, Object value,
+                        @Cached PyCallableCheckNode callableCheck) {
+            if (!callableCheck.execute(value)) {
+                throw raise(TypeError, ErrorMessages.S_MUST_BE_A_CALLABLE_TAKING_ONE_ARGUMENT, T_PERSISTENT_LOAD);
+            }
+            self.setPersistentLoad(value);
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,1230 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.EOFError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.KeyError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.UnpicklingError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins.T_RAW_UNICODE_ESCAPE;
+import static com.oracle.graal.python.builtins.modules.io.IONodes.T_READ;
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.*;
+import static com.oracle.graal.python.nodes.BuiltinNames.T_ADD;
+import static com.oracle.graal.python.nodes.BuiltinNames.T_APPEND;
+import static com.oracle.graal.python.nodes.BuiltinNames.T_EXTEND;
+import static com.oracle.graal.python.nodes.BuiltinNames.T_READLINE;
+import static com.oracle.graal.python.nodes.BuiltinNames.T__CODECS;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.T___DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___GETINITARGS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___NEW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.T___SETSTATE__;
+import static com.oracle.graal.python.nodes.StringLiterals.T_STRICT;
+import static com.oracle.graal.python.nodes.StringLiterals.T_SURROGATEPASS;
+import static com.oracle.graal.python.nodes.StringLiterals.T_UTF8;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import java.math.BigInteger;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes;
+import com.oracle.graal.python.lib.PyDictGetItem;
+import com.oracle.graal.python.lib.PyDictSetItem;
+import com.oracle.graal.python.lib.PyFloatFromString;
+import com.oracle.graal.python.lib.PyIterNextNode;
+import com.oracle.graal.python.lib.PyMemoryViewFromObject;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectLookupAttr;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.lib.PyObjectSetAttr;
+import com.oracle.graal.python.lib.PyObjectSetItem;
+import com.oracle.graal.python.lib.PyUnicodeDecode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleString.CodeRange;
+
+public final class UnpicklerNodes {
+
+    private UnpicklerNodes() {
+    }
+
+    /**
+     * Validates the arguments shared by {@code Unpickler.__init__} and the module level functions and
+     * resets the unpickler. If {@code file} is {@code null}, the input is set separately.
+     */
+    public abstract static class InitUnpicklerNode extends PNodeWithRaise {
+        public static InitUnpicklerNode create() {
+            return UnpicklerNodesFactory.InitUnpicklerNodeGen.create();
+        }
+
+        public abstract void execute(VirtualFrame frame, PUnpickler self, Object file, boolean fixImports, TruffleString encoding, TruffleString errors, Object buffers);
+
+        @Specialization
+        void init(VirtualFrame frame, PUnpickler self, Object file, boolean fixImports, TruffleString encoding, TruffleString errors, Object buffers,
+                        @Cached PyObjectGetIter getIter,
+                        @Cached PyObjectLookupAttr lookupRead,
+                        @Cached PyObjectLookupAttr lookupReadline,
+                        @Cached PythonObjectFactory factory) {
+            Object buffersIter = null;
+            if (buffers == PNone.NO_VALUE) {
+                buffersIter = getIter.execute(frame, factory.createEmptyTuple());
+            } else if (buffers != PNone.NONE) {
+                buffersIter = getIter.execute(frame, buffers);
+            }
+            self.init(fixImports, encoding, errors, buffersIter);
+            if (file != null) {
+                Object read = lookupRead.execute(frame, file, T_READ);
+                Object readline = lookupReadline.execute(frame, file, T_READLINE);
+                if (read == PNone.NO_VALUE || readline == PNone.NO_VALUE) {
+                    throw raise(TypeError, ErrorMessages.FILE_MUST_HAVE_READ_AND_READLINE_ATTRS);
+                }
+                self.setInputStream(read, readline);
+                self.setInput(PythonUtils.EMPTY_BYTE_ARRAY, 0);
+            }
+        }
+    }
+
+    /**
+     * Looks up a global by module and qualified name, the default implementation of
+     * {@code Unpickler.find_class}. Before protocol 3, Python 2 names are mapped to their Python 3
+     * equivalents if {@code fix_imports} is set.
+     */
+    public abstract static class FindClassNode extends PNodeWithRaise {
+        @Child private PyObjectGetAttr getAttr = PyObjectGetAttr.create();
+        @Child private PyDictGetItem dictGetItem = PyDictGetItem.create();
+        @Child private CastToTruffleStringNode castToStringNode = CastToTruffleStringNode.create();
+        @Child private TruffleString.EqualNode equalNode = TruffleString.EqualNode.create();
+        @Child private PythonObjectFactory factory = PythonObjectFactory.create();
+
+        public static FindClassNode create() {
+            return UnpicklerNodesFactory.FindClassNodeGen.create();
+        }
+
+        public abstract Object execute(VirtualFrame frame, PUnpickler self, Object moduleName, Object globalName);
+
+        @Specialization
+        Object findClass(VirtualFrame frame, PUnpickler self, Object moduleName, Object globalName) {
+            PythonContext context = getContext();
+            PythonLanguage language = getLanguage();
+            Object state = IndirectCallContext.enter(frame, language, context, this);
+            try {
+                return findClassBoundary(self, moduleName, globalName);
+            } finally {
+                IndirectCallContext.exit(frame, language, context, state);
+            }
+        }
+
+        @TruffleBoundary
+        private Object findClassBoundary(PUnpickler self, Object moduleNameObj, Object globalNameObj) {
+            Object moduleName = moduleNameObj;
+            Object globalName = globalNameObj;
+            if (self.getProtocol() < 3 && self.isFixImports()) {
+                Object compatPickle = AbstractImportNode.importModule(T__COMPAT_PICKLE);
+                Object nameMapping = getAttr.execute(null, compatPickle, T_NAME_MAPPING);
+                Object item = null;
+                if (nameMapping instanceof PDict) {
+                    item = dictGetItem.execute(null, (PDict) nameMapping, factory.createTuple(new Object[]{moduleName, globalName}));
+                }
+                if (item != null) {
+                    if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                        throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_MAPPING_VALUES_2_TUPLES, T_NAME_MAPPING, item);
+                    }
+                    SequenceStorage pair = ((PTuple) item).getSequenceStorage();
+                    moduleName = pair.getItemNormalized(0);
+                    globalName = pair.getItemNormalized(1);
+                    if (!PGuards.isString(moduleName) || !PGuards.isString(globalName)) {
+                        throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_MAPPING_VALUES_2_TUPLES, T_NAME_MAPPING, item);
+                    }
+                } else {
+                    Object importMapping = getAttr.execute(null, compatPickle, T_IMPORT_MAPPING);
+                    if (importMapping instanceof PDict) {
+                        item = dictGetItem.execute(null, (PDict) importMapping, moduleName);
+                    }
+                    if (item != null) {
+                        if (!PGuards.isString(item)) {
+                            throw raise(RuntimeError, ErrorMessages.COMPAT_PICKLE_MAPPING_VALUES_STRINGS, T_IMPORT_MAPPING, item);
+                        }
+                        moduleName = item;
+                    }
+                }
+            }
+
+            TruffleString moduleNameStr = castToStringNode.execute(moduleName);
+            Object module = dictGetItem.execute(null, getContext().getSysModules(), moduleNameStr);
+            if (module == null) {
+                module = AbstractImportNode.importModule(moduleNameStr);
+            }
+            if (self.getProtocol() >= 4) {
+                // protocol 4 allows qualified names of nested classes
+                TruffleString name = castToStringNode.execute(globalName);
+                String[] parts = name.toJavaStringUncached().split("\\.", -1);
+                Object result = module;
+                for (String part : parts) {
+                    TruffleString attr = PythonUtils.toTruffleStringUncached(part);
+                    if (equalNode.execute(attr, T_LOCALS, TS_ENCODING)) {
+                        throw raise(AttributeError, ErrorMessages.CANT_GET_LOCAL_ATTRIBUTE, repr(name), repr(module));
+                    }
+                    result = getAttr.execute(null, result, attr);
+                }
+                return result;
+            }
+            return getAttr.execute(null, module, globalName);
+        }
+
+        private static TruffleString repr(Object obj) {
+            return PyObjectReprAsTruffleStringNode.getUncached().execute(null, obj);
+        }
+    }
+
+    /**
+     * Reads one pickle from the input of the unpickler, the equivalent of {@code load} in CPython's
+     * {@code _pickle.c}. If the unpickler was created with a file, missing input is requested from
+     * its {@code read} and {@code readline} methods, reading no further than the end of the pickle.
+     */
+    public abstract static class LoadNode extends PNodeWithRaiseAndIndirectCall {
+        @Child private GetClassNode getClassNode = GetClassNode.create();
+        @Child private IsBuiltinClassProfile isBuiltinClassProfile = IsBuiltinClassProfile.create();
+        @Child private TypeNodes.IsTypeNode isTypeNode = TypeNodes.IsTypeNode.create();
+        @Child private PyObjectLookupAttr lookupAttr = PyObjectLookupAttr.create();
+        @Child private PyObjectGetAttr getAttr = PyObjectGetAttr.create();
+        @Child private PyObjectSetAttr setAttr = PyObjectSetAttr.create();
+        @Child private PyObjectSetItem setItem = PyObjectSetItem.create();
+        @Child private PyDictGetItem dictGetItem = PyDictGetItem.create();
+        @Child private PyDictSetItem dictSetItem = PyDictSetItem.create();
+        @Child private PyIterNextNode nextNode = PyIterNextNode.create();
+        @Child private PyFloatFromString floatFromString = PyFloatFromString.create();
+        @Child private PyUnicodeDecode unicodeDecode = PyUnicodeDecode.create();
+        @Child private PyMemoryViewFromObject memoryViewFromObject = PyMemoryViewFromObject.create();
+        @Child private CallNode callNode = CallNode.create();
+        @Child private HashingStorageLibrary hashingLib = HashingStorageLibrary.getFactory().createDispatched(4);
+        @Child private PythonBufferAcquireLibrary acquireLib = PythonBufferAcquireLibrary.getFactory().createDispatched(3);
+        @Child private PythonBufferAccessLibrary bufferLib = PythonBufferAccessLibrary.getFactory().createDispatched(3);
+        @Child private SequenceStorageNodes.AppendNode appendNode = SequenceStorageNodes.AppendNode.create();
+        @Child private TruffleString.FromByteArrayNode fromByteArrayNode = TruffleString.FromByteArrayNode.create();
+        @Child private TruffleString.SwitchEncodingNode switchEncodingNode = TruffleString.SwitchEncodingNode.create();
+        @Child private TruffleString.GetCodeRangeNode getCodeRangeNode = TruffleString.GetCodeRangeNode.create();
+        @Child private TruffleString.EqualNode equalNode = TruffleString.EqualNode.create();
+        @Child private FindClassNode findClassNode;
+        @Child private PythonObjectFactory factory = PythonObjectFactory.create();
+
+        public static LoadNode create() {
+            return UnpicklerNodesFactory.LoadNodeGen.create();
+        }
+
+        public abstract Object execute(VirtualFrame frame, PUnpickler self);
+
+        @Specialization
+        Object load(VirtualFrame frame, PUnpickler self) {
+            PythonContext context = getContext();
+            PythonLanguage language = getLanguage();
+            Object state = IndirectCallContext.enter(frame, language, context, this);
+            try {
+                return loadBoundary(self);
+            } finally {
+                IndirectCallContext.exit(frame, language, context, state);
+            }
+        }
+
+        @TruffleBoundary
+        private Object loadBoundary(PUnpickler u) {
+            u.clearStack();
+            u.setProtocol(0);
+            while (true) {
+                int opcode = readOpcode(u);
+                if (opcode < 0) {
+                    throw raise(EOFError, ErrorMessages.RAN_OUT_OF_INPUT);
+                }
+                if (opcode == STOP) {
+                    break;
+                }
+                dispatch(u, (byte) opcode);
+            }
+            Object result = pop(u);
+            u.clearStack();
+            return result;
+        }
+
+        private void dispatch(PUnpickler u, byte opcode) {
+            switch (opcode) {
+                case NONE:
+                    u.push(PNone.NONE);
+                    break;
+                case BININT:
+                    u.push((int) readSizedLong(u, 4));
+                    break;
+                case BININT1:
+                    u.push((int) readSizedLong(u, 1));
+                    break;
+                case BININT2:
+                    u.push((int) readSizedLong(u, 2));
+                    break;
+                case INT:
+                    loadInt(u);
+                    break;
+                case LONG:
+                    loadLong(u);
+                    break;
+                case LONG1:
+                    loadCountedLong(u, (int) readSizedLong(u, 1));
+                    break;
+                case LONG4: {
+                    int size = (int) readSizedLong(u, 4);
+                    if (size < 0) {
+                        throw raise(UnpicklingError, ErrorMessages.LONG_PICKLE_HAS_NEGATIVE_BYTE_COUNT);
+                    }
+                    loadCountedLong(u, size);
+                    break;
+                }
+                case FLOAT: {
+                    int start = readLine(u);
+                    int len = u.getInputPos() - start;
+                    if (len < 2) {
+                        throw badReadline();
+                    }
+                    u.push(floatFromString.execute(null, latin1String(u, start, len - 1)));
+                    break;
+                }
+                case BINFLOAT: {
+                    int start = read(u, 8);
+                    byte[] in = u.getInput();
+                    long bits = 0;
+                    for (int i = 0; i < 8; i++) {
+                        bits = (bits << 8) | (in[start + i] & 0xffL);
+                    }
+                    u.push(Double.longBitsToDouble(bits));
+                    break;
+                }
+                case BINBYTES:
+                    loadCountedBinBytes(u, readCount(u, 4));
+                    break;
+                case SHORT_BINBYTES:
+                    loadCountedBinBytes(u, readCount(u, 1));
+                    break;
+                case BINBYTES8:
+                    loadCountedBinBytes(u, readCount(u, 8));
+                    break;
+                case BYTEARRAY8: {
+                    int size = readCount(u, 8);
+                    int start = read(u, size);
+                    u.push(factory.createByteArray(PythonUtils.arrayCopyOfRange(u.getInput(), start, start + size)));
+                    break;
+                }
+                case NEXT_BUFFER:
+                    loadNextBuffer(u);
+                    break;
+                case READONLY_BUFFER:
+                    loadReadonlyBuffer(u);
+                    break;
+                case STRING:
+                    loadString(u);
+                    break;
+                case BINSTRING: {
+                    int size = (int) readSizedLong(u, 4);
+                    if (size < 0) {
+                        throw raise(UnpicklingError, ErrorMessages.BINSTRING_PICKLE_HAS_NEGATIVE_BYTE_COUNT);
+                    }
+                    loadCountedBinString(u, size);
+                    break;
+                }
+                case SHORT_BINSTRING:
+                    loadCountedBinString(u, readCount(u, 1));
+                    break;
+                case UNICODE: {
+                    int start = readLine(u);
+                    int len = u.getInputPos() - start;
+                    if (len < 1) {
+                        throw badReadline();
+                    }
+                    u.push(unicodeDecode.execute(null, copyBytes(u, start, len - 1), T_RAW_UNICODE_ESCAPE, T_STRICT));
+                    break;
+                }
+                case BINUNICODE:
+                    loadCountedBinUnicode(u, readCount(u, 4));
+                    break;
+                case SHORT_BINUNICODE:
+                    loadCountedBinUnicode(u, readCount(u, 1));
+                    break;
+                case BINUNICODE8:
+                    loadCountedBinUnicode(u, readCount(u, 8));
+                    break;
+                case EMPTY_TUPLE:
+                    u.push(factory.createEmptyTuple());
+                    break;
+                case TUPLE1:
+                    loadCountedTuple(u, 1);
+                    break;
+                case TUPLE2:
+                    loadCountedTuple(u, 2);
+                    break;
+                case TUPLE3:
+                    loadCountedTuple(u, 3);
+                    break;
+                case TUPLE:
+                    u.push(factory.createTuple(u.popSlice(marker(u))));
+                    break;
+                case EMPTY_LIST:
+                    u.push(factory.createList());
+                    break;
+                case LIST:
+                    u.push(factory.createList(u.popSlice(marker(u))));
+                    break;
+                case EMPTY_DICT:
+                    u.push(factory.createDict());
+                    break;
+                case DICT:
+                    loadDict(u);
+                    break;
+                case EMPTY_SET:
+                    u.push(factory.createSet());
+                    break;
+                case FROZENSET: {
+                    Object[] items = u.popSlice(marker(u));
+                    u.push(factory.createFrozenSet(buildSetStorage(items)));
+                    break;
+                }
+                case ADDITEMS:
+                    loadAddItems(u);
+                    break;
+                case OBJ:
+                    loadObj(u);
+                    break;
+                case INST:
+                    loadInst(u);
+                    break;
+                case NEWOBJ:
+                    loadNewObj(u);
+                    break;
+                case NEWOBJ_EX:
+                    loadNewObjEx(u);
+                    break;
+                case GLOBAL: {
+                    TruffleString moduleName = readUTF8Line(u);
+                    TruffleString globalName = readUTF8Line(u);
+                    u.push(findClass(u, moduleName, globalName));
+                    break;
+                }
+                case STACK_GLOBAL: {
+                    Object globalName = pop(u);
+                    Object moduleName = pop(u);
+                    if (!isExactString(moduleName) || !isExactString(globalName)) {
+                        throw raise(UnpicklingError, ErrorMessages.STACK_GLOBAL_REQUIRES_STR);
+                    }
+                    u.push(findClass(u, moduleName, globalName));
+                    break;
+                }
+                case EXT1:
+                    loadExtension(u, readSizedLong(u, 1));
+                    break;
+                case EXT2:
+                    loadExtension(u, readSizedLong(u, 2));
+                    break;
+                case EXT4:
+                    loadExtension(u, (int) readSizedLong(u, 4));
+                    break;
+                case REDUCE: {
+                    Object argtup = pop(u);
+                    Object callable = pop(u);
+                    if (!(argtup instanceof PTuple)) {
+                        throw raise(TypeError, ErrorMessages.ARGUMENT_LIST_MUST_BE_A_TUPLE);
+                    }
+                    u.push(callNode.execute(callable, tupleItems((PTuple) argtup)));
+                    break;
+                }
+                case POP:
+                    loadPop(u);
+                    break;
+                case POP_MARK:
+                    u.truncateStack(marker(u));
+                    break;
+                case DUP:
+                    if (u.getStackSize() <= u.fence()) {
+                        throw stackUnderflow(u);
+                    }
+                    u.push(u.stackTop());
+                    break;
+                case GET: {
+                    long idx = parseLine(u, readTextLine(u));
+                    u.push(memoGet(u, idx));
+                    break;
+                }
+                case BINGET:
+                    u.push(memoGet(u, readSizedLong(u, 1)));
+                    break;
+                case LONG_BINGET:
+                    u.push(memoGet(u, readSizedLong(u, 4) & 0xffffffffL));
+                    break;
+                case PUT: {
+                    long idx = parseLine(u, readTextLine(u));
+                    if (idx < 0) {
+                        throw raise(ValueError, ErrorMessages.NEGATIVE_PUT_ARGUMENT);
+                    }
+                    memoPut(u, idx);
+                    break;
+                }
+                case BINPUT:
+                    memoPut(u, readSizedLong(u, 1));
+                    break;
+                case LONG_BINPUT:
+                    memoPut(u, readSizedLong(u, 4) & 0xffffffffL);
+                    break;
+                case MEMOIZE:
+                    memoPut(u, u.getMemoLen());
+                    break;
+                case APPEND:
+                    doAppend(u, u.getStackSize() - 1);
+                    break;
+                case APPENDS:
+                    doAppend(u, marker(u));
+                    break;
+                case SETITEM:
+                    doSetItems(u, u.getStackSize() - 2);
+                    break;
+                case SETITEMS:
+                    doSetItems(u, marker(u));
+                    break;
+                case BUILD:
+                    loadBuild(u);
+                    break;
+                case MARK:
+                    u.pushMark();
+                    break;
+                case NEWTRUE:
+                    u.push(true);
+                    break;
+                case NEWFALSE:
+                    u.push(false);
+                    break;
+                case PERSID:
+                    loadPersId(u);
+                    break;
+                case BINPERSID: {
+                    Object pid = pop(u);
+                    u.push(callNode.execute(getPersistentLoad(u), pid));
+                    break;
+                }
+                case PROTO: {
+                    int proto = (int) readSizedLong(u, 1);
+                    if (proto > HIGHEST_PROTOCOL) {
+                        throw raise(ValueError, ErrorMessages.UNSUPPORTED_PICKLE_PROTOCOL, proto);
+                    }
+                    u.setProtocol(proto);
+                    break;
+                }
+                case FRAME: {
+                    int size = readCount(u, 8);
+                    // make sure the whole frame is buffered, then continue with its first opcode
+                    int start = read(u, size);
+                    u.setInputPos(start);
+                    break;
+                }
+                default:
+                    int c = opcode & 0xff;
+                    if (c >= 0x20 && c <= 0x7e && c != '\'' && c != '\\') {
+                        throw raise(UnpicklingError, ErrorMessages.INVALID_LOAD_KEY, PythonUtils.toTruffleStringUncached(String.valueOf((char) c)));
+                    }
+                    throw raise(UnpicklingError, ErrorMessages.INVALID_LOAD_KEY, PythonUtils.toTruffleStringUncached(String.format("\\x%02x", c)));
+            }
+        }
+
+        // input
+
+        private int readOpcode(PUnpickler u) {
+            int start = u.consume(1);
+            if (start < 0 && u.getRead() != null) {
+                fill(u, 1, false);
+                start = u.consume(1);
+            }
+            return start < 0 ? -1 : u.getInput()[start] & 0xff;
+        }
+
+        /**
+         * Consumes {@code n} bytes and returns the index of the first one in the input buffer.
+         */
+        private int read(PUnpickler u, int n) {
+            int start = u.consume(n);
+            if (start < 0 && u.getRead() != null) {
+                fill(u, n, false);
+                start = u.consume(n);
+            }
+            if (start < 0) {
+                throw raise(UnpicklingError, ErrorMessages.PICKLE_DATA_WAS_TRUNCATED);
+            }
+            return start;
+        }
+
+        /**
+         * Consumes a line and returns the index of its first byte. The line ends with a newline
+         * unless the input ended before.
+         */
+        private int readLine(PUnpickler u) {
+            int start = u.consumeLine();
+            if (start < 0 && u.getReadline() != null) {
+                fill(u, 0, true);
+                start = u.consumeLine();
+            }
+            if (start < 0) {
+                start = u.getInputPos();
+                u.setInputPos(start + u.available());
+            }
+            return start;
+        }
+
+        /**
+         * Appends the result of {@code read(n - available)} or {@code readline()} to the input
+         * that was not consumed yet.
+         */
+        private void fill(PUnpickler u, int n, boolean line) {
+            int available = u.available();
+            Object data = line ? callNode.execute(u.getReadline()) : callNode.execute(u.getRead(), n - available);
+            if (!acquireLib.hasBuffer(data)) {
+                throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, data);
+            }
+            Object buffer = acquireLib.acquireReadonly(data);
+            try {
+                int len = bufferLib.getBufferLength(buffer);
+                byte[] input = new byte[available + len];
+                if (available > 0) {
+                    PythonUtils.arraycopy(u.getInput(), u.getInputPos(), input, 0, available);
+                }
+                bufferLib.readIntoByteArray(buffer, 0, input, available, len);
+                u.setInput(input, input.length);
+            } finally {
+                bufferLib.release(buffer);
+            }
+        }
+
+        private long readSizedLong(PUnpickler u, int size) {
+            int start = read(u, size);
+            byte[] in = u.getInput();
+            long value = 0;
+            for (int i = size - 1; i >= 0; i--) {
+                value = (value << 8) | (in[start + i] & 0xffL);
+            }
+            if (size == 4) {
+                // BININT and the 4 byte counts are signed
+                value = (int) value;
+            }
+            return value;
+        }
+
+        private int readCount(PUnpickler u, int size) {
+            long count = readSizedLong(u, size);
+            if (size == 4) {
+                count &= 0xffffffffL;
+            }
+            if (count < 0 || count > Integer.MAX_VALUE - 8) {
+                throw raise(UnpicklingError, ErrorMessages.PICKLE_COUNT_EXCEEDS_MAXIMUM, count);
+            }
+            return (int) count;
+        }
+
+        private int readTextLine(PUnpickler u) {
+            int start = readLine(u);
+            if (u.getInputPos() - start < 2) {
+                throw badReadline();
+            }
+            return start;
+        }
+
+        private TruffleString latin1String(PUnpickler u, int start, int len) {
+            TruffleString str = fromByteArrayNode.execute(u.getInput(), start, len, TruffleString.Encoding.ISO_8859_1, true);
+            return switchEncodingNode.execute(str, TS_ENCODING);
+        }
+
+        /**
+         * Reads a module or global name of the GLOBAL and INST opcodes.
+         */
+        private TruffleString readUTF8Line(PUnpickler u) {
+            int start = readTextLine(u);
+            return decodeUTF8(u, start, u.getInputPos() - start - 1, T_STRICT);
+        }
+
+        private Object decodeUTF8(PUnpickler u, int start, int len, TruffleString errors) {
+            TruffleString utf8 = fromByteArrayNode.execute(u.getInput(), start, len, TruffleString.Encoding.UTF_8, true);
+            if (getCodeRangeNode.execute(utf8, TruffleString.Encoding.UTF_8) != CodeRange.BROKEN) {
+                return switchEncodingNode.execute(utf8, TS_ENCODING);
+            }
+            return unicodeDecode.execute(null, copyBytes(u, start, len), T_UTF8, errors);
+        }
+
+        private PBytes copyBytes(PUnpickler u, int start, int len) {
+            return factory.createBytes(PythonUtils.arrayCopyOfRange(u.getInput(), start, start + len));
+        }
+
+        private PException badReadline() {
+            return raise(UnpicklingError, ErrorMessages.PICKLE_DATA_WAS_TRUNCATED);
+        }
+
+        // stack
+
+        private PException stackUnderflow(PUnpickler u) {
+            return raise(UnpicklingError, u.isMarkSet() ? ErrorMessages.UNEXPECTED_MARK_FOUND : ErrorMessages.UNPICKLING_STACK_UNDERFLOW);
+        }
+
+        private Object pop(PUnpickler u) {
+            if (u.getStackSize() <= u.fence()) {
+                throw stackUnderflow(u);
+            }
+            return u.pop();
+        }
+
+        private int marker(PUnpickler u) {
+            if (!u.isMarkSet()) {
+                throw raise(UnpicklingError, ErrorMessages.COULD_NOT_FIND_MARK);
+            }
+            return u.popMark();
+        }
+
+        private void loadPop(PUnpickler u) {
+            int len = u.getStackSize();
+            if (len <= u.fence() && u.isMarkSet() && u.fence() == len) {
+                // POP may discard the mark pushed for a recursive tuple
+                u.popMark();
+            } else {
+                pop(u);
+            }
+        }
+
+        private static Object[] tupleItems(PTuple tuple) {
+            SequenceStorage storage = tuple.getSequenceStorage();
+            Object[] items = new Object[storage.length()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = storage.getItemNormalized(i);
+            }
+            return items;
+        }
+
+        // memo
+
+        private Object memoGet(PUnpickler u, long idx) {
+            Object value = u.memoGet(idx);
+            if (value == null) {
+                throw raise(KeyError, new Object[]{idx});
+            }
+            return value;
+        }
+
+        private void memoPut(PUnpickler u, long idx) {
+            if (u.getStackSize() <= u.fence()) {
+                throw stackUnderflow(u);
+            }
+            if (idx > Integer.MAX_VALUE - 8) {
+                throw raise(ValueError, ErrorMessages.PICKLE_COUNT_EXCEEDS_MAXIMUM, idx);
+            }
+            u.memoPut((int) idx, u.stackTop());
+        }
+
+        private long parseLine(PUnpickler u, int start) {
+            TruffleString text = latin1String(u, start, u.getInputPos() - start - 1);
+            try {
+                return Long.parseLong(text.toJavaStringUncached().trim());
+            } catch (NumberFormatException e) {
+                throw raise(ValueError, ErrorMessages.INVALID_LITERAL_FOR_INT_WITH_BASE, 10, repr(text));
+            }
+        }
+
+        private static TruffleString repr(Object obj) {
+            return PyObjectReprAsTruffleStringNode.getUncached().execute(null, obj);
+        }
+
+        // numbers
+
+        private void loadInt(PUnpickler u) {
+            int start = readTextLine(u);
+            int len = u.getInputPos() - start;
+            String text = latin1String(u, start, len - 1).toJavaStringUncached().trim();
+            if (len == 3 && (text.equals("00") || text.equals("01"))) {
+                u.push(text.equals("01"));
+                return;
+            }
+            BigInteger value;
+            try {
+                value = new BigInteger(text);
+            } catch (NumberFormatException e) {
+                throw raise(ValueError, ErrorMessages.COULD_NOT_CONVERT_STRING_TO_INT);
+            }
+            pushInteger(u, value);
+        }
+
+        private void loadLong(PUnpickler u) {
+            int start = readTextLine(u);
+            int len = u.getInputPos() - start - 1;
+            if (len > 0 && u.getInput()[start + len - 1] == 'L') {
+                // Python 2 appended 'L' to longs
+                len--;
+            }
+            TruffleString text = latin1String(u, start, len);
+            try {
+                pushInteger(u, new BigInteger(text.toJavaStringUncached().trim()));
+            } catch (NumberFormatException e) {
+                throw raise(ValueError, ErrorMessages.INVALID_LITERAL_FOR_INT_WITH_BASE, 0, repr(text));
+            }
+        }
+
+        private void loadCountedLong(PUnpickler u, int size) {
+            if (size == 0) {
+                u.push(0);
+                return;
+            }
+            int start = read(u, size);
+            byte[] in = u.getInput();
+            // little endian two's complement
+            byte[] bigEndian = new byte[size];
+            for (int i = 0; i < size; i++) {
+                bigEndian[i] = in[start + size - 1 - i];
+            }
+            pushInteger(u, new BigInteger(bigEndian));
+        }
+
+        private void pushInteger(PUnpickler u, BigInteger value) {
+            if (value.bitLength() < Integer.SIZE) {
+                u.push(value.intValue());
+            } else if (value.bitLength() < Long.SIZE) {
+                u.push(value.longValue());
+            } else {
+                u.push(factory.createInt(value));
+            }
+        }
+
+        // strings and buffers
+
+        private void loadCountedBinBytes(PUnpickler u, int size) {
+            int start = read(u, size);
+            u.push(factory.createBytes(PythonUtils.arrayCopyOfRange(u.getInput(), start, start + size)));
+        }
+
+        private void loadCountedBinUnicode(PUnpickler u, int size) {
+            int start = read(u, size);
+            u.push(decodeUTF8(u, start, size, T_SURROGATEPASS));
+        }
+
+        /**
+         * Strings of Python 2 are decoded with the encoding given to the unpickler, unless it is
+         * {@code 'bytes'}.
+         */
+        private Object decodeString(PUnpickler u, Object bytes) {
+            if (equalNode.execute(u.getEncoding(), T_BYTES_ENCODING, TS_ENCODING)) {
+                return bytes;
+            }
+            return unicodeDecode.execute(null, bytes, u.getEncoding(), u.getErrors());
+        }
+
+        private void loadCountedBinString(PUnpickler u, int size) {
+            int start = read(u, size);
+            u.push(decodeString(u, copyBytes(u, start, size)));
+        }
+
+        private void loadString(PUnpickler u) {
+            int start = readLine(u);
+            // strip the newline and the quotes
+            int len = u.getInputPos() - start - 1;
+            byte[] in = u.getInput();
+            if (len < 2 || in[start] != in[start + len - 1] || (in[start] != '\'' && in[start] != '"')) {
+                throw raise(UnpicklingError, ErrorMessages.STRING_OPCODE_ARGUMENT_MUST_BE_QUOTED);
+            }
+            Object escaped = copyBytes(u, start + 1, len - 2);
+            Object escapeDecode = getAttr.execute(null, getContext().lookupBuiltinModule(T__CODECS), T_ESCAPE_DECODE);
+            Object decoded = callNode.execute(escapeDecode, escaped);
+            u.push(decodeString(u, ((PTuple) decoded).getSequenceStorage().getItemNormalized(0)));
+        }
+
+        private boolean isExactString(Object obj) {
+            return obj instanceof TruffleString || (obj instanceof PString && isBuiltinClassProfile.profileClass(getClassNode.execute(obj), PythonBuiltinClassType.PString));
+        }
+
+        private void loadNextBuffer(PUnpickler u) {
+            Object buffers = u.getBuffers();
+            if (buffers == null) {
+                throw raise(UnpicklingError, ErrorMessages.PICKLE_REFERS_TO_OUT_OF_BAND_DATA);
+            }
+            Object buffer = nextNode.execute(null, buffers);
+            if (buffer == null) {
+                throw raise(UnpicklingError, ErrorMessages.NOT_ENOUGH_OUT_OF_BAND_BUFFERS);
+            }
+            u.push(buffer);
+        }
+
+        private void loadReadonlyBuffer(PUnpickler u) {
+            if (u.getStackSize() <= u.fence()) {
+                throw stackUnderflow(u);
+            }
+            PMemoryView view = memoryViewFromObject.execute(null, u.stackTop());
+            if (!view.isReadOnly()) {
+                u.stackSet(u.getStackSize() - 1, callNode.execute(getAttr.execute(null, view, T_TOREADONLY)));
+            }
+        }
+
+        // containers
+
+        private void loadCountedTuple(PUnpickler u, int len) {
+            if (u.getStackSize() - u.fence() < len) {
+                throw stackUnderflow(u);
+            }
+            u.push(factory.createTuple(u.popSlice(u.getStackSize() - len)));
+        }
+
+        private void loadDict(PUnpickler u) {
+            Object[] items = u.popSlice(marker(u));
+            if (items.length % 2 != 0) {
+                throw raise(UnpicklingError, ErrorMessages.ODD_NUMBER_OF_ITEMS_FOR_DICT);
+            }
+            PDict dict = factory.createDict();
+            for (int i = 0; i < items.length; i += 2) {
+                dictSetItem.execute(null, dict, items[i], items[i + 1]);
+            }
+            u.push(dict);
+        }
+
+        private HashingStorage buildSetStorage(Object[] items) {
+            HashingStorage storage = EmptyStorage.INSTANCE;
+            for (Object item : items) {
+                storage = hashingLib.setItem(storage, item, PNone.NONE);
+            }
+            return storage;
+        }
+
+        private void doAppend(PUnpickler u, int x) {
+            int len = u.getStackSize();
+            if (x > len || x <= u.fence()) {
+                throw stackUnderflow(u);
+            }
+            if (len == x) {
+                return;
+            }
+            Object list = u.stackAt(x - 1);
+            if (list instanceof PList && isBuiltinClassProfile.profileClass(getClassNode.execute(list), PythonBuiltinClassType.PList)) {
+                // append to the storage of exact lists directly
+                PList pList = (PList) list;
+                for (Object item : u.popSlice(x)) {
+                    pList.setSequenceStorage(appendNode.execute(pList.getSequenceStorage(), item, ListGeneralizationNode.SUPPLIER));
+                }
+                return;
+            }
+            Object extend = lookupAttr.execute(null, list, T_EXTEND);
+            if (extend != PNone.NO_VALUE) {
+                callNode.execute(extend, factory.createList(u.popSlice(x)));
+            } else {
+                Object append = getAttr.execute(null, list, T_APPEND);
+                for (Object item : u.popSlice(x)) {
+                    callNode.execute(append, item);
+                }
+            }
+        }
+
+        private void doSetItems(PUnpickler u, int x) {
+            int len = u.getStackSize();
+            if (x > len || x <= u.fence()) {
+                throw stackUnderflow(u);
+            }
+            if (len == x) {
+                return;
+            }
+            if ((len - x) % 2 != 0) {
+                throw raise(UnpicklingError, ErrorMessages.ODD_NUMBER_OF_ITEMS_FOR_SETITEMS);
+            }
+            Object dict = u.stackAt(x - 1);
+            Object[] items = u.popSlice(x);
+            if (dict instanceof PDict && isBuiltinClassProfile.profileClass(getClassNode.execute(dict), PythonBuiltinClassType.PDict)) {
+                for (int i = 0; i < items.length; i += 2) {
+                    dictSetItem.execute(null, (PDict) dict, items[i], items[i + 1]);
+                }
+            } else {
+                for (int i = 0; i < items.length; i += 2) {
+                    setItem.execute(null, dict, items[i], items[i + 1]);
+                }
+            }
+        }
+
+        private void loadAddItems(PUnpickler u) {
+            int mark = marker(u);
+            int len = u.getStackSize();
+            if (mark > len || mark <= u.fence()) {
+                throw stackUnderflow(u);
+            }
+            if (len == mark) {
+                return;
+            }
+            Object set = u.stackAt(mark - 1);
+            Object[] items = u.popSlice(mark);
+            if (set instanceof PSet && isBuiltinClassProfile.profileClass(getClassNode.execute(set), PythonBuiltinClassType.PSet)) {
+                PSet pSet = (PSet) set;
+                HashingStorage storage = pSet.getDictStorage();
+                for (Object item : items) {
+                    storage = hashingLib.setItem(storage, item, PNone.NONE);
+                }
+                pSet.setDictStorage(storage);
+            } else {
+                Object add = getAttr.execute(null, set, T_ADD);
+                for (Object item : items) {
+                    callNode.execute(add, item);
+                }
+            }
+        }
+
+        // objects
+
+        private Object findClass(PUnpickler u, Object moduleName, Object globalName) {
+            Object findClass = lookupAttr.execute(null, u, T_FIND_CLASS);
+            if (findClass == PNone.NO_VALUE) {
+                if (findClassNode == null) {
+                    findClassNode = insert(FindClassNode.create());
+                }
+                return findClassNode.execute(null, u, moduleName, globalName);
+            }
+            return callNode.execute(findClass, moduleName, globalName);
+        }
+
+        private Object instantiate(Object cls, Object[] args) {
+            if (args.length == 0 && isTypeNode.execute(cls) && lookupAttr.execute(null, cls, T___GETINITARGS__) == PNone.NO_VALUE) {
+                return callNode.execute(getAttr.execute(null, cls, T___NEW__), cls);
+            }
+            return callNode.execute(cls, args);
+        }
+
+        private void loadObj(PUnpickler u) {
+            int mark = marker(u);
+            if (u.getStackSize() - mark < 1) {
+                throw stackUnderflow(u);
+            }
+            Object[] args = u.popSlice(mark + 1);
+            Object cls = u.pop();
+            u.push(instantiate(cls, args));
+        }
+
+        private void loadInst(PUnpickler u) {
+            TruffleString moduleName = readUTF8Line(u);
+            TruffleString className = readUTF8Line(u);
+            int mark = marker(u);
+            Object cls = findClass(u, moduleName, className);
+            u.push(instantiate(cls, u.popSlice(mark)));
+        }
+
+        private void loadNewObj(PUnpickler u) {
+            Object args = pop(u);
+            if (!(args instanceof PTuple)) {
+                throw raise(UnpicklingError, ErrorMessages.NEWOBJ_EXPECTED_AN_ARG_TUPLE);
+            }
+            Object cls = pop(u);
+            if (!isTypeNode.execute(cls)) {
+                throw raise(UnpicklingError, ErrorMessages.NEWOBJ_CLASS_ARGUMENT_ISNT_A_TYPE);
+            }
+            Object[] items = tupleItems((PTuple) args);
+            Object[] newArgs = new Object[items.length + 1];
+            newArgs[0] = cls;
+            PythonUtils.arraycopy(items, 0, newArgs, 1, items.length);
+            u.push(callNode.execute(getAttr.execute(null, cls, T___NEW__), newArgs));
+        }
+
+        private void loadNewObjEx(PUnpickler u) {
+            Object kwargs = pop(u);
+            Object args = pop(u);
+            Object cls = pop(u);
+            if (!isTypeNode.execute(cls)) {
+                throw raise(UnpicklingError, ErrorMessages.NEWOBJ_EX_CLASS_MUST_BE_TYPE, cls);
+            }
+            if (!(args instanceof PTuple)) {
+                throw raise(UnpicklingError, ErrorMessages.NEWOBJ_EX_ARGS_MUST_BE_TUPLE, args);
+            }
+            if (!(kwargs instanceof PDict)) {
+                throw raise(UnpicklingError, ErrorMessages.NEWOBJ_EX_KWARGS_MUST_BE_DICT, kwargs);
+            }
+            Object[] items = tupleItems((PTuple) args);
+            Object[] newArgs = new Object[items.length + 1];
+            newArgs[0] = cls;
+            PythonUtils.arraycopy(items, 0, newArgs, 1, items.length);
+            HashingStorage kwStorage = ((PDict) kwargs).getDictStorage();
+            PKeyword[] keywords = new PKeyword[hashingLib.length(kwStorage)];
+            int n = 0;
+            for (DictEntry entry : hashingLib.entries(kwStorage)) {
+                if (!PGuards.isString(entry.getKey())) {
+                    throw raise(TypeError, ErrorMessages.KEYWORDS_MUST_BE_STRINGS);
+                }
+                keywords[n++] = new PKeyword(CastToTruffleStringNode.getUncached().execute(entry.getKey()), entry.getValue());
+            }
+            u.push(callNode.execute(getAttr.execute(null, cls, T___NEW__), newArgs, keywords));
+        }
+
+        private void loadExtension(PUnpickler u, long code) {
+            if (code <= 0) {
+                throw raise(ValueError, ErrorMessages.EXT_SPECIFIES_CODE_LE_0);
+            }
+            Object copyreg = u.getCopyreg();
+            if (copyreg == null) {
+                copyreg = AbstractImportNode.importModule(T_COPYREG);
+                u.setCopyreg(copyreg);
+            }
+            Object extensionCache = getAttr.execute(null, copyreg, T_EXTENSION_CACHE);
+            Object cached = extensionCache instanceof PDict ? dictGetItem.execute(null, (PDict) extensionCache, code) : null;
+            if (cached != null) {
+                u.push(cached);
+                return;
+            }
+            Object registry = getAttr.execute(null, copyreg, T_INVERTED_REGISTRY);
+            Object pair = registry instanceof PDict ? dictGetItem.execute(null, (PDict) registry, code) : null;
+            if (pair == null) {
+                throw raise(ValueError, ErrorMessages.UNREGISTERED_EXTENSION_CODE, code);
+            }
+            if (!(pair instanceof PTuple) || ((PTuple) pair).getSequenceStorage().length() != 2) {
+                throw raise(ValueError, ErrorMessages.INVERTED_REGISTRY_ISNT_2_TUPLE_OF_STRINGS, code);
+            }
+            Object moduleName = ((PTuple) pair).getSequenceStorage().getItemNormalized(0);
+            Object className = ((PTuple) pair).getSequenceStorage().getItemNormalized(1);
+            if (!PGuards.isString(moduleName) || !PGuards.isString(className)) {
+                throw raise(ValueError, ErrorMessages.INVERTED_REGISTRY_ISNT_2_TUPLE_OF_STRINGS, code);
+            }
+            Object obj = findClass(u, moduleName, className);
+            if (extensionCache instanceof PDict) {
+                dictSetItem.execute(null, (PDict) extensionCache, code, obj);
+            }
+            u.push(obj);
+        }
+
+        private Object getPersistentLoad(PUnpickler u) {
+            Object persistentLoad = u.getPersistentLoad();
+            if (persistentLoad == null) {
+                throw raise(UnpicklingError, ErrorMessages.NO_PERSISTENT_LOAD_FUNCTION);
+            }
+            return persistentLoad;
+        }
+
+        private void loadPersId(PUnpickler u) {
+            int start = readTextLine(u);
+            int len = u.getInputPos() - start - 1;
+            byte[] in = u.getInput();
+            for (int i = start; i < start + len; i++) {
+                if (in[i] < 0) {
+                    throw raise(UnpicklingError, ErrorMessages.PERSISTENT_IDS_MUST_BE_ASCII);
+                }
+            }
+            u.push(callNode.execute(getPersistentLoad(u), latin1String(u, start, len)));
+        }
+
+        private void loadBuild(PUnpickler u) {
+            if (u.getStackSize() - 2 < u.fence()) {
+                throw stackUnderflow(u);
+            }
+            Object state = u.pop();
+            Object inst = u.stackTop();
+            Object setstate = lookupAttr.execute(null, inst, T___SETSTATE__);
+            if (setstate != PNone.NO_VALUE) {
+                callNode.execute(setstate, state);
+                return;
+            }
+            Object slotState = null;
+            if (state instanceof PTuple && ((PTuple) state).getSequenceStorage().length() == 2) {
+                slotState = ((PTuple) state).getSequenceStorage().getItemNormalized(1);
+                state = ((PTuple) state).getSequenceStorage().getItemNormalized(0);
+            }
+            if (state != PNone.NONE) {
+                if (!(state instanceof PDict)) {
+                    throw raise(UnpicklingError, ErrorMessages.STATE_IS_NOT_A_DICTIONARY);
+                }
+                Object dict = getAttr.execute(null, inst, T___DICT__);
+                for (DictEntry entry : entries((PDict) state)) {
+                    setItem.execute(null, dict, entry.getKey(), entry.getValue());
+                }
+            }
+            if (slotState != null && slotState != PNone.NONE) {
+                if (!(slotState instanceof PDict)) {
+                    throw raise(UnpicklingError, ErrorMessages.SLOT_STATE_IS_NOT_A_DICTIONARY);
+                }
+                for (DictEntry entry : entries((PDict) slotState)) {
+                    setAttr.execute(null, inst, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        /**
+         * Copies the entries of a dict, since setting them on the instance may run arbitrary code.
+         */
+        private DictEntry[] entries(PDict dict) {
+            HashingStorage storage = dict.getDictStorage();
+            DictEntry[] entries = new DictEntry[hashingLib.length(storage)];
+            int n = 0;
+            for (DictEntry entry : hashingLib.entries(storage)) {
+                if (n == entries.length) {
+                    break;
+                }
+                entries[n++] = entry;
+            }
+            return PythonUtils.arrayCopyOf(entries, n);
+        }
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sqlite3;
+
+import static com.oracle.graal.python.nodes.BuiltinNames.J__SQLITE3_SUPPORT;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ImportError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.Python3Core;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.lib.PyObjectSizeNode;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.NFISQLite3Support;
+import com.oracle.graal.python.runtime.NativeLibrary;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.ArrayBuilder;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Low level binding of the SQLite C API through the {@code libsqlite3support} NFI library. The
+ * DB-API module {@code _sqlite3} (see {@code lib-graalpython/modules/_sqlite3.py}) is implemented
+ * in Python on top of it. Database and statement handles are opaque pointer objects, most
+ * functions return SQLite result codes and the Python side raises the appropriate exceptions. The
+ * per-row work of fetching results and of {@code executemany} is done here in bulk.
+ */
+@CoreFunctions(defineModule = J__SQLITE3_SUPPORT)
+public class SQLite3ModuleBuiltins extends PythonBuiltins {
+
+    static final int SQLITE_OK = 0;
+    static final int SQLITE_ROW = 100;
+    static final int SQLITE_DONE = 101;
+
+    static final int SQLITE_INTEGER = 1;
+    static final int SQLITE_FLOAT = 2;
+    static final int SQLITE_BLOB = 4;
+    static final int SQLITE_NULL = 5;
+
+    /* Statuses of parameter binding, negative so that they cannot clash with SQLite codes. */
+    static final int BIND_WRONG_COUNT = -1;
+    static final int BIND_UNSUPPORTED_TYPE = -2;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SQLite3ModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(Python3Core core) {
+        super.initialize(core);
+        addBuiltinConstant("BIND_WRONG_COUNT", BIND_WRONG_COUNT);
+        addBuiltinConstant("BIND_UNSUPPORTED_TYPE", BIND_UNSUPPORTED_TYPE);
+    }
+
+    @Builtin(name = "libversion")
+    @GenerateNodeFactory
+    abstract static class LibVersionNode extends PythonBuiltinNode {
+        @Specialization
+        TruffleString libversion(@Cached NativeLibrary.InvokeNativeFunction invoke) {
+            NFISQLite3Support lib = getContext().getNFISQLite3Support();
+            if (lib.isAvailable()) {
+                try {
+                    return lib.libversion(invoke);
+                } catch (NativeLibrary.NativeLibraryCannotBeLoaded e) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    lib.notAvailable();
+                }
+            }
+            throw raise(ImportError, ErrorMessages.SQLITE3_SUPPORT_NOT_AVAILABLE);
+        }
+    }
+
+    @Builtin(name = "complete_statement", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CompleteStatementNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean complete(Object sql,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().complete(castToJavaStringNode.execute(sql), invoke) != 0;
+        }
+    }
+
+    // open(filename, flags, timeout_ms) -> (rc, db)
+    @Builtin(name = "open", minNumOfPositionalArgs = 3)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class OpenNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple open(Object filename, int flags, int timeoutMs,
+                        @Cached CastToJavaStringNode castToJavaStringNode,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke,
+                        @Cached GilNode gil) {
+            String path = castToJavaStringNode.execute(filename);
+            int[] rc = new int[1];
+            Object db;
+            gil.release(true);
+            try {
+                db = getContext().getNFISQLite3Support().open(path, flags, timeoutMs, getContext().getEnv().asGuestValue(rc), invoke);
+            } finally {
+                gil.acquire();
+            }
+            return factory().createTuple(new Object[]{rc[0], db});
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int close(Object db,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().close(db, invoke);
+        }
+    }
+
+    @Builtin(name = "interrupt", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class InterruptNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PNone interrupt(Object db,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            getContext().getNFISQLite3Support().interrupt(db, invoke);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "errmsg", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ErrmsgNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        TruffleString errmsg(Object db,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().errmsg(db, invoke);
+        }
+    }
+
+    @Builtin(name = "errcode", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ErrcodeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int errcode(Object db,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().errcode(db, invoke);
+        }
+    }
+
+    @Builtin(name = "changes", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ChangesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int changes(Object db,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().changes(db, invoke);
+        }
+    }
+
+    @Builtin(name = "total_changes", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TotalChangesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int totalChanges(Object db,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().totalChanges(db, invoke);
+        }
+    }
+
+    @Builtin(name = "last_insert_rowid", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class LastInsertRowidNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        long lastInsertRowid(Object db,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().lastInsertRowid(db, invoke);
+        }
+    }
+
+    @Builtin(name = "get_autocommit", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetAutocommitNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean getAutocommit(Object db,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().getAutocommit(db, invoke) != 0;
+        }
+    }
+
+    // prepare(db, sql: bytes, offset) -> (rc, stmt or None, tail offset)
+    @Builtin(name = "prepare", minNumOfPositionalArgs = 3)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class PrepareNode extends PythonBuiltinNode {
+        @Specialization(limit = "3")
+        PTuple prepare(VirtualFrame frame, Object db, Object sql, int offset,
+                        @CachedLibrary("sql") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @CachedLibrary(limit = "1") InteropLibrary interop,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            Object buffer = acquireLib.acquireReadonly(sql, frame, this);
+            try {
+                byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
+                int len = bufferLib.getBufferLength(buffer);
+                int[] out = new int[2];
+                Object stmt = getContext().getNFISQLite3Support().prepare(db, getContext().getEnv().asGuestValue(bytes), len, offset, getContext().getEnv().asGuestValue(out), invoke);
+                return factory().createTuple(new Object[]{out[0], interop.isNull(stmt) ? PNone.NONE : stmt, out[1]});
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    @Builtin(name = "finalize", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FinalizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int finalize(Object stmt,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().finalize(stmt, invoke);
+        }
+    }
+
+    @Builtin(name = "reset", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ResetNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int reset(Object stmt,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            NFISQLite3Support lib = getContext().getNFISQLite3Support();
+            int rc = lib.reset(stmt, invoke);
+            lib.clearBindings(stmt, invoke);
+            return rc;
+        }
+    }
+
+    @Builtin(name = "stmt_readonly", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StmtReadonlyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        boolean readonly(Object stmt,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return getContext().getNFISQLite3Support().stmtReadonly(stmt, invoke) != 0;
+        }
+    }
+
+    @Builtin(name = "step", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class StepNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int step(Object stmt,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke,
+                        @Cached GilNode gil) {
+            NFISQLite3Support lib = getContext().getNFISQLite3Support();
+            gil.release(true);
+            try {
+                return lib.step(stmt, invoke);
+            } finally {
+                gil.acquire();
+            }
+        }
+    }
+
+    @Builtin(name = "bind_parameter_names", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class BindParameterNamesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple names(Object stmt,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            NFISQLite3Support lib = getContext().getNFISQLite3Support();
+            Object[] names = new Object[lib.bindParameterCount(stmt, invoke)];
+            for (int i = 0; i < names.length; i++) {
+                // parameters are numbered from 1, positional ones have an empty name
+                names[i] = lib.bindParameterName(stmt, i + 1, invoke);
+            }
+            return factory().createTuple(names);
+        }
+    }
+
+    @Builtin(name = "column_names", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ColumnNamesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple names(Object stmt,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            NFISQLite3Support lib = getContext().getNFISQLite3Support();
+            Object[] names = new Object[lib.columnCount(stmt, invoke)];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = lib.columnName(stmt, i, invoke);
+            }
+            return factory().createTuple(names);
+        }
+    }
+
+    @Builtin(name = "column_decltypes", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ColumnDecltypesNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple decltypes(Object stmt,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            NFISQLite3Support lib = getContext().getNFISQLite3Support();
+            Object[] decltypes = new Object[lib.columnCount(stmt, invoke)];
+            for (int i = 0; i < decltypes.length; i++) {
+                TruffleString decltype = lib.columnDecltype(stmt, i, invoke);
+                decltypes[i] = decltype.isEmpty() ? PNone.NONE : decltype;
+            }
+            return factory().createTuple(decltypes);
+        }
+    }
+
+    // bind(stmt, params: list | tuple, adapt, adapt_all) -> status
+    @Builtin(name = "bind", minNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class BindNode extends PythonBuiltinNode {
+        @Specialization
+        static int bind(VirtualFrame frame, Object stmt, Object params, Object adapt, Object adaptAll,
+                        @Cached PyObjectIsTrueNode isTrueNode,
+                        @Cached SQLite3Nodes.BindParametersNode bindNode) {
+            return bindNode.execute(frame, stmt, params, adapt, isTrueNode.execute(frame, adaptAll));
+        }
+    }
+
+    /**
+     * Runs a DML statement once for each parameter sequence without going back to Python in
+     * between. Items that are not lists or tuples are passed to {@code convert} first, which turns
+     * mappings into sequences according to the statement's parameter names.
+     *
+     * Returns {@code (status, rowcount)} where status is {@code SQLITE_DONE} on success,
+     * {@code SQLITE_ROW} if the statement produced rows, a SQLite error code or a bind status.
+     */
+    // executemany(db, stmt, seq_of_params, convert, adapt, adapt_all) -> (status, rowcount)
+    @Builtin(name = "executemany", minNumOfPositionalArgs = 6)
+    @GenerateNodeFactory
+    abstract static class ExecuteManyNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple executemany(VirtualFrame frame, Object db, Object stmt, Object seqOfParams, Object convert, Object adapt, Object adaptAllObj,
+                        @Cached PyObjectIsTrueNode isTrueNode,
+                        @Cached PyObjectGetIter getIter,
+                        @Cached GetNextNode nextNode,
+                        @Cached IsBuiltinClassProfile stopIterationProfile,
+                        @Cached CallNode callConvert,
+                        @Cached SQLite3Nodes.BindParametersNode bindNode,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            NFISQLite3Support lib = getContext().getNFISQLite3Support();
+            boolean adaptAll = isTrueNode.execute(frame, adaptAllObj);
+            Object iterator = getIter.execute(frame, seqOfParams);
+            long rowcount = 0;
+            int count = 0;
+            try {
+                while (true) {
+                    Object params;
+                    try {
+                        params = nextNode.execute(frame, iterator);
+                    } catch (PException e) {
+                        e.expectStopIteration(stopIterationProfile);
+                        return result(SQLITE_DONE, rowcount);
+                    }
+                    count++;
+                    if (!(params instanceof PList || params instanceof PTuple)) {
+                        params = callConvert.execute(frame, convert, params);
+                    }
+                    lib.reset(stmt, invoke);
+                    int status = bindNode.execute(frame, stmt, params, adapt, adaptAll);
+                    if (status != SQLITE_OK) {
+                        return result(status, rowcount);
+                    }
+                    int rc = lib.step(stmt, invoke);
+                    if (rc != SQLITE_DONE) {
+                        return result(rc, rowcount);
+                    }
+                    rowcount += lib.changes(db, invoke);
+                }
+            } finally {
+                LoopNode.reportLoopCount(this, count);
+            }
+        }
+
+        private PTuple result(int status, long rowcount) {
+            return factory().createTuple(new Object[]{status, rowcount});
+        }
+    }
+
+    /**
+     * Reads up to {@code maxrows} rows (all rows if negative) starting at the row the statement is
+     * currently positioned on, stepping the statement after each one.
+     */
+    // fetch(stmt, maxrows, text_as_bytes, raw_columns) -> (rows, rc)
+    @Builtin(name = "fetch", minNumOfPositionalArgs = 4)
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    @GenerateNodeFactory
+    abstract static class FetchNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple fetch(VirtualFrame frame, Object stmt, int maxrows, Object textAsBytesObj, Object rawColumnsObj,
+                        @Cached PyObjectIsTrueNode isTrueNode,
+                        @Cached PyObjectSizeNode sizeNode,
+                        @Cached PyObjectGetItem getItemNode,
+                        @Cached SQLite3Nodes.ReadRowNode readRowNode,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            NFISQLite3Support lib = getContext().getNFISQLite3Support();
+            boolean textAsBytes = isTrueNode.execute(frame, textAsBytesObj);
+            int columnCount = lib.columnCount(stmt, invoke);
+            boolean[] rawColumns = null;
+            if (rawColumnsObj != PNone.NONE) {
+                rawColumns = new boolean[columnCount];
+                int n = Math.min(columnCount, sizeNode.execute(frame, rawColumnsObj));
+                for (int i = 0; i < n; i++) {
+                    rawColumns[i] = isTrueNode.execute(frame, getItemNode.execute(frame, rawColumnsObj, i));
+                }
+            }
+            ArrayBuilder<Object> rows = new ArrayBuilder<>();
+            int rc = SQLITE_ROW;
+            try {
+                while (rc == SQLITE_ROW && (maxrows < 0 || rows.size() < maxrows)) {
+                    rows.add(readRowNode.execute(stmt, columnCount, textAsBytes, rawColumns));
+                    rc = lib.step(stmt, invoke);
+                }
+            } finally {
+                LoopNode.reportLoopCount(this, rows.size());
+            }
+            return factory().createTuple(new Object[]{factory().createList(rows.toArray(new Object[0])), rc});
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.sqlite3;
+
+import static com.oracle.graal.python.builtins.modules.sqlite3.SQLite3ModuleBuiltins.BIND_UNSUPPORTED_TYPE;
+import static com.oracle.graal.python.builtins.modules.sqlite3.SQLite3ModuleBuiltins.BIND_WRONG_COUNT;
+import static com.oracle.graal.python.builtins.modules.sqlite3.SQLite3ModuleBuiltins.SQLITE_BLOB;
+import static com.oracle.graal.python.builtins.modules.sqlite3.SQLite3ModuleBuiltins.SQLITE_FLOAT;
+import static com.oracle.graal.python.builtins.modules.sqlite3.SQLite3ModuleBuiltins.SQLITE_INTEGER;
+import static com.oracle.graal.python.builtins.modules.sqlite3.SQLite3ModuleBuiltins.SQLITE_NULL;
+import static com.oracle.graal.python.builtins.modules.sqlite3.SQLite3ModuleBuiltins.SQLITE_OK;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.runtime.NFISQLite3Support;
+import com.oracle.graal.python.runtime.NativeLibrary;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleString.Encoding;
+
+public abstract class SQLite3Nodes {
+
+    /**
+     * Binds a list or tuple of parameters to a prepared statement. Values of the basic types
+     * SQLite understands are bound directly, everything else goes through the {@code adapt}
+     * callable of the Python module first (which implements the adapter and
+     * {@code __conform__} protocol). When {@code adaptAll} is set because an adapter was
+     * registered for one of the basic types, every value is adapted.
+     *
+     * Returns {@code SQLITE_OK}, the SQLite error code, {@code BIND_WRONG_COUNT} or
+     * {@code BIND_UNSUPPORTED_TYPE - i} if parameter {@code i} has a type that cannot be bound.
+     */
+    public abstract static class BindParametersNode extends PNodeWithContext {
+
+        public abstract int execute(VirtualFrame frame, Object stmt, Object params, Object adapt, boolean adaptAll);
+
+        @Specialization
+        static int bind(VirtualFrame frame, Object stmt, Object params, Object adapt, boolean adaptAll,
+                        @Cached SequenceNodes.GetSequenceStorageNode getStorage,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItem,
+                        @Cached IsBasicValueNode isBasicValue,
+                        @Cached CallNode callAdapt,
+                        @Cached BindValueNode bindValue,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            NFISQLite3Support lib = PythonContext.get(getStorage).getNFISQLite3Support();
+            SequenceStorage storage = getStorage.execute(params);
+            int count = storage.length();
+            if (lib.bindParameterCount(stmt, invoke) != count) {
+                return BIND_WRONG_COUNT;
+            }
+            for (int i = 0; i < count; i++) {
+                Object value = getItem.execute(storage, i);
+                if (adaptAll || !isBasicValue.execute(value)) {
+                    value = callAdapt.execute(frame, adapt, value);
+                }
+                int rc = bindValue.execute(frame, stmt, i + 1, value);
+                if (rc == BIND_UNSUPPORTED_TYPE) {
+                    return BIND_UNSUPPORTED_TYPE - i;
+                } else if (rc != SQLITE_OK) {
+                    return rc;
+                }
+            }
+            return SQLITE_OK;
+        }
+    }
+
+    /**
+     * Values of exactly these types are never adapted, mirroring {@code need_adapt} in CPython.
+     * {@code None}, {@code bool} and {@code bytes} have no {@code __conform__} either, so adapting
+     * them would only be observable with an adapter for them, which sets {@code adaptAll}.
+     */
+    abstract static class IsBasicValueNode extends PNodeWithContext {
+
+        abstract boolean execute(Object value);
+
+        @Specialization
+        static boolean doInt(@SuppressWarnings("unused") int value) {
+            return true;
+        }
+
+        @Specialization
+        static boolean doLong(@SuppressWarnings("unused") long value) {
+            return true;
+        }
+
+        @Specialization
+        static boolean doDouble(@SuppressWarnings("unused") double value) {
+            return true;
+        }
+
+        @Specialization
+        static boolean doBoolean(@SuppressWarnings("unused") boolean value) {
+            return true;
+        }
+
+        @Specialization
+        static boolean doString(@SuppressWarnings("unused") TruffleString value) {
+            return true;
+        }
+
+        @Specialization
+        static boolean doNone(@SuppressWarnings("unused") PNone value) {
+            return true;
+        }
+
+        @Specialization(replaces = {"doInt", "doLong", "doDouble", "doBoolean", "doString", "doNone"})
+        static boolean doGeneric(Object value,
+                        @Cached IsBuiltinClassProfile profile) {
+            return value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Boolean || value instanceof TruffleString || value instanceof PNone ||
+                            profile.profileObject(value, PythonBuiltinClassType.PInt) || profile.profileObject(value, PythonBuiltinClassType.PFloat) ||
+                            profile.profileObject(value, PythonBuiltinClassType.PString) || profile.profileObject(value, PythonBuiltinClassType.PBytes) ||
+                            profile.profileObject(value, PythonBuiltinClassType.PByteArray);
+        }
+    }
+
+    /**
+     * Binds a single (already adapted) value, returns {@code BIND_UNSUPPORTED_TYPE} if the value
+     * has none of the types SQLite supports.
+     */
+    abstract static class BindValueNode extends PNodeWithRaiseAndIndirectCall {
+
+        abstract int execute(VirtualFrame frame, Object stmt, int index, Object value);
+
+        @Specialization
+        static int doNone(Object stmt, int index, @SuppressWarnings("unused") PNone value,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return lib(invoke).bindNull(stmt, index, invoke);
+        }
+
+        @Specialization
+        static int doBoolean(Object stmt, int index, boolean value,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return lib(invoke).bindInt64(stmt, index, value ? 1 : 0, invoke);
+        }
+
+        @Specialization
+        static int doInt(Object stmt, int index, int value,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return lib(invoke).bindInt64(stmt, index, value, invoke);
+        }
+
+        @Specialization
+        static int doLong(Object stmt, int index, long value,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return lib(invoke).bindInt64(stmt, index, value, invoke);
+        }
+
+        @Specialization
+        int doPInt(Object stmt, int index, PInt value,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            long longValue;
+            try {
+                longValue = value.longValueExact();
+            } catch (OverflowException e) {
+                throw raise(OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "SQLite INTEGER");
+            }
+            return lib(invoke).bindInt64(stmt, index, longValue, invoke);
+        }
+
+        @Specialization
+        static int doDouble(Object stmt, int index, double value,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return lib(invoke).bindDouble(stmt, index, value, invoke);
+        }
+
+        @Specialization
+        static int doPFloat(Object stmt, int index, PFloat value,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return lib(invoke).bindDouble(stmt, index, value.getValue(), invoke);
+        }
+
+        @Specialization
+        static int doString(Object stmt, int index, TruffleString value,
+                        @Shared("switchEncoding") @Cached TruffleString.SwitchEncodingNode switchEncodingNode,
+                        @Shared("copyToByteArray") @Cached TruffleString.CopyToByteArrayNode copyToByteArrayNode,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            TruffleString utf8 = switchEncodingNode.execute(value, Encoding.UTF_8);
+            byte[] bytes = new byte[utf8.byteLength(Encoding.UTF_8)];
+            copyToByteArrayNode.execute(utf8, 0, bytes, 0, bytes.length, Encoding.UTF_8);
+            PythonContext context = PythonContext.get(invoke);
+            return context.getNFISQLite3Support().bindText(stmt, index, context.getEnv().asGuestValue(bytes), bytes.length, invoke);
+        }
+
+        @Specialization
+        static int doPString(Object stmt, int index, PString value,
+                        @Cached CastToTruffleStringNode castToStringNode,
+                        @Shared("switchEncoding") @Cached TruffleString.SwitchEncodingNode switchEncodingNode,
+                        @Shared("copyToByteArray") @Cached TruffleString.CopyToByteArrayNode copyToByteArrayNode,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            return doString(stmt, index, castToStringNode.execute(value), switchEncodingNode, copyToByteArrayNode, invoke);
+        }
+
+        @Specialization(limit = "3")
+        int doOther(VirtualFrame frame, Object stmt, int index, Object value,
+                        @CachedLibrary("value") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Shared("invoke") @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            if (!acquireLib.hasBuffer(value)) {
+                return BIND_UNSUPPORTED_TYPE;
+            }
+            Object buffer = acquireLib.acquireReadonly(value, frame, this);
+            try {
+                byte[] bytes = bufferLib.getInternalOrCopiedByteArray(buffer);
+                int len = bufferLib.getBufferLength(buffer);
+                PythonContext context = getContext();
+                return context.getNFISQLite3Support().bindBlob(stmt, index, context.getEnv().asGuestValue(bytes), len, invoke);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+
+        private static NFISQLite3Support lib(NativeLibrary.InvokeNativeFunction invoke) {
+            return PythonContext.get(invoke).getNFISQLite3Support();
+        }
+    }
+
+    /**
+     * Reads the current result row of a statement into a tuple. Text columns are decoded as UTF-8
+     * unless {@code textAsBytes} is set, in which case they are returned as {@code bytes} for the
+     * Python level {@code text_factory}. Columns marked in {@code rawColumns} are always returned
+     * as {@code bytes} (or {@code None}) for the converters selected by {@code detect_types}.
+     */
+    public abstract static class ReadRowNode extends PNodeWithContext {
+
+        public abstract Object execute(Object stmt, int columnCount, boolean textAsBytes, boolean[] rawColumns);
+
+        @Specialization
+        static Object read(Object stmt, int columnCount, boolean textAsBytes, boolean[] rawColumns,
+                        @Cached TruffleString.FromByteArrayNode fromByteArrayNode,
+                        @Cached TruffleString.SwitchEncodingNode switchEncodingNode,
+                        @Cached PythonObjectFactory factory,
+                        @Cached NativeLibrary.InvokeNativeFunction invoke) {
+            PythonContext context = PythonContext.get(invoke);
+            NFISQLite3Support lib = context.getNFISQLite3Support();
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                int type = lib.columnType(stmt, i, invoke);
+                Object value;
+                if (type == SQLITE_NULL) {
+                    value = PNone.NONE;
+                } else if (rawColumns != null && rawColumns[i] || type == SQLITE_BLOB) {
+                    int len = lib.columnBlobBytes(stmt, i, invoke);
+                    byte[] bytes = new byte[len];
+                    lib.columnCopyBlob(stmt, i, context.getEnv().asGuestValue(bytes), len, invoke);
+                    value = factory.createBytes(bytes);
+                } else if (type == SQLITE_INTEGER) {
+                    long longValue = lib.columnInt64(stmt, i, invoke);
+                    value = PInt.isIntRange(longValue) ? (Object) (int) longValue : (Object) longValue;
+                } else if (type == SQLITE_FLOAT) {
+                    value = lib.columnDouble(stmt, i, invoke);
+                } else {
+                    int len = lib.columnTextBytes(stmt, i, invoke);
+                    byte[] bytes = new byte[len];
+                    lib.columnCopyText(stmt, i, context.getEnv().asGuestValue(bytes), len, invoke);
+                    if (textAsBytes) {
+                        value = factory.createBytes(bytes);
+                    } else {
+                        value = switchEncodingNode.execute(fromByteArrayNode.execute(bytes, Encoding.UTF_8, false), TS_ENCODING);
+                    }
+                }
+                row[i] = value;
+            }
+            return factory.createTuple(row);
+        }
+    }
+}
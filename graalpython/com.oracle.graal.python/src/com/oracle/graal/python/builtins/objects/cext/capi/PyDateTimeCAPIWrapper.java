@@ -62,12 +62,15 @@ import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.TransformExc
 import com.oracle.graal.python.builtins.objects.cext.capi.DynamicObjectNativeWrapper.PAsPointerNode;
 import com.oracle.graal.python.builtins.objects.cext.capi.DynamicObjectNativeWrapper.ToPyObjectNode;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
 import com.oracle.graal.python.lib.PyObjectGetAttr;
 import com.oracle.graal.python.lib.PyObjectLookupAttr;
 import com.oracle.graal.python.lib.PyObjectSetAttr;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.argument.keywords.ExpandKeywordStarargsNodeGen;
 import com.oracle.graal.python.nodes.argument.positional.ExecutePositionalStarargsNodeGen;
+import com.oracle.graal.python.nodes.attributes.WriteAttributeToBuiltinTypeNode;
+import com.oracle.graal.python.nodes.attributes.WriteAttributeToBuiltinTypeNodeGen;
 import com.oracle.graal.python.nodes.call.special.CallVarargsMethodNode;
 import com.oracle.graal.python.nodes.statement.AbstractImportNode;
 import com.oracle.graal.python.runtime.GilNode;
@@ -203,19 +206,19 @@ public final class PyDateTimeCAPIWrapper extends PythonNativeWrapper {
         PCallCapiFunction callCapiFunction = PCallCapiFunction.getUncached();
 
         Object date = getAttr.execute(null, datetime, T_DATE);
-        setAttr.execute(null, date, T___BASICSIZE__, callCapiFunction.call(FUN_GET_DATETIME_DATE_BASICSIZE, capiContext.getLLVMLibrary()));
+        setBasicsize(date, callCapiFunction.call(FUN_GET_DATETIME_DATE_BASICSIZE, capiContext.getLLVMLibrary()));
         wrapper.dateType = toSulongNode.execute(date);
 
         Object dt = getAttr.execute(null, datetime, T_DATETIME);
-        setAttr.execute(null, dt, T___BASICSIZE__, callCapiFunction.call(FUN_GET_DATETIME_DATETIME_BASICSIZE, capiContext.getLLVMLibrary()));
+        setBasicsize(dt, callCapiFunction.call(FUN_GET_DATETIME_DATETIME_BASICSIZE, capiContext.getLLVMLibrary()));
         wrapper.datetimeType = toSulongNode.execute(dt);
 
         Object time = getAttr.execute(null, datetime, T_TIME);
-        setAttr.execute(null, time, T___BASICSIZE__, callCapiFunction.call(FUN_GET_DATETIME_TIME_BASICSIZE, capiContext.getLLVMLibrary()));
+        setBasicsize(time, callCapiFunction.call(FUN_GET_DATETIME_TIME_BASICSIZE, capiContext.getLLVMLibrary()));
         wrapper.timeType = toSulongNode.execute(time);
 
         Object delta = getAttr.execute(null, datetime, T_TIMEDELTA);
-        setAttr.execute(null, delta, T___BASICSIZE__, callCapiFunction.call(FUN_GET_DATETIME_DELTA_BASICSIZE, capiContext.getLLVMLibrary()));
+        setBasicsize(delta, callCapiFunction.call(FUN_GET_DATETIME_DELTA_BASICSIZE, capiContext.getLLVMLibrary()));
         wrapper.deltaType = toSulongNode.execute(delta);
 
         wrapper.tzInfoType = toSulongNode.execute(getAttr.execute(null, datetime, T_TZINFO));
@@ -239,6 +242,18 @@ public final class PyDateTimeCAPIWrapper extends PythonNativeWrapper {
         assert getAttr.execute(null, datetime, T_DATETIME_CAPI) != PythonContext.get(null).getNativeNull();
     }
 
+    /**
+     * The classes are builtin types if the {@code _datetime} module is used, and attributes of
+     * those can only be written with {@link WriteAttributeToBuiltinTypeNode}.
+     */
+    private static void setBasicsize(Object type, Object basicsize) {
+        if (type instanceof PythonBuiltinClass || type instanceof PythonBuiltinClassType) {
+            WriteAttributeToBuiltinTypeNodeGen.getUncached().execute(type, T___BASICSIZE__, basicsize);
+        } else {
+            PyObjectSetAttr.getUncached().execute(null, type, T___BASICSIZE__, basicsize);
+        }
+    }
+
     @ExportMessage
     @SuppressWarnings("static-method")
     boolean hasMembers() {
@@ -46,6 +46,9 @@ import static com.oracle.graal.python.nodes.StringLiterals.T_TIME;
 import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
 import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
 
+import com.oracle.graal.python.builtins.modules.datetime.PDate;
+import com.oracle.graal.python.builtins.modules.datetime.PDateTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTime;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PythonAbstractObject.PInteropGetAttributeNode;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.ToSulongNode;
@@ -56,6 +59,7 @@ import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -133,7 +137,21 @@ public abstract class PyDateTimeMRNode extends Node {
      * 10
      * </pre>
      */
-    @Specialization(guards = {"eq(DATETIME_DATA, key)", "cachedMode == mode", "cachedMode != null"}, limit = "1")
+    @Specialization(guards = "eq(DATETIME_DATA, key)")
+    static Object doDateData(PDate object, @SuppressWarnings("unused") String key, DateTimeMode mode) {
+        if (object instanceof PDateTime) {
+            PDateTime dt = (PDateTime) object;
+            return packData(mode, dt.getYear(), dt.getMonth(), dt.getDay(), dt.getHour(), dt.getMinute(), dt.getSecond(), dt.getMicrosecond());
+        }
+        return packData(mode, object.getYear(), object.getMonth(), object.getDay(), 0, 0, 0, 0);
+    }
+
+    @Specialization(guards = "eq(DATETIME_DATA, key)")
+    static Object doTimeData(PTime object, @SuppressWarnings("unused") String key, DateTimeMode mode) {
+        return packData(mode, 1, 1, 1, object.getHour(), object.getMinute(), object.getSecond(), object.getMicrosecond());
+    }
+
+    @Specialization(guards = {"eq(DATETIME_DATA, key)", "cachedMode == mode", "cachedMode != null", "!isBuiltinDateTimeObject(object)"}, limit = "1")
     static Object doData(PythonObject object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
                     @Cached("mode") DateTimeMode cachedMode,
                     @Cached PInteropGetAttributeNode getYearNode,
@@ -172,8 +190,12 @@ public abstract class PyDateTimeMRNode extends Node {
             assert usec >= 0 && sec < 0x1000000;
         }
 
+        return packData(cachedMode, year, month, day, hour, min, sec, usec);
+    }
+
+    private static Object packData(DateTimeMode mode, int year, int month, int day, int hour, int min, int sec, int usec) {
         byte[] data;
-        switch (cachedMode) {
+        switch (mode) {
             case DATE:
                 data = new byte[]{(byte) (year >> 8), (byte) year, (byte) month, (byte) day};
                 break;
@@ -190,9 +212,21 @@ public abstract class PyDateTimeMRNode extends Node {
     }
 
     @Specialization(guards = "eq(DATETIME_TZINFO, key)")
+    static Object doDateTimeTzinfo(PDateTime object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
+                    @Shared("toSulongNode") @Cached ToSulongNode toSulongNode) {
+        return toSulongNode.execute(object.getTzInfo());
+    }
+
+    @Specialization(guards = "eq(DATETIME_TZINFO, key)")
+    static Object doTimeTzinfo(PTime object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
+                    @Shared("toSulongNode") @Cached ToSulongNode toSulongNode) {
+        return toSulongNode.execute(object.getTzInfo());
+    }
+
+    @Specialization(guards = {"eq(DATETIME_TZINFO, key)", "!isBuiltinDateTimeObject(object)"})
     static Object doTzinfo(PythonObject object, @SuppressWarnings("unused") String key, @SuppressWarnings("unused") DateTimeMode mode,
                     @Cached ReadAttributeFromObjectNode getTzinfoNode,
-                    @Cached ToSulongNode toSulongNode) {
+                    @Shared("toSulongNode") @Cached ToSulongNode toSulongNode) {
         Object value = getTzinfoNode.execute(object, T_TZINFO);
         if (value != PNone.NO_VALUE) {
             return toSulongNode.execute(value);
@@ -200,6 +234,13 @@ public abstract class PyDateTimeMRNode extends Node {
         throw CompilerDirectives.shouldNotReachHere();
     }
 
+    /**
+     * Objects of the builtin {@code _datetime} classes store their fields in Java fields.
+     */
+    protected static boolean isBuiltinDateTimeObject(PythonObject object) {
+        return object instanceof PDate || object instanceof PTime;
+    }
+
     protected static boolean eq(NativeMember expected, String actual) {
         return expected.getMemberNameJavaString().equals(actual);
     }
@@ -108,6 +108,35 @@ public class EconomicMapStorage extends HashingStorage {
         return map.size();
     }
 
+    /**
+     * Opts the underlying map into lock-free lookups, see {@link ObjectHashMap#getConcurrent}.
+     */
+    public void enableConcurrentReads() {
+        map.enableConcurrentReads();
+    }
+
+    /**
+     * Lookup that can run without holding the GIL. Returns {@link ObjectHashMap#NEEDS_GIL} if the
+     * storage does not support concurrent reads or if the lookup has to be done under the GIL,
+     * which is always the case for keys whose hash or equality may be user defined.
+     */
+    public static Object getItemConcurrent(HashingStorage storage, Object key, TruffleString.HashCodeNode hashCodeNode, TruffleString.EqualNode tsEqualNode) {
+        if (!(storage instanceof EconomicMapStorage) || !((EconomicMapStorage) storage).map.isConcurrentReads()) {
+            return ObjectHashMap.NEEDS_GIL;
+        }
+        long hash;
+        if (key instanceof TruffleString) {
+            hash = PyObjectHashNode.hash((TruffleString) key, hashCodeNode);
+        } else if (key instanceof Integer) {
+            hash = PyObjectHashNode.hash((int) key);
+        } else if (key instanceof Long) {
+            hash = PyObjectHashNode.hash((long) key);
+        } else {
+            return ObjectHashMap.NEEDS_GIL;
+        }
+        return ((EconomicMapStorage) storage).map.getConcurrent(key, hash, tsEqualNode);
+    }
+
     @ExportMessage
     @ImportStatic(PGuards.class)
     static class GetItemWithState {
@@ -91,8 +91,14 @@ public class EmptyStorage extends HashingStorage {
     @ExportMessage
     public HashingStorage setItemWithState(Object key, Object value, ThreadState state,
                     @CachedLibrary(limit = "2") HashingStorageLibrary lib,
-                    @Shared("gotState") @Cached ConditionProfile gotState) {
-        HashingStorage newStore = PDict.createNewStorage(1);
+                    @Shared("gotState") @Cached ConditionProfile gotState,
+                    @Cached ConditionProfile primitiveProfile) {
+        HashingStorage newStore;
+        if (primitiveProfile.profile(PrimitiveMapStorage.canStore(key, value))) {
+            newStore = PrimitiveMapStorage.create(key, value);
+        } else {
+            newStore = PDict.createNewStorage(1);
+        }
         if (gotState.profile(state != null)) {
             lib.setItemWithState(newStore, key, value, state);
         } else {
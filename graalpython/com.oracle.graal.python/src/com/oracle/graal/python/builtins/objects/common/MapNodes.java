@@ -97,6 +97,11 @@ public abstract class MapNodes {
         int iterState(DynamicObjectStorage.EntriesIterator iterator) {
             return iterator.getState();
         }
+
+        @Specialization
+        int iterState(PrimitiveMapStorage.KeysIterator iterator) {
+            return iterator.getState();
+        }
     }
 
     @GenerateNodeFactory
@@ -148,6 +153,11 @@ public abstract class MapNodes {
         void iterState(DynamicObjectStorage.EntriesIterator iterator, int state) {
             iterator.setState(state);
         }
+
+        @Specialization
+        void iterState(PrimitiveMapStorage.KeysIterator iterator, int state) {
+            iterator.setState(state);
+        }
     }
 
 }
@@ -40,8 +40,10 @@
  */
 package com.oracle.graal.python.builtins.objects.common;
 
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
 import static com.oracle.truffle.api.CompilerDirectives.SLOWPATH_PROBABILITY;
 
+import java.lang.invoke.VarHandle;
 import java.util.Arrays;
 import java.util.Iterator;
 
@@ -50,6 +52,7 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.Has
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
 import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -62,6 +65,7 @@ import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
 
 /**
  * Generic dictionary/set backing storage implementation.
@@ -98,7 +102,16 @@ import com.oracle.truffle.api.profiles.LoopConditionProfile;
  * through a collision chain, we can stop at items that do not have this bit set. The practical
  * implications of this is that for close to full maps, lookups of items that are not present in the
  * map are faster, because we can terminate the collisions chain chasing earlier.
- * 
+ *
+ * Maps that are shared between threads and mostly read can opt into lock-free lookups with
+ * {@link #enableConcurrentReads()}. All modifications still happen under the GIL, but they are
+ * additionally bracketed by a sequence lock ({@link #writeStamp}): the stamp is odd while a
+ * structural change (insertion of a new slot, removal, compaction, rehashing) is in progress.
+ * {@link #getConcurrent} snapshots the stamp, probes the arrays without taking any lock and
+ * without calling into Python code, and validates the stamp afterwards. If the stamp changed, or
+ * if deciding the lookup would require calling {@code __eq__}, it reports {@link #NEEDS_GIL} and
+ * the caller falls back to the regular lookup under the GIL.
+ *
  * Notable use case that does not (yet) work well with this approach: repeated insertion and removal
  * of the same key. This keeps on adding dummy entries when removing the entry and creating long
  * collisions chains that the insertion needs to follow to find a free slot. This all repeats until
@@ -172,6 +185,15 @@ public final class ObjectHashMap {
     // It takes at most this many >>> shifts to turn any long into 0
     private static final int PERTURB_SHIFTS_COUT = 13;
 
+    // How many times a lock-free lookup is retried when it races with a writer
+    private static final int CONCURRENT_READ_ATTEMPTS = 3;
+
+    /**
+     * Result of {@link #getConcurrent} when the lookup could not be decided without holding the
+     * GIL.
+     */
+    public static final Object NEEDS_GIL = new Object();
+
     // Sparse array with indices pointing to hashes and keysAndValues
     private int[] indices;
 
@@ -198,6 +220,19 @@ public final class ObjectHashMap {
      */
     private boolean hasSideEffectingKeys;
 
+    /**
+     * Whether this map supports lock-free lookups via {@link #getConcurrent}. Once enabled, it is
+     * never disabled again. Written under the GIL; threads that do not hold the GIL may see a stale
+     * {@code false}, in which case they simply take the GIL.
+     */
+    private boolean concurrentReads;
+
+    /**
+     * Sequence lock for lock-free readers. Only maintained when {@link #concurrentReads} is set.
+     * Writers hold the GIL, so there is never more than one writer at a time.
+     */
+    private volatile int writeStamp;
+
     public ObjectHashMap(int capacity, boolean hasSideEffects) {
         if (capacity <= INITIAL_INDICES_SIZE) {
             allocateData(INITIAL_INDICES_SIZE);
@@ -257,10 +292,12 @@ public final class ObjectHashMap {
     }
 
     public void clear() {
+        beginWrite();
         size = 0;
         usedHashes = 0;
         usedIndices = 0;
         allocateData(INITIAL_INDICES_SIZE);
+        endWrite();
     }
 
     public ObjectHashMap copy() {
@@ -291,6 +328,31 @@ public final class ObjectHashMap {
         return hasSideEffectingKeys;
     }
 
+    /**
+     * Opts this map into lock-free lookups. Must be called while holding the GIL.
+     */
+    public void enableConcurrentReads() {
+        concurrentReads = true;
+    }
+
+    public boolean isConcurrentReads() {
+        return concurrentReads;
+    }
+
+    private void beginWrite() {
+        if (concurrentReads) {
+            writeStamp = writeStamp + 1;
+            // the following plain writes must not become visible before the odd stamp
+            VarHandle.storeStoreFence();
+        }
+    }
+
+    private void endWrite() {
+        if (concurrentReads) {
+            writeStamp = writeStamp + 1;
+        }
+    }
+
     final class KeysIteratorWrapper implements Iterator<Object> {
         private int index;
 
@@ -439,7 +501,7 @@ public final class ObjectHashMap {
         abstract Object execute(ThreadState state, ObjectHashMap map, Object key, long keyHash);
 
         // "public" for testing...
-        @Specialization
+        @Specialization(guards = "!map.isConcurrentReads()")
         public static Object doGetWithRestart(ThreadState state, ObjectHashMap map, Object key, long keyHash,
                         @Cached BranchProfile lookupRestart,
                         @Cached("createCountingProfile()") ConditionProfile foundNullKey,
@@ -471,7 +533,7 @@ public final class ObjectHashMap {
             int[] indices = map.indices;
             int indicesLen = indices.length;
 
-            int compactIndex = map.getIndex(indicesLen, keyHash);
+            int compactIndex = getIndex(indicesLen, keyHash);
             int index = indices[compactIndex];
             if (foundNullKey.profile(index == EMPTY_INDEX)) {
                 return null;
@@ -498,7 +560,7 @@ public final class ObjectHashMap {
                         throw RestartLookupException.INSTANCE;
                     }
                     perturb >>>= PERTURB_SHIFT;
-                    compactIndex = map.nextIndex(indicesLen, compactIndex, perturb);
+                    compactIndex = nextIndex(indicesLen, compactIndex, perturb);
                     index = map.indices[compactIndex];
                     if (collisionFoundNoValue.profile(index == EMPTY_INDEX)) {
                         return null;
@@ -522,6 +584,116 @@ public final class ObjectHashMap {
             // be at least few empty slots, and we must have hit one.
             throw CompilerDirectives.shouldNotReachHere();
         }
+
+        /**
+         * Lookup in a map with {@link #enableConcurrentReads() concurrent reads} enabled. This may
+         * run without holding the GIL; the GIL is only acquired if the lock-free lookup cannot
+         * decide the result.
+         */
+        @Specialization(guards = "map.isConcurrentReads()")
+        static Object doGetConcurrent(ThreadState state, ObjectHashMap map, Object key, long keyHash,
+                        @Cached TruffleString.EqualNode tsEqualNode,
+                        @Cached ConditionProfile needsGilProfile,
+                        @Cached GilNode gil,
+                        @Cached BranchProfile lookupRestart,
+                        @Cached("createCountingProfile()") ConditionProfile foundNullKey,
+                        @Cached("createCountingProfile()") ConditionProfile foundSameHashKey,
+                        @Cached("createCountingProfile()") ConditionProfile foundEqKey,
+                        @Cached("createCountingProfile()") ConditionProfile collisionFoundNoValue,
+                        @Cached("createCountingProfile()") ConditionProfile collisionFoundEqKey,
+                        @Cached ConditionProfile hasState,
+                        @Cached PyObjectRichCompareBool.EqNode eqNode) {
+            Object result = map.getConcurrent(key, keyHash, tsEqualNode);
+            if (needsGilProfile.profile(result != NEEDS_GIL)) {
+                return result;
+            }
+            boolean wasAcquired = gil.acquire();
+            try {
+                return doGetWithRestart(state, map, key, keyHash, lookupRestart, foundNullKey, foundSameHashKey, foundEqKey, collisionFoundNoValue, collisionFoundEqKey,
+                                hasState, eqNode);
+            } finally {
+                gil.release(wasAcquired);
+            }
+        }
+    }
+
+    /**
+     * Lock-free lookup that never calls into Python code. Returns the value, {@code null} if the
+     * key is not present, or {@link #NEEDS_GIL} if the lookup raced with a writer too many times
+     * or if the keys can only be compared by calling {@code __eq__}. Only valid for maps with
+     * {@link #enableConcurrentReads() concurrent reads} enabled.
+     */
+    public Object getConcurrent(Object key, long keyHash, TruffleString.EqualNode tsEqualNode) {
+        assert concurrentReads;
+        for (int attempt = 0; attempt < CONCURRENT_READ_ATTEMPTS; attempt++) {
+            int stamp = writeStamp;
+            if ((stamp & 1) != 0) {
+                // a writer is in the middle of a structural change; it holds the GIL and may be
+                // waiting for us to release it (e.g., in __eq__), so we must not spin here
+                return NEEDS_GIL;
+            }
+            Object result = probeWithoutSideEffects(indices, hashes, keysAndValues, key, keyHash, tsEqualNode);
+            VarHandle.loadLoadFence();
+            if (writeStamp == stamp) {
+                return result;
+            }
+        }
+        return NEEDS_GIL;
+    }
+
+    /**
+     * The arrays may be inconsistent with each other if we race with a rehash, so every index is
+     * bounds-checked and the caller validates the result using {@link #writeStamp}.
+     */
+    private static Object probeWithoutSideEffects(int[] localIndices, long[] localHashes, Object[] localKeysAndValues, Object key, long keyHash,
+                    TruffleString.EqualNode tsEqualNode) {
+        int indicesLen = localIndices.length;
+        int compactIndex = getIndex(indicesLen, keyHash);
+        long perturb = keyHash;
+        int searchLimit = getBucketsCount(localIndices) + PERTURB_SHIFTS_COUT;
+        for (int i = 0; i <= searchLimit; i++) {
+            int index = localIndices[compactIndex];
+            if (index == EMPTY_INDEX) {
+                return null;
+            }
+            if (index != DUMMY_INDEX) {
+                int unwrappedIndex = unwrapIndex(index);
+                if (unwrappedIndex >= localHashes.length || (unwrappedIndex << 1) + 1 >= localKeysAndValues.length) {
+                    return NEEDS_GIL;
+                }
+                if (localHashes[unwrappedIndex] == keyHash) {
+                    Object originalKey = getKey(unwrappedIndex, localKeysAndValues);
+                    if (originalKey == key) {
+                        return getValue(unwrappedIndex, localKeysAndValues);
+                    }
+                    if (originalKey == null) {
+                        return NEEDS_GIL;
+                    }
+                    if (originalKey instanceof TruffleString && key instanceof TruffleString) {
+                        if (tsEqualNode.execute((TruffleString) originalKey, (TruffleString) key, TS_ENCODING)) {
+                            return getValue(unwrappedIndex, localKeysAndValues);
+                        }
+                    } else if (isIntegral(originalKey) && isIntegral(key)) {
+                        if (((Number) originalKey).longValue() == ((Number) key).longValue()) {
+                            return getValue(unwrappedIndex, localKeysAndValues);
+                        }
+                    } else {
+                        // equality of other objects may be user defined
+                        return NEEDS_GIL;
+                    }
+                }
+                if (!isCollision(index)) {
+                    return null;
+                }
+            }
+            perturb >>>= PERTURB_SHIFT;
+            compactIndex = nextIndex(indicesLen, compactIndex, perturb);
+        }
+        return NEEDS_GIL;
+    }
+
+    private static boolean isIntegral(Object o) {
+        return o instanceof Integer || o instanceof Long;
     }
 
     @GenerateUncached
@@ -573,7 +745,7 @@ public final class ObjectHashMap {
             int[] indices = map.indices;
             int indicesLen = indices.length;
 
-            int compactIndex = map.getIndex(indicesLen, keyHash);
+            int compactIndex = getIndex(indicesLen, keyHash);
             int index = indices[compactIndex];
             if (foundNullKey.profile(index == EMPTY_INDEX)) {
                 map.putInNewSlot(indices, rehash1Profile, key, keyHash, value, compactIndex);
@@ -598,7 +770,7 @@ public final class ObjectHashMap {
                         throw RestartLookupException.INSTANCE;
                     }
                     perturb >>>= PERTURB_SHIFT;
-                    compactIndex = map.nextIndex(indicesLen, compactIndex, perturb);
+                    compactIndex = nextIndex(indicesLen, compactIndex, perturb);
                     index = indices[compactIndex];
                     if (collisionFoundNoValue.profile(index == EMPTY_INDEX)) {
                         map.putInNewSlot(indices, rehash2Profile, key, keyHash, value, compactIndex);
@@ -656,12 +828,17 @@ public final class ObjectHashMap {
 
     private void putInNewSlot(int[] localIndices, BranchProfile rehashProfile, Object key, long keyHash, Object value, int compactIndex) {
         assert indices == localIndices;
-        if (CompilerDirectives.injectBranchProbability(SLOWPATH_PROBABILITY, needsResize(localIndices))) {
-            rehashProfile.enter();
-            rehashAndPut(key, keyHash, value);
-            return;
+        beginWrite();
+        try {
+            if (CompilerDirectives.injectBranchProbability(SLOWPATH_PROBABILITY, needsResize(localIndices))) {
+                rehashProfile.enter();
+                rehashAndPut(key, keyHash, value);
+                return;
+            }
+            putInNewSlot(localIndices, key, keyHash, value, compactIndex);
+        } finally {
+            endWrite();
         }
-        putInNewSlot(localIndices, key, keyHash, value, compactIndex);
     }
 
     private void putInNewSlot(int[] localIndices, Object key, long keyHash, Object value, int compactIndex) {
@@ -735,7 +912,7 @@ public final class ObjectHashMap {
 
             // Note: CPython is not shrinking the capacity of the hash table on delete, we do the
             // same
-            int compactIndex = map.getIndex(indicesLen, keyHash);
+            int compactIndex = getIndex(indicesLen, keyHash);
             int index = indices[compactIndex];
             if (foundNullKey.profile(index == EMPTY_INDEX)) {
                 return; // not found
@@ -743,10 +920,7 @@ public final class ObjectHashMap {
 
             int unwrappedIndex = unwrapIndex(index);
             if (foundEqKey.profile(index != DUMMY_INDEX && map.keysEqual(indices, state, unwrappedIndex, key, keyHash, eqNode, hasState))) {
-                indices[compactIndex] = DUMMY_INDEX;
-                map.setValue(unwrappedIndex, null);
-                map.setKey(unwrappedIndex, null);
-                map.size--;
+                map.removeEntry(indices, compactIndex, unwrappedIndex);
                 return;
             }
 
@@ -761,17 +935,14 @@ public final class ObjectHashMap {
                         throw RestartLookupException.INSTANCE;
                     }
                     perturb >>>= PERTURB_SHIFT;
-                    compactIndex = map.nextIndex(indicesLen, compactIndex, perturb);
+                    compactIndex = nextIndex(indicesLen, compactIndex, perturb);
                     index = indices[compactIndex];
                     if (collisionFoundNoValue.profile(index == EMPTY_INDEX)) {
                         return; // not found
                     }
                     unwrappedIndex = unwrapIndex(index);
                     if (collisionFoundEqKey.profile(index != DUMMY_INDEX && map.keysEqual(indices, state, unwrappedIndex, key, keyHash, eqNode, hasState))) {
-                        indices[compactIndex] = DUMMY_INDEX;
-                        map.setValue(unwrappedIndex, null);
-                        map.setKey(unwrappedIndex, null);
-                        map.size--;
+                        map.removeEntry(indices, compactIndex, unwrappedIndex);
                         return;
                     }
                 }
@@ -784,6 +955,15 @@ public final class ObjectHashMap {
         }
     }
 
+    private void removeEntry(int[] localIndices, int compactIndex, int unwrappedIndex) {
+        beginWrite();
+        localIndices[compactIndex] = DUMMY_INDEX;
+        setValue(unwrappedIndex, null);
+        setKey(unwrappedIndex, null);
+        size--;
+        endWrite();
+    }
+
     private static final class RestartLookupException extends Exception {
         private static final long serialVersionUID = -5517471989238569331L;
         private static final RestartLookupException INSTANCE = new RestartLookupException();
@@ -869,6 +1049,15 @@ public final class ObjectHashMap {
 
     @TruffleBoundary
     private void compact() {
+        beginWrite();
+        try {
+            compactImpl();
+        } finally {
+            endWrite();
+        }
+    }
+
+    private void compactImpl() {
         // shuffle[X] will tell us by how much value X found in 'indices' should be shuffled to left
         int[] shuffle = new int[hashes.length];
         int currentShuffle = 0;
@@ -910,11 +1099,11 @@ public final class ObjectHashMap {
         assert dummyCount <= 0;
     }
 
-    private int nextIndex(int indicesLen, int i, long perturb) {
+    private static int nextIndex(int indicesLen, int i, long perturb) {
         return getIndex(indicesLen, i * 5L + perturb + 1L);
     }
 
-    private int getIndex(int indicesLen, long hash) {
+    private static int getIndex(int indicesLen, long hash) {
         // since buckets count is power of 2, the & works as modulo
         return (int) (hash & (indicesLen - 1));
     }
@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.ForEachNode;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.HashingStorageIterable;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
+import com.oracle.graal.python.lib.PyObjectHashNode;
+import com.oracle.graal.python.lib.PyObjectRichCompareBool;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Hashing storage for dicts that map {@code int} or {@code str} keys to {@code int} or
+ * {@code float} values, e.g., counters and histograms. Keys and values are stored unboxed: integer
+ * keys in a {@code long[]}, string keys in a {@code TruffleString[]} with their Python hashes
+ * cached in a {@code long[]}, and values in either a {@code long[]} or a {@code double[]}.
+ *
+ * Like {@link ObjectHashMap}, there is one sparse array of buckets that contains indices into the
+ * compact arrays of keys and values, which preserves the insertion order. Collisions are resolved
+ * with the same perturbed probe sequence as in {@link ObjectHashMap}, so that keys sharing their
+ * low bits (Python ints hash to themselves) do not all end up in one probe chain. Entries are never
+ * removed from this storage: like the primitive {@code SequenceStorage}s, it generalizes to
+ * {@link EconomicMapStorage} on the first key or value that does not fit, and also on the first
+ * deletion.
+ *
+ * Integer keys are only ever {@code int} or {@code long}, never {@code bool}, because
+ * {@code {True: 1}} must keep the key {@code True}. Lookups with other keys that may compare equal
+ * to stored keys (e.g., {@code 1.0} or {@code True}) are resolved by comparing with
+ * {@code __eq__} all stored keys with the same hash.
+ */
+@ExportLibrary(HashingStorageLibrary.class)
+public final class PrimitiveMapStorage extends HashingStorage {
+    private static final int EMPTY_INDEX = -1;
+    private static final int INITIAL_BUCKETS = 8;
+    private static final long PERTURB_SHIFT = 5;
+
+    private final boolean stringKeys;
+    private final boolean doubleValues;
+
+    // sparse array of buckets with indices into the compact arrays below
+    private int[] indices;
+
+    // compact arrays in insertion order, only the ones matching the key/value kind are allocated
+    private long[] longKeys;
+    private TruffleString[] strKeys;
+    private long[] strHashes;
+    private long[] longValues;
+    private double[] doubleValuesArray;
+
+    private int size;
+
+    private PrimitiveMapStorage(boolean stringKeys, boolean doubleValues, int buckets) {
+        this.stringKeys = stringKeys;
+        this.doubleValues = doubleValues;
+        allocate(buckets);
+    }
+
+    private PrimitiveMapStorage(PrimitiveMapStorage original) {
+        this.stringKeys = original.stringKeys;
+        this.doubleValues = original.doubleValues;
+        this.size = original.size;
+        this.indices = PythonUtils.arrayCopyOf(original.indices, original.indices.length);
+        if (stringKeys) {
+            this.strKeys = PythonUtils.arrayCopyOf(original.strKeys, original.strKeys.length);
+            this.strHashes = PythonUtils.arrayCopyOf(original.strHashes, original.strHashes.length);
+        } else {
+            this.longKeys = PythonUtils.arrayCopyOf(original.longKeys, original.longKeys.length);
+        }
+        if (doubleValues) {
+            this.doubleValuesArray = PythonUtils.arrayCopyOf(original.doubleValuesArray, original.doubleValuesArray.length);
+        } else {
+            this.longValues = PythonUtils.arrayCopyOf(original.longValues, original.longValues.length);
+        }
+    }
+
+    /**
+     * Returns {@code true} if a dict with the given first item can use this storage.
+     */
+    public static boolean canStore(Object key, Object value) {
+        return (isIntKey(key) || key instanceof TruffleString) && (isIntValue(value) || value instanceof Double);
+    }
+
+    public static PrimitiveMapStorage create(Object firstKey, Object firstValue) {
+        assert canStore(firstKey, firstValue);
+        return new PrimitiveMapStorage(firstKey instanceof TruffleString, firstValue instanceof Double, INITIAL_BUCKETS);
+    }
+
+    private static boolean isIntKey(Object key) {
+        return key instanceof Integer || key instanceof Long;
+    }
+
+    private static boolean isIntValue(Object value) {
+        return value instanceof Integer || value instanceof Long;
+    }
+
+    public boolean hasStringKeys() {
+        return stringKeys;
+    }
+
+    boolean acceptsKey(Object key) {
+        return stringKeys ? key instanceof TruffleString : isIntKey(key);
+    }
+
+    boolean acceptsValue(Object value) {
+        return doubleValues ? value instanceof Double : isIntValue(value);
+    }
+
+    private void allocate(int buckets) {
+        assert Integer.bitCount(buckets) == 1;
+        indices = new int[buckets];
+        Arrays.fill(indices, EMPTY_INDEX);
+        // the sparse array is at most 2/3 full, see needsResize
+        int capacity = buckets * 2 / 3 + 1;
+        if (stringKeys) {
+            strKeys = new TruffleString[capacity];
+            strHashes = new long[capacity];
+        } else {
+            longKeys = new long[capacity];
+        }
+        if (doubleValues) {
+            doubleValuesArray = new double[capacity];
+        } else {
+            longValues = new long[capacity];
+        }
+    }
+
+    private boolean needsResize() {
+        return (size + 1) * 3 > indices.length * 2;
+    }
+
+    private long getHash(int index) {
+        return stringKeys ? strHashes[index] : PyObjectHashNode.hash(longKeys[index]);
+    }
+
+    private Object getKey(int index) {
+        return stringKeys ? strKeys[index] : (Object) longKeys[index];
+    }
+
+    private Object getValue(int index) {
+        return doubleValues ? (Object) doubleValuesArray[index] : (Object) longValues[index];
+    }
+
+    private void setValue(int index, Object value) {
+        if (doubleValues) {
+            doubleValuesArray[index] = (double) value;
+        } else {
+            longValues[index] = ((Number) value).longValue();
+        }
+    }
+
+    /**
+     * Returns the index of the entry in the compact arrays or {@code -(bucket + 1)} of the empty
+     * bucket where the key would be inserted.
+     */
+    private int findLong(long key, long hash) {
+        int mask = indices.length - 1;
+        int bucket = (int) (hash & mask);
+        long perturb = hash;
+        while (true) {
+            int index = indices[bucket];
+            if (index == EMPTY_INDEX) {
+                return -(bucket + 1);
+            }
+            if (longKeys[index] == key) {
+                return index;
+            }
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+    }
+
+    private int findString(TruffleString key, long hash, TruffleString.EqualNode eqNode) {
+        int mask = indices.length - 1;
+        int bucket = (int) (hash & mask);
+        long perturb = hash;
+        while (true) {
+            int index = indices[bucket];
+            if (index == EMPTY_INDEX) {
+                return -(bucket + 1);
+            }
+            if (strHashes[index] == hash && (strKeys[index] == key || eqNode.execute(strKeys[index], key, TS_ENCODING))) {
+                return index;
+            }
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+    }
+
+    /**
+     * Lookup of keys of other types that may still be equal to some of the stored keys. All keys
+     * with the same hash are in the probe sequence starting at the bucket of the hash.
+     */
+    private int findGeneric(VirtualFrame frame, Object key, long hash, PyObjectRichCompareBool.EqNode eqNode) {
+        int mask = indices.length - 1;
+        int bucket = (int) (hash & mask);
+        long perturb = hash;
+        int[] originalIndices = indices;
+        while (true) {
+            int index = originalIndices[bucket];
+            if (index == EMPTY_INDEX) {
+                return -1;
+            }
+            if (getHash(index) == hash) {
+                boolean equal = eqNode.execute(frame, getKey(index), key);
+                if (originalIndices != indices) {
+                    // __eq__ modified the dict, CPython restarts the lookup in such case
+                    return findGeneric(frame, key, hash, eqNode);
+                }
+                if (equal) {
+                    return index;
+                }
+            }
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+    }
+
+    private static long keyHash(Object key, TruffleString.HashCodeNode hashCodeNode) {
+        if (key instanceof TruffleString) {
+            return PyObjectHashNode.hash((TruffleString) key, hashCodeNode);
+        }
+        return PyObjectHashNode.hash(((Number) key).longValue());
+    }
+
+    private int find(Object key, long hash, TruffleString.EqualNode eqNode) {
+        if (stringKeys) {
+            return findString((TruffleString) key, hash, eqNode);
+        }
+        return findLong(((Number) key).longValue(), hash);
+    }
+
+    private void insert(int freeBucket, Object key, long hash, Object value, BranchProfile resizeProfile) {
+        int bucket = freeBucket;
+        if (needsResize()) {
+            resizeProfile.enter();
+            resize();
+            // find the free bucket again in the new sparse array
+            int mask = indices.length - 1;
+            bucket = findEmptyBucket(hash, mask);
+        }
+        int index = size++;
+        indices[bucket] = index;
+        if (stringKeys) {
+            strKeys[index] = (TruffleString) key;
+            strHashes[index] = hash;
+        } else {
+            longKeys[index] = ((Number) key).longValue();
+        }
+        setValue(index, value);
+    }
+
+    @TruffleBoundary
+    private void resize() {
+        int[] oldIndices = indices;
+        long[] oldLongKeys = longKeys;
+        TruffleString[] oldStrKeys = strKeys;
+        long[] oldStrHashes = strHashes;
+        long[] oldLongValues = longValues;
+        double[] oldDoubleValues = doubleValuesArray;
+        allocate(oldIndices.length << 1);
+        if (stringKeys) {
+            PythonUtils.arraycopy(oldStrKeys, 0, strKeys, 0, size);
+            PythonUtils.arraycopy(oldStrHashes, 0, strHashes, 0, size);
+        } else {
+            PythonUtils.arraycopy(oldLongKeys, 0, longKeys, 0, size);
+        }
+        if (doubleValues) {
+            PythonUtils.arraycopy(oldDoubleValues, 0, doubleValuesArray, 0, size);
+        } else {
+            PythonUtils.arraycopy(oldLongValues, 0, longValues, 0, size);
+        }
+        int mask = indices.length - 1;
+        for (int i = 0; i < size; i++) {
+            indices[findEmptyBucket(getHash(i), mask)] = i;
+        }
+    }
+
+    private int findEmptyBucket(long hash, int mask) {
+        int bucket = (int) (hash & mask);
+        long perturb = hash;
+        while (indices[bucket] != EMPTY_INDEX) {
+            perturb >>>= PERTURB_SHIFT;
+            bucket = nextBucket(bucket, perturb, mask);
+        }
+        return bucket;
+    }
+
+    private static int nextBucket(int bucket, long perturb, int mask) {
+        return (int) ((bucket * 5L + perturb + 1L) & mask);
+    }
+
+    @ExportMessage
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @ExportMessage
+    static class GetItemWithState {
+        @Specialization(guards = "self.acceptsKey(key)")
+        static Object getItemPrimitiveKey(PrimitiveMapStorage self, Object key, @SuppressWarnings("unused") ThreadState state,
+                        @Shared("tsHash") @Cached TruffleString.HashCodeNode hashCodeNode,
+                        @Shared("tsEq") @Cached TruffleString.EqualNode tsEqualNode) {
+            int index = self.find(key, keyHash(key, hashCodeNode), tsEqualNode);
+            return index >= 0 ? self.getValue(index) : null;
+        }
+
+        @Specialization(guards = "!self.acceptsKey(key)")
+        static Object getItemGeneric(PrimitiveMapStorage self, Object key, ThreadState state,
+                        @Shared("hashNode") @Cached PyObjectHashNode hashNode,
+                        @Shared("eqNode") @Cached PyObjectRichCompareBool.EqNode eqNode,
+                        @Shared("gotState") @Cached ConditionProfile gotState) {
+            VirtualFrame frame = gotState.profile(state == null) ? null : PArguments.frameForCall(state);
+            int index = self.findGeneric(frame, key, hashNode.execute(frame, key), eqNode);
+            return index >= 0 ? self.getValue(index) : null;
+        }
+    }
+
+    @ExportMessage
+    static class SetItemWithState {
+        @Specialization(guards = {"self.acceptsKey(key)", "self.acceptsValue(value)"})
+        static HashingStorage setItemPrimitive(PrimitiveMapStorage self, Object key, Object value, @SuppressWarnings("unused") ThreadState state,
+                        @Shared("tsHash") @Cached TruffleString.HashCodeNode hashCodeNode,
+                        @Shared("tsEq") @Cached TruffleString.EqualNode tsEqualNode,
+                        @Cached BranchProfile resizeProfile) {
+            long hash = keyHash(key, hashCodeNode);
+            int index = self.find(key, hash, tsEqualNode);
+            if (index >= 0) {
+                self.setValue(index, value);
+            } else {
+                self.insert(-(index + 1), key, hash, value, resizeProfile);
+            }
+            return self;
+        }
+
+        @Specialization(guards = "!self.acceptsKey(key) || !self.acceptsValue(value)")
+        static HashingStorage generalize(PrimitiveMapStorage self, Object key, Object value, ThreadState state,
+                        @CachedLibrary("self") HashingStorageLibrary thisLib,
+                        @CachedLibrary(limit = "1") HashingStorageLibrary newLib) {
+            HashingStorage newStore = EconomicMapStorage.create(self.size + 1);
+            thisLib.addAllToOther(self, newStore);
+            return newLib.setItemWithState(newStore, key, value, state);
+        }
+    }
+
+    @ExportMessage
+    static HashingStorage delItemWithState(PrimitiveMapStorage self, Object key, ThreadState state,
+                    @CachedLibrary("self") HashingStorageLibrary thisLib,
+                    @CachedLibrary(limit = "1") HashingStorageLibrary newLib) {
+        // entries are never removed from this storage
+        HashingStorage newStore = EconomicMapStorage.create(self.size);
+        thisLib.addAllToOther(self, newStore);
+        return newLib.delItemWithState(newStore, key, state);
+    }
+
+    @ExportMessage
+    @Override
+    Object forEachUntyped(ForEachNode<Object> node, Object argIn) {
+        Object arg = argIn;
+        for (int i = 0; i < size; i++) {
+            arg = node.execute(getKey(i), arg);
+        }
+        return arg;
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorage clear() {
+        return EmptyStorage.INSTANCE;
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorage copy() {
+        return new PrimitiveMapStorage(this);
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> keys() {
+        return new HashingStorageIterable<>(new KeysIterator(this, false));
+    }
+
+    @ExportMessage
+    @Override
+    public HashingStorageIterable<Object> reverseKeys() {
+        return new HashingStorageIterable<>(new KeysIterator(this, true));
+    }
+
+    public static final class KeysIterator implements Iterator<Object> {
+        private final PrimitiveMapStorage storage;
+        private final boolean reverse;
+        // number of keys already returned
+        private int state;
+
+        KeysIterator(PrimitiveMapStorage storage, boolean reverse) {
+            this.storage = storage;
+            this.reverse = reverse;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return state < storage.size;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int index = reverse ? storage.size - 1 - state : state;
+            state++;
+            return storage.getKey(index);
+        }
+
+        public int getState() {
+            return state;
+        }
+
+        public void setState(int state) {
+            this.state = state;
+        }
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        return "PrimitiveMapStorage<" + (stringKeys ? "str" : "int") + ", " + (doubleValues ? "float" : "int") + ">";
+    }
+}
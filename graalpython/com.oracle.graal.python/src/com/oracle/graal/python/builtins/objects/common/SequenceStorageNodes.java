@@ -2569,6 +2569,70 @@ public abstract class SequenceStorageNodes {
             return s.indexOfDouble(item);
         }
 
+        /*
+         * Mixed int/long/float lookups (e.g. "x in list_of_floats" with an int x) compare the
+         * unboxed values directly, matching Python's exact int/float equality.
+         */
+        @Specialization
+        static int doIntStorageLong(IntSequenceStorage s, long item) {
+            if (PInt.isIntRange(item)) {
+                return s.indexOfInt((int) item);
+            }
+            return -1;
+        }
+
+        @Specialization
+        static int doIntStorageDouble(IntSequenceStorage s, double item) {
+            int[] values = s.getInternalIntArray();
+            for (int i = 0; i < s.length(); i++) {
+                if (values[i] == item) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Specialization
+        static int doLongStorageInt(LongSequenceStorage s, int item) {
+            return s.indexOfLong(item);
+        }
+
+        @Specialization
+        static int doLongStorageDouble(LongSequenceStorage s, double item) {
+            // only integral doubles within the long range can be equal to a long
+            if (item < 0x1p63 && (double) (long) item == item) {
+                return s.indexOfLong((long) item);
+            }
+            return -1;
+        }
+
+        @Specialization
+        static int doDoubleStorageInt(DoubleSequenceStorage s, int item) {
+            double[] values = s.getInternalDoubleArray();
+            for (int i = 0; i < s.length(); i++) {
+                if (values[i] == item) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Specialization
+        static int doDoubleStorageLong(DoubleSequenceStorage s, long item) {
+            double itemAsDouble = item;
+            // a long that is not exactly representable as a double cannot be equal to any double
+            if (itemAsDouble == 0x1p63 || (long) itemAsDouble != item) {
+                return -1;
+            }
+            double[] values = s.getInternalDoubleArray();
+            for (int i = 0; i < s.length(); i++) {
+                if (values[i] == itemAsDouble) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
         @Specialization
         static int doGeneric(VirtualFrame frame, SequenceStorage left, Object item,
                         @Cached LenNode lenNode,
@@ -60,6 +60,7 @@ import com.oracle.graal.python.runtime.ExecutionContext.CallContext;
 import com.oracle.graal.python.runtime.ExecutionContext.IndirectCalleeContext;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.sequence.storage.BoolSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.EmptySequenceStorage;
@@ -192,7 +193,11 @@ public abstract class SortNodes {
         void sort(IntSequenceStorage storage, @SuppressWarnings("unused") PNone keyfunc, boolean reverse) {
             int[] array = storage.getInternalIntArray();
             int len = storage.length();
-            Arrays.sort(array, 0, len);
+            if (useParallelSort(len)) {
+                Arrays.parallelSort(array, 0, len);
+            } else {
+                Arrays.sort(array, 0, len);
+            }
             if (reverse) {
                 reverseArray(array, len);
             }
@@ -203,7 +208,11 @@ public abstract class SortNodes {
         void sort(LongSequenceStorage storage, @SuppressWarnings("unused") PNone keyfunc, boolean reverse) {
             long[] array = storage.getInternalLongArray();
             int len = storage.length();
-            Arrays.sort(array, 0, len);
+            if (useParallelSort(len)) {
+                Arrays.parallelSort(array, 0, len);
+            } else {
+                Arrays.sort(array, 0, len);
+            }
             if (reverse) {
                 reverseArray(array, len);
             }
@@ -214,14 +223,29 @@ public abstract class SortNodes {
         void sort(DoubleSequenceStorage storage, @SuppressWarnings("unused") PNone keyfunc, boolean reverse) {
             int len = storage.length();
             double[] array = storage.getInternalDoubleArray();
-            Arrays.sort(array, 0, len);
+            if (useParallelSort(len)) {
+                Arrays.parallelSort(array, 0, len);
+            } else {
+                Arrays.sort(array, 0, len);
+            }
             if (reverse) {
                 reverseArray(array, len);
             }
         }
 
+        /**
+         * Sorts that only compare Java primitives or strings never call back into Python code, so
+         * large inputs can be split among the threads of the common fork-join pool. Sorts that use
+         * a Python comparator must stay on the current thread, because the pool threads are not
+         * entered in the context.
+         */
+        private boolean useParallelSort(int len) {
+            int threshold = PythonLanguage.get(this).getEngineOption(PythonOptions.ParallelSortThreshold);
+            return threshold > 0 && len >= threshold;
+        }
+
         @TruffleBoundary
-        private static void sortStrings(ObjectSequenceStorage storage, boolean reverse) {
+        private void sortStrings(ObjectSequenceStorage storage, boolean reverse) {
             Object[] array = storage.getInternalArray();
             int len = storage.length();
             Comparator<Object> comparator;
@@ -230,7 +254,11 @@ public abstract class SortNodes {
             } else {
                 comparator = (a, b) -> StringUtils.compareStringsUncached((TruffleString) a, (TruffleString) b);
             }
-            Arrays.sort(array, 0, len, comparator);
+            if (useParallelSort(len)) {
+                Arrays.parallelSort(array, 0, len, comparator);
+            } else {
+                Arrays.sort(array, 0, len, comparator);
+            }
         }
 
         protected boolean isStringOnly(ObjectSequenceStorage storage, LoopConditionProfile isStringOnlyLoopProfile, ConditionProfile isStringOnlyBreakProfile) {
@@ -418,8 +446,13 @@ public abstract class SortNodes {
         }
 
         @TruffleBoundary
-        private static void callSortWithKey(SortingPair[] array, int len, KeySortComparator comparator) {
-            Arrays.sort(array, 0, len, comparator.comparator);
+        private void callSortWithKey(SortingPair[] array, int len, KeySortComparator comparator) {
+            // both variants are stable, so the order of equal keys is preserved either way
+            if (useParallelSort(len)) {
+                Arrays.parallelSort(array, 0, len, comparator.comparator);
+            } else {
+                Arrays.sort(array, 0, len, comparator.comparator);
+            }
         }
 
         @TruffleBoundary
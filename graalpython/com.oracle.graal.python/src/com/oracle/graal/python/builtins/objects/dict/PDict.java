@@ -36,6 +36,7 @@ import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.common.KeywordsStorage;
+import com.oracle.graal.python.builtins.objects.common.ObjectHashMap;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass;
@@ -58,6 +59,8 @@ import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
 
 @ExportLibrary(InteropLibrary.class)
 public class PDict extends PHashingCollection {
@@ -158,13 +161,20 @@ public class PDict extends PHashingCollection {
     static Object readHashValue(PDict self, Object key,
                     @Exclusive @Cached GilNode gil,
                     @CachedLibrary("self.getDictStorage()") HashingStorageLibrary lib,
-                    @Exclusive @Cached PForeignToPTypeNode convertNode) throws UnknownKeyException {
-        Object value = null;
-        boolean mustRelease = gil.acquire();
-        try {
-            value = lib.getItem(self.getDictStorage(), convertNode.executeConvert(key));
-        } finally {
-            gil.release(mustRelease);
+                    @Exclusive @Cached PForeignToPTypeNode convertNode,
+                    @Cached TruffleString.HashCodeNode hashCodeNode,
+                    @Cached TruffleString.EqualNode equalNode,
+                    @Cached ConditionProfile concurrentProfile) throws UnknownKeyException {
+        Object pKey = convertNode.executeConvert(key);
+        // dicts shared via __graalpython__.share_dict can be read without taking the GIL
+        Object value = EconomicMapStorage.getItemConcurrent(self.getDictStorage(), pKey, hashCodeNode, equalNode);
+        if (concurrentProfile.profile(value == ObjectHashMap.NEEDS_GIL)) {
+            boolean mustRelease = gil.acquire();
+            try {
+                value = lib.getItem(self.getDictStorage(), pKey);
+            } finally {
+                gil.release(mustRelease);
+            }
         }
         if (value == null) {
             throw UnknownKeyException.create(key);
@@ -370,7 +370,7 @@ public class GeneratorBuiltins extends PythonBuiltins {
         @Child private GetTracebackNode getTracebackNode;
 
         @ImportStatic({PGuards.class, SpecialMethodNames.class})
-        abstract static class PrepareExceptionNode extends Node {
+        public abstract static class PrepareExceptionNode extends Node {
             public abstract PBaseException execute(VirtualFrame frame, Object type, Object value);
 
             private PRaiseNode raiseNode;
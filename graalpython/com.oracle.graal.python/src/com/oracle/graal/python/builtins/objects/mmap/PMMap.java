@@ -50,6 +50,7 @@ import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Exclusive;
 import com.oracle.truffle.api.library.CachedLibrary;
@@ -151,6 +152,28 @@ public final class PMMap extends PythonObject {
         }
     }
 
+    @ExportMessage
+    void readIntoByteArray(int srcOffset, byte[] dest, int destOffset, int length,
+                    @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Cached BranchProfile gotException,
+                    @Cached PConstructAndRaiseNode raiseNode,
+                    @Cached TruffleString.FromJavaStringNode fromJavaStringNode) {
+        // copy the whole range at once instead of going through readByte for every byte
+        try {
+            Object posixSupport = PythonContext.get(raiseNode).getPosixSupport();
+            if (destOffset == 0) {
+                posixLib.mmapReadBytes(posixSupport, getPosixSupportHandle(), srcOffset, dest, length);
+            } else {
+                byte[] tmp = new byte[length];
+                posixLib.mmapReadBytes(posixSupport, getPosixSupportHandle(), srcOffset, tmp, length);
+                PythonUtils.arraycopy(tmp, 0, dest, destOffset, length);
+            }
+        } catch (PosixException e) {
+            gotException.enter();
+            throw raiseNode.raiseOSError(null, e.getErrorCode(), fromJavaStringNode.execute(e.getMessage(), TS_ENCODING), null, null);
+        }
+    }
+
     @ExportMessage
     Object acquire(@SuppressWarnings("unused") int flags) {
         return this;
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.object;
+
+import java.lang.invoke.MethodHandles;
+
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@link PythonObject} with a few preallocated fields for its attributes. The object model
+ * places properties into these fields before it falls back to the extension arrays, so small
+ * objects need no additional allocations and attribute accesses are plain field loads. Primitive
+ * attributes ({@code int}, {@code long}, {@code double}) are stored unboxed in the {@code long}
+ * fields.
+ *
+ * Instances are only created with shapes derived from {@link #newShapeBuilder()}, which the
+ * language does for classes whose instances were observed to have a small and stable set of
+ * attributes (see {@link com.oracle.graal.python.builtins.objects.type.PythonClass}).
+ */
+public final class PythonCompactObject extends PythonObject {
+    /** The number of attributes that fit into the preallocated fields. */
+    public static final int INLINE_FIELDS = 6;
+
+    @DynamicField @SuppressWarnings("unused") private Object o0;
+    @DynamicField @SuppressWarnings("unused") private Object o1;
+    @DynamicField @SuppressWarnings("unused") private Object o2;
+    @DynamicField @SuppressWarnings("unused") private Object o3;
+    @DynamicField @SuppressWarnings("unused") private long p0;
+    @DynamicField @SuppressWarnings("unused") private long p1;
+
+    public PythonCompactObject(Object pythonClass, Shape instanceShape) {
+        super(pythonClass, instanceShape);
+    }
+
+    public static Shape.Builder newShapeBuilder() {
+        return Shape.newBuilder().layout(PythonCompactObject.class, MethodHandles.lookup());
+    }
+
+    public static boolean isCompactShape(Shape shape) {
+        return shape.getLayoutClass() == PythonCompactObject.class;
+    }
+}
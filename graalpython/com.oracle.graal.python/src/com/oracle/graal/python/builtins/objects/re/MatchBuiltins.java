@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.re;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___CLASS_GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___COPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___DEEPCOPY__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.J___REPR__;
+import static com.oracle.graal.python.util.PythonUtils.TS_ENCODING;
+import static com.oracle.graal.python.util.PythonUtils.tsLiteral;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.str.StringUtils.SimpleTruffleStringFormatNode;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyDictSetItem;
+import com.oracle.graal.python.lib.PyIndexCheckNode;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.lib.PyObjectCallMethodObjArgs;
+import com.oracle.graal.python.lib.PyObjectGetAttr;
+import com.oracle.graal.python.lib.PyObjectGetItem;
+import com.oracle.graal.python.lib.PyObjectGetIter;
+import com.oracle.graal.python.lib.PyObjectReprAsTruffleStringNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
+import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.ArrayBuilder;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PMatch)
+public class MatchBuiltins extends PythonBuiltins {
+
+    private static final TruffleString T_GROUPINDEX = tsLiteral("groupindex");
+    private static final TruffleString T_RE = tsLiteral("re");
+    private static final TruffleString T__EXPAND = tsLiteral("_expand");
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return MatchBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Converts a group number or name to a group index, like {@code match_getindex} in CPython.
+     */
+    abstract static class GroupIndexNode extends PNodeWithRaise {
+
+        abstract int execute(VirtualFrame frame, PMatch self, Object group);
+
+        @Specialization
+        int doInt(PMatch self, int group) {
+            if (group < 0 || group > self.getGroupCount()) {
+                throw raise(IndexError, ErrorMessages.NO_SUCH_GROUP);
+            }
+            return group;
+        }
+
+        @Specialization(replaces = "doInt")
+        int doGeneric(VirtualFrame frame, PMatch self, Object group,
+                        @Cached PyIndexCheckNode indexCheckNode,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached PyObjectGetAttr getGroupIndex,
+                        @Cached PyObjectGetItem getItem,
+                        @Cached CastToJavaIntExactNode castToIntNode) {
+            int index;
+            if (indexCheckNode.execute(group)) {
+                index = asSizeNode.executeLossy(frame, group);
+            } else {
+                try {
+                    Object groupIndex = getGroupIndex.execute(frame, self.getPattern(), T_GROUPINDEX);
+                    index = castToIntNode.execute(getItem.execute(frame, groupIndex, group));
+                } catch (PException | CannotCastException e) {
+                    index = -1;
+                }
+            }
+            return doInt(self, index);
+        }
+    }
+
+    /**
+     * Returns the text matched by a group, or {@code defaultValue} if the group did not take part
+     * in the match. The result is a {@code str} for string inputs and {@code bytes} otherwise.
+     */
+    abstract static class GetGroupNode extends PNodeWithRaiseAndIndirectCall {
+
+        abstract Object execute(VirtualFrame frame, PMatch self, int index, Object defaultValue);
+
+        @Specialization
+        Object get(VirtualFrame frame, PMatch self, int index, Object defaultValue,
+                        @Cached TRegexNodes.GetStartNode getStartNode,
+                        @Cached TRegexNodes.GetEndNode getEndNode,
+                        @Cached ConditionProfile isStringProfile,
+                        @Cached CastToTruffleStringNode castToStringNode,
+                        @Cached TruffleString.SubstringNode substringNode,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary bufferAcquireLib,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached PythonObjectFactory factory) {
+            int start = getStartNode.execute(self.getRegexResult(), index);
+            if (start < 0) {
+                return defaultValue;
+            }
+            int end = getEndNode.execute(self.getRegexResult(), index);
+            Object string = self.getString();
+            if (isStringProfile.profile(PGuards.isString(string))) {
+                return substringNode.execute(castToStringNode.execute(string), start, end - start, TS_ENCODING, false);
+            }
+            Object buffer = bufferAcquireLib.acquireReadonly(string, frame, this);
+            try {
+                byte[] bytes = new byte[end - start];
+                bufferLib.readIntoByteArray(buffer, start, bytes, 0, bytes.length);
+                return factory.createBytes(bytes);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the named groups of the pattern.
+     */
+    abstract static class GetGroupNamesNode extends PNodeWithRaise {
+
+        abstract Object[] execute(VirtualFrame frame, PMatch self);
+
+        @Specialization
+        static Object[] get(VirtualFrame frame, PMatch self,
+                        @Cached PyObjectGetAttr getGroupIndex,
+                        @Cached PyObjectGetIter getIter,
+                        @Cached GetNextNode getNextNode,
+                        @Cached IsBuiltinClassProfile stopIterationProfile) {
+            Object iterator = getIter.execute(frame, getGroupIndex.execute(frame, self.getPattern(), T_GROUPINDEX));
+            ArrayBuilder<Object> names = new ArrayBuilder<>();
+            while (true) {
+                try {
+                    names.add(getNextNode.execute(frame, iterator));
+                } catch (PException e) {
+                    e.expectStopIteration(stopIterationProfile);
+                    return names.toObjectArray(new Object[names.size()]);
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "group", minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    abstract static class GroupNode extends PythonBuiltinNode {
+
+        @Specialization(guards = "args.length == 0")
+        static Object doNoArgs(VirtualFrame frame, PMatch self, @SuppressWarnings("unused") Object[] args,
+                        @Shared("getGroup") @Cached GetGroupNode getGroupNode) {
+            return getGroupNode.execute(frame, self, 0, PNone.NONE);
+        }
+
+        @Specialization(guards = "args.length == 1")
+        static Object doOneArg(VirtualFrame frame, PMatch self, Object[] args,
+                        @Shared("index") @Cached GroupIndexNode groupIndexNode,
+                        @Shared("getGroup") @Cached GetGroupNode getGroupNode) {
+            return getGroupNode.execute(frame, self, groupIndexNode.execute(frame, self, args[0]), PNone.NONE);
+        }
+
+        @Specialization(guards = "args.length > 1")
+        PTuple doManyArgs(VirtualFrame frame, PMatch self, Object[] args,
+                        @Shared("index") @Cached GroupIndexNode groupIndexNode,
+                        @Shared("getGroup") @Cached GetGroupNode getGroupNode) {
+            Object[] result = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                result[i] = getGroupNode.execute(frame, self, groupIndexNode.execute(frame, self, args[i]), PNone.NONE);
+            }
+            return factory().createTuple(result);
+        }
+    }
+
+    @Builtin(name = J___GETITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class GetItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object getItem(VirtualFrame frame, PMatch self, Object group,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached GetGroupNode getGroupNode) {
+            return getGroupNode.execute(frame, self, groupIndexNode.execute(frame, self, group), PNone.NONE);
+        }
+    }
+
+    @Builtin(name = "groups", minNumOfPositionalArgs = 1, parameterNames = {"$self", "default"})
+    @GenerateNodeFactory
+    abstract static class GroupsNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PTuple groups(VirtualFrame frame, PMatch self, Object defaultValue,
+                        @Cached GetGroupNode getGroupNode) {
+            Object dflt = defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue;
+            Object[] result = new Object[self.getGroupCount()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = getGroupNode.execute(frame, self, i + 1, dflt);
+            }
+            return factory().createTuple(result);
+        }
+    }
+
+    @Builtin(name = "groupdict", minNumOfPositionalArgs = 1, parameterNames = {"$self", "default"})
+    @GenerateNodeFactory
+    abstract static class GroupDictNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PDict groupdict(VirtualFrame frame, PMatch self, Object defaultValue,
+                        @Cached GetGroupNamesNode getGroupNamesNode,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached GetGroupNode getGroupNode,
+                        @Cached PyDictSetItem setItem) {
+            Object dflt = defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue;
+            PDict result = factory().createDict();
+            for (Object name : getGroupNamesNode.execute(frame, self)) {
+                setItem.execute(frame, result, name, getGroupNode.execute(frame, self, groupIndexNode.execute(frame, self, name), dflt));
+            }
+            return result;
+        }
+    }
+
+    abstract static class GroupBoundaryNode extends PythonBinaryBuiltinNode {
+        static int getIndex(VirtualFrame frame, PMatch self, Object group, GroupIndexNode groupIndexNode) {
+            return group == PNone.NO_VALUE ? 0 : groupIndexNode.execute(frame, self, group);
+        }
+    }
+
+    @Builtin(name = "start", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class StartNode extends GroupBoundaryNode {
+        @Specialization
+        static int start(VirtualFrame frame, PMatch self, Object group,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached TRegexNodes.GetStartNode getStartNode) {
+            return getStartNode.execute(self.getRegexResult(), getIndex(frame, self, group, groupIndexNode));
+        }
+    }
+
+    @Builtin(name = "end", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class EndNode extends GroupBoundaryNode {
+        @Specialization
+        static int end(VirtualFrame frame, PMatch self, Object group,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached TRegexNodes.GetEndNode getEndNode) {
+            return getEndNode.execute(self.getRegexResult(), getIndex(frame, self, group, groupIndexNode));
+        }
+    }
+
+    @Builtin(name = "span", minNumOfPositionalArgs = 1, parameterNames = {"$self", "group"})
+    @GenerateNodeFactory
+    abstract static class SpanNode extends GroupBoundaryNode {
+        @Specialization
+        PTuple span(VirtualFrame frame, PMatch self, Object group,
+                        @Cached GroupIndexNode groupIndexNode,
+                        @Cached TRegexNodes.GetStartNode getStartNode,
+                        @Cached TRegexNodes.GetEndNode getEndNode) {
+            int index = getIndex(frame, self, group, groupIndexNode);
+            return factory().createTuple(new Object[]{getStartNode.execute(self.getRegexResult(), index), getEndNode.execute(self.getRegexResult(), index)});
+        }
+    }
+
+    @Builtin(name = "regs", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class RegsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PTuple regs(PMatch self,
+                        @Cached TRegexNodes.GetStartNode getStartNode,
+                        @Cached TRegexNodes.GetEndNode getEndNode) {
+            Object[] result = new Object[self.getGroupCount() + 1];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = factory().createTuple(new Object[]{getStartNode.execute(self.getRegexResult(), i), getEndNode.execute(self.getRegexResult(), i)});
+            }
+            return factory().createTuple(result);
+        }
+    }
+
+    @Builtin(name = "expand", minNumOfPositionalArgs = 2, parameterNames = {"$self", "template"})
+    @GenerateNodeFactory
+    abstract static class ExpandNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object expand(VirtualFrame frame, PMatch self, Object template,
+                        @Cached PyObjectCallMethodObjArgs callMethod) {
+            return callMethod.execute(frame, importRe(), T__EXPAND, self.getPattern(), self, template);
+        }
+
+        @TruffleBoundary
+        private static Object importRe() {
+            return AbstractImportNode.importModule(T_RE);
+        }
+    }
+
+    @Builtin(name = "string", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class StringNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object string(PMatch self) {
+            return self.getString();
+        }
+    }
+
+    @Builtin(name = "re", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ReNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object re(PMatch self) {
+            return self.getPattern();
+        }
+    }
+
+    @Builtin(name = "pos", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class PosNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int pos(PMatch self) {
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "endpos", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class EndposNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int endpos(PMatch self) {
+            return self.getEndpos();
+        }
+    }
+
+    @Builtin(name = "lastindex", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LastIndexNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object lastindex(PMatch self,
+                        @Cached TRegexNodes.GetLastGroupNode getLastGroupNode) {
+            int lastGroup = getLastGroupNode.execute(self.getRegexResult());
+            return lastGroup == -1 ? PNone.NONE : lastGroup;
+        }
+    }
+
+    @Builtin(name = "lastgroup", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LastGroupNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object lastgroup(VirtualFrame frame, PMatch self,
+                        @Cached TRegexNodes.GetLastGroupNode getLastGroupNode,
+                        @Cached GetGroupNamesNode getGroupNamesNode,
+                        @Cached GroupIndexNode groupIndexNode) {
+            int lastGroup = getLastGroupNode.execute(self.getRegexResult());
+            if (lastGroup != -1) {
+                for (Object name : getGroupNamesNode.execute(frame, self)) {
+                    if (groupIndexNode.execute(frame, self, name) == lastGroup) {
+                        return name;
+                    }
+                }
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = J___REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString repr(VirtualFrame frame, PMatch self,
+                        @Cached TRegexNodes.GetStartNode getStartNode,
+                        @Cached TRegexNodes.GetEndNode getEndNode,
+                        @Cached GetGroupNode getGroupNode,
+                        @Cached PyObjectReprAsTruffleStringNode reprNode,
+                        @Cached SimpleTruffleStringFormatNode formatNode) {
+            int start = getStartNode.execute(self.getRegexResult(), 0);
+            int end = getEndNode.execute(self.getRegexResult(), 0);
+            TruffleString match = reprNode.execute(frame, getGroupNode.execute(frame, self, 0, PNone.NONE));
+            return formatNode.format("<re.Match object; span=(%d, %d), match=%s>", start, end, match);
+        }
+    }
+
+    @Builtin(name = J___COPY__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object copy(PMatch self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = J___DEEPCOPY__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object deepcopy(PMatch self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+
+    @Builtin(name = J___CLASS_GETITEM__, minNumOfPositionalArgs = 2, isClassmethod = true)
+    @GenerateNodeFactory
+    abstract static class ClassGetItemNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object classGetItem(Object cls, Object key) {
+            return factory().createGenericAlias(cls, key);
+        }
+    }
+}
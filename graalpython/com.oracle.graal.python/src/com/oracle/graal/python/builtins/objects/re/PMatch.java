@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.re;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A successful match of a TRegex-compiled pattern. The group boundaries are read from the TRegex
+ * result on demand, so creating a match does not allocate anything besides this object.
+ */
+public final class PMatch extends PythonBuiltinObject {
+    private final Object pattern;
+    private final Object string;
+    private final Object regexResult;
+    private final int pos;
+    private final int endpos;
+    private final int groupCount;
+
+    public PMatch(Object cls, Shape instanceShape, Object pattern, Object string, Object regexResult, int pos, int endpos, int groupCount) {
+        super(cls, instanceShape);
+        this.pattern = pattern;
+        this.string = string;
+        this.regexResult = regexResult;
+        this.pos = pos;
+        this.endpos = endpos;
+        this.groupCount = groupCount;
+    }
+
+    /**
+     * The {@code Pattern} object that produced this match.
+     */
+    public Object getPattern() {
+        return pattern;
+    }
+
+    /**
+     * The original input object, i.e., a {@code str} or a bytes-like object.
+     */
+    public Object getString() {
+        return string;
+    }
+
+    public Object getRegexResult() {
+        return regexResult;
+    }
+
+    public int getPos() {
+        return pos;
+    }
+
+    public int getEndpos() {
+        return endpos;
+    }
+
+    /**
+     * The number of capture groups, not counting the implicit group 0.
+     */
+    public int getGroupCount() {
+        return groupCount;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.re;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.ArityException;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Nodes for accessing compiled TRegex regexes and their results through interop.
+ */
+public abstract class TRegexNodes {
+
+    private static final String EXEC = "exec";
+    private static final String GROUP_COUNT = "groupCount";
+    private static final String IS_MATCH = "isMatch";
+    private static final String GET_START = "getStart";
+    private static final String GET_END = "getEnd";
+    private static final String LAST_GROUP = "lastGroup";
+
+    /**
+     * Runs a compiled regex on {@code input}, starting at {@code fromIndex}. Bytes-like inputs must
+     * be converted to a Latin-1 string first.
+     */
+    public abstract static class ExecNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract Object execute(VirtualFrame frame, Object compiledRegex, TruffleString input, int fromIndex);
+
+        @Specialization(limit = "2")
+        Object exec(VirtualFrame frame, Object compiledRegex, TruffleString input, int fromIndex,
+                        @CachedLibrary("compiledRegex") InteropLibrary interop) {
+            PythonContext context = PythonContext.get(this);
+            PythonLanguage language = PythonLanguage.get(this);
+            Object state = IndirectCallContext.enter(frame, language, context, this);
+            try {
+                return interop.invokeMember(compiledRegex, EXEC, input, fromIndex);
+            } catch (ArityException | UnknownIdentifierException | UnsupportedTypeException | UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere("could not call TRegex exec method", e);
+            } finally {
+                IndirectCallContext.exit(frame, language, context, state);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of groups of a compiled regex, including the implicit group 0.
+     */
+    @GenerateUncached
+    public abstract static class GetGroupCountNode extends Node {
+
+        public abstract int execute(Object compiledRegex);
+
+        @Specialization(limit = "2")
+        static int get(Object compiledRegex,
+                        @CachedLibrary("compiledRegex") InteropLibrary interop,
+                        @CachedLibrary(limit = "1") InteropLibrary valueLib) {
+            try {
+                return valueLib.asInt(interop.readMember(compiledRegex, GROUP_COUNT));
+            } catch (UnsupportedMessageException | UnknownIdentifierException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    @GenerateUncached
+    public abstract static class IsMatchNode extends Node {
+
+        public abstract boolean execute(Object regexResult);
+
+        @Specialization(limit = "2")
+        static boolean isMatch(Object regexResult,
+                        @CachedLibrary("regexResult") InteropLibrary interop,
+                        @CachedLibrary(limit = "1") InteropLibrary valueLib) {
+            try {
+                return valueLib.asBoolean(interop.readMember(regexResult, IS_MATCH));
+            } catch (UnsupportedMessageException | UnknownIdentifierException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the start index of a group in a regex result, or -1 if the group did not match.
+     */
+    @GenerateUncached
+    public abstract static class GetStartNode extends Node {
+
+        public abstract int execute(Object regexResult, int group);
+
+        @Specialization(limit = "2")
+        static int get(Object regexResult, int group,
+                        @CachedLibrary("regexResult") InteropLibrary interop,
+                        @CachedLibrary(limit = "1") InteropLibrary valueLib) {
+            try {
+                return valueLib.asInt(interop.invokeMember(regexResult, GET_START, group));
+            } catch (InteropException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the end index of a group in a regex result, or -1 if the group did not match.
+     */
+    @GenerateUncached
+    public abstract static class GetEndNode extends Node {
+
+        public abstract int execute(Object regexResult, int group);
+
+        @Specialization(limit = "2")
+        static int get(Object regexResult, int group,
+                        @CachedLibrary("regexResult") InteropLibrary interop,
+                        @CachedLibrary(limit = "1") InteropLibrary valueLib) {
+            try {
+                return valueLib.asInt(interop.invokeMember(regexResult, GET_END, group));
+            } catch (InteropException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the last matched group of a regex result, or -1 if there is none.
+     */
+    @GenerateUncached
+    public abstract static class GetLastGroupNode extends Node {
+
+        public abstract int execute(Object regexResult);
+
+        @Specialization(limit = "2")
+        static int get(Object regexResult,
+                        @CachedLibrary("regexResult") InteropLibrary interop,
+                        @CachedLibrary(limit = "1") InteropLibrary valueLib) {
+            try {
+                return valueLib.asInt(interop.readMember(regexResult, LAST_GROUP));
+            } catch (UnsupportedMessageException | UnknownIdentifierException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.KeyError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLOUT;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLPRI;
+import static com.oracle.graal.python.util.TimeUtils.MS_TO_NS;
+
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.lib.PyLongAsIntNode;
+import com.oracle.graal.python.lib.PyObjectAsFileDescriptor;
+import com.oracle.graal.python.lib.PyTimeFromObjectNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.runtime.AsyncHandler.AsyncAction;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.util.TimeUtils;
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.RootNode;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PPoll)
+public class PollBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PollBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PNone register(VirtualFrame frame, PPoll self, Object fdObj, Object eventmaskObj,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            int fd = asFileDescriptor.execute(frame, fdObj);
+            int events;
+            if (PGuards.isNoValue(eventmaskObj)) {
+                events = POLLIN.value | POLLPRI.value | POLLOUT.value;
+            } else {
+                events = asEventMask(frame, this, eventmaskObj, asIntNode);
+            }
+            try {
+                posixLib.pollRegister(getPosixSupport(), self.ref.getReference(), fd, events);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            self.register(fd, events);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PNone modify(VirtualFrame frame, PPoll self, Object fdObj, Object eventmaskObj,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @Cached PyLongAsIntNode asIntNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            int fd = asFileDescriptor.execute(frame, fdObj);
+            int events = asEventMask(frame, this, eventmaskObj, asIntNode);
+            if (!self.isRegistered(fd)) {
+                throw raiseOSError(frame, OSErrorEnum.ENOENT);
+            }
+            try {
+                posixLib.pollRegister(getPosixSupport(), self.ref.getReference(), fd, events);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            self.register(fd, events);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone unregister(VirtualFrame frame, PPoll self, Object fdObj,
+                        @Cached PyObjectAsFileDescriptor asFileDescriptor,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            int fd = asFileDescriptor.execute(frame, fdObj);
+            if (!self.unregister(fd)) {
+                throw raise(KeyError, new Object[]{fdObj});
+            }
+            try {
+                posixLib.pollUnregister(getPosixSupport(), self.ref.getReference(), fd);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout"})
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PList poll(VirtualFrame frame, PPoll self, Object timeoutObj,
+                        @Cached PyTimeFromObjectNode pyTimeFromObjectNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached GilNode gil) {
+            // the timeout is in milliseconds, None or a negative value mean waiting indefinitely
+            long timeoutMs = -1;
+            if (!PGuards.isPNone(timeoutObj)) {
+                long timeoutNs = pyTimeFromObjectNode.execute(frame, timeoutObj, MS_TO_NS);
+                if (timeoutNs >= 0) {
+                    timeoutMs = TimeUtils.pyTimeDivide(timeoutNs, MS_TO_NS);
+                }
+            }
+            if (self.running) {
+                throw raise(RuntimeError, ErrorMessages.CONCURRENT_POLL_INVOCATION);
+            }
+            int[] result;
+            self.running = true;
+            try {
+                gil.release(true);
+                try {
+                    result = posixLib.poll(getPosixSupport(), self.ref.getReference(), timeoutMs);
+                } finally {
+                    gil.acquire();
+                }
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            } finally {
+                self.running = false;
+            }
+            Object[] pairs = new Object[result.length / 2];
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = factory().createTuple(new Object[]{result[2 * i], result[2 * i + 1]});
+            }
+            return factory().createList(pairs);
+        }
+    }
+
+    private static int asEventMask(VirtualFrame frame, PythonBuiltinBaseNode node, Object eventmaskObj, PyLongAsIntNode asIntNode) {
+        // CPython converts the event mask to an unsigned short
+        int events = asIntNode.execute(frame, eventmaskObj);
+        if (events < 0) {
+            throw node.raise(ValueError, ErrorMessages.VALUE_MUST_BE_POSITIVE);
+        } else if (events > 0xFFFF) {
+            throw node.raise(OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_FOR_C_UNSIGNED_SHORT);
+        }
+        return events;
+    }
+
+    static class ReleaseCallback implements AsyncAction {
+
+        private final PPoll.PollSetRef ref;
+
+        ReleaseCallback(PPoll.PollSetRef ref) {
+            this.ref = ref;
+        }
+
+        @Override
+        public void execute(PythonContext context) {
+            if (ref.isReleased()) {
+                return;
+            }
+            PythonLanguage language = context.getLanguage();
+            CallTarget callTarget = language.createCachedCallTarget(ReleaserRootNode::new, ReleaserRootNode.class);
+            callTarget.call(ref);
+        }
+
+        private static class ReleaserRootNode extends RootNode {
+            @Child private PosixSupportLibrary posixSupportLibrary = PosixSupportLibrary.getFactory().createDispatched(1);
+
+            ReleaserRootNode(TruffleLanguage<?> language) {
+                super(language);
+            }
+
+            @Override
+            public Object execute(VirtualFrame frame) {
+                PPoll.PollSetRef ref = (PPoll.PollSetRef) frame.getArguments()[0];
+                ref.close(posixSupportLibrary, PythonContext.get(this).getPosixSupport());
+                return null;
+            }
+        }
+    }
+}
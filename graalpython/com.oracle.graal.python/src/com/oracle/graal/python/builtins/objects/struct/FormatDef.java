@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+/**
+ * Describes a single format character of the {@code struct} module: its kind, size in bytes and
+ * the alignment it requires in native mode. Equivalent of CPython's {@code formatdef}.
+ */
+public final class FormatDef {
+
+    public enum FormatType {
+        PAD,
+        BOOL,
+        CHAR,
+        STRING,
+        PASCAL_STRING,
+        INTEGER,
+        UNSIGNED,
+        POINTER,
+        HALF_FLOAT,
+        FLOAT,
+        DOUBLE
+    }
+
+    public final char format;
+    public final FormatType type;
+    public final int size;
+    public final int alignment;
+    public final boolean nativeMode;
+
+    private FormatDef(char format, FormatType type, int size, int alignment, boolean nativeMode) {
+        this.format = format;
+        this.type = type;
+        this.size = size;
+        this.alignment = alignment;
+        this.nativeMode = nativeMode;
+    }
+
+    private static final FormatDef[] NATIVE_TABLE = new FormatDef[128];
+    private static final FormatDef[] STANDARD_TABLE = new FormatDef[128];
+
+    private static void add(FormatDef[] table, char format, FormatType type, int size, int alignment) {
+        table[format] = new FormatDef(format, type, size, alignment, table == NATIVE_TABLE);
+    }
+
+    static {
+        // native sizes and alignments of an LP64 platform
+        add(NATIVE_TABLE, 'x', FormatType.PAD, 1, 0);
+        add(NATIVE_TABLE, 'b', FormatType.INTEGER, 1, 0);
+        add(NATIVE_TABLE, 'B', FormatType.UNSIGNED, 1, 0);
+        add(NATIVE_TABLE, 'c', FormatType.CHAR, 1, 0);
+        add(NATIVE_TABLE, 's', FormatType.STRING, 1, 0);
+        add(NATIVE_TABLE, 'p', FormatType.PASCAL_STRING, 1, 0);
+        add(NATIVE_TABLE, 'h', FormatType.INTEGER, 2, 2);
+        add(NATIVE_TABLE, 'H', FormatType.UNSIGNED, 2, 2);
+        add(NATIVE_TABLE, 'i', FormatType.INTEGER, 4, 4);
+        add(NATIVE_TABLE, 'I', FormatType.UNSIGNED, 4, 4);
+        add(NATIVE_TABLE, 'l', FormatType.INTEGER, 8, 8);
+        add(NATIVE_TABLE, 'L', FormatType.UNSIGNED, 8, 8);
+        add(NATIVE_TABLE, 'q', FormatType.INTEGER, 8, 8);
+        add(NATIVE_TABLE, 'Q', FormatType.UNSIGNED, 8, 8);
+        add(NATIVE_TABLE, 'n', FormatType.INTEGER, 8, 8);
+        add(NATIVE_TABLE, 'N', FormatType.UNSIGNED, 8, 8);
+        add(NATIVE_TABLE, '?', FormatType.BOOL, 1, 0);
+        add(NATIVE_TABLE, 'e', FormatType.HALF_FLOAT, 2, 2);
+        add(NATIVE_TABLE, 'f', FormatType.FLOAT, 4, 4);
+        add(NATIVE_TABLE, 'd', FormatType.DOUBLE, 8, 8);
+        add(NATIVE_TABLE, 'P', FormatType.POINTER, 8, 8);
+
+        // standard sizes, no alignment
+        add(STANDARD_TABLE, 'x', FormatType.PAD, 1, 0);
+        add(STANDARD_TABLE, 'b', FormatType.INTEGER, 1, 0);
+        add(STANDARD_TABLE, 'B', FormatType.UNSIGNED, 1, 0);
+        add(STANDARD_TABLE, 'c', FormatType.CHAR, 1, 0);
+        add(STANDARD_TABLE, 's', FormatType.STRING, 1, 0);
+        add(STANDARD_TABLE, 'p', FormatType.PASCAL_STRING, 1, 0);
+        add(STANDARD_TABLE, 'h', FormatType.INTEGER, 2, 0);
+        add(STANDARD_TABLE, 'H', FormatType.UNSIGNED, 2, 0);
+        add(STANDARD_TABLE, 'i', FormatType.INTEGER, 4, 0);
+        add(STANDARD_TABLE, 'I', FormatType.UNSIGNED, 4, 0);
+        add(STANDARD_TABLE, 'l', FormatType.INTEGER, 4, 0);
+        add(STANDARD_TABLE, 'L', FormatType.UNSIGNED, 4, 0);
+        add(STANDARD_TABLE, 'q', FormatType.INTEGER, 8, 0);
+        add(STANDARD_TABLE, 'Q', FormatType.UNSIGNED, 8, 0);
+        add(STANDARD_TABLE, '?', FormatType.BOOL, 1, 0);
+        add(STANDARD_TABLE, 'e', FormatType.HALF_FLOAT, 2, 0);
+        add(STANDARD_TABLE, 'f', FormatType.FLOAT, 4, 0);
+        add(STANDARD_TABLE, 'd', FormatType.DOUBLE, 8, 0);
+    }
+
+    /**
+     * Returns the definition of the given format character or {@code null} if the character is
+     * not valid in the requested mode.
+     */
+    static FormatDef lookup(char format, boolean nativeMode) {
+        if (format >= 128) {
+            return null;
+        }
+        return nativeMode ? NATIVE_TABLE[format] : STANDARD_TABLE[format];
+    }
+}
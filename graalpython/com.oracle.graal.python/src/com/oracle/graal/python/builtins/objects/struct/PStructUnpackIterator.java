@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import com.oracle.graal.python.builtins.objects.iterator.PBuiltinIterator;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * Iterator returned by {@code iter_unpack}. It keeps the acquired buffer until it is exhausted and
+ * uses {@link #index} as the byte offset of the next chunk.
+ */
+public final class PStructUnpackIterator extends PBuiltinIterator {
+    final StructInfo structInfo;
+    private Object buffer;
+    private final int bufferLength;
+
+    public PStructUnpackIterator(Object cls, Shape instanceShape, StructInfo structInfo, Object buffer, int bufferLength) {
+        super(cls, instanceShape);
+        this.structInfo = structInfo;
+        this.buffer = buffer;
+        this.bufferLength = bufferLength;
+    }
+
+    Object getBuffer() {
+        return buffer;
+    }
+
+    int getBufferLength() {
+        return bufferLength;
+    }
+
+    int lengthHint() {
+        if (buffer == null) {
+            return 0;
+        }
+        return (bufferLength - index) / structInfo.getSize();
+    }
+
+    /**
+     * Marks the iterator as exhausted and returns the buffer that has to be released by the
+     * caller.
+     */
+    Object clearBuffer() {
+        Object result = buffer;
+        buffer = null;
+        setExhausted();
+        return result;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.strings.TruffleString;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PStruct)
+public class StructBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return StructBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "pack", minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    public abstract static class PackNode extends PythonBuiltinNode {
+        @Specialization
+        static PBytes pack(VirtualFrame frame, PStruct self, Object[] args,
+                        @Cached StructNodes.PackNode packNode) {
+            return packNode.execute(frame, self.getStructInfo(), args);
+        }
+    }
+
+    @Builtin(name = "pack_into", minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    public abstract static class PackIntoNode extends PythonBuiltinNode {
+        @Specialization
+        static PNone packInto(VirtualFrame frame, PStruct self, Object[] args,
+                        @Cached StructNodes.PackIntoNode packIntoNode) {
+            packIntoNode.execute(frame, self.getStructInfo(), args);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unpack", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffer"}, numOfPositionalOnlyArgs = 2)
+    @ArgumentClinic(name = "buffer", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @GenerateNodeFactory
+    public abstract static class UnpackNode extends PythonBinaryClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PTuple unpack(VirtualFrame frame, PStruct self, Object buffer,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached StructNodes.UnpackNode unpackNode) {
+            try {
+                return unpackNode.execute(self.getStructInfo(), buffer);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StructBuiltinsClinicProviders.UnpackNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "unpack_from", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffer", "offset"})
+    @ArgumentClinic(name = "buffer", conversion = ArgumentClinic.ClinicConversion.ReadableBuffer)
+    @ArgumentClinic(name = "offset", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    public abstract static class UnpackFromNode extends PythonTernaryClinicBuiltinNode {
+        @Specialization(limit = "3")
+        PTuple unpackFrom(VirtualFrame frame, PStruct self, Object buffer, int offset,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached StructNodes.UnpackFromNode unpackFromNode) {
+            try {
+                return unpackFromNode.execute(self.getStructInfo(), buffer, offset);
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StructBuiltinsClinicProviders.UnpackFromNodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "iter_unpack", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffer"}, numOfPositionalOnlyArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class IterUnpackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PStructUnpackIterator iterUnpack(VirtualFrame frame, PStruct self, Object buffer,
+                        @Cached StructNodes.IterUnpackNode iterUnpackNode) {
+            return iterUnpackNode.execute(frame, self.getStructInfo(), buffer);
+        }
+    }
+
+    @Builtin(name = "format", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class FormatNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static TruffleString format(PStruct self) {
+            return self.getStructInfo().getFormat();
+        }
+    }
+
+    @Builtin(name = "size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class SizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int size(PStruct self) {
+            return self.getStructInfo().getSize();
+        }
+    }
+}
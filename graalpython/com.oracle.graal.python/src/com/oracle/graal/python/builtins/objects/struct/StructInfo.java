@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import static com.oracle.graal.python.nodes.ErrorMessages.BAD_CHAR_IN_STRUCT_FORMAT;
+import static com.oracle.graal.python.nodes.ErrorMessages.REPEAT_COUNT_WITHOUT_FMT;
+import static com.oracle.graal.python.nodes.ErrorMessages.TOTAL_STRUCT_SIZE_TOO_LONG;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StructError;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+import com.oracle.graal.python.builtins.objects.struct.FormatDef.FormatType;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.util.NumericSupport;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * The parsed form of a struct format string. Instances are immutable and do not refer to any
+ * context, so they can be cached in the AST and shared between all {@code Struct} objects and
+ * module-level function calls using the same format.
+ */
+public final class StructInfo {
+    private final TruffleString format;
+    @CompilationFinal(dimensions = 1) private final FormatCode[] codes;
+    private final int size;
+    private final int length;
+    private final NumericSupport numericSupport;
+
+    private StructInfo(TruffleString format, FormatCode[] codes, int size, int length, boolean bigEndian) {
+        this.format = format;
+        this.codes = codes;
+        this.size = size;
+        this.length = length;
+        this.numericSupport = bigEndian ? NumericSupport.bigEndian() : NumericSupport.littleEndian();
+    }
+
+    public TruffleString getFormat() {
+        return format;
+    }
+
+    public FormatCode[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * The number of bytes of the packed data.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The number of Python values the packed data consists of.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public NumericSupport getNumericSupport() {
+        return numericSupport;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\u000b' || c == '\f';
+    }
+
+    private static boolean isDigit(char c) {
+        return '0' <= c && c <= '9';
+    }
+
+    /**
+     * Parses a struct format, following CPython's {@code prepare_s}. Any error is raised as
+     * {@code struct.error}.
+     */
+    @TruffleBoundary
+    public static StructInfo compile(Node raisingNode, TruffleString format) {
+        String fmt = format.toJavaStringUncached();
+        int pos = 0;
+        boolean nativeMode = true;
+        boolean bigEndian = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+        if (!fmt.isEmpty()) {
+            switch (fmt.charAt(0)) {
+                case '<':
+                    nativeMode = false;
+                    bigEndian = false;
+                    pos++;
+                    break;
+                case '>':
+                case '!':
+                    nativeMode = false;
+                    bigEndian = true;
+                    pos++;
+                    break;
+                case '=':
+                    nativeMode = false;
+                    pos++;
+                    break;
+                case '@':
+                    pos++;
+                    break;
+            }
+        }
+
+        ArrayList<FormatCode> codes = new ArrayList<>();
+        long size = 0;
+        int length = 0;
+        int fmtLength = fmt.length();
+        while (pos < fmtLength) {
+            char c = fmt.charAt(pos++);
+            if (c == '\0') {
+                // the format is treated as a C string
+                break;
+            }
+            if (isSpace(c)) {
+                continue;
+            }
+            long num = 1;
+            if (isDigit(c)) {
+                num = c - '0';
+                while (pos < fmtLength && isDigit(c = fmt.charAt(pos++))) {
+                    num = num * 10 + (c - '0');
+                    if (num > Integer.MAX_VALUE) {
+                        throw PRaiseNode.raiseUncached(raisingNode, StructError, TOTAL_STRUCT_SIZE_TOO_LONG);
+                    }
+                }
+                if (isDigit(c) || c == '\0') {
+                    throw PRaiseNode.raiseUncached(raisingNode, StructError, REPEAT_COUNT_WITHOUT_FMT);
+                }
+            }
+            FormatDef def = FormatDef.lookup(c, nativeMode);
+            if (def == null) {
+                throw PRaiseNode.raiseUncached(raisingNode, StructError, BAD_CHAR_IN_STRUCT_FORMAT);
+            }
+            if (def.alignment > 0 && size > 0) {
+                size += (def.alignment - 1) - (size - 1) % def.alignment;
+            }
+            if (def.type == FormatType.STRING || def.type == FormatType.PASCAL_STRING) {
+                codes.add(new FormatCode(def, (int) size, (int) num, 1));
+                length++;
+                size += num;
+            } else if (def.type == FormatType.PAD) {
+                size += num;
+            } else {
+                if (num > 0) {
+                    codes.add(new FormatCode(def, (int) size, def.size, (int) num));
+                }
+                length += (int) num;
+                size += num * def.size;
+            }
+            if (size > Integer.MAX_VALUE || length < 0) {
+                throw PRaiseNode.raiseUncached(raisingNode, StructError, TOTAL_STRUCT_SIZE_TOO_LONG);
+            }
+        }
+        return new StructInfo(format, codes.toArray(new FormatCode[0]), (int) size, length, bigEndian);
+    }
+}
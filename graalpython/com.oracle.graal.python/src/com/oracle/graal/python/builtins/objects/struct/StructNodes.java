@@ -0,0 +1,701 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import static com.oracle.graal.python.nodes.ErrorMessages.FLOAT_TO_LARGE_TO_PACK_WITH_S_FMT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_1_MUST_BE_STR_OR_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_FOR_S_MUST_BE_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_NOT_AN_INTEGER;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_NOT_A_FLOAT;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ARG_OUT_OF_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_BYTE_FMT_REQUIRES_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_CANNOT_ITER_UNPACK_LEN_0;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_CHAR_FMT_REQUIRES_BYTES_OF_LEN_1;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_FMT_REQUIRES_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_ITER_UNPACK_REQUIRES_MULTIPLE_OF_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_NO_SPACE_TO_PACK_D_BYTES_AT_OFFSET_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_OFFSET_D_OUT_OF_RANGE_FOR_D_BYTE_BUFFER;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_EXPECTED_D_ITEMS_GOT_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_EXPECTED_BUFFER_ARG;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_EXPECTED_D_ITEMS_GOT_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_EXPECTED_OFFSET_ARG;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_PACK_INTO_REQUIRES_BUFFER;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_SHORT_FMT_REQUIRES_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_UBYTE_FMT_REQUIRES_RANGE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_UNPACK_FROM_REQUIRES_BUFFER;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_UNPACK_REQUIRES_BUFFER_OF_D_BYTES;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRUCT_USHORT_FMT_REQUIRES_RANGE;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StructError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAccessLibrary;
+import com.oracle.graal.python.builtins.objects.buffer.PythonBufferAcquireLibrary;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.lib.PyFloatAsDoubleNode;
+import com.oracle.graal.python.lib.PyIndexCheckNode;
+import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.lib.PyNumberIndexNode;
+import com.oracle.graal.python.lib.PyObjectIsTrueNode;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.PNodeWithRaiseAndIndirectCall;
+import com.oracle.graal.python.nodes.util.CastToTruffleStringNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.NumericSupport;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.ReportPolymorphism.Megamorphic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.strings.TruffleString;
+
+public class StructNodes {
+
+    /**
+     * Formats with at most this many codes get pack and unpack nodes specialized for the exact
+     * format.
+     */
+    static final int MAX_EXPLODED_CODES = 16;
+
+    /**
+     * Size of the per-context cache of compiled formats used by the module-level functions, same
+     * as CPython's {@code MAXCACHE}.
+     */
+    static final int MAX_CACHE_SIZE = 100;
+
+    /**
+     * Converts the format argument of {@code Struct()} and of the module-level functions to its
+     * compiled form.
+     */
+    public abstract static class GetStructInfoNode extends PNodeWithRaise {
+
+        public abstract StructInfo execute(Object format);
+
+        @Specialization(guards = "isString(format)")
+        static StructInfo doString(Object format,
+                        @Cached CastToTruffleStringNode castNode,
+                        @Cached LookupStructInfoNode lookupNode) {
+            return lookupNode.execute(castNode.execute(format));
+        }
+
+        @Specialization
+        static StructInfo doBytes(PBytes format,
+                        @CachedLibrary(limit = "1") PythonBufferAccessLibrary bufferLib,
+                        @Cached LookupStructInfoNode lookupNode) {
+            return lookupNode.execute(decodeFormat(bufferLib.getInternalOrCopiedByteArray(format), bufferLib.getBufferLength(format)));
+        }
+
+        @Specialization(guards = {"!isString(format)", "!isPBytes(format)"})
+        StructInfo doOther(Object format) {
+            throw raise(TypeError, STRUCT_ARG_1_MUST_BE_STR_OR_BYTES, format);
+        }
+
+        @TruffleBoundary
+        private static TruffleString decodeFormat(byte[] bytes, int length) {
+            return PythonUtils.toTruffleStringUncached(new String(bytes, 0, length, StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    /**
+     * Looks up a compiled format. Each call site caches a few formats directly in the AST, the
+     * rest goes through a bounded per-context cache like CPython's {@code cache_struct}.
+     */
+    @ImportStatic(PythonUtils.class)
+    public abstract static class LookupStructInfoNode extends PNodeWithContext {
+
+        public abstract StructInfo execute(TruffleString format);
+
+        @Specialization(guards = "equalNode.execute(format, cachedFormat, TS_ENCODING)", limit = "3")
+        StructInfo doCached(@SuppressWarnings("unused") TruffleString format,
+                        @SuppressWarnings("unused") @Cached("format") TruffleString cachedFormat,
+                        @SuppressWarnings("unused") @Cached TruffleString.EqualNode equalNode,
+                        @Cached("lookup(format)") StructInfo structInfo) {
+            return structInfo;
+        }
+
+        @Specialization(replaces = "doCached")
+        StructInfo doGeneric(TruffleString format) {
+            return lookup(format);
+        }
+
+        @TruffleBoundary
+        StructInfo lookup(TruffleString format) {
+            Map<TruffleString, StructInfo> cache = PythonContext.get(this).getStructCache();
+            StructInfo structInfo = cache.get(format);
+            if (structInfo == null) {
+                structInfo = StructInfo.compile(this, format);
+                if (cache.size() >= MAX_CACHE_SIZE) {
+                    cache.clear();
+                }
+                cache.put(format, structInfo);
+            }
+            return structInfo;
+        }
+    }
+
+    /**
+     * Converts a value packed by an integer code to a Java {@code long}, like CPython's
+     * {@code get_pylong} followed by {@code PyLong_AsLong}. Unsigned and pointer codes of 8 bytes
+     * accept values up to {@code 2**64-1}, which are returned as their two's complement bit
+     * pattern.
+     */
+    abstract static class GetLongNode extends PNodeWithRaise {
+
+        abstract long execute(VirtualFrame frame, Object value, FormatDef def);
+
+        @Specialization
+        static long doBoolean(boolean value, @SuppressWarnings("unused") FormatDef def) {
+            return value ? 1 : 0;
+        }
+
+        @Specialization
+        long doInt(int value, FormatDef def) {
+            return checkNegative(value, def);
+        }
+
+        @Specialization
+        long doLong(long value, FormatDef def) {
+            return checkNegative(value, def);
+        }
+
+        @Specialization
+        long doPInt(PInt value, FormatDef def) {
+            return fromPInt(value, def);
+        }
+
+        @Specialization(guards = {"!isInteger(value)", "!isBoolean(value)", "!isPInt(value)"})
+        long doOther(VirtualFrame frame, Object value, FormatDef def,
+                        @Cached PyIndexCheckNode indexCheckNode,
+                        @Cached PyNumberIndexNode indexNode) {
+            if (!indexCheckNode.execute(value)) {
+                throw raise(StructError, STRUCT_ARG_NOT_AN_INTEGER);
+            }
+            Object index = indexNode.execute(frame, value);
+            if (index instanceof Integer) {
+                return checkNegative((int) index, def);
+            } else if (index instanceof Long) {
+                return checkNegative((long) index, def);
+            } else if (index instanceof Boolean) {
+                return (boolean) index ? 1 : 0;
+            } else {
+                return fromPInt((PInt) index, def);
+            }
+        }
+
+        private long checkNegative(long value, FormatDef def) {
+            if (value < 0 && def.size == 8 && def.type == FormatDef.FormatType.UNSIGNED) {
+                throw raise(StructError, STRUCT_ARG_OUT_OF_RANGE);
+            }
+            return value;
+        }
+
+        private long fromPInt(PInt value, FormatDef def) {
+            try {
+                return checkNegative(value.longValueExact(), def);
+            } catch (OverflowException e) {
+                if (def.size == 8 && def.type != FormatDef.FormatType.INTEGER && !value.isNegative() && value.bitLength() <= 64) {
+                    return value.longValue();
+                }
+                throw raise(StructError, STRUCT_ARG_OUT_OF_RANGE);
+            }
+        }
+    }
+
+    /**
+     * Packs a single item of a format code into a byte array. When the format is specialized,
+     * every code gets its own instance of this node.
+     */
+    public abstract static class PackValueNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, FormatCode code, NumericSupport numericSupport, Object value, byte[] buffer, int offset);
+
+        @Specialization
+        void doPack(VirtualFrame frame, FormatCode code, NumericSupport numericSupport, Object value, byte[] buffer, int offset,
+                        @Cached GetLongNode getLongNode,
+                        @Cached PyFloatAsDoubleNode asDoubleNode,
+                        @Cached PyObjectIsTrueNode isTrueNode,
+                        @CachedLibrary(limit = "2") PythonBufferAccessLibrary bufferLib) {
+            FormatDef def = code.def;
+            switch (def.type) {
+                case INTEGER:
+                case UNSIGNED:
+                case POINTER:
+                    long longValue = getLongNode.execute(frame, value, def);
+                    checkRange(def, longValue);
+                    numericSupport.putLong(buffer, offset, longValue, def.size);
+                    break;
+                case BOOL:
+                    buffer[offset] = (byte) (isTrueNode.execute(frame, value) ? 1 : 0);
+                    break;
+                case CHAR:
+                    if (!(value instanceof PBytes) || bufferLib.getBufferLength(value) != 1) {
+                        throw raise(StructError, STRUCT_CHAR_FMT_REQUIRES_BYTES_OF_LEN_1);
+                    }
+                    buffer[offset] = bufferLib.readByte(value, 0);
+                    break;
+                case STRING:
+                case PASCAL_STRING:
+                    packString(code, value, buffer, offset, bufferLib);
+                    break;
+                case HALF_FLOAT:
+                    numericSupport.putHalfFloat(this, buffer, offset, asDouble(frame, value, asDoubleNode));
+                    break;
+                case FLOAT:
+                    double doubleValue = asDouble(frame, value, asDoubleNode);
+                    float floatValue = (float) doubleValue;
+                    if (Float.isInfinite(floatValue) && !Double.isInfinite(doubleValue) && !def.nativeMode) {
+                        throw raise(OverflowError, FLOAT_TO_LARGE_TO_PACK_WITH_S_FMT, "f");
+                    }
+                    numericSupport.putFloat(buffer, offset, floatValue);
+                    break;
+                case DOUBLE:
+                    numericSupport.putDouble(buffer, offset, asDouble(frame, value, asDoubleNode));
+                    break;
+                default:
+                    throw CompilerDirectives.shouldNotReachHere();
+            }
+        }
+
+        private void checkRange(FormatDef def, long value) {
+            boolean unsigned = def.type != FormatDef.FormatType.INTEGER;
+            switch (def.size) {
+                case 1:
+                    if (unsigned ? (value < 0 || value > 0xff) : (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE)) {
+                        throw raise(StructError, unsigned ? STRUCT_UBYTE_FMT_REQUIRES_RANGE : STRUCT_BYTE_FMT_REQUIRES_RANGE);
+                    }
+                    break;
+                case 2:
+                    if (unsigned ? (value < 0 || value > 0xffff) : (value < Short.MIN_VALUE || value > Short.MAX_VALUE)) {
+                        throw raise(StructError, unsigned ? STRUCT_USHORT_FMT_REQUIRES_RANGE : STRUCT_SHORT_FMT_REQUIRES_RANGE);
+                    }
+                    break;
+                case 4:
+                    if (unsigned) {
+                        if (value < 0) {
+                            throw raise(StructError, STRUCT_ARG_OUT_OF_RANGE);
+                        } else if (value > 0xffffffffL) {
+                            throw raise(StructError, STRUCT_FMT_REQUIRES_RANGE, String.valueOf(def.format), 0, 0xffffffffL);
+                        }
+                    } else if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                        throw raise(StructError, STRUCT_FMT_REQUIRES_RANGE, String.valueOf(def.format), Integer.MIN_VALUE, Integer.MAX_VALUE);
+                    }
+                    break;
+            }
+        }
+
+        private double asDouble(VirtualFrame frame, Object value, PyFloatAsDoubleNode asDoubleNode) {
+            try {
+                return asDoubleNode.execute(frame, value);
+            } catch (PException e) {
+                throw raise(StructError, STRUCT_ARG_NOT_A_FLOAT);
+            }
+        }
+
+        private void packString(FormatCode code, Object value, byte[] buffer, int offset, PythonBufferAccessLibrary bufferLib) {
+            if (!(value instanceof PBytes || value instanceof PByteArray)) {
+                throw raise(StructError, STRUCT_ARG_FOR_S_MUST_BE_BYTES, String.valueOf(code.def.format));
+            }
+            int length = bufferLib.getBufferLength(value);
+            if (code.def.type == FormatDef.FormatType.STRING) {
+                bufferLib.readIntoByteArray(value, 0, buffer, offset, Math.min(length, code.size));
+            } else if (code.size > 0) {
+                int n = Math.min(length, code.size - 1);
+                bufferLib.readIntoByteArray(value, 0, buffer, offset + 1, n);
+                buffer[offset] = (byte) Math.min(n, 255);
+            }
+        }
+    }
+
+    /**
+     * Packs all values of a format into a byte array. The values are taken from {@code args}
+     * starting at {@code argsOffset}; the caller checks their count.
+     */
+    public abstract static class PackValuesNode extends PNodeWithContext {
+
+        public abstract void execute(VirtualFrame frame, StructInfo structInfo, Object[] args, int argsOffset, byte[] buffer, int offset);
+
+        @Specialization(guards = {"structInfo == cachedStructInfo", "cachedStructInfo.getCodes().length <= MAX_EXPLODED_CODES"}, limit = "3")
+        @ExplodeLoop
+        static void doCached(VirtualFrame frame, @SuppressWarnings("unused") StructInfo structInfo, Object[] args, int argsOffset, byte[] buffer, int offset,
+                        @Cached("structInfo") StructInfo cachedStructInfo,
+                        @Cached("createPackNodes(cachedStructInfo)") PackValueNode[] packNodes) {
+            FormatCode[] codes = cachedStructInfo.getCodes();
+            NumericSupport numericSupport = cachedStructInfo.getNumericSupport();
+            int argIndex = argsOffset;
+            for (int i = 0; i < codes.length; i++) {
+                FormatCode code = codes[i];
+                if (code.repeat == 1) {
+                    packNodes[i].execute(frame, code, numericSupport, args[argIndex], buffer, offset + code.offset);
+                } else {
+                    packRepeated(frame, code, numericSupport, args, argIndex, buffer, offset, packNodes[i]);
+                }
+                argIndex += code.repeat;
+            }
+        }
+
+        @Specialization(replaces = "doCached")
+        @Megamorphic
+        static void doGeneric(VirtualFrame frame, StructInfo structInfo, Object[] args, int argsOffset, byte[] buffer, int offset,
+                        @Cached PackValueNode packNode) {
+            FormatCode[] codes = structInfo.getCodes();
+            NumericSupport numericSupport = structInfo.getNumericSupport();
+            int argIndex = argsOffset;
+            for (FormatCode code : codes) {
+                packRepeated(frame, code, numericSupport, args, argIndex, buffer, offset, packNode);
+                argIndex += code.repeat;
+            }
+        }
+
+        private static void packRepeated(VirtualFrame frame, FormatCode code, NumericSupport numericSupport, Object[] args, int argIndex, byte[] buffer, int offset, PackValueNode packNode) {
+            for (int j = 0; j < code.repeat; j++) {
+                packNode.execute(frame, code, numericSupport, args[argIndex + j], buffer, offset + code.offset + j * code.size);
+            }
+        }
+
+        static PackValueNode[] createPackNodes(StructInfo structInfo) {
+            PackValueNode[] nodes = new PackValueNode[structInfo.getCodes().length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = StructNodesFactory.PackValueNodeGen.create();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Unpacks a single item of a format code from a byte array.
+     */
+    public abstract static class UnpackValueNode extends PNodeWithContext {
+
+        public abstract Object execute(FormatCode code, NumericSupport numericSupport, byte[] buffer, int offset);
+
+        @Specialization
+        static Object doUnpack(FormatCode code, NumericSupport numericSupport, byte[] buffer, int offset,
+                        @Cached PythonObjectFactory factory,
+                        @Cached ConditionProfile unsignedLongProfile) {
+            FormatDef def = code.def;
+            switch (def.type) {
+                case INTEGER:
+                    if (def.size == 8) {
+                        return numericSupport.getLong(buffer, offset);
+                    }
+                    return (int) numericSupport.getLong(buffer, offset, def.size);
+                case UNSIGNED:
+                case POINTER:
+                    if (def.size == 8) {
+                        return PInt.createPythonIntFromUnsignedLong(factory, unsignedLongProfile, numericSupport.getLong(buffer, offset));
+                    } else if (def.size == 4) {
+                        return numericSupport.getLongUnsigned(buffer, offset, def.size);
+                    }
+                    return (int) numericSupport.getLongUnsigned(buffer, offset, def.size);
+                case BOOL:
+                    return buffer[offset] != 0;
+                case CHAR:
+                    return factory.createBytes(new byte[]{buffer[offset]});
+                case STRING:
+                    return factory.createBytes(PythonUtils.arrayCopyOfRange(buffer, offset, offset + code.size));
+                case PASCAL_STRING:
+                    if (code.size == 0) {
+                        return factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+                    }
+                    int n = Math.min(buffer[offset] & 0xff, code.size - 1);
+                    return factory.createBytes(PythonUtils.arrayCopyOfRange(buffer, offset + 1, offset + 1 + n));
+                case HALF_FLOAT:
+                    return (double) numericSupport.getHalfFloat(buffer, offset);
+                case FLOAT:
+                    return (double) numericSupport.getFloat(buffer, offset);
+                case DOUBLE:
+                    return numericSupport.getDouble(buffer, offset);
+                default:
+                    throw CompilerDirectives.shouldNotReachHere();
+            }
+        }
+    }
+
+    /**
+     * Unpacks all values of a format from a byte array.
+     */
+    public abstract static class UnpackValuesNode extends PNodeWithContext {
+
+        public abstract Object[] execute(StructInfo structInfo, byte[] buffer, int offset);
+
+        @Specialization(guards = {"structInfo == cachedStructInfo", "cachedStructInfo.getCodes().length <= MAX_EXPLODED_CODES"}, limit = "3")
+        @ExplodeLoop
+        static Object[] doCached(@SuppressWarnings("unused") StructInfo structInfo, byte[] buffer, int offset,
+                        @Cached("structInfo") StructInfo cachedStructInfo,
+                        @Cached("createUnpackNodes(cachedStructInfo)") UnpackValueNode[] unpackNodes) {
+            FormatCode[] codes = cachedStructInfo.getCodes();
+            NumericSupport numericSupport = cachedStructInfo.getNumericSupport();
+            Object[] result = new Object[cachedStructInfo.getLength()];
+            int resultIndex = 0;
+            for (int i = 0; i < codes.length; i++) {
+                FormatCode code = codes[i];
+                if (code.repeat == 1) {
+                    result[resultIndex] = unpackNodes[i].execute(code, numericSupport, buffer, offset + code.offset);
+                } else {
+                    unpackRepeated(code, numericSupport, buffer, offset, result, resultIndex, unpackNodes[i]);
+                }
+                resultIndex += code.repeat;
+            }
+            return result;
+        }
+
+        @Specialization(replaces = "doCached")
+        @Megamorphic
+        static Object[] doGeneric(StructInfo structInfo, byte[] buffer, int offset,
+                        @Cached UnpackValueNode unpackNode) {
+            NumericSupport numericSupport = structInfo.getNumericSupport();
+            Object[] result = new Object[structInfo.getLength()];
+            int resultIndex = 0;
+            for (FormatCode code : structInfo.getCodes()) {
+                unpackRepeated(code, numericSupport, buffer, offset, result, resultIndex, unpackNode);
+                resultIndex += code.repeat;
+            }
+            return result;
+        }
+
+        private static void unpackRepeated(FormatCode code, NumericSupport numericSupport, byte[] buffer, int offset, Object[] result, int resultIndex, UnpackValueNode unpackNode) {
+            for (int j = 0; j < code.repeat; j++) {
+                result[resultIndex + j] = unpackNode.execute(code, numericSupport, buffer, offset + code.offset + j * code.size);
+            }
+        }
+
+        static UnpackValueNode[] createUnpackNodes(StructInfo structInfo) {
+            UnpackValueNode[] nodes = new UnpackValueNode[structInfo.getCodes().length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = StructNodesFactory.UnpackValueNodeGen.create();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Implements {@code pack}: checks the number of values and packs them into a new bytes
+     * object.
+     */
+    public abstract static class PackNode extends PNodeWithRaise {
+
+        public abstract PBytes execute(VirtualFrame frame, StructInfo structInfo, Object[] values);
+
+        @Specialization
+        PBytes doPack(VirtualFrame frame, StructInfo structInfo, Object[] values,
+                        @Cached PackValuesNode packValuesNode,
+                        @Cached PythonObjectFactory factory) {
+            if (values.length != structInfo.getLength()) {
+                throw raise(StructError, STRUCT_PACK_EXPECTED_D_ITEMS_GOT_D, structInfo.getLength(), values.length);
+            }
+            byte[] result = new byte[structInfo.getSize()];
+            packValuesNode.execute(frame, structInfo, values, 0, result, 0);
+            return factory.createBytes(result);
+        }
+    }
+
+    /**
+     * Implements {@code pack_into}. The arguments are the buffer, the offset and the values to
+     * pack. Buffers backed by a Java byte array are written in place.
+     */
+    public abstract static class PackIntoNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract void execute(VirtualFrame frame, StructInfo structInfo, Object[] args);
+
+        @Specialization
+        void doPackInto(VirtualFrame frame, StructInfo structInfo, Object[] args,
+                        @CachedLibrary(limit = "3") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached PackValuesNode packValuesNode,
+                        @Cached ConditionProfile internalArrayProfile) {
+            int length = structInfo.getLength();
+            if (args.length != length + 2) {
+                if (args.length == 0) {
+                    throw raise(StructError, STRUCT_PACK_INTO_EXPECTED_BUFFER_ARG);
+                } else if (args.length == 1) {
+                    throw raise(StructError, STRUCT_PACK_INTO_EXPECTED_OFFSET_ARG);
+                }
+                throw raise(StructError, STRUCT_PACK_INTO_EXPECTED_D_ITEMS_GOT_D, length, args.length - 2);
+            }
+            Object buffer = acquireLib.acquireWritableWithTypeError(args[0], "pack_into", frame, this);
+            try {
+                int size = structInfo.getSize();
+                int bufferLength = bufferLib.getBufferLength(buffer);
+                int offset = asSizeNode.executeExact(frame, args[1], IndexError);
+                if (offset < 0) {
+                    if (offset + size > 0) {
+                        throw raise(StructError, STRUCT_NO_SPACE_TO_PACK_D_BYTES_AT_OFFSET_D, size, offset);
+                    }
+                    if (offset + bufferLength < 0) {
+                        throw raise(StructError, STRUCT_OFFSET_D_OUT_OF_RANGE_FOR_D_BYTE_BUFFER, offset, bufferLength);
+                    }
+                    offset += bufferLength;
+                }
+                if (bufferLength - offset < size) {
+                    throw raise(StructError, STRUCT_PACK_INTO_REQUIRES_BUFFER, (long) size + offset, size, offset, bufferLength);
+                }
+                if (internalArrayProfile.profile(bufferLib.hasInternalByteArray(buffer))) {
+                    byte[] bytes = bufferLib.getInternalByteArray(buffer);
+                    Arrays.fill(bytes, offset, offset + size, (byte) 0);
+                    packValuesNode.execute(frame, structInfo, args, 2, bytes, offset);
+                } else {
+                    byte[] bytes = new byte[size];
+                    packValuesNode.execute(frame, structInfo, args, 2, bytes, 0);
+                    bufferLib.writeFromByteArray(buffer, offset, bytes, 0, size);
+                }
+            } finally {
+                bufferLib.release(buffer, frame, this);
+            }
+        }
+    }
+
+    /**
+     * Unpacks one chunk of {@link StructInfo#getSize()} bytes starting at {@code offset} of an
+     * acquired buffer. The caller is responsible for the bounds checks. Buffers backed by a Java
+     * byte array are read in place.
+     */
+    public abstract static class UnpackBufferNode extends PNodeWithContext {
+
+        public abstract PTuple execute(StructInfo structInfo, Object buffer, int offset);
+
+        @Specialization(limit = "3")
+        static PTuple doUnpack(StructInfo structInfo, Object buffer, int offset,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached UnpackValuesNode unpackValuesNode,
+                        @Cached ConditionProfile internalArrayProfile,
+                        @Cached PythonObjectFactory factory) {
+            Object[] values;
+            if (internalArrayProfile.profile(bufferLib.hasInternalByteArray(buffer))) {
+                values = unpackValuesNode.execute(structInfo, bufferLib.getInternalByteArray(buffer), offset);
+            } else {
+                byte[] bytes = new byte[structInfo.getSize()];
+                bufferLib.readIntoByteArray(buffer, offset, bytes, 0, bytes.length);
+                values = unpackValuesNode.execute(structInfo, bytes, 0);
+            }
+            return factory.createTuple(values);
+        }
+    }
+
+    /**
+     * Implements {@code unpack} on an acquired buffer.
+     */
+    public abstract static class UnpackNode extends PNodeWithRaise {
+
+        public abstract PTuple execute(StructInfo structInfo, Object buffer);
+
+        @Specialization(limit = "3")
+        PTuple doUnpack(StructInfo structInfo, Object buffer,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached UnpackBufferNode unpackBufferNode) {
+            if (bufferLib.getBufferLength(buffer) != structInfo.getSize()) {
+                throw raise(StructError, STRUCT_UNPACK_REQUIRES_BUFFER_OF_D_BYTES, structInfo.getSize());
+            }
+            return unpackBufferNode.execute(structInfo, buffer, 0);
+        }
+    }
+
+    /**
+     * Implements {@code unpack_from} on an acquired buffer.
+     */
+    public abstract static class UnpackFromNode extends PNodeWithRaise {
+
+        public abstract PTuple execute(StructInfo structInfo, Object buffer, int offset);
+
+        @Specialization(limit = "3")
+        PTuple doUnpackFrom(StructInfo structInfo, Object buffer, int offset,
+                        @CachedLibrary("buffer") PythonBufferAccessLibrary bufferLib,
+                        @Cached UnpackBufferNode unpackBufferNode) {
+            int size = structInfo.getSize();
+            int bufferLength = bufferLib.getBufferLength(buffer);
+            int start = offset;
+            if (start < 0) {
+                if (start + bufferLength < 0) {
+                    throw raise(StructError, STRUCT_OFFSET_D_OUT_OF_RANGE_FOR_D_BYTE_BUFFER, start, bufferLength);
+                }
+                start += bufferLength;
+            }
+            if (bufferLength - start < size) {
+                throw raise(StructError, STRUCT_UNPACK_FROM_REQUIRES_BUFFER, (long) size + start, size, start, bufferLength);
+            }
+            return unpackBufferNode.execute(structInfo, buffer, start);
+        }
+    }
+
+    /**
+     * Implements {@code iter_unpack}. The returned iterator owns the acquired buffer.
+     */
+    public abstract static class IterUnpackNode extends PNodeWithRaiseAndIndirectCall {
+
+        public abstract PStructUnpackIterator execute(VirtualFrame frame, StructInfo structInfo, Object object);
+
+        @Specialization(limit = "3")
+        PStructUnpackIterator doIterUnpack(VirtualFrame frame, StructInfo structInfo, Object object,
+                        @CachedLibrary("object") PythonBufferAcquireLibrary acquireLib,
+                        @CachedLibrary(limit = "3") PythonBufferAccessLibrary bufferLib,
+                        @Cached PythonObjectFactory factory) {
+            int size = structInfo.getSize();
+            if (size == 0) {
+                throw raise(StructError, STRUCT_CANNOT_ITER_UNPACK_LEN_0);
+            }
+            Object buffer = acquireLib.acquireReadonly(object, frame, this);
+            int bufferLength = bufferLib.getBufferLength(buffer);
+            if (bufferLength % size != 0) {
+                bufferLib.release(buffer, frame, this);
+                throw raise(StructError, STRUCT_ITER_UNPACK_REQUIRES_MULTIPLE_OF_D, size);
+            }
+            return factory.createStructUnpackIterator(structInfo, buffer, bufferLength);
+        }
+    }
+}
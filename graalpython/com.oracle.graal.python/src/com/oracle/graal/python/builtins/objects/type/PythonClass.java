@@ -32,14 +32,19 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonCompactObject;
+import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.nodes.HiddenAttributes;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromDynamicObjectNode;
 import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
 import com.oracle.graal.python.nodes.interop.PForeignToPTypeNode;
 import com.oracle.graal.python.nodes.object.GetClassNode;
 import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.sequence.storage.MroSequenceStorage;
 import com.oracle.graal.python.util.SuppressFBWarnings;
 import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.dsl.Bind;
@@ -83,6 +88,17 @@ public final class PythonClass extends PythonManagedClass {
     private TruffleWeakReference<PythonClass>[] mroShapeSubTypes;
     private byte mroShapeInvalidationsCount;
 
+    /**
+     * Valid until {@link #observeAllocation} decided how instances allocated by
+     * {@code object.__new__} are laid out.
+     */
+    private final Assumption layoutUndecidedAssumption = Truffle.getRuntime().createAssumption("layout undecided");
+    /** Shape of {@link PythonCompactObject} instances, if the compact layout was chosen. */
+    @CompilationFinal private Shape compactInstanceShape;
+    private int observedAllocations;
+    private WeakReference<PythonObject> lastAllocated;
+    private WeakReference<PythonObject> secondLastAllocated;
+
     public PythonClass(PythonLanguage lang, Object typeClass, Shape classShape, TruffleString name, PythonAbstractClass[] baseClasses) {
         super(lang, typeClass, classShape, null, name, baseClasses);
     }
@@ -109,6 +125,63 @@ public final class PythonClass extends PythonManagedClass {
         }
     }
 
+    public boolean isLayoutUndecided() {
+        return layoutUndecidedAssumption.isValid();
+    }
+
+    /**
+     * The shape for new instances created by {@code object.__new__}. Objects allocated with it must
+     * be {@link PythonCompactObject}s if it is a {@link PythonCompactObject#isCompactShape compact
+     * shape}.
+     */
+    public Shape getAllocationShape() {
+        Shape shape = compactInstanceShape;
+        return shape != null ? shape : getInstanceShape();
+    }
+
+    /**
+     * Records an instance allocated by {@code object.__new__} while the layout is undecided. Once
+     * {@link PythonOptions#CompactObjectLayoutThreshold} instances were allocated, the two instances
+     * allocated before the current one (which have been initialized by now) are compared. If they
+     * still have the same valid shape with only a few attributes, the attribute set of this class is
+     * considered stable and later instances use the compact layout.
+     */
+    @TruffleBoundary
+    public void observeAllocation(PythonLanguage language, PythonObject instance) {
+        if (!layoutUndecidedAssumption.isValid()) {
+            return;
+        }
+        int threshold = language.getEngineOption(PythonOptions.CompactObjectLayoutThreshold);
+        if (threshold > 0 && ++observedAllocations < threshold) {
+            secondLastAllocated = lastAllocated;
+            lastAllocated = new WeakReference<>(instance);
+            return;
+        }
+        PythonObject last = lastAllocated != null ? lastAllocated.get() : null;
+        PythonObject secondLast = secondLastAllocated != null ? secondLastAllocated.get() : null;
+        lastAllocated = null;
+        secondLastAllocated = null;
+        // if the samples are gone, instances are short-lived and their footprint does not matter
+        if (last != null && secondLast != null && hasStableSmallShape(last.getShape(), secondLast.getShape())) {
+            compactInstanceShape = language.getCompactShapeForClass(this);
+        }
+        layoutUndecidedAssumption.invalidate();
+    }
+
+    private static boolean hasStableSmallShape(Shape shape, Shape other) {
+        if (shape != other || !shape.isValid() || (shape.getFlags() & (PythonObject.CLASS_CHANGED_FLAG | PythonObject.HAS_MATERIALIZED_DICT)) != 0) {
+            return false;
+        }
+        int attributes = 0;
+        for (Object key : shape.getKeys()) {
+            if (key != HiddenAttributes.CLASS) {
+                attributes++;
+            }
+        }
+        // a single attribute does not make up for the unused fields
+        return attributes >= 2 && attributes <= PythonCompactObject.INLINE_FIELDS;
+    }
+
     @Override
     @TruffleBoundary
     @SuppressFBWarnings(value = "UR_UNINIT_READ_CALLED_FROM_SUPER_CONSTRUCTOR")
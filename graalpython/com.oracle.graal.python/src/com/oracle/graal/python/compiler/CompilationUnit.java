@@ -89,6 +89,7 @@ public final class CompilationUnit {
     final String privateName;
     BlockInfo blockInfo;
     int conditionProfileCount;
+    boolean emitSuperinstructions;
 
     Block currentBlock = startBlock;
     int maxStackSize = 0;
@@ -229,7 +230,8 @@ public final class CompilationUnit {
                 }
                 addExceptionRange(finishedExceptionHandlerRanges, start, end, handlerBci, stackLevel);
             }
-            for (Instruction i : b.instr) {
+            for (int j = 0; j < b.instr.size(); j++) {
+                Instruction i = b.instr.get(j);
                 if (i.quickenOutput != 0 || i.quickeningGeneralizeList != null) {
                     quickenedInstructions.add(i);
                 }
@@ -239,7 +241,7 @@ public final class CompilationUnit {
                     boxingMetric[i.arg] += i.quickenOutput != 0 ? quickenMetricWeight : -quickenMetricWeight;
                 }
                 i.bci = buf.size();
-                emitBytecode(i, buf, sourceMapBuilder);
+                emitBytecode(i, emitSuperinstructions ? selectSuperinstruction(b.instr, j) : null, buf, sourceMapBuilder);
             }
             b.endBci = buf.size();
             b = b.next;
@@ -416,10 +418,48 @@ public final class CompilationUnit {
         } while (repeat);
     }
 
-    private void emitBytecode(Instruction instr, ByteArrayOutputStream buf, SourceMap.Builder sourceMapBuilder) throws IllegalStateException {
+    /**
+     * Returns the superinstruction that should replace the opcode of the instruction at given
+     * index or {@code null}. The fused instructions must not be prefixed by {@code EXTENDED_ARG},
+     * because the interpreter expects them at fixed offsets.
+     */
+    private static OpCodes selectSuperinstruction(List<Instruction> instructions, int index) {
+        Instruction instr = instructions.get(index);
+        Instruction next = index + 1 < instructions.size() ? instructions.get(index + 1) : null;
+        if (next == null || next.extensions() != 0) {
+            return null;
+        }
+        if (instr.opcode == OpCodes.LOAD_FAST) {
+            if (next.opcode == OpCodes.LOAD_ATTR) {
+                return OpCodes.LOAD_FAST_LOAD_ATTR;
+            }
+            if (next.opcode == OpCodes.LOAD_FAST && index + 2 < instructions.size() && instructions.get(index + 2).opcode == OpCodes.BINARY_OP) {
+                return OpCodes.LOAD_FAST_LOAD_FAST;
+            }
+        } else if (instr.opcode == OpCodes.BINARY_OP && next.opcode == OpCodes.POP_AND_JUMP_IF_FALSE) {
+            switch (BinaryOps.values()[instr.arg]) {
+                case EQ:
+                case NE:
+                case LT:
+                case LE:
+                case GT:
+                case GE:
+                case IS:
+                    return OpCodes.BINARY_OP_POP_AND_JUMP_IF_FALSE;
+                default:
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    private void emitBytecode(Instruction instr, OpCodes superinstruction, ByteArrayOutputStream buf, SourceMap.Builder sourceMapBuilder) throws IllegalStateException {
         OpCodes opcode = instr.opcode;
         // Pre-quicken constant loads
-        if (opcode == OpCodes.LOAD_BYTE) {
+        if (superinstruction != null) {
+            assert superinstruction.quickens == opcode;
+            opcode = superinstruction;
+        } else if (opcode == OpCodes.LOAD_BYTE) {
             opcode = (instr.quickenOutput & QuickeningTypes.INT) != 0 ? OpCodes.LOAD_BYTE_I : OpCodes.LOAD_BYTE_O;
         } else if (opcode == OpCodes.LOAD_INT) {
             opcode = (instr.quickenOutput & QuickeningTypes.INT) != 0 ? OpCodes.LOAD_INT_I : OpCodes.LOAD_INT_O;
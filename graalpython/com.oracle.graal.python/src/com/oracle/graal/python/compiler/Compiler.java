@@ -188,7 +188,7 @@ import com.oracle.truffle.api.strings.TruffleString;
  * Compiler for bytecode interpreter.
  */
 public class Compiler implements SSTreeVisitor<Void> {
-    public static final int BYTECODE_VERSION = 26;
+    public static final int BYTECODE_VERSION = 27;
 
     private final ErrorCallback errorCallback;
 
@@ -210,6 +210,10 @@ public class Compiler implements SSTreeVisitor<Void> {
     }
 
     public enum Flags {
+        /**
+         * Emit superinstructions for common instruction sequences, see the end of {@link OpCodes}.
+         */
+        SUPERINSTRUCTIONS,
     }
 
     public Compiler(ErrorCallback errorCallback) {
@@ -404,6 +408,7 @@ public class Compiler implements SSTreeVisitor<Void> {
         }
         unit = new CompilationUnit(scopeType, env.lookupScope(node), name, unit, stack.size(), argc, pargc, kwargc,
                         hasSplat, hasKwSplat, node.getSourceRange());
+        unit.emitSuperinstructions = flags.contains(Flags.SUPERINSTRUCTIONS);
         nestingLevel++;
     }
 
@@ -770,7 +770,28 @@ public enum OpCodes {
     POP_AND_JUMP_IF_FALSE_O(POP_AND_JUMP_IF_FALSE, QuickeningTypes.OBJECT, 0),
     POP_AND_JUMP_IF_FALSE_B(POP_AND_JUMP_IF_FALSE, QuickeningTypes.BOOLEAN, 0, POP_AND_JUMP_IF_FALSE_O),
     POP_AND_JUMP_IF_TRUE_O(POP_AND_JUMP_IF_TRUE, QuickeningTypes.OBJECT, 0),
-    POP_AND_JUMP_IF_TRUE_B(POP_AND_JUMP_IF_TRUE, QuickeningTypes.BOOLEAN, 0, POP_AND_JUMP_IF_TRUE_O);
+    POP_AND_JUMP_IF_TRUE_B(POP_AND_JUMP_IF_TRUE, QuickeningTypes.BOOLEAN, 0, POP_AND_JUMP_IF_TRUE_O),
+
+    /*
+     * Superinstructions. They replace only the opcode of the first instruction of a sequence, the
+     * following instructions are kept in place. That way the bytecode layout, the source map and
+     * the quickening tables indexed by bci stay the same. The interpreter executes the whole
+     * sequence in one dispatch if the following instructions are quickened the expected way and
+     * falls back to executing just the first instruction otherwise. Generalizing the first
+     * instruction removes the superinstruction. The compiler emits the unquickened variants only
+     * for sequences within a single block.
+     */
+    LOAD_FAST_LOAD_ATTR(LOAD_FAST, 0, 0),
+    LOAD_FAST_O_LOAD_ATTR(LOAD_FAST, 0, QuickeningTypes.OBJECT),
+    /** Followed by another LOAD_FAST and a BINARY_OP. */
+    LOAD_FAST_LOAD_FAST(LOAD_FAST, 0, 0),
+    LOAD_FAST_O_LOAD_FAST_O(LOAD_FAST, 0, QuickeningTypes.OBJECT),
+    LOAD_FAST_I_LOAD_FAST_I(LOAD_FAST, 0, QuickeningTypes.INT, LOAD_FAST_I_BOX),
+    LOAD_FAST_D_LOAD_FAST_D(LOAD_FAST, 0, QuickeningTypes.DOUBLE, LOAD_FAST_D_BOX),
+    /** A comparison followed by POP_AND_JUMP_IF_FALSE. */
+    BINARY_OP_POP_AND_JUMP_IF_FALSE(BINARY_OP, 0, 0),
+    BINARY_OP_II_B_POP_AND_JUMP_IF_FALSE(BINARY_OP, QuickeningTypes.INT, QuickeningTypes.BOOLEAN, BINARY_OP_II_O),
+    BINARY_OP_DD_B_POP_AND_JUMP_IF_FALSE(BINARY_OP, QuickeningTypes.DOUBLE, QuickeningTypes.BOOLEAN, BINARY_OP_DD_O);
 
     public static final class CollectionBits {
         public static final int KIND_MASK = 0b00011111;
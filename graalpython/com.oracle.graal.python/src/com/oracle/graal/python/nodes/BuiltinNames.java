@@ -370,6 +370,19 @@ public abstract class BuiltinNames {
     public static final String J__CTYPES = "_ctypes";
     public static final TruffleString T__CTYPES = tsLiteral(J__CTYPES);
 
+    public static final String J__ASYNCIO = "_asyncio";
+    public static final TruffleString T__ASYNCIO = tsLiteral(J__ASYNCIO);
+
+    public static final String J__DATETIME = "_datetime";
+    public static final TruffleString T__DATETIME = tsLiteral(J__DATETIME);
+
+    public static final String J__DECIMAL = "_decimal";
+    public static final TruffleString T__DECIMAL = tsLiteral(J__DECIMAL);
+
+    public static final String J__HEAPQ = "_heapq";
+
+    public static final String J__BISECT = "_bisect";
+
     public static final String J__SOCKET = "_socket";
     public static final TruffleString T__SOCKET = tsLiteral(J__SOCKET);
 
@@ -387,6 +400,8 @@ public abstract class BuiltinNames {
     public static final String J__STRUCT = "_struct";
     public static final TruffleString T__STRUCT = tsLiteral(J__STRUCT);
 
+    public static final String J__PICKLE = "_pickle";
+
     public static final String J_ENDSWITH = "endswith";
     public static final TruffleString T_ENDSWITH = tsLiteral(J_ENDSWITH);
 
@@ -411,4 +426,7 @@ public abstract class BuiltinNames {
 
     public static final String J_BZ2 = "_bz2";
     public static final TruffleString T_BZ2 = tsLiteral(J_BZ2);
+
+    public static final String J__SQLITE3_SUPPORT = "_sqlite3_support";
+    public static final TruffleString T__SQLITE3_SUPPORT = tsLiteral(J__SQLITE3_SUPPORT);
 }
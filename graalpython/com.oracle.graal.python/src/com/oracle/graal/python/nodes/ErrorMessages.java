@@ -298,6 +298,7 @@ public abstract class ErrorMessages {
     public static final TruffleString EXPECTED_STR_OR_BYTES = tsLiteral("expected str or bytes, got '%p'");
     public static final TruffleString EXPECTED_STR_BYTE_OSPATHLIKE_OBJ = tsLiteral("expected str, bytes or os.PathLike object, not %p");
     public static final TruffleString EXPECTED_STR_OR_BYTESLIKE_OBJ = tsLiteral("expected string or bytes-like object");
+    public static final TruffleString EXPECTED_STR_INSTANCE_P_FOUND = tsLiteral("expected str instance, %p found");
     public static final TruffleString S_EXPECTED_STRING_OF_LEN_BUT_P = tsLiteral("%s expected string of length %s, but %p found");
     public static final TruffleString EXPECTED_UNICODE_CHAR_NOT_P = tsLiteral("expected a unicode character, not %p");
     public static final TruffleString EXPECTED_INT_AS_R = tsLiteral("Expected int as r");
@@ -570,6 +571,7 @@ public abstract class ErrorMessages {
     public static final TruffleString NO_CURRENT_FRAME = tsLiteral("%s: no current frame");
     public static final TruffleString NO_FUNCTION_FOUND = tsLiteral("no function %s%s found in %s");
     public static final TruffleString NO_SUCH_FILE_OR_DIR = tsLiteral("No such file or directory: '%s:/%s'");
+    public static final TruffleString NO_SUCH_GROUP = tsLiteral("no such group");
     public static final TruffleString NO_SUCH_NAME = tsLiteral("no such name");
     public static final TruffleString NONEMPTY_SLOTS_NOT_ALLOWED_FOR_SUBTYPE_OF_S = tsLiteral("nonempty __slots__ not supported for subtype of '%s'");
     public static final TruffleString NONLOCAL_AND_GLOBAL = tsLiteral("name '%s' is nonlocal and global");
@@ -873,6 +875,7 @@ public abstract class ErrorMessages {
     public static final TruffleString RANGE_OBJ_IDX_OUT_OF_RANGE = tsLiteral("range object index out of range");
     public static final TruffleString NUMBER_OF_BITS_MUST_BE_GREATER_THAN_ZERO = tsLiteral("number of bits must be greater than zero");
     public static final TruffleString TIMEOUT_MUST_BE_NON_NEG_NUM = tsLiteral("'timeout' must be a non-negative number");
+    public static final TruffleString CONCURRENT_POLL_INVOCATION = tsLiteral("concurrent poll() invocation");
     public static final TruffleString THIRD_ARG_MUST_BE_A_VALID_MACHINE_CODE_FMT = tsLiteral("third argument must be a valid machine format code.");
     public static final TruffleString OBJ_DOES_NOT_PROVIDE_DIR = tsLiteral("object does not provide __dir__");
     public static final TruffleString ARRAY_ARG_1_MUST_BE_UNICODE = tsLiteral("array() argument 1 must be a unicode character, not str");
@@ -1011,6 +1014,8 @@ public abstract class ErrorMessages {
     public static final TruffleString EXPECTING_COLON_DELIMITER = tsLiteral("Expecting ':' delimiter");
     public static final TruffleString EXPECTING_COMMA_DELIMITER = tsLiteral("Expecting ',' delimiter");
     public static final TruffleString EXPECTING_VALUE = tsLiteral("Expecting value");
+    public static final TruffleString EXTRA_DATA = tsLiteral("Extra data");
+    public static final TruffleString STREAM_DECODER_CLOSED = tsLiteral("decoder is closed");
     public static final TruffleString IOR_IS_NOT_SUPPORTED_BY_P_USE_INSTEAD = tsLiteral("'|=' is not supported by %p; use '|' instead");
     public static final TruffleString ZIP_ARG_D_IS_LONGER_THEN_ARG_SD = tsLiteral("\"zip() argument %d is longer than argument%s%d\",");
     public static final TruffleString ZIP_ARG_D_IS_SHORTER_THEN_ARG_SD = tsLiteral("\"zip() argument %d is shorter than argument%s%d\",");
@@ -1336,6 +1341,79 @@ public abstract class ErrorMessages {
 
     // pickle errors
     public static final TruffleString CANNOT_PICKLE_OBJECT_TYPE = tsLiteral("cannot pickle '%p' object");
+    public static final TruffleString ARGUMENT_LIST_MUST_BE_A_TUPLE = tsLiteral("argument list must be a tuple");
+    public static final TruffleString ATTR_MUST_BE_STR_NOT_P = tsLiteral("%s must be str, not %p");
+    public static final TruffleString BINSTRING_PICKLE_HAS_NEGATIVE_BYTE_COUNT = tsLiteral("BINSTRING pickle has negative byte count");
+    public static final TruffleString BUFFER_CALLBACK_NEEDS_PROTOCOL_5 = tsLiteral("buffer_callback needs protocol >= 5");
+    public static final TruffleString CANNOT_EXTRACT_RAW_BUFFER_FROM_NON_CONTIGUOUS = tsLiteral("cannot extract raw buffer from non-contiguous buffer");
+    public static final TruffleString CANT_GET_LOCAL_ATTRIBUTE = tsLiteral("Can't get local attribute %s on %s");
+    public static final TruffleString CANT_PICKLE_ATTR_LOOKUP_FAILED = tsLiteral("Can't pickle %s: attribute lookup %s on %s failed");
+    public static final TruffleString CANT_PICKLE_EXTENSION_CODE_NOT_INT = tsLiteral("Can't pickle %s: extension code %s isn't an integer");
+    public static final TruffleString CANT_PICKLE_EXTENSION_CODE_OUT_OF_RANGE = tsLiteral("Can't pickle %s: extension code %d is out of range");
+    public static final TruffleString CANT_PICKLE_GLOBAL_IDENTIFIER = tsLiteral("can't pickle global identifier '%s' using pickle protocol %d");
+    public static final TruffleString CANT_PICKLE_IMPORT_FAILED = tsLiteral("Can't pickle %s: import of module %s failed");
+    public static final TruffleString CANT_PICKLE_LOCAL_OBJECT = tsLiteral("Can't pickle local object %s");
+    public static final TruffleString CANT_PICKLE_MODULE_IDENTIFIER = tsLiteral("can't pickle module identifier '%s' using pickle protocol %d");
+    public static final TruffleString CANT_PICKLE_NOT_SAME_OBJECT = tsLiteral("Can't pickle %s: it's not the same object as %s.%s");
+    public static final TruffleString COMPAT_PICKLE_MAPPING_MUST_BE_DICT = tsLiteral("_compat_pickle.%s should be a dict, not %p");
+    public static final TruffleString COMPAT_PICKLE_MAPPING_VALUES_2_TUPLES = tsLiteral("_compat_pickle.%s values should be 2-tuples of str, not %p");
+    public static final TruffleString COMPAT_PICKLE_MAPPING_VALUES_STRINGS = tsLiteral("_compat_pickle.%s values should be strings, not %p");
+    public static final TruffleString COULD_NOT_CONVERT_STRING_TO_INT = tsLiteral("could not convert string to int");
+    public static final TruffleString COULD_NOT_FIND_MARK = tsLiteral("could not find MARK");
+    public static final TruffleString DICT_ITEMS_ITERATOR_MUST_RETURN_2_TUPLES = tsLiteral("dict items iterator must return 2-tuples");
+    public static final TruffleString EXT_SPECIFIES_CODE_LE_0 = tsLiteral("EXT specifies code <= 0");
+    public static final TruffleString FAST_MODE_CANT_PICKLE_CYCLIC = tsLiteral("fast mode: can't pickle cyclic objects including object type %p");
+    public static final TruffleString FILE_MUST_HAVE_READ_AND_READLINE_ATTRS = tsLiteral("file must have 'read' and 'readline' attributes");
+    public static final TruffleString FILE_MUST_HAVE_WRITE_ATTR = tsLiteral("file must have a 'write' attribute");
+    public static final TruffleString INIT_WAS_NOT_CALLED_BY_P_INIT = tsLiteral("%s.__init__() was not called by %p.__init__()");
+    public static final TruffleString INVALID_LOAD_KEY = tsLiteral("invalid load key, '%s'.");
+    public static final TruffleString INVERTED_REGISTRY_ISNT_2_TUPLE_OF_STRINGS = tsLiteral("_inverted_registry[%d] isn't a 2-tuple of strings");
+    public static final TruffleString LONG_PICKLE_HAS_NEGATIVE_BYTE_COUNT = tsLiteral("LONG pickle has negative byte count");
+    public static final TruffleString MEMO_KEY_MUST_BE_POSITIVE_INTEGERS = tsLiteral("memo key must be positive integers.");
+    public static final TruffleString MEMO_MUST_BE_MEMO_PROXY_OR_DICT = tsLiteral("'memo' attribute must be a %sMemoProxy object or dict, not %p");
+    public static final TruffleString MEMO_VALUES_MUST_BE_2_ITEM_TUPLES = tsLiteral("'memo' values must be 2-item tuples");
+    public static final TruffleString NEGATIVE_PUT_ARGUMENT = tsLiteral("negative PUT argument");
+    public static final TruffleString NEWOBJ_ARGLIST_EMPTY = tsLiteral("__newobj__ arglist is empty");
+    public static final TruffleString NEWOBJ_ARGS0_NOT_A_TYPE = tsLiteral("args[0] from __newobj__ args is not a type");
+    public static final TruffleString NEWOBJ_ARGS0_WRONG_CLASS = tsLiteral("args[0] from __newobj__ args has the wrong class");
+    public static final TruffleString NEWOBJ_CLASS_ARGUMENT_ISNT_A_TYPE = tsLiteral("NEWOBJ class argument isn't a type object");
+    public static final TruffleString NEWOBJ_EXPECTED_AN_ARG_TUPLE = tsLiteral("NEWOBJ expected an arg tuple.");
+    public static final TruffleString NEWOBJ_EX_ARGS_LENGTH = tsLiteral("length of the NEWOBJ_EX argument tuple must be exactly 3, not %d");
+    public static final TruffleString NEWOBJ_EX_ARGS_MUST_BE_TUPLE = tsLiteral("NEWOBJ_EX args argument must be a tuple, not %p");
+    public static final TruffleString NEWOBJ_EX_CLASS_MUST_BE_TYPE = tsLiteral("NEWOBJ_EX class argument must be a type, not %p");
+    public static final TruffleString NEWOBJ_EX_FIRST_ITEM_MUST_BE_CLASS = tsLiteral("first item from NEWOBJ_EX argument tuple must be a class, not %p");
+    public static final TruffleString NEWOBJ_EX_KWARGS_MUST_BE_DICT = tsLiteral("NEWOBJ_EX kwargs argument must be a dict, not %p");
+    public static final TruffleString NEWOBJ_EX_SECOND_ITEM_MUST_BE_TUPLE = tsLiteral("second item from NEWOBJ_EX argument tuple must be a tuple, not %p");
+    public static final TruffleString NEWOBJ_EX_THIRD_ITEM_MUST_BE_DICT = tsLiteral("third item from NEWOBJ_EX argument tuple must be a dict, not %p");
+    public static final TruffleString NOT_ENOUGH_OUT_OF_BAND_BUFFERS = tsLiteral("not enough out-of-band buffers");
+    public static final TruffleString NO_PERSISTENT_LOAD_FUNCTION = tsLiteral("A load persistent id instruction was encountered,\nbut no persistent_load function was specified.");
+    public static final TruffleString ODD_NUMBER_OF_ITEMS_FOR_DICT = tsLiteral("odd number of items for DICT");
+    public static final TruffleString ODD_NUMBER_OF_ITEMS_FOR_SETITEMS = tsLiteral("odd number of items for SETITEMS");
+    public static final TruffleString PERSISTENT_IDS_MUST_BE_ASCII = tsLiteral("persistent IDs in protocol 0 must be ASCII strings");
+    public static final TruffleString PICKLEBUFFER_FORBIDDEN_RELEASED = tsLiteral("operation forbidden on released PickleBuffer object");
+    public static final TruffleString PICKLEBUFFER_NEEDS_PROTOCOL_5 = tsLiteral("PickleBuffer can only pickled with protocol >= 5");
+    public static final TruffleString PICKLEBUFFER_NOT_CONTIGUOUS = tsLiteral("PickleBuffer can not be pickled when pointing to a non-contiguous buffer");
+    public static final TruffleString PICKLE_COUNT_EXCEEDS_MAXIMUM = tsLiteral("pickle item size %d exceeds the maximum supported size");
+    public static final TruffleString PICKLE_DATA_WAS_TRUNCATED = tsLiteral("pickle data was truncated");
+    public static final TruffleString PICKLE_PROTOCOL_MUST_BE_LE = tsLiteral("pickle protocol must be <= %d");
+    public static final TruffleString PICKLE_REFERS_TO_OUT_OF_BAND_DATA = tsLiteral("pickle stream refers to out-of-band data but no *buffers* argument was given");
+    public static final TruffleString RAN_OUT_OF_INPUT = tsLiteral("Ran out of input");
+    public static final TruffleString REDUCE_FIFTH_ITEM_MUST_BE_ITERATOR = tsLiteral("fifth element of the tuple returned by __reduce__ must be an iterator, not %p");
+    public static final TruffleString REDUCE_FIRST_ITEM_MUST_BE_CALLABLE = tsLiteral("first item of the tuple returned by __reduce__ must be callable");
+    public static final TruffleString REDUCE_FOURTH_ITEM_MUST_BE_ITERATOR = tsLiteral("fourth element of the tuple returned by __reduce__ must be an iterator, not %p");
+    public static final TruffleString REDUCE_MUST_RETURN_STRING_OR_TUPLE = tsLiteral("__reduce__ must return a string or tuple");
+    public static final TruffleString REDUCE_SECOND_ITEM_MUST_BE_TUPLE = tsLiteral("second item of the tuple returned by __reduce__ must be a tuple");
+    public static final TruffleString REDUCE_SIXTH_ITEM_MUST_BE_CALLABLE = tsLiteral("sixth element of the tuple returned by __reduce__ must be a function, not %p");
+    public static final TruffleString REDUCE_TUPLE_SIZE = tsLiteral("tuple returned by __reduce__ must contain 2 through 6 elements");
+    public static final TruffleString SLOT_STATE_IS_NOT_A_DICTIONARY = tsLiteral("slot state is not a dictionary");
+    public static final TruffleString STACK_GLOBAL_REQUIRES_STR = tsLiteral("STACK_GLOBAL requires str");
+    public static final TruffleString STATE_IS_NOT_A_DICTIONARY = tsLiteral("state is not a dictionary");
+    public static final TruffleString STRING_OPCODE_ARGUMENT_MUST_BE_QUOTED = tsLiteral("the STRING opcode argument must be quoted");
+    public static final TruffleString S_MUST_BE_A_CALLABLE_TAKING_ONE_ARGUMENT = tsLiteral("%s must be a callable taking one argument");
+    public static final TruffleString UNEXPECTED_MARK_FOUND = tsLiteral("unexpected MARK found");
+    public static final TruffleString UNPICKLING_STACK_UNDERFLOW = tsLiteral("unpickling stack underflow");
+    public static final TruffleString UNREGISTERED_EXTENSION_CODE = tsLiteral("unregistered extension code %d");
+    public static final TruffleString UNSUPPORTED_PICKLE_PROTOCOL = tsLiteral("unsupported pickle protocol: %d");
 
     // csv errors
     public static final TruffleString MUST_BE_ONE_CHARACTER_STRING = tsLiteral("\"%s\" must be a 1-character string");
@@ -1514,4 +1592,151 @@ public abstract class ErrorMessages {
     public static final TruffleString RAISE_WITH_CAUSE_BUT_NO_EXCEPTION = tsLiteral("Raise with cause but no exception");
     public static final TruffleString TRY_HAS_NEITHER_EXCEPT_HANDLERS_NOR_FINALBODY = tsLiteral("Try has neither except handlers nor finalbody");
     public static final TruffleString TRY_HAS_ORELSE_BUT_NO_EXCEPT_HANDLERS = tsLiteral("Try has orelse but no except handlers");
+
+    // hashlib
+    public static final TruffleString UNICODE_OBJECTS_MUST_BE_ENCODED_BEFORE_HASHING = tsLiteral("Unicode-objects must be encoded before hashing");
+    public static final TruffleString OBJECT_SUPPORTING_THE_BUFFER_API_REQUIRED = tsLiteral("object supporting the buffer API required");
+    public static final TruffleString VALUE_MUST_BE_POSITIVE = tsLiteral("value must be positive");
+    public static final TruffleString PYTHON_INT_TOO_LARGE_FOR_C_UNSIGNED_SHORT = tsLiteral("Python int too large for C unsigned short");
+    public static final TruffleString LENGTH_IS_TOO_LARGE = tsLiteral("length is too large");
+    public static final TruffleString DIGEST_SIZE_MUST_BE_BETWEEN_1_AND_D_BYTES = tsLiteral("digest_size must be between 1 and %d bytes");
+    public static final TruffleString MAXIMUM_KEY_LENGTH_IS_D_BYTES = tsLiteral("maximum key length is %d bytes");
+    public static final TruffleString MAXIMUM_SALT_LENGTH_IS_D_BYTES = tsLiteral("maximum salt length is %d bytes");
+    public static final TruffleString MAXIMUM_PERSON_LENGTH_IS_D_BYTES = tsLiteral("maximum person length is %d bytes");
+    public static final TruffleString FANOUT_MUST_BE_BETWEEN_0_AND_255 = tsLiteral("fanout must be between 0 and 255");
+    public static final TruffleString DEPTH_MUST_BE_BETWEEN_1_AND_255 = tsLiteral("depth must be between 1 and 255");
+    public static final TruffleString LEAF_SIZE_IS_TOO_LARGE = tsLiteral("leaf_size is too large");
+    public static final TruffleString NODE_OFFSET_IS_TOO_LARGE = tsLiteral("node_offset is too large");
+    public static final TruffleString NODE_DEPTH_MUST_BE_BETWEEN_0_AND_255 = tsLiteral("node_depth must be between 0 and 255");
+    public static final TruffleString INNER_SIZE_MUST_BE_BETWEEN_0_AND_D = tsLiteral("inner_size must be between 0 and is %d");
+
+    // struct
+    public static final TruffleString STRUCT_ARG_1_MUST_BE_STR_OR_BYTES = tsLiteral("Struct() argument 1 must be a str or bytes object, not %p");
+    public static final TruffleString BAD_CHAR_IN_STRUCT_FORMAT = tsLiteral("bad char in struct format");
+    public static final TruffleString REPEAT_COUNT_WITHOUT_FMT = tsLiteral("repeat count given without format specifier");
+    public static final TruffleString TOTAL_STRUCT_SIZE_TOO_LONG = tsLiteral("total struct size too long");
+    public static final TruffleString STRUCT_ARG_NOT_AN_INTEGER = tsLiteral("required argument is not an integer");
+    public static final TruffleString STRUCT_ARG_NOT_A_FLOAT = tsLiteral("required argument is not a float");
+    public static final TruffleString STRUCT_ARG_OUT_OF_RANGE = tsLiteral("argument out of range");
+    public static final TruffleString STRUCT_BYTE_FMT_REQUIRES_RANGE = tsLiteral("byte format requires -128 <= number <= 127");
+    public static final TruffleString STRUCT_UBYTE_FMT_REQUIRES_RANGE = tsLiteral("ubyte format requires 0 <= number <= 255");
+    public static final TruffleString STRUCT_SHORT_FMT_REQUIRES_RANGE = tsLiteral("short format requires -32768 <= number <= 32767");
+    public static final TruffleString STRUCT_USHORT_FMT_REQUIRES_RANGE = tsLiteral("ushort format requires 0 <= number <= 65535");
+    public static final TruffleString STRUCT_FMT_REQUIRES_RANGE = tsLiteral("'%s' format requires %d <= number <= %d");
+    public static final TruffleString STRUCT_CHAR_FMT_REQUIRES_BYTES_OF_LEN_1 = tsLiteral("char format requires a bytes object of length 1");
+    public static final TruffleString STRUCT_ARG_FOR_S_MUST_BE_BYTES = tsLiteral("argument for '%s' must be a bytes object");
+    public static final TruffleString STRUCT_PACK_EXPECTED_D_ITEMS_GOT_D = tsLiteral("pack expected %d items for packing (got %d)");
+    public static final TruffleString STRUCT_PACK_INTO_EXPECTED_BUFFER_ARG = tsLiteral("pack_into expected buffer argument");
+    public static final TruffleString STRUCT_PACK_INTO_EXPECTED_OFFSET_ARG = tsLiteral("pack_into expected offset argument");
+    public static final TruffleString STRUCT_PACK_INTO_EXPECTED_D_ITEMS_GOT_D = tsLiteral("pack_into expected %d items for packing (got %d)");
+    public static final TruffleString STRUCT_NO_SPACE_TO_PACK_D_BYTES_AT_OFFSET_D = tsLiteral("no space to pack %d bytes at offset %d");
+    public static final TruffleString STRUCT_OFFSET_D_OUT_OF_RANGE_FOR_D_BYTE_BUFFER = tsLiteral("offset %d out of range for %d-byte buffer");
+    public static final TruffleString STRUCT_PACK_INTO_REQUIRES_BUFFER = tsLiteral("pack_into requires a buffer of at least %d bytes for packing %d bytes at offset %d (actual buffer size is %d)");
+    public static final TruffleString STRUCT_UNPACK_REQUIRES_BUFFER_OF_D_BYTES = tsLiteral("unpack requires a buffer of %d bytes");
+    public static final TruffleString STRUCT_UNPACK_FROM_REQUIRES_BUFFER = tsLiteral("unpack_from requires a buffer of at least %d bytes for unpacking %d bytes at offset %d (actual buffer size is %d)");
+    public static final TruffleString STRUCT_CANNOT_ITER_UNPACK_LEN_0 = tsLiteral("cannot iteratively unpack with a struct of length 0");
+    public static final TruffleString STRUCT_ITER_UNPACK_REQUIRES_MULTIPLE_OF_D = tsLiteral("iterative unpacking requires a buffer of a multiple of %d bytes");
+
+    // sqlite3
+    public static final TruffleString SQLITE3_SUPPORT_NOT_AVAILABLE = tsLiteral("the native sqlite3 support library is not available");
+
+    // asyncio
+    public static final TruffleString FUTURE_NOT_INITIALIZED = tsLiteral("Future object is not initialized.");
+    public static final TruffleString UNINITIALIZED_FUTURE_OBJECT = tsLiteral("uninitialized Future object");
+    public static final TruffleString INVALID_STATE = tsLiteral("invalid state");
+    public static final TruffleString RESULT_IS_NOT_SET = tsLiteral("Result is not set.");
+    public static final TruffleString EXCEPTION_IS_NOT_SET = tsLiteral("Exception is not set.");
+    public static final TruffleString INVALID_EXCEPTION_OBJECT = tsLiteral("invalid exception object");
+    public static final TruffleString STOP_ITERATION_CANNOT_BE_RAISED_INTO_FUTURE = tsLiteral("StopIteration interacts badly with generators and cannot be raised into a Future");
+    public static final TruffleString LOG_TRACEBACK_CAN_ONLY_BE_SET_TO_FALSE = tsLiteral("_log_traceback can only be set to False");
+    public static final TruffleString AWAIT_WASNT_USED_WITH_FUTURE = tsLiteral("await wasn't used with future");
+    public static final TruffleString CANT_SEND_NON_NONE_TO_FUTURE_ITER = tsLiteral("can't send non-None value to a FutureIter");
+    public static final TruffleString NO_RUNNING_EVENT_LOOP = tsLiteral("no running event loop");
+    public static final TruffleString CANNOT_ENTER_TASK_S_WHILE_S_IS_EXECUTED = tsLiteral("Cannot enter into task %s while another task %s is being executed.");
+    public static final TruffleString LEAVING_TASK_S_DOES_NOT_MATCH_S = tsLiteral("Leaving task %s does not match the current task %s.");
+    public static final TruffleString A_COROUTINE_WAS_EXPECTED_GOT_S = tsLiteral("a coroutine was expected, got %s");
+    public static final TruffleString STEP_ALREADY_DONE_S_S = tsLiteral("_step(): already done: %s %s");
+    public static final TruffleString TASK_CANNOT_AWAIT_ON_ITSELF_S = tsLiteral("Task cannot await on itself: %s");
+    public static final TruffleString TASK_S_GOT_FUTURE_S_ATTACHED_TO_DIFFERENT_LOOP = tsLiteral("Task %s got Future %s attached to a different loop");
+    public static final TruffleString YIELD_INSTEAD_OF_YIELD_FROM_IN_TASK_S_WITH_S = tsLiteral("yield was used instead of yield from in task %s with %s");
+    public static final TruffleString YIELD_INSTEAD_OF_YIELD_FROM_FOR_GENERATOR_IN_TASK_S_WITH_S = tsLiteral("yield was used instead of yield from for generator in task %s with %s");
+    public static final TruffleString TASK_GOT_BAD_YIELD_S = tsLiteral("Task got bad yield: %s");
+    public static final TruffleString TASK_DOES_NOT_SUPPORT_S_OPERATION = tsLiteral("Task does not support %s operation");
+    public static final TruffleString TASK_CURRENT_TASK_DEPRECATED = tsLiteral("Task.current_task() is deprecated since Python 3.7, use asyncio.current_task() instead");
+    public static final TruffleString TASK_ALL_TASKS_DEPRECATED = tsLiteral("Task.all_tasks() is deprecated since Python 3.7, use asyncio.all_tasks() instead");
+
+    // datetime
+    public static final TruffleString YEAR_D_IS_OUT_OF_RANGE = tsLiteral("year %d is out of range");
+    public static final TruffleString MONTH_MUST_BE_IN_1_12 = tsLiteral("month must be in 1..12");
+    public static final TruffleString DAY_IS_OUT_OF_RANGE_FOR_MONTH = tsLiteral("day is out of range for month");
+    public static final TruffleString HOUR_MUST_BE_IN_0_23 = tsLiteral("hour must be in 0..23");
+    public static final TruffleString MINUTE_MUST_BE_IN_0_59 = tsLiteral("minute must be in 0..59");
+    public static final TruffleString SECOND_MUST_BE_IN_0_59 = tsLiteral("second must be in 0..59");
+    public static final TruffleString MICROSECOND_MUST_BE_IN_0_999999 = tsLiteral("microsecond must be in 0..999999");
+    public static final TruffleString FOLD_MUST_BE_EITHER_0_OR_1 = tsLiteral("fold must be either 0 or 1");
+    public static final TruffleString TZINFO_ARG_MUST_BE_NONE_OR_TZINFO_SUBCLASS_NOT_P = tsLiteral("tzinfo argument must be None or of a tzinfo subclass, not type '%p'");
+    public static final TruffleString DAYS_D_MUST_HAVE_MAGNITUDE_LE_D = tsLiteral("days=%d; must have magnitude <= %d");
+    public static final TruffleString UNSUPPORTED_TYPE_FOR_TIMEDELTA_S_COMPONENT_P = tsLiteral("unsupported type for timedelta %s component: %p");
+    public static final TruffleString DATE_VALUE_OUT_OF_RANGE = tsLiteral("date value out of range");
+    public static final TruffleString ORDINAL_MUST_BE_GE_1 = tsLiteral("ordinal must be >= 1");
+    public static final TruffleString YEAR_IS_OUT_OF_RANGE_D = tsLiteral("Year is out of range: %d");
+    public static final TruffleString INVALID_WEEK_D = tsLiteral("Invalid week: %d");
+    public static final TruffleString INVALID_DAY_D_RANGE_IS_1_7 = tsLiteral("Invalid day: %d (range is [1, 7])");
+    public static final TruffleString FROMISOFORMAT_ARG_MUST_BE_STR = tsLiteral("fromisoformat: argument must be str");
+    public static final TruffleString INVALID_ISOFORMAT_STRING_S = tsLiteral("Invalid isoformat string: %s");
+    public static final TruffleString UNKNOWN_TIMESPEC_VALUE = tsLiteral("Unknown timespec value");
+    public static final TruffleString OFFSET_MUST_BE_TIMEDELTA_STRICTLY_BETWEEN_S = tsLiteral("offset must be a timedelta strictly between -timedelta(hours=24) and timedelta(hours=24), not %s.");
+    public static final TruffleString TZINFO_S_MUST_RETURN_NONE_OR_TIMEDELTA_NOT_P = tsLiteral("tzinfo.%s() must return None or timedelta, not '%p'");
+    public static final TruffleString TZINFO_TZNAME_MUST_RETURN_NONE_OR_STRING_NOT_P = tsLiteral("tzinfo.tzname() must return None or a string, not '%p'");
+    public static final TruffleString TZINFO_SUBCLASS_MUST_IMPLEMENT_S = tsLiteral("a tzinfo subclass must implement %s()");
+    public static final TruffleString CANT_COMPARE_OFFSET_NAIVE_AND_AWARE_S = tsLiteral("can't compare offset-naive and offset-aware %s");
+    public static final TruffleString CANT_SUBTRACT_OFFSET_NAIVE_AND_AWARE_DATETIMES = tsLiteral("can't subtract offset-naive and offset-aware datetimes");
+    public static final TruffleString CANT_COMPARE_S_TO_S = tsLiteral("can't compare %s to %s");
+    public static final TruffleString FROMUTC_ARG_MUST_BE_DATETIME = tsLiteral("fromutc: argument must be a datetime");
+    public static final TruffleString FROMUTC_DT_TZINFO_IS_NOT_SELF = tsLiteral("fromutc: dt.tzinfo is not self");
+    public static final TruffleString FROMUTC_NON_NONE_S_RESULT_REQUIRED = tsLiteral("fromutc: non-None %s() result required");
+    public static final TruffleString FROMUTC_INCONSISTENT_DST = tsLiteral("fromutc: tz.dst() gave inconsistent results; cannot convert");
+    public static final TruffleString S_DT_ARG_MUST_BE_DATETIME_OR_NONE_NOT_P = tsLiteral("%s(dt) argument must be a datetime instance or None, not %p");
+    public static final TruffleString BAD_TZINFO_STATE_ARG = tsLiteral("bad tzinfo state arg");
+    public static final TruffleString ISOFORMAT_ARG_1_MUST_BE_UNICODE_CHAR_NOT_P = tsLiteral("isoformat() argument 1 must be a unicode character, not %p");
+
+    // decimal
+    public static final TruffleString CONVERSION_FROM_P_TO_DECIMAL_NOT_SUPPORTED = tsLiteral("conversion from %p to Decimal is not supported");
+    public static final TruffleString OPTIONAL_ARGUMENT_MUST_BE_A_CONTEXT = tsLiteral("optional argument must be a context");
+    public static final TruffleString ARGUMENT_MUST_BE_A_CONTEXT = tsLiteral("argument must be a context");
+    public static final TruffleString ARGUMENT_MUST_BE_A_DECIMAL = tsLiteral("argument must be a Decimal");
+    public static final TruffleString ARGUMENT_MUST_BE_INT_OR_FLOAT = tsLiteral("argument must be int or float");
+    public static final TruffleString ARGUMENT_MUST_BE_A_SEQUENCE_OF_LENGTH_3 = tsLiteral("argument must be a sequence of length 3");
+    public static final TruffleString SIGN_MUST_BE_AN_INTEGER_WITH_THE_VALUE_0_OR_1 = tsLiteral("sign must be an integer with the value 0 or 1");
+    public static final TruffleString COEFFICIENT_MUST_BE_A_TUPLE_OF_DIGITS = tsLiteral("coefficient must be a tuple of digits");
+    public static final TruffleString STRING_ARGUMENT_IN_THIRD_POSITION_MUST_BE_F_N_OR_N = tsLiteral("string argument in the third position must be 'F', 'n' or 'N'");
+    public static final TruffleString EXPONENT_MUST_BE_AN_INTEGER = tsLiteral("exponent must be an integer");
+    public static final TruffleString CANNOT_HASH_A_SIGNALING_NAN_VALUE = tsLiteral("Cannot hash a signaling NaN value");
+    public static final TruffleString CANNOT_CONVERT_SIGNALING_NAN_TO_FLOAT = tsLiteral("cannot convert signaling NaN to float");
+    public static final TruffleString FORMAT_ARG_MUST_BE_STR = tsLiteral("format arg must be str");
+    public static final TruffleString INVALID_FORMAT_STRING = tsLiteral("invalid format string");
+    public static final TruffleString OPTIONAL_ARGUMENT_MUST_BE_A_DICT = tsLiteral("optional argument must be a dict");
+    public static final TruffleString INVALID_OVERRIDE_DICT = tsLiteral("invalid override dict");
+    public static final TruffleString OPTIONAL_ARG_MUST_BE_AN_INTEGER = tsLiteral("optional arg must be an integer");
+    public static final TruffleString VALID_RANGE_FOR_PREC = tsLiteral("valid range for prec is [1, MAX_PREC]");
+    public static final TruffleString VALID_RANGE_FOR_EMIN = tsLiteral("valid range for Emin is [MIN_EMIN, 0]");
+    public static final TruffleString VALID_RANGE_FOR_EMAX = tsLiteral("valid range for Emax is [0, MAX_EMAX]");
+    public static final TruffleString VALID_VALUES_FOR_CAPITALS = tsLiteral("valid values for capitals are 0 or 1");
+    public static final TruffleString VALID_VALUES_FOR_CLAMP = tsLiteral("valid values for clamp are 0 or 1");
+    public static final TruffleString VALID_VALUES_FOR_ROUNDING = tsLiteral("valid values for rounding are:\n" +
+                    "  [ROUND_CEILING, ROUND_FLOOR, ROUND_UP, ROUND_DOWN,\n" +
+                    "   ROUND_HALF_UP, ROUND_HALF_DOWN, ROUND_HALF_EVEN,\n" +
+                    "   ROUND_05UP]");
+    public static final TruffleString VALID_VALUES_FOR_SIGNALS = tsLiteral("valid values for signals are:\n" +
+                    "  [InvalidOperation, FloatOperation, DivisionByZero,\n" +
+                    "   Overflow, Underflow, Subnormal, Inexact, Rounded,\n" +
+                    "   Clamped]");
+    public static final TruffleString ARGUMENT_MUST_BE_A_SIGNAL_DICT = tsLiteral("argument must be a signal dict");
+    public static final TruffleString INVALID_SIGNAL_DICT = tsLiteral("invalid signal dict");
+    public static final TruffleString SIGNAL_KEYS_CANNOT_BE_DELETED = tsLiteral("signal keys cannot be deleted");
+    public static final TruffleString CONTEXT_ATTRIBUTES_CANNOT_BE_DELETED = tsLiteral("context attributes cannot be deleted");
+
+    // heapq and bisect
+    public static final TruffleString HEAP_ARGUMENT_MUST_BE_A_LIST = tsLiteral("heap argument must be a list");
+    public static final TruffleString LO_MUST_BE_NON_NEGATIVE = tsLiteral("lo must be non-negative");
 }
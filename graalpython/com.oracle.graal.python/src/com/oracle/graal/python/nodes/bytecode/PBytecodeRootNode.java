@@ -59,6 +59,7 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.BuiltinFunctions.FormatNode;
 import com.oracle.graal.python.builtins.modules.BuiltinFunctionsFactory.FormatNodeFactory.FormatNodeGen;
 import com.oracle.graal.python.builtins.modules.MarshalModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.Profiler;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.cell.PCell;
@@ -1915,6 +1916,100 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
                         }
                         break;
                     }
+                    case OpCodesConstants.LOAD_FAST_LOAD_ATTR: {
+                        oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeLoadFastLoadAttrAdaptive(virtualFrame, localFrame, ++stackTop, localBC, bci++, oparg, localNodes, inCompiledCode);
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_O_LOAD_ATTR: {
+                        oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeLoadFastO(virtualFrame, localFrame, ++stackTop, bci++, oparg, localNodes, inCompiledCode);
+                        if (instrumentation == null && !tracingEnabled) {
+                            setCurrentBci(virtualFrame, bciSlot, ++bci);
+                            bytecodeLoadAttr(virtualFrame, stackTop, bci, Byte.toUnsignedInt(localBC[bci + 1]), localNodes, localNames, useCachedNodes);
+                            bci++;
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_LOAD_FAST: {
+                        oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeLoadFastLoadFastAdaptive(virtualFrame, localFrame, ++stackTop, localBC, bci++, oparg, localNodes, inCompiledCode);
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_O_LOAD_FAST_O: {
+                        oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeLoadFastO(virtualFrame, localFrame, ++stackTop, bci++, oparg, localNodes, inCompiledCode);
+                        if (instrumentation == null && !tracingEnabled && localBC[bci + 1] == OpCodesConstants.LOAD_FAST_O) {
+                            bytecodeLoadFastO(virtualFrame, localFrame, ++stackTop, bci + 1, Byte.toUnsignedInt(localBC[bci + 2]), localNodes, inCompiledCode);
+                            bci += 2;
+                            if (bytecodeBinaryOpQuickened(virtualFrame, stackTop, localBC, bci + 1, localNodes, useCachedNodes)) {
+                                stackTop--;
+                                bci += 2;
+                            }
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_I_LOAD_FAST_I: {
+                        oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeLoadFastI(virtualFrame, localFrame, ++stackTop, bci++, oparg, localNodes, inCompiledCode);
+                        if (instrumentation == null && !tracingEnabled && localBC[bci + 1] == OpCodesConstants.LOAD_FAST_I) {
+                            bytecodeLoadFastI(virtualFrame, localFrame, ++stackTop, bci + 1, Byte.toUnsignedInt(localBC[bci + 2]), localNodes, inCompiledCode);
+                            bci += 2;
+                            if (bytecodeBinaryOpQuickened(virtualFrame, stackTop, localBC, bci + 1, localNodes, useCachedNodes)) {
+                                stackTop--;
+                                bci += 2;
+                            }
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.LOAD_FAST_D_LOAD_FAST_D: {
+                        oparg |= Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeLoadFastD(virtualFrame, localFrame, ++stackTop, bci++, oparg, localNodes, inCompiledCode);
+                        if (instrumentation == null && !tracingEnabled && localBC[bci + 1] == OpCodesConstants.LOAD_FAST_D) {
+                            bytecodeLoadFastD(virtualFrame, localFrame, ++stackTop, bci + 1, Byte.toUnsignedInt(localBC[bci + 2]), localNodes, inCompiledCode);
+                            bci += 2;
+                            if (bytecodeBinaryOpQuickened(virtualFrame, stackTop, localBC, bci + 1, localNodes, useCachedNodes)) {
+                                stackTop--;
+                                bci += 2;
+                            }
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.BINARY_OP_POP_AND_JUMP_IF_FALSE: {
+                        int op = Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeBinaryOpPopAndJumpIfFalseAdaptive(virtualFrame, stackTop--, localBC, bci++, localNodes, op, useCachedNodes);
+                        break;
+                    }
+                    case OpCodesConstants.BINARY_OP_II_B_POP_AND_JUMP_IF_FALSE: {
+                        int op = Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeBinaryOpIIB(virtualFrame, stackTop--, bci++, localNodes, op);
+                        if (instrumentation == null && !tracingEnabled && localBC[bci + 1] == OpCodesConstants.POP_AND_JUMP_IF_FALSE_B && virtualFrame.isBoolean(stackTop)) {
+                            bci++;
+                            if (profileCondition(!virtualFrame.getBoolean(stackTop--), localBC, bci, useCachedNodes)) {
+                                bci += Byte.toUnsignedInt(localBC[bci + 1]);
+                                oparg = 0;
+                                continue;
+                            } else {
+                                bci += 3;
+                            }
+                        }
+                        break;
+                    }
+                    case OpCodesConstants.BINARY_OP_DD_B_POP_AND_JUMP_IF_FALSE: {
+                        int op = Byte.toUnsignedInt(localBC[bci + 1]);
+                        bytecodeBinaryOpDDB(virtualFrame, stackTop--, bci++, localNodes, op);
+                        if (instrumentation == null && !tracingEnabled && localBC[bci + 1] == OpCodesConstants.POP_AND_JUMP_IF_FALSE_B && virtualFrame.isBoolean(stackTop)) {
+                            bci++;
+                            if (profileCondition(!virtualFrame.getBoolean(stackTop--), localBC, bci, useCachedNodes)) {
+                                bci += Byte.toUnsignedInt(localBC[bci + 1]);
+                                oparg = 0;
+                                continue;
+                            } else {
+                                bci += 3;
+                            }
+                        }
+                        break;
+                    }
                     case OpCodesConstants.JUMP_IF_FALSE_OR_POP: {
                         setCurrentBci(virtualFrame, bciSlot, bci);
                         boolean cond = evaluateObjectCondition(virtualFrame, useCachedNodes, stackTop, bci, localBC, localNodes, beginBci);
@@ -2856,8 +2951,17 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
         }
 
         threadState.profilingStart();
-        PFrame pyFrame = mutableData.setPyFrame(ensurePyFrame(virtualFrame, mutableData.getPyFrame()));
         Object profileFun = threadState.getProfileFun();
+        if (profileFun instanceof Profiler) {
+            // _lsprof only needs the function, there is no need to materialize the frame
+            try {
+                ((Profiler) profileFun).profileEvent(this, event, arg);
+            } finally {
+                threadState.profilingStop();
+            }
+            return;
+        }
+        PFrame pyFrame = mutableData.setPyFrame(ensurePyFrame(virtualFrame, mutableData.getPyFrame()));
 
         if (profileFun == null) {
             threadState.profilingStop();
@@ -2960,6 +3064,88 @@ public final class PBytecodeRootNode extends PRootNode implements BytecodeOSRNod
         }
     }
 
+    /*
+     * The adaptive superinstructions execute just the first instruction of the sequence. Once the
+     * following instructions are quickened as well, they are replaced with the quickened
+     * superinstruction. Until then, the adaptive superinstruction is kept to retry the next time.
+     */
+    private void bytecodeLoadFastLoadAttrAdaptive(VirtualFrame virtualFrame, Frame localFrame, int stackTop, byte[] localBC, int bci, int index, Node[] localNodes, boolean inCompiledCode) {
+        bytecodeLoadFastAdaptive(virtualFrame, localFrame, stackTop, localBC, bci, index, localNodes, inCompiledCode);
+        if (localBC[bci] == OpCodesConstants.LOAD_FAST_O) {
+            localBC[bci] = OpCodesConstants.LOAD_FAST_O_LOAD_ATTR;
+        }
+    }
+
+    private void bytecodeLoadFastLoadFastAdaptive(VirtualFrame virtualFrame, Frame localFrame, int stackTop, byte[] localBC, int bci, int index, Node[] localNodes, boolean inCompiledCode) {
+        bytecodeLoadFastAdaptive(virtualFrame, localFrame, stackTop, localBC, bci, index, localNodes, inCompiledCode);
+        byte first = localBC[bci];
+        byte second = localBC[bci + 2];
+        if (second == OpCodesConstants.LOAD_FAST) {
+            localBC[bci] = OpCodesConstants.LOAD_FAST_LOAD_FAST;
+        } else if (first == second) {
+            switch (first) {
+                case OpCodesConstants.LOAD_FAST_O:
+                    localBC[bci] = OpCodesConstants.LOAD_FAST_O_LOAD_FAST_O;
+                    break;
+                case OpCodesConstants.LOAD_FAST_I:
+                    localBC[bci] = OpCodesConstants.LOAD_FAST_I_LOAD_FAST_I;
+                    break;
+                case OpCodesConstants.LOAD_FAST_D:
+                    localBC[bci] = OpCodesConstants.LOAD_FAST_D_LOAD_FAST_D;
+                    break;
+            }
+        }
+    }
+
+    private void bytecodeBinaryOpPopAndJumpIfFalseAdaptive(VirtualFrame virtualFrame, int stackTop, byte[] localBC, int bci, Node[] localNodes, int op, boolean useCachedNodes) {
+        bytecodeBinaryOpAdaptive(virtualFrame, stackTop, localBC, bci, localNodes, op, useCachedNodes);
+        byte jump = localBC[bci + 2];
+        if (jump == OpCodesConstants.POP_AND_JUMP_IF_FALSE) {
+            localBC[bci] = OpCodesConstants.BINARY_OP_POP_AND_JUMP_IF_FALSE;
+        } else if (jump == OpCodesConstants.POP_AND_JUMP_IF_FALSE_B) {
+            if (localBC[bci] == OpCodesConstants.BINARY_OP_II_B) {
+                localBC[bci] = OpCodesConstants.BINARY_OP_II_B_POP_AND_JUMP_IF_FALSE;
+            } else if (localBC[bci] == OpCodesConstants.BINARY_OP_DD_B) {
+                localBC[bci] = OpCodesConstants.BINARY_OP_DD_B_POP_AND_JUMP_IF_FALSE;
+            }
+        }
+    }
+
+    /**
+     * Executes the already quickened {@code BINARY_OP} at given bci as the last part of a
+     * superinstruction. Returns {@code false} if the instruction is not quickened yet and has to be
+     * dispatched normally.
+     */
+    @BytecodeInterpreterSwitch
+    private boolean bytecodeBinaryOpQuickened(VirtualFrame virtualFrame, int stackTop, byte[] localBC, int bci, Node[] localNodes, boolean useCachedNodes) {
+        int op = Byte.toUnsignedInt(localBC[bci + 1]);
+        switch (localBC[bci]) {
+            case OpCodesConstants.BINARY_OP_OO_O:
+                bytecodeBinaryOpOOO(virtualFrame, stackTop, bci, localNodes, op, bcioffset);
+                return true;
+            case OpCodesConstants.BINARY_OP_II_I:
+                bytecodeBinaryOpIII(virtualFrame, stackTop, bci, localNodes, op, useCachedNodes);
+                return true;
+            case OpCodesConstants.BINARY_OP_II_B:
+                bytecodeBinaryOpIIB(virtualFrame, stackTop, bci, localNodes, op);
+                return true;
+            case OpCodesConstants.BINARY_OP_II_O:
+                bytecodeBinaryOpIIO(virtualFrame, stackTop, bci, localNodes, op);
+                return true;
+            case OpCodesConstants.BINARY_OP_DD_D:
+                bytecodeBinaryOpDDD(virtualFrame, stackTop, bci, localNodes, op, useCachedNodes);
+                return true;
+            case OpCodesConstants.BINARY_OP_DD_B:
+                bytecodeBinaryOpDDB(virtualFrame, stackTop, bci, localNodes, op);
+                return true;
+            case OpCodesConstants.BINARY_OP_DD_O:
+                bytecodeBinaryOpDDO(virtualFrame, stackTop, bci, localNodes, op, useCachedNodes);
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private void generalizePopAndJumpIfTrueB(int bci) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
         generalizeInputs(bci);
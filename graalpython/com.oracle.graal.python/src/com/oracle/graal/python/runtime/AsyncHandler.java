@@ -70,7 +70,6 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.ThreadLocalAction;
 import com.oracle.truffle.api.TruffleLanguage;
-import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.TruffleLogger;
 import com.oracle.truffle.api.debug.Debugger;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -179,7 +178,7 @@ public class AsyncHandler {
 
     private final WeakReference<PythonContext> context;
     private static final int ASYNC_ACTION_DELAY = 25;
-    private static final int GIL_RELEASE_DELAY = 50;
+    private final AtomicBoolean gilDropPending = new AtomicBoolean(false);
 
     private class AsyncRunnable implements Runnable {
         private final Supplier<AsyncAction> actionSupplier;
@@ -277,51 +276,39 @@ public class AsyncHandler {
         executorService.scheduleWithFixedDelay(new AsyncRunnable(actionSupplier), ASYNC_ACTION_DELAY, ASYNC_ACTION_DELAY, TimeUnit.MILLISECONDS);
     }
 
-    void activateGIL() {
-        CompilerAsserts.neverPartOfCompilation();
+    /**
+     * Asks the current GIL holder to release the GIL at its next safepoint in ordinary Python code.
+     * Called by threads that have been waiting for the GIL for longer than the switch interval, see
+     * {@link GlobalInterpreterLock}.
+     */
+    void requestGilDrop(Thread gilOwner) {
         final PythonContext ctx = context.get();
         if (ctx == null) {
             return;
         }
-        final Env env = ctx.getEnv();
-        final AtomicBoolean gilReleaseRequested = new AtomicBoolean(false);
-        executorService.scheduleWithFixedDelay(() -> {
-            if (gilReleaseRequested.compareAndSet(false, true)) {
-                Thread gilOwner = ctx.getGilOwner();
-                // There is a race, but that's no problem. The gil owner may release the gil before
-                // getting to run this safepoint. In that case, it just ignores it. Some other
-                // thread will run and eventually get another gil release request.
-                if (gilOwner != null) {
-                    env.submitThreadLocal(new Thread[]{gilOwner}, new ThreadLocalAction(false, false) {
-                        @Override
-                        protected void perform(ThreadLocalAction.Access access) {
-                            // it may happen that we request a GIL release and no thread is
-                            // currently holding the GIL (e.g. all are sleeping). We still need
-                            // to tick again later, so we reset the gilReleaseRequested flag even
-                            // when the thread in question isn't actually holding it.
-                            gilReleaseRequested.set(false);
-                            RootNode rootNode = access.getLocation().getRootNode();
-                            if (rootNode instanceof PRootNode) {
-                                if (rootNode.isInternal()) {
-                                    return;
-                                }
-                                if (((PRootNode) rootNode).isPythonInternal()) {
-                                    return;
-                                }
-                                // we only release the gil in ordinary Python code nodes
-                                GilNode gil = GilNode.getUncached();
-                                if (gil.tryRelease()) {
-                                    Thread.yield();
-                                    gil.acquire(access.getLocation());
-                                }
-                            }
+        // Only one request may be pending at a time, several waiting threads would otherwise flood
+        // the holder with thread local actions. There is a race, but that's no problem. The gil
+        // owner may release the gil before getting to run this safepoint. In that case, it just
+        // ignores it and the waiting threads will request again after the next switch interval.
+        if (gilDropPending.compareAndSet(false, true)) {
+            ctx.getEnv().submitThreadLocal(new Thread[]{gilOwner}, new ThreadLocalAction(false, false) {
+                @Override
+                protected void perform(ThreadLocalAction.Access access) {
+                    gilDropPending.set(false);
+                    RootNode rootNode = access.getLocation().getRootNode();
+                    if (rootNode instanceof PRootNode) {
+                        if (rootNode.isInternal()) {
+                            return;
+                        }
+                        if (((PRootNode) rootNode).isPythonInternal()) {
+                            return;
                         }
-                    });
-                } else {
-                    gilReleaseRequested.set(false);
+                        // we only release the gil in ordinary Python code nodes
+                        ctx.dropGilOnRequest(access.getLocation());
+                    }
                 }
-            }
-        }, GIL_RELEASE_DELAY, GIL_RELEASE_DELAY, TimeUnit.MILLISECONDS);
+            });
+        }
     }
 
     public void shutdown() {
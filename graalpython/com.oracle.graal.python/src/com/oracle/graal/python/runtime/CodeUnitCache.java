@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.logging.Level;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.modules.MarshalModuleBuiltins;
+import com.oracle.graal.python.compiler.CodeUnit;
+import com.oracle.graal.python.compiler.Compiler;
+import com.oracle.graal.python.pegparser.InputType;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLogger;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/**
+ * Persistent cache of compiled {@link CodeUnit}s of source files, enabled by
+ * {@link PythonOptions#CodeCacheDirectory}. Unlike {@code .pyc} files, entries are not tied to the
+ * location of the source: the file name of an entry is the SHA-256 hash of the source content
+ * together with everything else that influences the compilation result (the bytecode version, the
+ * language version, the input type, the optimization level and the compiler flags). An entry
+ * consists of a small header followed by the code unit serialized with
+ * {@link MarshalModuleBuiltins#serializeCodeUnit}. Entries are written to a temporary file and
+ * atomically moved into place, so concurrent processes sharing the directory never observe partial
+ * entries. Entries are memory-mapped when loaded.
+ */
+public final class CodeUnitCache {
+    private static final TruffleLogger LOGGER = PythonLanguage.getLogger(CodeUnitCache.class);
+
+    private static final int MAGIC = 0x47505955; // "GPYU"
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final String ENTRY_SUFFIX = ".gpyu";
+
+    private CodeUnitCache() {
+    }
+
+    /**
+     * Returns the cache entry for compiling the given source, or {@code null} if the cache is
+     * disabled or the source is not cacheable. Only sources that have a path are cached, i.e.,
+     * modules loaded from files, not strings passed to {@code exec} or {@code eval}.
+     */
+    @TruffleBoundary
+    public static TruffleFile getEntry(PythonContext context, Source source, InputType type, int optimize, EnumSet<Compiler.Flags> flags) {
+        TruffleString dirOption = context.getOption(PythonOptions.CodeCacheDirectory);
+        if (dirOption.isEmpty() || source.getPath() == null || !source.hasCharacters() || source.isInteractive()) {
+            return null;
+        }
+        try {
+            TruffleFile dir = context.getEnv().getPublicTruffleFile(dirOption.toJavaStringUncached());
+            return dir.resolve(computeKey(source, type, optimize, flags) + ENTRY_SUFFIX);
+        } catch (SecurityException | UnsupportedOperationException | IllegalArgumentException e) {
+            LOGGER.log(Level.FINE, e, () -> "Cannot use code cache directory " + dirOption);
+            return null;
+        }
+    }
+
+    /**
+     * Loads the code unit stored in the given entry. Returns {@code null} if there is no such entry
+     * or if it cannot be read, in which case the caller is expected to compile the source and
+     * {@link #store} the result.
+     */
+    @TruffleBoundary
+    public static CodeUnit load(TruffleFile entry) {
+        try (SeekableByteChannel channel = entry.newByteChannel(EnumSet.of(StandardOpenOption.READ))) {
+            long size = channel.size();
+            if (size <= HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer buffer;
+            if (channel instanceof FileChannel) {
+                buffer = ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                // virtual file systems need not be backed by real files
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading
+                }
+                buffer.flip();
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() <= HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != Compiler.BYTECODE_VERSION) {
+                return null;
+            }
+            CodeUnit code = MarshalModuleBuiltins.deserializeCodeUnit(buffer);
+            LOGGER.log(Level.FINE, () -> "Loaded cached code from " + entry);
+            return code;
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            // a missing entry is the common case
+            LOGGER.log(Level.FINEST, e, () -> "Cannot load cached code from " + entry);
+            return null;
+        } catch (PException e) {
+            LOGGER.log(Level.FINE, () -> "Ignoring corrupted code cache entry " + entry);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the code unit in the given entry. Failures are only logged, the cache is never
+     * required for correct execution.
+     */
+    @TruffleBoundary
+    public static void store(PythonContext context, TruffleFile entry, CodeUnit code) {
+        byte[] data = MarshalModuleBuiltins.serializeCodeUnit(code);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(Compiler.BYTECODE_VERSION).flip();
+        TruffleFile tmp = null;
+        try {
+            TruffleFile dir = entry.getParent();
+            dir.createDirectories();
+            tmp = context.getEnv().createTempFile(dir, entry.getName(), ".tmp");
+            try (SeekableByteChannel channel = tmp.newByteChannel(EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+                writeFully(channel, header);
+                writeFully(channel, ByteBuffer.wrap(data));
+            }
+            tmp.move(entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+            LOGGER.log(Level.FINE, () -> "Stored compiled code in " + entry);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            LOGGER.log(Level.FINE, e, () -> "Cannot store compiled code in " + entry);
+        } finally {
+            if (tmp != null) {
+                try {
+                    tmp.delete();
+                } catch (IOException | SecurityException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private static void writeFully(SeekableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static String computeKey(Source source, InputType type, int optimize, EnumSet<Compiler.Flags> flags) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+        StringBuilder prefix = new StringBuilder();
+        prefix.append(Compiler.BYTECODE_VERSION).append(':').append(PythonLanguage.VERSION).append(':').append(PythonLanguage.RELEASE_LEVEL).append(':').append(PythonLanguage.RELEASE_SERIAL);
+        prefix.append(':').append(type).append(':').append(optimize).append(':').append(flags).append('\n');
+        digest.update(prefix.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(source.getCharacters().toString().getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest();
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
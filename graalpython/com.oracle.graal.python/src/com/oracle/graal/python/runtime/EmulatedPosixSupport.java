@@ -89,6 +89,10 @@ import static com.oracle.graal.python.runtime.PosixConstants.O_SYNC;
 import static com.oracle.graal.python.runtime.PosixConstants.O_TMPFILE;
 import static com.oracle.graal.python.runtime.PosixConstants.O_TRUNC;
 import static com.oracle.graal.python.runtime.PosixConstants.O_WRONLY;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLHUP;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLNVAL;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLOUT;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_EXEC;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_NONE;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_READ;
@@ -172,6 +176,7 @@ import java.nio.channels.Channel;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.channels.IllegalBlockingModeException;
 import java.nio.channels.NetworkChannel;
 import java.nio.channels.NotYetConnectedException;
 import java.nio.channels.ReadableByteChannel;
@@ -199,11 +204,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -670,28 +677,338 @@ public final class EmulatedPosixSupport extends PosixResources {
             if (ch == null) {
                 throw posixException(OSErrorEnum.EBADF);
             }
-            if (ch instanceof SelectableChannel) {
-                channels[i] = (SelectableChannel) ch;
-            } else if (ch instanceof EmulatedDatagramSocket) {
-                channels[i] = ((EmulatedDatagramSocket) ch).channel;
-            } else if (ch instanceof EmulatedStreamSocket) {
-                EmulatedStreamSocket streamSocket = (EmulatedStreamSocket) ch;
-                synchronized (streamSocket) {
-                    if (streamSocket.clientChannel != null) {
-                        channels[i] = streamSocket.clientChannel;
-                    } else if (streamSocket.serverChannel != null) {
-                        channels[i] = streamSocket.serverChannel;
-                    } else {
-                        throw ChannelNotSelectableException.INSTANCE;
-                    }
-                }
-            } else {
+            channels[i] = getSelectableChannel(ch);
+            if (channels[i] == null) {
                 throw ChannelNotSelectableException.INSTANCE;
             }
         }
         return channels;
     }
 
+    /**
+     * Returns the channel that can be registered with a {@link Selector} on behalf of the given
+     * file channel or {@code null} if there is no such channel (regular files, unconnected stream
+     * sockets).
+     */
+    private static SelectableChannel getSelectableChannel(Channel ch) {
+        if (ch instanceof SelectableChannel) {
+            return (SelectableChannel) ch;
+        } else if (ch instanceof EmulatedDatagramSocket) {
+            return ((EmulatedDatagramSocket) ch).channel;
+        } else if (ch instanceof EmulatedStreamSocket) {
+            EmulatedStreamSocket streamSocket = (EmulatedStreamSocket) ch;
+            synchronized (streamSocket) {
+                if (streamSocket.clientChannel != null) {
+                    return streamSocket.clientChannel;
+                } else if (streamSocket.serverChannel != null) {
+                    return streamSocket.serverChannel;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A poll set of the emulated backend. Unlike {@link #select}, which opens a new
+     * {@link Selector} on every call, the poll set keeps one selector for its whole lifetime and
+     * channels in non-blocking mode stay registered with it between calls to {@link #poll}, so a
+     * steady-state poll loop only pays for the {@link Selector#select} itself. Channels that are
+     * in blocking mode are registered only for the duration of a single poll, because a channel
+     * registered with a selector cannot be switched back to blocking mode.
+     */
+    private static final class EmulatedPollSet {
+        final Selector selector;
+        final LinkedHashMap<Integer, PollRegistration> registrations = new LinkedHashMap<>();
+        /** Set when a key was cancelled and must be flushed before its channel is registered. */
+        boolean needsFlush;
+
+        EmulatedPollSet(Selector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Removes the registration of {@code channel} from the selector. Must be called while
+         * holding the lock of this poll set.
+         */
+        boolean deregister(SelectableChannel channel) throws IOException {
+            boolean found = false;
+            for (PollRegistration reg : registrations.values()) {
+                if (reg.channel == channel && reg.key != null) {
+                    reg.cancel();
+                    found = true;
+                }
+            }
+            if (found) {
+                // a concurrent poll holds the selector's lock, wake it up so that the cancelled
+                // key can be flushed
+                selector.wakeup();
+                selector.selectNow();
+                selector.selectedKeys().clear();
+            }
+            return found;
+        }
+    }
+
+    private static final class PollRegistration {
+        final int fd;
+        int events;
+        int revents;
+        SelectableChannel channel;
+        SelectionKey key;
+        boolean temporary;
+
+        PollRegistration(int fd, int events) {
+            this.fd = fd;
+            this.events = events;
+        }
+
+        void cancel() {
+            if (key != null) {
+                key.cancel();
+                key = null;
+            }
+            channel = null;
+        }
+    }
+
+    private final Set<EmulatedPollSet> pollSets = Collections.newSetFromMap(new WeakHashMap<>());
+
+    @ExportMessage
+    @TruffleBoundary
+    public Object pollCreate() throws PosixException {
+        try {
+            EmulatedPollSet set = new EmulatedPollSet(Selector.open());
+            synchronized (pollSets) {
+                pollSets.add(set);
+            }
+            return set;
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e, TruffleString.EqualNode.getUncached()));
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    @SuppressWarnings("static-method")
+    public void pollRegister(Object pollSet, int fd, int events) {
+        EmulatedPollSet set = (EmulatedPollSet) pollSet;
+        synchronized (set) {
+            PollRegistration reg = set.registrations.get(fd);
+            if (reg == null) {
+                set.registrations.put(fd, new PollRegistration(fd, events));
+            } else {
+                reg.events = events;
+            }
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    @SuppressWarnings("static-method")
+    public void pollUnregister(Object pollSet, int fd) {
+        EmulatedPollSet set = (EmulatedPollSet) pollSet;
+        synchronized (set) {
+            PollRegistration reg = set.registrations.remove(fd);
+            if (reg != null && reg.key != null) {
+                reg.cancel();
+                set.needsFlush = true;
+            }
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public int[] poll(Object pollSet, long timeoutMs) throws PosixException {
+        EmulatedPollSet set = (EmulatedPollSet) pollSet;
+        try {
+            boolean ready;
+            synchronized (set) {
+                ready = preparePoll(set);
+            }
+            // the selector must not be locked by the poll set while waiting, otherwise
+            // setBlocking() on another thread could not deregister a channel
+            if (ready || timeoutMs == 0) {
+                set.selector.selectNow();
+            } else {
+                long deadline = timeoutMs < 0 ? 0 : System.currentTimeMillis() + timeoutMs;
+                long remaining = timeoutMs < 0 ? 0 : timeoutMs;
+                while (true) {
+                    int selected = set.selector.select(remaining);
+                    synchronized (set) {
+                        // taking the lock also waits for a concurrent deregister() that woke us up
+                        // to flush its cancelled keys before we select again
+                        if (selected != 0 || Thread.currentThread().isInterrupted()) {
+                            break;
+                        }
+                    }
+                    if (timeoutMs > 0) {
+                        remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                    }
+                }
+            }
+            synchronized (set) {
+                return collectPoll(set);
+            }
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e, TruffleString.EqualNode.getUncached()));
+        }
+    }
+
+    /**
+     * Brings the selector of the poll set in sync with the registered file descriptors. Returns
+     * {@code true} if some descriptor is ready without selecting (closed descriptors, regular
+     * files).
+     */
+    private boolean preparePoll(EmulatedPollSet set) throws IOException {
+        boolean ready = false;
+        boolean needsFlush = set.needsFlush;
+        for (PollRegistration reg : set.registrations.values()) {
+            reg.revents = 0;
+            Channel ch = getFileChannel(reg.fd);
+            SelectableChannel channel = ch == null ? null : getSelectableChannel(ch);
+            if (reg.key != null && (reg.channel != channel || !reg.key.isValid() || channel.isBlocking())) {
+                reg.cancel();
+                needsFlush = true;
+            }
+            if (ch == null) {
+                reg.revents = POLLNVAL.value;
+                ready = true;
+            } else if (channel == null) {
+                if (ch instanceof EmulatedSocket) {
+                    // stream socket that is neither connected nor listening
+                    reg.revents = (reg.events & POLLOUT.value) | POLLHUP.value;
+                } else {
+                    // regular files never block
+                    reg.revents = reg.events & (POLLIN.value | POLLOUT.value);
+                }
+                ready |= reg.revents != 0;
+            }
+        }
+        if (needsFlush) {
+            set.selector.selectNow();
+            set.selector.selectedKeys().clear();
+            set.needsFlush = false;
+        }
+        for (PollRegistration reg : set.registrations.values()) {
+            if (reg.revents != 0) {
+                continue;
+            }
+            Channel ch = getFileChannel(reg.fd);
+            SelectableChannel channel = ch == null ? null : getSelectableChannel(ch);
+            if (channel == null) {
+                continue;
+            }
+            int ops = 0;
+            if ((reg.events & POLLIN.value) != 0) {
+                ops |= SelectionKey.OP_READ | SelectionKey.OP_ACCEPT;
+            }
+            if ((reg.events & POLLOUT.value) != 0) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            ops &= channel.validOps();
+            if (reg.key != null) {
+                if (ops == 0) {
+                    reg.cancel();
+                    set.needsFlush = true;
+                } else if (reg.key.interestOps() != ops) {
+                    reg.key.interestOps(ops);
+                }
+            } else if (ops != 0) {
+                reg.temporary = channel.isBlocking();
+                if (reg.temporary) {
+                    channel.configureBlocking(false);
+                }
+                reg.channel = channel;
+                reg.key = channel.register(set.selector, ops, reg);
+            }
+        }
+        return ready;
+    }
+
+    private static int[] collectPoll(EmulatedPollSet set) throws IOException {
+        Set<SelectionKey> selectedKeys = set.selector.selectedKeys();
+        int count = 0;
+        int[] result = new int[set.registrations.size() * 2];
+        List<SelectableChannel> temporaryChannels = null;
+        for (PollRegistration reg : set.registrations.values()) {
+            int revents = reg.revents;
+            if (reg.key != null && reg.key.isValid() && selectedKeys.contains(reg.key)) {
+                int readyOps = reg.key.readyOps();
+                if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+                    revents |= POLLIN.value;
+                }
+                if ((readyOps & SelectionKey.OP_WRITE) != 0) {
+                    revents |= POLLOUT.value;
+                }
+                revents &= reg.events | POLLHUP.value | POLLNVAL.value;
+            }
+            if (reg.temporary) {
+                if (temporaryChannels == null) {
+                    temporaryChannels = new ArrayList<>();
+                }
+                temporaryChannels.add(reg.channel);
+                reg.cancel();
+                reg.temporary = false;
+            }
+            reg.revents = 0;
+            if (revents != 0) {
+                result[count++] = reg.fd;
+                result[count++] = revents;
+            }
+        }
+        selectedKeys.clear();
+        if (temporaryChannels != null) {
+            // flush the cancelled keys before the channels can be switched back to blocking mode
+            set.selector.selectNow();
+            selectedKeys.clear();
+            for (SelectableChannel channel : temporaryChannels) {
+                try {
+                    channel.configureBlocking(true);
+                } catch (IOException e) {
+                    // We didn't manage to restore the blocking status, ignore
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public void pollClose(Object pollSet) {
+        EmulatedPollSet set = (EmulatedPollSet) pollSet;
+        synchronized (pollSets) {
+            pollSets.remove(set);
+        }
+        synchronized (set) {
+            set.registrations.clear();
+            try {
+                set.selector.close();
+            } catch (IOException e) {
+                // ignored, there is nothing left to release
+            }
+        }
+    }
+
+    /**
+     * Removes {@code channel} from all live poll sets so that it can be switched to blocking mode.
+     */
+    @TruffleBoundary
+    @Ignore
+    private void deregisterFromPollSets(SelectableChannel channel) throws IOException {
+        EmulatedPollSet[] sets;
+        synchronized (pollSets) {
+            sets = pollSets.toArray(new EmulatedPollSet[0]);
+        }
+        for (EmulatedPollSet set : sets) {
+            synchronized (set) {
+                set.deregister(channel);
+            }
+        }
+    }
+
     @ExportMessage
     public long lseek(int fd, long offset, int how,
                     @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
@@ -876,7 +1193,7 @@ public final class EmulatedPosixSupport extends PosixResources {
     }
 
     @ExportMessage
-    @SuppressWarnings({"static-method", "unused"})
+    @SuppressWarnings("unused")
     public void setBlocking(int fd, boolean blocking,
                     @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
                     @Shared("eq") @Cached TruffleString.EqualNode eqNode) throws PosixException {
@@ -907,14 +1224,29 @@ public final class EmulatedPosixSupport extends PosixResources {
 
     @TruffleBoundary
     @Ignore
-    private static void setBlocking(SelectableChannel channel, boolean block) throws IOException {
-        channel.configureBlocking(block);
+    private void setBlocking(SelectableChannel channel, boolean block) throws IOException {
+        try {
+            channel.configureBlocking(block);
+        } catch (IllegalBlockingModeException e) {
+            // the channel is still registered with a poll set
+            deregisterFromPollSets(channel);
+            channel.configureBlocking(block);
+        }
     }
 
     @TruffleBoundary
     @Ignore
-    private static void setBlocking(EmulatedSocket socket, boolean block) throws IOException {
-        socket.configureBlocking(block);
+    private void setBlocking(EmulatedSocket socket, boolean block) throws IOException {
+        try {
+            socket.configureBlocking(block);
+        } catch (IllegalBlockingModeException e) {
+            SelectableChannel channel = getSelectableChannel(socket);
+            if (channel == null) {
+                throw e;
+            }
+            deregisterFromPollSets(channel);
+            socket.configureBlocking(block);
+        }
     }
 
     @ExportMessage
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The global interpreter lock. Besides mutual exclusion, it implements the switching scheme of
+ * CPython's {@code ceval_gil.h}:
+ * <ul>
+ * <li>A thread that waits for the GIL for a whole switch interval ({@code sys.setswitchinterval})
+ * without any other thread taking it in the meantime sets a drop request and asks the current
+ * holder to release the GIL at its next safepoint in Python code (see
+ * {@link AsyncHandler#requestGilDrop}).</li>
+ * <li>Forced switching: a thread that released the GIL because of a drop request does not try to
+ * take it again until some other thread has taken it. Without this, the releasing (often CPU-bound)
+ * thread tends to immediately re-acquire the lock, which leads to convoying of I/O-bound
+ * threads.</li>
+ * </ul>
+ *
+ * Each thread also accumulates counters about its usage of the GIL, see {@link GilStats}.
+ */
+public final class GlobalInterpreterLock {
+
+    private static final class OwnerAwareLock extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Thread getOwner() {
+            return super.getOwner();
+        }
+    }
+
+    /**
+     * Counters about the GIL usage of a single thread. Only ever updated by the thread itself while
+     * holding the GIL, so reading them while holding the GIL gives a consistent snapshot.
+     */
+    public static final class GilStats {
+        private final Thread thread;
+        private long waitNanos;
+        private long holdNanos;
+        private long acquisitions;
+        private long switches;
+        private long dropRequests;
+        private long acquiredAt;
+
+        private GilStats(Thread thread) {
+            this.thread = thread;
+        }
+
+        public Thread getThread() {
+            return thread;
+        }
+
+        /** Total time spent waiting for the GIL. */
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+
+        /** Total time the GIL was held, including the current hold if the GIL is held now. */
+        public long getHoldNanos(boolean currentlyHeld) {
+            return currentlyHeld ? holdNanos + (System.nanoTime() - acquiredAt) : holdNanos;
+        }
+
+        public long getAcquisitions() {
+            return acquisitions;
+        }
+
+        /** How many times this thread took the GIL over from a different thread. */
+        public long getSwitches() {
+            return switches;
+        }
+
+        /** How many times this thread released the GIL because another thread requested it. */
+        public long getDropRequests() {
+            return dropRequests;
+        }
+    }
+
+    private final OwnerAwareLock lock = new OwnerAwareLock();
+    private final PythonContext context;
+
+    private volatile boolean dropRequested;
+    // incremented whenever the GIL is taken by a different thread than the last holder
+    private volatile long switchNumber;
+    private Thread lastHolder;
+
+    private final Object switchMonitor = new Object();
+    private volatile int forcedSwitchWaiters;
+
+    private final ThreadLocal<GilStats> localStats = new ThreadLocal<>();
+    private final Map<Thread, GilStats> allStats = Collections.synchronizedMap(new WeakHashMap<>());
+
+    GlobalInterpreterLock(PythonContext context) {
+        this.context = context;
+    }
+
+    boolean isHeldByCurrentThread() {
+        return lock.isHeldByCurrentThread();
+    }
+
+    Thread getOwner() {
+        return lock.getOwner();
+    }
+
+    int getHoldCount() {
+        return lock.getHoldCount();
+    }
+
+    boolean isDropRequested() {
+        return dropRequested;
+    }
+
+    long getSwitchNumber() {
+        return switchNumber;
+    }
+
+    /** Called by the GIL holder right before it releases the GIL on a drop request. */
+    void countDropRequest() {
+        assert lock.isHeldByCurrentThread();
+        getStats().dropRequests++;
+    }
+
+    boolean tryLock() {
+        if (lock.tryLock()) {
+            if (lock.getHoldCount() == 1) {
+                onAcquired(getStats(), 0);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    void lockInterruptibly() throws InterruptedException {
+        GilStats stats = getStats();
+        if (lock.tryLock()) {
+            onAcquired(stats, 0);
+            return;
+        }
+        long start = System.nanoTime();
+        while (true) {
+            long switchBefore = switchNumber;
+            if (lock.tryLock(getSwitchIntervalNanos(), TimeUnit.NANOSECONDS)) {
+                break;
+            }
+            if (switchNumber == switchBefore) {
+                // nobody else got the GIL during a whole interval, ask the holder to drop it
+                dropRequested = true;
+                Thread owner = lock.getOwner();
+                if (owner != null) {
+                    context.getAsyncHandler().requestGilDrop(owner);
+                }
+            }
+        }
+        onAcquired(stats, System.nanoTime() - start);
+    }
+
+    void unlock() {
+        if (lock.getHoldCount() == 1) {
+            GilStats stats = getStats();
+            stats.holdNanos += System.nanoTime() - stats.acquiredAt;
+        }
+        lock.unlock();
+    }
+
+    /**
+     * Called by the GIL holder after it released the GIL on a drop request. Blocks until another
+     * thread took the GIL or until there are no more waiters.
+     */
+    void awaitSwitch(long switchBefore) {
+        synchronized (switchMonitor) {
+            forcedSwitchWaiters++;
+            try {
+                while (switchNumber == switchBefore && lock.hasQueuedThreads()) {
+                    switchMonitor.wait(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                forcedSwitchWaiters--;
+            }
+        }
+    }
+
+    private void onAcquired(GilStats stats, long waitNanos) {
+        dropRequested = false;
+        Thread current = stats.thread;
+        if (lastHolder != current) {
+            lastHolder = current;
+            switchNumber++;
+            stats.switches++;
+            if (forcedSwitchWaiters > 0) {
+                synchronized (switchMonitor) {
+                    switchMonitor.notifyAll();
+                }
+            }
+        }
+        stats.waitNanos += waitNanos;
+        stats.acquisitions++;
+        stats.acquiredAt = System.nanoTime();
+    }
+
+    private long getSwitchIntervalNanos() {
+        // the switch interval is kept in microseconds
+        return Math.max(1000L, (long) (context.getSysModuleState().getSwitchInterval() * 1000));
+    }
+
+    private GilStats getStats() {
+        GilStats stats = localStats.get();
+        if (stats == null) {
+            stats = new GilStats(Thread.currentThread());
+            localStats.set(stats);
+            allStats.put(stats.thread, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the counters of all threads that used the GIL so far and are still alive.
+     */
+    GilStats[] getAllStats() {
+        ArrayList<GilStats> result = new ArrayList<>();
+        synchronized (allStats) {
+            for (GilStats stats : allStats.values()) {
+                if (stats.thread.isAlive()) {
+                    result.add(stats);
+                }
+            }
+        }
+        return result.toArray(new GilStats[0]);
+    }
+}
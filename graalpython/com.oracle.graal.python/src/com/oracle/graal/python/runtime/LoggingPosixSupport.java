@@ -257,6 +257,56 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final Object pollCreate(@CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollCreate", "");
+        try {
+            return logExit("pollCreate", "%s", lib.pollCreate(delegate));
+        } catch (PosixException e) {
+            throw logException("pollCreate", e);
+        }
+    }
+
+    @ExportMessage
+    final void pollRegister(Object pollSet, int fd, int events,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollRegister", "%s, %d, %d", pollSet, fd, events);
+        try {
+            lib.pollRegister(delegate, pollSet, fd, events);
+        } catch (PosixException e) {
+            throw logException("pollRegister", e);
+        }
+    }
+
+    @ExportMessage
+    final void pollUnregister(Object pollSet, int fd,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pollUnregister", "%s, %d", pollSet, fd);
+        try {
+            lib.pollUnregister(delegate, pollSet, fd);
+        } catch (PosixException e) {
+            throw logException("pollUnregister", e);
+        }
+    }
+
+    @ExportMessage
+    final int[] poll(Object pollSet, long timeoutMs,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("poll", "%s, %d", pollSet, timeoutMs);
+        try {
+            return logExit("poll", "%s", lib.poll(delegate, pollSet, timeoutMs));
+        } catch (PosixException e) {
+            throw logException("poll", e);
+        }
+    }
+
+    @ExportMessage
+    final void pollClose(Object pollSet,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) {
+        logEnter("pollClose", "%s", pollSet);
+        lib.pollClose(delegate, pollSet);
+    }
+
     @ExportMessage
     final long lseek(int fd, long offset, int how,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
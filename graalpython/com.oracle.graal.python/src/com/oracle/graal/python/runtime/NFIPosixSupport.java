@@ -67,6 +67,7 @@ import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 import static com.oracle.truffle.api.strings.TruffleString.Encoding.UTF_8;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 
@@ -153,6 +154,7 @@ public final class NFIPosixSupport extends PosixSupport {
         call_dup2("(sint32, sint32, sint32):sint32"),
         call_pipe2("([sint32]):sint32"),
         call_select("(sint32, [sint32], sint32, [sint32], sint32, [sint32], sint32, sint64, sint64, [sint8]):sint32"),
+        call_poll("([sint32], [sint32], [sint32], sint32, sint32):sint32"),
         call_lseek("(sint32, sint64, sint32):sint64"),
         call_ftruncate("(sint32, sint64):sint32"),
         call_fsync("(sint32):sint32"),
@@ -569,6 +571,104 @@ public final class NFIPosixSupport extends PosixSupport {
         return res;
     }
 
+    /**
+     * The registrations are kept in flat Java arrays in the layout expected by the native
+     * {@code call_poll}, so a call only copies them and does not need to visit the Python level
+     * registrations.
+     */
+    private static final class PollSet {
+        private final HashMap<Integer, Integer> indexOfFd = new HashMap<>();
+        private int[] fds = new int[8];
+        private int[] events = new int[8];
+        private int size;
+
+        @TruffleBoundary
+        synchronized void register(int fd, int mask) {
+            Integer index = indexOfFd.get(fd);
+            if (index != null) {
+                events[index] = mask;
+                return;
+            }
+            if (size == fds.length) {
+                fds = PythonUtils.arrayCopyOf(fds, size * 2);
+                events = PythonUtils.arrayCopyOf(events, size * 2);
+            }
+            fds[size] = fd;
+            events[size] = mask;
+            indexOfFd.put(fd, size++);
+        }
+
+        @TruffleBoundary
+        synchronized void unregister(int fd) {
+            Integer index = indexOfFd.remove(fd);
+            if (index != null) {
+                // move the last registration into the freed slot
+                size--;
+                if (index != size) {
+                    fds[index] = fds[size];
+                    events[index] = events[size];
+                    indexOfFd.put(fds[index], index);
+                }
+            }
+        }
+
+        /**
+         * The registrations may be changed by another thread while this one is blocked in
+         * {@code poll()}, so the native call gets its own copy.
+         */
+        @TruffleBoundary
+        synchronized int[][] snapshot() {
+            return new int[][]{PythonUtils.arrayCopyOf(fds, size), PythonUtils.arrayCopyOf(events, size)};
+        }
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public Object pollCreate() {
+        return new PollSet();
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void pollRegister(Object pollSet, int fd, int events) {
+        ((PollSet) pollSet).register(fd, events);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void pollUnregister(Object pollSet, int fd) {
+        ((PollSet) pollSet).unregister(fd);
+    }
+
+    @ExportMessage
+    public int[] poll(Object pollSetObj, long timeoutMs,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        PollSet pollSet = (PollSet) pollSetObj;
+        int[][] snapshot = pollSet.snapshot();
+        int[] fds = snapshot[0];
+        int size = fds.length;
+        int[] revents = new int[size];
+        int timeout = timeoutMs < 0 ? -1 : (int) Math.min(timeoutMs, Integer.MAX_VALUE);
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_poll, wrap(fds), wrap(snapshot[1]), wrap(revents), size, timeout);
+        if (result < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        int[] ready = new int[result * 2];
+        for (int i = 0, j = 0; i < size && j < ready.length; i++) {
+            if (revents[i] != 0) {
+                ready[j++] = fds[i];
+                ready[j++] = revents[i];
+            }
+        }
+        return ready;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void pollClose(@SuppressWarnings("unused") Object pollSet) {
+        // nothing to release, the registrations are plain Java arrays
+    }
+
     private static int findMax(int[] items, int currentMax) {
         int max = currentMax;
         for (int item : items) {
@@ -0,0 +1,686 @@
+/*
+ * Copyright (c) 2022, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.strings.TruffleString;
+
+/*-
+ * Generated using:
+ * scripts/nfi_gen.py -name SQLite3 -cpath graalpython/com.oracle.graal.python.cext/sqlite3/sqlite3.c -lib libsqlite3support
+ */
+public class NFISQLite3Support {
+
+    enum SQLite3NativeFunctions implements NativeLibrary.NativeFunction {
+
+        /*-
+          nfi_function: name('libversion')
+          char *sqlite_libversion()
+        */
+        sqlite_libversion("(): STRING"),
+
+        /*-
+          nfi_function: name('complete')
+          int sqlite_complete(char *sql)
+        */
+        sqlite_complete("(STRING): SINT32"),
+
+        /*-
+          nfi_function: name('open') map('sqlite3*', 'POINTER') map('int32_t*', '[SINT32]')
+          sqlite3 *sqlite_open(char *filename, int flags, int timeout_ms, int32_t *rc)
+        */
+        sqlite_open("(STRING, SINT32, SINT32, [SINT32]): POINTER"),
+
+        /*-
+          nfi_function: name('close') map('sqlite3*', 'POINTER')
+          int sqlite_close(sqlite3 *db)
+        */
+        sqlite_close("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('interrupt') map('sqlite3*', 'POINTER')
+          void sqlite_interrupt(sqlite3 *db)
+        */
+        sqlite_interrupt("(POINTER): VOID"),
+
+        /*-
+          nfi_function: name('errmsg') map('sqlite3*', 'POINTER')
+          char *sqlite_errmsg(sqlite3 *db)
+        */
+        sqlite_errmsg("(POINTER): STRING"),
+
+        /*-
+          nfi_function: name('errcode') map('sqlite3*', 'POINTER')
+          int sqlite_errcode(sqlite3 *db)
+        */
+        sqlite_errcode("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('changes') map('sqlite3*', 'POINTER')
+          int sqlite_changes(sqlite3 *db)
+        */
+        sqlite_changes("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('totalChanges') map('sqlite3*', 'POINTER')
+          int sqlite_total_changes(sqlite3 *db)
+        */
+        sqlite_total_changes("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('lastInsertRowid') map('sqlite3*', 'POINTER')
+          int64_t sqlite_last_insert_rowid(sqlite3 *db)
+        */
+        sqlite_last_insert_rowid("(POINTER): SINT64"),
+
+        /*-
+          nfi_function: name('getAutocommit') map('sqlite3*', 'POINTER')
+          int sqlite_get_autocommit(sqlite3 *db)
+        */
+        sqlite_get_autocommit("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('prepare') map('sqlite3*', 'POINTER') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]') map('int32_t*', '[SINT32]')
+          sqlite3_stmt *sqlite_prepare(sqlite3 *db, uint8_t *sql, int len, int offset, int32_t *out)
+        */
+        sqlite_prepare("(POINTER, [UINT8], SINT32, SINT32, [SINT32]): POINTER"),
+
+        /*-
+          nfi_function: name('finalize') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_finalize(sqlite3_stmt *stmt)
+        */
+        sqlite_finalize("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('reset') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_reset(sqlite3_stmt *stmt)
+        */
+        sqlite_reset("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('clearBindings') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_clear_bindings(sqlite3_stmt *stmt)
+        */
+        sqlite_clear_bindings("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('stmtReadonly') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_stmt_readonly(sqlite3_stmt *stmt)
+        */
+        sqlite_stmt_readonly("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('step') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_step(sqlite3_stmt *stmt)
+        */
+        sqlite_step("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('bindParameterCount') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_bind_parameter_count(sqlite3_stmt *stmt)
+        */
+        sqlite_bind_parameter_count("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('bindParameterName') map('sqlite3_stmt*', 'POINTER')
+          char *sqlite_bind_parameter_name(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_bind_parameter_name("(POINTER, SINT32): STRING"),
+
+        /*-
+          nfi_function: name('bindNull') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_bind_null(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_bind_null("(POINTER, SINT32): SINT32"),
+
+        /*-
+          nfi_function: name('bindInt64') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_bind_int64(sqlite3_stmt *stmt, int i, int64_t value)
+        */
+        sqlite_bind_int64("(POINTER, SINT32, SINT64): SINT32"),
+
+        /*-
+          nfi_function: name('bindDouble') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_bind_double(sqlite3_stmt *stmt, int i, double value)
+        */
+        sqlite_bind_double("(POINTER, SINT32, DOUBLE): SINT32"),
+
+        /*-
+          nfi_function: name('bindText') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]')
+          int sqlite_bind_text(sqlite3_stmt *stmt, int i, uint8_t *data, int len)
+        */
+        sqlite_bind_text("(POINTER, SINT32, [UINT8], SINT32): SINT32"),
+
+        /*-
+          nfi_function: name('bindBlob') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]')
+          int sqlite_bind_blob(sqlite3_stmt *stmt, int i, uint8_t *data, int len)
+        */
+        sqlite_bind_blob("(POINTER, SINT32, [UINT8], SINT32): SINT32"),
+
+        /*-
+          nfi_function: name('columnCount') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_column_count(sqlite3_stmt *stmt)
+        */
+        sqlite_column_count("(POINTER): SINT32"),
+
+        /*-
+          nfi_function: name('columnName') map('sqlite3_stmt*', 'POINTER')
+          char *sqlite_column_name(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_column_name("(POINTER, SINT32): STRING"),
+
+        /*-
+          nfi_function: name('columnDecltype') map('sqlite3_stmt*', 'POINTER')
+          char *sqlite_column_decltype(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_column_decltype("(POINTER, SINT32): STRING"),
+
+        /*-
+          nfi_function: name('columnType') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_column_type(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_column_type("(POINTER, SINT32): SINT32"),
+
+        /*-
+          nfi_function: name('columnInt64') map('sqlite3_stmt*', 'POINTER')
+          int64_t sqlite_column_int64(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_column_int64("(POINTER, SINT32): SINT64"),
+
+        /*-
+          nfi_function: name('columnDouble') map('sqlite3_stmt*', 'POINTER')
+          double sqlite_column_double(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_column_double("(POINTER, SINT32): DOUBLE"),
+
+        /*-
+          nfi_function: name('columnTextBytes') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_column_text_bytes(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_column_text_bytes("(POINTER, SINT32): SINT32"),
+
+        /*-
+          nfi_function: name('columnBlobBytes') map('sqlite3_stmt*', 'POINTER')
+          int sqlite_column_blob_bytes(sqlite3_stmt *stmt, int i)
+        */
+        sqlite_column_blob_bytes("(POINTER, SINT32): SINT32"),
+
+        /*-
+          nfi_function: name('columnCopyText') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]')
+          void sqlite_column_copy_text(sqlite3_stmt *stmt, int i, uint8_t *dest, int len)
+        */
+        sqlite_column_copy_text("(POINTER, SINT32, [UINT8], SINT32): VOID"),
+
+        /*-
+          nfi_function: name('columnCopyBlob') map('sqlite3_stmt*', 'POINTER') map('uint8_t*', '[UINT8]')
+          void sqlite_column_copy_blob(sqlite3_stmt *stmt, int i, uint8_t *dest, int len)
+        */
+        sqlite_column_copy_blob("(POINTER, SINT32, [UINT8], SINT32): VOID");
+
+        private final String signature;
+
+        SQLite3NativeFunctions(String signature) {
+            this.signature = signature;
+        }
+
+        @Override
+        public TruffleString signature() {
+            return signature;
+        }
+    }
+
+    private static final String SUPPORTING_NATIVE_LIB_NAME = "libsqlite3support";
+
+    private final PythonContext pythonContext;
+    private final NativeLibrary.TypedNativeLibrary<SQLite3NativeFunctions> typedNativeLib;
+
+    @CompilerDirectives.CompilationFinal private boolean available;
+
+    private NFISQLite3Support(PythonContext context, NativeLibrary.NFIBackend backend, String noNativeAccessHelp) {
+        if (context.isNativeAccessAllowed()) {
+            this.pythonContext = context;
+            this.typedNativeLib = NativeLibrary.create(SUPPORTING_NATIVE_LIB_NAME, SQLite3NativeFunctions.values(),
+                            backend, noNativeAccessHelp, true);
+            this.available = true;
+        } else {
+            this.pythonContext = null;
+            this.typedNativeLib = null;
+            this.available = false;
+        }
+    }
+
+    public static NFISQLite3Support createNative(PythonContext context, String noNativeAccessHelp) {
+        return new NFISQLite3Support(context, NativeLibrary.NFIBackend.NATIVE, noNativeAccessHelp);
+    }
+
+    public static NFISQLite3Support createLLVM(PythonContext context, String noNativeAccessHelp) {
+        return new NFISQLite3Support(context, NativeLibrary.NFIBackend.LLVM, noNativeAccessHelp);
+    }
+
+    public void notAvailable() {
+        if (available) {
+            CompilerAsserts.neverPartOfCompilation("Checking NFISQLite3Support availability should only be done during initialization.");
+            available = false;
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public PythonContext getContext() {
+        return pythonContext;
+    }
+
+    /**
+     * 
+     *
+     * @return char*
+     */
+    public TruffleString libversion(
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callString(typedNativeLib, SQLite3NativeFunctions.sqlite_libversion);
+    }
+
+    /**
+     * 
+     * @param sql char *sql
+     * @return int
+     */
+    public int complete(String sql,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_complete, sql);
+    }
+
+    /**
+     * 
+     * @param filename char *filename
+     * @param flags int flags
+     * @param timeout_ms int timeout_ms
+     * @param rc int32_t *rc
+     * @return sqlite3*
+     */
+    public Object open(String filename, int flags, int timeout_ms, Object rc,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.call(typedNativeLib, SQLite3NativeFunctions.sqlite_open, filename, flags, timeout_ms, rc);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     * @return int
+     */
+    public int close(Object db,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_close, db);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     *
+     */
+    public void interrupt(Object db,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        invokeNode.call(typedNativeLib, SQLite3NativeFunctions.sqlite_interrupt, db);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     * @return char*
+     */
+    public TruffleString errmsg(Object db,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callString(typedNativeLib, SQLite3NativeFunctions.sqlite_errmsg, db);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     * @return int
+     */
+    public int errcode(Object db,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_errcode, db);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     * @return int
+     */
+    public int changes(Object db,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_changes, db);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     * @return int
+     */
+    public int totalChanges(Object db,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_total_changes, db);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     * @return int64_t
+     */
+    public long lastInsertRowid(Object db,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callLong(typedNativeLib, SQLite3NativeFunctions.sqlite_last_insert_rowid, db);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     * @return int
+     */
+    public int getAutocommit(Object db,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_get_autocommit, db);
+    }
+
+    /**
+     * 
+     * @param db sqlite3 *db
+     * @param sql uint8_t *sql
+     * @param len int len
+     * @param offset int offset
+     * @param out int32_t *out
+     * @return sqlite3_stmt*
+     */
+    public Object prepare(Object db, Object sql, int len, int offset, Object out,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.call(typedNativeLib, SQLite3NativeFunctions.sqlite_prepare, db, sql, len, offset, out);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @return int
+     */
+    public int finalize(Object stmt,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_finalize, stmt);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @return int
+     */
+    public int reset(Object stmt,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_reset, stmt);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @return int
+     */
+    public int clearBindings(Object stmt,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_clear_bindings, stmt);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @return int
+     */
+    public int stmtReadonly(Object stmt,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_stmt_readonly, stmt);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @return int
+     */
+    public int step(Object stmt,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_step, stmt);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @return int
+     */
+    public int bindParameterCount(Object stmt,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_bind_parameter_count, stmt);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return char*
+     */
+    public TruffleString bindParameterName(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callString(typedNativeLib, SQLite3NativeFunctions.sqlite_bind_parameter_name, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return int
+     */
+    public int bindNull(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_bind_null, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @param value int64_t value
+     * @return int
+     */
+    public int bindInt64(Object stmt, int i, long value,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_bind_int64, stmt, i, value);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @param value double value
+     * @return int
+     */
+    public int bindDouble(Object stmt, int i, double value,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_bind_double, stmt, i, value);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @param data uint8_t *data
+     * @param len int len
+     * @return int
+     */
+    public int bindText(Object stmt, int i, Object data, int len,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_bind_text, stmt, i, data, len);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @param data uint8_t *data
+     * @param len int len
+     * @return int
+     */
+    public int bindBlob(Object stmt, int i, Object data, int len,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_bind_blob, stmt, i, data, len);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @return int
+     */
+    public int columnCount(Object stmt,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_column_count, stmt);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return char*
+     */
+    public TruffleString columnName(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callString(typedNativeLib, SQLite3NativeFunctions.sqlite_column_name, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return char*
+     */
+    public TruffleString columnDecltype(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callString(typedNativeLib, SQLite3NativeFunctions.sqlite_column_decltype, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return int
+     */
+    public int columnType(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_column_type, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return int64_t
+     */
+    public long columnInt64(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callLong(typedNativeLib, SQLite3NativeFunctions.sqlite_column_int64, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return double
+     */
+    public double columnDouble(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callDouble(typedNativeLib, SQLite3NativeFunctions.sqlite_column_double, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return int
+     */
+    public int columnTextBytes(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_column_text_bytes, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @return int
+     */
+    public int columnBlobBytes(Object stmt, int i,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        return invokeNode.callInt(typedNativeLib, SQLite3NativeFunctions.sqlite_column_blob_bytes, stmt, i);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @param dest uint8_t *dest
+     * @param len int len
+     *
+     */
+    public void columnCopyText(Object stmt, int i, Object dest, int len,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        invokeNode.call(typedNativeLib, SQLite3NativeFunctions.sqlite_column_copy_text, stmt, i, dest, len);
+    }
+
+    /**
+     * 
+     * @param stmt sqlite3_stmt *stmt
+     * @param i int i
+     * @param dest uint8_t *dest
+     * @param len int len
+     *
+     */
+    public void columnCopyBlob(Object stmt, int i, Object dest, int len,
+                    NativeLibrary.InvokeNativeFunction invokeNode) {
+        invokeNode.call(typedNativeLib, SQLite3NativeFunctions.sqlite_column_copy_blob, stmt, i, dest, len);
+    }
+
+}
@@ -326,6 +326,14 @@ public class NativeLibrary {
             }
         }
 
+        public <T extends Enum<T> & NativeFunction> double callDouble(TypedNativeLibrary<T> lib, T function, Object... args) {
+            try {
+                return ensureResultInterop().asDouble(call(lib, function, args));
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere(function.name(), e);
+            }
+        }
+
         public <T extends Enum<T> & NativeFunction> TruffleString callString(TypedNativeLibrary<T> lib, T function, Object... args) {
             try {
                 return ensureSwitchEncoding().execute(ensureResultInterop().asTruffleString(call(lib, function, args)), TS_ENCODING);
@@ -270,6 +270,18 @@ public final class PosixConstants {
     public static final OptionalIntConstant TCP_CONGESTION;
     public static final OptionalIntConstant TCP_USER_TIMEOUT;
     public static final OptionalIntConstant TCP_NOTSENT_LOWAT;
+    public static final MandatoryIntConstant POLLIN;
+    public static final MandatoryIntConstant POLLPRI;
+    public static final MandatoryIntConstant POLLOUT;
+    public static final MandatoryIntConstant POLLERR;
+    public static final MandatoryIntConstant POLLHUP;
+    public static final MandatoryIntConstant POLLNVAL;
+    public static final OptionalIntConstant POLLRDNORM;
+    public static final OptionalIntConstant POLLRDBAND;
+    public static final OptionalIntConstant POLLWRNORM;
+    public static final OptionalIntConstant POLLWRBAND;
+    public static final OptionalIntConstant POLLMSG;
+    public static final OptionalIntConstant POLLRDHUP;
     public static final MandatoryIntConstant SIZEOF_STRUCT_SOCKADDR_STORAGE;
     public static final MandatoryIntConstant SIZEOF_STRUCT_SOCKADDR_IN;
     public static final MandatoryIntConstant OFFSETOF_STRUCT_SOCKADDR_IN_SIN_FAMILY;
@@ -306,6 +318,7 @@ public final class PosixConstants {
     public static final IntConstant[] shutdownHow;
     public static final IntConstant[] socketOptions;
     public static final IntConstant[] tcpOptions;
+    public static final IntConstant[] pollEvents;
 
     static {
         Registry reg = Registry.create();
@@ -503,6 +516,18 @@ public final class PosixConstants {
         TCP_CONGESTION = reg.createOptionalInt("TCP_CONGESTION");
         TCP_USER_TIMEOUT = reg.createOptionalInt("TCP_USER_TIMEOUT");
         TCP_NOTSENT_LOWAT = reg.createOptionalInt("TCP_NOTSENT_LOWAT");
+        POLLIN = reg.createMandatoryInt("POLLIN");
+        POLLPRI = reg.createMandatoryInt("POLLPRI");
+        POLLOUT = reg.createMandatoryInt("POLLOUT");
+        POLLERR = reg.createMandatoryInt("POLLERR");
+        POLLHUP = reg.createMandatoryInt("POLLHUP");
+        POLLNVAL = reg.createMandatoryInt("POLLNVAL");
+        POLLRDNORM = reg.createOptionalInt("POLLRDNORM");
+        POLLRDBAND = reg.createOptionalInt("POLLRDBAND");
+        POLLWRNORM = reg.createOptionalInt("POLLWRNORM");
+        POLLWRBAND = reg.createOptionalInt("POLLWRBAND");
+        POLLMSG = reg.createOptionalInt("POLLMSG");
+        POLLRDHUP = reg.createOptionalInt("POLLRDHUP");
         SIZEOF_STRUCT_SOCKADDR_STORAGE = reg.createMandatoryInt("SIZEOF_STRUCT_SOCKADDR_STORAGE");
         SIZEOF_STRUCT_SOCKADDR_IN = reg.createMandatoryInt("SIZEOF_STRUCT_SOCKADDR_IN");
         OFFSETOF_STRUCT_SOCKADDR_IN_SIN_FAMILY = reg.createMandatoryInt("OFFSETOF_STRUCT_SOCKADDR_IN_SIN_FAMILY");
@@ -544,6 +569,7 @@ public final class PosixConstants {
                         SO_PRIORITY, SO_MARK, SO_DOMAIN, SO_PROTOCOL};
         tcpOptions = new IntConstant[]{TCP_NODELAY, TCP_MAXSEG, TCP_CORK, TCP_KEEPIDLE, TCP_KEEPINTVL, TCP_KEEPCNT, TCP_SYNCNT, TCP_LINGER2, TCP_DEFER_ACCEPT, TCP_WINDOW_CLAMP, TCP_INFO, TCP_QUICKACK,
                         TCP_FASTOPEN, TCP_CONGESTION, TCP_USER_TIMEOUT, TCP_NOTSENT_LOWAT};
+        pollEvents = new IntConstant[]{POLLIN, POLLPRI, POLLOUT, POLLERR, POLLHUP, POLLNVAL, POLLRDNORM, POLLRDBAND, POLLWRNORM, POLLWRBAND, POLLMSG, POLLRDHUP};
     }
     // end generated by gen_native_cfg.py
     // @formatter:on
@@ -205,6 +205,16 @@ class PosixConstantsDarwin {
         constants.put("TCP_KEEPCNT", 258);
         constants.put("TCP_FASTOPEN", 261);
         constants.put("TCP_NOTSENT_LOWAT", 513);
+        constants.put("POLLIN", 0x00000001);
+        constants.put("POLLPRI", 0x00000002);
+        constants.put("POLLOUT", 0x00000004);
+        constants.put("POLLERR", 0x00000008);
+        constants.put("POLLHUP", 0x00000010);
+        constants.put("POLLNVAL", 0x00000020);
+        constants.put("POLLRDNORM", 0x00000040);
+        constants.put("POLLRDBAND", 0x00000080);
+        constants.put("POLLWRNORM", 0x00000004);
+        constants.put("POLLWRBAND", 0x00000100);
         constants.put("SIZEOF_STRUCT_SOCKADDR_STORAGE", 128);
         constants.put("SIZEOF_STRUCT_SOCKADDR_IN", 16);
         constants.put("OFFSETOF_STRUCT_SOCKADDR_IN_SIN_FAMILY", 1);
@@ -233,6 +233,18 @@ class PosixConstantsLinux {
         constants.put("TCP_INFO", 11);
         constants.put("TCP_QUICKACK", 12);
         constants.put("TCP_CONGESTION", 13);
+        constants.put("POLLIN", 0x00000001);
+        constants.put("POLLPRI", 0x00000002);
+        constants.put("POLLOUT", 0x00000004);
+        constants.put("POLLERR", 0x00000008);
+        constants.put("POLLHUP", 0x00000010);
+        constants.put("POLLNVAL", 0x00000020);
+        constants.put("POLLRDNORM", 0x00000040);
+        constants.put("POLLRDBAND", 0x00000080);
+        constants.put("POLLWRNORM", 0x00000100);
+        constants.put("POLLWRBAND", 0x00000200);
+        constants.put("POLLMSG", 0x00000400);
+        constants.put("POLLRDHUP", 0x00002000);
         constants.put("SIZEOF_STRUCT_SOCKADDR_STORAGE", 128);
         constants.put("SIZEOF_STRUCT_SOCKADDR_IN", 16);
         constants.put("OFFSETOF_STRUCT_SOCKADDR_IN_SIN_FAMILY", 0);
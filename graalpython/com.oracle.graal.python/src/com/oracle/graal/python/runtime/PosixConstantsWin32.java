@@ -201,6 +201,16 @@ class PosixConstantsWin32 {
         constants.put("TCP_KEEPINTVL", 17);
         constants.put("TCP_KEEPCNT", 16);
         constants.put("TCP_FASTOPEN", 15);
+        constants.put("POLLIN", 0x00000300);
+        constants.put("POLLPRI", 0x00000400);
+        constants.put("POLLOUT", 0x00000010);
+        constants.put("POLLERR", 0x00000001);
+        constants.put("POLLHUP", 0x00000002);
+        constants.put("POLLNVAL", 0x00000004);
+        constants.put("POLLRDNORM", 0x00000100);
+        constants.put("POLLRDBAND", 0x00000200);
+        constants.put("POLLWRNORM", 0x00000010);
+        constants.put("POLLWRBAND", 0x00000020);
         constants.put("SIZEOF_STRUCT_SOCKADDR_STORAGE", 128);
         constants.put("SIZEOF_STRUCT_SOCKADDR_IN", 16);
         constants.put("OFFSETOF_STRUCT_SOCKADDR_IN_SIN_FAMILY", 0);
@@ -107,6 +107,44 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract SelectResult select(Object receiver, int[] readfds, int[] writefds, int[] errorfds, Timeval timeout) throws PosixException;
 
+    /**
+     * Creates a set of file descriptors that can be waited on repeatedly with
+     * {@link #poll(Object, Object, long)}. The set keeps its registrations between calls so that
+     * implementations can keep the underlying resources alive. Caller is responsible for calling
+     * {@link #pollClose(Object, Object)}.
+     *
+     * @return an opaque poll set object to be used in calls to the other {@code poll*} methods
+     */
+    public abstract Object pollCreate(Object receiver) throws PosixException;
+
+    /**
+     * Adds the file descriptor to the poll set or replaces its event mask if it is already present.
+     * Invalid file descriptors are not reported here, but as {@code POLLNVAL} by {@code poll}.
+     *
+     * @param events a combination of the {@code POLLxxx} constants
+     */
+    public abstract void pollRegister(Object receiver, Object pollSet, int fd, int events) throws PosixException;
+
+    /**
+     * Removes the file descriptor from the poll set, does nothing if it is not present.
+     */
+    public abstract void pollUnregister(Object receiver, Object pollSet, int fd) throws PosixException;
+
+    /**
+     * Equivalent of POSIX {@code poll()} on all file descriptors registered in the poll set.
+     *
+     * @param timeoutMs the timeout in milliseconds, {@code 0} does not block, a negative value
+     *            blocks indefinitely
+     * @return pairs of a file descriptor and its {@code revents} for all file descriptors with at
+     *         least one event, flattened into a single array
+     */
+    public abstract int[] poll(Object receiver, Object pollSet, long timeoutMs) throws PosixException;
+
+    /**
+     * Implementations must deal with this being called more than once.
+     */
+    public abstract void pollClose(Object receiver, Object pollSet);
+
     public abstract long lseek(Object receiver, int fd, long offset, int how) throws PosixException;
 
     public abstract void ftruncate(Object receiver, int fd, long length) throws PosixException;
@@ -81,11 +81,11 @@ import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
@@ -120,6 +120,7 @@ import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.str.StringNodes.StringReplaceNode;
+import com.oracle.graal.python.builtins.objects.struct.StructInfo;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.compiler.CodeUnit;
@@ -161,6 +162,7 @@ import com.oracle.truffle.api.TruffleSafepoint;
 import com.oracle.truffle.api.dsl.Bind;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.exception.AbstractTruffleException;
 import com.oracle.truffle.api.instrumentation.AllocationReporter;
 import com.oracle.truffle.api.interop.ExceptionType;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -282,6 +284,9 @@ public final class PythonContext extends Python3Core {
          */
         PContextVarsContext contextVarsContext;
 
+        /* The running asyncio event loop, set by _asyncio._set_running_loop. */
+        Object runningLoop;
+
         /*
          * The constructor needs to have this particular signature such that we can use it for
          * ContextThreadLocal.
@@ -377,6 +382,14 @@ public final class PythonContext extends Python3Core {
             this.contextVarsContext = contextVarsContext;
         }
 
+        public Object getRunningLoop() {
+            return runningLoop;
+        }
+
+        public void setRunningLoop(Object runningLoop) {
+            this.runningLoop = runningLoop;
+        }
+
         public void dispose() {
             // This method may be called twice on the same object.
             ReleaseHandleNode releaseHandleNode = ReleaseHandleNodeGen.getUncached();
@@ -591,6 +604,7 @@ public final class PythonContext extends Python3Core {
     @CompilationFinal private NFIZlibSupport nativeZlib;
     @CompilationFinal private NFIBz2Support nativeBz2lib;
     @CompilationFinal private NFILZMASupport nativeLZMA;
+    @CompilationFinal private NFISQLite3Support nativeSQLite3;
 
     // if set to 0 the VM will set it to whatever it likes
     private final AtomicLong pythonThreadStackSize = new AtomicLong(0);
@@ -616,16 +630,7 @@ public final class PythonContext extends Python3Core {
 
     private static final Assumption singleNativeContext = Truffle.getRuntime().createAssumption("single native context assumption");
 
-    private static final class GlobalInterpreterLock extends ReentrantLock {
-        private static final long serialVersionUID = 1L;
-
-        @Override
-        public Thread getOwner() {
-            return super.getOwner();
-        }
-    }
-
-    private final GlobalInterpreterLock globalInterpreterLock = new GlobalInterpreterLock();
+    private final GlobalInterpreterLock globalInterpreterLock = new GlobalInterpreterLock(this);
 
     /** Native wrappers for context-insensitive singletons like {@link PNone#NONE}. */
     @CompilationFinal(dimensions = 1) private final PythonNativeWrapper[] singletonNativePtrs = new PythonNativeWrapper[PythonLanguage.getNumberOfSpecialSingletons()];
@@ -675,12 +680,19 @@ public final class PythonContext extends Python3Core {
     public static final String CHILD_CONTEXT_DATA = "childContextData";
     @CompilationFinal private List<Integer> childContextFDs;
     private final ChildContextData childContextData;
+    /**
+     * Child contexts started ahead of time, see {@link PythonOptions#SpawnContextPoolSize}. Only
+     * used in the root context.
+     */
+    private final ArrayDeque<ChildContextThread> childContextPool = new ArrayDeque<>();
     private final SharedMultiprocessingData sharedMultiprocessingData;
 
     private final List<Object> codecSearchPath = new ArrayList<>();
     private final Map<TruffleString, PTuple> codecSearchCache = new HashMap<>();
     private final Map<TruffleString, Object> codecErrorRegistry = new HashMap<>();
 
+    private final Map<TruffleString, StructInfo> structCache = new HashMap<>();
+
     // the full module name for package imports
     private TruffleString pyPackageContext;
 
@@ -706,6 +718,10 @@ public final class PythonContext extends Python3Core {
         return codecErrorRegistry;
     }
 
+    public Map<TruffleString, StructInfo> getStructCache() {
+        return structCache;
+    }
+
     public static final class ChildContextData {
         private int exitCode = 0;
         private boolean signaled;
@@ -758,19 +774,116 @@ public final class PythonContext extends Python3Core {
     public static final class SharedMultiprocessingData {
 
         /**
-         * A sentinel object that remains in the {@link LinkedBlockingQueue} in the
-         * {@link #pipeData}. It is pushed there in #close so that any blocking #take calls can wake
-         * up and react to the end of the stream.
+         * A sentinel object that remains in the {@link PipeChannel} in the {@link #pipeData}. It is
+         * pushed there in #close so that any blocking #take calls can wake up and react to the end
+         * of the stream.
          */
         private static final Object SENTINEL = new Object();
 
+        /**
+         * Number of message bytes that may be queued in one pipe before writers block. A message is
+         * always accepted into an empty pipe, regardless of its size.
+         */
+        private static final long PIPE_CAPACITY = 1L << 26;
+
+        /**
+         * A bounded message queue backing a pipe. The messages are kept in a ring buffer
+         * ({@link ArrayDeque}) and are handed over as they were written, i.e., the reader receives
+         * the very same {@code byte[]} instance. Writers block while more than
+         * {@link #PIPE_CAPACITY} bytes are waiting to be read.
+         */
+        private static final class PipeChannel {
+            private final ArrayDeque<Object> messages = new ArrayDeque<>();
+            private final ReentrantLock lock = new ReentrantLock();
+            private final Condition notEmpty = lock.newCondition();
+            private final Condition notFull = lock.newCondition();
+            private long queuedBytes;
+            private boolean readerClosed;
+
+            /**
+             * @return {@code false} if the read end was closed before the message could be queued
+             */
+            boolean put(byte[] bytes) throws InterruptedException {
+                lock.lockInterruptibly();
+                try {
+                    while (!readerClosed && !messages.isEmpty() && queuedBytes + bytes.length > PIPE_CAPACITY) {
+                        notFull.await();
+                    }
+                    if (readerClosed) {
+                        return false;
+                    }
+                    // readers re-signal each other while messages remain, so only the transition
+                    // from empty needs to wake one up
+                    if (messages.isEmpty()) {
+                        notEmpty.signal();
+                    }
+                    messages.addLast(bytes);
+                    queuedBytes += bytes.length;
+                    return true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            Object take() throws InterruptedException {
+                lock.lockInterruptibly();
+                try {
+                    while (messages.isEmpty()) {
+                        notEmpty.await();
+                    }
+                    Object v = messages.peekFirst();
+                    if (v == SENTINEL) {
+                        // the sentinel stays, so that all readers observe the end of the stream
+                        return PythonUtils.EMPTY_BYTE_ARRAY;
+                    }
+                    messages.pollFirst();
+                    queuedBytes -= ((byte[]) v).length;
+                    notFull.signalAll();
+                    if (!messages.isEmpty()) {
+                        notEmpty.signal();
+                    }
+                    return v;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            void closeWriteEnd() {
+                lock.lock();
+                try {
+                    messages.addLast(SENTINEL);
+                    notEmpty.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            void closeReadEnd() {
+                lock.lock();
+                try {
+                    readerClosed = true;
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            boolean isEmpty() {
+                lock.lock();
+                try {
+                    return messages.isEmpty();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
         private final AtomicInteger fdCounter = new AtomicInteger(0);
 
         /**
-         * Maps the two fake file descriptors created in {@link #pipe()} to one
-         * {@link LinkedBlockingQueue}
+         * Maps the two fake file descriptors created in {@link #pipe()} to one {@link PipeChannel}
          */
-        private final ConcurrentSkipListMap<Integer, LinkedBlockingQueue<Object>> pipeData = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<Integer, PipeChannel> pipeData = new ConcurrentSkipListMap<>();
 
         /**
          * Holds ref count of file descriptors which were passed over to a spawned child context.
@@ -819,7 +932,7 @@ public final class PythonContext extends Python3Core {
          */
         @TruffleBoundary
         public int[] pipe() {
-            LinkedBlockingQueue<Object> q = new LinkedBlockingQueue<>();
+            PipeChannel q = new PipeChannel();
             int writeFD = fdCounter.addAndGet(-2);
             assert isWriteFD(writeFD);
             int readFD = getPairFd(writeFD);
@@ -830,12 +943,13 @@ public final class PythonContext extends Python3Core {
 
         /**
          * Adding pipe data needs no special synchronization, since we guarantee there is only ever
-         * one or no queue registered for a given fd.
+         * one or no queue registered for a given fd. The {@code bytes} are not copied, so the
+         * caller must not modify them afterwards. Blocks while the pipe is full.
          */
         @TruffleBoundary
-        public void addPipeData(int fd, byte[] bytes, Runnable noFDHandler, Runnable brokenPipeHandler) {
+        public void addPipeData(Node node, int fd, byte[] bytes, Runnable noFDHandler, Runnable brokenPipeHandler) {
             assert isWriteFD(fd);
-            LinkedBlockingQueue<Object> q = pipeData.get(fd);
+            PipeChannel q = pipeData.get(fd);
             if (q == null) {
                 // the write end is already closed
                 noFDHandler.run();
@@ -847,37 +961,50 @@ public final class PythonContext extends Python3Core {
                 brokenPipeHandler.run();
                 throw CompilerDirectives.shouldNotReachHere();
             }
-            q.add(bytes);
+            boolean[] added = new boolean[]{false};
+            TruffleSafepoint.setBlockedThreadInterruptible(node, (channel) -> {
+                added[0] = channel.put(bytes);
+            }, q);
+            if (!added[0]) {
+                // the read end was closed while we were waiting
+                brokenPipeHandler.run();
+                throw CompilerDirectives.shouldNotReachHere();
+            }
         }
 
         /**
-         * Closing the read end of a pipe just removes the mapping from that fd to the queue.
-         * Closing the write end adds the {@link #SENTINEL} value as the last value. There is a
-         * potential race here for incorrect code that concurrently writes to the write end via
-         * {@link #addPipeData}, in that the sentinel may prevent writes from being visible.
+         * Closing the read end of a pipe removes the mapping from that fd to the queue and wakes up
+         * writers blocked on a full pipe. Closing the write end adds the {@link #SENTINEL} value as
+         * the last value. There is a potential race here for incorrect code that concurrently
+         * writes to the write end via {@link #addPipeData}, in that the sentinel may prevent writes
+         * from being visible.
          */
         @TruffleBoundary
         public void closePipe(int fd) {
-            LinkedBlockingQueue<Object> q = pipeData.remove(fd);
-            if (q != null && isWriteFD(fd)) {
-                q.offer(SENTINEL);
+            PipeChannel q = pipeData.remove(fd);
+            if (q != null) {
+                if (isWriteFD(fd)) {
+                    q.closeWriteEnd();
+                } else {
+                    q.closeReadEnd();
+                }
             }
         }
 
         /**
          * This needs no additional synchronization, since if the write-end of the pipe is already
-         * closed, the {@link #take} call will return appropriately.
+         * closed, the {@link PipeChannel#take} call will return appropriately.
          */
         @TruffleBoundary
         public Object takePipeData(Node node, int fd, Runnable noFDHandler) {
-            LinkedBlockingQueue<Object> q = pipeData.get(fd);
+            PipeChannel q = pipeData.get(fd);
             if (q == null) {
                 noFDHandler.run();
                 throw CompilerDirectives.shouldNotReachHere();
             }
             Object[] o = new Object[]{PNone.NONE};
-            TruffleSafepoint.setBlockedThreadInterruptible(node, (lbq) -> {
-                o[0] = take(lbq);
+            TruffleSafepoint.setBlockedThreadInterruptible(node, (channel) -> {
+                o[0] = channel.take();
             }, q);
             return o[0];
         }
@@ -919,16 +1046,6 @@ public final class PythonContext extends Python3Core {
             return fd % 2 == 0;
         }
 
-        private static Object take(LinkedBlockingQueue<Object> q) throws InterruptedException {
-            Object v = q.take();
-            if (v == SENTINEL) {
-                q.offer(SENTINEL);
-                return PythonUtils.EMPTY_BYTE_ARRAY;
-            } else {
-                return v;
-            }
-        }
-
         private boolean isClosed(int fd) {
             // since there is no way that any thread can be trying to read/write to this pipe FD
             // legally before it was added to pipeData in #pipe above, we don't need to
@@ -1039,8 +1156,29 @@ public final class PythonContext extends Python3Core {
     }
 
     public long spawnTruffleContext(int fd, int sentinel, int[] fdsToKeep) {
-        ChildContextData data = new ChildContextData(isChildContext() ? childContextData.parentCtx : this);
-        Builder builder = data.parentCtx.env.newInnerContextBuilder().//
+        PythonContext rootCtx = isChildContext() ? childContextData.parentCtx : this;
+        ChildContextThread child = rootCtx.takePooledChildContext();
+        if (child == null) {
+            ChildContextData data = new ChildContextData(rootCtx);
+            child = new ChildContextThread(data, newChildContextBuilder(data), null);
+            child.thread = rootCtx.env.createThread(child);
+        }
+        long tid = child.thread.getId();
+        getSharedMultiprocessingData().putChildContextThread(tid, child.thread);
+        getSharedMultiprocessingData().putChildContextData(tid, child.data);
+        for (int fdToKeep : fdsToKeep) {
+            // prevent file descriptors from being closed when passed to another "process",
+            // equivalent to fds_to_keep arg in posix fork_exec
+            getSharedMultiprocessingData().incrementFDRefCount(fdToKeep);
+        }
+        if (child.assign(fd, sentinel)) {
+            start(child.thread);
+        }
+        return tid;
+    }
+
+    private Builder newChildContextBuilder(ChildContextData data) {
+        return data.parentCtx.env.newInnerContextBuilder().//
                         forceSharing(getOption(PythonOptions.ForceSharingForInnerContexts)).//
                         inheritAllAccess(true).//
                         initializeCreatorContext(true).//
@@ -1048,17 +1186,77 @@ public final class PythonContext extends Python3Core {
                         // with that. Gives "OSError: [Errno 9] Bad file number"
                         // option("python.PosixModuleBackend", "java").//
                         config(PythonContext.CHILD_CONTEXT_DATA, data);
-        Thread thread = data.parentCtx.env.createThread(new ChildContextThread(fd, sentinel, data, builder));
-        long tid = thread.getId();
-        getSharedMultiprocessingData().putChildContextThread(tid, thread);
-        getSharedMultiprocessingData().putChildContextData(tid, data);
-        for (int fdToKeep : fdsToKeep) {
-            // prevent file descriptors from being closed when passed to another "process",
-            // equivalent to fds_to_keep arg in posix fork_exec
-            getSharedMultiprocessingData().incrementFDRefCount(fdToKeep);
+    }
+
+    /**
+     * Takes a child context thread that was started ahead of time from the pool (see
+     * {@link PythonOptions#SpawnContextPoolSize}) and refills the pool. Threads that gave up
+     * waiting or died are skipped. Returns {@code null} if the pool is disabled or empty.
+     */
+    @TruffleBoundary
+    private ChildContextThread takePooledChildContext() {
+        assert !isChildContext();
+        int poolSize = getOption(PythonOptions.SpawnContextPoolSize);
+        if (poolSize <= 0) {
+            return null;
+        }
+        synchronized (childContextPool) {
+            if (finalizing) {
+                return null;
+            }
+            ChildContextThread child;
+            do {
+                child = childContextPool.pollFirst();
+            } while (child != null && !child.claim());
+            Source preload = getChildContextPreloadSource();
+            while (childContextPool.size() < poolSize) {
+                ChildContextData data = new ChildContextData(this);
+                ChildContextThread pooled = new ChildContextThread(data, newChildContextBuilder(data), preload);
+                pooled.thread = env.createThread(pooled);
+                start(pooled.thread);
+                childContextPool.addLast(pooled);
+            }
+            return child;
+        }
+    }
+
+    private void removePooledChildContext(ChildContextThread child) {
+        synchronized (childContextPool) {
+            childContextPool.remove(child);
+        }
+    }
+
+    private Source getChildContextPreloadSource() {
+        StringBuilder sb = new StringBuilder("import multiprocessing.spawn\n");
+        for (String module : getOption(PythonOptions.SpawnContextPoolPreload).split(",")) {
+            if (!module.isBlank()) {
+                sb.append("import ").append(module.strip()).append('\n');
+            }
+        }
+        return Source.newBuilder(PythonLanguage.ID, sb.toString(), "<preload-child-context>").internal(true).build();
+    }
+
+    /**
+     * Stops the child contexts that were started ahead of time and never used.
+     */
+    @TruffleBoundary
+    private void disposeChildContextPool() {
+        ChildContextThread[] unused;
+        synchronized (childContextPool) {
+            unused = childContextPool.toArray(new ChildContextThread[0]);
+            childContextPool.clear();
+        }
+        for (ChildContextThread child : unused) {
+            child.discard();
+        }
+        for (ChildContextThread child : unused) {
+            try {
+                child.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
         }
-        start(thread);
-        return tid;
     }
 
     @TruffleBoundary
@@ -1073,22 +1271,84 @@ public final class PythonContext extends Python3Core {
         return childContextFDs;
     }
 
+    /**
+     * Runs a spawned child context. A thread created with a {@code preload} source is started
+     * before it is needed: it creates and initializes its context, runs the preload source and then
+     * waits until it is {@link #assign assigned} the file descriptors of a spawn request.
+     */
     private static class ChildContextThread implements Runnable {
         private static final TruffleLogger MULTIPROCESSING_LOGGER = PythonLanguage.getLogger(ChildContextThread.class);
         private static final Source MULTIPROCESSING_SOURCE = Source.newBuilder(PythonLanguage.ID,
                         "from multiprocessing.spawn import spawn_truffleprocess; spawn_truffleprocess(fd, sentinel)",
                         "<spawned-child-context>").internal(true).build();
 
-        private final int fd;
         private final ChildContextData data;
         private final Builder builder;
-        private final int sentinel;
-
-        public ChildContextThread(int fd, int sentinel, ChildContextData data, Builder builder) {
-            this.fd = fd;
+        private final Source preload;
+        private final CountDownLatch assigned = new CountDownLatch(1);
+        private Thread thread;
+        private int fd;
+        private int sentinel;
+        // both only change while holding the monitor of this object
+        private boolean claimed;
+        private volatile boolean discarded;
+
+        ChildContextThread(ChildContextData data, Builder builder, Source preload) {
             this.data = data;
             this.builder = builder;
-            this.sentinel = sentinel;
+            this.preload = preload;
+        }
+
+        /**
+         * @return {@code true} if the thread still needs to be started
+         */
+        boolean assign(int newFd, int newSentinel) {
+            this.fd = newFd;
+            this.sentinel = newSentinel;
+            assigned.countDown();
+            return preload == null;
+        }
+
+        /**
+         * Reserves a pooled thread for a spawn request, which must then {@link #assign} it. Fails
+         * if the thread is no longer waiting to be assigned.
+         */
+        synchronized boolean claim() {
+            if (discarded || !thread.isAlive()) {
+                return false;
+            }
+            claimed = true;
+            return true;
+        }
+
+        synchronized void discard() {
+            discarded = true;
+            assigned.countDown();
+        }
+
+        private void awaitAssignment() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    assigned.await();
+                    break;
+                } catch (InterruptedException e) {
+                    synchronized (this) {
+                        if (!claimed) {
+                            discarded = true;
+                            break;
+                        }
+                    }
+                    // a spawn request already claimed this thread and is about to assign it
+                    interrupted = true;
+                }
+            }
+            if (discarded) {
+                data.parentCtx.removePooledChildContext(this);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
         }
 
         @Override
@@ -1100,6 +1360,22 @@ public final class PythonContext extends Python3Core {
                 Object parent = ctx.enter(null);
                 CallTarget ct = PythonContext.get(null).getEnv().parsePublic(MULTIPROCESSING_SOURCE, "fd", "sentinel");
                 try {
+                    if (preload != null) {
+                        try {
+                            PythonContext.get(null).getEnv().parsePublic(preload).call();
+                        } catch (AbstractTruffleException e) {
+                            MULTIPROCESSING_LOGGER.log(Level.FINE, "exception while preloading child context", e);
+                        }
+                        ctx.leave(null, parent);
+                        try {
+                            awaitAssignment();
+                        } finally {
+                            parent = ctx.enter(null);
+                        }
+                        if (discarded) {
+                            return;
+                        }
+                    }
                     data.running.countDown();
                     Object res = ct.call(fd, sentinel);
                     int exitCode = CastToJavaIntLossyNode.getUncached().execute(res);
@@ -1114,7 +1390,9 @@ public final class PythonContext extends Python3Core {
                             MULTIPROCESSING_LOGGER.log(Level.FINE, "exception while closing spawned child context", t);
                         }
                     }
-                    data.parentCtx.sharedMultiprocessingData.closePipe(sentinel);
+                    if (!discarded) {
+                        data.parentCtx.sharedMultiprocessingData.closePipe(sentinel);
+                    }
                 }
             } catch (ThreadDeath td) {
                 // as a result of of TruffleContext.closeCancelled()
@@ -1185,6 +1463,10 @@ public final class PythonContext extends Python3Core {
         return nativeLZMA;
     }
 
+    public NFISQLite3Support getNFISQLite3Support() {
+        return nativeSQLite3;
+    }
+
     public ConcurrentHashMap<Long, Object> getCtypesAdrMap() {
         return ptrAdrMap;
     }
@@ -1466,6 +1748,7 @@ public final class PythonContext extends Python3Core {
         nativeZlib = NFIZlibSupport.createNative(this, "");
         nativeBz2lib = NFIBz2Support.createNative(this, "");
         nativeLZMA = NFILZMASupport.createNative(this, "");
+        nativeSQLite3 = NFISQLite3Support.createNative(this, "");
 
         mainModule = factory().createPythonModule(T___MAIN__);
         mainModule.setAttribute(T___BUILTINS__, getBuiltins());
@@ -1772,7 +2055,10 @@ public final class PythonContext extends Python3Core {
             }
             // shut down async actions threads
             handler.shutdown();
-            finalizing = true;
+            synchronized (childContextPool) {
+                finalizing = true;
+            }
+            disposeChildContextPool();
             // interrupt and join or kill python threads
             joinThreads();
             if (!cancelling) {
@@ -2096,6 +2382,29 @@ public final class PythonContext extends Python3Core {
         globalInterpreterLock.unlock();
     }
 
+    /**
+     * Releases the GIL if another thread requested it and waits until some other thread took it
+     * before acquiring it again. Should not be used outside of {@link AsyncHandler}.
+     */
+    @TruffleBoundary
+    void dropGilOnRequest(Node location) {
+        if (globalInterpreterLock.isDropRequested() && ownsGil()) {
+            long switchNumber = globalInterpreterLock.getSwitchNumber();
+            globalInterpreterLock.countDropRequest();
+            releaseGil();
+            globalInterpreterLock.awaitSwitch(switchNumber);
+            GilNode.getUncached().acquire(this, location);
+        }
+    }
+
+    /**
+     * Returns the GIL usage counters of all live threads. Should be called while holding the GIL.
+     */
+    @TruffleBoundary
+    public GlobalInterpreterLock.GilStats[] getGilStats() {
+        return globalInterpreterLock.getAllStats();
+    }
+
     /**
      * This is like {@code Env#getPublicTruffleFile(String)} but also allows access to files in the
      * language home directory matching one of the given file extensions. This is mostly useful to
@@ -2213,11 +2522,6 @@ public final class PythonContext extends Python3Core {
         getThreadState(getLanguage()).sentinelLock = sentinelLock;
     }
 
-    @TruffleBoundary
-    public void initializeMultiThreading() {
-        handler.activateGIL();
-    }
-
     public synchronized void attachThread(Thread thread, ContextThreadLocal<PythonThreadState> threadState) {
         CompilerAsserts.neverPartOfCompilation();
         threadStateMapping.put(thread, threadState.get(thread));
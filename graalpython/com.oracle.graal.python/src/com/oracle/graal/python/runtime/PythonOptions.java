@@ -149,6 +149,10 @@ public final class PythonOptions {
                     "Equivalent to setting the PYTHONPYCACHEPREFIX environment variable for the standard launcher.", usageSyntax = "<path>", stability = OptionStability.STABLE) //
     public static final OptionKey<TruffleString> PyCachePrefix = new OptionKey<>(T_EMPTY_STRING, TS_OPTION_TYPE);
 
+    @Option(category = OptionCategory.USER, help = "If this is set, the bytecode interpreter caches the compiled code of source files in this directory across runs. " +
+                    "Entries are keyed by the hash of the source content and the interpreter version, so the directory can be shared between processes.", usageSyntax = "<path>") //
+    public static final OptionKey<TruffleString> CodeCacheDirectory = new OptionKey<>(T_EMPTY_STRING, TS_OPTION_TYPE);
+
     @Option(category = OptionCategory.USER, help = "Equivalent to setting the PYTHONWARNINGS environment variable for the standard launcher.", //
                     usageSyntax = "<action>[:<message>[:<category>[:<module>[:<line>]]]][,<action>[:<message>[:<category>[:<module>[:<line>]]]]]", stability = OptionStability.STABLE) //
     public static final OptionKey<TruffleString> WarnOptions = new OptionKey<>(T_EMPTY_STRING, TS_OPTION_TYPE);
@@ -236,6 +240,17 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "") //
     public static final OptionKey<Boolean> ForceInlineGeneratorCalls = new OptionKey<>(false);
 
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "<length>", help = "Minimum length of a list of numbers or strings (or of a list sorted by such keys) to be sorted using multiple threads. 0 disables parallel sorting.") //
+    public static final OptionKey<Integer> ParallelSortThreshold = new OptionKey<>(1 << 16);
+
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "<count>", help = "Number of instances of a class that are allocated before deciding how later instances are laid out. " +
+                    "If the instances were observed to have the same small set of attributes, later ones store them in preallocated fields. 0 disables the compact layout.") //
+    public static final OptionKey<Integer> CompactObjectLayoutThreshold = new OptionKey<>(64);
+
+    @Option(category = OptionCategory.EXPERT, usageSyntax = "<bytes>", help = "Minimum size of a read from a regular file that is done by temporarily mapping the file into memory " +
+                    "instead of calling read(2). Only used with the native POSIX backend. Truncating a file while it is being read this way crashes the process. 0 disables memory-mapped reads, which is the default.") //
+    public static final OptionKey<Integer> MMapReadThreshold = new OptionKey<>(0);
+
     @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Force to automatically import site.py module.") //
     public static final OptionKey<Boolean> ForceImportSite = new OptionKey<>(false);
 
@@ -293,6 +308,13 @@ public final class PythonOptions {
     @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Forces AST sharing for inner contexts.") //
     public static final OptionKey<Boolean> ForceSharingForInnerContexts = new OptionKey<>(true);
 
+    @Option(category = OptionCategory.EXPERT, usageSyntax = "<count>", help = "Number of inner contexts that are created and initialized ahead of time to run the children " +
+                    "spawned by the multiprocessing module. The pool is filled on the first spawn and refilled whenever a context is taken from it. 0 disables the pool.") //
+    public static final OptionKey<Integer> SpawnContextPoolSize = new OptionKey<>(0);
+
+    @Option(category = OptionCategory.EXPERT, usageSyntax = "<module>,<module>,...", help = "Modules imported into the pooled inner contexts (see SpawnContextPoolSize) before they are used.") //
+    public static final OptionKey<String> SpawnContextPoolPreload = new OptionKey<>("multiprocessing.pool");
+
     @EngineOption @Option(category = OptionCategory.USER, usageSyntax = "true|false", help = "Emulate some Jython features that can cause performance degradation") //
     public static final OptionKey<Boolean> EmulateJython = new OptionKey<>(false);
 
@@ -317,6 +339,9 @@ public final class PythonOptions {
     @Option(category = OptionCategory.EXPERT, help = "Enables using bytecode interpreter instead of legacy AST interpreter.") //
     public static final OptionKey<Boolean> EnableBytecodeInterpreter = new OptionKey<>(true);
 
+    @EngineOption @Option(category = OptionCategory.EXPERT, usageSyntax = "true|false", help = "Fuse common bytecode sequences into superinstructions. Default true.") //
+    public static final OptionKey<Boolean> BytecodeSuperinstructions = new OptionKey<>(true);
+
     @Option(category = OptionCategory.EXPERT, help = "Makes bytecode instrumentation node materialization eager instead of lazy.") //
     public static final OptionKey<Boolean> EagerlyMaterializeInstrumentationNodes = new OptionKey<>(false);
 
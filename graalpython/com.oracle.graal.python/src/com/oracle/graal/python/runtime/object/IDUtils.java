@@ -41,7 +41,6 @@
 package com.oracle.graal.python.runtime.object;
 
 import java.math.BigInteger;
-import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -85,11 +84,34 @@ public final class IDUtils {
     public static final long ID_EMPTY_TUPLE = getId(ReservedID.emptyTuple);
     public static final long ID_EMPTY_FROZENSET = getId(ReservedID.emptyFrozenSet);
 
-    private final Map<Object, Long> weakIdMap = Collections.synchronizedMap(new WeakIdentityHashMap<>());
+    /*
+     * Python objects keep their id in a hidden attribute (see ObjectNodes.GetObjectIdNode), only
+     * values that cannot carry one (foreign objects and strings) are tracked in these weak tables.
+     * The tables are striped by hash code, so that threads requesting ids of unrelated values do
+     * not serialize on a single monitor and stale entries are purged per stripe.
+     */
+    private static final int NUM_STRIPES = 16;
+    private static final int STRIPE_MASK = NUM_STRIPES - 1;
+
+    private final Map<Object, Long>[] weakIdMaps;
     // for Python interned strings and Truffle strings
-    private final Map<TruffleString, Long> weakStringIdMap = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<TruffleString, Long>[] weakStringIdMaps;
     private final AtomicLong globalId = new AtomicLong(ID_OFFSET);
 
+    @SuppressWarnings("unchecked")
+    public IDUtils() {
+        weakIdMaps = new Map[NUM_STRIPES];
+        weakStringIdMaps = new Map[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            weakIdMaps[i] = new WeakIdentityHashMap<>();
+            weakStringIdMaps[i] = new WeakHashMap<>();
+        }
+    }
+
+    private static int stripeIndex(int hash) {
+        return (hash ^ (hash >>> 16)) & STRIPE_MASK;
+    }
+
     private static long asMaskedReservedObjectId(long id) {
         assert 0 <= id && id < ID_OFFSET;
         return (id << 2) | ID_MASK_OBJECT;
@@ -145,11 +167,17 @@ public final class IDUtils {
 
     @CompilerDirectives.TruffleBoundary
     public long getNextObjectId(Object object) {
-        return weakIdMap.computeIfAbsent(object, value -> getNextObjectId());
+        Map<Object, Long> map = weakIdMaps[stripeIndex(System.identityHashCode(object))];
+        synchronized (map) {
+            return map.computeIfAbsent(object, value -> getNextObjectId());
+        }
     }
 
     @CompilerDirectives.TruffleBoundary
     public long getNextStringId(TruffleString string) {
-        return weakStringIdMap.computeIfAbsent(string, value -> getNextObjectId());
+        Map<TruffleString, Long> map = weakStringIdMaps[stripeIndex(string.hashCode())];
+        synchronized (map) {
+            return map.computeIfAbsent(string, value -> getNextObjectId());
+        }
     }
 }
@@ -27,6 +27,7 @@ package com.oracle.graal.python.runtime.object;
 
 import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
+import java.security.MessageDigest;
 import java.util.LinkedHashMap;
 import java.util.concurrent.Semaphore;
 
@@ -37,6 +38,9 @@ import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.Python3Core;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.PosixFileHandle;
+import com.oracle.graal.python.builtins.modules.asyncio.PFuture;
+import com.oracle.graal.python.builtins.modules.asyncio.PFutureIter;
+import com.oracle.graal.python.builtins.modules.asyncio.PTask;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2Object;
 import com.oracle.graal.python.builtins.modules.csv.CSVDialect;
 import com.oracle.graal.python.builtins.modules.csv.CSVReader;
@@ -49,6 +53,17 @@ import com.oracle.graal.python.builtins.modules.ctypes.PyCArgObject;
 import com.oracle.graal.python.builtins.modules.ctypes.PyCFuncPtrObject;
 import com.oracle.graal.python.builtins.modules.ctypes.StgDictObject;
 import com.oracle.graal.python.builtins.modules.ctypes.StructParamObject;
+import com.oracle.graal.python.builtins.modules.datetime.PDate;
+import com.oracle.graal.python.builtins.modules.datetime.PDateTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTime;
+import com.oracle.graal.python.builtins.modules.datetime.PTimeDelta;
+import com.oracle.graal.python.builtins.modules.datetime.PTimeZone;
+import com.oracle.graal.python.builtins.modules.decimal.DecimalValue;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimal;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalContext;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalContextManager;
+import com.oracle.graal.python.builtins.modules.decimal.PDecimalSignalDict;
+import com.oracle.graal.python.builtins.modules.hashlib.DigestObject;
 import com.oracle.graal.python.builtins.modules.io.PBuffered;
 import com.oracle.graal.python.builtins.modules.io.PBytesIO;
 import com.oracle.graal.python.builtins.modules.io.PBytesIOBuffer;
@@ -60,7 +75,13 @@ import com.oracle.graal.python.builtins.modules.io.PTextIO;
 import com.oracle.graal.python.builtins.modules.json.PJSONEncoder;
 import com.oracle.graal.python.builtins.modules.json.PJSONEncoder.FastEncode;
 import com.oracle.graal.python.builtins.modules.json.PJSONScanner;
+import com.oracle.graal.python.builtins.modules.json.PJSONStreamDecoder;
 import com.oracle.graal.python.builtins.modules.lzma.LZMAObject;
+import com.oracle.graal.python.builtins.modules.pickle.PPickleBuffer;
+import com.oracle.graal.python.builtins.modules.pickle.PPickler;
+import com.oracle.graal.python.builtins.modules.pickle.PPicklerMemoProxy;
+import com.oracle.graal.python.builtins.modules.pickle.PUnpickler;
+import com.oracle.graal.python.builtins.modules.pickle.PUnpicklerMemoProxy;
 import com.oracle.graal.python.builtins.modules.zlib.ZLibCompObject;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.array.PArray;
@@ -152,6 +173,7 @@ import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.namespace.PSimpleNamespace;
+import com.oracle.graal.python.builtins.objects.object.PythonCompactObject;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.partial.PPartial;
 import com.oracle.graal.python.builtins.objects.posix.PDirEntry;
@@ -161,9 +183,11 @@ import com.oracle.graal.python.builtins.objects.queue.PSimpleQueue;
 import com.oracle.graal.python.builtins.objects.random.PRandom;
 import com.oracle.graal.python.builtins.objects.range.PBigRange;
 import com.oracle.graal.python.builtins.objects.range.PIntRange;
+import com.oracle.graal.python.builtins.objects.re.PMatch;
 import com.oracle.graal.python.builtins.objects.referencetype.PReferenceType;
 import com.oracle.graal.python.builtins.objects.reversed.PSequenceReverseIterator;
 import com.oracle.graal.python.builtins.objects.reversed.PStringReverseIterator;
+import com.oracle.graal.python.builtins.objects.select.PPoll;
 import com.oracle.graal.python.builtins.objects.set.PBaseSet;
 import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
 import com.oracle.graal.python.builtins.objects.set.PSet;
@@ -176,6 +200,9 @@ import com.oracle.graal.python.builtins.objects.ssl.PSSLSocket;
 import com.oracle.graal.python.builtins.objects.ssl.SSLMethod;
 import com.oracle.graal.python.builtins.objects.str.NativeCharSequence;
 import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.struct.PStruct;
+import com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.objects.struct.StructInfo;
 import com.oracle.graal.python.builtins.objects.superobject.SuperObject;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.graal.python.builtins.objects.thread.PRLock;
@@ -328,9 +355,13 @@ public abstract class PythonObjectFactory extends Node {
 
     /**
      * Creates a Python object with the given shape. Python object shapes store the class in the
-     * shape if possible.
+     * shape if possible. Compact shapes (see {@link PythonClass#getAllocationShape()}) are used for
+     * {@link PythonCompactObject} instances.
      */
     public final PythonObject createPythonObject(Object klass, Shape instanceShape) {
+        if (PythonCompactObject.isCompactShape(instanceShape)) {
+            return trace(new PythonCompactObject(klass, instanceShape));
+        }
         return trace(new PythonObject(klass, instanceShape));
     }
 
@@ -1149,6 +1180,14 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PSocket(cls, getShape(cls)));
     }
 
+    /*
+     * Select
+     */
+
+    public final PPoll createPoll(PythonContext context, Object pollSet) {
+        return trace(new PPoll(PythonBuiltinClassType.PPoll, PythonBuiltinClassType.PPoll.getInstanceShape(getLanguage()), context, pollSet));
+    }
+
     /*
      * Threading
      */
@@ -1225,6 +1264,42 @@ public abstract class PythonObjectFactory extends Node {
         return trace(LZMAObject.createCompressor(clazz, getShape(clazz), isNative));
     }
 
+    public final DigestObject createDigestObject(Object clazz, TruffleString name, int blockSize, MessageDigest digest) {
+        return trace(new DigestObject(clazz, getShape(clazz), name, blockSize, digest));
+    }
+
+    public final PStruct createStruct(Object clazz, StructInfo structInfo) {
+        return trace(new PStruct(clazz, getShape(clazz), structInfo));
+    }
+
+    public final PStructUnpackIterator createStructUnpackIterator(StructInfo structInfo, Object buffer, int bufferLength) {
+        return trace(new PStructUnpackIterator(PythonBuiltinClassType.PStructUnpackIterator, getShape(PythonBuiltinClassType.PStructUnpackIterator), structInfo, buffer, bufferLength));
+    }
+
+    public final PPickler createPickler(Object clazz) {
+        return trace(new PPickler(clazz, getShape(clazz)));
+    }
+
+    public final PUnpickler createUnpickler(Object clazz) {
+        return trace(new PUnpickler(clazz, getShape(clazz)));
+    }
+
+    public final PPicklerMemoProxy createPicklerMemoProxy(PPickler pickler) {
+        return trace(new PPicklerMemoProxy(PythonBuiltinClassType.PicklerMemoProxy, getShape(PythonBuiltinClassType.PicklerMemoProxy), pickler));
+    }
+
+    public final PUnpicklerMemoProxy createUnpicklerMemoProxy(PUnpickler unpickler) {
+        return trace(new PUnpicklerMemoProxy(PythonBuiltinClassType.UnpicklerMemoProxy, getShape(PythonBuiltinClassType.UnpicklerMemoProxy), unpickler));
+    }
+
+    public final PPickleBuffer createPickleBuffer(Object clazz, PMemoryView view) {
+        return trace(new PPickleBuffer(clazz, getShape(clazz), view));
+    }
+
+    public final PMatch createMatch(Object pattern, Object string, Object regexResult, int pos, int endpos, int groupCount) {
+        return trace(new PMatch(PythonBuiltinClassType.PMatch, getShape(PythonBuiltinClassType.PMatch), pattern, string, regexResult, pos, endpos, groupCount));
+    }
+
     public final CSVReader createCSVReader(Object clazz, Object inputIter, CSVDialect dialect) {
         return trace(new CSVReader(clazz, getShape(clazz), inputIter, dialect));
     }
@@ -1445,6 +1520,63 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PJSONEncoder(clazz, getShape(clazz), markers, defaultFn, encoder, indent, keySeparator, itemSeparator, sortKeys, skipKeys, allowNan, fastEncode));
     }
 
+    @TruffleBoundary
+    public final PJSONStreamDecoder createJSONStreamDecoder(Object clazz, PJSONScanner scanner, boolean events) {
+        return trace(new PJSONStreamDecoder(clazz, getShape(clazz), scanner, events));
+    }
+
+    public final PFuture createFuture(Object cls) {
+        return trace(new PFuture(cls, getShape(cls)));
+    }
+
+    public final PTask createTask(Object cls) {
+        return trace(new PTask(cls, getShape(cls)));
+    }
+
+    public final PFutureIter createFutureIter(PFuture future) {
+        return trace(new PFutureIter(PythonBuiltinClassType.AsyncioFutureIter, getShape(PythonBuiltinClassType.AsyncioFutureIter), future));
+    }
+
+    public final PTimeDelta createTimeDelta(Object cls, int days, int seconds, int microseconds) {
+        return trace(new PTimeDelta(cls, getShape(cls), days, seconds, microseconds));
+    }
+
+    public final PDate createDate(Object cls, int year, int month, int day) {
+        return trace(new PDate(cls, getShape(cls), year, month, day));
+    }
+
+    public final PDateTime createDateTime(Object cls, int year, int month, int day, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        return trace(new PDateTime(cls, getShape(cls), year, month, day, hour, minute, second, microsecond, tzinfo, fold));
+    }
+
+    public final PTime createTime(Object cls, int hour, int minute, int second, int microsecond, Object tzinfo, int fold) {
+        return trace(new PTime(cls, getShape(cls), hour, minute, second, microsecond, tzinfo, fold));
+    }
+
+    public final PTimeZone createTimeZone(PTimeDelta offset, Object name) {
+        return trace(new PTimeZone(PythonBuiltinClassType.PTimeZone, getShape(PythonBuiltinClassType.PTimeZone), offset, name));
+    }
+
+    public final PDecimal createDecimal(DecimalValue value) {
+        return createDecimal(PythonBuiltinClassType.PDecimal, value);
+    }
+
+    public final PDecimal createDecimal(Object cls, DecimalValue value) {
+        return trace(new PDecimal(cls, getShape(cls), value));
+    }
+
+    public final PDecimalContext createDecimalContext(Object cls) {
+        return trace(new PDecimalContext(cls, getShape(cls)));
+    }
+
+    public final PDecimalSignalDict createDecimalSignalDict(Object cls, PDecimalContext context, boolean traps) {
+        return trace(new PDecimalSignalDict(cls, getShape(cls), context, traps));
+    }
+
+    public final PDecimalContextManager createDecimalContextManager(PDecimalContext local, PDecimalContext global) {
+        return trace(new PDecimalContextManager(PythonBuiltinClassType.PDecimalContextManager, getShape(PythonBuiltinClassType.PDecimalContextManager), local, global));
+    }
+
     public final PDeque createDeque() {
         return trace(new PDeque(PythonBuiltinClassType.PDeque, getShape(PythonBuiltinClassType.PDeque)));
     }
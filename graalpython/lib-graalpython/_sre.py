@@ -49,21 +49,6 @@ def _check_pos(pos):
     if pos > maxsize:
         raise OverflowError('Python int too large to convert to Java int')
 
-def _normalize_bounds(string, pos, endpos):
-    strlen = len(string)
-    if endpos < 0:
-        endpos = 0
-    elif endpos > strlen:
-        endpos = strlen
-    if pos < 0:
-        pos = 0
-    elif pos > endpos:
-        pos = endpos
-    substring = string
-    if endpos != strlen:
-        substring = string[:endpos]
-    return substring, pos, endpos
-
 def _is_bytes_like(object):
     return isinstance(object, (bytes, bytearray, memoryview, array, mmap))
 
@@ -112,126 +97,6 @@ FLAG_NAMES = [
 ]
 
 
-class Match():
-    def __init__(self, pattern, pos, endpos, result, input_str, indexgroup):
-        self.__result = result
-        self.__re = pattern
-        self.__pos = pos
-        self.__endpos = endpos
-        self.__input_str = input_str
-        self.__indexgroup = indexgroup
-
-    def end(self, groupnum=0):
-        idxarg = self.__groupidx(groupnum)
-        return self.__result.getEnd(idxarg)
-
-    def group(self, *args):
-        if not args:
-            return self.__group(0)
-        elif len(args) == 1:
-            return self.__group(args[0])
-        else:
-            lst = []
-            for arg in args:
-                lst.append(self.__group(arg))
-            return tuple(lst)
-
-    def groups(self, default=None):
-        lst = []
-        for arg in range(1, self.__re.groups + 1):
-            lst.append(self.__group(arg, default))
-        return tuple(lst)
-
-    def __getitem__(self, item):
-        return self.__group(item)
-
-    def __class_getitem__(cls, item):
-        import types
-        return types.GenericAlias(cls, item)
-
-    def __groupidx(self, idx):
-        try:
-            if hasattr(idx, '__index__'):
-                int_idx = int(idx)
-                if 0 <= int_idx <= self.__re.groups:
-                    return int_idx
-            else:
-                return self.__re.groupindex[idx]
-        except Exception:
-            pass
-        raise IndexError("no such group")
-
-    def __group(self, idx, default=None):
-        idxarg = self.__groupidx(idx)
-        start = self.__result.getStart(idxarg)
-        if start < 0:
-            return default
-        elif isinstance(self.__input_str, str):
-            return self.__input_str[start:self.__result.getEnd(idxarg)]
-        else:
-            return bytes(self.__input_str[start:self.__result.getEnd(idxarg)])
-
-    def groupdict(self, default=None):
-        groups = self.__re.groupindex
-        if groups:
-            return {name: self.__group(name, default) for name in groups.keys()}
-        return {}
-
-    def span(self, groupnum=0):
-        idxarg = self.__groupidx(groupnum)
-        return self.__result.getStart(idxarg), self.__result.getEnd(idxarg)
-
-    def start(self, groupnum=0):
-        idxarg = self.__groupidx(groupnum)
-        return self.__result.getStart(idxarg)
-
-    def expand(self, template):
-        import re
-        return re._expand(self.__re, self, template)
-
-    @property
-    def regs(self):
-        return tuple(self.span(i) for i in range(self.__re.groups + 1))
-
-    @property
-    def string(self):
-        return self.__input_str
-
-    @property
-    def re(self):
-        return self.__re
-
-    @property
-    def pos(self):
-        return self.__pos
-
-    @property
-    def endpos(self):
-        return self.__endpos
-
-    @property
-    def lastgroup(self):
-        lastindex = self.lastindex
-        if lastindex is not None and self.__indexgroup is not None and lastindex in self.__indexgroup:
-            return self.__indexgroup[lastindex]
-
-    @property
-    def lastindex(self):
-        lastindex = self.__result.lastGroup
-        if lastindex == -1:
-            return None
-        else:
-            return lastindex
-
-    def __repr__(self):
-        return "<%s object; span=%r, match=%r>" % (type(self).__name__, self.span(), self.group())
-
-    def __copy__(self):
-        return self
-
-    def __deepcopy__(self, memo):
-        return self
-
 class Pattern():
     def __init__(self, pattern, flags):
         self.__binary = _is_bytes_like(pattern)
@@ -251,16 +116,13 @@ class Pattern():
             groups = compiled_regex.groups
             if groups is None:
                 self.groupindex = {}
-                self.__indexgroup = {}
             else:
                 group_names = dir(groups)
                 self.groupindex = _mappingproxy({name: getattr(groups, name) for name in group_names})
-                self.__indexgroup = {getattr(groups, name): name for name in group_names}
         else:
             fallback = self.__fallback_compile()
             self.groups = fallback.groups
             self.groupindex = fallback.groupindex
-            self.__indexgroup = {index: name for name, index in fallback.groupindex.items()}
 
     @property
     def flags(self):
@@ -359,14 +221,9 @@ class Pattern():
     def _search(self, string, pos, endpos, method="search", must_advance=False):
         _check_pos(pos)
         self.__check_input_type(string)
-        substring, pos, endpos = _normalize_bounds(string, pos, endpos)
         compiled_regex = self.__tregex_compile(method=method, must_advance=must_advance)
         if compiled_regex is not None:
-            result = tregex_call_exec(compiled_regex.exec, substring, pos)
-            if result.isMatch:
-                return Match(self, pos, endpos, result, string, self.__indexgroup)
-            else:
-                return None
+            return tregex_search(self, compiled_regex, string, pos, endpos)
         else:
             # We cannot pass must_advance to the SRE fallback implementation.
             assert not must_advance
@@ -381,36 +238,26 @@ class Pattern():
     def fullmatch(self, string, pos=0, endpos=maxsize):
         return self._search(string, pos, endpos, method="fullmatch")
 
-    def __sanitize_out_type(self, elem):
-        """Helper function for findall and split. Ensures that the type of the elements of the
-           returned list if always either 'str' or 'bytes'."""
-        if self.__binary:
-            return bytes(elem)
-        elif elem is None:
-            return ""
-        else:
-            return str(elem)
-
     def finditer(self, string, pos=0, endpos=maxsize):
         for must_advance in [False, True]:
             if self.__tregex_compile(must_advance=must_advance) is None:
                 return self.__fallback_compile().finditer(string, pos=pos, endpos=endpos)
         _check_pos(pos)
         self.__check_input_type(string)
-        substring, pos, endpos = _normalize_bounds(string, pos, endpos)
-        return self.__finditer_gen(string, substring, pos, endpos)
+        return self.__finditer_gen(string, pos, endpos)
 
-    def __finditer_gen(self, string, substring, pos, endpos):
+    def __finditer_gen(self, string, pos, endpos):
+        endpos = max(0, min(endpos, len(string)))
+        pos = max(0, min(pos, endpos))
         must_advance = False
         while pos <= endpos:
             compiled_regex = self.__tregex_compile(must_advance=must_advance)
-            result = tregex_call_exec(compiled_regex.exec, substring, pos)
-            if not result.isMatch:
+            match = tregex_search(self, compiled_regex, string, pos, endpos)
+            if match is None:
                 break
-            else:
-                yield Match(self, pos, endpos, result, string, self.__indexgroup)
-            pos = result.getEnd(0)
-            must_advance = (result.getStart(0) == result.getEnd(0))
+            yield match
+            pos = match.end()
+            must_advance = match.start() == pos
         return
 
     def findall(self, string, pos=0, endpos=maxsize):
@@ -419,23 +266,7 @@ class Pattern():
                 return self.__fallback_compile().findall(string, pos=pos, endpos=endpos)
         _check_pos(pos)
         self.__check_input_type(string)
-        substring, pos, endpos = _normalize_bounds(string, pos, endpos)
-        matchlist = []
-        must_advance = False
-        while pos <= endpos:
-            compiled_regex = self.__tregex_compile(must_advance=must_advance)
-            result = tregex_call_exec(compiled_regex.exec, substring, pos)
-            if not result.isMatch:
-                break
-            elif self.groups == 0:
-                matchlist.append(self.__sanitize_out_type(string[result.getStart(0):result.getEnd(0)]))
-            elif self.groups == 1:
-                matchlist.append(self.__sanitize_out_type(string[result.getStart(1):result.getEnd(1)]))
-            else:
-                matchlist.append(tuple(map(self.__sanitize_out_type, Match(self, pos, endpos, result, string, self.__indexgroup).groups())))
-            pos = result.getEnd(0)
-            must_advance = (result.getStart(0) == result.getEnd(0))
-        return matchlist
+        return tregex_findall(self.__tregex_compile(), self.__tregex_compile(must_advance=True), string, pos, endpos)
 
     def sub(self, repl, string, count=0):
         return self.subn(repl, string, count)[0]
@@ -445,76 +276,26 @@ class Pattern():
             if self.__tregex_compile(must_advance=must_advance) is None:
                 return self.__fallback_compile().subn(repl, string, count=count)
         self.__check_input_type(string)
-        n = 0
-        result = []
-        pos = 0
-        literal = False
-        must_advance = False
         if not callable(repl):
             self.__check_input_type(repl)
-            if isinstance(repl, str):
-                literal = '\\' not in repl
-            else:
+            if not isinstance(repl, str):
+                repl = bytes(repl)
                 literal = b'\\' not in repl
-            if not literal:
-                import re
-                repl = re._subx(self, repl)
-                if not callable(repl):
-                    literal = True
-
-        while (count == 0 or n < count) and pos <= len(string):
-            compiled_regex = self.__tregex_compile(must_advance=must_advance)
-            match_result = tregex_call_exec(compiled_regex.exec, string, pos)
-            if not match_result.isMatch:
-                break
-            n += 1
-            start = match_result.getStart(0)
-            end = match_result.getEnd(0)
-            result.append(string[pos:start])
+            else:
+                literal = '\\' not in repl
             if literal:
-                result.append(repl)
+                repl = ((), (repl,))
             else:
-                _srematch = Match(self, pos, -1, match_result, string, self.__indexgroup)
-                _repl = repl(_srematch)
-                result.append(_repl)
-            pos = end
-            must_advance = start == end
-        result.append(string[pos:])
-        if self.__binary:
-            return b"".join(result), n
-        else:
-            return "".join(result), n
+                import re
+                repl = re._compile_repl(repl, self)
+        return tregex_subn(self, self.__tregex_compile(), self.__tregex_compile(must_advance=True), repl, string, count)
 
     def split(self, string, maxsplit=0):
         for must_advance in [False, True]:
             if self.__tregex_compile(must_advance=must_advance) is None:
                 return self.__fallback_compile().split(string, maxsplit=maxsplit)
-        n = 0
-        result = []
-        collect_pos = 0
-        search_pos = 0
-        must_advance = False
-        while (maxsplit == 0 or n < maxsplit) and search_pos <= len(string):
-            compiled_regex = self.__tregex_compile(must_advance=must_advance)
-            match_result = tregex_call_exec(compiled_regex.exec, string, search_pos)
-            if not match_result.isMatch:
-                break
-            n += 1
-            start = match_result.getStart(0)
-            end = match_result.getEnd(0)
-            result.append(self.__sanitize_out_type(string[collect_pos:start]))
-            # add all group strings
-            for i in range(1, self.groups + 1):
-                groupStart = match_result.getStart(i)
-                if groupStart >= 0:
-                    result.append(self.__sanitize_out_type(string[groupStart:match_result.getEnd(i)]))
-                else:
-                    result.append(None)
-            collect_pos = end
-            search_pos = end
-            must_advance = start == end
-        result.append(self.__sanitize_out_type(string[collect_pos:]))
-        return result
+        self.__check_input_type(string)
+        return tregex_split(self.__tregex_compile(), self.__tregex_compile(must_advance=True), string, maxsplit)
 
     def scanner(self, string, pos=0, endpos=maxsize):
         # We cannot pass the must_advance parameter to the internal SRE implementation.
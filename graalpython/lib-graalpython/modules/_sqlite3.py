@@ -37,18 +37,794 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
-# dummy implementation of _sqlite3 module allow "import sqlite3"
+# Implementation of the DB-API 2.0 interface for SQLite on top of the native
+# _sqlite3_support module. Per-row work (binding parameters for executemany and
+# reading result rows) is done in bulk by _sqlite3_support, this module only
+# deals with statements, transactions and Python level conversions.
+
+from _thread import get_ident as _get_ident
+
+try:
+    import _sqlite3_support as _s
+    sqlite_version = _s.libversion()
+except ImportError:
+    _s = None
+    sqlite_version = '3.35.4'
 
 version = '2.6.0'
-sqlite_version = '3.35.4'
 
-class Row(object):
+PARSE_DECLTYPES = 1
+PARSE_COLNAMES = 2
+
+SQLITE_OK = 0
+SQLITE_DENY = 1
+SQLITE_IGNORE = 2
+
+_SQLITE_OPEN_READWRITE = 0x2
+_SQLITE_OPEN_CREATE = 0x4
+_SQLITE_OPEN_URI = 0x40
+
+_SQLITE_ROW = 100
+_SQLITE_DONE = 101
+
+# number of rows read from the native side at once when iterating a cursor
+_FETCH_CHUNK = 128
+
+
+class Warning(Exception):
     pass
 
 
-def register_adapter(t, c):
+class Error(Exception):
     pass
 
 
-def register_converter(t, c):
+class InterfaceError(Error):
+    pass
+
+
+class DatabaseError(Error):
+    pass
+
+
+class DataError(DatabaseError):
+    pass
+
+
+class OperationalError(DatabaseError):
+    pass
+
+
+class IntegrityError(DatabaseError):
+    pass
+
+
+class InternalError(DatabaseError):
+    pass
+
+
+class ProgrammingError(DatabaseError):
+    pass
+
+
+class NotSupportedError(DatabaseError):
+    pass
+
+
+_ERRORS_BY_CODE = {
+    2: InternalError,      # SQLITE_INTERNAL
+    12: InternalError,     # SQLITE_NOTFOUND
+    11: DatabaseError,     # SQLITE_CORRUPT
+    18: DataError,         # SQLITE_TOOBIG
+    19: IntegrityError,    # SQLITE_CONSTRAINT
+    20: IntegrityError,    # SQLITE_MISMATCH
+    21: ProgrammingError,  # SQLITE_MISUSE
+}
+
+
+def _error(db, rc):
+    rc &= 0xff
+    if rc == 7:  # SQLITE_NOMEM
+        return MemoryError()
+    if rc in _ERRORS_BY_CODE:
+        cls = _ERRORS_BY_CODE[rc]
+    elif rc <= 17:
+        cls = OperationalError
+    else:
+        cls = DatabaseError
+    return cls(_s.errmsg(db) if db is not None else "unable to open database file")
+
+
+class PrepareProtocol(object):
     pass
+
+
+adapters = {}
+converters = {}
+_adapt_all = False
+_enable_callback_tracebacks = False
+
+_BASIC_TYPES = (int, float, str, bytearray)
+
+
+def register_adapter(t, c):
+    global _adapt_all
+    if t in _BASIC_TYPES:
+        # adapting the basic types means every parameter has to go through adapt()
+        _adapt_all = True
+    adapters[(t, PrepareProtocol)] = c
+
+
+def register_converter(name, c):
+    converters[name.upper()] = c
+
+
+def adapt(obj, proto=PrepareProtocol, alt=None):
+    adapter = adapters.get((type(obj), proto))
+    if adapter is not None:
+        return adapter(obj)
+    conform = getattr(proto, "__adapt__", None)
+    if conform is not None:
+        adapted = conform(obj)
+        if adapted is not None:
+            return adapted
+    conform = getattr(obj, "__conform__", None)
+    if conform is not None:
+        adapted = conform(proto)
+        if adapted is not None:
+            return adapted
+    if alt is not None:
+        return alt
+    raise ProgrammingError("can't adapt")
+
+
+def _adapt_param(obj):
+    return adapt(obj, PrepareProtocol, obj)
+
+
+def complete_statement(statement):
+    if not isinstance(statement, str):
+        raise TypeError("complete_statement() argument must be str, not %s" % type(statement).__name__)
+    if _s is None:
+        raise NotSupportedError("sqlite3 is not available")
+    return _s.complete_statement(statement)
+
+
+def enable_callback_tracebacks(flag):
+    global _enable_callback_tracebacks
+    _enable_callback_tracebacks = bool(flag)
+
+
+def enable_shared_cache(do_enable):
+    raise NotSupportedError("shared cache is not supported")
+
+
+def connect(database, timeout=5.0, detect_types=0, isolation_level="", check_same_thread=True,
+            factory=None, cached_statements=100, uri=False):
+    if factory is None:
+        factory = Connection
+    return factory(database, timeout, detect_types, isolation_level, check_same_thread, factory,
+                   cached_statements, uri)
+
+
+def _is_dml(sql):
+    return sql.lstrip()[:7].upper().startswith(("INSERT", "UPDATE", "DELETE", "REPLACE"))
+
+
+def _only_comments(sql):
+    sql = sql.strip()
+    while sql:
+        if sql[0] == ";":
+            sql = sql[1:].lstrip()
+        elif sql.startswith("--"):
+            end = sql.find("\n")
+            if end < 0:
+                return True
+            sql = sql[end + 1:].lstrip()
+        elif sql.startswith("/*"):
+            end = sql.find("*/")
+            if end < 0:
+                return True
+            sql = sql[end + 2:].lstrip()
+        else:
+            return False
+    return True
+
+
+class _Statement(object):
+
+    def __init__(self, connection, sql):
+        if not isinstance(sql, str):
+            raise TypeError("operation parameter must be str")
+        data = sql.encode("utf-8", "surrogatepass")
+        rc, stmt, tail = _s.prepare(connection._db, data, 0)
+        if rc != SQLITE_OK:
+            raise _error(connection._db, rc)
+        self.stmt = stmt
+        self.sql = sql
+        self.is_dml = _is_dml(sql)
+        self.in_use = False
+        self.cached = False
+        if tail < len(data) and not _only_comments(data[tail:].decode("utf-8", "surrogatepass")):
+            self.finalize()
+            raise Warning("You can only execute one statement at a time.")
+        if stmt is not None:
+            self.parameter_names = _s.bind_parameter_names(stmt)
+        else:
+            self.parameter_names = ()
+
+    def bind(self, params):
+        if params is None:
+            params = ()
+        params = self.convert_params(params)
+        status = _s.bind(self.stmt, params, _adapt_param, _adapt_all)
+        self.check_bind_status(status, params)
+
+    def convert_params(self, params):
+        if type(params) is tuple or type(params) is list:
+            return params
+        if isinstance(params, dict):
+            values = []
+            for i, name in enumerate(self.parameter_names):
+                if not name:
+                    raise ProgrammingError("Binding %d has no name, but you supplied a dictionary "
+                                           "(which has only names)." % (i + 1))
+                try:
+                    values.append(params[name[1:]])
+                except KeyError:
+                    raise ProgrammingError("You did not supply a value for binding %d." % (i + 1))
+            return values
+        try:
+            return tuple(params)
+        except TypeError:
+            raise ValueError("parameters are of unsupported type")
+
+    def check_bind_status(self, status, params):
+        if status == SQLITE_OK:
+            return
+        if status == _s.BIND_WRONG_COUNT:
+            raise ProgrammingError("Incorrect number of bindings supplied. The current statement uses %d, "
+                                   "and there are %d supplied." % (len(self.parameter_names), len(params)))
+        if status <= _s.BIND_UNSUPPORTED_TYPE:
+            raise InterfaceError("Error binding parameter %d - probably unsupported type."
+                                 % (_s.BIND_UNSUPPORTED_TYPE - status))
+        raise OperationalError("could not bind parameters")
+
+    def reset(self):
+        self.in_use = False
+        if not self.cached:
+            self.finalize()
+        elif self.stmt is not None:
+            _s.reset(self.stmt)
+
+    def finalize(self):
+        stmt = self.stmt
+        self.stmt = None
+        if stmt is not None:
+            _s.finalize(stmt)
+
+
+class Connection(object):
+
+    Warning = Warning
+    Error = Error
+    InterfaceError = InterfaceError
+    DatabaseError = DatabaseError
+    DataError = DataError
+    OperationalError = OperationalError
+    IntegrityError = IntegrityError
+    InternalError = InternalError
+    ProgrammingError = ProgrammingError
+    NotSupportedError = NotSupportedError
+
+    def __init__(self, database, timeout=5.0, detect_types=0, isolation_level="", check_same_thread=True,
+                 factory=None, cached_statements=100, uri=False):
+        self._db = None
+        if _s is None:
+            raise NotSupportedError("sqlite3 is not available")
+        import os
+        database = os.fsdecode(database)
+        flags = _SQLITE_OPEN_READWRITE | _SQLITE_OPEN_CREATE
+        if uri:
+            flags |= _SQLITE_OPEN_URI
+        rc, db = _s.open(database, flags, int(timeout * 1000))
+        if rc != SQLITE_OK:
+            err = _error(db, rc)
+            if db is not None:
+                _s.close(db)
+            raise err
+        self._db = db
+        self._thread_ident = _get_ident()
+        self._check_same_thread = check_same_thread
+        self._statements = {}
+        self._max_statements = cached_statements
+        self._cursors = []
+        self._isolation_level = None
+        self._begin_statement = None
+        self.isolation_level = isolation_level
+        self.detect_types = detect_types
+        self.row_factory = None
+        self.text_factory = str
+
+    def _check(self):
+        if self._check_same_thread and self._thread_ident != _get_ident():
+            raise ProgrammingError("SQLite objects created in a thread can only be used in that same thread. "
+                                   "The object was created in thread id %d and this is thread id %d."
+                                   % (self._thread_ident, _get_ident()))
+        if self._db is None:
+            raise ProgrammingError("Cannot operate on a closed database.")
+
+    def _get_statement(self, sql):
+        statement = self._statements.get(sql)
+        if statement is not None:
+            if not statement.in_use:
+                # keep the cache in LRU order
+                del self._statements[sql]
+                self._statements[sql] = statement
+                return statement
+            # another cursor is still reading from the cached one
+            return _Statement(self, sql)
+        statement = _Statement(self, sql)
+        if self._max_statements > 0:
+            if len(self._statements) >= self._max_statements:
+                oldest = next(iter(self._statements))
+                old = self._statements.pop(oldest)
+                old.cached = False
+                if not old.in_use:
+                    old.finalize()
+            statement.cached = True
+            self._statements[sql] = statement
+        return statement
+
+    def _begin(self):
+        if self._begin_statement is not None and _s.get_autocommit(self._db):
+            self._run(self._begin_statement)
+
+    def _run(self, sql):
+        rc, stmt, tail = _s.prepare(self._db, sql.encode("utf-8"), 0)
+        if rc != SQLITE_OK:
+            raise _error(self._db, rc)
+        try:
+            rc = _s.step(stmt)
+            if rc != _SQLITE_DONE and rc != _SQLITE_ROW:
+                raise _error(self._db, rc)
+        finally:
+            _s.finalize(stmt)
+
+    def _reset_cursors(self):
+        for ref in self._cursors:
+            cursor = ref()
+            if cursor is not None:
+                cursor._reset()
+
+    @property
+    def isolation_level(self):
+        return self._isolation_level
+
+    @isolation_level.setter
+    def isolation_level(self, value):
+        if value is None:
+            if self._db is not None and not _s.get_autocommit(self._db):
+                self.commit()
+            self._begin_statement = None
+        else:
+            if not isinstance(value, str):
+                raise TypeError("isolation_level must be a string or None, not %s" % type(value).__name__)
+            if value.upper() not in ("", "DEFERRED", "IMMEDIATE", "EXCLUSIVE"):
+                raise ValueError("invalid value for isolation_level")
+            self._begin_statement = "BEGIN " + value
+        self._isolation_level = value
+
+    @property
+    def in_transaction(self):
+        self._check()
+        return not _s.get_autocommit(self._db)
+
+    @property
+    def total_changes(self):
+        self._check()
+        return _s.total_changes(self._db)
+
+    def cursor(self, factory=None):
+        self._check()
+        if factory is None:
+            factory = Cursor
+        cursor = factory(self)
+        if not isinstance(cursor, Cursor):
+            raise TypeError("factory must return a cursor, not %s" % type(cursor).__name__)
+        if self.row_factory is not None and cursor.row_factory is None:
+            cursor.row_factory = self.row_factory
+        return cursor
+
+    def execute(self, sql, parameters=None):
+        return self.cursor().execute(sql, parameters)
+
+    def executemany(self, sql, seq_of_parameters):
+        return self.cursor().executemany(sql, seq_of_parameters)
+
+    def executescript(self, sql_script):
+        return self.cursor().executescript(sql_script)
+
+    def commit(self):
+        self._check()
+        if not _s.get_autocommit(self._db):
+            self._run("COMMIT")
+
+    def rollback(self):
+        self._check()
+        if not _s.get_autocommit(self._db):
+            self._reset_cursors()
+            self._run("ROLLBACK")
+
+    def close(self):
+        if self._db is None:
+            return
+        self._check()
+        for statement in self._statements.values():
+            statement.finalize()
+        self._statements.clear()
+        for ref in self._cursors:
+            cursor = ref()
+            if cursor is not None and cursor._statement is not None:
+                cursor._statement.finalize()
+                cursor._statement = None
+        db = self._db
+        self._db = None
+        rc = _s.close(db)
+        if rc != SQLITE_OK:
+            raise OperationalError("could not close the database (%d)" % rc)
+
+    def interrupt(self):
+        if self._db is None:
+            raise ProgrammingError("Cannot operate on a closed database.")
+        _s.interrupt(self._db)
+
+    def iterdump(self):
+        from sqlite3.dump import _iterdump
+        return _iterdump(self)
+
+    def create_function(self, name, num_params, func, *, deterministic=False):
+        raise NotSupportedError("user-defined functions are not supported")
+
+    def create_aggregate(self, name, num_params, aggregate_class):
+        raise NotSupportedError("user-defined aggregates are not supported")
+
+    def create_collation(self, name, callback):
+        raise NotSupportedError("user-defined collations are not supported")
+
+    def set_authorizer(self, authorizer_callback):
+        raise NotSupportedError("authorizers are not supported")
+
+    def set_progress_handler(self, progress_handler, n):
+        raise NotSupportedError("progress handlers are not supported")
+
+    def set_trace_callback(self, trace_callback):
+        raise NotSupportedError("trace callbacks are not supported")
+
+    def enable_load_extension(self, enabled):
+        raise NotSupportedError("extension loading is not supported")
+
+    def load_extension(self, path):
+        raise NotSupportedError("extension loading is not supported")
+
+    def backup(self, target, *, pages=-1, progress=None, name="main", sleep=0.250):
+        raise NotSupportedError("backup is not supported")
+
+    def __call__(self, sql):
+        self._check()
+        return _Statement(self, sql)
+
+    def __enter__(self):
+        return self
+
+    def __exit__(self, exc_type, exc_value, traceback):
+        if exc_type is None:
+            self.commit()
+        else:
+            self.rollback()
+        return False
+
+    def __del__(self):
+        db = self._db
+        if db is not None:
+            self._db = None
+            for statement in self._statements.values():
+                statement.finalize()
+            _s.close(db)
+
+
+class Cursor(object):
+
+    def __init__(self, connection):
+        if not isinstance(connection, Connection):
+            raise TypeError("connection must be a Connection, not %s" % type(connection).__name__)
+        import weakref
+        self.connection = connection
+        self.arraysize = 1
+        self.row_factory = None
+        self.rowcount = -1
+        self.lastrowid = None
+        self.description = None
+        self._statement = None
+        self._rows = []
+        self._pos = 0
+        self._rc = _SQLITE_DONE
+        self._converters = None
+        self._closed = False
+        connection._cursors.append(weakref.ref(self))
+
+    def _check(self):
+        if self._closed:
+            raise ProgrammingError("Cannot operate on a closed cursor.")
+        self.connection._check()
+
+    def _reset(self):
+        statement = self._statement
+        self._statement = None
+        self._rows = []
+        self._pos = 0
+        self._rc = _SQLITE_DONE
+        if statement is not None:
+            statement.reset()
+
+    def _prepare(self, sql):
+        self._check()
+        self._reset()
+        self.description = None
+        self.rowcount = -1
+        connection = self.connection
+        statement = connection._get_statement(sql)
+        if statement.is_dml:
+            connection._begin()
+        return statement
+
+    def _setup_columns(self, statement):
+        names = _s.column_names(statement.stmt)
+        if not names:
+            self._converters = None
+            return
+        detect_types = self.connection.detect_types
+        converters_list = None
+        if detect_types:
+            decltypes = _s.column_decltypes(statement.stmt) if detect_types & PARSE_DECLTYPES else None
+            converters_list = []
+            for i, name in enumerate(names):
+                converter = None
+                if detect_types & PARSE_COLNAMES:
+                    start = name.find("[")
+                    end = name.find("]", start + 1)
+                    if start >= 0 and end > start:
+                        converter = converters.get(name[start + 1:end].upper())
+                if converter is None and decltypes is not None and decltypes[i] is not None:
+                    decltype = decltypes[i]
+                    for j, c in enumerate(decltype):
+                        if c == " " or c == "(":
+                            decltype = decltype[:j]
+                            break
+                    converter = converters.get(decltype.upper())
+                converters_list.append(converter)
+            if all(c is None for c in converters_list):
+                converters_list = None
+        if detect_types & PARSE_COLNAMES:
+            stripped = []
+            for name in names:
+                start = name.find("[")
+                if start >= 0:
+                    name = name[:start].rstrip()
+                stripped.append(name)
+            names = stripped
+        self.description = tuple((name, None, None, None, None, None, None) for name in names)
+        self._converters = converters_list
+
+    def execute(self, sql, parameters=None):
+        statement = self._prepare(sql)
+        connection = self.connection
+        if statement.stmt is None:
+            return self
+        statement.in_use = True
+        self._statement = statement
+        try:
+            statement.bind(parameters)
+            rc = _s.step(statement.stmt)
+        except BaseException:
+            self._reset()
+            raise
+        if rc != _SQLITE_ROW and rc != _SQLITE_DONE:
+            self._reset()
+            raise _error(connection._db, rc)
+        self._setup_columns(statement)
+        if statement.is_dml:
+            self.rowcount = _s.changes(connection._db)
+        self.lastrowid = _s.last_insert_rowid(connection._db)
+        self._rc = rc
+        if rc == _SQLITE_DONE:
+            self._reset()
+        return self
+
+    def executemany(self, sql, seq_of_parameters):
+        statement = self._prepare(sql)
+        connection = self.connection
+        if statement.stmt is None:
+            return self
+        statement.in_use = True
+        try:
+            status, rowcount = _s.executemany(connection._db, statement.stmt, seq_of_parameters,
+                                              statement.convert_params, _adapt_param, _adapt_all)
+        finally:
+            statement.reset()
+        self.lastrowid = None
+        if status == _SQLITE_ROW:
+            raise ProgrammingError("executemany() can only execute DML statements.")
+        if status < 0:
+            statement.check_bind_status(status, ())
+        if status != _SQLITE_DONE:
+            raise _error(connection._db, status)
+        self.rowcount = rowcount if statement.is_dml else -1
+        return self
+
+    def executescript(self, sql_script):
+        self._check()
+        self._reset()
+        if not isinstance(sql_script, str):
+            raise ValueError("script argument must be unicode.")
+        connection = self.connection
+        connection.commit()
+        db = connection._db
+        data = sql_script.encode("utf-8", "surrogatepass")
+        offset = 0
+        while offset < len(data):
+            rc, stmt, offset = _s.prepare(db, data, offset)
+            if rc != SQLITE_OK:
+                raise _error(db, rc)
+            if stmt is None:
+                # only whitespace or comments were left
+                break
+            try:
+                rc = _s.step(stmt)
+                while rc == _SQLITE_ROW:
+                    rc = _s.step(stmt)
+                if rc != _SQLITE_DONE:
+                    raise _error(db, rc)
+            finally:
+                _s.finalize(stmt)
+        return self
+
+    def _fill(self, maxrows):
+        statement = self._statement
+        text_factory = self.connection.text_factory
+        raw = None
+        if self._converters is not None:
+            raw = [c is not None for c in self._converters]
+        rows, rc = _s.fetch(statement.stmt, maxrows, text_factory is not str, raw)
+        if rc != _SQLITE_ROW:
+            self._reset()
+            if rc != _SQLITE_DONE:
+                raise _error(self.connection._db, rc)
+        self._rc = rc
+        if self._converters is not None or (text_factory is not str and text_factory is not bytes) or \
+                self.row_factory is not None:
+            rows = [self._convert_row(row, text_factory) for row in rows]
+        return rows
+
+    def _convert_row(self, row, text_factory):
+        convs = self._converters
+        if convs is not None or (text_factory is not str and text_factory is not bytes):
+            values = list(row)
+            for i, value in enumerate(values):
+                if value is None:
+                    continue
+                if convs is not None and convs[i] is not None:
+                    values[i] = convs[i](value)
+                elif type(value) is bytes and text_factory is not bytes and \
+                        text_factory is not str:
+                    values[i] = text_factory(value)
+            row = tuple(values)
+        if self.row_factory is not None:
+            row = self.row_factory(self, row)
+        return row
+
+    def _available(self):
+        return len(self._rows) - self._pos
+
+    def __iter__(self):
+        return self
+
+    def __next__(self):
+        self._check()
+        if self._pos >= len(self._rows):
+            if self._rc != _SQLITE_ROW:
+                raise StopIteration
+            self._rows = self._fill(_FETCH_CHUNK)
+            self._pos = 0
+            if not self._rows:
+                raise StopIteration
+        row = self._rows[self._pos]
+        self._pos += 1
+        return row
+
+    def fetchone(self):
+        try:
+            return next(self)
+        except StopIteration:
+            return None
+
+    def fetchmany(self, size=None):
+        if size is None:
+            size = self.arraysize
+        self._check()
+        result = self._rows[self._pos:self._pos + size]
+        self._pos += len(result)
+        if len(result) < size and self._rc == _SQLITE_ROW:
+            result.extend(self._fill(size - len(result)))
+        return result
+
+    def fetchall(self):
+        self._check()
+        result = self._rows[self._pos:]
+        self._rows = []
+        self._pos = 0
+        if self._rc == _SQLITE_ROW:
+            result.extend(self._fill(-1))
+        return result
+
+    def close(self):
+        self.connection._check()
+        self._reset()
+        self._closed = True
+
+    def setinputsizes(self, sizes):
+        pass
+
+    def setoutputsize(self, size, column=None):
+        pass
+
+
+class Row(object):
+
+    def __init__(self, cursor, data):
+        if not isinstance(cursor, Cursor):
+            raise TypeError("Row() argument 1 must be sqlite3.Cursor, not %s" % type(cursor).__name__)
+        if not isinstance(data, tuple):
+            raise TypeError("Row() argument 2 must be tuple, not %s" % type(data).__name__)
+        self._description = cursor.description
+        self._data = data
+
+    def keys(self):
+        if self._description is None:
+            return []
+        return [d[0] for d in self._description]
+
+    def __getitem__(self, key):
+        if isinstance(key, str):
+            if self._description is not None:
+                upper = key.upper()
+                for i, d in enumerate(self._description):
+                    if d[0].upper() == upper:
+                        return self._data[i]
+            raise IndexError("No item with that key")
+        return self._data[key]
+
+    def __len__(self):
+        return len(self._data)
+
+    def __iter__(self):
+        return iter(self._data)
+
+    def __eq__(self, other):
+        if not isinstance(other, Row):
+            return NotImplemented
+        return self._description == other._description and self._data == other._data
+
+    def __ne__(self, other):
+        if not isinstance(other, Row):
+            return NotImplemented
+        return not self == other
+
+    def __hash__(self):
+        return hash(self._description) ^ hash(self._data)
+
+    def __repr__(self):
+        return "<sqlite3.Row object at 0x%x>" % id(self)
+
+
+OptimizedUnicode = str
@@ -373,7 +373,7 @@ class Connection(_ConnectionBase):
     def _send(self, buf, write=_write):
         # Begin Truffle change
         if(self._handle < 0):
-            self._send_mp_write(buf.tobytes())
+            self._send_mp_write(buf)
             return
         # End Truffle change
         remaining = len(buf)
@@ -407,7 +407,7 @@ class Connection(_ConnectionBase):
     def _send_bytes(self, buf):
         # Begin Truffle change
         if self._handle < 0:
-            self._send_mp_write(buf.tobytes())
+            self._send_mp_write(buf)
             return
         # End Truffle change
         n = len(buf)
@@ -453,8 +453,9 @@ class Connection(_ConnectionBase):
         chunk = _multiprocessing._read(self._handle, size)
         return io.BytesIO(chunk)
 
-    def _send_mp_write(self, bytes):
-        _multiprocessing._write(self._handle, bytes)
+    def _send_mp_write(self, buf):
+        # buffers of immutable bytes are passed to the reader without copying
+        _multiprocessing._write(self._handle, buf)
     # End Truffle change
 
     def _poll(self, timeout):
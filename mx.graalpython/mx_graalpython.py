@@ -59,13 +59,14 @@ import mx_graalpython_python_benchmarks
 
 from mx_gate import Task
 from mx_graalpython_bench_param import PATH_MESO, BENCHMARKS, WARMUP_BENCHMARKS, JBENCHMARKS, PARSER_BENCHMARKS, \
-    JAVA_DRIVER_BENCHMARKS
+    JAVA_DRIVER_BENCHMARKS, MICRO_JMH_BENCHMARKS
 from mx_graalpython_benchmark import PythonBenchmarkSuite, python_vm_registry, CPythonVm, PyPyVm, JythonVm, \
     GraalPythonVm, \
     CONFIGURATION_DEFAULT, CONFIGURATION_SANDBOXED, CONFIGURATION_NATIVE, \
     CONFIGURATION_DEFAULT_MULTI, CONFIGURATION_SANDBOXED_MULTI, CONFIGURATION_NATIVE_MULTI, \
     CONFIGURATION_DEFAULT_MULTI_TIER, CONFIGURATION_NATIVE_MULTI_TIER, \
     PythonInteropBenchmarkSuite, PythonVmWarmupBenchmarkSuite, PythonParserBenchmarkSuite, \
+    PythonMicroJMHBenchmarkSuite, \
     CONFIGURATION_INTERPRETER, CONFIGURATION_INTERPRETER_MULTI, CONFIGURATION_NATIVE_INTERPRETER, \
     CONFIGURATION_NATIVE_INTERPRETER_MULTI, PythonJavaEmbeddingBenchmarkSuite, python_java_embedding_vm_registry, \
     GraalPythonJavaDriverVm, CONFIGURATION_JAVA_EMBEDDING_INTERPRETER_MULTI_SHARED, \
@@ -1502,15 +1503,9 @@ def import_python_sources(args):
         "unicodedata.c": "_cpython_unicodedata.c",
         "_bz2module.c": "_bz2.c",
         "mmapmodule.c": "_mmap.c",
-        "_struct.c": "_cpython_struct.c",
         "_testcapimodule.c": "_testcapi.c",
     }
-    extra_pypy_files = [
-        "graalpython/lib-python/3/_md5.py",
-        "graalpython/lib-python/3/_sha1.py",
-        "graalpython/lib-python/3/_sha256.py",
-        "graalpython/lib-python/3/_sha512.py",
-    ]
+    extra_pypy_files = []
 
     parser = ArgumentParser(prog='mx python-src-import')
     parser.add_argument('--cpython', action='store', help='Path to CPython sources', required=True)
@@ -1795,6 +1790,8 @@ def _register_bench_suites(namespace):
         mx_benchmark.add_bm_suite(java_bench_suite)
     for parser_bench_suite in PythonParserBenchmarkSuite.get_benchmark_suites(PARSER_BENCHMARKS):
         mx_benchmark.add_bm_suite(parser_bench_suite)
+    for micro_bench_suite in PythonMicroJMHBenchmarkSuite.get_benchmark_suites(MICRO_JMH_BENCHMARKS):
+        mx_benchmark.add_bm_suite(micro_bench_suite)
 
 
 class CharsetFilteringPariticpant:
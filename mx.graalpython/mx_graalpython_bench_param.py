@@ -55,6 +55,7 @@ ITER_15 = ['-i', '15']
 ITER_10 = ['-i', '10']
 ITER_6 = ['-i', '6']
 WARMUP_2 = ['-w', '2']
+WARMUP_10 = ['-w', '10']
 
 MICRO_BENCHMARKS = {
     'arith-binop': ITER_10 + ['5'],
@@ -88,6 +89,7 @@ MICRO_BENCHMARKS = {
     'dict-getitem-sized': ITER_10 + ['50_000_000'],
     'math-sqrt': ITER_10 + ['500000000'],
     'object-allocate': ITER_10 + ['5000'],
+    'id-threads': ITER_10 + ['200_000'],
     'object-layout-change': ITER_10 + ['1000000'],
     'special-add-int-sized': ITER_10 + ['20_000'],
     'special-add-sized': ITER_10 + ['20_000'],
@@ -107,6 +109,7 @@ MICRO_BENCHMARKS = {
     'tuple-indexing-from-literal': ITER_10 + ['10000000'],
     'repeated-import': ITER_10 + ['10000000'],
     'codeobject-interpretation': ITER_10 + ['2000'],
+    'bytecode-superinstructions': ITER_10 + ['1_000_000'],
 }
 
 MICRO_BENCHMARKS_SMALL = {
@@ -119,6 +122,7 @@ MICRO_BENCHMARKS_SMALL = {
     'builtin-len-tuple-sized': ITER_6 + WARMUP_2 + ['10_000_000'],
     'builtin-len': ITER_6 + WARMUP_2 + ['2_500_000'],
     'bytecode-benchmark': ITER_6 + WARMUP_2 + ['500'],
+    'bytecode-superinstructions': ITER_6 + WARMUP_2 + ['50_000'],
     'class-access': ITER_6 + WARMUP_2 + ['40'],
     'call-method-polymorphic': ITER_6 + WARMUP_2 + ['10'],
     'for-range': ITER_6 + WARMUP_2 + WARMUP_2 + ['50'],
@@ -138,6 +142,7 @@ MICRO_BENCHMARKS_SMALL = {
     'dict-getitem-sized': ITER_6 + WARMUP_2 + ['1_000_000'],
     'math-sqrt': ITER_6 + WARMUP_2 + ['20_000_000'],
     'object-allocate': ITER_6 + WARMUP_2 + ['50'],
+    'id-threads': ITER_6 + WARMUP_2 + ['20_000'],
     'object-layout-change': ITER_6 + WARMUP_2 + ['10_000'],
     'special-add-int-sized': ITER_6 + WARMUP_2 + ['1_000'],
     'special-add-sized': ITER_6 + WARMUP_2 + ['1_000'],
@@ -309,6 +314,36 @@ PARSER_JAVA_BENCHMARKS = {
     'deserializing-lib-files': [_PARSER_JAVA_PACKAGE + 'Deserializing'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
 }
 
+_MICRO_JAVA_PACKAGE = 'com.oracle.graal.python.benchmarks.micro.'
+_MICRO_JAVA_BENCHMARKS_COMPILED = {
+    'attribute-instance': ['AttributeLookup.instanceAttribute'],
+    'attribute-mro': ['AttributeLookup.mroAttribute'],
+    'attribute-method-call': ['AttributeLookup.methodCall'],
+    'attribute-store': ['AttributeLookup.attributeStore'],
+    'call-monomorphic': ['CallDispatch.monomorphic'],
+    'call-keywords': ['CallDispatch.keywords'],
+    'call-polymorphic': ['CallDispatch.polymorphic'],
+    'call-builtins': ['CallDispatch.builtins'],
+    'dict-int-keys': ['CollectionOps.dictIntKeys'],
+    'dict-str-keys': ['CollectionOps.dictStrKeys'],
+    'list-append-pop': ['CollectionOps.listAppendPop'],
+    'list-index': ['CollectionOps.listIndex'],
+    'string-join': ['StringBuilding.join'],
+    'string-concat': ['StringBuilding.concat'],
+    'string-formatting': ['StringBuilding.formatting'],
+    'bytecode-arithmetic': ['BytecodeDispatch.arithmetic'],
+    'bytecode-branches': ['BytecodeDispatch.branches'],
+    'bytecode-locals-and-tuples': ['BytecodeDispatch.localsAndTuples'],
+}
+
+# every micro benchmark runs once with compilation and once in the interpreter only, the latter with fewer loop
+# iterations
+MICRO_JAVA_BENCHMARKS = {}
+for _name, (_method,) in _MICRO_JAVA_BENCHMARKS_COMPILED.items():
+    MICRO_JAVA_BENCHMARKS[_name] = [_MICRO_JAVA_PACKAGE + _method + '$'] + ITER_10 + WARMUP_10
+    MICRO_JAVA_BENCHMARKS[_name + '-interpreter'] = [_MICRO_JAVA_PACKAGE + _method + '$'] + ITER_10 + WARMUP_2 + \
+        ['-n', '100000', '-interpreter']
+
 # ----------------------------------------------------------------------------------------------------------------------
 #
 # the benchmarks
@@ -340,3 +375,7 @@ JBENCHMARKS = {
 PARSER_BENCHMARKS = {
     "python-parser" : [PARSER_JAVA_BENCHMARKS],
 }
+
+MICRO_JMH_BENCHMARKS = {
+    "python-micro-jmh": [MICRO_JAVA_BENCHMARKS],
+}
@@ -926,6 +926,9 @@ class PythonInteropBenchmarkSuite(PythonBaseBenchmarkSuite): # pylint: disable=t
     def get_vm_registry(self):
         return java_vm_registry
 
+    def jmh_entry_point(self):
+        return "com.oracle.graal.python.benchmarks.interop.BenchRunner"
+
     def get_bench_name(self, benchmarks):
         return benchmarks[0]
 
@@ -946,7 +949,7 @@ class PythonInteropBenchmarkSuite(PythonBaseBenchmarkSuite): # pylint: disable=t
             "-Dorg.graalvm.language.python.home=%s" % join(SUITE.dir, "graalpython"),
         ]
         vmArgs += mx.get_runtime_jvm_args(dists + ['com.oracle.graal.python.benchmarks'], jdk=mx.get_jdk())
-        jmh_entry = ["com.oracle.graal.python.benchmarks.interop.BenchRunner"]
+        jmh_entry = [self.jmh_entry_point()]
         runArgs = self.runArgs(bmSuiteArgs)
 
         bench_name = benchmarks[0]
@@ -959,6 +962,15 @@ class PythonInteropBenchmarkSuite(PythonBaseBenchmarkSuite): # pylint: disable=t
         return [cls(suite_name, suite_info[0]) for suite_name, suite_info in benchmarks.items()]
 
 
+class PythonMicroJMHBenchmarkSuite(PythonInteropBenchmarkSuite): # pylint: disable=too-many-ancestors
+    """
+    JMH micro benchmarks of interpreter hot paths. Each benchmark exists in a compiled and an interpreter-only
+    variant, see MICRO_JAVA_BENCHMARKS.
+    """
+    def jmh_entry_point(self):
+        return "com.oracle.graal.python.benchmarks.micro.MicroBenchRunner"
+
+
 class PythonVmWarmupBenchmarkSuite(PythonBenchmarkSuite):
     def rules(self, output, benchmarks, bm_suite_args):
         bench_name = self.get_bench_name(benchmarks)
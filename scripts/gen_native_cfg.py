@@ -69,6 +69,7 @@ includes = '''
 # include <netdb.h>
 # include <netinet/in.h>
 # include <netinet/tcp.h>
+# include <poll.h>
 # include <sys/mman.h>
 # include <sys/select.h>
 # include <sys/socket.h>
@@ -339,6 +340,20 @@ u x S_IFCHR
 * i TCP_CONGESTION
 * i TCP_USER_TIMEOUT
 * i TCP_NOTSENT_LOWAT
+
+[pollEvents]
+  x POLLIN
+  x POLLPRI
+  x POLLOUT
+  x POLLERR
+  x POLLHUP
+  x POLLNVAL
+* x POLLRDNORM
+* x POLLRDBAND
+* x POLLWRNORM
+* x POLLWRBAND
+* x POLLMSG
+* x POLLRDHUP
 '''
 
 layout_defs = '''